@@ -49,6 +49,7 @@ import org.apache.pinot.broker.requesthandler.BaseSingleStageBrokerRequestHandle
 import org.apache.pinot.broker.requesthandler.BrokerRequestHandler;
 import org.apache.pinot.broker.requesthandler.BrokerRequestHandlerDelegate;
 import org.apache.pinot.broker.requesthandler.BrokerRequestIdGenerator;
+import org.apache.pinot.broker.requesthandler.BrokerResultCache;
 import org.apache.pinot.broker.requesthandler.GrpcBrokerRequestHandler;
 import org.apache.pinot.broker.requesthandler.MultiStageBrokerRequestHandler;
 import org.apache.pinot.broker.requesthandler.MultiStageQueryThrottler;
@@ -76,6 +77,7 @@ import org.apache.pinot.common.utils.ServiceStartableUtils;
 import org.apache.pinot.common.utils.ServiceStatus;
 import org.apache.pinot.common.utils.config.TagNameUtils;
 import org.apache.pinot.common.utils.helix.HelixHelper;
+import org.apache.pinot.common.utils.request.RequestUtils;
 import org.apache.pinot.common.utils.tls.PinotInsecureMode;
 import org.apache.pinot.common.utils.tls.TlsUtils;
 import org.apache.pinot.common.version.PinotVersion;
@@ -106,6 +108,7 @@ import org.apache.pinot.spi.utils.CommonConstants.Helix;
 import org.apache.pinot.spi.utils.CommonConstants.MultiStageQueryRunner;
 import org.apache.pinot.spi.utils.InstanceTypeUtils;
 import org.apache.pinot.spi.utils.NetUtils;
+import org.apache.pinot.sql.parsers.ParameterizedQueryCache;
 import org.apache.pinot.sql.parsers.rewriter.QueryRewriterFactory;
 import org.apache.pinot.tsdb.spi.PinotTimeSeriesConfiguration;
 import org.slf4j.Logger;
@@ -340,6 +343,7 @@ public abstract class BaseBrokerStarter implements ServiceStartable {
     QueryRewriterFactory.init(_brokerConf.getProperty(Broker.CONFIG_OF_BROKER_QUERY_REWRITER_CLASS_NAMES));
     LOGGER.info("Initializing ResultRewriterFactory");
     ResultRewriterFactory.init(_brokerConf.getProperty(Broker.CONFIG_OF_BROKER_RESULT_REWRITER_CLASS_NAMES));
+    RequestUtils.setParameterizedQueryCache(ParameterizedQueryCache.create(_brokerConf, _brokerMetrics));
     // Initialize FunctionRegistry before starting the broker request handler
     FunctionRegistry.init();
     boolean caseInsensitive =
@@ -397,6 +401,10 @@ public abstract class BaseBrokerStarter implements ServiceStartable {
               _accessControlFactory, _queryQuotaManager, tableCache, nettyDefaults, tlsDefaults,
               _serverRoutingStatsManager, _failureDetector, _resourceUsageAccountant);
     }
+    BrokerResultCache resultCache = singleStageBrokerRequestHandler.getResultCache();
+    if (resultCache != null) {
+      _routingManager.registerRoutingChangeListener(resultCache::invalidate);
+    }
     MultiStageBrokerRequestHandler multiStageBrokerRequestHandler = null;
     QueryDispatcher queryDispatcher = null;
     if (_brokerConf.getProperty(Helix.CONFIG_OF_MULTI_STAGE_ENGINE_ENABLED, Helix.DEFAULT_MULTI_STAGE_ENGINE_ENABLED)) {
@@ -722,6 +730,7 @@ public abstract class BaseBrokerStarter implements ServiceStartable {
     LOGGER.info("Shutting down request handler and broker admin application");
     _brokerRequestHandler.shutDown();
     _brokerAdminApplication.stop();
+    RequestUtils.setParameterizedQueryCache(null);
 
     LOGGER.info("Stopping the broker routing manager");
     _routingManager.stop();
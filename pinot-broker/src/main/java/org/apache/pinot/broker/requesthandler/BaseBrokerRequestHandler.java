@@ -42,6 +42,7 @@ import org.apache.pinot.broker.api.AccessControl;
 import org.apache.pinot.broker.broker.AccessControlFactory;
 import org.apache.pinot.broker.querylog.QueryLogger;
 import org.apache.pinot.broker.queryquota.QueryQuotaManager;
+import org.apache.pinot.common.compression.WireCompressionUtils;
 import org.apache.pinot.common.config.provider.TableCache;
 import org.apache.pinot.common.metrics.BrokerMeter;
 import org.apache.pinot.common.metrics.BrokerMetrics;
@@ -90,6 +91,8 @@ public abstract class BaseBrokerRequestHandler implements BrokerRequestHandler {
   protected final QueryLogger _queryLogger;
   @Nullable
   protected final String _enableNullHandling;
+  // Broker level compression of the responses and data blocks sent over the wire, validated on startup
+  protected final String _wireCompression;
   protected final ThreadResourceUsageAccountant _resourceUsageAccountant;
 
   /**
@@ -120,6 +123,10 @@ public abstract class BaseBrokerRequestHandler implements BrokerRequestHandler {
         Broker.DEFAULT_BROKER_ENABLE_ROW_COLUMN_LEVEL_AUTH);
     _queryLogger = new QueryLogger(config);
     _enableNullHandling = config.getProperty(Broker.CONFIG_OF_BROKER_QUERY_ENABLE_NULL_HANDLING);
+    _wireCompression = config.getProperty(Broker.CONFIG_OF_WIRE_COMPRESSION);
+    if (_wireCompression != null) {
+      WireCompressionUtils.parseCompressionType(_wireCompression);
+    }
 
     boolean enableQueryCancellation =
         Boolean.parseBoolean(config.getProperty(CommonConstants.Broker.CONFIG_OF_BROKER_ENABLE_QUERY_CANCELLATION));
@@ -168,6 +168,8 @@ public abstract class BaseSingleStageBrokerRequestHandler extends BaseBrokerRequ
   protected BlockingQueue<Pair<String, String>> _multistageCompileQueryQueue;
   protected ImplicitHybridTableRouteProvider _implicitHybridTableRouteProvider;
   protected LogicalTableRouteProvider _logicalTableRouteProvider;
+  // Result cache for queries on OFFLINE tables, null when disabled
+  protected final BrokerResultCache _resultCache;
 
   public BaseSingleStageBrokerRequestHandler(PinotConfiguration config, String brokerId,
       BrokerRequestIdGenerator requestIdGenerator, RoutingManager routingManager,
@@ -206,6 +208,7 @@ public abstract class BaseSingleStageBrokerRequestHandler extends BaseBrokerRequ
 
     _implicitHybridTableRouteProvider = new ImplicitHybridTableRouteProvider();
     _logicalTableRouteProvider = new LogicalTableRouteProvider();
+    _resultCache = BrokerResultCache.create(_config, _brokerMetrics);
 
     LOGGER.info("Initialized {} with broker id: {}, timeout: {}ms, query response limit: {}, "
             + "default query limit {}, query log max length: {}, query log max rate: {}, query cancellation "
@@ -247,6 +250,14 @@ public abstract class BaseSingleStageBrokerRequestHandler extends BaseBrokerRequ
     }
   }
 
+  /**
+   * Returns the result cache, or {@code null} if it is disabled.
+   */
+  @Nullable
+  public BrokerResultCache getResultCache() {
+    return _resultCache;
+  }
+
   @VisibleForTesting
   Set<ServerInstance> getRunningServers(long requestId) {
     Preconditions.checkState(isQueryCancellationEnabled(), "Query cancellation is not enabled on broker");
@@ -698,6 +709,19 @@ public abstract class BaseSingleStageBrokerRequestHandler extends BaseBrokerRequ
     // can be expensive.
     Tracing.ThreadAccountantOps.sampleAndCheckInterruption(_resourceUsageAccountant);
 
+    // Look up the result cache for queries on OFFLINE tables which opted in. The cache key must be computed before the
+    // query options are modified below.
+    BrokerResultCache.Key resultCacheKey = null;
+    long resultCacheTtlMs = 0;
+    if (_resultCache != null && logicalTableConfig == null && offlineBrokerRequest != null
+        && realtimeBrokerRequest == null && errorMsgs.isEmpty() && offlineTableQueryConfig != null
+        && offlineTableQueryConfig.getResultCacheTtlMs() != null) {
+      resultCacheTtlMs = offlineTableQueryConfig.getResultCacheTtlMs();
+      resultCacheKey = _resultCache.getKey(offlineTableName, pinotQuery, offlineBrokerRequest.getPinotQuery(),
+          routeInfo.getOfflineRoutingTable());
+    }
+    BrokerResponseNative cachedResponse = resultCacheKey != null ? _resultCache.get(resultCacheKey) : null;
+
     // Set timeout in the requests
     long timeSpentMs = TimeUnit.NANOSECONDS.toMillis(routingEndTimeNs - compilationStartTimeNs);
     // Remaining time in milliseconds for the server query execution
@@ -739,6 +763,7 @@ public abstract class BaseSingleStageBrokerRequestHandler extends BaseBrokerRequ
     if (offlineBrokerRequest != null) {
       Map<String, String> queryOptions = offlineBrokerRequest.getPinotQuery().getQueryOptions();
       setMaxServerResponseSizeBytes(numServers, queryOptions, offlineTableQueryConfig);
+      setWireCompression(queryOptions, offlineTableQueryConfig);
       // Set the query option to directly return final result for single server query unless it is explicitly disabled
       if (numServers == 1) {
         // Set the same flag in the original server request to be used in the reduce phase for hybrid table
@@ -754,6 +779,7 @@ public abstract class BaseSingleStageBrokerRequestHandler extends BaseBrokerRequ
     if (realtimeBrokerRequest != null) {
       Map<String, String> queryOptions = realtimeBrokerRequest.getPinotQuery().getQueryOptions();
       setMaxServerResponseSizeBytes(numServers, queryOptions, realtimeTableQueryConfig);
+      setWireCompression(queryOptions, realtimeTableQueryConfig);
       // Set the query option to directly return final result for single server query unless it is explicitly disabled
       if (numServers == 1) {
         // Set the same flag in the original server request to be used in the reduce phase for hybrid table
@@ -785,7 +811,11 @@ public abstract class BaseSingleStageBrokerRequestHandler extends BaseBrokerRequ
       }
     }
     BrokerResponseNative brokerResponse;
-    if (isQueryCancellationEnabled()) {
+    if (cachedResponse != null) {
+      brokerResponse = cachedResponse;
+      brokerResponse.setClientRequestId(
+          isQueryCancellationEnabled() ? extractClientRequestId(sqlNodeAndOptions) : null);
+    } else if (isQueryCancellationEnabled()) {
       // Start to track the running query for cancellation just before sending it out to servers to avoid any
       // potential failures that could happen before sending it out, like failures to calculate the routing table etc.
       // TODO: Even tracking the query as late as here, a potential race condition between calling cancel API and
@@ -809,6 +839,9 @@ public abstract class BaseSingleStageBrokerRequestHandler extends BaseBrokerRequ
       brokerResponse = processBrokerRequest(requestId, brokerRequest, serverBrokerRequest, routeInfo,
           remainingTimeMs, serverStats, requestContext);
     }
+    if (resultCacheKey != null && cachedResponse == null) {
+      _resultCache.put(resultCacheKey, brokerResponse, resultCacheTtlMs);
+    }
     brokerResponse.setTablesQueried(Set.of(rawTableName));
     brokerResponse.setPools(Stream.concat(
             offlineExecutionServers != null ? offlineExecutionServers.stream() : Stream.empty(),
@@ -2034,6 +2067,29 @@ public abstract class BaseSingleStageBrokerRequestHandler extends BaseBrokerRequ
     }
   }
 
+  /**
+   * Sets the compression of the server responses, with precedence: query option > table config > broker config. The
+   * servers only compress the responses when this query option is set, so that they never send compressed responses to
+   * the brokers that cannot read them.
+   */
+  private void setWireCompression(Map<String, String> queryOptions, @Nullable QueryConfig queryConfig) {
+    // QueryOption
+    if (queryOptions.containsKey(QueryOptionKey.WIRE_COMPRESSION)) {
+      return;
+    }
+
+    // TableConfig
+    if (queryConfig != null && queryConfig.getWireCompression() != null) {
+      queryOptions.put(QueryOptionKey.WIRE_COMPRESSION, queryConfig.getWireCompression());
+      return;
+    }
+
+    // BrokerConfig
+    if (_wireCompression != null) {
+      queryOptions.put(QueryOptionKey.WIRE_COMPRESSION, _wireCompression);
+    }
+  }
+
   /**
    * Broker side validation on the query.
    * <p>Throw exception if query does not pass validation.
@@ -2042,6 +2098,7 @@ public abstract class BaseSingleStageBrokerRequestHandler extends BaseBrokerRequ
    *   <li>Value for 'LIMIT' <= configured value</li>
    *   <li>Query options must be set to SQL mode</li>
    *   <li>Check if numReplicaGroupsToQuery option provided is valid</li>
+   *   <li>Check if wireCompression option provided is valid</li>
    * </ul>
    */
   @VisibleForTesting
@@ -2053,6 +2110,7 @@ public abstract class BaseSingleStageBrokerRequestHandler extends BaseBrokerRequ
           "Value for 'LIMIT' (" + limit + ") exceeds maximum allowed value of " + queryResponseLimit);
     }
     QueryOptionsUtils.getNumReplicaGroupsToQuery(pinotQuery.getQueryOptions());
+    QueryOptionsUtils.getWireCompression(pinotQuery.getQueryOptions());
     if (pinotQuery.getDataSource().getSubquery() != null) {
       validateRequest(pinotQuery.getDataSource().getSubquery(), queryResponseLimit);
     }
@@ -0,0 +1,333 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.broker.requesthandler;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
+import org.apache.pinot.common.metrics.BrokerMeter;
+import org.apache.pinot.common.metrics.BrokerMetrics;
+import org.apache.pinot.common.request.PinotQuery;
+import org.apache.pinot.common.response.broker.BrokerResponseNative;
+import org.apache.pinot.core.routing.SegmentsToQuery;
+import org.apache.pinot.core.transport.ServerInstance;
+import org.apache.pinot.spi.env.PinotConfiguration;
+import org.apache.pinot.spi.utils.CommonConstants.Broker;
+import org.apache.pinot.spi.utils.CommonConstants.Broker.Request.QueryOptionKey;
+import org.apache.pinot.spi.utils.JsonUtils;
+import org.apache.pinot.spi.utils.builder.TableNameBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * The {@code BrokerResultCache} caches the responses of the single-stage queries on OFFLINE tables so that repeated
+ * queries can be answered without querying the servers.
+ * <p>Responses are keyed by the query (without the query options that don't affect the result) and the segments
+ * selected by the routing. A response is served from the cache until its TTL expires, or until the routing of the
+ * table changes, e.g. on external view change or segment refresh, after which all the responses of the table are
+ * invalidated.
+ * <p>Responses are stored serialized, so that each hit returns a new {@link BrokerResponseNative} which can be modified
+ * freely, and the size of the cache is bounded by the total size of the serialized responses.
+ */
+public class BrokerResultCache {
+  private static final Logger LOGGER = LoggerFactory.getLogger(BrokerResultCache.class);
+  // Query options that don't affect the query result
+  private static final List<String> IGNORED_QUERY_OPTIONS =
+      List.of(QueryOptionKey.TIMEOUT_MS, QueryOptionKey.EXTRA_PASSIVE_TIMEOUT_MS,
+          QueryOptionKey.MAX_SERVER_RESPONSE_SIZE_BYTES, QueryOptionKey.MAX_QUERY_RESPONSE_SIZE_BYTES,
+          QueryOptionKey.SERVER_RETURN_FINAL_RESULT, QueryOptionKey.CLIENT_QUERY_ID, QueryOptionKey.WIRE_COMPRESSION);
+
+  private final BrokerMetrics _brokerMetrics;
+  private final long _maxTtlMs;
+  private final Cache<Key, Entry> _cache;
+  // Generation of each table, bumped on each routing change to make the cached responses of the table unreachable
+  private final Map<String, AtomicLong> _tableGenerations = new ConcurrentHashMap<>();
+  // Keys of the cached responses of each table, so that the invalidation only touches the entries of the table. The
+  // key sets are only accessed within the atomic operations of the map.
+  private final Map<String, Set<Key>> _tableKeys = new ConcurrentHashMap<>();
+
+  public BrokerResultCache(long maxSizeBytes, long maxTtlMs, BrokerMetrics brokerMetrics) {
+    _brokerMetrics = brokerMetrics;
+    _maxTtlMs = maxTtlMs;
+    _cache = CacheBuilder.newBuilder()
+        .maximumWeight(maxSizeBytes)
+        .<Key, Entry>weigher((key, entry) -> (int) Math.min(key.getSizeInBytes() + entry._response.length,
+            Integer.MAX_VALUE))
+        .expireAfterWrite(maxTtlMs, TimeUnit.MILLISECONDS)
+        .<Key, Entry>removalListener(notification -> {
+          RemovalCause cause = notification.getCause();
+          if (cause == RemovalCause.SIZE) {
+            _brokerMetrics.addMeteredGlobalValue(BrokerMeter.RESULT_CACHE_EVICTIONS, 1);
+          }
+          // The key is still cached when its entry is replaced
+          Key key = notification.getKey();
+          if (cause != RemovalCause.REPLACED && key != null) {
+            removeTableKey(key);
+          }
+        })
+        .build();
+  }
+
+  /**
+   * Creates the result cache from the broker config, or returns {@code null} if it is disabled.
+   */
+  @Nullable
+  public static BrokerResultCache create(PinotConfiguration config, BrokerMetrics brokerMetrics) {
+    long maxSizeBytes =
+        config.getProperty(Broker.CONFIG_OF_RESULT_CACHE_MAX_SIZE_BYTES, Broker.DEFAULT_RESULT_CACHE_MAX_SIZE_BYTES);
+    if (maxSizeBytes <= 0) {
+      return null;
+    }
+    long maxTtlMs =
+        config.getProperty(Broker.CONFIG_OF_RESULT_CACHE_MAX_TTL_MS, Broker.DEFAULT_RESULT_CACHE_MAX_TTL_MS);
+    LOGGER.info("Initializing broker result cache with max size: {} bytes, max TTL: {}ms", maxSizeBytes, maxTtlMs);
+    return new BrokerResultCache(maxSizeBytes, maxTtlMs, brokerMetrics);
+  }
+
+  /**
+   * Returns the cache key for a query on the given table, or {@code null} if the query should not be cached.
+   *
+   * @param tableNameWithType Name of the table queried
+   * @param pinotQuery Query sent by the user, used to reduce the server responses
+   * @param serverPinotQuery Query sent to the servers
+   * @param routingTable Routing table computed for the query
+   */
+  @Nullable
+  public Key getKey(String tableNameWithType, PinotQuery pinotQuery, PinotQuery serverPinotQuery,
+      Map<ServerInstance, SegmentsToQuery> routingTable) {
+    Map<String, String> queryOptions = pinotQuery.getQueryOptions();
+    if (pinotQuery.isExplain() || (queryOptions != null && Boolean.parseBoolean(
+        queryOptions.get(Broker.Request.TRACE)))) {
+      return null;
+    }
+    List<String> segments = new ArrayList<>();
+    for (SegmentsToQuery segmentsToQuery : routingTable.values()) {
+      segments.addAll(segmentsToQuery.getSegments());
+      List<String> optionalSegments = segmentsToQuery.getOptionalSegments();
+      if (optionalSegments != null) {
+        segments.addAll(optionalSegments);
+      }
+    }
+    String[] sortedSegments = segments.toArray(new String[0]);
+    Arrays.sort(sortedSegments);
+    return new Key(tableNameWithType, getTableGeneration(tableNameWithType).get(), normalize(pinotQuery),
+        serverPinotQuery == pinotQuery ? null : normalize(serverPinotQuery), sortedSegments);
+  }
+
+  private static String normalize(PinotQuery pinotQuery) {
+    Map<String, String> queryOptions = pinotQuery.getQueryOptions();
+    if (queryOptions == null || queryOptions.isEmpty()) {
+      return pinotQuery.toString();
+    }
+    // Sort the query options so that the same options in different order produce the same key
+    Map<String, String> normalizedQueryOptions = new TreeMap<>(queryOptions);
+    for (String ignoredQueryOption : IGNORED_QUERY_OPTIONS) {
+      normalizedQueryOptions.remove(ignoredQueryOption);
+    }
+    PinotQuery normalizedQuery = pinotQuery.deepCopy();
+    normalizedQuery.setQueryOptions(normalizedQueryOptions);
+    return normalizedQuery.toString();
+  }
+
+  /**
+   * Returns a copy of the cached response for the given key, or {@code null} if there is no valid cached response.
+   */
+  @Nullable
+  public BrokerResponseNative get(Key key) {
+    String rawTableName = TableNameBuilder.extractRawTableName(key._tableNameWithType);
+    Entry entry = _cache.getIfPresent(key);
+    if (entry != null && entry._expirationTimeMs < System.currentTimeMillis()) {
+      _cache.invalidate(key);
+      entry = null;
+    }
+    if (entry == null) {
+      _brokerMetrics.addMeteredTableValue(rawTableName, BrokerMeter.RESULT_CACHE_MISSES, 1);
+      return null;
+    }
+    try {
+      BrokerResponseNative response = JsonUtils.bytesToObject(entry._response, BrokerResponseNative.class);
+      _brokerMetrics.addMeteredTableValue(rawTableName, BrokerMeter.RESULT_CACHE_HITS, 1);
+      return response;
+    } catch (Exception e) {
+      LOGGER.warn("Caught exception while deserializing cached response for table: {}", key._tableNameWithType, e);
+      _cache.invalidate(key);
+      _brokerMetrics.addMeteredTableValue(rawTableName, BrokerMeter.RESULT_CACHE_MISSES, 1);
+      return null;
+    }
+  }
+
+  /**
+   * Caches the given response if it is complete, i.e. all the servers responded without any exception, and the
+   * routing of the table did not change since the key was created. The response of a query computed before the
+   * routing change would otherwise be cached after the invalidation of the table, and served until its TTL expires.
+   *
+   * @param key Cache key returned by {@link #getKey}
+   * @param response Response of the query, must not be modified by the caller while being cached
+   * @param ttlMs Time in milliseconds the response can be served from the cache, capped by the max TTL of the cache
+   */
+  public void put(Key key, BrokerResponseNative response, long ttlMs) {
+    if (response.getExceptionsSize() > 0 || response.getNumServersResponded() != response.getNumServersQueried()
+        || response.isPartialResult()) {
+      return;
+    }
+    AtomicLong tableGeneration = getTableGeneration(key._tableNameWithType);
+    if (tableGeneration.get() != key._generation) {
+      return;
+    }
+    byte[] serializedResponse;
+    try {
+      serializedResponse = JsonUtils.objectToBytes(response);
+    } catch (Exception e) {
+      LOGGER.warn("Caught exception while serializing response for table: {}", key._tableNameWithType, e);
+      return;
+    }
+    long expirationTimeMs = System.currentTimeMillis() + Math.min(ttlMs, _maxTtlMs);
+    // Index the key before caching the entry, so that the removal listener always finds the key to remove
+    _tableKeys.compute(key._tableNameWithType, (table, keys) -> {
+      if (keys == null) {
+        keys = new HashSet<>();
+      }
+      keys.add(key);
+      return keys;
+    });
+    Entry entry = new Entry(serializedResponse, expirationTimeMs);
+    _cache.put(key, entry);
+    // The table might be invalidated concurrently. If the generation is bumped before this check, the entry is removed
+    // here; otherwise the invalidation finds the key indexed above and removes the entry.
+    if (tableGeneration.get() != key._generation) {
+      _cache.asMap().remove(key, entry);
+    }
+  }
+
+  private void removeTableKey(Key key) {
+    _tableKeys.computeIfPresent(key._tableNameWithType, (table, keys) -> {
+      keys.remove(key);
+      return keys.isEmpty() ? null : keys;
+    });
+  }
+
+  /**
+   * Invalidates all the cached responses of the given table. Called when the routing of the table changes.
+   */
+  public void invalidate(String tableNameWithType) {
+    getTableGeneration(tableNameWithType).incrementAndGet();
+    Set<Key> keys = _tableKeys.remove(tableNameWithType);
+    if (keys == null) {
+      return;
+    }
+    Map<Key, Entry> cacheMap = _cache.asMap();
+    int numInvalidated = 0;
+    for (Key key : keys) {
+      if (cacheMap.remove(key) != null) {
+        numInvalidated++;
+      }
+    }
+    if (numInvalidated > 0) {
+      _brokerMetrics.addMeteredTableValue(TableNameBuilder.extractRawTableName(tableNameWithType),
+          BrokerMeter.RESULT_CACHE_INVALIDATIONS, 1);
+    }
+  }
+
+  private AtomicLong getTableGeneration(String tableNameWithType) {
+    return _tableGenerations.computeIfAbsent(tableNameWithType, k -> new AtomicLong());
+  }
+
+  @VisibleForTesting
+  long size() {
+    _cache.cleanUp();
+    return _cache.size();
+  }
+
+  public static final class Key {
+    private final String _tableNameWithType;
+    private final long _generation;
+    private final String _query;
+    @Nullable
+    private final String _serverQuery;
+    private final String[] _segments;
+    private final int _hashCode;
+
+    private Key(String tableNameWithType, long generation, String query, @Nullable String serverQuery,
+        String[] segments) {
+      _tableNameWithType = tableNameWithType;
+      _generation = generation;
+      _query = query;
+      _serverQuery = serverQuery;
+      _segments = segments;
+      int hashCode = tableNameWithType.hashCode();
+      hashCode = 31 * hashCode + Long.hashCode(generation);
+      hashCode = 31 * hashCode + query.hashCode();
+      hashCode = 31 * hashCode + (serverQuery != null ? serverQuery.hashCode() : 0);
+      hashCode = 31 * hashCode + Arrays.hashCode(segments);
+      _hashCode = hashCode;
+    }
+
+    private long getSizeInBytes() {
+      // Rough estimation of the size of the strings held by the key, 2 bytes per char
+      long numChars = _query.length() + (_serverQuery != null ? _serverQuery.length() : 0);
+      for (String segment : _segments) {
+        numChars += segment.length();
+      }
+      return 2 * numChars;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key that = (Key) o;
+      return _hashCode == that._hashCode && _generation == that._generation
+          && _tableNameWithType.equals(that._tableNameWithType) && _query.equals(that._query)
+          && Objects.equals(_serverQuery, that._serverQuery) && Arrays.equals(_segments, that._segments);
+    }
+
+    @Override
+    public int hashCode() {
+      return _hashCode;
+    }
+  }
+
+  private static final class Entry {
+    final byte[] _response;
+    final long _expirationTimeMs;
+
+    Entry(byte[] response, long expirationTimeMs) {
+      _response = response;
+      _expirationTimeMs = expirationTimeMs;
+    }
+  }
+}
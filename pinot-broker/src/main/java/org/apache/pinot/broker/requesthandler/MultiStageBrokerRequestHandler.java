@@ -312,6 +312,13 @@ public class MultiStageBrokerRequestHandler extends BaseBrokerRequestHandler {
 
     Timer queryTimer = new Timer(queryTimeoutMs, TimeUnit.MILLISECONDS);
 
+    // Validate the wire compression up front instead of failing the query on the workers
+    try {
+      QueryOptionsUtils.getWireCompression(options);
+    } catch (IllegalArgumentException e) {
+      throw QueryErrorCode.QUERY_VALIDATION.asException(e.getMessage());
+    }
+
     try (QueryEnvironment.CompiledQuery compiledQuery =
         compileQuery(requestId, query, sqlNodeAndOptions, httpHeaders, queryTimer)) {
       AtomicBoolean rlsFiltersApplied = new AtomicBoolean(false);
@@ -488,6 +495,11 @@ public class MultiStageBrokerRequestHandler extends BaseBrokerRequestHandler {
       query.getOptions().putIfAbsent(CommonConstants.Broker.Request.QueryOptionKey.IGNORE_MISSING_SEGMENTS, "true");
     }
 
+    // Optionally compress the data blocks sent between the workers based on broker config if not already set.
+    if (_wireCompression != null) {
+      query.getOptions().putIfAbsent(CommonConstants.Broker.Request.QueryOptionKey.WIRE_COMPRESSION, _wireCompression);
+    }
+
     Set<QueryServerInstance> servers = new HashSet<>();
     for (DispatchablePlanFragment planFragment : dispatchableSubPlan.getQueryStageMap().values()) {
       servers.addAll(planFragment.getServerInstances());
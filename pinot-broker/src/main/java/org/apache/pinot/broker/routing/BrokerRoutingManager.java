@@ -29,6 +29,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -36,6 +37,7 @@ import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
 import javax.annotation.Nullable;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.helix.AccessOption;
@@ -62,6 +64,7 @@ import org.apache.pinot.broker.routing.segmentpruner.SegmentPruner;
 import org.apache.pinot.broker.routing.segmentpruner.SegmentPrunerFactory;
 import org.apache.pinot.broker.routing.segmentselector.SegmentSelector;
 import org.apache.pinot.broker.routing.segmentselector.SegmentSelectorFactory;
+import org.apache.pinot.broker.routing.tablestatistics.TableStatisticsManager;
 import org.apache.pinot.broker.routing.timeboundary.TimeBoundaryManager;
 import org.apache.pinot.common.metadata.ZKMetadataProvider;
 import org.apache.pinot.common.metrics.BrokerMeter;
@@ -73,6 +76,7 @@ import org.apache.pinot.core.routing.RoutingTable;
 import org.apache.pinot.core.routing.SegmentsToQuery;
 import org.apache.pinot.core.routing.TablePartitionInfo;
 import org.apache.pinot.core.routing.TablePartitionReplicatedServersInfo;
+import org.apache.pinot.core.routing.TableStatistics;
 import org.apache.pinot.core.routing.timeboundary.TimeBoundaryInfo;
 import org.apache.pinot.core.routing.timeboundary.TimeBoundaryStrategy;
 import org.apache.pinot.core.routing.timeboundary.TimeBoundaryStrategyService;
@@ -128,7 +132,10 @@ public class BrokerRoutingManager implements RoutingManager, ClusterChangeHandle
   private final ServerRoutingStatsManager _serverRoutingStatsManager;
   private final PinotConfiguration _pinotConfig;
   private final boolean _enablePartitionMetadataManager;
+  private final boolean _enableTableStatistics;
   private final ExecutorService _executorService;
+  // Listeners notified with the table name with type when the routing of a table changes
+  private final List<Consumer<String>> _routingChangeListeners = new CopyOnWriteArrayList<>();
 
   // Global read-write lock for protecting the global data structures such as _enabledServerInstanceMap,
   // _excludedServers, and _routableServers. Write lock must be held if any of these are modified, read lock must be
@@ -163,6 +170,8 @@ public class BrokerRoutingManager implements RoutingManager, ClusterChangeHandle
     _enablePartitionMetadataManager =
         pinotConfig.getProperty(CommonConstants.Broker.CONFIG_OF_ENABLE_PARTITION_METADATA_MANAGER,
             CommonConstants.Broker.DEFAULT_ENABLE_PARTITION_METADATA_MANAGER);
+    _enableTableStatistics = pinotConfig.getProperty(CommonConstants.Broker.CONFIG_OF_ENABLE_TABLE_STATISTICS,
+        CommonConstants.Broker.DEFAULT_ENABLE_TABLE_STATISTICS);
     int processSegmentAssignmentChangeNumThreads =
         pinotConfig.getProperty(CommonConstants.Broker.CONFIG_OF_ROUTING_ASSIGNMENT_CHANGE_PROCESS_PARALLELISM,
             CommonConstants.Broker.DEFAULT_ROUTING_ASSIGNMENT_CHANGE_PROCESS_PARALLELISM);
@@ -180,6 +189,25 @@ public class BrokerRoutingManager implements RoutingManager, ClusterChangeHandle
     _propertyStore = helixManager.getHelixPropertyStore();
   }
 
+  /**
+   * Registers a listener notified with the table name with type whenever the routing of a table changes, i.e. when the
+   * routing is built or removed, when the ideal state or external view of the table changes, or when a segment of the
+   * table is refreshed.
+   */
+  public void registerRoutingChangeListener(Consumer<String> listener) {
+    _routingChangeListeners.add(listener);
+  }
+
+  private void notifyRoutingChange(String tableNameWithType) {
+    for (Consumer<String> listener : _routingChangeListeners) {
+      try {
+        listener.accept(tableNameWithType);
+      } catch (Exception e) {
+        LOGGER.error("Caught exception while notifying routing change for table: {}", tableNameWithType, e);
+      }
+    }
+  }
+
   private Object getRoutingTableBuildLock(String tableNameWithType) {
     String rawTableName = TableNameBuilder.extractRawTableName(tableNameWithType);
     return _routingTableBuildLocks.computeIfAbsent(rawTableName, k -> new Object());
@@ -267,6 +295,7 @@ public class BrokerRoutingManager implements RoutingManager, ClusterChangeHandle
                 externalViewStat.getVersion(), routingEntry);
             if (hasISOrEVVersionChanged) {
               tablesUpdated.add(tableNameWithType);
+              notifyRoutingChange(tableNameWithType);
             }
           }
         }));
@@ -654,6 +683,7 @@ public class BrokerRoutingManager implements RoutingManager, ClusterChangeHandle
     } finally {
       _globalLock.readLock().unlock();
     }
+    notifyRoutingChange(tableNameWithType);
   }
 
   private void buildRoutingInternal(String tableNameWithType) {
@@ -781,6 +811,9 @@ public class BrokerRoutingManager implements RoutingManager, ClusterChangeHandle
         }
       }
 
+      TableStatisticsManager tableStatisticsManager =
+          _enableTableStatistics ? new TableStatisticsManager(tableNameWithType) : null;
+
       QueryConfig queryConfig = tableConfig.getQueryConfig();
       Long queryTimeoutMs = queryConfig != null ? queryConfig.getTimeoutMs() : null;
 
@@ -792,12 +825,16 @@ public class BrokerRoutingManager implements RoutingManager, ClusterChangeHandle
       if (partitionMetadataManager != null) {
         segmentZkMetadataFetcher.register(partitionMetadataManager);
       }
+      if (tableStatisticsManager != null) {
+        segmentZkMetadataFetcher.register(tableStatisticsManager);
+      }
       segmentZkMetadataFetcher.init(idealState, externalView, preSelectedOnlineSegments);
 
       RoutingEntry routingEntry =
           new RoutingEntry(tableNameWithType, idealStatePath, externalViewPath, segmentPreSelector, segmentSelector,
               segmentPruners, instanceSelector, idealStateVersion, externalViewVersion, segmentZkMetadataFetcher,
-              timeBoundaryManager, partitionMetadataManager, queryTimeoutMs, !idealState.isEnabled());
+              timeBoundaryManager, partitionMetadataManager, tableStatisticsManager, queryTimeoutMs,
+              !idealState.isEnabled());
       if (_routingEntryMap.put(tableNameWithType, routingEntry) == null) {
         LOGGER.info("Built routing for table: {}", tableNameWithType);
       } else {
@@ -867,6 +904,7 @@ public class BrokerRoutingManager implements RoutingManager, ClusterChangeHandle
     } finally {
       _globalLock.readLock().unlock();
     }
+    notifyRoutingChange(tableNameWithType);
   }
 
   private void removeRoutingInternal(String tableNameWithType) {
@@ -974,6 +1012,7 @@ public class BrokerRoutingManager implements RoutingManager, ClusterChangeHandle
     } finally {
       _globalLock.readLock().unlock();
     }
+    notifyRoutingChange(tableNameWithType);
   }
 
   private void refreshSegmentInternal(String tableNameWithType, String segment) {
@@ -1136,6 +1175,17 @@ public class BrokerRoutingManager implements RoutingManager, ClusterChangeHandle
     return routingEntry._instanceSelector.getServingInstances();
   }
 
+  @Nullable
+  @Override
+  public TableStatistics getTableStatistics(String tableNameWithType) {
+    RoutingEntry routingEntry = _routingEntryMap.get(tableNameWithType);
+    if (routingEntry == null) {
+      return null;
+    }
+    TableStatisticsManager tableStatisticsManager = routingEntry.getTableStatisticsManager();
+    return tableStatisticsManager != null ? tableStatisticsManager.getTableStatistics() : null;
+  }
+
   /**
    * Returns the table-level query timeout in milliseconds for the given table, or {@code null} if the timeout is not
    * configured in the table config.
@@ -1164,6 +1214,7 @@ public class BrokerRoutingManager implements RoutingManager, ClusterChangeHandle
     final SegmentSelector _segmentSelector;
     final List<SegmentPruner> _segmentPruners;
     final SegmentPartitionMetadataManager _partitionMetadataManager;
+    final TableStatisticsManager _tableStatisticsManager;
     final InstanceSelector _instanceSelector;
     final Long _queryTimeoutMs;
     final SegmentZkMetadataFetcher _segmentZkMetadataFetcher;
@@ -1180,8 +1231,8 @@ public class BrokerRoutingManager implements RoutingManager, ClusterChangeHandle
         SegmentPreSelector segmentPreSelector, SegmentSelector segmentSelector, List<SegmentPruner> segmentPruners,
         InstanceSelector instanceSelector, int lastUpdateIdealStateVersion, int lastUpdateExternalViewVersion,
         SegmentZkMetadataFetcher segmentZkMetadataFetcher, @Nullable TimeBoundaryManager timeBoundaryManager,
-        @Nullable SegmentPartitionMetadataManager partitionMetadataManager, @Nullable Long queryTimeoutMs,
-        boolean disabled) {
+        @Nullable SegmentPartitionMetadataManager partitionMetadataManager,
+        @Nullable TableStatisticsManager tableStatisticsManager, @Nullable Long queryTimeoutMs, boolean disabled) {
       _tableNameWithType = tableNameWithType;
       _idealStatePath = idealStatePath;
       _externalViewPath = externalViewPath;
@@ -1193,6 +1244,7 @@ public class BrokerRoutingManager implements RoutingManager, ClusterChangeHandle
       _lastUpdateExternalViewVersion = lastUpdateExternalViewVersion;
       _timeBoundaryManager = timeBoundaryManager;
       _partitionMetadataManager = partitionMetadataManager;
+      _tableStatisticsManager = tableStatisticsManager;
       _queryTimeoutMs = queryTimeoutMs;
       _segmentZkMetadataFetcher = segmentZkMetadataFetcher;
       _disabled = disabled;
@@ -1224,6 +1276,11 @@ public class BrokerRoutingManager implements RoutingManager, ClusterChangeHandle
       return _partitionMetadataManager;
     }
 
+    @Nullable
+    TableStatisticsManager getTableStatisticsManager() {
+      return _tableStatisticsManager;
+    }
+
     Long getQueryTimeoutMs() {
       return _queryTimeoutMs;
     }
@@ -0,0 +1,276 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.broker.routing.segmentpruner;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nullable;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.helix.model.ExternalView;
+import org.apache.helix.model.IdealState;
+import org.apache.helix.zookeeper.datamodel.ZNRecord;
+import org.apache.pinot.common.request.BrokerRequest;
+import org.apache.pinot.common.request.Expression;
+import org.apache.pinot.common.request.Function;
+import org.apache.pinot.common.request.Identifier;
+import org.apache.pinot.common.request.context.RequestContextUtils;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.apache.pinot.spi.utils.CommonConstants.Query.Range;
+import org.apache.pinot.spi.utils.CommonConstants.Segment;
+import org.apache.pinot.sql.FilterKind;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * The {@code ColumnValueRangeSegmentPruner} prunes segments based on the min/max value of the configured columns
+ * stored in the segment ZK metadata. The pruner supports queries with filter (or nested filter) of EQUALITY, IN and
+ * RANGE predicates. Segments without the value range of a column are never pruned by the predicates on that column.
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class ColumnValueRangeSegmentPruner implements SegmentPruner {
+  private static final Logger LOGGER = LoggerFactory.getLogger(ColumnValueRangeSegmentPruner.class);
+
+  private final String _tableNameWithType;
+  private final Map<String, DataType> _columnDataTypes;
+  private final Map<String, Map<String, ValueRange>> _valueRangesMap = new ConcurrentHashMap<>();
+
+  public ColumnValueRangeSegmentPruner(String tableNameWithType, Map<String, DataType> columnDataTypes) {
+    _tableNameWithType = tableNameWithType;
+    _columnDataTypes = columnDataTypes;
+  }
+
+  @Override
+  public void init(IdealState idealState, ExternalView externalView, List<String> onlineSegments,
+      List<ZNRecord> znRecords) {
+    // Bulk load value ranges for all online segments
+    for (int idx = 0; idx < onlineSegments.size(); idx++) {
+      String segment = onlineSegments.get(idx);
+      Map<String, ValueRange> valueRanges = extractValueRanges(segment, znRecords.get(idx));
+      if (valueRanges != null) {
+        _valueRangesMap.put(segment, valueRanges);
+      }
+    }
+  }
+
+  @Override
+  public synchronized void onAssignmentChange(IdealState idealState, ExternalView externalView,
+      Set<String> onlineSegments, List<String> pulledSegments, List<ZNRecord> znRecords) {
+    // NOTE: We don't update all the segment ZK metadata for every external view change, but only the new added/removed
+    //       ones. The refreshed segment ZK metadata change won't be picked up.
+    for (int idx = 0; idx < pulledSegments.size(); idx++) {
+      String segment = pulledSegments.get(idx);
+      ZNRecord znRecord = znRecords.get(idx);
+      Map<String, ValueRange> valueRanges = extractValueRanges(segment, znRecord);
+      if (valueRanges != null) {
+        _valueRangesMap.putIfAbsent(segment, valueRanges);
+      }
+    }
+    _valueRangesMap.keySet().retainAll(onlineSegments);
+  }
+
+  @Override
+  public synchronized void refreshSegment(String segment, @Nullable ZNRecord znRecord) {
+    Map<String, ValueRange> valueRanges = extractValueRanges(segment, znRecord);
+    if (valueRanges != null) {
+      _valueRangesMap.put(segment, valueRanges);
+    } else {
+      _valueRangesMap.remove(segment);
+    }
+  }
+
+  /**
+   * Extracts the value ranges of the configured columns from the segment ZK metadata, or returns {@code null} if none
+   * of the configured columns has a valid value range.
+   */
+  @Nullable
+  private Map<String, ValueRange> extractValueRanges(String segment, @Nullable ZNRecord znRecord) {
+    if (znRecord == null) {
+      return null;
+    }
+    Map<String, String> minValues = znRecord.getMapField(Segment.COLUMN_MIN_VALUES);
+    Map<String, String> maxValues = znRecord.getMapField(Segment.COLUMN_MAX_VALUES);
+    if (minValues == null || maxValues == null) {
+      return null;
+    }
+    Map<String, ValueRange> valueRanges = new HashMap<>();
+    for (Map.Entry<String, DataType> entry : _columnDataTypes.entrySet()) {
+      String column = entry.getKey();
+      String minValue = minValues.get(column);
+      String maxValue = maxValues.get(column);
+      if (minValue == null || maxValue == null) {
+        continue;
+      }
+      // NOTE: Min/max value in the segment metadata is stored in the stored type
+      DataType storedType = entry.getValue().getStoredType();
+      try {
+        valueRanges.put(column, new ValueRange(storedType.convertInternal(minValue),
+            storedType.convertInternal(maxValue)));
+      } catch (Exception e) {
+        LOGGER.warn("Caught exception while extracting value range for table: {}, segment: {}, column: {}",
+            _tableNameWithType, segment, column, e);
+      }
+    }
+    return !valueRanges.isEmpty() ? valueRanges : null;
+  }
+
+  @Override
+  public Set<String> prune(BrokerRequest brokerRequest, Set<String> segments) {
+    Expression filterExpression = brokerRequest.getPinotQuery().getFilterExpression();
+    if (filterExpression == null) {
+      return segments;
+    }
+    Set<String> selectedSegments = new HashSet<>();
+    for (String segment : segments) {
+      Map<String, ValueRange> valueRanges = _valueRangesMap.get(segment);
+      if (valueRanges == null || isValueRangeMatch(filterExpression, valueRanges)) {
+        selectedSegments.add(segment);
+      }
+    }
+    return selectedSegments;
+  }
+
+  private boolean isValueRangeMatch(Expression filterExpression, Map<String, ValueRange> valueRanges) {
+    Function function = filterExpression.getFunctionCall();
+    if (function == null) {
+      return true;
+    }
+    FilterKind filterKind = FilterKind.valueOf(function.getOperator());
+    List<Expression> operands = function.getOperands();
+    switch (filterKind) {
+      case AND:
+        for (Expression child : operands) {
+          if (!isValueRangeMatch(child, valueRanges)) {
+            return false;
+          }
+        }
+        return true;
+      case OR:
+        for (Expression child : operands) {
+          if (isValueRangeMatch(child, valueRanges)) {
+            return true;
+          }
+        }
+        return false;
+      case EQUALS:
+      case IN:
+      case GREATER_THAN:
+      case GREATER_THAN_OR_EQUAL:
+      case LESS_THAN:
+      case LESS_THAN_OR_EQUAL:
+      case BETWEEN:
+      case RANGE: {
+        Identifier identifier = operands.get(0).getIdentifier();
+        if (identifier == null) {
+          return true;
+        }
+        String column = identifier.getName();
+        ValueRange valueRange = valueRanges.get(column);
+        if (valueRange == null) {
+          return true;
+        }
+        try {
+          return isValueRangeMatch(filterKind, operands, _columnDataTypes.get(column), valueRange);
+        } catch (Exception e) {
+          // Do not prune the segment when the literal cannot be converted to the column type
+          return true;
+        }
+      }
+      default:
+        return true;
+    }
+  }
+
+  private static boolean isValueRangeMatch(FilterKind filterKind, List<Expression> operands, DataType dataType,
+      ValueRange valueRange) {
+    switch (filterKind) {
+      case EQUALS:
+        return valueRange.contains(getValue(operands.get(1), dataType));
+      case IN: {
+        int numOperands = operands.size();
+        for (int i = 1; i < numOperands; i++) {
+          if (valueRange.contains(getValue(operands.get(i), dataType))) {
+            return true;
+          }
+        }
+        return false;
+      }
+      case GREATER_THAN:
+        return valueRange.overlaps(getValue(operands.get(1), dataType), false, null, false);
+      case GREATER_THAN_OR_EQUAL:
+        return valueRange.overlaps(getValue(operands.get(1), dataType), true, null, false);
+      case LESS_THAN:
+        return valueRange.overlaps(null, false, getValue(operands.get(1), dataType), false);
+      case LESS_THAN_OR_EQUAL:
+        return valueRange.overlaps(null, false, getValue(operands.get(1), dataType), true);
+      case BETWEEN:
+        return valueRange.overlaps(getValue(operands.get(1), dataType), true, getValue(operands.get(2), dataType),
+            true);
+      case RANGE: {
+        String rangeString = operands.get(1).getLiteral().getStringValue();
+        int length = rangeString.length();
+        boolean lowerInclusive = rangeString.charAt(0) != Range.LOWER_EXCLUSIVE;
+        boolean upperInclusive = rangeString.charAt(length - 1) != Range.UPPER_EXCLUSIVE;
+        String[] split = StringUtils.split(rangeString.substring(1, length - 1), Range.DELIMITER);
+        Comparable lowerBound = split[0].equals(Range.UNBOUNDED) ? null : dataType.convertInternal(split[0]);
+        Comparable upperBound = split[1].equals(Range.UNBOUNDED) ? null : dataType.convertInternal(split[1]);
+        return valueRange.overlaps(lowerBound, lowerInclusive, upperBound, upperInclusive);
+      }
+      default:
+        return true;
+    }
+  }
+
+  private static Comparable getValue(Expression expression, DataType dataType) {
+    return dataType.convertInternal(RequestContextUtils.getStringValue(expression));
+  }
+
+  private static class ValueRange {
+    final Comparable _minValue;
+    final Comparable _maxValue;
+
+    ValueRange(Comparable minValue, Comparable maxValue) {
+      _minValue = minValue;
+      _maxValue = maxValue;
+    }
+
+    boolean contains(Comparable value) {
+      return _minValue.compareTo(value) <= 0 && _maxValue.compareTo(value) >= 0;
+    }
+
+    boolean overlaps(@Nullable Comparable lowerBound, boolean lowerInclusive, @Nullable Comparable upperBound,
+        boolean upperInclusive) {
+      if (lowerBound != null) {
+        int result = _maxValue.compareTo(lowerBound);
+        if (result < 0 || (result == 0 && !lowerInclusive)) {
+          return false;
+        }
+      }
+      if (upperBound != null) {
+        int result = _minValue.compareTo(upperBound);
+        return result < 0 || (result == 0 && upperInclusive);
+      }
+      return true;
+    }
+  }
+}
@@ -19,10 +19,12 @@
 package org.apache.pinot.broker.routing.segmentpruner;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import javax.annotation.Nullable;
+import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.collections4.MapUtils;
 import org.apache.helix.store.zk.ZkHelixPropertyStore;
 import org.apache.helix.zookeeper.datamodel.ZNRecord;
@@ -35,6 +37,8 @@ import org.apache.pinot.spi.config.table.SegmentsValidationAndRetentionConfig;
 import org.apache.pinot.spi.config.table.TableConfig;
 import org.apache.pinot.spi.config.table.TableType;
 import org.apache.pinot.spi.data.DateTimeFieldSpec;
+import org.apache.pinot.spi.data.FieldSpec;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
 import org.apache.pinot.spi.data.Schema;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -76,10 +80,17 @@ public class SegmentPrunerFactory {
               configuredSegmentPruners.add(timeSegmentPruner);
             }
           }
+          if (RoutingConfig.COLUMN_VALUE_RANGE_SEGMENT_PRUNER_TYPE.equalsIgnoreCase(segmentPrunerType)) {
+            SegmentPruner columnValueRangeSegmentPruner =
+                getColumnValueRangeSegmentPruner(tableConfig, routingConfig, propertyStore);
+            if (columnValueRangeSegmentPruner != null) {
+              configuredSegmentPruners.add(columnValueRangeSegmentPruner);
+            }
+          }
         }
-        // Sort all segment pruners in order of: empty -> time -> partition. We are trying to sort them in a this order
-        // for improving the performance, this order may not be the optimal case -- we need move the pruner that will
-        // potentially prune the most segments to front)
+        // Sort all segment pruners in order of: empty -> time -> partition -> column value range. We are trying to
+        // sort them in a this order for improving the performance, this order may not be the optimal case -- we need
+        // move the pruner that will potentially prune the most segments to front)
         segmentPruners.addAll(sortSegmentPruners(configuredSegmentPruners));
       } else {
         // Handle legacy configs for backward-compatibility
@@ -149,9 +160,42 @@ public class SegmentPrunerFactory {
     return new TimeSegmentPruner(tableConfig, timeFieldSpec);
   }
 
+  @Nullable
+  private static SegmentPruner getColumnValueRangeSegmentPruner(TableConfig tableConfig, RoutingConfig routingConfig,
+      ZkHelixPropertyStore<ZNRecord> propertyStore) {
+    String tableNameWithType = tableConfig.getTableName();
+    List<String> segmentPrunerColumns = routingConfig.getSegmentPrunerColumns();
+    if (CollectionUtils.isEmpty(segmentPrunerColumns)) {
+      LOGGER.warn("Cannot enable column value range pruning without segment pruner columns for table: {}",
+          tableNameWithType);
+      return null;
+    }
+    Schema schema = ZKMetadataProvider.getTableSchema(propertyStore, tableNameWithType);
+    if (schema == null) {
+      LOGGER.warn("Cannot enable column value range pruning without schema for table: {}", tableNameWithType);
+      return null;
+    }
+    Map<String, DataType> columnDataTypes = new HashMap<>();
+    for (String column : segmentPrunerColumns) {
+      FieldSpec fieldSpec = schema.getFieldSpecFor(column);
+      if (fieldSpec == null) {
+        LOGGER.warn("Skipping column value range pruning on column: {} not in the schema for table: {}", column,
+            tableNameWithType);
+        continue;
+      }
+      columnDataTypes.put(column, fieldSpec.getDataType());
+    }
+    if (columnDataTypes.isEmpty()) {
+      return null;
+    }
+    LOGGER.info("Using ColumnValueRangeSegmentPruner on columns: {} for table: {}", columnDataTypes.keySet(),
+        tableNameWithType);
+    return new ColumnValueRangeSegmentPruner(tableNameWithType, columnDataTypes);
+  }
+
   private static List<SegmentPruner> sortSegmentPruners(List<SegmentPruner> pruners) {
     // If there's multiple pruners, always prune empty segments first. After that, pruned based on time range, and
-    // followed by partition pruners.
+    // followed by partition pruners, and column value range pruners at last.
     // Partition pruner run time is proportional to input # of segments while time range pruner is not,
     // Prune based on time range first will have a smaller input size for partition pruners, so have better performance.
     List<SegmentPruner> sortedPruners = new ArrayList<>();
@@ -171,6 +215,11 @@ public class SegmentPrunerFactory {
         sortedPruners.add(pruner);
       }
     }
+    for (SegmentPruner pruner : pruners) {
+      if (pruner instanceof ColumnValueRangeSegmentPruner) {
+        sortedPruners.add(pruner);
+      }
+    }
     return sortedPruners;
   }
 }
@@ -0,0 +1,185 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.broker.routing.tablestatistics;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nullable;
+import org.apache.helix.model.ExternalView;
+import org.apache.helix.model.IdealState;
+import org.apache.helix.zookeeper.datamodel.ZNRecord;
+import org.apache.pinot.broker.routing.segmentmetadata.SegmentZkMetadataFetchListener;
+import org.apache.pinot.common.metadata.segment.SegmentZKMetadata;
+import org.apache.pinot.core.routing.TableStatistics;
+import org.apache.pinot.core.routing.TableStatistics.ColumnStatistics;
+
+
+/**
+ * The {@code TableStatisticsManager} maintains the {@link TableStatistics} of a table based on the segment ZK metadata
+ * of the online segments:
+ * <ul>
+ *   <li>Number of documents: total docs of the segments</li>
+ *   <li>Column cardinality and min/max value: tracked for the columns configured in the routing config (see
+ *   {@code RoutingConfig.getSegmentPrunerColumns()})</li>
+ * </ul>
+ * The statistics are used by the multi-stage query planner to estimate the cost of the query plan.
+ */
+public class TableStatisticsManager implements SegmentZkMetadataFetchListener {
+  private final String _tableNameWithType;
+  private final Map<String, SegmentStatistics> _segmentStatisticsMap = new HashMap<>();
+
+  private volatile TableStatistics _tableStatistics;
+
+  public TableStatisticsManager(String tableNameWithType) {
+    _tableNameWithType = tableNameWithType;
+    _tableStatistics = new TableStatistics(tableNameWithType, 0, Map.of());
+  }
+
+  @Override
+  public void init(IdealState idealState, ExternalView externalView, List<String> onlineSegments,
+      List<ZNRecord> znRecords) {
+    int numSegments = onlineSegments.size();
+    for (int i = 0; i < numSegments; i++) {
+      ZNRecord znRecord = znRecords.get(i);
+      if (znRecord != null) {
+        _segmentStatisticsMap.put(onlineSegments.get(i), extractSegmentStatistics(znRecord));
+      }
+    }
+    computeTableStatistics();
+  }
+
+  @Override
+  public synchronized void onAssignmentChange(IdealState idealState, ExternalView externalView,
+      Set<String> onlineSegments, List<String> pulledSegments, List<ZNRecord> znRecords) {
+    // NOTE: We don't update all the segment ZK metadata for every external view change, but only the new added/removed
+    //       ones. The refreshed segment ZK metadata change won't be picked up.
+    int numSegments = pulledSegments.size();
+    for (int i = 0; i < numSegments; i++) {
+      ZNRecord znRecord = znRecords.get(i);
+      if (znRecord != null) {
+        _segmentStatisticsMap.put(pulledSegments.get(i), extractSegmentStatistics(znRecord));
+      }
+    }
+    _segmentStatisticsMap.keySet().retainAll(onlineSegments);
+    computeTableStatistics();
+  }
+
+  @Override
+  public synchronized void refreshSegment(String segment, @Nullable ZNRecord znRecord) {
+    if (znRecord != null) {
+      _segmentStatisticsMap.put(segment, extractSegmentStatistics(znRecord));
+    } else {
+      _segmentStatisticsMap.remove(segment);
+    }
+    computeTableStatistics();
+  }
+
+  public TableStatistics getTableStatistics() {
+    return _tableStatistics;
+  }
+
+  private static SegmentStatistics extractSegmentStatistics(ZNRecord znRecord) {
+    SegmentZKMetadata segmentZKMetadata = new SegmentZKMetadata(znRecord);
+    Map<String, String> cardinalities = segmentZKMetadata.getColumnCardinalities();
+    Map<String, String> minValues = segmentZKMetadata.getColumnMinValues();
+    Map<String, String> maxValues = segmentZKMetadata.getColumnMaxValues();
+    Map<String, ColumnStatistics> columnStatisticsMap = new HashMap<>();
+    if (cardinalities != null) {
+      for (Map.Entry<String, String> entry : cardinalities.entrySet()) {
+        String column = entry.getKey();
+        columnStatisticsMap.put(column,
+            new ColumnStatistics(parseCardinality(entry.getValue()), parseValue(minValues, column),
+                parseValue(maxValues, column)));
+      }
+    }
+    if (minValues != null) {
+      for (String column : minValues.keySet()) {
+        if (!columnStatisticsMap.containsKey(column)) {
+          columnStatisticsMap.put(column,
+              new ColumnStatistics(ColumnStatistics.UNKNOWN_CARDINALITY, parseValue(minValues, column),
+                  parseValue(maxValues, column)));
+        }
+      }
+    }
+    return new SegmentStatistics(segmentZKMetadata.getTotalDocs(), columnStatisticsMap);
+  }
+
+  private static int parseCardinality(String value) {
+    try {
+      return Integer.parseInt(value);
+    } catch (NumberFormatException e) {
+      return ColumnStatistics.UNKNOWN_CARDINALITY;
+    }
+  }
+
+  /**
+   * Parses the value as double. Returns {@link Double#NaN} when the value is missing or not numeric.
+   */
+  private static double parseValue(@Nullable Map<String, String> values, String column) {
+    String value = values != null ? values.get(column) : null;
+    if (value == null) {
+      return Double.NaN;
+    }
+    try {
+      return Double.parseDouble(value);
+    } catch (NumberFormatException e) {
+      return Double.NaN;
+    }
+  }
+
+  private void computeTableStatistics() {
+    long numDocs = 0;
+    int numSegmentsWithDocs = 0;
+    Map<String, ColumnStatistics> columnStatisticsMap = new HashMap<>();
+    Map<String, Integer> numSegmentsWithColumnMap = new HashMap<>();
+    for (SegmentStatistics segmentStatistics : _segmentStatisticsMap.values()) {
+      // Skip the segments without total docs (e.g. consuming segments)
+      if (segmentStatistics._numDocs <= 0) {
+        continue;
+      }
+      numDocs += segmentStatistics._numDocs;
+      numSegmentsWithDocs++;
+      for (Map.Entry<String, ColumnStatistics> entry : segmentStatistics._columnStatisticsMap.entrySet()) {
+        columnStatisticsMap.merge(entry.getKey(), entry.getValue(), ColumnStatistics::merge);
+        numSegmentsWithColumnMap.merge(entry.getKey(), 1, Integer::sum);
+      }
+    }
+    // Value range is unknown when some segments don't have the value range of the column
+    for (Map.Entry<String, Integer> entry : numSegmentsWithColumnMap.entrySet()) {
+      if (entry.getValue() != numSegmentsWithDocs) {
+        String column = entry.getKey();
+        columnStatisticsMap.put(column,
+            new ColumnStatistics(columnStatisticsMap.get(column).getCardinality(), Double.NaN, Double.NaN));
+      }
+    }
+    _tableStatistics = new TableStatistics(_tableNameWithType, numDocs, columnStatisticsMap);
+  }
+
+  private static class SegmentStatistics {
+    final long _numDocs;
+    final Map<String, ColumnStatistics> _columnStatisticsMap;
+
+    SegmentStatistics(long numDocs, Map<String, ColumnStatistics> columnStatisticsMap) {
+      _numDocs = numDocs;
+      _columnStatisticsMap = columnStatisticsMap;
+    }
+  }
+}
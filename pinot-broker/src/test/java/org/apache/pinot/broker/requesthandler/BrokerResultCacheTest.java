@@ -0,0 +1,189 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.broker.requesthandler;
+
+import java.util.List;
+import java.util.Map;
+import org.apache.pinot.common.metrics.BrokerMeter;
+import org.apache.pinot.common.metrics.BrokerMetrics;
+import org.apache.pinot.common.request.PinotQuery;
+import org.apache.pinot.common.response.broker.BrokerResponseNative;
+import org.apache.pinot.common.response.broker.QueryProcessingException;
+import org.apache.pinot.common.response.broker.ResultTable;
+import org.apache.pinot.common.utils.DataSchema;
+import org.apache.pinot.common.utils.DataSchema.ColumnDataType;
+import org.apache.pinot.core.routing.SegmentsToQuery;
+import org.apache.pinot.core.transport.ServerInstance;
+import org.apache.pinot.spi.exception.QueryErrorCode;
+import org.apache.pinot.sql.parsers.CalciteSqlParser;
+import org.mockito.Mockito;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+
+
+public class BrokerResultCacheTest {
+  private static final String OFFLINE_TABLE_NAME = "testTable_OFFLINE";
+  private static final String QUERY = "SELECT COUNT(*) FROM testTable WHERE col > 10";
+  private static final ServerInstance SERVER_1 = mock(ServerInstance.class);
+  private static final ServerInstance SERVER_2 = mock(ServerInstance.class);
+
+  private BrokerMetrics _brokerMetrics;
+  private BrokerResultCache _resultCache;
+
+  @BeforeMethod
+  public void setUp() {
+    _brokerMetrics = mock(BrokerMetrics.class);
+    _resultCache = new BrokerResultCache(1_000_000L, 60_000L, _brokerMetrics);
+  }
+
+  @Test
+  public void testCacheHitReturnsCopy() {
+    BrokerResultCache.Key key = getKey(QUERY, List.of("seg1", "seg2"), List.of("seg3"));
+    assertNull(_resultCache.get(key));
+    _resultCache.put(key, getResponse(5), 60_000L);
+
+    // Segments are assigned to different servers, and the query options that don't affect the result differ
+    BrokerResultCache.Key sameKey =
+        getKey("SET timeoutMs = 1000; " + QUERY, List.of("seg3", "seg1"), List.of("seg2"));
+    BrokerResponseNative firstHit = _resultCache.get(sameKey);
+    assertNotNull(firstHit);
+    assertEquals(firstHit.getResultTable().getRows().get(0)[0], 5);
+    assertEquals(firstHit.getNumDocsScanned(), 5);
+    firstHit.setResultTable(null);
+    BrokerResponseNative secondHit = _resultCache.get(sameKey);
+    assertNotNull(secondHit);
+    assertNotSame(secondHit, firstHit);
+    assertNotNull(secondHit.getResultTable());
+
+    verify(_brokerMetrics, times(2)).addMeteredTableValue("testTable", BrokerMeter.RESULT_CACHE_HITS, 1);
+    verify(_brokerMetrics, times(1)).addMeteredTableValue("testTable", BrokerMeter.RESULT_CACHE_MISSES, 1);
+  }
+
+  @Test
+  public void testCacheMissOnDifferentQueryOrSegments() {
+    _resultCache.put(getKey(QUERY, List.of("seg1", "seg2"), List.of()), getResponse(5), 60_000L);
+    assertNull(_resultCache.get(getKey(QUERY, List.of("seg1"), List.of())));
+    assertNull(_resultCache.get(getKey(QUERY, List.of("seg1", "seg2", "seg3"), List.of())));
+    assertNull(_resultCache.get(getKey("SELECT COUNT(*) FROM testTable WHERE col > 11", List.of("seg1", "seg2"),
+        List.of())));
+    assertNull(_resultCache.get(getKey("SET enableNullHandling = true; " + QUERY, List.of("seg1", "seg2"),
+        List.of())));
+    assertNotNull(_resultCache.get(getKey(QUERY, List.of("seg1", "seg2"), List.of())));
+  }
+
+  @Test
+  public void testInvalidation() {
+    BrokerResultCache.Key key = getKey(QUERY, List.of("seg1", "seg2"), List.of());
+    _resultCache.put(key, getResponse(5), 60_000L);
+    _resultCache.invalidate("otherTable_OFFLINE");
+    assertNotNull(_resultCache.get(key));
+
+    _resultCache.invalidate(OFFLINE_TABLE_NAME);
+    assertNull(_resultCache.get(key));
+    assertEquals(_resultCache.size(), 0);
+
+    // Responses computed with a key created before the invalidation should not be cached
+    _resultCache.put(key, getResponse(5), 60_000L);
+    assertNull(_resultCache.get(getKey(QUERY, List.of("seg1", "seg2"), List.of())));
+    assertEquals(_resultCache.size(), 0);
+
+    // Invalidation should only be counted when cached responses are removed
+    BrokerResultCache.Key newKey = getKey(QUERY, List.of("seg1", "seg2"), List.of());
+    _resultCache.put(newKey, getResponse(5), 60_000L);
+    assertNotNull(_resultCache.get(newKey));
+    _resultCache.invalidate(OFFLINE_TABLE_NAME);
+    _resultCache.invalidate(OFFLINE_TABLE_NAME);
+    assertEquals(_resultCache.size(), 0);
+    verify(_brokerMetrics, times(2)).addMeteredTableValue("testTable", BrokerMeter.RESULT_CACHE_INVALIDATIONS, 1);
+    verify(_brokerMetrics, never()).addMeteredTableValue("otherTable", BrokerMeter.RESULT_CACHE_INVALIDATIONS, 1);
+  }
+
+  @Test
+  public void testExpiration()
+      throws InterruptedException {
+    BrokerResultCache.Key key = getKey(QUERY, List.of("seg1", "seg2"), List.of());
+    _resultCache.put(key, getResponse(5), 1L);
+    Thread.sleep(10L);
+    assertNull(_resultCache.get(key));
+  }
+
+  @Test
+  public void testIncompleteResponsesNotCached() {
+    BrokerResultCache.Key key = getKey(QUERY, List.of("seg1", "seg2"), List.of());
+    BrokerResponseNative responseWithException = getResponse(5);
+    responseWithException.addException(new QueryProcessingException(QueryErrorCode.SERVER_SEGMENT_MISSING, "missing"));
+    _resultCache.put(key, responseWithException, 60_000L);
+    assertNull(_resultCache.get(key));
+
+    BrokerResponseNative partialResponse = getResponse(5);
+    partialResponse.setNumServersResponded(1);
+    _resultCache.put(key, partialResponse, 60_000L);
+    assertNull(_resultCache.get(key));
+  }
+
+  @Test
+  public void testNotCacheableQueries() {
+    Map<ServerInstance, SegmentsToQuery> routingTable = Map.of(SERVER_1, new SegmentsToQuery(List.of("seg1"), null));
+    PinotQuery explainQuery = CalciteSqlParser.compileToPinotQuery("EXPLAIN PLAN FOR " + QUERY);
+    assertNull(_resultCache.getKey(OFFLINE_TABLE_NAME, explainQuery, explainQuery, routingTable));
+    PinotQuery traceQuery = CalciteSqlParser.compileToPinotQuery("SET trace = true; " + QUERY);
+    assertNull(_resultCache.getKey(OFFLINE_TABLE_NAME, traceQuery, traceQuery, routingTable));
+  }
+
+  @Test
+  public void testEviction() {
+    BrokerResultCache resultCache = new BrokerResultCache(2_000L, 60_000L, _brokerMetrics);
+    for (int i = 0; i < 10; i++) {
+      resultCache.put(getKey(QUERY + " AND col2 = " + i, List.of("seg1"), List.of()), getResponse(i), 60_000L);
+    }
+    assertEquals(resultCache.size() < 10, true);
+    verify(_brokerMetrics, Mockito.atLeastOnce()).addMeteredGlobalValue(eq(BrokerMeter.RESULT_CACHE_EVICTIONS),
+        anyLong());
+  }
+
+  private BrokerResultCache.Key getKey(String query, List<String> server1Segments, List<String> server2Segments) {
+    PinotQuery pinotQuery = CalciteSqlParser.compileToPinotQuery(query);
+    BrokerResultCache.Key key = _resultCache.getKey(OFFLINE_TABLE_NAME, pinotQuery, pinotQuery,
+        Map.of(SERVER_1, new SegmentsToQuery(server1Segments, null), SERVER_2,
+            new SegmentsToQuery(server2Segments, null)));
+    assertNotNull(key);
+    return key;
+  }
+
+  private static BrokerResponseNative getResponse(int count) {
+    BrokerResponseNative response = new BrokerResponseNative();
+    response.setResultTable(new ResultTable(new DataSchema(new String[]{"count(*)"},
+        new ColumnDataType[]{ColumnDataType.LONG}), List.<Object[]>of(new Object[]{count})));
+    response.setNumDocsScanned(count);
+    response.setNumServersQueried(2);
+    response.setNumServersResponded(2);
+    return response;
+  }
+}
@@ -167,6 +167,14 @@ public class QueryValidationTest {
         () -> BaseSingleStageBrokerRequestHandler.validateRequest(pinotQuery, 10));
   }
 
+  @Test
+  public void testWireCompressionInvalidQuery() {
+    testUnsupportedQuery("SET wireCompression='gzip'; SELECT COUNT(*) FROM MY_TABLE",
+        "Unsupported wire compression: gzip, supported: LZ4, ZSTD, NONE");
+    BaseSingleStageBrokerRequestHandler.validateRequest(
+        CalciteSqlParser.compileToPinotQuery("SET wireCompression='zstd'; SELECT COUNT(*) FROM MY_TABLE"), 10);
+  }
+
   private void testValidateGroovyQuery(String query, boolean queryContainsGroovy) {
     PinotQuery pinotQuery = CalciteSqlParser.compileToPinotQuery(query);
 
@@ -27,6 +27,7 @@ import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import org.apache.helix.AccessOption;
 import org.apache.helix.manager.zk.ZkBaseDataAccessor;
 import org.apache.helix.model.ExternalView;
 import org.apache.helix.model.IdealState;
@@ -672,6 +673,112 @@ public class SegmentPrunerTest extends ControllerTest {
     assertEquals(segmentPruner.prune(brokerRequest1, onlineSegments), Set.of(segment0));
   }
 
+  @Test
+  public void testColumnValueRangeSegmentPruner() {
+    BrokerRequest brokerRequest1 = CalciteSqlCompiler.compileToBrokerRequest(QUERY_1);
+    BrokerRequest brokerRequest2 = CalciteSqlCompiler.compileToBrokerRequest(QUERY_2);
+    BrokerRequest brokerRequest3 = CalciteSqlCompiler.compileToBrokerRequest(QUERY_3);
+    BrokerRequest brokerRequest4 = CalciteSqlCompiler.compileToBrokerRequest(QUERY_4);
+    BrokerRequest brokerRequest5 =
+        CalciteSqlCompiler.compileToBrokerRequest("SELECT * FROM testTable WHERE memberId > 15");
+    BrokerRequest brokerRequest6 =
+        CalciteSqlCompiler.compileToBrokerRequest("SELECT * FROM testTable WHERE memberId BETWEEN 5 AND 10");
+    BrokerRequest brokerRequest7 = CalciteSqlCompiler.compileToBrokerRequest(
+        "SELECT * FROM testTable WHERE memberId < 5 OR memberName >= 'm'");
+    BrokerRequest brokerRequest8 =
+        CalciteSqlCompiler.compileToBrokerRequest("SELECT * FROM testTable WHERE NOT memberId = 0");
+
+    // NOTE: Ideal state and external view are not used in the current implementation
+    IdealState idealState = Mockito.mock(IdealState.class);
+    ExternalView externalView = Mockito.mock(ExternalView.class);
+
+    ColumnValueRangeSegmentPruner segmentPruner = new ColumnValueRangeSegmentPruner(OFFLINE_TABLE_NAME,
+        Map.of(PARTITION_COLUMN_1, DataType.INT, PARTITION_COLUMN_2, DataType.STRING));
+    SegmentZkMetadataFetcher segmentZkMetadataFetcher = new SegmentZkMetadataFetcher(OFFLINE_TABLE_NAME,
+        _propertyStore);
+    segmentZkMetadataFetcher.register(segmentPruner);
+    Set<String> onlineSegments = new HashSet<>();
+    segmentZkMetadataFetcher.init(idealState, externalView, onlineSegments);
+
+    // Segments without metadata should not be pruned
+    String newSegment = "newSegment";
+    onlineSegments.add(newSegment);
+    segmentZkMetadataFetcher.onAssignmentChange(idealState, externalView, onlineSegments);
+    Set<String> input = Set.of(newSegment);
+    assertEquals(segmentPruner.prune(brokerRequest2, input), input);
+    assertEquals(segmentPruner.prune(brokerRequest5, input), input);
+
+    String segment0 = "segment0";
+    setSegmentZKColumnValueRanges(OFFLINE_TABLE_NAME, segment0, Map.of(PARTITION_COLUMN_1, "0", PARTITION_COLUMN_2,
+        "abc"), Map.of(PARTITION_COLUMN_1, "3", PARTITION_COLUMN_2, "xyz"));
+    onlineSegments.add(segment0);
+    String segment1 = "segment1";
+    setSegmentZKColumnValueRanges(OFFLINE_TABLE_NAME, segment1, Map.of(PARTITION_COLUMN_1, "8", PARTITION_COLUMN_2,
+        "a"), Map.of(PARTITION_COLUMN_1, "20", PARTITION_COLUMN_2, "f"));
+    onlineSegments.add(segment1);
+    // Segment with value range for only one of the columns
+    String segment2 = "segment2";
+    setSegmentZKColumnValueRanges(OFFLINE_TABLE_NAME, segment2, Map.of(PARTITION_COLUMN_2, "n"),
+        Map.of(PARTITION_COLUMN_2, "p"));
+    onlineSegments.add(segment2);
+    segmentZkMetadataFetcher.onAssignmentChange(idealState, externalView, onlineSegments);
+    input = Set.of(segment0, segment1, segment2);
+    assertEquals(segmentPruner.prune(brokerRequest1, input), input);
+    assertEquals(segmentPruner.prune(brokerRequest2, input), Set.of(segment0, segment2));
+    assertEquals(segmentPruner.prune(brokerRequest3, input), Set.of(segment0, segment2));
+    assertEquals(segmentPruner.prune(brokerRequest4, input), Set.of(segment0));
+    assertEquals(segmentPruner.prune(brokerRequest5, input), Set.of(segment1, segment2));
+    assertEquals(segmentPruner.prune(brokerRequest6, input), Set.of(segment1, segment2));
+    assertEquals(segmentPruner.prune(brokerRequest7, input), Set.of(segment0, segment2));
+    assertEquals(segmentPruner.prune(brokerRequest8, input), input);
+
+    // Update metadata without external view change or refreshing should have no effect
+    setSegmentZKColumnValueRanges(OFFLINE_TABLE_NAME, segment1, Map.of(PARTITION_COLUMN_1, "0"),
+        Map.of(PARTITION_COLUMN_1, "1"));
+    assertEquals(segmentPruner.prune(brokerRequest2, input), Set.of(segment0, segment2));
+
+    // Refresh the changed segment should update the segment pruner
+    segmentZkMetadataFetcher.refreshSegment(segment1);
+    assertEquals(segmentPruner.prune(brokerRequest2, input), input);
+    assertEquals(segmentPruner.prune(brokerRequest5, input), Set.of(segment2));
+  }
+
+  @Test
+  public void testSegmentPrunerFactoryForColumnValueRangePruner() {
+    TableConfig tableConfig =
+        new TableConfigBuilder(TableType.OFFLINE).setTableName(RAW_TABLE_NAME).setTimeColumnName(TIME_COLUMN).build();
+
+    // Missing segment pruner columns
+    tableConfig.setRoutingConfig(new RoutingConfig(null,
+        List.of(RoutingConfig.COLUMN_VALUE_RANGE_SEGMENT_PRUNER_TYPE), null, false));
+    assertEquals(SegmentPrunerFactory.getSegmentPruners(tableConfig, _propertyStore).size(), 0);
+
+    // Missing schema
+    tableConfig.setRoutingConfig(new RoutingConfig(null,
+        List.of(RoutingConfig.COLUMN_VALUE_RANGE_SEGMENT_PRUNER_TYPE, RoutingConfig.TIME_SEGMENT_PRUNER_TYPE), null,
+        false, List.of(PARTITION_COLUMN_1)));
+    assertEquals(SegmentPrunerFactory.getSegmentPruners(tableConfig, _propertyStore).size(), 0);
+
+    // Should be sorted after the time segment pruner
+    ZKMetadataProvider.setSchema(_propertyStore, new Schema.SchemaBuilder().setSchemaName(RAW_TABLE_NAME)
+        .addSingleValueDimension(PARTITION_COLUMN_1, DataType.INT)
+        .addDateTimeField(TIME_COLUMN, DataType.LONG, "EPOCH|MILLISECONDS", "1:MILLISECONDS")
+        .build());
+    List<SegmentPruner> segmentPruners = SegmentPrunerFactory.getSegmentPruners(tableConfig, _propertyStore);
+    assertEquals(segmentPruners.size(), 2);
+    assertTrue(segmentPruners.get(0) instanceof TimeSegmentPruner);
+    assertTrue(segmentPruners.get(1) instanceof ColumnValueRangeSegmentPruner);
+    _propertyStore.remove(ZKMetadataProvider.constructPropertyStorePathForSchema(RAW_TABLE_NAME),
+        AccessOption.PERSISTENT);
+  }
+
+  private void setSegmentZKColumnValueRanges(String tableNameWithType, String segment, Map<String, String> minValues,
+      Map<String, String> maxValues) {
+    SegmentZKMetadata segmentZKMetadata = new SegmentZKMetadata(segment);
+    segmentZKMetadata.setColumnValueRanges(new HashMap<>(minValues), new HashMap<>(maxValues));
+    ZKMetadataProvider.setSegmentZKMetadata(_propertyStore, tableNameWithType, segmentZKMetadata);
+  }
+
   private void setSegmentZKPartitionMetadata(String tableNameWithType, String segment, String partitionFunction,
       int numPartitions, int partitionId) {
     SegmentZKMetadata segmentZKMetadata = new SegmentZKMetadata(segment);
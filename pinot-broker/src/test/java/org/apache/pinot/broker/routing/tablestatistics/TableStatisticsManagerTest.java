@@ -0,0 +1,125 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.broker.routing.tablestatistics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.helix.model.ExternalView;
+import org.apache.helix.model.IdealState;
+import org.apache.helix.zookeeper.datamodel.ZNRecord;
+import org.apache.pinot.common.metadata.segment.SegmentZKMetadata;
+import org.apache.pinot.core.routing.TableStatistics;
+import org.apache.pinot.core.routing.TableStatistics.ColumnStatistics;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+
+public class TableStatisticsManagerTest {
+  private static final String OFFLINE_TABLE_NAME = "testTable_OFFLINE";
+
+  @Test
+  public void testTableStatistics() {
+    TableStatisticsManager tableStatisticsManager = new TableStatisticsManager(OFFLINE_TABLE_NAME);
+    IdealState idealState = new IdealState(OFFLINE_TABLE_NAME);
+    ExternalView externalView = new ExternalView(OFFLINE_TABLE_NAME);
+
+    // Empty table
+    tableStatisticsManager.init(idealState, externalView, List.of(), List.of());
+    TableStatistics tableStatistics = tableStatisticsManager.getTableStatistics();
+    assertEquals(tableStatistics.getTableNameWithType(), OFFLINE_TABLE_NAME);
+    assertEquals(tableStatistics.getNumDocs(), 0);
+    assertTrue(tableStatistics.getColumnStatisticsMap().isEmpty());
+
+    // Add 2 segments
+    ZNRecord segment0 = getSegmentZNRecord("segment0", 100, Map.of("col", "10", "strCol", "5"), Map.of("col", "0"),
+        Map.of("col", "50"));
+    ZNRecord segment1 = getSegmentZNRecord("segment1", 200, Map.of("col", "20", "strCol", "3"), Map.of("col", "-10"),
+        Map.of("col", "30"));
+    tableStatisticsManager.onAssignmentChange(idealState, externalView, Set.of("segment0", "segment1"),
+        List.of("segment0", "segment1"), List.of(segment0, segment1));
+    tableStatistics = tableStatisticsManager.getTableStatistics();
+    assertEquals(tableStatistics.getNumDocs(), 300);
+    ColumnStatistics columnStatistics = tableStatistics.getColumnStatistics("col");
+    assertNotNull(columnStatistics);
+    assertEquals(columnStatistics.getCardinality(), 20);
+    assertEquals(columnStatistics.getMinValue(), -10.0);
+    assertEquals(columnStatistics.getMaxValue(), 50.0);
+    // Non-numeric column only has cardinality
+    columnStatistics = tableStatistics.getColumnStatistics("strCol");
+    assertNotNull(columnStatistics);
+    assertEquals(columnStatistics.getCardinality(), 5);
+    assertFalse(columnStatistics.hasValueRange());
+    assertNull(tableStatistics.getColumnStatistics("unknownCol"));
+
+    // Consuming segment without total docs should be ignored
+    ZNRecord consumingSegment = new ZNRecord("segment2");
+    tableStatisticsManager.onAssignmentChange(idealState, externalView, Set.of("segment0", "segment1", "segment2"),
+        List.of("segment2"), Arrays.asList(consumingSegment));
+    assertEquals(tableStatisticsManager.getTableStatistics().getNumDocs(), 300);
+
+    // Segment without value range for the column should make the value range unknown
+    ZNRecord segment3 = getSegmentZNRecord("segment3", 50, Map.of("col", "5"), null, null);
+    tableStatisticsManager.onAssignmentChange(idealState, externalView,
+        Set.of("segment0", "segment1", "segment2", "segment3"), List.of("segment3"), List.of(segment3));
+    tableStatistics = tableStatisticsManager.getTableStatistics();
+    assertEquals(tableStatistics.getNumDocs(), 350);
+    columnStatistics = tableStatistics.getColumnStatistics("col");
+    assertNotNull(columnStatistics);
+    assertEquals(columnStatistics.getCardinality(), 20);
+    assertFalse(columnStatistics.hasValueRange());
+
+    // Remove segments
+    tableStatisticsManager.onAssignmentChange(idealState, externalView, Set.of("segment1"), List.of(),
+        new ArrayList<>());
+    tableStatistics = tableStatisticsManager.getTableStatistics();
+    assertEquals(tableStatistics.getNumDocs(), 200);
+    columnStatistics = tableStatistics.getColumnStatistics("col");
+    assertNotNull(columnStatistics);
+    assertEquals(columnStatistics.getCardinality(), 20);
+    assertEquals(columnStatistics.getMinValue(), -10.0);
+    assertEquals(columnStatistics.getMaxValue(), 30.0);
+
+    // Refresh segment
+    tableStatisticsManager.refreshSegment("segment1",
+        getSegmentZNRecord("segment1", 400, Map.of("col", "40"), Map.of("col", "0"), Map.of("col", "100")));
+    tableStatistics = tableStatisticsManager.getTableStatistics();
+    assertEquals(tableStatistics.getNumDocs(), 400);
+    columnStatistics = tableStatistics.getColumnStatistics("col");
+    assertNotNull(columnStatistics);
+    assertEquals(columnStatistics.getCardinality(), 40);
+    assertEquals(columnStatistics.getMaxValue(), 100.0);
+  }
+
+  private static ZNRecord getSegmentZNRecord(String segmentName, long totalDocs, Map<String, String> cardinalities,
+      Map<String, String> minValues, Map<String, String> maxValues) {
+    SegmentZKMetadata segmentZKMetadata = new SegmentZKMetadata(segmentName);
+    segmentZKMetadata.setTotalDocs(totalDocs);
+    segmentZKMetadata.setColumnCardinalities(cardinalities);
+    segmentZKMetadata.setColumnValueRanges(minValues, maxValues);
+    return segmentZKMetadata.toZNRecord();
+  }
+}
@@ -0,0 +1,89 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.common.compression;
+
+import java.io.IOException;
+import javax.annotation.Nullable;
+import org.apache.pinot.segment.spi.compression.ChunkCompressionType;
+
+
+/**
+ * Utils to compress the serialized blocks sent over the wire, i.e. the DataTables sent from the servers to the brokers
+ * and the data blocks sent between the multi-stage workers.
+ * <p>
+ * The compression type is identified by its {@link ChunkCompressionType} value in the compressed blocks. Only LZ4 and
+ * ZSTANDARD are supported, and the compressed bytes are prefixed with the uncompressed size.
+ */
+public class WireCompressionUtils {
+  private WireCompressionUtils() {
+  }
+
+  /**
+   * Parses the compression type (LZ4, ZSTD or NONE), or returns {@code null} if compression is disabled.
+   */
+  @Nullable
+  public static ChunkCompressionType parseCompressionType(String compression) {
+    switch (compression.trim().toUpperCase()) {
+      case "LZ4":
+        return ChunkCompressionType.LZ4;
+      case "ZSTD":
+      case "ZSTANDARD":
+        return ChunkCompressionType.ZSTANDARD;
+      case "NONE":
+      case "PASS_THROUGH":
+        return null;
+      default:
+        throw new IllegalArgumentException(
+            "Unsupported wire compression: " + compression + ", supported: LZ4, ZSTD, NONE");
+    }
+  }
+
+  public static byte[] compress(ChunkCompressionType compressionType, byte[] bytes)
+      throws IOException {
+    try {
+      return getCompressor(compressionType).compress(bytes);
+    } catch (IOException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new IOException("Caught exception while compressing with: " + compressionType, e);
+    }
+  }
+
+  public static byte[] decompress(ChunkCompressionType compressionType, byte[] compressedBytes)
+      throws IOException {
+    try {
+      return getCompressor(compressionType).decompress(compressedBytes);
+    } catch (IOException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new IOException("Caught exception while decompressing with: " + compressionType, e);
+    }
+  }
+
+  private static Compressor getCompressor(ChunkCompressionType compressionType) {
+    switch (compressionType) {
+      case LZ4:
+        return Lz4Compressor.FAST_INSTANCE;
+      case ZSTANDARD:
+        return ZstdCompressor.DEFAULT_INSTANCE;
+      default:
+        throw new IllegalArgumentException("Unsupported wire compression: " + compressionType);
+    }
+  }
+}
@@ -0,0 +1,101 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.common.datablock;
+
+import com.google.common.base.Preconditions;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.function.LongConsumer;
+import javax.annotation.Nullable;
+import org.apache.pinot.common.compression.WireCompressionUtils;
+import org.apache.pinot.segment.spi.compression.ChunkCompressionType;
+import org.apache.pinot.segment.spi.memory.DataBuffer;
+import org.apache.pinot.segment.spi.memory.PinotByteBuffer;
+
+
+/**
+ * A {@link DataBlockSerde} that compresses the data blocks serialized by another serde as a whole, which is used to
+ * reduce the network usage between the multi-stage workers.
+ * <p>
+ * The compressed data block is serialized as:
+ * <pre>
+ *   | first int (version and type) | compression type (int) | compressed size (int) | compressed data block |
+ * </pre>
+ * Where the compressed data block starts with its own first int, so that it can be deserialized by the delegate serde.
+ * The compression type is stored in the block, so the compression type given to this serde is only used to serialize.
+ */
+public class CompressedDataBlockSerde implements DataBlockSerde {
+  private static final int HEADER_SIZE = 3 * Integer.BYTES;
+
+  private final DataBlockSerde _delegate;
+  private final ChunkCompressionType _compressionType;
+
+  public CompressedDataBlockSerde(DataBlockSerde delegate, ChunkCompressionType compressionType) {
+    _delegate = delegate;
+    _compressionType = compressionType;
+  }
+
+  @Override
+  public DataBuffer serialize(DataBlock dataBlock, int firstInt)
+      throws IOException {
+    int delegateFirstInt = _delegate.getVersion().getVersion()
+        + (dataBlock.getDataBlockType().ordinal() << DataBlockUtils.VERSION_TYPE_SHIFT);
+    DataBuffer dataBuffer = _delegate.serialize(dataBlock, delegateFirstInt);
+    Preconditions.checkState(dataBuffer.size() <= Integer.MAX_VALUE, "Data block is too large to be compressed");
+    byte[] bytes = new byte[(int) dataBuffer.size()];
+    dataBuffer.copyTo(0, bytes);
+    return PinotByteBuffer.wrap(compress(bytes, firstInt, _compressionType));
+  }
+
+  /**
+   * Compresses the given serialized data block, and returns the compressed data block ready for read.
+   */
+  static ByteBuffer compress(byte[] serializedDataBlock, int firstInt, ChunkCompressionType compressionType)
+      throws IOException {
+    byte[] compressedBytes = WireCompressionUtils.compress(compressionType, serializedDataBlock);
+    ByteBuffer byteBuffer = ByteBuffer.allocate(HEADER_SIZE + compressedBytes.length);
+    byteBuffer.putInt(firstInt);
+    byteBuffer.putInt(compressionType.getValue());
+    byteBuffer.putInt(compressedBytes.length);
+    byteBuffer.put(compressedBytes);
+    byteBuffer.flip();
+    return byteBuffer;
+  }
+
+  @Override
+  public DataBlock deserialize(DataBuffer buffer, long offset, DataBlock.Type type,
+      @Nullable LongConsumer finalOffsetConsumer)
+      throws IOException {
+    ChunkCompressionType compressionType = ChunkCompressionType.valueOf(buffer.getInt(offset + Integer.BYTES));
+    int compressedSize = buffer.getInt(offset + 2 * Integer.BYTES);
+    byte[] compressedBytes = new byte[compressedSize];
+    buffer.copyTo(offset + HEADER_SIZE, compressedBytes);
+    byte[] bytes = WireCompressionUtils.decompress(compressionType, compressedBytes);
+    DataBlock dataBlock = _delegate.deserialize(PinotByteBuffer.wrap(bytes), 0, type);
+    if (finalOffsetConsumer != null) {
+      finalOffsetConsumer.accept(offset + HEADER_SIZE + compressedSize);
+    }
+    return dataBlock;
+  }
+
+  @Override
+  public Version getVersion() {
+    return Version.V3_COMPRESSED;
+  }
+}
@@ -85,7 +85,14 @@ public interface DataBlockSerde {
      * <p>
      * Older Pinot versions use id 1 to identify their version.
      */
-    V1_V2(2);
+    V1_V2(2),
+    /**
+     * A data block serialized with {@link #V1_V2} and then compressed as a whole (see
+     * {@link CompressedDataBlockSerde}).
+     * <p>
+     * Nodes running older versions cannot read it, so it is only sent when compression is enabled for the query.
+     */
+    V3_COMPRESSED(3);
 
     private final int _version;
 
@@ -98,6 +105,8 @@ public interface DataBlockSerde {
         case 1:
         case 2:
           return V1_V2;
+        case 3:
+          return V3_COMPRESSED;
         default:
           throw new IllegalArgumentException("Unknown version: " + version);
       }
@@ -36,6 +36,7 @@ import javax.annotation.Nullable;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.pinot.common.utils.DataSchema;
 import org.apache.pinot.common.utils.DataSchema.ColumnDataType;
+import org.apache.pinot.segment.spi.compression.ChunkCompressionType;
 import org.apache.pinot.segment.spi.memory.CompoundDataBuffer;
 import org.apache.pinot.segment.spi.memory.DataBuffer;
 import org.apache.pinot.segment.spi.memory.PinotByteBuffer;
@@ -79,6 +80,8 @@ public final class DataBlockUtils {
   static {
     SERDES = new EnumMap<>(DataBlockSerde.Version.class);
     SERDES.put(DataBlockSerde.Version.V1_V2, new ZeroCopyDataBlockSerde());
+    SERDES.put(DataBlockSerde.Version.V3_COMPRESSED,
+        new CompressedDataBlockSerde(new ZeroCopyDataBlockSerde(), ChunkCompressionType.LZ4));
   }
 
   @VisibleForTesting
@@ -192,9 +195,44 @@ public final class DataBlockUtils {
     return result;
   }
 
+  /**
+   * Compresses the serialized data block (see {@link #serialize(DataBlock)}) as a whole with the given compression
+   * type. The compressed data block is deserialized by {@link CompressedDataBlockSerde}.
+   */
+  public static ByteBuffer compress(List<ByteBuffer> serializedDataBlock, DataBlock.Type dataBlockType,
+      ChunkCompressionType compressionType)
+      throws IOException {
+    long size = getSerializedSize(serializedDataBlock);
+    Preconditions.checkState(size <= Integer.MAX_VALUE, "Data block is too large to be compressed");
+    byte[] bytes = new byte[(int) size];
+    int offset = 0;
+    for (ByteBuffer byteBuffer : serializedDataBlock) {
+      int numBytes = byteBuffer.remaining();
+      byteBuffer.duplicate().get(bytes, offset, numBytes);
+      offset += numBytes;
+    }
+    int firstInt =
+        DataBlockSerde.Version.V3_COMPRESSED.getVersion() + (dataBlockType.ordinal() << VERSION_TYPE_SHIFT);
+    return CompressedDataBlockSerde.compress(bytes, firstInt, compressionType);
+  }
+
+  /**
+   * Returns the total number of remaining bytes in the given serialized data block.
+   */
+  public static long getSerializedSize(List<ByteBuffer> serializedDataBlock) {
+    long size = 0;
+    for (ByteBuffer byteBuffer : serializedDataBlock) {
+      size += byteBuffer.remaining();
+    }
+    return size;
+  }
+
   public static ByteString toByteString(DataBlock dataBlock)
       throws IOException {
-    List<ByteBuffer> bytes = dataBlock.serialize();
+    return toByteString(dataBlock.serialize());
+  }
+
+  public static ByteString toByteString(List<ByteBuffer> bytes) {
     ByteString byteString;
     if (bytes.isEmpty()) {
       byteString = ByteString.EMPTY;
@@ -21,6 +21,8 @@ package org.apache.pinot.common.datatable;
 import com.google.common.base.Preconditions;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import org.apache.pinot.common.compression.WireCompressionUtils;
+import org.apache.pinot.segment.spi.compression.ChunkCompressionType;
 
 
 public class DataTableFactory {
@@ -28,10 +30,18 @@ public class DataTableFactory {
   }
 
   public static final int VERSION_4 = 4;
+  // Set in the version of the DataTables compressed as a whole, see compress()
+  public static final int COMPRESSED_VERSION_FLAG = 1 << 30;
 
   public static DataTable getDataTable(ByteBuffer byteBuffer)
       throws IOException {
     int version = byteBuffer.getInt();
+    if ((version & COMPRESSED_VERSION_FLAG) != 0) {
+      ChunkCompressionType compressionType = ChunkCompressionType.valueOf(byteBuffer.getInt());
+      byte[] compressedBytes = new byte[byteBuffer.remaining()];
+      byteBuffer.get(compressedBytes);
+      return getDataTable(WireCompressionUtils.decompress(compressionType, compressedBytes));
+    }
     Preconditions.checkState(version == VERSION_4, "Unsupported data table version: %s", version);
     return new DataTableImplV4(byteBuffer);
   }
@@ -40,4 +50,23 @@ public class DataTableFactory {
       throws IOException {
     return getDataTable(ByteBuffer.wrap(bytes));
   }
+
+  /**
+   * Compresses the serialized DataTable as a whole. The compressed DataTable is serialized as:
+   * <pre>
+   *   | version with COMPRESSED_VERSION_FLAG (int) | compression type (int) | compressed serialized DataTable |
+   * </pre>
+   * Older brokers cannot read the compressed DataTables, so the servers only compress the responses when the broker
+   * asks for it with the 'wireCompression' query option.
+   */
+  public static byte[] compress(byte[] serializedDataTable, ChunkCompressionType compressionType)
+      throws IOException {
+    int version = ByteBuffer.wrap(serializedDataTable).getInt();
+    byte[] compressedBytes = WireCompressionUtils.compress(compressionType, serializedDataTable);
+    ByteBuffer byteBuffer = ByteBuffer.allocate(2 * Integer.BYTES + compressedBytes.length);
+    byteBuffer.putInt(version | COMPRESSED_VERSION_FLAG);
+    byteBuffer.putInt(compressionType.getValue());
+    byteBuffer.put(compressedBytes);
+    return byteBuffer.array();
+  }
 }
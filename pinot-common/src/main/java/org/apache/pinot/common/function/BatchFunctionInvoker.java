@@ -0,0 +1,162 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.common.function;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import javax.annotation.Nullable;
+
+
+/**
+ * The {@code BatchFunctionInvoker} evaluates a scalar function on a whole block of values in one call. It takes one
+ * primitive array per non-literal argument, and writes the results into a primitive array, e.g. a function
+ * {@code double f(double a, long b)} with a literal {@code b} is evaluated as {@code results[i] = f(values[i], b)} for
+ * {@code i} in {@code [0, length)}.
+ *
+ * <p>The loop is generated with {@link MethodHandles#countedLoop} over the method handle of the function, so the JIT
+ * compiles it into a specialized loop without boxing the arguments or the results. Only the functions with primitive
+ * ({@code int}, {@code long}, {@code float}, {@code double}) non-literal parameters and primitive result are supported.
+ */
+public class BatchFunctionInvoker {
+  private final MethodHandle _methodHandle;
+
+  private BatchFunctionInvoker(MethodHandle methodHandle) {
+    _methodHandle = methodHandle;
+  }
+
+  /**
+   * Creates a batch invoker for the given function invoker, or returns {@code null} if the function is not supported.
+   *
+   * @param functionInvoker Invoker of the function
+   * @param arguments Arguments of the function, where the literal arguments are already converted to the parameter
+   *                  classes, and the non-literal arguments are ignored
+   * @param nonLiteralIndices Indices of the non-literal arguments
+   * @param numNonLiteralArguments Number of non-literal arguments
+   */
+  @Nullable
+  public static BatchFunctionInvoker create(FunctionInvoker functionInvoker, Object[] arguments,
+      int[] nonLiteralIndices, int numNonLiteralArguments) {
+    MethodHandle methodHandle = functionInvoker.getMethodHandle();
+    if (methodHandle == null || functionInvoker.getMethod().isVarArgs() || numNonLiteralArguments == 0) {
+      return null;
+    }
+    MethodType methodType = methodHandle.type();
+    if (!isSupportedPrimitive(methodType.returnType())) {
+      return null;
+    }
+    // Bind the literal arguments from the last one so that the indices of the remaining arguments are not changed
+    int nonLiteralId = numNonLiteralArguments - 1;
+    for (int i = arguments.length - 1; i >= 0; i--) {
+      if (nonLiteralId >= 0 && nonLiteralIndices[nonLiteralId] == i) {
+        if (!isSupportedPrimitive(methodType.parameterType(i))) {
+          return null;
+        }
+        nonLiteralId--;
+      } else {
+        Object argument = arguments[i];
+        if (argument == null) {
+          // Null literal is handled by the null-intolerant check of the function invoker
+          return null;
+        }
+        try {
+          methodHandle = MethodHandles.insertArguments(methodHandle, i, argument);
+        } catch (ClassCastException e) {
+          // Literal is not converted to the parameter class
+          return null;
+        }
+      }
+    }
+    return new BatchFunctionInvoker(createLoop(methodHandle));
+  }
+
+  private static boolean isSupportedPrimitive(Class<?> clazz) {
+    return clazz == int.class || clazz == long.class || clazz == float.class || clazz == double.class;
+  }
+
+  /**
+   * Creates the loop of type {@code (Object[] valuesAndResults, int length)void} over the given method handle of type
+   * {@code (p1, ..., pn)r}, where {@code valuesAndResults} contains n input arrays of type {@code p1[], ..., pn[]},
+   * followed by the result array of type {@code r[]}.
+   */
+  private static MethodHandle createLoop(MethodHandle methodHandle) {
+    MethodType methodType = methodHandle.type();
+    int numParameters = methodType.parameterCount();
+    Class<?> resultArrayClass = getArrayClass(methodType.returnType());
+
+    // Loop body: results[i] = f(values1[i], ..., valuesN[i])
+    // (r[] results, int i, r result)void
+    MethodHandle body = MethodHandles.arrayElementSetter(resultArrayClass);
+    // (r[] results, int i, p1, ..., pn)void
+    body = MethodHandles.collectArguments(body, 2, methodHandle);
+    // (r[] results, int i, p1[] values1, int i, ..., pn[] valuesN, int i)void
+    Class<?>[] arrayClasses = new Class<?>[numParameters + 1];
+    for (int i = numParameters - 1; i >= 0; i--) {
+      arrayClasses[i] = getArrayClass(methodType.parameterType(i));
+      body = MethodHandles.collectArguments(body, 2 + i, MethodHandles.arrayElementGetter(arrayClasses[i]));
+    }
+    arrayClasses[numParameters] = resultArrayClass;
+    // (int i, p1[] values1, ..., pn[] valuesN, r[] results, int length)void
+    MethodType bodyType = MethodType.methodType(void.class, int.class).appendParameterTypes(arrayClasses)
+        .appendParameterTypes(int.class);
+    int[] reorder = new int[2 + 2 * numParameters];
+    reorder[0] = numParameters + 1;
+    reorder[1] = 0;
+    for (int i = 0; i < numParameters; i++) {
+      reorder[2 + 2 * i] = i + 1;
+      reorder[3 + 2 * i] = 0;
+    }
+    body = MethodHandles.permuteArguments(body, bodyType, reorder);
+
+    // (p1[] values1, ..., pn[] valuesN, r[] results, int length)int
+    MethodHandle iterations = MethodHandles.dropArguments(MethodHandles.identity(int.class), 0, arrayClasses);
+    MethodHandle loop = MethodHandles.countedLoop(iterations, null, body);
+    // Cast the arrays to Object before spreading them from the Object[], which is required by asSpreader()
+    MethodType genericType = MethodType.genericMethodType(numParameters + 1).changeReturnType(void.class)
+        .appendParameterTypes(int.class);
+    return loop.asType(genericType).asSpreader(0, Object[].class, numParameters + 1);
+  }
+
+  private static Class<?> getArrayClass(Class<?> primitiveClass) {
+    if (primitiveClass == int.class) {
+      return int[].class;
+    }
+    if (primitiveClass == long.class) {
+      return long[].class;
+    }
+    if (primitiveClass == float.class) {
+      return float[].class;
+    }
+    assert primitiveClass == double.class;
+    return double[].class;
+  }
+
+  /**
+   * Evaluates the function on the first {@code length} values of the input arrays, and writes the results into the
+   * result array.
+   *
+   * @param valuesAndResults The input arrays of the non-literal arguments, followed by the result array
+   * @param length Number of values to evaluate
+   * @throws Throwable if the function throws exception
+   */
+  public void invoke(Object[] valuesAndResults, int length)
+      throws Throwable {
+    _methodHandle.invokeExact(valuesAndResults, length);
+  }
+}
@@ -19,6 +19,9 @@
 package org.apache.pinot.common.function;
 
 import com.google.common.base.Preconditions;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
@@ -30,7 +33,9 @@ import org.apache.pinot.common.utils.PinotDataType;
 
 /**
  * The {@code FunctionInvoker} is a wrapper on a java method which supports arguments type conversion and method
- * invocation via reflection.
+ * invocation. The method is invoked through a {@link MethodHandle} resolved once at construction, which avoids the
+ * access checks and argument copying of {@link Method#invoke} on every call, and falls back to reflection when the
+ * method handle cannot be resolved.
  */
 public class FunctionInvoker {
   private final Method _method;
@@ -41,6 +46,10 @@ public class FunctionInvoker {
   private final Class<?>[] _parameterClasses;
   private final PinotDataType[] _parameterTypes;
   private final Object _instance;
+  // Method handle bound to the instance, with the original (primitive) signature
+  private final MethodHandle _methodHandle;
+  // Method handle of type (Object[])Object which spreads the arguments to _methodHandle
+  private final MethodHandle _spreadMethodHandle;
 
   public FunctionInvoker(FunctionInfo functionInfo) {
     _method = functionInfo.getMethod();
@@ -65,6 +74,25 @@ public class FunctionInvoker {
         throw new IllegalStateException("Caught exception while constructing class: " + clazz, e);
       }
     }
+    _methodHandle = getMethodHandle(_method, _instance);
+    _spreadMethodHandle = _methodHandle != null ? _methodHandle.asSpreader(Object[].class, numParameters)
+        .asType(MethodType.methodType(Object.class, Object[].class)) : null;
+  }
+
+  @Nullable
+  private static MethodHandle getMethodHandle(Method method, @Nullable Object instance) {
+    MethodHandle methodHandle;
+    try {
+      methodHandle = MethodHandles.lookup().unreflect(method);
+    } catch (IllegalAccessException e) {
+      // Fall back to reflection
+      return null;
+    }
+    if (instance != null) {
+      methodHandle = methodHandle.bindTo(instance);
+    }
+    // NOTE: Varargs method takes the array directly, same as Method.invoke()
+    return methodHandle.asFixedArity();
   }
 
   /**
@@ -74,6 +102,16 @@ public class FunctionInvoker {
     return _method;
   }
 
+  /**
+   * Returns the method handle of the underlying java method (bound to the instance for non-static method), or
+   * {@code null} if the method is not accessible through method handle. Unlike {@link #invoke(Object[])}, the method
+   * handle keeps the primitive parameter and result types of the method, so it can be invoked without boxing.
+   */
+  @Nullable
+  public MethodHandle getMethodHandle() {
+    return _methodHandle;
+  }
+
   /**
    * Returns the class of the parameters.
    */
@@ -156,6 +194,14 @@ public class FunctionInvoker {
         }
       }
     }
-    return _method.invoke(_instance, arguments);
+    if (_spreadMethodHandle == null) {
+      return _method.invoke(_instance, arguments);
+    }
+    try {
+      return _spreadMethodHandle.invokeExact(arguments);
+    } catch (Throwable t) {
+      // Keep the same behavior as Method.invoke() where the exception thrown by the method is wrapped
+      throw new InvocationTargetException(t);
+    }
   }
 }
@@ -61,6 +61,27 @@ public class QueryFunctionInvoker {
     return _functionInvoker.getResultClass();
   }
 
+  /// Creates a [BatchFunctionInvoker] which evaluates the function on a block of values with the given literal
+  /// arguments, or returns `null` if the function cannot be evaluated in batch.
+  ///
+  /// @see BatchFunctionInvoker#create
+  @Nullable
+  public BatchFunctionInvoker createBatchInvoker(Object[] arguments, int[] nonLiteralIndices,
+      int numNonLiteralArguments) {
+    return BatchFunctionInvoker.create(_functionInvoker, arguments, nonLiteralIndices, numNonLiteralArguments);
+  }
+
+  /// Evaluates the function on a block of values with the given [BatchFunctionInvoker].
+  ///
+  /// @see BatchFunctionInvoker#invoke
+  public void invokeBatch(BatchFunctionInvoker batchInvoker, Object[] valuesAndResults, int length) {
+    try {
+      batchInvoker.invoke(valuesAndResults, length);
+    } catch (Throwable t) {
+      throw QueryErrorCode.QUERY_EXECUTION.asException(t);
+    }
+  }
+
   @Nullable
   public Object invoke(Object[] arguments) {
     try {
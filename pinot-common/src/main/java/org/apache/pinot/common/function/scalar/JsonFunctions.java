@@ -416,6 +416,8 @@ public class JsonFunctions {
       JsonNode node;
       if (jsonObj instanceof String) {
         node = JsonUtils.stringToJsonNode((String) jsonObj);
+      } else if (jsonObj instanceof JsonNode) {
+        node = (JsonNode) jsonObj;
       } else {
         node = JsonUtils.stringToJsonNode(JsonUtils.objectToString(jsonObj));
       }
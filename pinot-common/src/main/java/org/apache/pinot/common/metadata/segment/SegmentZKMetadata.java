@@ -25,6 +25,7 @@ import java.io.IOException;
 import java.util.Map;
 import java.util.TreeMap;
 import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
 import org.apache.commons.collections4.MapUtils;
 import org.apache.helix.zookeeper.datamodel.ZNRecord;
 import org.apache.pinot.common.metadata.ZKMetadata;
@@ -291,6 +292,50 @@ public class SegmentZKMetadata implements ZKMetadata {
     }
   }
 
+  /**
+   * Returns the min value (as string) of the tracked columns, or {@code null} if no column is tracked.
+   */
+  @Nullable
+  public Map<String, String> getColumnMinValues() {
+    return _znRecord.getMapField(Segment.COLUMN_MIN_VALUES);
+  }
+
+  /**
+   * Returns the max value (as string) of the tracked columns, or {@code null} if no column is tracked.
+   */
+  @Nullable
+  public Map<String, String> getColumnMaxValues() {
+    return _znRecord.getMapField(Segment.COLUMN_MAX_VALUES);
+  }
+
+  public void setColumnValueRanges(@Nullable Map<String, String> minValues, @Nullable Map<String, String> maxValues) {
+    Map<String, Map<String, String>> mapFields = _znRecord.getMapFields();
+    if (MapUtils.isNotEmpty(minValues) && MapUtils.isNotEmpty(maxValues)) {
+      mapFields.put(Segment.COLUMN_MIN_VALUES, minValues);
+      mapFields.put(Segment.COLUMN_MAX_VALUES, maxValues);
+    } else {
+      mapFields.remove(Segment.COLUMN_MIN_VALUES);
+      mapFields.remove(Segment.COLUMN_MAX_VALUES);
+    }
+  }
+
+  /**
+   * Returns the cardinality (as string) of the tracked columns, or {@code null} if no column is tracked.
+   */
+  @Nullable
+  public Map<String, String> getColumnCardinalities() {
+    return _znRecord.getMapField(Segment.COLUMN_CARDINALITIES);
+  }
+
+  public void setColumnCardinalities(@Nullable Map<String, String> cardinalities) {
+    Map<String, Map<String, String>> mapFields = _znRecord.getMapFields();
+    if (MapUtils.isNotEmpty(cardinalities)) {
+      mapFields.put(Segment.COLUMN_CARDINALITIES, cardinalities);
+    } else {
+      mapFields.remove(Segment.COLUMN_CARDINALITIES);
+    }
+  }
+
   /* FOR REALTIME SEGMENTS */
 
   public Status getStatus() {
@@ -387,6 +432,24 @@ public class SegmentZKMetadata implements ZKMetadata {
         LOGGER.error("Caught exception while writing custom map for segment: {}", getSegmentName(), e);
       }
     }
+    Map<String, String> columnMinValues = getColumnMinValues();
+    Map<String, String> columnMaxValues = getColumnMaxValues();
+    if (columnMinValues != null && columnMaxValues != null) {
+      try {
+        metadataMap.put(Segment.COLUMN_MIN_VALUES, JsonUtils.objectToString(columnMinValues));
+        metadataMap.put(Segment.COLUMN_MAX_VALUES, JsonUtils.objectToString(columnMaxValues));
+      } catch (Exception e) {
+        LOGGER.error("Caught exception while writing column value ranges for segment: {}", getSegmentName(), e);
+      }
+    }
+    Map<String, String> columnCardinalities = getColumnCardinalities();
+    if (columnCardinalities != null) {
+      try {
+        metadataMap.put(Segment.COLUMN_CARDINALITIES, JsonUtils.objectToString(columnCardinalities));
+      } catch (Exception e) {
+        LOGGER.error("Caught exception while writing column cardinalities for segment: {}", getSegmentName(), e);
+      }
+    }
     return metadataMap;
   }
 
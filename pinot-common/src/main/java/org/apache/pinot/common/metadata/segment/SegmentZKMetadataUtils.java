@@ -20,9 +20,12 @@ package org.apache.pinot.common.metadata.segment;
 
 import com.google.common.base.Preconditions;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.TimeUnit;
 import javax.annotation.Nullable;
+import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.pinot.common.utils.LLCSegmentName;
 import org.apache.pinot.segment.spi.ColumnMetadata;
@@ -30,6 +33,8 @@ import org.apache.pinot.segment.spi.SegmentMetadata;
 import org.apache.pinot.segment.spi.creator.SegmentVersion;
 import org.apache.pinot.segment.spi.partition.PartitionFunction;
 import org.apache.pinot.segment.spi.partition.metadata.ColumnPartitionMetadata;
+import org.apache.pinot.spi.config.table.RoutingConfig;
+import org.apache.pinot.spi.config.table.TableConfig;
 import org.apache.pinot.spi.data.DateTimeFieldSpec;
 import org.apache.pinot.spi.utils.CommonConstants;
 import org.apache.pinot.spi.utils.builder.TableNameBuilder;
@@ -40,6 +45,9 @@ public class SegmentZKMetadataUtils {
   private SegmentZKMetadataUtils() {
   }
 
+  // Skip tracking the value range for columns with long values (e.g. long STRING values) to keep the ZNode small
+  public static final int MAX_COLUMN_VALUE_LENGTH = 256;
+
   /**
    * Creates the segment ZK metadata for a new segment.
    */
@@ -190,6 +198,47 @@ public class SegmentZKMetadataUtils {
     segmentZKMetadata.setCustomMap(customMap);
   }
 
+  /**
+   * Updates the min/max value and the cardinality of the columns configured in the routing config (see
+   * {@link RoutingConfig#getSegmentPrunerColumns()}) in the segment ZK metadata, which is used by the broker to prune
+   * segments based on the column value range, and as the column statistics for the multi-stage query planner. Columns
+   * without valid min/max value (or cardinality) in the segment metadata are skipped.
+   */
+  public static void updateColumnValueRanges(SegmentZKMetadata segmentZKMetadata, SegmentMetadata segmentMetadata,
+      @Nullable TableConfig tableConfig) {
+    RoutingConfig routingConfig = tableConfig != null ? tableConfig.getRoutingConfig() : null;
+    List<String> columns = routingConfig != null ? routingConfig.getSegmentPrunerColumns() : null;
+    if (CollectionUtils.isEmpty(columns)) {
+      segmentZKMetadata.setColumnValueRanges(null, null);
+      segmentZKMetadata.setColumnCardinalities(null);
+      return;
+    }
+    Map<String, String> minValues = new TreeMap<>();
+    Map<String, String> maxValues = new TreeMap<>();
+    Map<String, String> cardinalities = new TreeMap<>();
+    for (String column : columns) {
+      ColumnMetadata columnMetadata = segmentMetadata.getColumnMetadataFor(column);
+      if (columnMetadata == null) {
+        continue;
+      }
+      if (columnMetadata.getCardinality() > 0) {
+        cardinalities.put(column, Integer.toString(columnMetadata.getCardinality()));
+      }
+      if (columnMetadata.getMinValue() == null || columnMetadata.getMaxValue() == null
+          || columnMetadata.isMinMaxValueInvalid()) {
+        continue;
+      }
+      String minValue = columnMetadata.getMinValue().toString();
+      String maxValue = columnMetadata.getMaxValue().toString();
+      if (minValue.length() <= MAX_COLUMN_VALUE_LENGTH && maxValue.length() <= MAX_COLUMN_VALUE_LENGTH) {
+        minValues.put(column, minValue);
+        maxValues.put(column, maxValue);
+      }
+    }
+    segmentZKMetadata.setColumnValueRanges(minValues, maxValues);
+    segmentZKMetadata.setColumnCardinalities(cardinalities);
+  }
+
   private static boolean isValidTimeMetadata(ColumnMetadata timeColumnMetadata) {
     return timeColumnMetadata != null && timeColumnMetadata.getMinValue() != null
         && timeColumnMetadata.getMaxValue() != null && !timeColumnMetadata.isMinMaxValueInvalid();
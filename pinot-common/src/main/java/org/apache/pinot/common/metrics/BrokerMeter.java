@@ -269,6 +269,18 @@ public class BrokerMeter implements AbstractMetrics.Meter {
 
   public static final BrokerMeter RLS_FILTERS_APPLIED = create("RLS_FILTERS_APPLIED", "queries", false);
 
+  // Result cache metrics
+  public static final BrokerMeter RESULT_CACHE_HITS = create("RESULT_CACHE_HITS", "queries", false);
+  public static final BrokerMeter RESULT_CACHE_MISSES = create("RESULT_CACHE_MISSES", "queries", false);
+  public static final BrokerMeter RESULT_CACHE_EVICTIONS = create("RESULT_CACHE_EVICTIONS", "entries", true);
+  public static final BrokerMeter RESULT_CACHE_INVALIDATIONS = create("RESULT_CACHE_INVALIDATIONS", "tables", false);
+
+  // Parameterized query cache metrics
+  public static final BrokerMeter PARAMETERIZED_QUERY_CACHE_HITS =
+      create("PARAMETERIZED_QUERY_CACHE_HITS", "queries", true);
+  public static final BrokerMeter PARAMETERIZED_QUERY_CACHE_MISSES =
+      create("PARAMETERIZED_QUERY_CACHE_MISSES", "queries", true);
+
   // Audit logging metrics
   public static final BrokerMeter AUDIT_REQUEST_FAILURES = create("AUDIT_REQUEST_FAILURES", "failures", true);
   public static final BrokerMeter AUDIT_RESPONSE_FAILURES = create("AUDIT_RESPONSE_FAILURES", "failures", true);
@@ -119,6 +119,10 @@ public enum ServerMeter implements AbstractMetrics.Meter {
   NETTY_CONNECTION_BYTES_RECEIVED("nettyConnection", true),
   NETTY_CONNECTION_RESPONSES_SENT("nettyConnection", true),
   NETTY_CONNECTION_BYTES_SENT("nettyConnection", true),
+  RESPONSE_COMPRESSION_INPUT_BYTES("bytes", true,
+      "Number of serialized response bytes compressed before being sent to the brokers"),
+  RESPONSE_COMPRESSION_OUTPUT_BYTES("bytes", true,
+      "Number of bytes of the compressed responses sent to the brokers"),
 
   // GRPC related metrics
   GRPC_QUERIES("grpcQueries", true),
@@ -151,6 +155,10 @@ public enum ServerMeter implements AbstractMetrics.Meter {
    * But if a single query has 2 different join operators and each one reaches the limit, this will be increased by 2.
    */
   HASH_JOIN_TIMES_MAX_ROWS_REACHED("times", true),
+  /**
+   * Number of bytes written to disk by hash joins whose right table exceeded the join spill threshold.
+   */
+  HASH_JOIN_SPILLED_BYTES("bytes", true),
   /**
    * Number of times group by results were trimmed.
    * It is increased in one by each worker that reaches the limit within the stage.
@@ -184,6 +192,16 @@ public enum ServerMeter implements AbstractMetrics.Meter {
    * This is the sum of all bytes sent by all workers in the stage.
    */
   MULTI_STAGE_RAW_BYTES("bytes", true),
+  /**
+   * The number of serialized bytes that have been compressed before being sent to the next stage.
+   * This is the sum of all bytes compressed by all workers in the stage.
+   */
+  MULTI_STAGE_COMPRESSION_INPUT_BYTES("bytes", true),
+  /**
+   * The number of bytes the compressed blocks sent to the next stage took once compressed.
+   * The relation between MULTI_STAGE_COMPRESSION_INPUT_BYTES and this meter is the compression ratio.
+   */
+  MULTI_STAGE_COMPRESSION_OUTPUT_BYTES("bytes", true),
   /**
    * Number of times the max number of rows in window has been reached.
    * It is increased at most one by one each time per stage.
@@ -224,7 +242,12 @@ public enum ServerMeter implements AbstractMetrics.Meter {
    */
   MUTABLE_JSON_INDEX_MEMORY_USAGE("bytes", false),
   // Workload Budget exceeded counter
-  WORKLOAD_BUDGET_EXCEEDED("workloadBudgetExceeded", false, "Number of times workload budget exceeded");
+  WORKLOAD_BUDGET_EXCEEDED("workloadBudgetExceeded", false, "Number of times workload budget exceeded"),
+
+  // Segment level partial result cache
+  SEGMENT_RESULT_CACHE_HITS("segments", false),
+  SEGMENT_RESULT_CACHE_MISSES("segments", false),
+  SEGMENT_RESULT_CACHE_EVICTIONS("entries", true);
 
   private final String _meterName;
   private final String _unit;
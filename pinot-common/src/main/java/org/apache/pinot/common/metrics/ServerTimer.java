@@ -44,6 +44,9 @@ public enum ServerTimer implements AbstractMetrics.Timer {
   RESPONSE_SER_CPU_TIME_NS("nanoseconds", false, "Query cost (response serialization cpu time) "
       + "for query processing on server. Computed as the time spent in serializing query response on servers"),
 
+  RESPONSE_COMPRESSION_CPU_TIME_NS("nanoseconds", true,
+      "Thread cpu time spent compressing the serialized query responses before sending them to the brokers"),
+
   SEGMENT_UPLOAD_TIME_MS("milliseconds", false),
 
   TOTAL_CPU_TIME_NS("nanoseconds", false, "Total query cost (thread cpu time + system "
@@ -80,6 +83,11 @@ public enum ServerTimer implements AbstractMetrics.Timer {
    * This is the sum of all time spent by all workers in the stage.
    */
   MULTI_STAGE_SERIALIZATION_CPU_TIME_MS("millis", true),
+  /**
+   * Thread cpu time spent compressing the serialized blocks to be sent to the next stage.
+   * This is the sum of all time spent by all workers in the stage.
+   */
+  MULTI_STAGE_COMPRESSION_CPU_TIME_NS("nanoseconds", true),
   /**
    * Time spent deserializing bytes into blocks to be processed by the stage.
    * This is the sum of all time spent by all workers in the stage.
@@ -107,8 +107,7 @@ public class TimeSeriesResponseMapper {
           } else if (VALUES_COLUMN.equals(columnName)) {
             Double[] values = new Double[timeValues.length];
             for (int i = 0; i < timeValues.length; i++) {
-              Object nullableValue = timeSeries.getDoubleValues()[i];
-              values[i] = nullableValue == null ? null : Double.valueOf(String.valueOf(nullableValue));
+              values[i] = timeSeries.getDoubleValue(i);
             }
             row[index] = values;
           } else if (NAME_COLUMN.equals(columnName)) {
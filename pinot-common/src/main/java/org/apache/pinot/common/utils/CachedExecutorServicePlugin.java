@@ -33,7 +33,7 @@ import org.apache.pinot.spi.executor.ExecutorServiceProvider;
  * If that is not the case, this executor may create a large number of threads that will be competing for CPU resources,
  * which may lead to performance degradation and even system instability.
  * In that case {@link FixedExecutorServicePlugin} could be used, but it may need changes to the code to avoid
- * deadlocks. Deployments using Java 21 or above could consider using a virtual thread executor service plugin.
+ * deadlocks. Deployments using Java 21 or above could consider using {@link VirtualExecutorServicePlugin}.
  *
  * @see org.apache.pinot.spi.executor.ExecutorServiceUtils
  */
@@ -0,0 +1,95 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.common.utils;
+
+import com.google.auto.service.AutoService;
+import com.google.common.annotations.VisibleForTesting;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import javax.annotation.Nullable;
+import org.apache.pinot.spi.executor.ExecutorServicePlugin;
+import org.apache.pinot.spi.executor.ExecutorServiceProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * This is the plugin for the virtual thread executor service.
+ *
+ * The provider included in this plugin creates an executor service that starts a new virtual thread for each task,
+ * which is the recommended executor service for cases where the tasks spend most of their time blocked (e.g. the
+ * multi-stage operator chains waiting on the mailboxes), so that a large number of concurrent tasks doesn't require
+ * the same number of platform threads.
+ *
+ * Virtual threads are only available on Java 21 or above. Because Pinot is built with Java 11, the executor is created
+ * through reflection at runtime, and the provider falls back to a cached thread pool (see
+ * {@link CachedExecutorServicePlugin}) when running on an older JVM.
+ *
+ * NOTE: The JVM doesn't measure the CPU time and allocated bytes of virtual threads, so the query resource accounting
+ * (and the query killing based on it) is disabled for the tasks running on this executor. See
+ * {@link org.apache.pinot.spi.accounting.ThreadResourceUsageProvider}.
+ *
+ * @see org.apache.pinot.spi.executor.ExecutorServiceUtils
+ */
+@AutoService(ExecutorServicePlugin.class)
+public class VirtualExecutorServicePlugin implements ExecutorServicePlugin {
+  private static final Logger LOGGER = LoggerFactory.getLogger(VirtualExecutorServicePlugin.class);
+
+  @Override
+  public String id() {
+    return "virtual";
+  }
+
+  @Override
+  public ExecutorServiceProvider provider() {
+    return (conf, confPrefix, baseName) -> {
+      ExecutorService executorService = newVirtualThreadPerTaskExecutor(baseName);
+      if (executorService != null) {
+        LOGGER.info("Using virtual thread executor for: {}, query resource accounting is disabled for its tasks",
+            baseName);
+        return executorService;
+      }
+      LOGGER.warn("Virtual threads are not supported by the current JVM: {}, using cached thread pool for: {}",
+          System.getProperty("java.version"), baseName);
+      return Executors.newCachedThreadPool(new NamedThreadFactory(baseName));
+    };
+  }
+
+  /**
+   * Returns an executor service that starts a new virtual thread for each task, or {@code null} if virtual threads are
+   * not supported by the current JVM.
+   */
+  @VisibleForTesting
+  @Nullable
+  static ExecutorService newVirtualThreadPerTaskExecutor(String baseName) {
+    try {
+      // Equivalent to: Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(baseName + "-", 0).factory())
+      Class<?> ofVirtualClass = Class.forName("java.lang.Thread$Builder$OfVirtual");
+      Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+      builder = ofVirtualClass.getMethod("name", String.class, long.class).invoke(builder, baseName + "-", 0L);
+      ThreadFactory threadFactory = (ThreadFactory) ofVirtualClass.getMethod("factory").invoke(builder);
+      return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+          .invoke(null, threadFactory);
+    } catch (Exception e) {
+      // Virtual threads are not available (before Java 21, or preview feature not enabled)
+      return null;
+    }
+  }
+}
@@ -31,6 +31,8 @@ import java.util.Optional;
 import java.util.Set;
 import javax.annotation.Nullable;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.pinot.common.compression.WireCompressionUtils;
+import org.apache.pinot.segment.spi.compression.ChunkCompressionType;
 import org.apache.pinot.spi.config.table.FieldConfig;
 import org.apache.pinot.spi.utils.CommonConstants;
 import org.apache.pinot.spi.utils.CommonConstants.Broker.Request.QueryOptionKey;
@@ -130,10 +132,24 @@ public class QueryOptionsUtils {
     return checkedParseLongPositive(QueryOptionKey.MAX_QUERY_RESPONSE_SIZE_BYTES, responseSize);
   }
 
+  /**
+   * Returns the compression type to use for the blocks sent over the wire, or {@code null} if they should not be
+   * compressed.
+   */
+  @Nullable
+  public static ChunkCompressionType getWireCompression(Map<String, String> queryOptions) {
+    String wireCompression = queryOptions.get(QueryOptionKey.WIRE_COMPRESSION);
+    return wireCompression != null ? WireCompressionUtils.parseCompressionType(wireCompression) : null;
+  }
+
   public static boolean isAndScanReorderingEnabled(Map<String, String> queryOptions) {
     return Boolean.parseBoolean(queryOptions.get(QueryOptionKey.AND_SCAN_REORDERING));
   }
 
+  public static boolean isFilterSelectivityReorder(Map<String, String> queryOptions) {
+    return Boolean.parseBoolean(queryOptions.get(QueryOptionKey.FILTER_SELECTIVITY_REORDER));
+  }
+
   public static boolean isSkipUpsert(Map<String, String> queryOptions) {
     return Boolean.parseBoolean(queryOptions.get(QueryOptionKey.SKIP_UPSERT));
   }
@@ -342,6 +358,10 @@ public class QueryOptionsUtils {
     return Boolean.parseBoolean(queryOptions.get(QueryOptionKey.SERVER_RETURN_FINAL_RESULT_KEY_UNPARTITIONED));
   }
 
+  public static boolean isPartitionedGroupByCombine(Map<String, String> queryOptions) {
+    return Boolean.parseBoolean(queryOptions.get(QueryOptionKey.PARTITIONED_GROUP_BY_COMBINE));
+  }
+
   public static boolean isFilteredAggregationsSkipEmptyGroups(Map<String, String> queryOptions) {
     return Boolean.parseBoolean(queryOptions.get(QueryOptionKey.FILTERED_AGGREGATIONS_SKIP_EMPTY_GROUPS));
   }
@@ -413,6 +433,10 @@ public class QueryOptionsUtils {
     return checkedParseIntPositive(QueryOptionKey.MAX_STREAMING_PENDING_BLOCKS, maxStreamingPendingBlocks);
   }
 
+  public static boolean isUseColumnarDataBlocks(Map<String, String> queryOptions) {
+    return Boolean.parseBoolean(queryOptions.get(QueryOptionKey.USE_COLUMNAR_DATA_BLOCKS));
+  }
+
   @Nullable
   public static Integer getMaxRowsInJoin(Map<String, String> queryOptions) {
     String maxRowsInJoin = queryOptions.get(QueryOptionKey.MAX_ROWS_IN_JOIN);
@@ -425,6 +449,17 @@ public class QueryOptionsUtils {
     return joinOverflowModeStr != null ? JoinOverFlowMode.valueOf(joinOverflowModeStr) : null;
   }
 
+  @Nullable
+  public static Long getJoinSpillThresholdBytes(Map<String, String> queryOptions) {
+    String joinSpillThresholdBytes = queryOptions.get(QueryOptionKey.JOIN_SPILL_THRESHOLD_BYTES);
+    return checkedParseLongPositive(QueryOptionKey.JOIN_SPILL_THRESHOLD_BYTES, joinSpillThresholdBytes);
+  }
+
+  @Nullable
+  public static String getJoinSpillDir(Map<String, String> queryOptions) {
+    return queryOptions.get(QueryOptionKey.JOIN_SPILL_DIR);
+  }
+
   @Nullable
   public static Integer getMaxRowsInWindow(Map<String, String> queryOptions) {
     String maxRowsInWindow = queryOptions.get(QueryOptionKey.MAX_ROWS_IN_WINDOW);
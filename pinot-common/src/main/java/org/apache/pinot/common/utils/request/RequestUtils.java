@@ -58,6 +58,7 @@ import org.apache.pinot.spi.utils.CommonConstants.Broker.Request;
 import org.apache.pinot.spi.utils.TimestampIndexUtils;
 import org.apache.pinot.sql.FilterKind;
 import org.apache.pinot.sql.parsers.CalciteSqlParser;
+import org.apache.pinot.sql.parsers.ParameterizedQueryCache;
 import org.apache.pinot.sql.parsers.SqlCompilationException;
 import org.apache.pinot.sql.parsers.SqlNodeAndOptions;
 import org.slf4j.Logger;
@@ -68,6 +69,9 @@ public class RequestUtils {
   private static final Logger LOGGER = LoggerFactory.getLogger(RequestUtils.class);
   private static final JsonNode EMPTY_OBJECT_NODE = new ObjectMapper().createObjectNode();
 
+  // Only set on the broker when the parameterized query cache is enabled
+  private static volatile ParameterizedQueryCache _parameterizedQueryCache;
+
   private RequestUtils() {
   }
 
@@ -76,10 +80,17 @@ public class RequestUtils {
     return parseQuery(query, EMPTY_OBJECT_NODE);
   }
 
+  public static void setParameterizedQueryCache(@Nullable ParameterizedQueryCache parameterizedQueryCache) {
+    _parameterizedQueryCache = parameterizedQueryCache;
+  }
+
   public static SqlNodeAndOptions parseQuery(String query, JsonNode request)
       throws SqlCompilationException {
     long parserStartTimeNs = System.nanoTime();
-    SqlNodeAndOptions sqlNodeAndOptions = CalciteSqlParser.compileToSqlNodeAndOptions(query);
+    ParameterizedQueryCache parameterizedQueryCache = _parameterizedQueryCache;
+    SqlNodeAndOptions sqlNodeAndOptions =
+        parameterizedQueryCache != null ? parameterizedQueryCache.parse(query)
+            : CalciteSqlParser.compileToSqlNodeAndOptions(query);
     setOptions(sqlNodeAndOptions, request);
     sqlNodeAndOptions.setParseTimeNs(System.nanoTime() - parserStartTimeNs);
     return sqlNodeAndOptions;
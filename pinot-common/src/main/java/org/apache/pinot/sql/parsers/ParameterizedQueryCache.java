@@ -0,0 +1,625 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.sql.parsers;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nullable;
+import org.apache.calcite.sql.SqlCall;
+import org.apache.calcite.sql.SqlCharStringLiteral;
+import org.apache.calcite.sql.SqlDataTypeSpec;
+import org.apache.calcite.sql.SqlDynamicParam;
+import org.apache.calcite.sql.SqlIdentifier;
+import org.apache.calcite.sql.SqlIntervalQualifier;
+import org.apache.calcite.sql.SqlLiteral;
+import org.apache.calcite.sql.SqlNode;
+import org.apache.calcite.sql.SqlNodeList;
+import org.apache.calcite.sql.SqlNumericLiteral;
+import org.apache.calcite.sql.parser.SqlParserPos;
+import org.apache.calcite.sql.parser.SqlParserUtil;
+import org.apache.calcite.sql.util.SqlBasicVisitor;
+import org.apache.calcite.sql.util.SqlShuttle;
+import org.apache.calcite.util.Litmus;
+import org.apache.pinot.common.metrics.BrokerMeter;
+import org.apache.pinot.common.metrics.BrokerMetrics;
+import org.apache.pinot.spi.env.PinotConfiguration;
+import org.apache.pinot.spi.utils.CommonConstants.Broker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * The {@code ParameterizedQueryCache} caches the parsed queries by their shape, i.e. the query text with the literals
+ * extracted, so that repeated queries with different literals (e.g. point lookups generated from the same template)
+ * skip the Calcite parser, which dominates the compilation cost of simple queries.
+ * <p>On the first query of a shape, a template is parsed from the shape with a unique sentinel value in place of each
+ * literal. The template is only cached when binding the literals of the query into it produces exactly the same
+ * {@link SqlNode} tree as parsing the query, otherwise the shape is remembered as not cacheable. Each hit binds the
+ * literals into a deep copy of the template, so that the returned tree can be modified (e.g. by the validator of the
+ * multi-stage engine) without affecting the cached template.
+ * <p>SET statements, the legacy OPTION clause, hints, comments, typed literals (e.g. {@code DATE '2025-01-01'}) and
+ * prefixed string literals are kept as part of the shape. Note that the parser positions of the returned tree are the
+ * ones of the template, which can be off when reporting validation errors after the first literal.
+ */
+public class ParameterizedQueryCache {
+  private static final Logger LOGGER = LoggerFactory.getLogger(ParameterizedQueryCache.class);
+
+  // Marks a literal in the query shape, followed by the kind of the literal
+  private static final char PLACEHOLDER = '\0';
+  private static final char STRING = 'S';
+  private static final char INTEGER = 'I';
+  private static final char DECIMAL = 'D';
+  private static final char APPROX = 'E';
+  // Keywords after which the string literal is part of the shape (typed literals)
+  private static final Set<String> TYPED_LITERAL_KEYWORDS = Set.of("DATE", "TIME", "TIMESTAMP", "ZONE", "INTERVAL",
+      "UESCAPE");
+  private static final long SENTINEL_BASE = 1_234_500_000L;
+  private static final String STRING_SENTINEL_PREFIX = "__pinot_param_";
+  // Cached for the shapes that cannot be parameterized to avoid parsing their sentinel query again
+  private static final Template NOT_CACHEABLE = new Template(null, null, null, null);
+
+  private final BrokerMetrics _brokerMetrics;
+  private final Cache<String, Template> _cache;
+
+  public ParameterizedQueryCache(long maxSize, BrokerMetrics brokerMetrics) {
+    _brokerMetrics = brokerMetrics;
+    _cache = CacheBuilder.newBuilder().maximumSize(maxSize).build();
+  }
+
+  /**
+   * Creates the parameterized query cache from the broker config, or returns {@code null} if it is disabled.
+   */
+  @Nullable
+  public static ParameterizedQueryCache create(PinotConfiguration config, BrokerMetrics brokerMetrics) {
+    long maxSize = config.getProperty(Broker.CONFIG_OF_PARAMETERIZED_QUERY_CACHE_MAX_SIZE,
+        Broker.DEFAULT_PARAMETERIZED_QUERY_CACHE_MAX_SIZE);
+    if (maxSize <= 0) {
+      return null;
+    }
+    LOGGER.info("Initializing parameterized query cache with max size: {}", maxSize);
+    return new ParameterizedQueryCache(maxSize, brokerMetrics);
+  }
+
+  /**
+   * Parses the given query, same as {@link CalciteSqlParser#compileToSqlNodeAndOptions(String)}.
+   */
+  public SqlNodeAndOptions parse(String query)
+      throws SqlCompilationException {
+    ParameterizedQuery parameterizedQuery = parameterize(query);
+    if (parameterizedQuery == null) {
+      return CalciteSqlParser.compileToSqlNodeAndOptions(query);
+    }
+    Template template = _cache.getIfPresent(parameterizedQuery._shape);
+    if (template != null && template != NOT_CACHEABLE) {
+      long parseStartTimeNs = System.nanoTime();
+      SqlNodeAndOptions sqlNodeAndOptions =
+          new SqlNodeAndOptions(template.bind(parameterizedQuery._literals), template._sqlType,
+              new HashMap<>(template._options));
+      sqlNodeAndOptions.setParseTimeNs(System.nanoTime() - parseStartTimeNs);
+      _brokerMetrics.addMeteredGlobalValue(BrokerMeter.PARAMETERIZED_QUERY_CACHE_HITS, 1);
+      return sqlNodeAndOptions;
+    }
+    _brokerMetrics.addMeteredGlobalValue(BrokerMeter.PARAMETERIZED_QUERY_CACHE_MISSES, 1);
+    SqlNodeAndOptions sqlNodeAndOptions = CalciteSqlParser.compileToSqlNodeAndOptions(query);
+    if (template == null) {
+      _cache.put(parameterizedQuery._shape, buildTemplate(parameterizedQuery, sqlNodeAndOptions));
+    }
+    return sqlNodeAndOptions;
+  }
+
+  private static Template buildTemplate(ParameterizedQuery parameterizedQuery, SqlNodeAndOptions sqlNodeAndOptions) {
+    if (sqlNodeAndOptions.getSqlType() != PinotSqlType.DQL) {
+      return NOT_CACHEABLE;
+    }
+    try {
+      String shape = parameterizedQuery._shape;
+      int numLiterals = parameterizedQuery._literals.size();
+      char[] kinds = new char[numLiterals];
+      Map<BigDecimal, Integer> numericSentinels = new HashMap<>();
+      Map<String, Integer> stringSentinels = new HashMap<>();
+      StringBuilder sentinelQuery = new StringBuilder(shape.length() + 16 * numLiterals);
+      int literalId = 0;
+      int length = shape.length();
+      int i = 0;
+      while (i < length) {
+        char c = shape.charAt(i++);
+        if (c != PLACEHOLDER) {
+          sentinelQuery.append(c);
+          continue;
+        }
+        char kind = shape.charAt(i++);
+        kinds[literalId] = kind;
+        long sentinel = SENTINEL_BASE + literalId;
+        switch (kind) {
+          case STRING:
+            String stringSentinel = STRING_SENTINEL_PREFIX + literalId;
+            sentinelQuery.append('\'').append(stringSentinel).append('\'');
+            stringSentinels.put(stringSentinel, literalId);
+            break;
+          case INTEGER:
+            sentinelQuery.append(sentinel);
+            putNumericSentinel(numericSentinels, BigDecimal.valueOf(sentinel), literalId);
+            break;
+          case DECIMAL:
+            sentinelQuery.append(sentinel).append(".5");
+            putNumericSentinel(numericSentinels, new BigDecimal(sentinel + ".5"), literalId);
+            break;
+          case APPROX:
+            sentinelQuery.append(sentinel).append("E0");
+            putNumericSentinel(numericSentinels, BigDecimal.valueOf(sentinel), literalId);
+            break;
+          default:
+            throw new IllegalStateException("Unsupported literal kind: " + kind);
+        }
+        literalId++;
+      }
+
+      SqlNodeAndOptions sentinelSqlNodeAndOptions =
+          CalciteSqlParser.compileToSqlNodeAndOptions(sentinelQuery.toString());
+      if (sentinelSqlNodeAndOptions.getSqlType() != PinotSqlType.DQL || !sentinelSqlNodeAndOptions.getOptions()
+          .equals(sqlNodeAndOptions.getOptions())) {
+        return NOT_CACHEABLE;
+      }
+      SqlNode sqlNode = sentinelSqlNodeAndOptions.getSqlNode();
+      LiteralCollector literalCollector = new LiteralCollector(numericSentinels, stringSentinels, numLiterals);
+      sqlNode.accept(literalCollector);
+      if (literalCollector._numLiteralsFound != numLiterals) {
+        return NOT_CACHEABLE;
+      }
+      Template template = new Template(sqlNode, literalCollector._literalIds, kinds, sentinelSqlNodeAndOptions);
+      // Verify that binding the literals of the query produces the same tree as parsing the query
+      if (!isSameTree(template.bind(parameterizedQuery._literals), sqlNodeAndOptions.getSqlNode())) {
+        return NOT_CACHEABLE;
+      }
+      return template;
+    } catch (Exception e) {
+      LOGGER.debug("Caught exception while building the template for query shape: {}", parameterizedQuery._shape, e);
+      return NOT_CACHEABLE;
+    }
+  }
+
+  private static void putNumericSentinel(Map<BigDecimal, Integer> numericSentinels, BigDecimal sentinel,
+      int literalId) {
+    numericSentinels.put(sentinel.stripTrailingZeros(), literalId);
+    // The parser folds the minus sign into the numeric literal
+    numericSentinels.put(sentinel.negate().stripTrailingZeros(), -literalId - 1);
+  }
+
+  /**
+   * Returns whether the 2 trees are the same, including the classes of the nodes which are not checked by
+   * {@link SqlNode#equalsDeep}.
+   */
+  private static boolean isSameTree(@Nullable SqlNode node1, @Nullable SqlNode node2) {
+    if (node1 == null || node2 == null) {
+      return node1 == node2;
+    }
+    if (node1.getClass() != node2.getClass()) {
+      return false;
+    }
+    if (node1 instanceof SqlNodeList) {
+      SqlNodeList list1 = (SqlNodeList) node1;
+      SqlNodeList list2 = (SqlNodeList) node2;
+      if (list1.size() != list2.size()) {
+        return false;
+      }
+      for (int i = 0; i < list1.size(); i++) {
+        if (!isSameTree(list1.get(i), list2.get(i))) {
+          return false;
+        }
+      }
+      return true;
+    }
+    if (node1 instanceof SqlCall) {
+      SqlCall call1 = (SqlCall) node1;
+      SqlCall call2 = (SqlCall) node2;
+      if (!call1.getOperator().equals(call2.getOperator()) || !isSameTree(call1.getFunctionQuantifier(),
+          call2.getFunctionQuantifier())) {
+        return false;
+      }
+      List<SqlNode> operands1 = call1.getOperandList();
+      List<SqlNode> operands2 = call2.getOperandList();
+      if (operands1.size() != operands2.size()) {
+        return false;
+      }
+      for (int i = 0; i < operands1.size(); i++) {
+        if (!isSameTree(operands1.get(i), operands2.get(i))) {
+          return false;
+        }
+      }
+      return true;
+    }
+    if (node1 instanceof SqlNumericLiteral) {
+      SqlNumericLiteral literal1 = (SqlNumericLiteral) node1;
+      SqlNumericLiteral literal2 = (SqlNumericLiteral) node2;
+      if (literal1.isExact() != literal2.isExact() || literal1.isInteger() != literal2.isInteger()) {
+        return false;
+      }
+    }
+    return node1.equalsDeep(node2, Litmus.IGNORE);
+  }
+
+  /**
+   * Splits the query into the shape and the literals, or returns {@code null} if the query cannot be parameterized.
+   */
+  @VisibleForTesting
+  @Nullable
+  static ParameterizedQuery parameterize(String query) {
+    int length = query.length();
+    StringBuilder shape = new StringBuilder(length);
+    List<String> literals = new ArrayList<>();
+    boolean statementStart = true;
+    // Upper case of the previous token if it is a word, null otherwise
+    String previousWord = null;
+    int i = 0;
+    while (i < length) {
+      char c = query.charAt(i);
+      if (c == PLACEHOLDER) {
+        return null;
+      }
+      if (Character.isWhitespace(c)) {
+        shape.append(c);
+        i++;
+        continue;
+      }
+      int end;
+      if (c == '-' && i + 1 < length && query.charAt(i + 1) == '-') {
+        // Single line comment
+        end = query.indexOf('\n', i);
+        end = end >= 0 ? end : length;
+        shape.append(query, i, end);
+        i = end;
+        continue;
+      }
+      if (c == '/' && i + 1 < length && query.charAt(i + 1) == '*') {
+        // Multi-line comment or hint
+        end = query.indexOf("*/", i + 2);
+        if (end < 0) {
+          return null;
+        }
+        end += 2;
+        shape.append(query, i, end);
+        i = end;
+        continue;
+      }
+      if (c == '"' || c == '`' || c == '\'') {
+        end = skipQuoted(query, i, c);
+        if (end < 0) {
+          return null;
+        }
+        boolean isLiteral = c == '\'' && (i == 0 || !isPrefix(query.charAt(i - 1))) && (previousWord == null
+            || !TYPED_LITERAL_KEYWORDS.contains(previousWord));
+        if (isLiteral) {
+          shape.append(PLACEHOLDER).append(STRING);
+          literals.add(query.substring(i, end));
+        } else {
+          shape.append(query, i, end);
+        }
+      } else if (isDigit(c) || (c == '.' && i + 1 < length && isDigit(query.charAt(i + 1)))) {
+        end = i;
+        while (end < length && isDigit(query.charAt(end))) {
+          end++;
+        }
+        char kind = INTEGER;
+        if (end < length && query.charAt(end) == '.') {
+          kind = DECIMAL;
+          end++;
+          while (end < length && isDigit(query.charAt(end))) {
+            end++;
+          }
+        }
+        if (end < length && (query.charAt(end) == 'e' || query.charAt(end) == 'E')) {
+          int exponentStart = end + 1;
+          if (exponentStart < length && (query.charAt(exponentStart) == '+' || query.charAt(exponentStart) == '-')) {
+            exponentStart++;
+          }
+          if (exponentStart < length && isDigit(query.charAt(exponentStart))) {
+            kind = APPROX;
+            end = exponentStart;
+            while (end < length && isDigit(query.charAt(end))) {
+              end++;
+            }
+          }
+        }
+        if (end < length && isIdentifierPart(query.charAt(end))) {
+          // Not a numeric literal (e.g. 1abc), keep it as is
+          while (end < length && isIdentifierPart(query.charAt(end))) {
+            end++;
+          }
+          shape.append(query, i, end);
+        } else {
+          shape.append(PLACEHOLDER).append(kind);
+          literals.add(query.substring(i, end));
+        }
+      } else if (isIdentifierPart(c)) {
+        end = i + 1;
+        while (end < length && isIdentifierPart(query.charAt(end))) {
+          end++;
+        }
+        String word = query.substring(i, end).toUpperCase(Locale.ROOT);
+        if (statementStart && word.equals("SET")) {
+          // Keep the SET statement as is
+          end = skipStatement(query, end);
+          if (end < 0) {
+            return null;
+          }
+          word = null;
+        } else if (word.equals("OPTION")) {
+          // Keep the legacy OPTION clause as is
+          int optionStart = end;
+          while (optionStart < length && Character.isWhitespace(query.charAt(optionStart))) {
+            optionStart++;
+          }
+          if (optionStart < length && query.charAt(optionStart) == '(') {
+            end = query.indexOf(')', optionStart);
+            if (end < 0) {
+              return null;
+            }
+            end++;
+            word = null;
+          }
+        }
+        shape.append(query, i, end);
+        previousWord = word;
+        statementStart = false;
+        i = end;
+        continue;
+      } else {
+        end = i + 1;
+        shape.append(c);
+      }
+      statementStart = c == ';';
+      previousWord = null;
+      i = end;
+    }
+    return new ParameterizedQuery(shape.toString(), literals);
+  }
+
+  /**
+   * Returns the end (exclusive) of the quoted string starting at the given index, or -1 if it is not closed. Quote
+   * character is escaped by doubling it.
+   */
+  private static int skipQuoted(String query, int start, char quote) {
+    int length = query.length();
+    int i = start + 1;
+    while (i < length) {
+      if (query.charAt(i) == quote) {
+        if (i + 1 < length && query.charAt(i + 1) == quote) {
+          i += 2;
+        } else {
+          return i + 1;
+        }
+      } else {
+        i++;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Returns the index of the next statement separator (or the end of the query) from the given index, or -1 if there
+   * is a quoted string not closed.
+   */
+  private static int skipStatement(String query, int start) {
+    int length = query.length();
+    int i = start;
+    while (i < length) {
+      char c = query.charAt(i);
+      if (c == ';') {
+        return i;
+      }
+      if (c == '\'' || c == '"' || c == '`') {
+        i = skipQuoted(query, i, c);
+        if (i < 0) {
+          return -1;
+        }
+      } else {
+        i++;
+      }
+    }
+    return length;
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  private static boolean isIdentifierPart(char c) {
+    return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+  }
+
+  /**
+   * Returns whether the character before a string literal makes it a prefixed literal, e.g. {@code X'FF'},
+   * {@code _UTF8'abc'} or {@code U&'abc'}.
+   */
+  private static boolean isPrefix(char c) {
+    return isIdentifierPart(c) || c == '&';
+  }
+
+  @VisibleForTesting
+  long size() {
+    _cache.cleanUp();
+    return _cache.size();
+  }
+
+  @VisibleForTesting
+  boolean isCached(String query) {
+    ParameterizedQuery parameterizedQuery = parameterize(query);
+    if (parameterizedQuery == null) {
+      return false;
+    }
+    Template template = _cache.getIfPresent(parameterizedQuery._shape);
+    return template != null && template != NOT_CACHEABLE;
+  }
+
+  @VisibleForTesting
+  static final class ParameterizedQuery {
+    final String _shape;
+    final List<String> _literals;
+
+    ParameterizedQuery(String shape, List<String> literals) {
+      _shape = shape;
+      _literals = literals;
+    }
+  }
+
+  private static final class Template {
+    final SqlNode _sqlNode;
+    // Id of the query literal for each sentinel literal in the template, negative id for negated literal
+    final Map<SqlLiteral, Integer> _literalIds;
+    final char[] _kinds;
+    final PinotSqlType _sqlType;
+    final Map<String, String> _options;
+
+    Template(SqlNode sqlNode, Map<SqlLiteral, Integer> literalIds, char[] kinds,
+        SqlNodeAndOptions sqlNodeAndOptions) {
+      _sqlNode = sqlNode;
+      _literalIds = literalIds;
+      _kinds = kinds;
+      _sqlType = sqlNodeAndOptions != null ? sqlNodeAndOptions.getSqlType() : null;
+      _options = sqlNodeAndOptions != null ? sqlNodeAndOptions.getOptions() : null;
+    }
+
+    SqlNode bind(List<String> literals) {
+      return _sqlNode.accept(new Binder(this, literals));
+    }
+  }
+
+  /**
+   * Collects the sentinel literals in the template.
+   */
+  private static final class LiteralCollector extends SqlBasicVisitor<Void> {
+    final Map<BigDecimal, Integer> _numericSentinels;
+    final Map<String, Integer> _stringSentinels;
+    final boolean[] _found;
+    final Map<SqlLiteral, Integer> _literalIds = new IdentityHashMap<>();
+    int _numLiteralsFound;
+
+    LiteralCollector(Map<BigDecimal, Integer> numericSentinels, Map<String, Integer> stringSentinels,
+        int numLiterals) {
+      _numericSentinels = numericSentinels;
+      _stringSentinels = stringSentinels;
+      _found = new boolean[numLiterals];
+    }
+
+    @Override
+    public Void visit(SqlLiteral literal) {
+      Integer literalId = null;
+      if (literal instanceof SqlNumericLiteral) {
+        BigDecimal value = ((SqlNumericLiteral) literal).bigDecimalValue();
+        if (value != null) {
+          literalId = _numericSentinels.get(value.stripTrailingZeros());
+        }
+      } else if (literal instanceof SqlCharStringLiteral) {
+        literalId = _stringSentinels.get(literal.toValue());
+      }
+      if (literalId != null) {
+        _literalIds.put(literal, literalId);
+        int id = literalId >= 0 ? literalId : -literalId - 1;
+        if (!_found[id]) {
+          _found[id] = true;
+          _numLiteralsFound++;
+        }
+      }
+      return null;
+    }
+  }
+
+  /**
+   * Deep copies the template with the sentinel literals replaced by the query literals.
+   */
+  private static final class Binder extends SqlShuttle {
+    final Template _template;
+    final List<String> _literals;
+
+    Binder(Template template, List<String> literals) {
+      _template = template;
+      _literals = literals;
+    }
+
+    @Override
+    public SqlNode visit(SqlLiteral literal) {
+      Integer literalId = _template._literalIds.get(literal);
+      if (literalId == null) {
+        return literal;
+      }
+      boolean negate = literalId < 0;
+      int id = negate ? -literalId - 1 : literalId;
+      String literalString = _literals.get(id);
+      SqlParserPos pos = literal.getParserPosition();
+      switch (_template._kinds[id]) {
+        case STRING:
+          return SqlLiteral.createCharString(SqlParserUtil.parseString(literalString), pos);
+        case INTEGER:
+        case DECIMAL:
+          SqlNumericLiteral exactLiteral = SqlLiteral.createExactNumeric(literalString, pos);
+          return negate ? SqlLiteral.createNegative(exactLiteral, pos) : exactLiteral;
+        case APPROX:
+          SqlNumericLiteral approxLiteral = SqlLiteral.createApproxNumeric(literalString, pos);
+          return negate ? SqlLiteral.createNegative(approxLiteral, pos) : approxLiteral;
+        default:
+          throw new IllegalStateException("Unsupported literal kind: " + _template._kinds[id]);
+      }
+    }
+
+    @Override
+    public SqlNode visit(SqlIdentifier id) {
+      return id.clone(id.getParserPosition());
+    }
+
+    @Override
+    public SqlNode visit(SqlDataTypeSpec type) {
+      return type.clone(type.getParserPosition());
+    }
+
+    @Override
+    public SqlNode visit(SqlDynamicParam param) {
+      return param.clone(param.getParserPosition());
+    }
+
+    @Override
+    public SqlNode visit(SqlIntervalQualifier intervalQualifier) {
+      return intervalQualifier.clone(intervalQualifier.getParserPosition());
+    }
+
+    @Override
+    public SqlNode visit(SqlCall call) {
+      CallCopyingArgHandler argHandler = new CallCopyingArgHandler(call, true);
+      call.getOperator().acceptCall(this, call, false, argHandler);
+      return argHandler.result();
+    }
+
+    @Override
+    public SqlNode visit(SqlNodeList nodeList) {
+      SqlNodeList copy = new SqlNodeList(nodeList.getParserPosition());
+      for (SqlNode node : nodeList) {
+        copy.add(node != null ? node.accept(this) : null);
+      }
+      return copy;
+    }
+  }
+}
@@ -0,0 +1,88 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.common.datablock;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.apache.pinot.segment.spi.compression.ChunkCompressionType;
+import org.apache.pinot.segment.spi.memory.PinotByteBuffer;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+
+public class CompressedDataBlockSerdeTest {
+
+  @DataProvider(name = "blocks")
+  public Object[][] blocks() {
+    // Compressible stats
+    byte[] bytes = new byte[16 * 1024];
+    Arrays.fill(bytes, (byte) 7);
+
+    return new Object[][] {
+        {"eos empty", MetadataBlock.newEos()},
+        {"error with single message", MetadataBlock.newError(3, 1, "test", ImmutableMap.<Integer, String>builder()
+            .put(123, "error")
+            .build())},
+        {"eos with stats", new MetadataBlock(Lists.newArrayList(PinotByteBuffer.wrap(bytes)))},
+        {"error with stats", MetadataBlock.newErrorWithStats(12, 21, "fakeId",
+            ImmutableMap.<Integer, String>builder()
+                .put(123, "error")
+                .build(),
+            Lists.newArrayList(PinotByteBuffer.wrap(bytes), PinotByteBuffer.wrap(bytes)))}
+    };
+  }
+
+  @Test(dataProvider = "blocks")
+  public void testSerde(String desc, DataBlock block)
+      throws Exception {
+    DataBlock deserialized = DataBlockUtils.deserialize(
+        DataBlockUtils.serialize(DataBlockSerde.Version.V3_COMPRESSED, block));
+    assertSameBlock(deserialized, block);
+  }
+
+  @Test(dataProvider = "blocks")
+  public void testCompressSerialized(String desc, DataBlock block)
+      throws Exception {
+    for (ChunkCompressionType compressionType : List.of(ChunkCompressionType.LZ4, ChunkCompressionType.ZSTANDARD)) {
+      List<ByteBuffer> serialized = DataBlockUtils.serialize(block);
+      long serializedSize = DataBlockUtils.getSerializedSize(serialized);
+      ByteBuffer compressed = DataBlockUtils.compress(serialized, block.getDataBlockType(), compressionType);
+      if (serializedSize > 1024) {
+        assertTrue(compressed.remaining() < serializedSize, "Block should be compressed: " + desc);
+      }
+      // The serialized block should not be consumed by the compression
+      assertEquals(DataBlockUtils.getSerializedSize(serialized), serializedSize);
+      assertSameBlock(DataBlockUtils.deserialize(Collections.singletonList(compressed)), block);
+    }
+  }
+
+  private static void assertSameBlock(DataBlock deserialized, DataBlock block) {
+    assertEquals(deserialized.getDataBlockType(), block.getDataBlockType(), "Unexpected data block type");
+    assertEquals(deserialized.getMetadata(), block.getMetadata(), "Unexpected metadata");
+    assertEquals(deserialized.getNumberOfRows(), block.getNumberOfRows(), "Unexpected number of rows");
+    assertEquals(deserialized.getExceptions(), block.getExceptions(), "Unexpected exceptions");
+    assertEquals(deserialized.getStatsByStage(), block.getStatsByStage(), "Unexpected stats");
+  }
+}
@@ -0,0 +1,140 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.common.function;
+
+import java.lang.reflect.Method;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.expectThrows;
+
+
+public class BatchFunctionInvokerTest {
+
+  public static double linear(double x, long a, int b) {
+    return x * a + b;
+  }
+
+  public static int checkedDivide(int a, int b) {
+    return a / b;
+  }
+
+  public static String concat(String a, String b) {
+    return a + b;
+  }
+
+  public long scale(long value, float factor) {
+    return (long) (value * factor);
+  }
+
+  private static FunctionInvoker getFunctionInvoker(String name, Class<?>... parameterClasses)
+      throws Exception {
+    Method method = BatchFunctionInvokerTest.class.getMethod(name, parameterClasses);
+    return new FunctionInvoker(new FunctionInfo(method, BatchFunctionInvokerTest.class, false));
+  }
+
+  @Test
+  public void testAllNonLiteralArguments()
+      throws Throwable {
+    FunctionInvoker functionInvoker = getFunctionInvoker("linear", double.class, long.class, int.class);
+    BatchFunctionInvoker batchInvoker =
+        BatchFunctionInvoker.create(functionInvoker, new Object[3], new int[]{0, 1, 2}, 3);
+    assertNotNull(batchInvoker);
+    int length = 10;
+    double[] xs = new double[length + 1];
+    long[] as = new long[length + 1];
+    int[] bs = new int[length + 1];
+    for (int i = 0; i <= length; i++) {
+      xs[i] = i * 0.5;
+      as[i] = i;
+      bs[i] = -i;
+    }
+    double[] results = new double[length + 1];
+    results[length] = -1;
+    batchInvoker.invoke(new Object[]{xs, as, bs, results}, length);
+    for (int i = 0; i < length; i++) {
+      assertEquals(results[i], linear(xs[i], as[i], bs[i]));
+      assertEquals(results[i], functionInvoker.invoke(new Object[]{xs[i], as[i], bs[i]}));
+    }
+    // Values beyond the length should not be touched
+    assertEquals(results[length], -1.0);
+  }
+
+  @Test
+  public void testLiteralArguments()
+      throws Throwable {
+    FunctionInvoker functionInvoker = getFunctionInvoker("linear", double.class, long.class, int.class);
+    // Literal in the middle
+    BatchFunctionInvoker batchInvoker =
+        BatchFunctionInvoker.create(functionInvoker, new Object[]{null, 3L, null}, new int[]{0, 2, 0}, 2);
+    assertNotNull(batchInvoker);
+    double[] xs = {1.0, 2.5, -4.0};
+    int[] bs = {7, 8, 9};
+    double[] results = new double[3];
+    batchInvoker.invoke(new Object[]{xs, bs, results}, 3);
+    for (int i = 0; i < 3; i++) {
+      assertEquals(results[i], linear(xs[i], 3L, bs[i]));
+    }
+
+    // Literals at the end
+    batchInvoker = BatchFunctionInvoker.create(functionInvoker, new Object[]{null, 2L, 5}, new int[]{0, 0, 0}, 1);
+    assertNotNull(batchInvoker);
+    batchInvoker.invoke(new Object[]{xs, results}, 3);
+    for (int i = 0; i < 3; i++) {
+      assertEquals(results[i], linear(xs[i], 2L, 5));
+    }
+
+    // Non-static method
+    functionInvoker = getFunctionInvoker("scale", long.class, float.class);
+    batchInvoker = BatchFunctionInvoker.create(functionInvoker, new Object[]{null, 1.5f}, new int[]{0, 0}, 1);
+    assertNotNull(batchInvoker);
+    long[] values = {2L, 4L, 7L};
+    long[] longResults = new long[3];
+    batchInvoker.invoke(new Object[]{values, longResults}, 3);
+    assertEquals(longResults, new long[]{3L, 6L, 10L});
+  }
+
+  @Test
+  public void testUnsupportedFunctions()
+      throws Exception {
+    // Non-primitive parameters and result
+    FunctionInvoker functionInvoker = getFunctionInvoker("concat", String.class, String.class);
+    assertNull(BatchFunctionInvoker.create(functionInvoker, new Object[2], new int[]{0, 1}, 2));
+
+    // Null or mismatched literal
+    functionInvoker = getFunctionInvoker("linear", double.class, long.class, int.class);
+    assertNull(BatchFunctionInvoker.create(functionInvoker, new Object[3], new int[]{0, 1, 0}, 2));
+    assertNull(BatchFunctionInvoker.create(functionInvoker, new Object[]{null, null, "1"}, new int[]{0, 1, 0}, 2));
+
+    // All literal arguments
+    assertNull(BatchFunctionInvoker.create(functionInvoker, new Object[]{1.0, 2L, 3}, new int[3], 0));
+  }
+
+  @Test
+  public void testException()
+      throws Exception {
+    FunctionInvoker functionInvoker = getFunctionInvoker("checkedDivide", int.class, int.class);
+    BatchFunctionInvoker batchInvoker =
+        BatchFunctionInvoker.create(functionInvoker, new Object[]{null, 0}, new int[]{0, 0}, 1);
+    assertNotNull(batchInvoker);
+    expectThrows(ArithmeticException.class, () -> batchInvoker.invoke(new Object[]{new int[]{1}, new int[1]}, 1));
+  }
+}
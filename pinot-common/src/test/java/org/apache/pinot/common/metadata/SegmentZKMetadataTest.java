@@ -23,17 +23,28 @@ import java.io.IOException;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.helix.zookeeper.datamodel.ZNRecord;
 import org.apache.pinot.common.metadata.segment.SegmentPartitionMetadata;
 import org.apache.pinot.common.metadata.segment.SegmentZKMetadata;
+import org.apache.pinot.common.metadata.segment.SegmentZKMetadataUtils;
+import org.apache.pinot.segment.spi.ColumnMetadata;
+import org.apache.pinot.segment.spi.SegmentMetadata;
 import org.apache.pinot.segment.spi.partition.metadata.ColumnPartitionMetadata;
+import org.apache.pinot.spi.config.table.RoutingConfig;
+import org.apache.pinot.spi.config.table.TableConfig;
+import org.apache.pinot.spi.config.table.TableType;
 import org.apache.pinot.spi.utils.CommonConstants;
 import org.apache.pinot.spi.utils.CommonConstants.Segment.Realtime.Status;
+import org.apache.pinot.spi.utils.builder.TableConfigBuilder;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
 
 
@@ -82,6 +93,47 @@ public class SegmentZKMetadataTest {
         new SegmentZKMetadata(offlineSegmentMetadata.toZNRecord()).hashCode());
   }
 
+  @Test
+  public void columnValueRangesTest() {
+    ColumnMetadata intColumnMetadata = mock(ColumnMetadata.class);
+    when(intColumnMetadata.getMinValue()).thenReturn(3);
+    when(intColumnMetadata.getMaxValue()).thenReturn(10);
+    when(intColumnMetadata.getCardinality()).thenReturn(8);
+    ColumnMetadata stringColumnMetadata = mock(ColumnMetadata.class);
+    when(stringColumnMetadata.getMinValue()).thenReturn("a");
+    when(stringColumnMetadata.getMaxValue()).thenReturn(StringUtils.repeat('z', 1000));
+    when(stringColumnMetadata.getCardinality()).thenReturn(5);
+    ColumnMetadata invalidColumnMetadata = mock(ColumnMetadata.class);
+    when(invalidColumnMetadata.getMinValue()).thenReturn(1L);
+    when(invalidColumnMetadata.getMaxValue()).thenReturn(2L);
+    when(invalidColumnMetadata.isMinMaxValueInvalid()).thenReturn(true);
+    SegmentMetadata segmentMetadata = mock(SegmentMetadata.class);
+    when(segmentMetadata.getColumnMetadataFor("intColumn")).thenReturn(intColumnMetadata);
+    when(segmentMetadata.getColumnMetadataFor("stringColumn")).thenReturn(stringColumnMetadata);
+    when(segmentMetadata.getColumnMetadataFor("invalidColumn")).thenReturn(invalidColumnMetadata);
+
+    // Only track the configured columns with valid and short min/max value, and valid cardinality
+    TableConfig tableConfig = new TableConfigBuilder(TableType.OFFLINE).setTableName("testTable")
+        .setRoutingConfig(new RoutingConfig(null, List.of(RoutingConfig.COLUMN_VALUE_RANGE_SEGMENT_PRUNER_TYPE), null,
+            false, List.of("intColumn", "stringColumn", "invalidColumn", "missingColumn")))
+        .build();
+    SegmentZKMetadata segmentZKMetadata = getTestOfflineSegmentZKMetadata();
+    SegmentZKMetadataUtils.updateColumnValueRanges(segmentZKMetadata, segmentMetadata, tableConfig);
+    assertEquals(segmentZKMetadata.getColumnMinValues(), Map.of("intColumn", "3"));
+    assertEquals(segmentZKMetadata.getColumnMaxValues(), Map.of("intColumn", "10"));
+    assertEquals(segmentZKMetadata.getColumnCardinalities(), Map.of("intColumn", "8", "stringColumn", "5"));
+    assertEquals(segmentZKMetadata, new SegmentZKMetadata(segmentZKMetadata.toZNRecord()));
+    Assert.assertNotEquals(segmentZKMetadata, getTestOfflineSegmentZKMetadata());
+
+    // Value ranges should be removed when the columns are no longer configured
+    SegmentZKMetadataUtils.updateColumnValueRanges(segmentZKMetadata, segmentMetadata,
+        new TableConfigBuilder(TableType.OFFLINE).setTableName("testTable").build());
+    Assert.assertNull(segmentZKMetadata.getColumnMinValues());
+    Assert.assertNull(segmentZKMetadata.getColumnMaxValues());
+    Assert.assertNull(segmentZKMetadata.getColumnCardinalities());
+    assertEquals(segmentZKMetadata, getTestOfflineSegmentZKMetadata());
+  }
+
   @Test
   public void segmentPartitionMetadataTest()
       throws IOException {
@@ -100,18 +100,20 @@ public class TimeSeriesResponseMapperTest {
       "id1",
       null,
       _timeBuckets,
-      new Double[]{1.0, 2.0},
+      new double[]{1.0, 2.0},
+      null,
       Arrays.asList("region", "host"),
-      new Object[]{"us-west", "h1"}
+      new String[]{"us-west", "h1"}
     );
     // another list under same metric with different extra tag "zone"
     TimeSeries s2 = new TimeSeries(
       "id2",
       null,
       _timeBuckets,
-      new Double[]{3.0, 4.5}, // mixed types: Integer and String
+      new double[]{3.0, 4.5},
+      null,
       Arrays.asList("region", "zone"),
-      new Object[]{"us-west", "z1"}
+      new String[]{"us-west", "z1"}
     );
 
     Map<Long, List<TimeSeries>> seriesMap = new LinkedHashMap<>();
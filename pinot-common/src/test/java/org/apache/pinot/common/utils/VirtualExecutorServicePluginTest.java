@@ -0,0 +1,93 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.common.utils;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.apache.pinot.spi.accounting.ThreadResourceUsageProvider;
+import org.apache.pinot.spi.env.PinotConfiguration;
+import org.apache.pinot.spi.executor.ExecutorServiceUtils;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+
+public class VirtualExecutorServicePluginTest {
+
+  @Test
+  public void testVirtualExecutorService()
+      throws Exception {
+    ExecutorService executorService =
+        ExecutorServiceUtils.create(new PinotConfiguration(), "test.executor", "virtual-test", "virtual");
+    try {
+      // Tasks blocked on each other should not dead-lock regardless of the number of tasks
+      int numTasks = 100;
+      BlockingQueue<Integer> queue = new ArrayBlockingQueue<>(1);
+      Future<?>[] consumers = new Future[numTasks];
+      for (int i = 0; i < numTasks; i++) {
+        consumers[i] = executorService.submit(() -> queue.poll(10, TimeUnit.SECONDS));
+      }
+      Future<?> producer = executorService.submit(() -> {
+        for (int i = 0; i < numTasks; i++) {
+          queue.put(i);
+        }
+        return null;
+      });
+      producer.get(10, TimeUnit.SECONDS);
+      for (Future<?> consumer : consumers) {
+        assertNotNull(consumer.get(10, TimeUnit.SECONDS));
+      }
+
+      String threadName = executorService.submit(() -> Thread.currentThread().getName()).get();
+      assertTrue(threadName.startsWith("virtual-test-"), threadName);
+    } finally {
+      ExecutorServiceUtils.close(executorService);
+    }
+  }
+
+  @Test
+  public void testVirtualThreadsSupport()
+      throws Exception {
+    ExecutorService executorService = VirtualExecutorServicePlugin.newVirtualThreadPerTaskExecutor("virtual-test");
+    if (Runtime.version().feature() >= 21) {
+      assertNotNull(executorService);
+      try {
+        // Resource usage is not measured on virtual threads
+        assertTrue(executorService.submit(ThreadResourceUsageProvider::isCurrentThreadVirtual).get());
+        assertEquals((long) executorService.submit(ThreadResourceUsageProvider::getCurrentThreadCpuTime).get(), 0L);
+        assertEquals((long) executorService.submit(ThreadResourceUsageProvider::getCurrentThreadAllocatedBytes).get(),
+            0L);
+      } finally {
+        executorService.shutdown();
+      }
+    } else {
+      // Should fall back to the cached thread pool
+      assertNull(executorService);
+      assertEquals(new VirtualExecutorServicePlugin().id(), "virtual");
+      assertFalse(ThreadResourceUsageProvider.isCurrentThreadVirtual());
+    }
+  }
+}
@@ -0,0 +1,162 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.sql.parsers;
+
+import java.util.List;
+import org.apache.calcite.sql.SqlIdentifier;
+import org.apache.calcite.sql.SqlNode;
+import org.apache.calcite.sql.SqlOrderBy;
+import org.apache.calcite.sql.SqlSelect;
+import org.apache.calcite.util.Litmus;
+import org.apache.pinot.common.metrics.BrokerMeter;
+import org.apache.pinot.common.metrics.BrokerMetrics;
+import org.apache.pinot.common.request.PinotQuery;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertThrows;
+import static org.testng.Assert.assertTrue;
+
+
+public class ParameterizedQueryCacheTest {
+
+  @Test
+  public void testParameterize() {
+    ParameterizedQueryCache.ParameterizedQuery query =
+        ParameterizedQueryCache.parameterize("SELECT a, 'it''s' FROM t WHERE b = -12 AND c > 1.5 AND d < 2e-3");
+    assertNotNull(query);
+    assertEquals(query._literals, List.of("'it''s'", "12", "1.5", "2e-3"));
+    assertEquals(query._shape, "SELECT a, \0S FROM t WHERE b = -\0I AND c > \0D AND d < \0E");
+
+    // Quoted identifiers, comments, hints, typed and prefixed literals, SET statements and OPTION clause are kept
+    query = ParameterizedQueryCache.parameterize(
+        "SET timeoutMs = 1000; SELECT /*+ hint(a='1') */ \"col 'x'\", col2 -- it's 1\n"
+            + "FROM t WHERE ts > TIMESTAMP '2025-01-01 00:00:00' AND x = X'FF' AND y = 3 OPTION(skipUpsert=true)");
+    assertNotNull(query);
+    assertEquals(query._literals, List.of("3"));
+
+    // Numbers within identifiers
+    query = ParameterizedQueryCache.parameterize("SELECT col1, 1col FROM t1 LIMIT 10");
+    assertNotNull(query);
+    assertEquals(query._literals, List.of("10"));
+
+    // Unclosed string
+    assertNull(ParameterizedQueryCache.parameterize("SELECT * FROM t WHERE a = 'abc"));
+  }
+
+  @Test
+  public void testParse() {
+    BrokerMetrics brokerMetrics = mock(BrokerMetrics.class);
+    ParameterizedQueryCache cache = new ParameterizedQueryCache(100, brokerMetrics);
+    String[][] queries = {
+        {
+            "SELECT a, b FROM myTable WHERE id = 123 LIMIT 10",
+            "SELECT a, b FROM myTable WHERE id = 456 LIMIT 20"
+        }, {
+            "SELECT a, SUM(m) FROM myTable WHERE b IN ('x', 'y') AND c BETWEEN 1.5 AND 2.5 GROUP BY a "
+                + "ORDER BY SUM(m) DESC LIMIT 100",
+            "SELECT a, SUM(m) FROM myTable WHERE b IN ('it''s', '') AND c BETWEEN 10.25 AND 20.0 GROUP BY a "
+                + "ORDER BY SUM(m) DESC LIMIT 5"
+        }, {
+            "SELECT a, b FROM myTable WHERE a = -5 AND b > -1.5 AND c < 1e10 AND d = 'abc' ORDER BY 1",
+            "SELECT a, b FROM myTable WHERE a = -7000000000 AND b > -0.5 AND c < 2.5E-3 AND d = 'x' ORDER BY 2"
+        }, {
+            "SET timeoutMs = 1000; SELECT jsonExtractScalar(j, '$.a', 'STRING') FROM myTable WHERE a = 1 "
+                + "OPTION(skipUpsert=true)",
+            "SET timeoutMs = 1000; SELECT jsonExtractScalar(j, '$.b', 'LONG') FROM myTable WHERE a = 2 "
+                + "OPTION(skipUpsert=true)"
+        }, {
+            "SELECT /*+ aggOptions(is_partitioned_by_group_by_keys='true') */ a, COUNT(DISTINCT b) FROM t1 "
+                + "JOIN t2 ON t1.x = t2.x WHERE t1.y = 'a' AND t2.z > 10 GROUP BY a",
+            "SELECT /*+ aggOptions(is_partitioned_by_group_by_keys='true') */ a, COUNT(DISTINCT b) FROM t1 "
+                + "JOIN t2 ON t1.x = t2.x WHERE t1.y = 'b' AND t2.z > 20 GROUP BY a"
+        }, {
+            "SELECT CASE WHEN a > 10 THEN 'high' ELSE 'low' END, CAST(b AS DOUBLE) + 1 FROM myTable "
+                + "WHERE ts > DATE '2025-01-01' AND s LIKE 'abc%' LIMIT 1",
+            "SELECT CASE WHEN a > 20 THEN 'x' ELSE 'y' END, CAST(b AS DOUBLE) + 2 FROM myTable "
+                + "WHERE ts > DATE '2025-01-01' AND s LIKE '%def' LIMIT 2"
+        }
+    };
+    for (String[] sameShapeQueries : queries) {
+      for (String query : sameShapeQueries) {
+        SqlNodeAndOptions expected = CalciteSqlParser.compileToSqlNodeAndOptions(query);
+        SqlNodeAndOptions actual = cache.parse(query);
+        assertTrue(actual.getSqlNode().equalsDeep(expected.getSqlNode(), Litmus.IGNORE), query);
+        assertEquals(actual.getSqlType(), expected.getSqlType());
+        assertEquals(actual.getOptions(), expected.getOptions());
+        assertEquals(CalciteSqlParser.compileToPinotQuery(actual), CalciteSqlParser.compileToPinotQuery(expected));
+      }
+      assertTrue(cache.isCached(sameShapeQueries[0]), sameShapeQueries[0]);
+    }
+    assertEquals(cache.size(), queries.length);
+    verify(brokerMetrics, times(queries.length)).addMeteredGlobalValue(BrokerMeter.PARAMETERIZED_QUERY_CACHE_MISSES,
+        1);
+    verify(brokerMetrics, times(queries.length)).addMeteredGlobalValue(BrokerMeter.PARAMETERIZED_QUERY_CACHE_HITS, 1);
+  }
+
+  @Test
+  public void testNotCacheable() {
+    ParameterizedQueryCache cache = new ParameterizedQueryCache(100, mock(BrokerMetrics.class));
+    // Not a DQL
+    String query = "INSERT INTO myTable FROM FILE 's3://my-bucket/path/to/data/'";
+    assertEquals(cache.parse(query).getSqlType(), PinotSqlType.DML);
+    assertFalse(cache.isCached(query));
+
+    // Literal that cannot be replaced by a sentinel value
+    query = "SELECT * FROM myTable WHERE a > DECIMAL '1.5'";
+    assertTrue(cache.parse(query).getSqlNode()
+        .equalsDeep(CalciteSqlParser.compileToSqlNodeAndOptions(query).getSqlNode(), Litmus.IGNORE));
+    assertFalse(cache.isCached(query));
+
+    // Invalid query should throw the same exception as the parser
+    assertThrows(SqlCompilationException.class, () -> cache.parse("SELECT * FROM myTable WHERE a = 5 AND"));
+    assertEquals(cache.size(), 2);
+
+    // Query without literal is cached as is
+    query = "SELECT * FROM myTable ORDER BY a DESC";
+    cache.parse(query);
+    assertTrue(cache.isCached(query));
+    assertTrue(cache.parse(query).getSqlNode()
+        .equalsDeep(CalciteSqlParser.compileToSqlNodeAndOptions(query).getSqlNode(), Litmus.IGNORE));
+  }
+
+  @Test
+  public void testTemplateNotModified() {
+    ParameterizedQueryCache cache = new ParameterizedQueryCache(100, mock(BrokerMetrics.class));
+    cache.parse("SELECT a FROM myTable WHERE b = 1 LIMIT 10");
+    // Modify the returned tree, which should not affect the cached template
+    SqlNode sqlNode = cache.parse("SELECT a FROM myTable WHERE b = 2 LIMIT 10").getSqlNode();
+    if (sqlNode instanceof SqlOrderBy) {
+      sqlNode = ((SqlOrderBy) sqlNode).query;
+    }
+    SqlSelect sqlSelect = (SqlSelect) sqlNode;
+    sqlSelect.setWhere(null);
+    ((SqlIdentifier) sqlSelect.getSelectList().get(0)).setNames(List.of("c"), null);
+
+    String query = "SELECT a FROM myTable WHERE b = 3 LIMIT 10";
+    PinotQuery pinotQuery = CalciteSqlParser.compileToPinotQuery(cache.parse(query));
+    assertEquals(pinotQuery, CalciteSqlParser.compileToPinotQuery(query));
+  }
+}
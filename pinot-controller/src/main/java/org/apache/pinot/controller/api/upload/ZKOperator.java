@@ -207,6 +207,8 @@ public class ZKOperator {
     segmentZKMetadata.setCustomMap(segmentMetadata.getCustomMap());
     SegmentZKMetadataUtils.updateCommittingSegmentZKMetadata(realtimeTableName, segmentZKMetadata, segmentMetadata,
         segmentDownloadURIStr, segmentSizeInBytes, segmentZKMetadata.getEndOffset());
+    SegmentZKMetadataUtils.updateColumnValueRanges(segmentZKMetadata, segmentMetadata,
+        _pinotHelixResourceManager.getTableConfig(realtimeTableName));
     if (!_pinotHelixResourceManager.updateZkMetadata(realtimeTableName, segmentZKMetadata, expectedVersion)) {
       throw new RuntimeException(
           String.format("Failed to update ZK metadata for segment: %s, table: %s, expected version: %d", segmentName,
@@ -366,6 +368,7 @@ public class ZKOperator {
               segmentDownloadURIStr, crypterName, segmentSizeInBytes);
           segmentZKMetadata.setCustomMap(customMapModifier.modifyMap(segmentZKMetadata.getCustomMap()));
         }
+        SegmentZKMetadataUtils.updateColumnValueRanges(segmentZKMetadata, segmentMetadata, tableConfig);
         if (!_pinotHelixResourceManager.updateZkMetadata(tableNameWithType, segmentZKMetadata, expectedVersion)) {
           throw new RuntimeException(
               String.format("Failed to update ZK metadata for segment: %s, table: %s, expected version: %d",
@@ -472,6 +475,7 @@ public class ZKOperator {
       segmentZKMetadata =
           SegmentZKMetadataUtils.createSegmentZKMetadata(tableNameWithType, segmentMetadata, segmentDownloadURIStr,
               crypterName, segmentSizeInBytes);
+      SegmentZKMetadataUtils.updateColumnValueRanges(segmentZKMetadata, segmentMetadata, tableConfig);
     } catch (IllegalArgumentException e) {
       throw new ControllerApplicationException(LOGGER,
           String.format("Got invalid segment metadata when adding segment: %s for table: %s, reason: %s", segmentName,
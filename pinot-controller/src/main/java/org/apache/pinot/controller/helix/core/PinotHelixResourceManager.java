@@ -2529,6 +2529,7 @@ public class PinotHelixResourceManager {
     // might need them to determine the partition of the segment, and server will need them to download the segment
     SegmentZKMetadata segmentZKMetadata =
         SegmentZKMetadataUtils.createSegmentZKMetadata(tableNameWithType, segmentMetadata, downloadUrl, null, -1);
+    SegmentZKMetadataUtils.updateColumnValueRanges(segmentZKMetadata, segmentMetadata, tableConfig);
 
     // Update segment tier to support direct assignment for multiple data directories
     if (needTieredSegmentAssignment(tableConfig)) {
@@ -2787,6 +2788,8 @@ public class PinotHelixResourceManager {
     // segment ZK metadata)
     SegmentZKMetadataUtils.refreshSegmentZKMetadata(tableNameWithType, segmentZKMetadata, segmentMetadata, downloadUrl,
         null, -1);
+    SegmentZKMetadataUtils.updateColumnValueRanges(segmentZKMetadata, segmentMetadata,
+        getTableConfig(tableNameWithType));
     if (!ZKMetadataProvider.setSegmentZKMetadata(_propertyStore, tableNameWithType, segmentZKMetadata,
         expectedVersion)) {
       throw new RuntimeException(
@@ -749,6 +749,8 @@ public class PinotLLCRealtimeSegmentManager {
         isPeerURL(segmentLocation) ? CommonConstants.Segment.METADATA_URI_FOR_PEER_DOWNLOAD : segmentLocation;
     SegmentZKMetadataUtils.updateCommittingSegmentZKMetadata(realtimeTableName, segmentZKMetadata, segmentMetadata,
         downloadUrl, committingSegmentDescriptor.getSegmentSizeBytes(), committingSegmentDescriptor.getNextOffset());
+    SegmentZKMetadataUtils.updateColumnValueRanges(segmentZKMetadata, segmentMetadata,
+        getTableConfig(realtimeTableName));
     persistSegmentZKMetadata(realtimeTableName, segmentZKMetadata, stat.getVersion());
 
     // Refresh the Broker routing
@@ -138,6 +138,11 @@ public class MinionConstants {
     public static final String MAX_DISK_USAGE_PERCENTAGE = "maxDiskUsagePercentage";
 
     public static final String MAX_NUM_PARALLEL_BUCKETS = "maxNumParallelBuckets";
+
+    // See SegmentProcessorConfig for documentation of these configs
+    public static final String NUM_THREADS_KEY = "numThreads";
+    public static final String MEMORY_BUDGET_IN_BYTES_KEY = "memoryBudgetInBytes";
+
     public static final String SEGMENT_NAME_PREFIX_KEY = "segmentNamePrefix";
     public static final String SEGMENT_NAME_POSTFIX_KEY = "segmentNamePostfix";
     public static final String FIXED_SEGMENT_NAME_KEY = "fixedSegmentName";
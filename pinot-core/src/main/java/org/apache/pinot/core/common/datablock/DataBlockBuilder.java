@@ -235,7 +235,8 @@ public class DataBlockBuilder {
           int numAggFunctions = aggFunctions.length;
           aggFunction = aggFunctions[colId + numAggFunctions - numColumns];
         }
-        serializeColumnData(columns, dataSchema, colId, fixedSize, varSize, nullBitmap, dictionary, aggFunction);
+        serializeColumnData(columns.get(colId), dataSchema, colId, fixedSize, varSize, nullBitmap, dictionary,
+            aggFunction);
       }
       varBufferBuilder.addPagedOutputStream(varSize);
     }
@@ -244,14 +245,102 @@ public class DataBlockBuilder {
     return buildColumnarBlock(numRows, dataSchema, getReverseDictionary(dictionary), fixedSize, varBufferBuilder);
   }
 
-  private static void serializeColumnData(List<Object[]> columns, DataSchema dataSchema, int colId,
+  /**
+   * Builds a {@link ColumnarDataBlock} from columns that are already stored in their primitive form, which avoids
+   * boxing the values of the fixed width columns.
+   * <p>Each column must be an {@code int[]}, {@code long[]}, {@code float[]} or {@code double[]} for the INT, LONG,
+   * FLOAT and DOUBLE stored types respectively, or an {@code Object[]} for the other stored types, with exactly
+   * {@code numRows} values. The values of the primitive columns are written as is, so the null rows must be tracked in
+   * {@code nullBitmaps} (which is not modified). The null rows of the {@code Object[]} columns are the ones with a
+   * {@code null} value. OBJECT columns (aggregation intermediate results) are not supported.
+   */
+  public static ColumnarDataBlock buildFromTypedColumns(int numRows, Object[] columns,
+      @Nullable RoaringBitmap[] nullBitmaps, DataSchema dataSchema)
+      throws IOException {
+    int fixedBytesPerRow = calculateBytesPerRow(dataSchema);
+    int nullFixedBytes = dataSchema.size() * Integer.BYTES * 2;
+    int fixedBytesRequired = fixedBytesPerRow * numRows + nullFixedBytes;
+
+    Object2IntOpenHashMap<String> dictionary = new Object2IntOpenHashMap<>();
+    int numColumns = dataSchema.size();
+
+    RoaringBitmap[] columnNullBitmaps = new RoaringBitmap[numColumns];
+    ByteBuffer fixedSize = ByteBuffer.allocate(fixedBytesRequired);
+    CompoundDataBuffer.Builder varBufferBuilder = new CompoundDataBuffer.Builder(ByteOrder.BIG_ENDIAN, true);
+
+    int interruptableLoopStep = 10000;
+    try (PagedPinotOutputStream varSize = new PagedPinotOutputStream(
+        PagedPinotOutputStream.HeapPageAllocator.createSmall())) {
+      for (int colId = 0; colId < numColumns; colId++) {
+        ColumnDataType storedType = dataSchema.getColumnDataType(colId).getStoredType();
+        Object column = columns[colId];
+        RoaringBitmap nullBitmap = nullBitmaps != null ? nullBitmaps[colId] : null;
+        switch (storedType) {
+          case INT: {
+            int[] values = (int[]) column;
+            interruptableLoop(0, numRows, interruptableLoopStep, (start, end) -> {
+              for (int rowId = start; rowId < end; rowId++) {
+                fixedSize.putInt(values[rowId]);
+              }
+            });
+            columnNullBitmaps[colId] = nullBitmap;
+            break;
+          }
+          case LONG: {
+            long[] values = (long[]) column;
+            interruptableLoop(0, numRows, interruptableLoopStep, (start, end) -> {
+              for (int rowId = start; rowId < end; rowId++) {
+                fixedSize.putLong(values[rowId]);
+              }
+            });
+            columnNullBitmaps[colId] = nullBitmap;
+            break;
+          }
+          case FLOAT: {
+            float[] values = (float[]) column;
+            interruptableLoop(0, numRows, interruptableLoopStep, (start, end) -> {
+              for (int rowId = start; rowId < end; rowId++) {
+                fixedSize.putFloat(values[rowId]);
+              }
+            });
+            columnNullBitmaps[colId] = nullBitmap;
+            break;
+          }
+          case DOUBLE: {
+            double[] values = (double[]) column;
+            interruptableLoop(0, numRows, interruptableLoopStep, (start, end) -> {
+              for (int rowId = start; rowId < end; rowId++) {
+                fixedSize.putDouble(values[rowId]);
+              }
+            });
+            columnNullBitmaps[colId] = nullBitmap;
+            break;
+          }
+          case OBJECT:
+            throw new IllegalArgumentException(
+                "Unsupported stored type: OBJECT for column: " + dataSchema.getColumnName(colId));
+          default: {
+            RoaringBitmap valueNullBitmap = new RoaringBitmap();
+            columnNullBitmaps[colId] = valueNullBitmap;
+            serializeColumnData((Object[]) column, dataSchema, colId, fixedSize, varSize, valueNullBitmap, dictionary,
+                null);
+            break;
+          }
+        }
+      }
+      varBufferBuilder.addPagedOutputStream(varSize);
+    }
+    // Write null bitmaps after writing data.
+    setNullRowIds(columnNullBitmaps, fixedSize, varBufferBuilder);
+    return buildColumnarBlock(numRows, dataSchema, getReverseDictionary(dictionary), fixedSize, varBufferBuilder);
+  }
+
+  private static void serializeColumnData(Object[] column, DataSchema dataSchema, int colId,
       ByteBuffer fixedSize, PagedPinotOutputStream varSize, RoaringBitmap nullBitmap,
       Object2IntOpenHashMap<String> dictionary, @Nullable AggregationFunction aggFunction)
       throws IOException {
     ColumnDataType storedType = dataSchema.getColumnDataType(colId).getStoredType();
-    int numRows = columns.get(colId).length;
-
-    Object[] column = columns.get(colId);
+    int numRows = column.length;
     int interruptableLoopStep = 10000;
 
     // NOTE:
@@ -339,7 +428,7 @@ public class DataBlockBuilder {
         int nullPlaceHolder = dictionary.computeIfAbsent((String) storedType.getNullPlaceholder(), didSupplier);
 
         interruptableLoop(0, numRows, interruptableLoopStep, (start, end) -> {
-          for (int rowId = 0; rowId < numRows; rowId++) {
+          for (int rowId = start; rowId < end; rowId++) {
             Object value = column[rowId];
             if (value == null) {
               nullBitmap.add(rowId);
@@ -355,7 +444,7 @@ public class DataBlockBuilder {
       case BYTES: {
         ByteArray nullPlaceholder = (ByteArray) storedType.getNullPlaceholder();
         interruptableLoop(0, numRows, interruptableLoopStep, (start, end) -> {
-          for (int rowId = 0; rowId < numRows; rowId++) {
+          for (int rowId = start; rowId < end; rowId++) {
             Object value = column[rowId];
             if (value == null) {
               nullBitmap.add(rowId);
@@ -370,7 +459,7 @@ public class DataBlockBuilder {
       case MAP: {
         Map nullPlaceholder = (Map) storedType.getNullPlaceholder();
         interruptableLoop(0, numRows, interruptableLoopStep, (start, end) -> {
-          for (int rowId = 0; rowId < numRows; rowId++) {
+          for (int rowId = start; rowId < end; rowId++) {
             Object value = column[rowId];
             if (value == null) {
               nullBitmap.add(rowId);
@@ -386,7 +475,7 @@ public class DataBlockBuilder {
       case INT_ARRAY: {
         int[] nullPlaceholder = (int[]) storedType.getNullPlaceholder();
         interruptableLoop(0, numRows, interruptableLoopStep, (start, end) -> {
-          for (int rowId = 0; rowId < numRows; rowId++) {
+          for (int rowId = start; rowId < end; rowId++) {
             Object value = column[rowId];
             if (value == null) {
               nullBitmap.add(rowId);
@@ -401,7 +490,7 @@ public class DataBlockBuilder {
       case LONG_ARRAY: {
         long[] nullPlaceholder = (long[]) storedType.getNullPlaceholder();
         interruptableLoop(0, numRows, interruptableLoopStep, (start, end) -> {
-          for (int rowId = 0; rowId < numRows; rowId++) {
+          for (int rowId = start; rowId < end; rowId++) {
             Object value = column[rowId];
             if (value == null) {
               nullBitmap.add(rowId);
@@ -416,7 +505,7 @@ public class DataBlockBuilder {
       case FLOAT_ARRAY: {
         float[] nullPlaceholder = (float[]) storedType.getNullPlaceholder();
         interruptableLoop(0, numRows, interruptableLoopStep, (start, end) -> {
-          for (int rowId = 0; rowId < numRows; rowId++) {
+          for (int rowId = start; rowId < end; rowId++) {
             Object value = column[rowId];
             if (value == null) {
               nullBitmap.add(rowId);
@@ -431,7 +520,7 @@ public class DataBlockBuilder {
       case DOUBLE_ARRAY: {
         double[] nullPlaceholder = (double[]) storedType.getNullPlaceholder();
         interruptableLoop(0, numRows, interruptableLoopStep, (start, end) -> {
-          for (int rowId = 0; rowId < numRows; rowId++) {
+          for (int rowId = start; rowId < end; rowId++) {
             Object value = column[rowId];
             if (value == null) {
               nullBitmap.add(rowId);
@@ -446,7 +535,7 @@ public class DataBlockBuilder {
       case STRING_ARRAY: {
         String[] nullPlaceholder = (String[]) storedType.getNullPlaceholder();
         interruptableLoop(0, numRows, interruptableLoopStep, (start, end) -> {
-          for (int rowId = 0; rowId < numRows; rowId++) {
+          for (int rowId = start; rowId < end; rowId++) {
             Object value = column[rowId];
             if (value == null) {
               nullBitmap.add(rowId);
@@ -462,7 +551,7 @@ public class DataBlockBuilder {
       case OBJECT: {
         assert aggFunction != null;
         interruptableLoop(0, numRows, interruptableLoopStep, (start, end) -> {
-          for (int rowId = 0; rowId < numRows; rowId++) {
+          for (int rowId = start; rowId < end; rowId++) {
             Object value = column[rowId];
             if (value == null) {
               setNull(fixedSize, varSize);
@@ -476,7 +565,7 @@ public class DataBlockBuilder {
       // Null
       case UNKNOWN:
         interruptableLoop(0, numRows, interruptableLoopStep, (start, end) -> {
-          for (int rowId = 0; rowId < numRows; rowId++) {
+          for (int rowId = start; rowId < end; rowId++) {
             setNull(fixedSize, varSize);
           }
         });
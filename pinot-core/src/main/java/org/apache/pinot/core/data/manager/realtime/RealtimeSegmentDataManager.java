@@ -318,6 +318,12 @@ public class RealtimeSegmentDataManager extends SegmentDataManager {
   private final StreamPartitionMsgOffset _startOffset;
   private final StreamConfig _streamConfig;
 
+  // Rows buffered to be indexed in batch into the mutable segment, along with the metadata of the messages they are
+  // decoded from. The row objects are reused across the message batches because the decoder reuses the decoded row.
+  private final List<GenericRow> _bufferedRows = new ArrayList<>();
+  private final List<StreamMessageMetadata> _bufferedRowMetadata = new ArrayList<>();
+  private int _numBufferedRows = 0;
+
   private StreamMessageMetadata _lastRowMetadata;
   private long _lastConsumedTimestampMs = -1;
   private long _consumeStartTime = -1;
@@ -588,6 +594,7 @@ public class RealtimeSegmentDataManager extends SegmentDataManager {
     int streamMessageCount = 0;
     boolean canTakeMore = true;
     boolean prematureExit = false;
+    boolean batchIndexingSupported = _realtimeSegment.isBatchIndexingSupported();
 
     for (int index = 0; index < messageCount; index++) {
       prematureExit = _shouldStop || endCriteriaReached();
@@ -666,31 +673,46 @@ public class RealtimeSegmentDataManager extends SegmentDataManager {
                     result.getSanitizedRowCount(), realtimeRowsSanitizedMeter);
           }
           List<GenericRow> transformedRows = result.getTransformedRows();
-          for (GenericRow transformedRow : transformedRows) {
-            try {
-              canTakeMore = _realtimeSegment.index(transformedRow, metadata);
-              indexedMessageCount++;
-              _lastRowMetadata = metadata;
-              _lastConsumedTimestampMs = System.currentTimeMillis();
-              realtimeRowsConsumedMeter =
-                  _serverMetrics.addMeteredTableValue(_clientId, ServerMeter.REALTIME_ROWS_CONSUMED, 1,
-                      realtimeRowsConsumedMeter);
-              _serverMetrics.addMeteredGlobalValue(ServerMeter.REALTIME_ROWS_CONSUMED, 1L);
-
-              int recordSerializedValueLength = _lastRowMetadata.getRecordSerializedSize();
-              if (recordSerializedValueLength > 0) {
-                realtimeBytesIngestedMeter =
-                    _serverMetrics.addMeteredTableValue(_clientId, ServerMeter.REALTIME_BYTES_CONSUMED,
-                        recordSerializedValueLength, realtimeBytesIngestedMeter);
-                _serverMetrics.addMeteredGlobalValue(ServerMeter.REALTIME_BYTES_CONSUMED, recordSerializedValueLength);
+          if (batchIndexingSupported) {
+            for (GenericRow transformedRow : transformedRows) {
+              bufferRow(transformedRow, metadata);
+            }
+            // Index the buffered rows before reaching the row limit so that the end criteria can be checked
+            if (_numRowsIndexed + _numBufferedRows >= _segmentMaxRowCount) {
+              int numRowsErrored = _numRowsErrored;
+              int numRowsToIndex = _numBufferedRows;
+              canTakeMore = indexBufferedRows();
+              indexedMessageCount += numRowsToIndex - (_numRowsErrored - numRowsErrored);
+            }
+          } else {
+            for (GenericRow transformedRow : transformedRows) {
+              try {
+                canTakeMore = _realtimeSegment.index(transformedRow, metadata);
+                indexedMessageCount++;
+                _lastRowMetadata = metadata;
+                _lastConsumedTimestampMs = System.currentTimeMillis();
+                realtimeRowsConsumedMeter =
+                    _serverMetrics.addMeteredTableValue(_clientId, ServerMeter.REALTIME_ROWS_CONSUMED, 1,
+                        realtimeRowsConsumedMeter);
+                _serverMetrics.addMeteredGlobalValue(ServerMeter.REALTIME_ROWS_CONSUMED, 1L);
+
+                int recordSerializedValueLength = _lastRowMetadata.getRecordSerializedSize();
+                if (recordSerializedValueLength > 0) {
+                  realtimeBytesIngestedMeter =
+                      _serverMetrics.addMeteredTableValue(_clientId, ServerMeter.REALTIME_BYTES_CONSUMED,
+                          recordSerializedValueLength, realtimeBytesIngestedMeter);
+                  _serverMetrics.addMeteredGlobalValue(ServerMeter.REALTIME_BYTES_CONSUMED,
+                      recordSerializedValueLength);
+                }
+              } catch (Exception e) {
+                _numRowsErrored++;
+                _numBytesDropped += rowSizeInBytes;
+                String errorMessage =
+                    "Caught exception while indexing the record at offset: " + offset + " , row: " + transformedRow;
+                _segmentLogger.error(errorMessage, e);
+                _realtimeTableDataManager.addSegmentError(_segmentNameStr,
+                    new SegmentErrorInfo(now(), errorMessage, e));
               }
-            } catch (Exception e) {
-              _numRowsErrored++;
-              _numBytesDropped += rowSizeInBytes;
-              String errorMessage =
-                  "Caught exception while indexing the record at offset: " + offset + " , row: " + transformedRow;
-              _segmentLogger.error(errorMessage, e);
-              _realtimeTableDataManager.addSegmentError(_segmentNameStr, new SegmentErrorInfo(now(), errorMessage, e));
             }
           }
         }
@@ -701,6 +723,13 @@ public class RealtimeSegmentDataManager extends SegmentDataManager {
       streamMessageCount++;
     }
 
+    if (_numBufferedRows > 0) {
+      int numRowsErrored = _numRowsErrored;
+      int numRowsToIndex = _numBufferedRows;
+      indexBufferedRows();
+      indexedMessageCount += numRowsToIndex - (_numRowsErrored - numRowsErrored);
+    }
+
     updateCurrentDocumentCountMetrics();
     if (messageBatch.getUnfilteredMessageCount() > 0) {
       updateIngestionMetrics(messageBatch.getLastMessageMetadata());
@@ -721,6 +750,78 @@ public class RealtimeSegmentDataManager extends SegmentDataManager {
     return prematureExit;
   }
 
+  private void bufferRow(GenericRow row, StreamMessageMetadata metadata) {
+    GenericRow bufferedRow;
+    if (_numBufferedRows < _bufferedRows.size()) {
+      bufferedRow = _bufferedRows.get(_numBufferedRows);
+      bufferedRow.clear();
+      _bufferedRowMetadata.set(_numBufferedRows, metadata);
+    } else {
+      bufferedRow = new GenericRow();
+      _bufferedRows.add(bufferedRow);
+      _bufferedRowMetadata.add(metadata);
+    }
+    bufferedRow.init(row);
+    _numBufferedRows++;
+  }
+
+  /**
+   * Indexes the buffered rows into the mutable segment in batch. If the batch cannot be indexed, falls back to index
+   * the rows one by one so that only the bad rows are dropped. This is safe because a failed batch does not add any
+   * value to the indexes (see {@link MutableSegment#index(List, List)}), so the rows are indexed again at the same doc
+   * ids.
+   *
+   * @return Whether the mutable segment can index more rows
+   */
+  private boolean indexBufferedRows() {
+    int numRows = _numBufferedRows;
+    _numBufferedRows = 0;
+    List<GenericRow> rows = _bufferedRows.subList(0, numRows);
+    List<StreamMessageMetadata> metadataList = _bufferedRowMetadata.subList(0, numRows);
+    boolean canTakeMore = true;
+    int numRowsIndexed = 0;
+    long numBytesIndexed = 0;
+    try {
+      canTakeMore = _realtimeSegment.index(rows, metadataList);
+      numRowsIndexed = numRows;
+      for (StreamMessageMetadata metadata : metadataList) {
+        numBytesIndexed += Math.max(metadata.getRecordSerializedSize(), 0);
+      }
+    } catch (Exception e) {
+      _segmentLogger.warn("Caught exception while indexing {} rows in batch, indexing them one by one", numRows, e);
+      for (int i = 0; i < numRows; i++) {
+        GenericRow row = rows.get(i);
+        StreamMessageMetadata metadata = metadataList.get(i);
+        try {
+          canTakeMore = _realtimeSegment.index(row, metadata);
+          numRowsIndexed++;
+          numBytesIndexed += Math.max(metadata.getRecordSerializedSize(), 0);
+        } catch (Exception rowException) {
+          _numRowsErrored++;
+          _numBytesDropped += metadata.getRecordSerializedSize();
+          String errorMessage =
+              "Caught exception while indexing the record at offset: " + metadata.getOffset() + " , row: " + row;
+          _segmentLogger.error(errorMessage, rowException);
+          _realtimeTableDataManager.addSegmentError(_segmentNameStr,
+              new SegmentErrorInfo(now(), errorMessage, rowException));
+        }
+      }
+    }
+    _numRowsIndexed = _realtimeSegment.getNumDocsIndexed();
+
+    if (numRowsIndexed > 0) {
+      _lastRowMetadata = metadataList.get(numRows - 1);
+      _lastConsumedTimestampMs = System.currentTimeMillis();
+      _serverMetrics.addMeteredTableValue(_clientId, ServerMeter.REALTIME_ROWS_CONSUMED, numRowsIndexed);
+      _serverMetrics.addMeteredGlobalValue(ServerMeter.REALTIME_ROWS_CONSUMED, numRowsIndexed);
+      if (numBytesIndexed > 0) {
+        _serverMetrics.addMeteredTableValue(_clientId, ServerMeter.REALTIME_BYTES_CONSUMED, numBytesIndexed);
+        _serverMetrics.addMeteredGlobalValue(ServerMeter.REALTIME_BYTES_CONSUMED, numBytesIndexed);
+      }
+    }
+    return canTakeMore;
+  }
+
   @VisibleForTesting
   boolean canAddMore() {
     return _realtimeSegment.canAddMore();
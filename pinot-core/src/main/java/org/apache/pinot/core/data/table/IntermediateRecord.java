@@ -34,4 +34,12 @@ public class IntermediateRecord {
     _record = record;
     _values = values;
   }
+
+  /**
+   * Creates an intermediate record without the values to be ordered. Such record can be merged into the indexed table,
+   * but cannot be used to trim the segment level results.
+   */
+  public static IntermediateRecord create(Key key, Record record) {
+    return new IntermediateRecord(key, record, null);
+  }
 }
@@ -0,0 +1,232 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.data.table;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Iterators;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.pinot.common.utils.DataSchema;
+import org.apache.pinot.core.query.request.context.QueryContext;
+
+
+/**
+ * {@link Table} implementation where the records are stored in multiple disjoint partitions. The partition of a record
+ * is decided by the caller (see {@link #getPartitionId(int)}), and the same key must always be upserted into the same
+ * partition. Different partitions can be upserted concurrently without any locking, but each partition must only be
+ * upserted by one thread at a time.
+ *
+ * <p>When there is ORDER BY, each partition is trimmed to the trim size once it reaches the trim threshold. This won't
+ * drop any global top record because a global top record is always a top record within its partition. When there is
+ * no ORDER BY, the table stops accepting new groups once the result size is reached across all the partitions.
+ */
+@SuppressWarnings("unchecked")
+public class PartitionedIndexedTable extends IndexedTable {
+  private final Map<Key, Record>[] _partitions;
+  private final int _partitionShift;
+  private final AtomicInteger _numRecords = new AtomicInteger();
+  private final AtomicInteger _numPartitionResizes = new AtomicInteger();
+  private final AtomicLong _partitionResizeTimeNs = new AtomicLong();
+
+  public PartitionedIndexedTable(DataSchema dataSchema, boolean hasFinalInput, QueryContext queryContext,
+      int resultSize, int trimSize, int trimThreshold, int numPartitions, int initialCapacity,
+      ExecutorService executorService) {
+    this(dataSchema, hasFinalInput, queryContext, resultSize, trimSize, trimThreshold,
+        createPartitions(numPartitions, initialCapacity), executorService);
+  }
+
+  private PartitionedIndexedTable(DataSchema dataSchema, boolean hasFinalInput, QueryContext queryContext,
+      int resultSize, int trimSize, int trimThreshold, Map<Key, Record>[] partitions, ExecutorService executorService) {
+    super(dataSchema, hasFinalInput, queryContext, resultSize, trimSize, trimThreshold, new PartitionsView(partitions),
+        executorService);
+    _partitions = partitions;
+    _partitionShift = Integer.SIZE - Integer.numberOfTrailingZeros(partitions.length);
+  }
+
+  private static Map<Key, Record>[] createPartitions(int numPartitions, int initialCapacity) {
+    Preconditions.checkArgument(numPartitions > 0 && Integer.bitCount(numPartitions) == 1,
+        "Number of partitions must be a power of 2, got: %s", numPartitions);
+    Map<Key, Record>[] partitions = new Map[numPartitions];
+    int partitionInitialCapacity = Math.max(initialCapacity / numPartitions, 16);
+    for (int i = 0; i < numPartitions; i++) {
+      partitions[i] = new HashMap<>(partitionInitialCapacity);
+    }
+    return partitions;
+  }
+
+  public int getNumPartitions() {
+    return _partitions.length;
+  }
+
+  /**
+   * Returns the partition id for the given hash code of the group key. The high bits of the mixed hash code are used
+   * so that the partitioning is independent of the bucketing within the hash maps (which uses the low bits).
+   */
+  public int getPartitionId(int hash) {
+    // NOTE: Shift by 32 is a no-op in Java, so handle single partition separately
+    return _partitionShift == Integer.SIZE ? 0 : (hash * 0x9E3779B9) >>> _partitionShift;
+  }
+
+  public int getResultSize() {
+    return _resultSize;
+  }
+
+  public int getTrimSize() {
+    return _trimSize;
+  }
+
+  public int getTrimThreshold() {
+    return _trimThreshold;
+  }
+
+  @Override
+  public boolean upsert(Key key, Record record) {
+    upsert(getPartitionId(key.hashCode()), key, record);
+    return true;
+  }
+
+  /**
+   * Upserts the record into the given partition. Different partitions can be upserted concurrently, but each partition
+   * must only be upserted by one thread at a time.
+   */
+  public void upsert(int partitionId, Key key, Record record) {
+    Map<Key, Record> partition = _partitions[partitionId];
+    if (_hasOrderBy) {
+      addOrUpdateRecord(partition, key, record);
+      if (partition.size() >= _trimThreshold) {
+        resizePartition(partition);
+      }
+    } else {
+      if (_numRecords.get() < _resultSize) {
+        addOrUpdateRecord(partition, key, record);
+      } else {
+        partition.computeIfPresent(key, (k, v) -> updateRecord(v, record));
+      }
+    }
+  }
+
+  private void addOrUpdateRecord(Map<Key, Record> partition, Key key, Record record) {
+    Record existingRecord = partition.putIfAbsent(key, record);
+    if (existingRecord == null) {
+      _numRecords.getAndIncrement();
+    } else {
+      updateRecord(existingRecord, record);
+    }
+  }
+
+  private void resizePartition(Map<Key, Record> partition) {
+    long startTimeNs = System.nanoTime();
+    int sizeBeforeResize = partition.size();
+    _tableResizer.resizeRecordsMap(partition, _trimSize);
+    _numRecords.getAndAdd(partition.size() - sizeBeforeResize);
+    _numPartitionResizes.getAndIncrement();
+    _partitionResizeTimeNs.getAndAdd(System.nanoTime() - startTimeNs);
+  }
+
+  @Override
+  public void finish(boolean sort, boolean storeFinalResult) {
+    if (!_hasOrderBy) {
+      // Multiple partitions might add new groups concurrently, so the result size can be slightly exceeded
+      int numRecordsToEvict = _numRecords.get() - _resultSize;
+      for (int i = 0; i < _partitions.length && numRecordsToEvict > 0; i++) {
+        Iterator<Record> iterator = _partitions[i].values().iterator();
+        while (iterator.hasNext() && numRecordsToEvict > 0) {
+          iterator.next();
+          iterator.remove();
+          numRecordsToEvict--;
+        }
+      }
+      _numRecords.set(Math.min(_numRecords.get(), _resultSize));
+    }
+    super.finish(sort, storeFinalResult);
+  }
+
+  @Override
+  public int getNumResizes() {
+    return super.getNumResizes() + _numPartitionResizes.get();
+  }
+
+  @Override
+  public boolean isTrimmed() {
+    return _numPartitionResizes.get() > 0 || super.isTrimmed();
+  }
+
+  @Override
+  public long getResizeTimeMs() {
+    return super.getResizeTimeMs() + TimeUnit.NANOSECONDS.toMillis(_partitionResizeTimeNs.get());
+  }
+
+  /**
+   * Read-only view of all the partitions as a single map, used to extract the top records from the table.
+   */
+  private static class PartitionsView extends AbstractMap<Key, Record> {
+    final Map<Key, Record>[] _partitions;
+
+    PartitionsView(Map<Key, Record>[] partitions) {
+      _partitions = partitions;
+    }
+
+    @Override
+    public int size() {
+      int size = 0;
+      for (Map<Key, Record> partition : _partitions) {
+        size += partition.size();
+      }
+      return size;
+    }
+
+    @Override
+    public Record get(Object key) {
+      for (Map<Key, Record> partition : _partitions) {
+        Record record = partition.get(key);
+        if (record != null) {
+          return record;
+        }
+      }
+      return null;
+    }
+
+    @Override
+    public Set<Entry<Key, Record>> entrySet() {
+      return new AbstractSet<Entry<Key, Record>>() {
+        @Override
+        public Iterator<Entry<Key, Record>> iterator() {
+          Iterator<Entry<Key, Record>>[] iterators = new Iterator[_partitions.length];
+          for (int i = 0; i < _partitions.length; i++) {
+            iterators[i] = _partitions[i].entrySet().iterator();
+          }
+          return Iterators.concat(iterators);
+        }
+
+        @Override
+        public int size() {
+          return PartitionsView.this.size();
+        }
+      };
+    }
+  }
+}
@@ -0,0 +1,671 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.operator.combine;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMaps;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMaps;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectMaps;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import javax.annotation.Nullable;
+import org.apache.pinot.common.utils.HashUtil;
+import org.apache.pinot.core.common.Operator;
+import org.apache.pinot.core.data.table.IntermediateRecord;
+import org.apache.pinot.core.data.table.Key;
+import org.apache.pinot.core.data.table.PartitionedIndexedTable;
+import org.apache.pinot.core.data.table.Record;
+import org.apache.pinot.core.data.table.TableResizer;
+import org.apache.pinot.core.operator.AcquireReleaseColumnsSegmentOperator;
+import org.apache.pinot.core.operator.blocks.results.BaseResultsBlock;
+import org.apache.pinot.core.operator.blocks.results.ExceptionResultsBlock;
+import org.apache.pinot.core.operator.blocks.results.GroupByResultsBlock;
+import org.apache.pinot.core.query.aggregation.function.AggregationFunction;
+import org.apache.pinot.core.query.aggregation.groupby.AggregationGroupByResult;
+import org.apache.pinot.core.query.aggregation.groupby.GroupKeyGenerator;
+import org.apache.pinot.core.query.request.context.QueryContext;
+import org.apache.pinot.core.query.scheduler.resources.ResourceManager;
+import org.apache.pinot.core.util.GroupByUtils;
+import org.apache.pinot.core.util.trace.TraceRunnable;
+import org.apache.pinot.spi.accounting.ThreadExecutionContext;
+import org.apache.pinot.spi.exception.QueryErrorCode;
+import org.apache.pinot.spi.exception.QueryErrorMessage;
+import org.apache.pinot.spi.exception.QueryException;
+import org.apache.pinot.spi.trace.Tracing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Combine operator for group-by queries which doesn't share any lock between the threads.
+ *
+ * <p>The groups are combined in 2 phases:
+ * <ul>
+ *   <li>
+ *     Each worker thread merges the results of its segments into thread-local maps, where the groups are partitioned on
+ *     the hash of the group key. The intermediate results are merged in place, and a single INT/LONG group key is
+ *     stored in a primitive map, so that no {@link Key} or {@link Record} is allocated for the existing groups.
+ *   </li>
+ *   <li>
+ *     After all the segments are processed, each partition is merged across the thread-local maps and added into the
+ *     {@link PartitionedIndexedTable}. The partitions are disjoint, so they are merged in parallel without locking.
+ *   </li>
+ * </ul>
+ *
+ * <p>This operator is enabled with the {@code partitionedGroupByCombine} query option, and is useful when there are
+ * many groups shared across the segments, where threads would contend on the shared {@link Key}s of the
+ * {@link org.apache.pinot.core.data.table.ConcurrentIndexedTable}.
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class PartitionedGroupByCombineOperator extends BaseSingleBlockCombineOperator<GroupByResultsBlock> {
+  private static final Logger LOGGER = LoggerFactory.getLogger(PartitionedGroupByCombineOperator.class);
+  private static final String EXPLAIN_NAME = "COMBINE_GROUP_BY_PARTITIONED";
+
+  // Use more partitions than tasks so that the partitions can be evenly distributed to the merge threads
+  private static final int NUM_PARTITIONS_PER_TASK = 4;
+  private static final int MAX_NUM_PARTITIONS = 256;
+
+  private final AggregationFunction[] _aggregationFunctions;
+  private final int _numAggregationFunctions;
+  private final int _numGroupByExpressions;
+  private final int _numColumns;
+  private final int _numPartitions;
+  // We use a CountDownLatch to track if all Futures are finished by the query timeout, and cancel the unfinished
+  // _futures (try to interrupt the execution if it already started).
+  private final CountDownLatch _operatorLatch;
+  // Each worker thread registers its thread-local groups here
+  private final PartitionedGroups[] _threadLocalGroups;
+  private final AtomicInteger _numThreadLocalGroups = new AtomicInteger();
+  private final AtomicInteger _numThreadLocalResizes = new AtomicInteger();
+  private final AtomicLong _threadLocalResizeTimeNs = new AtomicLong();
+
+  private volatile PartitionedIndexedTable _indexedTable;
+  private volatile TableResizer _tableResizer;
+  private volatile boolean _groupsTrimmed;
+  private volatile boolean _numGroupsLimitReached;
+  private volatile boolean _numGroupsWarningLimitReached;
+
+  public PartitionedGroupByCombineOperator(List<Operator> operators, QueryContext queryContext,
+      ExecutorService executorService) {
+    super(null, operators, overrideMaxExecutionThreads(queryContext, operators.size()), executorService);
+
+    _aggregationFunctions = _queryContext.getAggregationFunctions();
+    assert _aggregationFunctions != null;
+    _numAggregationFunctions = _aggregationFunctions.length;
+    assert _queryContext.getGroupByExpressions() != null;
+    _numGroupByExpressions = _queryContext.getGroupByExpressions().size();
+    _numColumns = _numGroupByExpressions + _numAggregationFunctions;
+    _numPartitions = Math.min(Integer.highestOneBit(_numTasks * NUM_PARTITIONS_PER_TASK), MAX_NUM_PARTITIONS);
+    _operatorLatch = new CountDownLatch(_numTasks);
+    _threadLocalGroups = new PartitionedGroups[_numTasks];
+  }
+
+  /**
+   * For group-by queries, when maxExecutionThreads is not explicitly configured, override it to create as many tasks
+   * as the default number of query worker threads (or the number of operators / segments if that's lower).
+   */
+  private static QueryContext overrideMaxExecutionThreads(QueryContext queryContext, int numOperators) {
+    int maxExecutionThreads = queryContext.getMaxExecutionThreads();
+    if (maxExecutionThreads <= 0) {
+      queryContext.setMaxExecutionThreads(Math.min(numOperators, ResourceManager.DEFAULT_QUERY_WORKER_THREADS));
+    }
+    return queryContext;
+  }
+
+  @Override
+  public String toExplainString() {
+    return EXPLAIN_NAME;
+  }
+
+  /**
+   * Executes query on one segment in a worker thread and merges the results into the thread-local groups.
+   */
+  @Override
+  protected void processSegments() {
+    PartitionedGroups groups = null;
+    int operatorId;
+    while (_processingException.get() == null && (operatorId = _nextOperatorId.getAndIncrement()) < _numOperators) {
+      Operator operator = _operators.get(operatorId);
+      try {
+        if (operator instanceof AcquireReleaseColumnsSegmentOperator) {
+          ((AcquireReleaseColumnsSegmentOperator) operator).acquire();
+        }
+        GroupByResultsBlock resultsBlock = (GroupByResultsBlock) operator.nextBlock();
+        if (_indexedTable == null) {
+          synchronized (this) {
+            if (_indexedTable == null) {
+              PartitionedIndexedTable indexedTable =
+                  GroupByUtils.createPartitionedIndexedTableForCombineOperator(resultsBlock, _queryContext,
+                      _numPartitions, _executorService);
+              if (_queryContext.getOrderByExpressions() != null) {
+                _tableResizer = new TableResizer(indexedTable.getDataSchema(), false, _queryContext);
+              }
+              _indexedTable = indexedTable;
+            }
+          }
+        }
+        if (groups == null) {
+          groups = createPartitionedGroups();
+          _threadLocalGroups[_numThreadLocalGroups.getAndIncrement()] = groups;
+        }
+
+        if (resultsBlock.isGroupsTrimmed()) {
+          _groupsTrimmed = true;
+        }
+        // Set groups limit reached flag.
+        if (resultsBlock.isNumGroupsLimitReached()) {
+          _numGroupsLimitReached = true;
+        }
+        if (resultsBlock.isNumGroupsWarningLimitReached()) {
+          _numGroupsWarningLimitReached = true;
+        }
+
+        // Count the number of merged keys
+        int mergedKeys = 0;
+        // For now, only GroupBy OrderBy query has pre-constructed intermediate records
+        Collection<IntermediateRecord> intermediateRecords = resultsBlock.getIntermediateRecords();
+        if (intermediateRecords == null) {
+          AggregationGroupByResult aggregationGroupByResult = resultsBlock.getAggregationGroupByResult();
+          if (aggregationGroupByResult != null) {
+            try {
+              Iterator<GroupKeyGenerator.GroupKey> dicGroupKeyIterator = aggregationGroupByResult.getGroupKeyIterator();
+              while (dicGroupKeyIterator.hasNext()) {
+                GroupKeyGenerator.GroupKey groupKey = dicGroupKeyIterator.next();
+                int groupId = groupKey._groupId;
+                Object[] intermediateResults = new Object[_numAggregationFunctions];
+                for (int i = 0; i < _numAggregationFunctions; i++) {
+                  intermediateResults[i] = aggregationGroupByResult.getResultForGroupId(i, groupId);
+                }
+                groups.add(groupKey._keys, intermediateResults);
+                Tracing.ThreadAccountantOps.sampleAndCheckInterruptionPeriodically(mergedKeys);
+                mergedKeys++;
+              }
+            } finally {
+              // Release the resources used by the group key generator
+              aggregationGroupByResult.closeGroupKeyGenerator();
+            }
+          }
+        } else {
+          for (IntermediateRecord intermediateRecord : intermediateRecords) {
+            groups.add(intermediateRecord._key.getValues(),
+                Arrays.copyOfRange(intermediateRecord._record.getValues(), _numGroupByExpressions, _numColumns));
+            Tracing.ThreadAccountantOps.sampleAndCheckInterruptionPeriodically(mergedKeys);
+            mergedKeys++;
+          }
+        }
+      } catch (RuntimeException e) {
+        throw wrapOperatorException(operator, e);
+      } finally {
+        if (operator instanceof AcquireReleaseColumnsSegmentOperator) {
+          ((AcquireReleaseColumnsSegmentOperator) operator).release();
+        }
+      }
+    }
+  }
+
+  /**
+   * Creates the thread-local groups based on the type of the group key. Primitive maps are used for single INT/LONG
+   * group key without null handling (primitive maps cannot store {@code null} key).
+   */
+  private PartitionedGroups createPartitionedGroups() {
+    if (_numGroupByExpressions == 1 && !_queryContext.isNullHandlingEnabled()) {
+      switch (_indexedTable.getDataSchema().getColumnDataType(0).getStoredType()) {
+        case INT:
+          return new IntGroups();
+        case LONG:
+          return new LongGroups();
+        default:
+          break;
+      }
+    }
+    return new ObjectGroups();
+  }
+
+  @Override
+  public void onProcessSegmentsException(Throwable t) {
+    _processingException.compareAndSet(null, t);
+  }
+
+  @Override
+  public void onProcessSegmentsFinish() {
+    _operatorLatch.countDown();
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Merges the thread-local groups partition by partition into the indexed table, and returns a merged results
+   * block.
+   */
+  @Override
+  public BaseResultsBlock mergeResults()
+      throws Exception {
+    long timeoutMs = _queryContext.getEndTimeMs() - System.currentTimeMillis();
+    boolean opCompleted = _operatorLatch.await(timeoutMs, TimeUnit.MILLISECONDS);
+    if (!opCompleted) {
+      // If this happens, the broker side should already timed out, just log the error and return
+      return getTimeoutResultsBlock(timeoutMs);
+    }
+
+    Throwable ex = _processingException.get();
+    if (ex != null) {
+      return getExceptionResultsBlock(ex);
+    }
+
+    BaseResultsBlock mergeExceptionBlock = mergePartitions();
+    if (mergeExceptionBlock != null) {
+      return mergeExceptionBlock;
+    }
+
+    PartitionedIndexedTable indexedTable = _indexedTable;
+    if ((indexedTable.isTrimmed() || _numThreadLocalResizes.get() > 0) && _queryContext.isUnsafeTrim()) {
+      _groupsTrimmed = true;
+    }
+
+    if (_queryContext.isServerReturnFinalResult()) {
+      indexedTable.finish(true, true);
+    } else if (_queryContext.isServerReturnFinalResultKeyUnpartitioned()) {
+      indexedTable.finish(false, true);
+    } else {
+      indexedTable.finish(false);
+    }
+    GroupByResultsBlock mergedBlock = new GroupByResultsBlock(indexedTable, _queryContext);
+    mergedBlock.setGroupsTrimmed(_groupsTrimmed);
+    mergedBlock.setNumGroupsLimitReached(_numGroupsLimitReached);
+    mergedBlock.setNumGroupsWarningLimitReached(_numGroupsWarningLimitReached);
+    mergedBlock.setNumResizes(indexedTable.getNumResizes() + _numThreadLocalResizes.get());
+    mergedBlock.setResizeTimeMs(
+        indexedTable.getResizeTimeMs() + TimeUnit.NANOSECONDS.toMillis(_threadLocalResizeTimeNs.get()));
+    return mergedBlock;
+  }
+
+  /**
+   * Merges the thread-local groups into the indexed table in parallel, where each partition is merged by a single
+   * thread. The current thread also merges partitions, so the merge can always make progress even when the helper tasks
+   * are not scheduled in time. Returns a results block with the error if the merge fails, or {@code null} otherwise.
+   */
+  @Nullable
+  private BaseResultsBlock mergePartitions()
+      throws InterruptedException {
+    int numThreadLocalGroups = _numThreadLocalGroups.get();
+    if (numThreadLocalGroups == 0) {
+      return null;
+    }
+    AtomicInteger nextPartitionId = new AtomicInteger();
+    CountDownLatch partitionLatch = new CountDownLatch(_numPartitions);
+    AtomicReference<Throwable> mergeException = new AtomicReference<>();
+    int numHelperTasks = Math.min(_numTasks, _numPartitions) - 1;
+    Future[] futures = new Future[numHelperTasks];
+    ThreadExecutionContext parentContext = Tracing.getThreadAccountant().getThreadExecutionContext();
+    for (int i = 0; i < numHelperTasks; i++) {
+      int taskId = i;
+      futures[i] = _executorService.submit(new TraceRunnable() {
+        @Override
+        public void runJob() {
+          Tracing.ThreadAccountantOps.setupWorker(taskId, parentContext);
+          try {
+            mergePartitions(numThreadLocalGroups, nextPartitionId, partitionLatch, mergeException);
+          } finally {
+            Tracing.ThreadAccountantOps.clear();
+          }
+        }
+      });
+    }
+    try {
+      mergePartitions(numThreadLocalGroups, nextPartitionId, partitionLatch, mergeException);
+      long timeoutMs = _queryContext.getEndTimeMs() - System.currentTimeMillis();
+      if (!partitionLatch.await(timeoutMs, TimeUnit.MILLISECONDS)) {
+        return getTimeoutResultsBlock(timeoutMs);
+      }
+    } finally {
+      for (Future future : futures) {
+        future.cancel(true);
+      }
+    }
+    Throwable ex = mergeException.get();
+    return ex != null ? getExceptionResultsBlock(ex) : null;
+  }
+
+  private void mergePartitions(int numThreadLocalGroups, AtomicInteger nextPartitionId,
+      CountDownLatch partitionLatch, AtomicReference<Throwable> mergeException) {
+    int partitionId;
+    while ((partitionId = nextPartitionId.getAndIncrement()) < _numPartitions) {
+      try {
+        if (mergeException.get() == null) {
+          mergePartition(partitionId, numThreadLocalGroups);
+        }
+      } catch (Throwable t) {
+        mergeException.compareAndSet(null, t);
+      } finally {
+        partitionLatch.countDown();
+      }
+    }
+  }
+
+  /**
+   * Merges the given partition of all the thread-local groups into the largest one, then adds the merged groups into
+   * the indexed table, so that {@link Key} and {@link Record} are created only once per group.
+   */
+  private void mergePartition(int partitionId, int numThreadLocalGroups) {
+    PartitionedGroups mergedGroups = _threadLocalGroups[0];
+    for (int i = 1; i < numThreadLocalGroups; i++) {
+      if (_threadLocalGroups[i].size(partitionId) > mergedGroups.size(partitionId)) {
+        mergedGroups = _threadLocalGroups[i];
+      }
+    }
+    for (int i = 0; i < numThreadLocalGroups; i++) {
+      PartitionedGroups groups = _threadLocalGroups[i];
+      if (groups != mergedGroups) {
+        mergedGroups.merge(partitionId, groups);
+        Tracing.ThreadAccountantOps.sampleAndCheckInterruptionPeriodically(i);
+      }
+    }
+    PartitionedIndexedTable indexedTable = _indexedTable;
+    mergedGroups.forEachRecord(partitionId, (key, record) -> indexedTable.upsert(partitionId, key, record));
+  }
+
+  private BaseResultsBlock getTimeoutResultsBlock(long timeoutMs) {
+    String userError = "Timed out while combining group-by order-by results after " + timeoutMs + "ms";
+    String logMsg = userError + ", queryContext = " + _queryContext;
+    LOGGER.error(logMsg);
+    return new ExceptionResultsBlock(new QueryErrorMessage(QueryErrorCode.EXECUTION_TIMEOUT, userError, logMsg));
+  }
+
+  private BaseResultsBlock getExceptionResultsBlock(Throwable ex) {
+    String userError = "Caught exception while processing group-by order-by query";
+    String devError = userError + ": " + ex.getMessage();
+    QueryErrorMessage errMsg;
+    if (ex instanceof QueryException) {
+      // If the exception is a QueryException, use the error code from the exception and trust the error message
+      errMsg = new QueryErrorMessage(((QueryException) ex).getErrorCode(), devError, devError);
+    } else {
+      // If the exception is not a QueryException, use the generic error code and don't expose the exception message
+      errMsg = new QueryErrorMessage(QueryErrorCode.QUERY_EXECUTION, userError, devError);
+    }
+    return new ExceptionResultsBlock(errMsg);
+  }
+
+  private void mergeIntermediateResults(Object[] existingResults, Object[] newResults) {
+    for (int i = 0; i < _numAggregationFunctions; i++) {
+      existingResults[i] = _aggregationFunctions[i].merge(existingResults[i], newResults[i]);
+    }
+  }
+
+  private Record createRecord(Object[] keyValues, Object[] intermediateResults) {
+    Object[] values = Arrays.copyOf(keyValues, _numColumns);
+    System.arraycopy(intermediateResults, 0, values, _numGroupByExpressions, _numAggregationFunctions);
+    return new Record(values);
+  }
+
+  /**
+   * Thread-local groups partitioned on the hash of the group key, where each group maps to the intermediate results of
+   * the aggregation functions. The partitioning is the same as the {@link PartitionedIndexedTable}.
+   *
+   * <p>When there is ORDER BY, the groups are trimmed to the trim size once reaching the trim threshold; when there is
+   * no ORDER BY, new groups are ignored once reaching the result size. This is the same as the other indexed tables.
+   */
+  private abstract class PartitionedGroups {
+    final PartitionedIndexedTable _table = _indexedTable;
+    final boolean _hasOrderBy = _tableResizer != null;
+    int _numGroups;
+
+    void add(Object[] keyValues, Object[] intermediateResults) {
+      if (add(keyValues, intermediateResults, _hasOrderBy || _numGroups < _table.getResultSize())) {
+        _numGroups++;
+        if (_numGroups >= _table.getTrimThreshold()) {
+          resize();
+        }
+      }
+    }
+
+    void resize() {
+      long startTimeNs = System.nanoTime();
+      Map<Key, Record> recordsMap = new HashMap<>(HashUtil.getHashMapCapacity(_numGroups));
+      for (int i = 0; i < _numPartitions; i++) {
+        forEachRecord(i, recordsMap::put);
+      }
+      _tableResizer.resizeRecordsMap(recordsMap, _table.getTrimSize());
+      clear();
+      for (Map.Entry<Key, Record> entry : recordsMap.entrySet()) {
+        add(entry.getKey().getValues(),
+            Arrays.copyOfRange(entry.getValue().getValues(), _numGroupByExpressions, _numColumns), true);
+      }
+      _numGroups = recordsMap.size();
+      _numThreadLocalResizes.getAndIncrement();
+      _threadLocalResizeTimeNs.getAndAdd(System.nanoTime() - startTimeNs);
+    }
+
+    /**
+     * Merges the intermediate results into the existing group, or adds a new group if {@code addNewGroup} is true.
+     * Returns whether a new group is added.
+     */
+    abstract boolean add(Object[] keyValues, Object[] intermediateResults, boolean addNewGroup);
+
+    abstract int size(int partitionId);
+
+    /**
+     * Merges the given partition of the other groups into this groups. The other groups is not modified.
+     */
+    abstract void merge(int partitionId, PartitionedGroups other);
+
+    /**
+     * Converts the groups within the given partition into {@link Key} and {@link Record}.
+     */
+    abstract void forEachRecord(int partitionId, BiConsumer<Key, Record> consumer);
+
+    abstract void clear();
+  }
+
+  private class IntGroups extends PartitionedGroups {
+    final Int2ObjectOpenHashMap<Object[]>[] _maps = new Int2ObjectOpenHashMap[_numPartitions];
+
+    IntGroups() {
+      for (int i = 0; i < _numPartitions; i++) {
+        _maps[i] = new Int2ObjectOpenHashMap<>();
+      }
+    }
+
+    @Override
+    boolean add(Object[] keyValues, Object[] intermediateResults, boolean addNewGroup) {
+      int key = (Integer) keyValues[0];
+      Int2ObjectOpenHashMap<Object[]> map = _maps[_table.getPartitionId(Integer.hashCode(key))];
+      Object[] existingResults = map.get(key);
+      if (existingResults != null) {
+        mergeIntermediateResults(existingResults, intermediateResults);
+        return false;
+      }
+      if (addNewGroup) {
+        map.put(key, intermediateResults);
+        return true;
+      }
+      return false;
+    }
+
+    @Override
+    int size(int partitionId) {
+      return _maps[partitionId].size();
+    }
+
+    @Override
+    void merge(int partitionId, PartitionedGroups other) {
+      Int2ObjectOpenHashMap<Object[]> map = _maps[partitionId];
+      for (Int2ObjectMap.Entry<Object[]> entry : Int2ObjectMaps.fastIterable(((IntGroups) other)._maps[partitionId])) {
+        Object[] existingResults = map.putIfAbsent(entry.getIntKey(), entry.getValue());
+        if (existingResults != null) {
+          mergeIntermediateResults(existingResults, entry.getValue());
+        }
+      }
+    }
+
+    @Override
+    void forEachRecord(int partitionId, BiConsumer<Key, Record> consumer) {
+      for (Int2ObjectMap.Entry<Object[]> entry : Int2ObjectMaps.fastIterable(_maps[partitionId])) {
+        Object[] keyValues = new Object[]{entry.getIntKey()};
+        consumer.accept(new Key(keyValues), createRecord(keyValues, entry.getValue()));
+      }
+    }
+
+    @Override
+    void clear() {
+      for (Int2ObjectOpenHashMap<Object[]> map : _maps) {
+        map.clear();
+      }
+    }
+  }
+
+  private class LongGroups extends PartitionedGroups {
+    final Long2ObjectOpenHashMap<Object[]>[] _maps = new Long2ObjectOpenHashMap[_numPartitions];
+
+    LongGroups() {
+      for (int i = 0; i < _numPartitions; i++) {
+        _maps[i] = new Long2ObjectOpenHashMap<>();
+      }
+    }
+
+    @Override
+    boolean add(Object[] keyValues, Object[] intermediateResults, boolean addNewGroup) {
+      long key = (Long) keyValues[0];
+      Long2ObjectOpenHashMap<Object[]> map = _maps[_table.getPartitionId(Long.hashCode(key))];
+      Object[] existingResults = map.get(key);
+      if (existingResults != null) {
+        mergeIntermediateResults(existingResults, intermediateResults);
+        return false;
+      }
+      if (addNewGroup) {
+        map.put(key, intermediateResults);
+        return true;
+      }
+      return false;
+    }
+
+    @Override
+    int size(int partitionId) {
+      return _maps[partitionId].size();
+    }
+
+    @Override
+    void merge(int partitionId, PartitionedGroups other) {
+      Long2ObjectOpenHashMap<Object[]> map = _maps[partitionId];
+      for (Long2ObjectMap.Entry<Object[]> entry : Long2ObjectMaps.fastIterable(
+          ((LongGroups) other)._maps[partitionId])) {
+        Object[] existingResults = map.putIfAbsent(entry.getLongKey(), entry.getValue());
+        if (existingResults != null) {
+          mergeIntermediateResults(existingResults, entry.getValue());
+        }
+      }
+    }
+
+    @Override
+    void forEachRecord(int partitionId, BiConsumer<Key, Record> consumer) {
+      for (Long2ObjectMap.Entry<Object[]> entry : Long2ObjectMaps.fastIterable(_maps[partitionId])) {
+        Object[] keyValues = new Object[]{entry.getLongKey()};
+        consumer.accept(new Key(keyValues), createRecord(keyValues, entry.getValue()));
+      }
+    }
+
+    @Override
+    void clear() {
+      for (Long2ObjectOpenHashMap<Object[]> map : _maps) {
+        map.clear();
+      }
+    }
+  }
+
+  /**
+   * Groups for all the other group keys. For single group key, the value is directly used as the key (e.g. STRING key
+   * is stored as {@code String}) without wrapping it into a {@link Key}.
+   */
+  private class ObjectGroups extends PartitionedGroups {
+    final Object2ObjectOpenHashMap<Object, Object[]>[] _maps = new Object2ObjectOpenHashMap[_numPartitions];
+    final boolean _singleKey = _numGroupByExpressions == 1;
+
+    ObjectGroups() {
+      for (int i = 0; i < _numPartitions; i++) {
+        _maps[i] = new Object2ObjectOpenHashMap<>();
+      }
+    }
+
+    @Override
+    boolean add(Object[] keyValues, Object[] intermediateResults, boolean addNewGroup) {
+      Object key = _singleKey ? keyValues[0] : new Key(keyValues);
+      Object2ObjectOpenHashMap<Object, Object[]> map =
+          _maps[_table.getPartitionId(key != null ? key.hashCode() : 0)];
+      Object[] existingResults = map.get(key);
+      if (existingResults != null) {
+        mergeIntermediateResults(existingResults, intermediateResults);
+        return false;
+      }
+      if (addNewGroup) {
+        map.put(key, intermediateResults);
+        return true;
+      }
+      return false;
+    }
+
+    @Override
+    int size(int partitionId) {
+      return _maps[partitionId].size();
+    }
+
+    @Override
+    void merge(int partitionId, PartitionedGroups other) {
+      Object2ObjectOpenHashMap<Object, Object[]> map = _maps[partitionId];
+      for (Object2ObjectMap.Entry<Object, Object[]> entry : Object2ObjectMaps.fastIterable(
+          ((ObjectGroups) other)._maps[partitionId])) {
+        Object[] existingResults = map.putIfAbsent(entry.getKey(), entry.getValue());
+        if (existingResults != null) {
+          mergeIntermediateResults(existingResults, entry.getValue());
+        }
+      }
+    }
+
+    @Override
+    void forEachRecord(int partitionId, BiConsumer<Key, Record> consumer) {
+      for (Object2ObjectMap.Entry<Object, Object[]> entry : Object2ObjectMaps.fastIterable(_maps[partitionId])) {
+        Object key = entry.getKey();
+        Object[] keyValues = _singleKey ? new Object[]{key} : ((Key) key).getValues();
+        consumer.accept(_singleKey ? new Key(keyValues) : (Key) key, createRecord(keyValues, entry.getValue()));
+      }
+    }
+
+    @Override
+    void clear() {
+      for (Object2ObjectOpenHashMap<Object, Object[]> map : _maps) {
+        map.clear();
+      }
+    }
+  }
+}
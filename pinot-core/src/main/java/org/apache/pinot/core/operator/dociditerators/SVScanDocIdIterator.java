@@ -19,6 +19,7 @@
 package org.apache.pinot.core.operator.dociditerators;
 
 import java.util.OptionalInt;
+import javax.annotation.Nullable;
 import org.apache.pinot.core.common.BlockDocIdIterator;
 import org.apache.pinot.core.operator.filter.predicate.PredicateEvaluator;
 import org.apache.pinot.segment.spi.Constants;
@@ -48,6 +49,8 @@ public final class SVScanDocIdIterator implements ScanBasedDocIdIterator {
 
   private int _nextDocId = 0;
   private long _numEntriesScanned = 0L;
+  private long _numDocsMatched = 0L;
+  private ScanStatsListener _scanStatsListener;
 
   public SVScanDocIdIterator(PredicateEvaluator predicateEvaluator, DataSource dataSource, int numDocs, int batchSize) {
     _batch = new int[batchSize];
@@ -82,6 +85,7 @@ public final class SVScanDocIdIterator implements ScanBasedDocIdIterator {
             _batch[i] = _nextDocId + i;
           }
           batchSize = _valueMatcher.matchValues(limit, _batch);
+          _numDocsMatched += batchSize;
           _nextDocId += limit;
           _numEntriesScanned += limit;
         }
@@ -104,6 +108,7 @@ public final class SVScanDocIdIterator implements ScanBasedDocIdIterator {
       int nextDocId = _nextDocId++;
       _numEntriesScanned++;
       if (_valueMatcher.doesValueMatch(nextDocId)) {
+        _numDocsMatched++;
         return nextDocId;
       }
     }
@@ -132,6 +137,7 @@ public final class SVScanDocIdIterator implements ScanBasedDocIdIterator {
       int limit = docIdIterator.nextBatch(buffer);
       if (limit > 0) {
         int firstMismatch = _valueMatcher.matchValues(limit, buffer);
+        _numDocsMatched += firstMismatch;
         for (int i = 0; i < firstMismatch; i++) {
           result.add(buffer[i]);
         }
@@ -147,6 +153,13 @@ public final class SVScanDocIdIterator implements ScanBasedDocIdIterator {
     return _numEntriesScanned;
   }
 
+  /**
+   * Sets the listener to be notified with the number of documents scanned and matched when the scan is finished.
+   */
+  public void setScanStatsListener(@Nullable ScanStatsListener scanStatsListener) {
+    _scanStatsListener = scanStatsListener;
+  }
+
   /**
    * This is an approximation of probability calculation in
    * org.apache.pinot.controller.recommender.rules.utils.QueryInvertedSortedIndexRecommender#percentSelected
@@ -320,5 +333,9 @@ public final class SVScanDocIdIterator implements ScanBasedDocIdIterator {
     if (_readerContext != null) {
       _readerContext.close();
     }
+    if (_scanStatsListener != null) {
+      _scanStatsListener.onScanFinished(_numEntriesScanned, _numDocsMatched);
+      _scanStatsListener = null;
+    }
   }
 }
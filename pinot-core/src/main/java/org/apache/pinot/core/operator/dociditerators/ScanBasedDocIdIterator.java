@@ -62,4 +62,13 @@ public interface ScanBasedDocIdIterator extends BlockDocIdIterator {
     //default N/A behavior so that it always get picked in the end
     return isAndDocIdSet ? Float.NEGATIVE_INFINITY : Float.POSITIVE_INFINITY;
   }
+
+  /**
+   * Listener notified with the number of documents scanned and matched when the scan is finished, which can be used to
+   * collect the observed selectivity of the predicate.
+   */
+  interface ScanStatsListener {
+
+    void onScanFinished(long numDocsScanned, long numDocsMatched);
+  }
 }
@@ -0,0 +1,326 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.operator.docvalsets;
+
+import java.math.BigDecimal;
+import java.util.AbstractList;
+import java.util.Arrays;
+import javax.annotation.Nullable;
+import org.apache.pinot.common.utils.DataSchema.ColumnDataType;
+import org.apache.pinot.core.common.BlockValSet;
+import org.apache.pinot.segment.spi.index.reader.Dictionary;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.apache.pinot.spi.utils.ArrayCopyUtils;
+import org.apache.pinot.spi.utils.BigDecimalUtils;
+import org.apache.pinot.spi.utils.ByteArray;
+import org.apache.pinot.spi.utils.CommonConstants.NullValuePlaceHolder;
+import org.roaringbitmap.RoaringBitmap;
+
+
+/**
+ * A {@link BlockValSet} implementation backed by a single column array, as stored in the columnar blocks of the
+ * multistage engine.
+ * <p>The column must be an {@code int[]}, {@code long[]}, {@code float[]} or {@code double[]} for the INT, LONG, FLOAT
+ * and DOUBLE stored types respectively, or an {@code Object[]} for the other stored types. When the requested value
+ * type matches the stored type of a primitive column, the column array is returned directly without any copy, so the
+ * returned arrays must not be modified.
+ * <p>Multi-value reads are delegated to a {@link RowBasedBlockValSet} over the column.
+ */
+public class ColumnarBlockValSet implements BlockValSet {
+  private final ColumnDataType _columnDataType;
+  private final DataType _dataType;
+  private final DataType _storedType;
+  private final Object _values;
+  private final int _numRows;
+  private final RoaringBitmap _nullBitmap;
+
+  public ColumnarBlockValSet(ColumnDataType columnDataType, Object values, int numRows,
+      @Nullable RoaringBitmap nullBitmap) {
+    _columnDataType = columnDataType;
+    _dataType = columnDataType.toDataType();
+    _storedType = _dataType.getStoredType();
+    _values = values;
+    _numRows = numRows;
+    if (_dataType == DataType.UNKNOWN && numRows > 0) {
+      RoaringBitmap allNullBitmap = new RoaringBitmap();
+      allNullBitmap.add(0L, numRows);
+      _nullBitmap = allNullBitmap;
+    } else {
+      _nullBitmap = nullBitmap != null && !nullBitmap.isEmpty() ? nullBitmap : null;
+    }
+  }
+
+  @Nullable
+  @Override
+  public RoaringBitmap getNullBitmap() {
+    return _nullBitmap;
+  }
+
+  @Override
+  public DataType getValueType() {
+    return _dataType;
+  }
+
+  @Override
+  public boolean isSingleValue() {
+    return true;
+  }
+
+  @Nullable
+  @Override
+  public Dictionary getDictionary() {
+    return null;
+  }
+
+  @Override
+  public int[] getDictionaryIdsSV() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public int[] getIntValuesSV() {
+    if (_values instanceof int[]) {
+      return (int[]) _values;
+    }
+    int[] values = new int[_numRows];
+    if (_values instanceof long[]) {
+      ArrayCopyUtils.copy((long[]) _values, values, _numRows);
+    } else if (_values instanceof float[]) {
+      ArrayCopyUtils.copy((float[]) _values, values, _numRows);
+    } else if (_values instanceof double[]) {
+      ArrayCopyUtils.copy((double[]) _values, values, _numRows);
+    } else if (_dataType != DataType.UNKNOWN) {
+      Object[] objects = getObjectValues("int");
+      for (int i = 0; i < _numRows; i++) {
+        Object value = objects[i];
+        if (value != null) {
+          values[i] = value instanceof Number ? ((Number) value).intValue() : Integer.parseInt(value.toString());
+        }
+      }
+    }
+    return values;
+  }
+
+  @Override
+  public long[] getLongValuesSV() {
+    if (_values instanceof long[]) {
+      return (long[]) _values;
+    }
+    long[] values = new long[_numRows];
+    if (_values instanceof int[]) {
+      ArrayCopyUtils.copy((int[]) _values, values, _numRows);
+    } else if (_values instanceof float[]) {
+      ArrayCopyUtils.copy((float[]) _values, values, _numRows);
+    } else if (_values instanceof double[]) {
+      ArrayCopyUtils.copy((double[]) _values, values, _numRows);
+    } else if (_dataType != DataType.UNKNOWN) {
+      Object[] objects = getObjectValues("long");
+      for (int i = 0; i < _numRows; i++) {
+        Object value = objects[i];
+        if (value != null) {
+          values[i] = value instanceof Number ? ((Number) value).longValue() : Long.parseLong(value.toString());
+        }
+      }
+    }
+    return values;
+  }
+
+  @Override
+  public float[] getFloatValuesSV() {
+    if (_values instanceof float[]) {
+      return (float[]) _values;
+    }
+    float[] values = new float[_numRows];
+    if (_values instanceof int[]) {
+      ArrayCopyUtils.copy((int[]) _values, values, _numRows);
+    } else if (_values instanceof long[]) {
+      ArrayCopyUtils.copy((long[]) _values, values, _numRows);
+    } else if (_values instanceof double[]) {
+      ArrayCopyUtils.copy((double[]) _values, values, _numRows);
+    } else if (_dataType != DataType.UNKNOWN) {
+      Object[] objects = getObjectValues("float");
+      for (int i = 0; i < _numRows; i++) {
+        Object value = objects[i];
+        if (value != null) {
+          values[i] = value instanceof Number ? ((Number) value).floatValue() : Float.parseFloat(value.toString());
+        }
+      }
+    }
+    return values;
+  }
+
+  @Override
+  public double[] getDoubleValuesSV() {
+    if (_values instanceof double[]) {
+      return (double[]) _values;
+    }
+    double[] values = new double[_numRows];
+    if (_values instanceof int[]) {
+      ArrayCopyUtils.copy((int[]) _values, values, _numRows);
+    } else if (_values instanceof long[]) {
+      ArrayCopyUtils.copy((long[]) _values, values, _numRows);
+    } else if (_values instanceof float[]) {
+      ArrayCopyUtils.copy((float[]) _values, values, _numRows);
+    } else if (_dataType != DataType.UNKNOWN) {
+      Object[] objects = getObjectValues("double");
+      for (int i = 0; i < _numRows; i++) {
+        Object value = objects[i];
+        if (value != null) {
+          values[i] = value instanceof Number ? ((Number) value).doubleValue() : Double.parseDouble(value.toString());
+        }
+      }
+    }
+    return values;
+  }
+
+  @Override
+  public BigDecimal[] getBigDecimalValuesSV() {
+    BigDecimal[] values = new BigDecimal[_numRows];
+    if (_values instanceof int[]) {
+      ArrayCopyUtils.copy((int[]) _values, values, _numRows);
+    } else if (_values instanceof long[]) {
+      ArrayCopyUtils.copy((long[]) _values, values, _numRows);
+    } else if (_values instanceof float[]) {
+      ArrayCopyUtils.copy((float[]) _values, values, _numRows);
+    } else if (_values instanceof double[]) {
+      ArrayCopyUtils.copy((double[]) _values, values, _numRows);
+    } else if (_dataType == DataType.UNKNOWN) {
+      Arrays.fill(values, NullValuePlaceHolder.BIG_DECIMAL);
+    } else {
+      Object[] objects = getObjectValues("BigDecimal");
+      for (int i = 0; i < _numRows; i++) {
+        Object value = objects[i];
+        if (value == null) {
+          values[i] = NullValuePlaceHolder.BIG_DECIMAL;
+        } else if (value instanceof BigDecimal) {
+          values[i] = (BigDecimal) value;
+        } else if (value instanceof ByteArray) {
+          values[i] = BigDecimalUtils.deserialize((ByteArray) value);
+        } else {
+          values[i] = new BigDecimal(value.toString());
+        }
+      }
+    }
+    return values;
+  }
+
+  @Override
+  public String[] getStringValuesSV() {
+    String[] values = new String[_numRows];
+    if (_values instanceof int[]) {
+      ArrayCopyUtils.copy((int[]) _values, values, _numRows);
+    } else if (_values instanceof long[]) {
+      ArrayCopyUtils.copy((long[]) _values, values, _numRows);
+    } else if (_values instanceof float[]) {
+      ArrayCopyUtils.copy((float[]) _values, values, _numRows);
+    } else if (_values instanceof double[]) {
+      ArrayCopyUtils.copy((double[]) _values, values, _numRows);
+    } else {
+      Object[] objects = (Object[]) _values;
+      for (int i = 0; i < _numRows; i++) {
+        Object value = objects[i];
+        values[i] = value != null ? value.toString() : NullValuePlaceHolder.STRING;
+      }
+    }
+    return values;
+  }
+
+  @Override
+  public byte[][] getBytesValuesSV() {
+    byte[][] values = new byte[_numRows][];
+    if (_dataType == DataType.UNKNOWN) {
+      Arrays.fill(values, NullValuePlaceHolder.BYTES);
+      return values;
+    }
+    if (_storedType != DataType.BYTES) {
+      throw new IllegalStateException("Cannot read bytes values from data type: " + _dataType);
+    }
+    Object[] objects = (Object[]) _values;
+    for (int i = 0; i < _numRows; i++) {
+      ByteArray value = (ByteArray) objects[i];
+      values[i] = value != null ? value.getBytes() : NullValuePlaceHolder.BYTES;
+    }
+    return values;
+  }
+
+  private Object[] getObjectValues(String valueType) {
+    if (_storedType != DataType.BIG_DECIMAL && _storedType != DataType.STRING) {
+      throw new IllegalStateException("Cannot read " + valueType + " values from data type: " + _dataType);
+    }
+    return (Object[]) _values;
+  }
+
+  @Override
+  public int[][] getDictionaryIdsMV() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public int[][] getIntValuesMV() {
+    return getRowBasedBlockValSet().getIntValuesMV();
+  }
+
+  @Override
+  public long[][] getLongValuesMV() {
+    return getRowBasedBlockValSet().getLongValuesMV();
+  }
+
+  @Override
+  public float[][] getFloatValuesMV() {
+    return getRowBasedBlockValSet().getFloatValuesMV();
+  }
+
+  @Override
+  public double[][] getDoubleValuesMV() {
+    return getRowBasedBlockValSet().getDoubleValuesMV();
+  }
+
+  @Override
+  public String[][] getStringValuesMV() {
+    return getRowBasedBlockValSet().getStringValuesMV();
+  }
+
+  private RowBasedBlockValSet getRowBasedBlockValSet() {
+    if (!(_values instanceof Object[])) {
+      throw new IllegalStateException("Cannot read multi-value values from data type: " + _dataType);
+    }
+    Object[] objects = (Object[]) _values;
+    return new RowBasedBlockValSet(_columnDataType, new AbstractList<Object[]>() {
+      @Override
+      public Object[] get(int index) {
+        return new Object[]{objects[index]};
+      }
+
+      @Override
+      public int size() {
+        return _numRows;
+      }
+    }, 0, true);
+  }
+
+  @Override
+  public byte[][][] getBytesValuesMV() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public int[] getNumMVEntries() {
+    throw new UnsupportedOperationException();
+  }
+}
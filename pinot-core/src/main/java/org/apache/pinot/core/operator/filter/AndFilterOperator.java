@@ -18,6 +18,7 @@
  */
 package org.apache.pinot.core.operator.filter;
 
+import com.google.common.base.CaseFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -25,6 +26,7 @@ import java.util.Map;
 import javax.annotation.Nullable;
 import org.apache.pinot.core.common.BlockDocIdSet;
 import org.apache.pinot.core.common.Operator;
+import org.apache.pinot.core.operator.ExplainAttributeBuilder;
 import org.apache.pinot.core.operator.docidsets.AndDocIdSet;
 import org.apache.pinot.core.operator.docidsets.EmptyDocIdSet;
 import org.apache.pinot.core.operator.docidsets.MatchAllDocIdSet;
@@ -41,12 +43,29 @@ public class AndFilterOperator extends BaseFilterOperator {
 
   private final List<BaseFilterOperator> _filterOperators;
   private final Map<String, String> _queryOptions;
+  // Estimated selectivity of the child filter operators when they are ordered by selectivity, null otherwise
+  private final double[] _estimatedSelectivities;
 
   public AndFilterOperator(List<BaseFilterOperator> filterOperators, @Nullable Map<String, String> queryOptions,
       int numDocs, boolean nullHandlingEnabled) {
+    this(filterOperators, queryOptions, numDocs, nullHandlingEnabled, null);
+  }
+
+  public AndFilterOperator(List<BaseFilterOperator> filterOperators, @Nullable Map<String, String> queryOptions,
+      int numDocs, boolean nullHandlingEnabled, @Nullable double[] estimatedSelectivities) {
     super(numDocs, nullHandlingEnabled);
     _filterOperators = filterOperators;
     _queryOptions = queryOptions;
+    _estimatedSelectivities = estimatedSelectivities;
+  }
+
+  /**
+   * Returns the estimated selectivity of the child filter operators if they are ordered by selectivity, or
+   * {@code null} otherwise.
+   */
+  @Nullable
+  public double[] getEstimatedSelectivities() {
+    return _estimatedSelectivities;
   }
 
   @Override
@@ -130,6 +149,30 @@ public class AndFilterOperator extends BaseFilterOperator {
 
   @Override
   public String toExplainString() {
-    return EXPLAIN_NAME;
+    if (_estimatedSelectivities == null) {
+      return EXPLAIN_NAME;
+    }
+    return EXPLAIN_NAME + "(estimatedSelectivities:" + getEstimatedSelectivityStrings() + ')';
+  }
+
+  @Override
+  protected String getExplainName() {
+    return CaseFormat.UPPER_UNDERSCORE.to(CaseFormat.UPPER_CAMEL, EXPLAIN_NAME);
+  }
+
+  @Override
+  protected void explainAttributes(ExplainAttributeBuilder attributeBuilder) {
+    super.explainAttributes(attributeBuilder);
+    if (_estimatedSelectivities != null) {
+      attributeBuilder.putStringList("estimatedSelectivities", getEstimatedSelectivityStrings());
+    }
+  }
+
+  private List<String> getEstimatedSelectivityStrings() {
+    List<String> estimatedSelectivities = new ArrayList<>(_estimatedSelectivities.length);
+    for (double estimatedSelectivity : _estimatedSelectivities) {
+      estimatedSelectivities.add(String.format("%.4f", estimatedSelectivity));
+    }
+    return estimatedSelectivities;
   }
 }
@@ -24,6 +24,7 @@ import org.apache.pinot.core.common.BlockDocIdSet;
 import org.apache.pinot.core.operator.docidsets.AndDocIdSet;
 import org.apache.pinot.core.operator.docidsets.BitmapDocIdSet;
 import org.apache.pinot.core.operator.docidsets.EmptyDocIdSet;
+import org.apache.pinot.core.operator.filter.predicate.PredicateEvaluator;
 import org.apache.pinot.core.query.request.context.QueryContext;
 import org.apache.pinot.segment.spi.datasource.DataSource;
 import org.apache.pinot.segment.spi.index.reader.NullValueVectorReader;
@@ -40,6 +41,18 @@ public abstract class BaseColumnFilterOperator extends BaseFilterOperator {
     _dataSource = dataSource;
   }
 
+  /**
+   * Returns the predicate evaluator for the filtered column.
+   */
+  public abstract PredicateEvaluator getPredicateEvaluator();
+
+  /**
+   * Returns the data source of the filtered column.
+   */
+  public DataSource getDataSource() {
+    return _dataSource;
+  }
+
   protected abstract BlockDocIdSet getNextBlockWithoutNullHandling();
 
   @Override
@@ -20,7 +20,9 @@ package org.apache.pinot.core.operator.filter;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.OptionalInt;
 import org.apache.pinot.common.request.context.predicate.Predicate;
 import org.apache.pinot.core.operator.filter.predicate.BaseDictIdBasedRegexpLikePredicateEvaluator;
@@ -154,6 +156,12 @@ public class FilterOperatorUtils {
         return childFilterOperators.get(0);
       } else {
         // Return the AND filter operator with re-ordered child filter operators
+        if (queryContext.isFilterSelectivityReorder()) {
+          double[] estimatedSelectivities =
+              reorderAndFilterChildOperatorsBySelectivity(queryContext, childFilterOperators, numDocs);
+          return new AndFilterOperator(childFilterOperators, queryContext.getQueryOptions(), numDocs,
+              queryContext.isNullHandlingEnabled(), estimatedSelectivities);
+        }
         reorderAndFilterChildOperators(queryContext, childFilterOperators);
         return new AndFilterOperator(childFilterOperators, queryContext.getQueryOptions(), numDocs,
             queryContext.isNullHandlingEnabled());
@@ -252,6 +260,79 @@ public class FilterOperatorUtils {
       });
     }
 
+    /**
+     * For AND filter operator, reorders its child filter operators based on the selectivity estimated for the segment
+     * (see {@link FilterSelectivityEstimator}), and returns the estimated selectivity of the reordered child filter
+     * operators:
+     * <ul>
+     *   <li>
+     *     Index-based filter operators are always evaluated before the other ones (see {@code AndDocIdSet}), and are
+     *     ordered by ascending selectivity.
+     *   </li>
+     *   <li>
+     *     An index-based filter operator (other than the most selective one) is replaced with a scan-based one when
+     *     scanning the documents matched by the most selective one is cheaper than looking up the index.
+     *   </li>
+     *   <li>
+     *     The other filter operators are ordered by descending rank {@code (1 - selectivity) / costPerDoc}, so that
+     *     the cheap and selective ones are applied first to reduce the documents to be processed by the following
+     *     ones.
+     *   </li>
+     * </ul>
+     * <p>Special filter operators such as {@link MatchAllFilterOperator} and {@link EmptyFilterOperator} should be
+     * removed from the list before calling this method.
+     */
+    protected double[] reorderAndFilterChildOperatorsBySelectivity(QueryContext queryContext,
+        List<BaseFilterOperator> filterOperators, int numDocs) {
+      int numFilterOperators = filterOperators.size();
+      List<BaseFilterOperator> indexBasedFilterOperators = new ArrayList<>(numFilterOperators);
+      List<BaseFilterOperator> otherFilterOperators = new ArrayList<>(numFilterOperators);
+      Map<BaseFilterOperator, Double> selectivities = new IdentityHashMap<>(numFilterOperators);
+      for (BaseFilterOperator filterOperator : filterOperators) {
+        selectivities.put(filterOperator, FilterSelectivityEstimator.estimateSelectivity(filterOperator));
+        if (FilterSelectivityEstimator.isIndexBased(filterOperator)) {
+          indexBasedFilterOperators.add(filterOperator);
+        } else {
+          otherFilterOperators.add(filterOperator);
+        }
+      }
+
+      indexBasedFilterOperators.sort(Comparator.comparingDouble(selectivities::get));
+      int numIndexBasedFilterOperators = indexBasedFilterOperators.size();
+      if (numIndexBasedFilterOperators > 1) {
+        double numDocsToScan = selectivities.get(indexBasedFilterOperators.get(0)) * numDocs;
+        List<BaseFilterOperator> remainingIndexBasedFilterOperators = new ArrayList<>(numIndexBasedFilterOperators);
+        remainingIndexBasedFilterOperators.add(indexBasedFilterOperators.get(0));
+        for (int i = 1; i < numIndexBasedFilterOperators; i++) {
+          BaseFilterOperator filterOperator = indexBasedFilterOperators.get(i);
+          double selectivity = selectivities.get(filterOperator);
+          ScanBasedFilterOperator scanBasedFilterOperator =
+              FilterSelectivityEstimator.getScanBasedAlternative(queryContext, filterOperator, selectivity,
+                  numDocsToScan);
+          if (scanBasedFilterOperator != null) {
+            selectivities.put(scanBasedFilterOperator, selectivity);
+            otherFilterOperators.add(scanBasedFilterOperator);
+          } else {
+            remainingIndexBasedFilterOperators.add(filterOperator);
+          }
+        }
+        indexBasedFilterOperators = remainingIndexBasedFilterOperators;
+      }
+
+      otherFilterOperators.sort(Comparator.comparingDouble(
+          filterOperator -> -(1 - selectivities.get(filterOperator)) / FilterSelectivityEstimator.getCostPerDoc(
+              filterOperator)));
+
+      filterOperators.clear();
+      filterOperators.addAll(indexBasedFilterOperators);
+      filterOperators.addAll(otherFilterOperators);
+      double[] estimatedSelectivities = new double[numFilterOperators];
+      for (int i = 0; i < numFilterOperators; i++) {
+        estimatedSelectivities[i] = selectivities.get(filterOperators.get(i));
+      }
+      return estimatedSelectivities;
+    }
+
     public static int getScanBasedFilterPriority(QueryContext queryContext,
         ScanBasedFilterOperator scanBasedFilterOperator, int basePriority) {
       if (queryContext.isSkipScanFilterReorder()) {
@@ -0,0 +1,375 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.operator.filter;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntToLongFunction;
+import javax.annotation.Nullable;
+import org.apache.pinot.common.request.context.predicate.Predicate;
+import org.apache.pinot.common.request.context.predicate.RangePredicate;
+import org.apache.pinot.core.common.Operator;
+import org.apache.pinot.core.operator.dociditerators.ScanBasedDocIdIterator.ScanStatsListener;
+import org.apache.pinot.core.operator.filter.predicate.PredicateEvaluator;
+import org.apache.pinot.core.operator.filter.predicate.PredicateUtils;
+import org.apache.pinot.core.operator.filter.predicate.RangePredicateEvaluatorFactory.SortedDictionaryBasedRangePredicateEvaluator;
+import org.apache.pinot.core.query.request.context.QueryContext;
+import org.apache.pinot.segment.spi.datasource.DataSource;
+import org.apache.pinot.segment.spi.datasource.DataSourceMetadata;
+import org.apache.pinot.segment.spi.index.reader.InvertedIndexReader;
+import org.apache.pinot.segment.spi.index.reader.SortedIndexReader;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.apache.pinot.spi.utils.Pairs.IntPair;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
+
+
+/**
+ * The {@code FilterSelectivityEstimator} estimates the selectivity (fraction of the matching documents) of the filter
+ * operators within a segment, and the cost of evaluating them. It is used to order the children of the AND filter
+ * operator when {@link QueryContext#isFilterSelectivityReorder()} is enabled.
+ *
+ * <p>The selectivity of a column filter is estimated from (in order of preference):
+ * <ul>
+ *   <li>The selectivity observed by the previous scans of the same predicate on the same segment</li>
+ *   <li>The document ranges of the sorted index</li>
+ *   <li>The bitmap cardinalities of the inverted index (sampled when there are too many matching dictionary ids)</li>
+ *   <li>The bucket counts of the range index</li>
+ *   <li>The number of matching dictionary ids (or values) over the column cardinality</li>
+ *   <li>The overlap of the range with the min/max value of the column</li>
+ * </ul>
+ * Children of AND, OR and NOT are assumed to be independent.
+ */
+public class FilterSelectivityEstimator {
+  private FilterSelectivityEstimator() {
+  }
+
+  // Selectivity used when it cannot be estimated
+  public static final double DEFAULT_SELECTIVITY = 0.5;
+
+  // Relative costs used to choose between index-based and scan-based evaluation, in the unit of scanning a document
+  public static final double SCAN_COST_PER_DOC = 1.0;
+  public static final double MV_SCAN_COST_PER_DOC = 2.0;
+  public static final double EXPRESSION_COST_PER_DOC = 4.0;
+  public static final double NESTED_FILTER_COST_PER_DOC = 2.0;
+  public static final double BITMAP_COST_PER_DOC = 0.05;
+  public static final double BITMAP_LOOKUP_COST = 10.0;
+
+  // Max number of dictionary ids to look up in the sorted/inverted index, sample the dictionary ids when exceeded
+  @VisibleForTesting
+  static final int MAX_NUM_DICT_IDS_TO_LOOK_UP = 64;
+  // Min number of documents scanned to record the observed selectivity
+  @VisibleForTesting
+  static final long MIN_NUM_DOCS_SCANNED_FOR_FEEDBACK = 1000;
+  // Max number of predicates to keep the observed selectivity for each data source
+  private static final int MAX_NUM_OBSERVED_PREDICATES_PER_DATA_SOURCE = 100;
+
+  // Observed selectivity of the predicates, keyed by the data source (weakly referenced so that the entries are
+  // released with the segment) and the predicate
+  private static final Cache<DataSource, Map<String, Double>> OBSERVED_SELECTIVITIES =
+      CacheBuilder.newBuilder().weakKeys().build();
+
+  /**
+   * Returns the estimated selectivity of the given filter operator, in the range of [0, 1].
+   */
+  public static double estimateSelectivity(BaseFilterOperator filterOperator) {
+    if (filterOperator.isResultEmpty()) {
+      return 0;
+    }
+    if (filterOperator.isResultMatchingAll()) {
+      return 1;
+    }
+    int numDocs = filterOperator._numDocs;
+    if (numDocs <= 0) {
+      return 0;
+    }
+    if (filterOperator instanceof BitmapBasedFilterOperator) {
+      return (double) filterOperator.getNumMatchingDocs() / numDocs;
+    }
+    if (filterOperator instanceof BaseColumnFilterOperator) {
+      return estimateColumnSelectivity((BaseColumnFilterOperator) filterOperator, numDocs);
+    }
+    if (filterOperator instanceof AndFilterOperator) {
+      double selectivity = 1;
+      for (Operator child : filterOperator.getChildOperators()) {
+        selectivity *= estimateSelectivity((BaseFilterOperator) child);
+      }
+      return selectivity;
+    }
+    if (filterOperator instanceof OrFilterOperator) {
+      double nonMatchingFraction = 1;
+      for (Operator child : filterOperator.getChildOperators()) {
+        nonMatchingFraction *= 1 - estimateSelectivity((BaseFilterOperator) child);
+      }
+      return 1 - nonMatchingFraction;
+    }
+    if (filterOperator instanceof NotFilterOperator) {
+      return 1 - estimateSelectivity(((NotFilterOperator) filterOperator).getChildFilterOperator());
+    }
+    return DEFAULT_SELECTIVITY;
+  }
+
+  private static double estimateColumnSelectivity(BaseColumnFilterOperator filterOperator, int numDocs) {
+    PredicateEvaluator predicateEvaluator = filterOperator.getPredicateEvaluator();
+    DataSource dataSource = filterOperator.getDataSource();
+    Double observedSelectivity = getObservedSelectivity(dataSource, predicateEvaluator.getPredicate());
+    if (observedSelectivity != null) {
+      return observedSelectivity;
+    }
+    if (filterOperator instanceof SortedIndexBasedFilterOperator) {
+      return estimateSortedIndexSelectivity(predicateEvaluator, dataSource, numDocs);
+    }
+    if (filterOperator instanceof InvertedIndexFilterOperator) {
+      return estimateInvertedIndexSelectivity(predicateEvaluator, dataSource, numDocs);
+    }
+    if (filterOperator instanceof RangeIndexBasedFilterOperator) {
+      return clamp((double) filterOperator.getNumMatchingDocs() / numDocs);
+    }
+    return estimateSelectivityFromMetadata(predicateEvaluator, dataSource);
+  }
+
+  private static double estimateSortedIndexSelectivity(PredicateEvaluator predicateEvaluator, DataSource dataSource,
+      int numDocs) {
+    SortedIndexReader<?> sortedIndexReader = (SortedIndexReader<?>) dataSource.getInvertedIndex();
+    if (predicateEvaluator instanceof SortedDictionaryBasedRangePredicateEvaluator) {
+      SortedDictionaryBasedRangePredicateEvaluator rangePredicateEvaluator =
+          (SortedDictionaryBasedRangePredicateEvaluator) predicateEvaluator;
+      int startDocId = sortedIndexReader.getDocIds(rangePredicateEvaluator.getStartDictId()).getLeft();
+      // NOTE: End dictionary id is exclusive
+      int endDocId = sortedIndexReader.getDocIds(rangePredicateEvaluator.getEndDictId() - 1).getRight();
+      return clamp((double) (endDocId - startDocId + 1) / numDocs);
+    }
+    boolean exclusive = predicateEvaluator.isExclusive();
+    int[] dictIds = exclusive ? predicateEvaluator.getNonMatchingDictIds() : predicateEvaluator.getMatchingDictIds();
+    double selectivity = clamp(estimateNumMatchingDocs(dictIds, dictId -> {
+      // NOTE: Document id range has inclusive start and end
+      IntPair docIdRange = sortedIndexReader.getDocIds(dictId);
+      return docIdRange.getRight() - docIdRange.getLeft() + 1;
+    }) / numDocs);
+    return exclusive ? 1 - selectivity : selectivity;
+  }
+
+  private static double estimateInvertedIndexSelectivity(PredicateEvaluator predicateEvaluator,
+      DataSource dataSource, int numDocs) {
+    @SuppressWarnings("unchecked")
+    InvertedIndexReader<ImmutableRoaringBitmap> invertedIndexReader =
+        (InvertedIndexReader<ImmutableRoaringBitmap>) dataSource.getInvertedIndex();
+    boolean exclusive = predicateEvaluator.isExclusive();
+    int[] dictIds = exclusive ? predicateEvaluator.getNonMatchingDictIds() : predicateEvaluator.getMatchingDictIds();
+    // NOTE: For multi-value column, the same document can be counted multiple times
+    double selectivity = clamp(
+        estimateNumMatchingDocs(dictIds, dictId -> invertedIndexReader.getDocIds(dictId).getCardinality()) / numDocs);
+    return exclusive ? 1 - selectivity : selectivity;
+  }
+
+  /**
+   * Estimates the number of documents matching the given dictionary ids. When there are more than
+   * {@link #MAX_NUM_DICT_IDS_TO_LOOK_UP} dictionary ids, looks up evenly distributed samples and extrapolates.
+   */
+  private static double estimateNumMatchingDocs(int[] dictIds, IntToLongFunction numDocsFunction) {
+    int numDictIds = dictIds.length;
+    int numSamples = Math.min(numDictIds, MAX_NUM_DICT_IDS_TO_LOOK_UP);
+    if (numSamples == 0) {
+      return 0;
+    }
+    long numMatchingDocs = 0;
+    for (int i = 0; i < numSamples; i++) {
+      numMatchingDocs += numDocsFunction.applyAsLong(dictIds[(int) ((long) i * numDictIds / numSamples)]);
+    }
+    return (double) numMatchingDocs * numDictIds / numSamples;
+  }
+
+  /**
+   * Estimates the selectivity from the number of matching items and the column metadata, assuming the values are
+   * uniformly distributed.
+   */
+  @VisibleForTesting
+  static double estimateSelectivityFromMetadata(PredicateEvaluator predicateEvaluator, DataSource dataSource) {
+    DataSourceMetadata dataSourceMetadata = dataSource.getDataSourceMetadata();
+    int numMatchingItems = predicateEvaluator.getNumMatchingItems();
+    if (numMatchingItems != Integer.MIN_VALUE) {
+      int cardinality = predicateEvaluator.isDictionaryBased() ? dataSource.getDictionary().length()
+          : dataSourceMetadata.getCardinality();
+      if (cardinality > 0) {
+        // Negative number of matching items indicates the number of non-matching items
+        double fraction = clamp((double) Math.abs(numMatchingItems) / cardinality);
+        return numMatchingItems >= 0 ? fraction : 1 - fraction;
+      }
+    }
+    if (predicateEvaluator.getPredicateType() == Predicate.Type.RANGE) {
+      double selectivity = estimateRangeSelectivity((RangePredicate) predicateEvaluator.getPredicate(),
+          dataSourceMetadata);
+      if (!Double.isNaN(selectivity)) {
+        return selectivity;
+      }
+    }
+    return DEFAULT_SELECTIVITY;
+  }
+
+  /**
+   * Estimates the selectivity of the range predicate from the overlap with the min/max value of the column, or returns
+   * {@code NaN} if it cannot be estimated (non-numeric column or min/max value not available).
+   */
+  private static double estimateRangeSelectivity(RangePredicate rangePredicate,
+      DataSourceMetadata dataSourceMetadata) {
+    DataType dataType = dataSourceMetadata.getDataType();
+    if (!dataType.getStoredType().isNumeric() || dataType.getStoredType() == DataType.BIG_DECIMAL) {
+      return Double.NaN;
+    }
+    Comparable<?> minValue = dataSourceMetadata.getMinValue();
+    Comparable<?> maxValue = dataSourceMetadata.getMaxValue();
+    if (!(minValue instanceof Number) || !(maxValue instanceof Number)) {
+      return Double.NaN;
+    }
+    double min = ((Number) minValue).doubleValue();
+    double max = ((Number) maxValue).doubleValue();
+    double lower;
+    double upper;
+    try {
+      String lowerBound = rangePredicate.getLowerBound();
+      lower = lowerBound.equals(RangePredicate.UNBOUNDED) ? Double.NEGATIVE_INFINITY
+          : Double.parseDouble(PredicateUtils.getStoredValue(lowerBound, dataType));
+      String upperBound = rangePredicate.getUpperBound();
+      upper = upperBound.equals(RangePredicate.UNBOUNDED) ? Double.POSITIVE_INFINITY
+          : Double.parseDouble(PredicateUtils.getStoredValue(upperBound, dataType));
+    } catch (Exception e) {
+      return Double.NaN;
+    }
+    if (max <= min) {
+      return lower <= min && min <= upper ? 1 : 0;
+    }
+    return clamp((Math.min(upper, max) - Math.max(lower, min)) / (max - min));
+  }
+
+  /**
+   * Returns {@code true} if the filter operator is evaluated with an index (bitmap or document ranges), which is
+   * evaluated before the scan-based filter operators within the AND.
+   */
+  public static boolean isIndexBased(BaseFilterOperator filterOperator) {
+    return filterOperator instanceof SortedIndexBasedFilterOperator
+        || filterOperator instanceof BitmapBasedFilterOperator || filterOperator instanceof InvertedIndexFilterOperator
+        || filterOperator instanceof RangeIndexBasedFilterOperator
+        || filterOperator instanceof TextContainsFilterOperator || filterOperator instanceof TextMatchFilterOperator
+        || filterOperator instanceof JsonMatchFilterOperator || filterOperator instanceof H3IndexFilterOperator
+        || filterOperator instanceof H3InclusionIndexFilterOperator;
+  }
+
+  /**
+   * Returns the cost of evaluating the non-index-based filter operator on a document.
+   */
+  public static double getCostPerDoc(BaseFilterOperator filterOperator) {
+    if (filterOperator instanceof ScanBasedFilterOperator) {
+      return ((ScanBasedFilterOperator) filterOperator).getDataSourceMetadata().isSingleValue() ? SCAN_COST_PER_DOC
+          : MV_SCAN_COST_PER_DOC;
+    }
+    if (filterOperator instanceof ExpressionFilterOperator) {
+      return EXPRESSION_COST_PER_DOC;
+    }
+    return NESTED_FILTER_COST_PER_DOC;
+  }
+
+  /**
+   * Returns a scan-based filter operator to replace the given index-based filter operator if scanning the given number
+   * of documents is cheaper than looking up the index, or {@code null} otherwise. Only inverted index and range index
+   * based filter operators are considered because sorted index lookup is always cheap.
+   */
+  @Nullable
+  public static ScanBasedFilterOperator getScanBasedAlternative(QueryContext queryContext,
+      BaseFilterOperator filterOperator, double selectivity, double numDocsToScan) {
+    if (!(filterOperator instanceof InvertedIndexFilterOperator)
+        && !(filterOperator instanceof RangeIndexBasedFilterOperator)) {
+      return null;
+    }
+    BaseColumnFilterOperator columnFilterOperator = (BaseColumnFilterOperator) filterOperator;
+    DataSource dataSource = columnFilterOperator.getDataSource();
+    if (dataSource.getForwardIndex() == null) {
+      return null;
+    }
+    int numDocs = filterOperator._numDocs;
+    PredicateEvaluator predicateEvaluator = columnFilterOperator.getPredicateEvaluator();
+    double indexCost;
+    if (filterOperator instanceof InvertedIndexFilterOperator) {
+      // Look up a bitmap for each (non-)matching dictionary id, then merge them
+      int numMatchingItems = predicateEvaluator.getNumMatchingItems();
+      int numBitmaps = numMatchingItems != Integer.MIN_VALUE ? Math.abs(numMatchingItems)
+          : (predicateEvaluator.isExclusive() ? predicateEvaluator.getNonMatchingDictIds()
+              : predicateEvaluator.getMatchingDictIds()).length;
+      double bitmapSelectivity = predicateEvaluator.isExclusive() ? 1 - selectivity : selectivity;
+      indexCost = numBitmaps * BITMAP_LOOKUP_COST + bitmapSelectivity * numDocs * BITMAP_COST_PER_DOC;
+    } else {
+      // Range index needs to process the bitmaps covering all the documents
+      indexCost = BITMAP_LOOKUP_COST + numDocs * BITMAP_COST_PER_DOC;
+    }
+    double scanCost = numDocsToScan * (dataSource.getDataSourceMetadata().isSingleValue() ? SCAN_COST_PER_DOC
+        : MV_SCAN_COST_PER_DOC);
+    if (scanCost >= indexCost) {
+      return null;
+    }
+    return new ScanBasedFilterOperator(queryContext, predicateEvaluator, dataSource, numDocs);
+  }
+
+  /**
+   * Returns the selectivity observed by the previous scans of the predicate on the data source, or {@code null} if not
+   * available.
+   */
+  @Nullable
+  public static Double getObservedSelectivity(DataSource dataSource, Predicate predicate) {
+    Map<String, Double> observedSelectivities = OBSERVED_SELECTIVITIES.getIfPresent(dataSource);
+    return observedSelectivities != null ? observedSelectivities.get(predicate.toString()) : null;
+  }
+
+  /**
+   * Records the selectivity observed by a scan of the predicate on the data source. The observed selectivity is
+   * averaged with the previous one to smooth out the variance between the scanned document subsets.
+   */
+  public static void recordObservedSelectivity(DataSource dataSource, Predicate predicate, long numDocsScanned,
+      long numDocsMatched) {
+    if (numDocsScanned < MIN_NUM_DOCS_SCANNED_FOR_FEEDBACK) {
+      return;
+    }
+    double selectivity = clamp((double) numDocsMatched / numDocsScanned);
+    Map<String, Double> observedSelectivities =
+        OBSERVED_SELECTIVITIES.asMap().computeIfAbsent(dataSource, k -> new ConcurrentHashMap<>());
+    String key = predicate.toString();
+    if (observedSelectivities.size() >= MAX_NUM_OBSERVED_PREDICATES_PER_DATA_SOURCE
+        && !observedSelectivities.containsKey(key)) {
+      return;
+    }
+    observedSelectivities.merge(key, selectivity, (oldValue, newValue) -> (oldValue + newValue) / 2);
+  }
+
+  /**
+   * Returns a {@link ScanStatsListener} which records the observed selectivity of the predicate on the data source.
+   */
+  public static ScanStatsListener getScanStatsListener(DataSource dataSource, Predicate predicate) {
+    return (numDocsScanned, numDocsMatched) -> recordObservedSelectivity(dataSource, predicate, numDocsScanned,
+        numDocsMatched);
+  }
+
+  @VisibleForTesting
+  static void clearObservedSelectivities() {
+    OBSERVED_SELECTIVITIES.invalidateAll();
+  }
+
+  private static double clamp(double selectivity) {
+    return Math.max(0, Math.min(1, selectivity));
+  }
+}
@@ -56,6 +56,11 @@ public class InvertedIndexFilterOperator extends BaseColumnFilterOperator {
     _exclusive = predicateEvaluator.isExclusive();
   }
 
+  @Override
+  public PredicateEvaluator getPredicateEvaluator() {
+    return _predicateEvaluator;
+  }
+
   @Override
   protected BlockDocIdSet getNextBlockWithoutNullHandling() {
     int[] dictIds = _exclusive ? _predicateEvaluator.getNonMatchingDictIds() : _predicateEvaluator.getMatchingDictIds();
@@ -66,13 +71,9 @@ public class InvertedIndexFilterOperator extends BaseColumnFilterOperator {
     if (numDictIds == 1) {
       ImmutableRoaringBitmap docIds = _invertedIndexReader.getDocIds(dictIds[0]);
       if (_exclusive) {
-        if (docIds instanceof MutableRoaringBitmap) {
-          MutableRoaringBitmap mutableRoaringBitmap = (MutableRoaringBitmap) docIds;
-          mutableRoaringBitmap.flip(0L, _numDocs);
-          return new BitmapDocIdSet(mutableRoaringBitmap, _numDocs);
-        } else {
-          return new BitmapDocIdSet(ImmutableRoaringBitmap.flip(docIds, 0L, _numDocs), _numDocs);
-        }
+        // NOTE: Do not flip the bitmap in place even if it is mutable because the bitmap returned by the mutable
+        //       inverted index shares the containers with the index
+        return new BitmapDocIdSet(ImmutableRoaringBitmap.flip(docIds, 0L, _numDocs), _numDocs);
       } else {
         return new BitmapDocIdSet(docIds, _numDocs);
       }
@@ -55,11 +55,22 @@ public class ScanBasedFilterOperator extends BaseColumnFilterOperator {
     _batchSize = batchSize;
   }
 
+  @Override
+  public PredicateEvaluator getPredicateEvaluator() {
+    return _predicateEvaluator;
+  }
+
   @Override
   protected BlockDocIdSet getNextBlockWithoutNullHandling() {
     DataSourceMetadata dataSourceMetadata = _dataSource.getDataSourceMetadata();
     if (dataSourceMetadata.isSingleValue()) {
-      return new SVScanDocIdSet(_predicateEvaluator, _dataSource, _numDocs, _batchSize);
+      SVScanDocIdSet docIdSet = new SVScanDocIdSet(_predicateEvaluator, _dataSource, _numDocs, _batchSize);
+      if (_queryContext.isFilterSelectivityReorder()) {
+        // Feed the observed selectivity back to the estimator to improve the ordering of the following queries
+        docIdSet.iterator().setScanStatsListener(
+            FilterSelectivityEstimator.getScanStatsListener(_dataSource, _predicateEvaluator.getPredicate()));
+      }
+      return docIdSet;
     } else {
       return new MVScanDocIdSet(_predicateEvaluator, _dataSource, _numDocs);
     }
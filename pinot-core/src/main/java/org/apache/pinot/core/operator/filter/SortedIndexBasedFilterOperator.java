@@ -49,6 +49,11 @@ public class SortedIndexBasedFilterOperator extends BaseColumnFilterOperator {
     _sortedIndexReader = (SortedIndexReader<?>) dataSource.getInvertedIndex();
   }
 
+  @Override
+  public PredicateEvaluator getPredicateEvaluator() {
+    return _predicateEvaluator;
+  }
+
   @Override
   protected BlockDocIdSet getNextBlockWithoutNullHandling() {
     // At this point, we need to create a list of matching docIdRanges.
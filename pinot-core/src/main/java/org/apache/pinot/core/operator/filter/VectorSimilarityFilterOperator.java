@@ -22,17 +22,21 @@ import com.google.common.base.CaseFormat;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import javax.annotation.Nullable;
 import org.apache.pinot.common.request.context.predicate.VectorSimilarityPredicate;
+import org.apache.pinot.core.common.BlockDocIdIterator;
 import org.apache.pinot.core.common.BlockDocIdSet;
 import org.apache.pinot.core.common.Operator;
 import org.apache.pinot.core.operator.ExplainAttributeBuilder;
 import org.apache.pinot.core.operator.docidsets.BitmapDocIdSet;
+import org.apache.pinot.segment.spi.Constants;
 import org.apache.pinot.segment.spi.index.reader.VectorIndexReader;
 import org.apache.pinot.spi.data.FieldSpec;
 import org.apache.pinot.spi.trace.FilterType;
 import org.apache.pinot.spi.trace.InvocationRecording;
 import org.apache.pinot.spi.trace.Tracing;
 import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
+import org.roaringbitmap.buffer.MutableRoaringBitmap;
 
 
 /**
@@ -46,36 +50,82 @@ import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
  *  "topK": 10
  *  }
  *
+ * <p>When the vector index supports pre-filtering (see {@link VectorIndexReader#isPrefilterSupported()}) and the
+ * vector similarity predicate is ANDed with other filters, the other filters are evaluated first as the pre-filter, and
+ * the top K closest vectors are searched only within the matching documents. Otherwise, the top K closest vectors are
+ * searched within all the documents, and then intersected with the other filters.
  */
 public class VectorSimilarityFilterOperator extends BaseFilterOperator {
   private static final String EXPLAIN_NAME = "VECTOR_SIMILARITY_INDEX";
 
   private final VectorIndexReader _vectorIndexReader;
   private final VectorSimilarityPredicate _predicate;
+  @Nullable
+  private final BaseFilterOperator _prefilterOperator;
   private ImmutableRoaringBitmap _matches;
 
   public VectorSimilarityFilterOperator(VectorIndexReader vectorIndexReader, VectorSimilarityPredicate predicate,
       int numDocs) {
+    this(vectorIndexReader, predicate, null, numDocs);
+  }
+
+  public VectorSimilarityFilterOperator(VectorIndexReader vectorIndexReader, VectorSimilarityPredicate predicate,
+      @Nullable BaseFilterOperator prefilterOperator, int numDocs) {
     super(numDocs, false);
     _vectorIndexReader = vectorIndexReader;
     _predicate = predicate;
+    _prefilterOperator = prefilterOperator;
     _matches = null;
   }
 
+  public VectorIndexReader getVectorIndexReader() {
+    return _vectorIndexReader;
+  }
+
+  public VectorSimilarityPredicate getPredicate() {
+    return _predicate;
+  }
+
+  /**
+   * Returns {@code true} if the top K closest vectors can be searched within the documents matching a pre-filter.
+   */
+  public boolean isPrefilterSupported() {
+    return _vectorIndexReader.isPrefilterSupported();
+  }
+
   @Override
   protected BlockDocIdSet getTrues() {
-    if (_matches == null) {
-      _matches = _vectorIndexReader.getDocIds(_predicate.getValue(), _predicate.getTopK());
-    }
-    return new BitmapDocIdSet(_matches, _numDocs);
+    return new BitmapDocIdSet(getMatches(), _numDocs);
   }
 
   @Override
   public int getNumMatchingDocs() {
+    return getMatches().getCardinality();
+  }
+
+  private ImmutableRoaringBitmap getMatches() {
     if (_matches == null) {
-      _matches = _vectorIndexReader.getDocIds(_predicate.getValue(), _predicate.getTopK());
+      if (_prefilterOperator != null) {
+        _matches = _vectorIndexReader.getDocIds(_predicate.getValue(), _predicate.getTopK(), getPrefilterBitmap());
+      } else {
+        _matches = _vectorIndexReader.getDocIds(_predicate.getValue(), _predicate.getTopK());
+      }
+    }
+    return _matches;
+  }
+
+  private ImmutableRoaringBitmap getPrefilterBitmap() {
+    assert _prefilterOperator != null;
+    if (_prefilterOperator.canProduceBitmaps()) {
+      return _prefilterOperator.getBitmaps().reduce();
+    }
+    MutableRoaringBitmap bitmap = new MutableRoaringBitmap();
+    BlockDocIdIterator iterator = _prefilterOperator.nextBlock().getBlockDocIdSet().iterator();
+    int docId;
+    while ((docId = iterator.next()) != Constants.EOF) {
+      bitmap.add(docId);
     }
-    return _matches.getCardinality();
+    return bitmap;
   }
 
   @Override
@@ -85,16 +135,14 @@ public class VectorSimilarityFilterOperator extends BaseFilterOperator {
 
   @Override
   public BitmapCollection getBitmaps() {
-    if (_matches == null) {
-      _matches = _vectorIndexReader.getDocIds(_predicate.getValue(), _predicate.getTopK());
-    }
-    record(_matches);
-    return new BitmapCollection(_numDocs, false, _matches);
+    ImmutableRoaringBitmap matches = getMatches();
+    record(matches);
+    return new BitmapCollection(_numDocs, false, matches);
   }
 
   @Override
   public List<Operator> getChildOperators() {
-    return Collections.emptyList();
+    return _prefilterOperator != null ? Collections.singletonList(_prefilterOperator) : Collections.emptyList();
   }
 
   @Override
@@ -104,6 +152,7 @@ public class VectorSimilarityFilterOperator extends BaseFilterOperator {
         + ", vector identifier:" + _predicate.getLhs().getIdentifier()
         + ", vector literal:" + Arrays.toString(_predicate.getValue())
         + ", topK to search:" + _predicate.getTopK()
+        + (_prefilterOperator != null ? ", prefilter:true" : "")
         + ')';
   }
 
@@ -120,6 +169,9 @@ public class VectorSimilarityFilterOperator extends BaseFilterOperator {
     attributeBuilder.putString("vectorIdentifier", _predicate.getLhs().getIdentifier());
     attributeBuilder.putString("vectorLiteral", Arrays.toString(_predicate.getValue()));
     attributeBuilder.putLongIdempotent("topKtoSearch", _predicate.getTopK());
+    if (_prefilterOperator != null) {
+      attributeBuilder.putBool("prefilter", true);
+    }
   }
 
   private void record(ImmutableRoaringBitmap matches) {
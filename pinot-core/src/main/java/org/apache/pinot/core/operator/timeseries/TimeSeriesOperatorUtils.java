@@ -48,13 +48,16 @@ public class TimeSeriesOperatorUtils {
     Map<Long, List<TimeSeries>> timeSeriesMap = new HashMap<>(groupByResultsBlock.getNumRows());
     List<String> tagNames = getTagNamesFromDataSchema(Objects.requireNonNull(groupByResultsBlock.getDataSchema(),
         "DataSchema is null in leaf stage of time-series query"));
+    // Intern the tag values so that the series sharing the same tag value share the same String
+    Map<Object, String> internedTagValues = new HashMap<>();
     Iterator<Record> recordIterator = groupByResultsBlock.getTable().iterator();
     while (recordIterator.hasNext()) {
       Record record = recordIterator.next();
       Object[] recordValues = record.getValues();
-      Object[] tagValues = new Object[recordValues.length - 1];
+      String[] tagValues = new String[recordValues.length - 1];
       for (int index = 0; index + 1 < recordValues.length; index++) {
-        tagValues[index] = recordValues[index] == null ? "null" : recordValues[index].toString();
+        tagValues[index] = recordValues[index] == null ? "null"
+            : internedTagValues.computeIfAbsent(recordValues[index], Object::toString);
       }
       BaseTimeSeriesBuilder seriesBuilder = (BaseTimeSeriesBuilder) recordValues[recordValues.length - 1];
       long seriesHash = TimeSeries.hash(tagValues);
@@ -71,9 +74,9 @@ public class TimeSeriesOperatorUtils {
       return new TimeSeriesBlock(timeBuckets, new HashMap<>());
     }
     BaseTimeSeriesBuilder seriesBuilder = (BaseTimeSeriesBuilder) aggregationResultsBlock.getResults().get(0);
-    long seriesHash = TimeSeries.hash(new Object[0]);
+    long seriesHash = TimeSeries.hash(new String[0]);
     List<TimeSeries> timeSeriesList = new ArrayList<>(1);
-    timeSeriesList.add(seriesBuilder.buildWithTagOverrides(Collections.emptyList(), new Object[]{}));
+    timeSeriesList.add(seriesBuilder.buildWithTagOverrides(Collections.emptyList(), new String[0]));
     Map<Long, List<TimeSeries>> timeSeriesMap = new HashMap<>();
     timeSeriesMap.put(seriesHash, timeSeriesList);
     return new TimeSeriesBlock(timeBuckets, timeSeriesMap);
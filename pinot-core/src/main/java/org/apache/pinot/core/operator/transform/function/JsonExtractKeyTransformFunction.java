@@ -27,6 +27,7 @@ import org.apache.pinot.common.function.scalar.JsonFunctions;
 import org.apache.pinot.core.operator.ColumnContext;
 import org.apache.pinot.core.operator.blocks.ValueBlock;
 import org.apache.pinot.core.operator.transform.TransformResultMetadata;
+import org.apache.pinot.segment.local.utils.BinaryJsonUtils;
 
 
 /**
@@ -53,6 +54,7 @@ public class JsonExtractKeyTransformFunction extends BaseTransformFunction {
   private boolean _isExtractAllKeys;
   private int _maxDepth = Integer.MAX_VALUE;
   private boolean _dotNotation = false;
+  private boolean _isBinaryJson;
 
   @Override
   public String getName() {
@@ -79,6 +81,7 @@ public class JsonExtractKeyTransformFunction extends BaseTransformFunction {
     String jsonPathString = ((LiteralTransformFunction) arguments.get(1)).getStringLiteral();
     _isExtractAllKeys = JsonFunctions.isExtractAllKeys(jsonPathString);
     _jsonPath = JsonPathCache.INSTANCE.getOrCompute(jsonPathString);
+    _isBinaryJson = JsonExtractScalarTransformFunction.isBinaryJsonColumn(firstArgument, columnContextMap);
 
     // Handle the optional third argument (optionalParameters)
     if (arguments.size() == 3) {
@@ -103,22 +106,22 @@ public class JsonExtractKeyTransformFunction extends BaseTransformFunction {
   public String[][] transformToStringValuesMV(ValueBlock valueBlock) {
     int length = valueBlock.getNumDocs();
     initStringValuesMV(length);
-    String[] jsonStrings = _jsonFieldTransformFunction.transformToStringValuesSV(valueBlock);
+    Object[] jsonObjects = getJsonObjects(valueBlock);
     for (int i = 0; i < length; i++) {
       // Call the appropriate JsonFunctions method based on available parameters
       List values;
       try {
         if (_maxDepth != Integer.MAX_VALUE || _dotNotation) {
           if (_isExtractAllKeys) {
-            values = JsonFunctions.jsonExtractAllKeysInternal(jsonStrings[i], _maxDepth, _dotNotation);
+            values = JsonFunctions.jsonExtractAllKeysInternal(jsonObjects[i], _maxDepth, _dotNotation);
           } else {
-            values = JsonFunctions.jsonExtractKeyInternal(jsonStrings[i], _jsonPath, _maxDepth, _dotNotation);
+            values = JsonFunctions.jsonExtractKeyInternal(jsonObjects[i], _jsonPath, _maxDepth, _dotNotation);
           }
         } else {
           if (_isExtractAllKeys) {
-            values = JsonFunctions.jsonExtractAllKeysInternal(jsonStrings[i], Integer.MAX_VALUE, false);
+            values = JsonFunctions.jsonExtractAllKeysInternal(jsonObjects[i], Integer.MAX_VALUE, false);
           } else {
-            values = JsonFunctions.jsonExtractKeyInternal(jsonStrings[i], _jsonPath);
+            values = JsonFunctions.jsonExtractKeyInternal(jsonObjects[i], _jsonPath);
           }
         }
       } catch (IOException e) {
@@ -132,4 +135,28 @@ public class JsonExtractKeyTransformFunction extends BaseTransformFunction {
     }
     return _stringValuesMV;
   }
+
+  /**
+   * Returns the JSON documents to extract the keys from. For binary JSON forward index, returns the decoded documents
+   * (JsonNode when extracting all keys, Java objects otherwise) to avoid the JSON string ser/de.
+   */
+  private Object[] getJsonObjects(ValueBlock valueBlock) {
+    if (!_isBinaryJson) {
+      return _jsonFieldTransformFunction.transformToStringValuesSV(valueBlock);
+    }
+    byte[][] binaryJsons = _jsonFieldTransformFunction.transformToBytesValuesSV(valueBlock);
+    int numDocs = valueBlock.getNumDocs();
+    Object[] jsonObjects = new Object[numDocs];
+    for (int i = 0; i < numDocs; i++) {
+      byte[] binaryJson = binaryJsons[i];
+      if (BinaryJsonUtils.isRawText(binaryJson)) {
+        jsonObjects[i] = BinaryJsonUtils.getRawText(binaryJson);
+      } else if (_isExtractAllKeys) {
+        jsonObjects[i] = BinaryJsonUtils.toJsonNode(binaryJson);
+      } else {
+        jsonObjects[i] = BinaryJsonUtils.toJavaObject(binaryJson, false);
+      }
+    }
+    return jsonObjects;
+  }
 }
@@ -36,6 +36,9 @@ import org.apache.pinot.core.operator.blocks.ValueBlock;
 import org.apache.pinot.core.operator.transform.TransformResultMetadata;
 import org.apache.pinot.core.util.NumberUtils;
 import org.apache.pinot.core.util.NumericException;
+import org.apache.pinot.segment.local.segment.index.readers.forward.BinaryJsonForwardIndexReader;
+import org.apache.pinot.segment.local.utils.BinaryJsonUtils;
+import org.apache.pinot.segment.spi.datasource.DataSource;
 import org.apache.pinot.spi.data.FieldSpec.DataType;
 import org.apache.pinot.spi.utils.JsonUtils;
 
@@ -45,6 +48,8 @@ import org.apache.pinot.spi.utils.JsonUtils;
  * <a href="https://goessner.net/articles/JsonPath/">Stefan Goessner JsonPath implementation.</a>.
  *
  * Please note, currently this method only works with String field. The values in this field should be Json String.
+ * When the field is a JSON column stored with binary JSON forward index, the JSON path is read directly from the binary
+ * document without parsing the JSON string.
  *
  * Usage:
  * jsonExtractScalar(jsonFieldName, 'jsonPath', 'resultsType')
@@ -74,6 +79,11 @@ public class JsonExtractScalarTransformFunction extends BaseTransformFunction {
   private Object _defaultValue;
   private TransformResultMetadata _resultMetadata;
 
+  // Whether the JSON column is stored with binary JSON forward index, and the JSON path compiled for the binary JSON
+  // format (null when the path is not supported natively and has to be evaluated on the decoded document)
+  private boolean _isBinaryJson;
+  private BinaryJsonUtils.Path _binaryJsonPath;
+
   @Override
   public String getName() {
     return FUNCTION_NAME;
@@ -98,6 +108,10 @@ public class JsonExtractScalarTransformFunction extends BaseTransformFunction {
     _jsonFieldTransformFunction = firstArgument;
     String jsonPathString = ((LiteralTransformFunction) arguments.get(1)).getStringLiteral();
     _jsonPath = JsonPathCache.INSTANCE.getOrCompute(jsonPathString);
+    _isBinaryJson = isBinaryJsonColumn(firstArgument, columnContextMap);
+    if (_isBinaryJson) {
+      _binaryJsonPath = BinaryJsonUtils.compilePath(jsonPathString);
+    }
     String resultsType = ((LiteralTransformFunction) arguments.get(2)).getStringLiteral().toUpperCase();
     boolean isSingleValue = !resultsType.endsWith("_ARRAY");
     DataType dataType;
@@ -518,7 +532,37 @@ public class JsonExtractScalarTransformFunction extends BaseTransformFunction {
     return _stringValuesMV;
   }
 
+  /**
+   * Returns whether the given JSON field is a column stored with binary JSON forward index, in which case the BYTES
+   * values of the column are the binary JSON documents (see {@link BinaryJsonForwardIndexReader#getBytes}).
+   */
+  static boolean isBinaryJsonColumn(TransformFunction jsonFieldTransformFunction,
+      Map<String, ColumnContext> columnContextMap) {
+    if (!(jsonFieldTransformFunction instanceof IdentifierTransformFunction)) {
+      return false;
+    }
+    ColumnContext columnContext =
+        columnContextMap.get(((IdentifierTransformFunction) jsonFieldTransformFunction).getColumnName());
+    DataSource dataSource = columnContext != null ? columnContext.getDataSource() : null;
+    return dataSource != null && dataSource.getForwardIndex() instanceof BinaryJsonForwardIndexReader;
+  }
+
+  @SuppressWarnings("unchecked")
   private <T> IntFunction<T> getResultExtractor(ValueBlock valueBlock, ParseContext parseContext) {
+    if (_isBinaryJson) {
+      byte[][] binaryJsons = _jsonFieldTransformFunction.transformToBytesValuesSV(valueBlock);
+      boolean useBigDecimal = parseContext == JSON_PARSER_CONTEXT_WITH_BIG_DECIMAL;
+      return i -> {
+        byte[] binaryJson = binaryJsons[i];
+        if (BinaryJsonUtils.isRawText(binaryJson)) {
+          return parseContext.parse(BinaryJsonUtils.getRawText(binaryJson)).read(_jsonPath);
+        }
+        if (_binaryJsonPath != null) {
+          return (T) BinaryJsonUtils.read(binaryJson, _binaryJsonPath, useBigDecimal);
+        }
+        return parseContext.parse(BinaryJsonUtils.toJavaObject(binaryJson, useBigDecimal)).read(_jsonPath);
+      };
+    }
     if (_jsonFieldTransformFunction.getResultMetadata().getDataType() == DataType.BYTES) {
       byte[][] jsonBytes = _jsonFieldTransformFunction.transformToBytesValuesSV(valueBlock);
       return i -> parseContext.parseUtf8(jsonBytes[i]).read(_jsonPath);
@@ -24,6 +24,7 @@ import java.sql.Timestamp;
 import java.util.List;
 import java.util.Map;
 import org.apache.commons.lang3.ArrayUtils;
+import org.apache.pinot.common.function.BatchFunctionInvoker;
 import org.apache.pinot.common.function.FunctionInfo;
 import org.apache.pinot.common.function.FunctionUtils;
 import org.apache.pinot.common.function.QueryFunctionInvoker;
@@ -39,6 +40,10 @@ import org.apache.pinot.spi.utils.CommonConstants.NullValuePlaceHolder;
 
 /**
  * Wrapper transform function on the annotated scalar function.
+ *
+ * <p>When all the non-literal parameters and the result of the function are primitive numbers, the function is
+ * evaluated on the whole block with a {@link BatchFunctionInvoker} generated at planning time, which avoids boxing the
+ * values and invoking the function through the generic {@code Object[]} signature per row.
  */
 public class ScalarTransformFunctionWrapper extends BaseTransformFunction {
   private final String _name;
@@ -51,6 +56,10 @@ public class ScalarTransformFunctionWrapper extends BaseTransformFunction {
   private int[] _nonLiteralIndices;
   private TransformFunction[] _nonLiteralFunctions;
   private Object[][] _nonLiteralValues;
+  // Batch invoker and its arguments (primitive arrays of the non-literal values, followed by the result array), or
+  // null when the function cannot be evaluated in batch
+  private BatchFunctionInvoker _batchInvoker;
+  private Object[] _batchValuesAndResults;
 
   public ScalarTransformFunctionWrapper(FunctionInfo functionInfo) {
     _name = functionInfo.getMethod().getName();
@@ -150,6 +159,10 @@ public class ScalarTransformFunctionWrapper extends BaseTransformFunction {
       }
     }
     _nonLiteralValues = new Object[_numNonLiteralArguments][];
+    _batchInvoker = _functionInvoker.createBatchInvoker(_scalarArguments, _nonLiteralIndices, _numNonLiteralArguments);
+    if (_batchInvoker != null) {
+      _batchValuesAndResults = new Object[_numNonLiteralArguments + 1];
+    }
   }
 
   @Override
@@ -164,6 +177,10 @@ public class ScalarTransformFunctionWrapper extends BaseTransformFunction {
     }
     int length = valueBlock.getNumDocs();
     initIntValuesSV(length);
+    if (_batchInvoker != null) {
+      invokeBatch(valueBlock, _intValuesSV, length);
+      return _intValuesSV;
+    }
     getNonLiteralValues(valueBlock);
     for (int i = 0; i < length; i++) {
       for (int j = 0; j < _numNonLiteralArguments; j++) {
@@ -182,6 +199,10 @@ public class ScalarTransformFunctionWrapper extends BaseTransformFunction {
     }
     int length = valueBlock.getNumDocs();
     initLongValuesSV(length);
+    if (_batchInvoker != null) {
+      invokeBatch(valueBlock, _longValuesSV, length);
+      return _longValuesSV;
+    }
     getNonLiteralValues(valueBlock);
     for (int i = 0; i < length; i++) {
       for (int j = 0; j < _numNonLiteralArguments; j++) {
@@ -200,6 +221,10 @@ public class ScalarTransformFunctionWrapper extends BaseTransformFunction {
     }
     int length = valueBlock.getNumDocs();
     initFloatValuesSV(length);
+    if (_batchInvoker != null) {
+      invokeBatch(valueBlock, _floatValuesSV, length);
+      return _floatValuesSV;
+    }
     getNonLiteralValues(valueBlock);
     for (int i = 0; i < length; i++) {
       for (int j = 0; j < _numNonLiteralArguments; j++) {
@@ -219,6 +244,10 @@ public class ScalarTransformFunctionWrapper extends BaseTransformFunction {
     }
     int length = valueBlock.getNumDocs();
     initDoubleValuesSV(length);
+    if (_batchInvoker != null) {
+      invokeBatch(valueBlock, _doubleValuesSV, length);
+      return _doubleValuesSV;
+    }
     getNonLiteralValues(valueBlock);
     for (int i = 0; i < length; i++) {
       for (int j = 0; j < _numNonLiteralArguments; j++) {
@@ -374,6 +403,36 @@ public class ScalarTransformFunctionWrapper extends BaseTransformFunction {
     return _stringValuesMV;
   }
 
+  /**
+   * Helper method to evaluate the function on the whole block with the batch invoker, where all the non-literal
+   * parameters are primitive numbers.
+   */
+  private void invokeBatch(ValueBlock valueBlock, Object results, int length) {
+    PinotDataType[] parameterTypes = _functionInvoker.getParameterTypes();
+    for (int i = 0; i < _numNonLiteralArguments; i++) {
+      PinotDataType parameterType = parameterTypes[_nonLiteralIndices[i]];
+      TransformFunction transformFunction = _nonLiteralFunctions[i];
+      switch (parameterType) {
+        case INTEGER:
+          _batchValuesAndResults[i] = transformFunction.transformToIntValuesSV(valueBlock);
+          break;
+        case LONG:
+          _batchValuesAndResults[i] = transformFunction.transformToLongValuesSV(valueBlock);
+          break;
+        case FLOAT:
+          _batchValuesAndResults[i] = transformFunction.transformToFloatValuesSV(valueBlock);
+          break;
+        case DOUBLE:
+          _batchValuesAndResults[i] = transformFunction.transformToDoubleValuesSV(valueBlock);
+          break;
+        default:
+          throw new IllegalStateException("Unsupported parameter type for batch invocation: " + parameterType);
+      }
+    }
+    _batchValuesAndResults[_numNonLiteralArguments] = results;
+    _functionInvoker.invokeBatch(_batchInvoker, _batchValuesAndResults, length);
+  }
+
   /**
    * Helper method to fetch values for the non-literal transform functions based on the parameter types.
    */
@@ -30,6 +30,7 @@ import org.apache.pinot.core.operator.combine.BaseCombineOperator;
 import org.apache.pinot.core.operator.combine.DistinctCombineOperator;
 import org.apache.pinot.core.operator.combine.GroupByCombineOperator;
 import org.apache.pinot.core.operator.combine.MinMaxValueBasedSelectionOrderByCombineOperator;
+import org.apache.pinot.core.operator.combine.PartitionedGroupByCombineOperator;
 import org.apache.pinot.core.operator.combine.SelectionOnlyCombineOperator;
 import org.apache.pinot.core.operator.combine.SelectionOrderByCombineOperator;
 import org.apache.pinot.core.operator.combine.SequentialSortedGroupByCombineOperator;
@@ -135,6 +136,10 @@ public class CombinePlanNode implements PlanNode {
           // Aggregation only
           return new AggregationCombineOperator(operators, _queryContext, _executorService);
         } else {
+          // Partitioned aggregation group-by, when explicitly enabled
+          if (_queryContext.isPartitionedGroupByCombine()) {
+            return new PartitionedGroupByCombineOperator(operators, _queryContext, _executorService);
+          }
           // Sorted aggregation group-by, when safeTrim and limit is not too large
           if (_queryContext.shouldSortAggregateUnderSafeTrim()) {
             if (operators.size() < _queryContext.getSortAggregateSequentialCombineNumSegmentsThreshold()) {
@@ -210,6 +210,39 @@ public class FilterPlanNode implements PlanNode {
     return function.getFunctionName().equals(ItemTransformFunction.FUNCTION_NAME);
   }
 
+  /**
+   * Returns a pre-filtered {@link VectorSimilarityFilterOperator} for the children of an AND filter when there is
+   * exactly one vector similarity child whose index supports pre-filtering, where the other children are evaluated as
+   * the pre-filter so that the top K closest vectors are searched only within the documents matching them. Returns
+   * {@code null} otherwise.
+   */
+  @Nullable
+  private BaseFilterOperator getPrefilteredVectorSimilarityOperator(List<BaseFilterOperator> childFilterOperators,
+      int numDocs) {
+    if (childFilterOperators.size() < 2) {
+      return null;
+    }
+    VectorSimilarityFilterOperator vectorSimilarityOperator = null;
+    List<BaseFilterOperator> prefilterOperators = new ArrayList<>(childFilterOperators.size() - 1);
+    for (BaseFilterOperator childFilterOperator : childFilterOperators) {
+      if (childFilterOperator instanceof VectorSimilarityFilterOperator) {
+        if (vectorSimilarityOperator != null) {
+          return null;
+        }
+        vectorSimilarityOperator = (VectorSimilarityFilterOperator) childFilterOperator;
+      } else {
+        prefilterOperators.add(childFilterOperator);
+      }
+    }
+    if (vectorSimilarityOperator == null || !vectorSimilarityOperator.isPrefilterSupported()) {
+      return null;
+    }
+    BaseFilterOperator prefilterOperator =
+        FilterOperatorUtils.getAndFilterOperator(_queryContext, prefilterOperators, numDocs);
+    return new VectorSimilarityFilterOperator(vectorSimilarityOperator.getVectorIndexReader(),
+        vectorSimilarityOperator.getPredicate(), prefilterOperator, numDocs);
+  }
+
   /**
    * Helper method to build the operator tree from the filter.
    */
@@ -230,6 +263,11 @@ public class FilterPlanNode implements PlanNode {
             childFilterOperators.add(childFilterOperator);
           }
         }
+        BaseFilterOperator prefilteredVectorSimilarityOperator =
+            getPrefilteredVectorSimilarityOperator(childFilterOperators, numDocs);
+        if (prefilteredVectorSimilarityOperator != null) {
+          return prefilteredVectorSimilarityOperator;
+        }
         return FilterOperatorUtils.getAndFilterOperator(_queryContext, childFilterOperators, numDocs);
       case OR:
         childFilters = filter.getChildren();
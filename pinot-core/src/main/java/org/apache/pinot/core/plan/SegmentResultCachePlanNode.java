@@ -0,0 +1,61 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.plan;
+
+import org.apache.pinot.core.common.Operator;
+import org.apache.pinot.core.operator.blocks.results.BaseResultsBlock;
+import org.apache.pinot.core.operator.query.SegmentResultCacheOperator;
+import org.apache.pinot.core.query.executor.SegmentResultCache;
+import org.apache.pinot.core.query.request.context.QueryContext;
+import org.apache.pinot.segment.spi.IndexSegment;
+
+
+/**
+ * A wrapper of the segment-level plan node for aggregation and group-by queries on immutable segments, which looks up
+ * the {@link SegmentResultCache} before running the child plan node. The child plan node is not run when the segment
+ * level results are cached.
+ */
+public class SegmentResultCachePlanNode implements PlanNode {
+  private final PlanNode _childPlanNode;
+  private final SegmentResultCache _segmentResultCache;
+  private final SegmentResultCache.CacheKey _cacheKey;
+  private final IndexSegment _indexSegment;
+  private final QueryContext _queryContext;
+
+  public SegmentResultCachePlanNode(PlanNode childPlanNode, SegmentResultCache segmentResultCache,
+      SegmentResultCache.CacheKey cacheKey, IndexSegment indexSegment, QueryContext queryContext) {
+    _childPlanNode = childPlanNode;
+    _segmentResultCache = segmentResultCache;
+    _cacheKey = cacheKey;
+    _indexSegment = indexSegment;
+    _queryContext = queryContext;
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public SegmentResultCacheOperator run() {
+    SegmentResultCache.CachedResult cachedResult = _segmentResultCache.get(_cacheKey);
+    if (cachedResult != null) {
+      return new SegmentResultCacheOperator(_segmentResultCache, _cacheKey, cachedResult, null, _indexSegment,
+          _queryContext);
+    }
+    return new SegmentResultCacheOperator(_segmentResultCache, _cacheKey, null,
+        (Operator<BaseResultsBlock>) _childPlanNode.run(), _indexSegment, _queryContext);
+  }
+}
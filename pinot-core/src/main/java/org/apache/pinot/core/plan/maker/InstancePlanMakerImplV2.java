@@ -25,6 +25,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
+import javax.annotation.Nullable;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.collections4.MapUtils;
 import org.apache.commons.lang3.tuple.Pair;
@@ -43,11 +44,13 @@ import org.apache.pinot.core.plan.GroupByPlanNode;
 import org.apache.pinot.core.plan.InstanceResponsePlanNode;
 import org.apache.pinot.core.plan.Plan;
 import org.apache.pinot.core.plan.PlanNode;
+import org.apache.pinot.core.plan.SegmentResultCachePlanNode;
 import org.apache.pinot.core.plan.SelectionPlanNode;
 import org.apache.pinot.core.plan.StreamingInstanceResponsePlanNode;
 import org.apache.pinot.core.plan.StreamingSelectionPlanNode;
 import org.apache.pinot.core.query.aggregation.function.AggregationFunction;
 import org.apache.pinot.core.query.executor.ResultsBlockStreamer;
+import org.apache.pinot.core.query.executor.SegmentResultCache;
 import org.apache.pinot.core.query.prefetch.FetchPlanner;
 import org.apache.pinot.core.query.prefetch.FetchPlannerRegistry;
 import org.apache.pinot.core.query.request.context.QueryContext;
@@ -116,6 +119,8 @@ public class InstancePlanMakerImplV2 implements PlanMaker {
   private int _minSegmentGroupTrimSize = Server.DEFAULT_QUERY_EXECUTOR_MIN_SEGMENT_GROUP_TRIM_SIZE;
   private int _minServerGroupTrimSize = Server.DEFAULT_QUERY_EXECUTOR_MIN_SERVER_GROUP_TRIM_SIZE;
   private int _groupByTrimThreshold = Server.DEFAULT_QUERY_EXECUTOR_GROUPBY_TRIM_THRESHOLD;
+  // Cache of the segment level results on immutable segments, null when it is not enabled
+  private SegmentResultCache _segmentResultCache;
 
   @Override
   public void init(PinotConfiguration queryExecutorConfig) {
@@ -143,6 +148,7 @@ public class InstancePlanMakerImplV2 implements PlanMaker {
         Server.DEFAULT_QUERY_EXECUTOR_GROUPBY_TRIM_THRESHOLD);
     Preconditions.checkState(_groupByTrimThreshold > 0,
         "Invalid configurable: groupByTrimThreshold: %d must be positive", _groupByTrimThreshold);
+    _segmentResultCache = SegmentResultCache.getInstance();
     LOGGER.info("Initialized plan maker with maxExecutionThreads: {}, maxInitialResultHolderCapacity: {}, "
             + "numGroupsLimit: {}, minSegmentGroupTrimSize: {}, minServerGroupTrimSize: {}, groupByTrimThreshold: {}",
         _maxExecutionThreads, _maxInitialResultHolderCapacity, _numGroupsLimit, _minSegmentGroupTrimSize,
@@ -179,9 +185,17 @@ public class InstancePlanMakerImplV2 implements PlanMaker {
     _groupByTrimThreshold = groupByTrimThreshold;
   }
 
+  @VisibleForTesting
+  public void setSegmentResultCache(@Nullable SegmentResultCache segmentResultCache) {
+    _segmentResultCache = segmentResultCache;
+  }
+
   public Plan makeInstancePlan(List<SegmentContext> segmentContexts, QueryContext queryContext,
       ExecutorService executorService, ServerMetrics serverMetrics) {
     applyQueryOptions(queryContext);
+    // NOTE: Compute the query signature before the query context is rewritten for the segments
+    String querySignature =
+        _segmentResultCache != null ? SegmentResultCache.getQuerySignature(queryContext) : null;
 
     int numSegments = segmentContexts.size();
     List<PlanNode> planNodes = new ArrayList<>(numSegments);
@@ -192,14 +206,13 @@ public class InstancePlanMakerImplV2 implements PlanMaker {
         FetchContext fetchContext =
             _fetchPlanner.planFetchForProcessing(segmentContext.getIndexSegment(), queryContext);
         fetchContexts.add(fetchContext);
-        planNodes.add(
-            new AcquireReleaseColumnsSegmentPlanNode(makeSegmentPlanNode(segmentContext, queryContext), segmentContext,
-                fetchContext));
+        planNodes.add(new AcquireReleaseColumnsSegmentPlanNode(
+            makeSegmentPlanNode(segmentContext, queryContext, querySignature), segmentContext, fetchContext));
       }
     } else {
       fetchContexts = Collections.emptyList();
       for (SegmentContext segmentContext : segmentContexts) {
-        planNodes.add(makeSegmentPlanNode(segmentContext, queryContext));
+        planNodes.add(makeSegmentPlanNode(segmentContext, queryContext, querySignature));
       }
     }
 
@@ -224,6 +237,9 @@ public class InstancePlanMakerImplV2 implements PlanMaker {
     // Set skipScanFilterReorder
     queryContext.setSkipScanFilterReorder(QueryOptionsUtils.isSkipScanFilterReorder(queryOptions));
 
+    // Set filterSelectivityReorder
+    queryContext.setFilterSelectivityReorder(QueryOptionsUtils.isFilterSelectivityReorder(queryOptions));
+
     queryContext.setSkipIndexes(QueryOptionsUtils.getSkipIndexes(queryOptions));
 
     // Set maxExecutionThreads
@@ -306,6 +322,22 @@ public class InstancePlanMakerImplV2 implements PlanMaker {
     }
   }
 
+  /**
+   * Wraps the segment-level plan node with the {@link SegmentResultCachePlanNode} when the results on the segment are
+   * cacheable.
+   */
+  private PlanNode makeSegmentPlanNode(SegmentContext segmentContext, QueryContext queryContext,
+      @Nullable String querySignature) {
+    PlanNode planNode = makeSegmentPlanNode(segmentContext, queryContext);
+    if (querySignature == null) {
+      return planNode;
+    }
+    SegmentResultCache.CacheKey cacheKey =
+        SegmentResultCache.getKey(queryContext.getTableName(), segmentContext, querySignature);
+    return cacheKey != null ? new SegmentResultCachePlanNode(planNode, _segmentResultCache, cacheKey,
+        segmentContext.getIndexSegment(), queryContext) : planNode;
+  }
+
   @Override
   public PlanNode makeSegmentPlanNode(SegmentContext segmentContext, QueryContext queryContext) {
     rewriteQueryContextWithHints(queryContext, segmentContext.getIndexSegment());
@@ -22,7 +22,6 @@ import com.google.common.base.Preconditions;
 import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
 import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -54,7 +53,7 @@ import org.apache.pinot.tsdb.spi.series.TimeSeriesBuilderFactoryProvider;
  *   formula: {@code ((timeValue + timeOffset) - timeReferencePoint - 1) / bucketSize}. The entire calculation is done
  *   in the Time Unit (seconds, ms, etc.) of the timeValue returned by the time expression chosen by the user.
  *   The method used to add values to the series builders is:
- *   {@link BaseTimeSeriesBuilder#addValueAtIndex(int, Double, long)}.
+ *   {@link BaseTimeSeriesBuilder#addValueAtIndex(int, double, long)}.
  * </p>
  * <p>
  *   The formula originates from the fact that we use half-open time intervals, which are open on the left.
@@ -215,8 +214,7 @@ public class TimeSeriesAggregationFunction implements AggregationFunction<BaseTi
 
   @Override
   public DoubleArrayList extractFinalResult(BaseTimeSeriesBuilder seriesBuilder) {
-    Double[] doubleValues = seriesBuilder.build().getDoubleValues();
-    return new DoubleArrayList(Arrays.asList(doubleValues));
+    return DoubleArrayList.wrap(seriesBuilder.build().getDoubleValues());
   }
 
   @Override
@@ -0,0 +1,503 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.query.executor;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.annotation.Nullable;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.pinot.common.CustomObject;
+import org.apache.pinot.common.metrics.ServerMeter;
+import org.apache.pinot.common.metrics.ServerMetrics;
+import org.apache.pinot.common.utils.DataSchema;
+import org.apache.pinot.common.utils.DataSchema.ColumnDataType;
+import org.apache.pinot.core.data.table.IntermediateRecord;
+import org.apache.pinot.core.data.table.Key;
+import org.apache.pinot.core.data.table.Record;
+import org.apache.pinot.core.operator.ExecutionStatistics;
+import org.apache.pinot.core.operator.blocks.results.AggregationResultsBlock;
+import org.apache.pinot.core.operator.blocks.results.BaseResultsBlock;
+import org.apache.pinot.core.operator.blocks.results.GroupByResultsBlock;
+import org.apache.pinot.core.query.aggregation.function.AggregationFunction;
+import org.apache.pinot.core.query.aggregation.function.AggregationFunction.SerializedIntermediateResult;
+import org.apache.pinot.core.query.aggregation.groupby.AggregationGroupByResult;
+import org.apache.pinot.core.query.aggregation.groupby.GroupKeyGenerator;
+import org.apache.pinot.core.query.request.context.QueryContext;
+import org.apache.pinot.core.query.request.context.utils.QueryContextUtils;
+import org.apache.pinot.segment.spi.ImmutableSegment;
+import org.apache.pinot.segment.spi.IndexSegment;
+import org.apache.pinot.segment.spi.SegmentContext;
+import org.apache.pinot.spi.utils.ByteArray;
+import org.apache.pinot.spi.utils.CommonConstants.Broker.Request.QueryOptionKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Server level cache of the segment level intermediate results for aggregation and group-by queries on immutable
+ * segments. The results are cached before they are merged by the combine operator, so that only the segments without
+ * cached results (e.g. the newly added or consuming segments) need to be processed when the same query is repeated.
+ * <ul>
+ *   <li>The cache key contains the table name, segment name, segment CRC and a canonical form of the query.</li>
+ *   <li>Intermediate results of OBJECT type are stored serialized, and deserialized on each hit so that the combine
+ *   operator can merge them in place.</li>
+ *   <li>Entries of a segment are invalidated when the segment is closed, i.e. when it is reloaded, replaced or
+ *   removed.</li>
+ * </ul>
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class SegmentResultCache {
+  private static final Logger LOGGER = LoggerFactory.getLogger(SegmentResultCache.class);
+  private static final AtomicReference<SegmentResultCache> INSTANCE = new AtomicReference<>();
+
+  // Query options that don't affect the segment level results
+  private static final List<String> IGNORED_QUERY_OPTIONS =
+      List.of(QueryOptionKey.TIMEOUT_MS, QueryOptionKey.EXTRA_PASSIVE_TIMEOUT_MS,
+          QueryOptionKey.MAX_SERVER_RESPONSE_SIZE_BYTES, QueryOptionKey.MAX_QUERY_RESPONSE_SIZE_BYTES,
+          QueryOptionKey.SERVER_RETURN_FINAL_RESULT, QueryOptionKey.SERVER_RETURN_FINAL_RESULT_KEY_UNPARTITIONED,
+          QueryOptionKey.CLIENT_QUERY_ID, QueryOptionKey.MAX_EXECUTION_THREADS, QueryOptionKey.WIRE_COMPRESSION);
+  // Rough per-entry and per-value overhead used to estimate the memory usage of the cached results
+  private static final long ENTRY_OVERHEAD_BYTES = 128;
+  private static final long VALUE_OVERHEAD_BYTES = 16;
+  // Do not cache a single result larger than this fraction of the cache size
+  private static final int MAX_ENTRY_SIZE_FRACTION = 16;
+
+  private final Cache<CacheKey, CachedResult> _cache;
+  private final long _maxEntrySizeBytes;
+  private final ServerMetrics _serverMetrics;
+  // Keys of the cached results for each (table, segment), so that invalidating a segment doesn't scan the whole cache
+  private final Map<Pair<String, String>, Set<CacheKey>> _segmentKeys = new ConcurrentHashMap<>();
+
+  public static void init(long maxSizeBytes, ServerMetrics serverMetrics) {
+    if (INSTANCE.compareAndSet(null, new SegmentResultCache(maxSizeBytes, serverMetrics))) {
+      LOGGER.info("Initialized SegmentResultCache with max size: {} bytes", maxSizeBytes);
+    } else {
+      LOGGER.error("SegmentResultCache is already initialized, not initializing it again");
+    }
+  }
+
+  /**
+   * Returns the server level cache, or {@code null} if the cache is not enabled.
+   */
+  @Nullable
+  public static SegmentResultCache getInstance() {
+    return INSTANCE.get();
+  }
+
+  @VisibleForTesting
+  public SegmentResultCache(long maxSizeBytes, ServerMetrics serverMetrics) {
+    _cache = CacheBuilder.newBuilder()
+        .maximumWeight(maxSizeBytes)
+        .weigher((CacheKey key, CachedResult result) -> (int) Math.min(result._sizeInBytes, Integer.MAX_VALUE))
+        .<CacheKey, CachedResult>removalListener(notification -> {
+          RemovalCause cause = notification.getCause();
+          if (cause == RemovalCause.SIZE) {
+            serverMetrics.addMeteredGlobalValue(ServerMeter.SEGMENT_RESULT_CACHE_EVICTIONS, 1L);
+          }
+          // The key is still cached when the entry is replaced
+          if (cause != RemovalCause.REPLACED) {
+            CacheKey key = notification.getKey();
+            if (key != null) {
+              removeSegmentKey(key);
+            }
+          }
+        })
+        .build();
+    _maxEntrySizeBytes = maxSizeBytes / MAX_ENTRY_SIZE_FRACTION;
+    _serverMetrics = serverMetrics;
+  }
+
+  /**
+   * Returns the canonical form of the query used in the cache key, or {@code null} if the query is not cacheable.
+   * Only aggregation and non-sorted group-by queries are cacheable.
+   */
+  @Nullable
+  public static String getQuerySignature(QueryContext queryContext) {
+    if (queryContext.isExplain() || !QueryContextUtils.isAggregationQuery(queryContext)) {
+      return null;
+    }
+    boolean hasGroupBy = queryContext.getGroupByExpressions() != null;
+    if (hasGroupBy && queryContext.shouldSortAggregateUnderSafeTrim()) {
+      return null;
+    }
+    Map<String, String> queryOptions = new TreeMap<>(queryContext.getQueryOptions());
+    for (String ignoredQueryOption : IGNORED_QUERY_OPTIONS) {
+      queryOptions.remove(ignoredQueryOption);
+    }
+    StringBuilder stringBuilder = new StringBuilder().append("select:").append(queryContext.getSelectExpressions())
+        .append("|filter:").append(queryContext.getFilter())
+        .append("|groupBy:").append(queryContext.getGroupByExpressions())
+        .append("|having:").append(queryContext.getHavingFilter())
+        .append("|orderBy:").append(queryContext.getOrderByExpressions())
+        .append("|limit:").append(queryContext.getLimit())
+        .append("|hints:").append(queryContext.getExpressionOverrideHints())
+        .append("|nullHandling:").append(queryContext.isNullHandlingEnabled())
+        .append("|options:").append(queryOptions);
+    if (hasGroupBy) {
+      // Group limits decide which groups are kept in the segment level results
+      stringBuilder.append("|numGroupsLimit:").append(queryContext.getNumGroupsLimit())
+          .append("|numGroupsWarningLimit:").append(queryContext.getNumGroupsWarningLimit())
+          .append("|minSegmentGroupTrimSize:").append(queryContext.getMinSegmentGroupTrimSize())
+          .append("|groupTrimThreshold:").append(queryContext.getGroupTrimThreshold());
+    }
+    return stringBuilder.toString();
+  }
+
+  /**
+   * Returns the cache key for the given segment, or {@code null} if the results on the segment are not cacheable,
+   * i.e. the segment is mutable or the queryable docs of the segment can change (upsert).
+   */
+  @Nullable
+  public static CacheKey getKey(String tableNameWithType, SegmentContext segmentContext, String querySignature) {
+    IndexSegment indexSegment = segmentContext.getIndexSegment();
+    if (!(indexSegment instanceof ImmutableSegment) || indexSegment.getValidDocIds() != null
+        || indexSegment.getQueryableDocIds() != null || segmentContext.getQueryableDocIdsSnapshot() != null) {
+      return null;
+    }
+    String crc = indexSegment.getSegmentMetadata().getCrc();
+    if (crc == null) {
+      return null;
+    }
+    return new CacheKey(tableNameWithType, indexSegment.getSegmentName(), crc, querySignature);
+  }
+
+  @Nullable
+  public CachedResult get(CacheKey key) {
+    CachedResult cachedResult = _cache.getIfPresent(key);
+    _serverMetrics.addMeteredTableValue(key._tableNameWithType,
+        cachedResult != null ? ServerMeter.SEGMENT_RESULT_CACHE_HITS : ServerMeter.SEGMENT_RESULT_CACHE_MISSES, 1L);
+    return cachedResult;
+  }
+
+  /**
+   * Caches a copy of the segment level results, and returns the results block to be passed to the combine operator.
+   * The returned block might be different from the given one when the given one can only be consumed once.
+   */
+  public BaseResultsBlock put(CacheKey key, BaseResultsBlock resultsBlock, ExecutionStatistics executionStatistics,
+      QueryContext queryContext) {
+    if (resultsBlock instanceof AggregationResultsBlock) {
+      CachedResult cachedResult = toCachedResult((AggregationResultsBlock) resultsBlock, executionStatistics);
+      if (cachedResult != null) {
+        putCachedResult(key, cachedResult);
+      }
+      return resultsBlock;
+    }
+    if (resultsBlock instanceof GroupByResultsBlock) {
+      GroupByResultsBlock groupByResultsBlock = (GroupByResultsBlock) resultsBlock;
+      List<Object[]> rows = getGroupByRows(groupByResultsBlock, queryContext);
+      CachedResult cachedResult = toCachedResult(groupByResultsBlock, rows, executionStatistics, queryContext);
+      if (cachedResult != null) {
+        putCachedResult(key, cachedResult);
+      }
+      int numGroupByExpressions = queryContext.getGroupByExpressions().size();
+      List<IntermediateRecord> intermediateRecords = new ArrayList<>(rows.size());
+      for (Object[] row : rows) {
+        intermediateRecords.add(
+            IntermediateRecord.create(new Key(Arrays.copyOf(row, numGroupByExpressions)), new Record(row)));
+      }
+      GroupByResultsBlock newResultsBlock =
+          new GroupByResultsBlock(groupByResultsBlock.getDataSchema(), intermediateRecords, queryContext);
+      copyGroupByFlags(groupByResultsBlock, newResultsBlock);
+      return newResultsBlock;
+    }
+    return resultsBlock;
+  }
+
+  private void putCachedResult(CacheKey key, CachedResult cachedResult) {
+    _segmentKeys.compute(Pair.of(key._tableNameWithType, key._segmentName), (segment, keys) -> {
+      if (keys == null) {
+        keys = new HashSet<>();
+      }
+      keys.add(key);
+      return keys;
+    });
+    _cache.put(key, cachedResult);
+  }
+
+  private void removeSegmentKey(CacheKey key) {
+    _segmentKeys.computeIfPresent(Pair.of(key._tableNameWithType, key._segmentName), (segment, keys) -> {
+      keys.remove(key);
+      return keys.isEmpty() ? null : keys;
+    });
+  }
+
+  /**
+   * Returns a new results block from the cached results, which can be merged in place by the combine operator.
+   */
+  public BaseResultsBlock getResultsBlock(CachedResult cachedResult, QueryContext queryContext) {
+    AggregationFunction[] aggregationFunctions = queryContext.getAggregationFunctions();
+    assert aggregationFunctions != null;
+    if (cachedResult._dataSchema == null) {
+      List<Object> results;
+      if (cachedResult._rows.isEmpty()) {
+        results = new ArrayList<>();
+      } else {
+        Object[] row = cachedResult._rows.get(0);
+        results = new ArrayList<>(row.length);
+        for (int i = 0; i < row.length; i++) {
+          results.add(deserialize(aggregationFunctions[i], row[i]));
+        }
+      }
+      return new AggregationResultsBlock(aggregationFunctions, results, queryContext);
+    }
+    int numGroupByExpressions = queryContext.getGroupByExpressions().size();
+    List<IntermediateRecord> intermediateRecords = new ArrayList<>(cachedResult._rows.size());
+    for (Object[] cachedRow : cachedResult._rows) {
+      Object[] row = new Object[cachedRow.length];
+      System.arraycopy(cachedRow, 0, row, 0, numGroupByExpressions);
+      for (int i = numGroupByExpressions; i < row.length; i++) {
+        row[i] = deserialize(aggregationFunctions[i - numGroupByExpressions], cachedRow[i]);
+      }
+      intermediateRecords.add(
+          IntermediateRecord.create(new Key(Arrays.copyOf(row, numGroupByExpressions)), new Record(row)));
+    }
+    GroupByResultsBlock resultsBlock =
+        new GroupByResultsBlock(cachedResult._dataSchema, intermediateRecords, queryContext);
+    resultsBlock.setNumGroupsLimitReached(cachedResult._numGroupsLimitReached);
+    resultsBlock.setNumGroupsWarningLimitReached(cachedResult._numGroupsWarningLimitReached);
+    resultsBlock.setGroupsTrimmed(cachedResult._groupsTrimmed);
+    return resultsBlock;
+  }
+
+  /**
+   * Invalidates the cached results of the given segment. Should be invoked when the segment is closed.
+   */
+  public void invalidate(String tableNameWithType, String segmentName) {
+    Set<CacheKey> keys = _segmentKeys.remove(Pair.of(tableNameWithType, segmentName));
+    if (keys != null) {
+      _cache.invalidateAll(keys);
+    }
+  }
+
+  @VisibleForTesting
+  public long size() {
+    return _cache.size();
+  }
+
+  @VisibleForTesting
+  public int getNumSegments() {
+    return _segmentKeys.size();
+  }
+
+  @Nullable
+  private CachedResult toCachedResult(AggregationResultsBlock resultsBlock, ExecutionStatistics executionStatistics) {
+    List<Object> results = resultsBlock.getResults();
+    if (results.isEmpty()) {
+      return new CachedResult(null, List.of(), executionStatistics, false, false, false, ENTRY_OVERHEAD_BYTES);
+    }
+    AggregationFunction[] aggregationFunctions = resultsBlock.getAggregationFunctions();
+    int numResults = results.size();
+    Object[] row = new Object[numResults];
+    long sizeInBytes = ENTRY_OVERHEAD_BYTES;
+    for (int i = 0; i < numResults; i++) {
+      row[i] = serialize(aggregationFunctions[i], results.get(i));
+      sizeInBytes += getSizeInBytes(row[i]);
+    }
+    if (sizeInBytes > _maxEntrySizeBytes) {
+      return null;
+    }
+    return new CachedResult(null, List.<Object[]>of(row), executionStatistics, false, false, false, sizeInBytes);
+  }
+
+  @Nullable
+  private CachedResult toCachedResult(GroupByResultsBlock resultsBlock, List<Object[]> rows,
+      ExecutionStatistics executionStatistics, QueryContext queryContext) {
+    AggregationFunction[] aggregationFunctions = queryContext.getAggregationFunctions();
+    assert aggregationFunctions != null;
+    int numGroupByExpressions = queryContext.getGroupByExpressions().size();
+    List<Object[]> cachedRows = new ArrayList<>(rows.size());
+    long sizeInBytes = ENTRY_OVERHEAD_BYTES;
+    for (Object[] row : rows) {
+      Object[] cachedRow = new Object[row.length];
+      for (int i = 0; i < numGroupByExpressions; i++) {
+        cachedRow[i] = row[i];
+        sizeInBytes += getSizeInBytes(row[i]);
+      }
+      for (int i = numGroupByExpressions; i < row.length; i++) {
+        cachedRow[i] = serialize(aggregationFunctions[i - numGroupByExpressions], row[i]);
+        sizeInBytes += getSizeInBytes(cachedRow[i]);
+      }
+      if (sizeInBytes > _maxEntrySizeBytes) {
+        return null;
+      }
+      cachedRows.add(cachedRow);
+    }
+    return new CachedResult(resultsBlock.getDataSchema(), cachedRows, executionStatistics,
+        resultsBlock.isNumGroupsLimitReached(), resultsBlock.isNumGroupsWarningLimitReached(),
+        resultsBlock.isGroupsTrimmed(), sizeInBytes);
+  }
+
+  /**
+   * Extracts the group-by rows (group-by values followed by the intermediate results) from the segment level results.
+   */
+  private static List<Object[]> getGroupByRows(GroupByResultsBlock resultsBlock, QueryContext queryContext) {
+    List<IntermediateRecord> intermediateRecords = resultsBlock.getIntermediateRecords();
+    if (intermediateRecords != null) {
+      List<Object[]> rows = new ArrayList<>(intermediateRecords.size());
+      for (IntermediateRecord intermediateRecord : intermediateRecords) {
+        rows.add(intermediateRecord._record.getValues());
+      }
+      return rows;
+    }
+    AggregationGroupByResult aggregationGroupByResult = resultsBlock.getAggregationGroupByResult();
+    if (aggregationGroupByResult == null) {
+      return new ArrayList<>();
+    }
+    int numGroupByExpressions = queryContext.getGroupByExpressions().size();
+    int numAggregationFunctions = queryContext.getAggregationFunctions().length;
+    int numColumns = numGroupByExpressions + numAggregationFunctions;
+    List<Object[]> rows = new ArrayList<>(aggregationGroupByResult.getNumGroups());
+    try {
+      Iterator<GroupKeyGenerator.GroupKey> groupKeyIterator = aggregationGroupByResult.getGroupKeyIterator();
+      while (groupKeyIterator.hasNext()) {
+        GroupKeyGenerator.GroupKey groupKey = groupKeyIterator.next();
+        Object[] row = Arrays.copyOf(groupKey._keys, numColumns);
+        int groupId = groupKey._groupId;
+        for (int i = 0; i < numAggregationFunctions; i++) {
+          row[numGroupByExpressions + i] = aggregationGroupByResult.getResultForGroupId(i, groupId);
+        }
+        rows.add(row);
+      }
+    } finally {
+      aggregationGroupByResult.closeGroupKeyGenerator();
+    }
+    return rows;
+  }
+
+  private static void copyGroupByFlags(GroupByResultsBlock from, GroupByResultsBlock to) {
+    to.setNumGroupsLimitReached(from.isNumGroupsLimitReached());
+    to.setNumGroupsWarningLimitReached(from.isNumGroupsWarningLimitReached());
+    to.setGroupsTrimmed(from.isGroupsTrimmed());
+    to.setNumResizes(from.getNumResizes());
+    to.setResizeTimeMs(from.getResizeTimeMs());
+  }
+
+  @Nullable
+  private static Object serialize(AggregationFunction aggregationFunction, @Nullable Object intermediateResult) {
+    if (intermediateResult == null || aggregationFunction.getIntermediateResultColumnType() != ColumnDataType.OBJECT) {
+      // Intermediate results of non-OBJECT type are immutable
+      return intermediateResult;
+    }
+    return aggregationFunction.serializeIntermediateResult(intermediateResult);
+  }
+
+  @Nullable
+  private static Object deserialize(AggregationFunction aggregationFunction, @Nullable Object cachedValue) {
+    if (!(cachedValue instanceof SerializedIntermediateResult)) {
+      return cachedValue;
+    }
+    SerializedIntermediateResult serializedResult = (SerializedIntermediateResult) cachedValue;
+    return aggregationFunction.deserializeIntermediateResult(
+        new CustomObject(serializedResult.getType(), ByteBuffer.wrap(serializedResult.getBytes())));
+  }
+
+  private static long getSizeInBytes(@Nullable Object value) {
+    if (value instanceof SerializedIntermediateResult) {
+      return VALUE_OVERHEAD_BYTES + ((SerializedIntermediateResult) value).getBytes().length;
+    }
+    if (value instanceof String) {
+      return VALUE_OVERHEAD_BYTES + 2L * ((String) value).length();
+    }
+    if (value instanceof ByteArray) {
+      return VALUE_OVERHEAD_BYTES + ((ByteArray) value).length();
+    }
+    return VALUE_OVERHEAD_BYTES;
+  }
+
+  public static final class CacheKey {
+    private final String _tableNameWithType;
+    private final String _segmentName;
+    private final String _crc;
+    private final String _querySignature;
+
+    private CacheKey(String tableNameWithType, String segmentName, String crc, String querySignature) {
+      _tableNameWithType = tableNameWithType;
+      _segmentName = segmentName;
+      _crc = crc;
+      _querySignature = querySignature;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof CacheKey)) {
+        return false;
+      }
+      CacheKey that = (CacheKey) o;
+      return _segmentName.equals(that._segmentName) && _crc.equals(that._crc) && _querySignature.equals(
+          that._querySignature) && _tableNameWithType.equals(that._tableNameWithType);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(_tableNameWithType, _segmentName, _crc, _querySignature);
+    }
+  }
+
+  /**
+   * Cached segment level results. For aggregation-only queries, the data schema is {@code null} and there is at most
+   * one row of intermediate results; for group-by queries, each row contains the group-by values followed by the
+   * intermediate results.
+   */
+  public static final class CachedResult {
+    private final DataSchema _dataSchema;
+    private final List<Object[]> _rows;
+    private final ExecutionStatistics _executionStatistics;
+    private final boolean _numGroupsLimitReached;
+    private final boolean _numGroupsWarningLimitReached;
+    private final boolean _groupsTrimmed;
+    private final long _sizeInBytes;
+
+    private CachedResult(@Nullable DataSchema dataSchema, List<Object[]> rows, ExecutionStatistics executionStatistics,
+        boolean numGroupsLimitReached, boolean numGroupsWarningLimitReached, boolean groupsTrimmed,
+        long sizeInBytes) {
+      _dataSchema = dataSchema;
+      _rows = rows;
+      _executionStatistics = executionStatistics;
+      _numGroupsLimitReached = numGroupsLimitReached;
+      _numGroupsWarningLimitReached = numGroupsWarningLimitReached;
+      _groupsTrimmed = groupsTrimmed;
+      _sizeInBytes = sizeInBytes;
+    }
+
+    /**
+     * Returns the execution statistics of the original execution, where no entries are scanned.
+     */
+    public ExecutionStatistics getExecutionStatistics() {
+      return new ExecutionStatistics(_executionStatistics.getNumDocsScanned(), 0, 0,
+          _executionStatistics.getNumTotalDocs());
+    }
+  }
+}
@@ -105,6 +105,11 @@ public class ServerQueryExecutorV1Impl implements QueryExecutor {
     _serverMetrics = serverMetrics;
     LOGGER.info("Trying to build SegmentPrunerService");
     _segmentPrunerService = new SegmentPrunerService(new SegmentPrunerConfig(config.subset(Server.PRUNER)));
+    long segmentResultCacheMaxSizeBytes = config.getProperty(Server.SEGMENT_RESULT_CACHE_MAX_SIZE_BYTES,
+        Server.DEFAULT_QUERY_EXECUTOR_SEGMENT_RESULT_CACHE_MAX_SIZE_BYTES);
+    if (segmentResultCacheMaxSizeBytes > 0) {
+      SegmentResultCache.init(segmentResultCacheMaxSizeBytes, serverMetrics);
+    }
     String planMakerClass = config.getProperty(Server.PLAN_MAKER_CLASS, Server.DEFAULT_QUERY_EXECUTOR_PLAN_MAKER_CLASS);
     LOGGER.info("Trying to build PlanMaker with class: {}", planMakerClass);
     try {
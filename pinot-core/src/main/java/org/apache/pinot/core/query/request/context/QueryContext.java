@@ -112,6 +112,8 @@ public class QueryContext {
   private boolean _skipStarTree;
   // Whether to skip reordering scan filters for the query
   private boolean _skipScanFilterReorder;
+  // Whether to reorder the AND filter children based on the estimated selectivity for the query
+  private boolean _filterSelectivityReorder;
   // Maximum number of threads used to execute the query
   private int _maxExecutionThreads = Server.DEFAULT_QUERY_EXECUTOR_MAX_EXECUTION_THREADS;
   // The following properties apply to group-by queries
@@ -147,6 +149,8 @@ public class QueryContext {
   private boolean _serverReturnFinalResult;
   // Whether server returns the final result with unpartitioned group key
   private boolean _serverReturnFinalResultKeyUnpartitioned;
+  // Whether to use the partitioned combine operator for group-by queries
+  private boolean _partitionedGroupByCombine;
   private boolean _accurateGroupByWithoutOrderBy;
   private boolean _isUnsafeTrim;
   // Collection of index types to skip per column
@@ -401,6 +405,14 @@ public class QueryContext {
     _skipScanFilterReorder = skipScanFilterReorder;
   }
 
+  public boolean isFilterSelectivityReorder() {
+    return _filterSelectivityReorder;
+  }
+
+  public void setFilterSelectivityReorder(boolean filterSelectivityReorder) {
+    _filterSelectivityReorder = filterSelectivityReorder;
+  }
+
   public int getMaxExecutionThreads() {
     return _maxExecutionThreads;
   }
@@ -519,6 +531,14 @@ public class QueryContext {
     _serverReturnFinalResultKeyUnpartitioned = serverReturnFinalResultKeyUnpartitioned;
   }
 
+  public boolean isPartitionedGroupByCombine() {
+    return _partitionedGroupByCombine;
+  }
+
+  public void setPartitionedGroupByCombine(boolean partitionedGroupByCombine) {
+    _partitionedGroupByCombine = partitionedGroupByCombine;
+  }
+
   public void setSortAggregateLimitThreshold(int sortAggregateLimitThreshold) {
     _sortAggregateLimitThreshold = sortAggregateLimitThreshold;
   }
@@ -726,6 +746,7 @@ public class QueryContext {
       queryContext.setServerReturnFinalResult(QueryOptionsUtils.isServerReturnFinalResult(_queryOptions));
       queryContext.setServerReturnFinalResultKeyUnpartitioned(
           QueryOptionsUtils.isServerReturnFinalResultKeyUnpartitioned(_queryOptions));
+      queryContext.setPartitionedGroupByCombine(QueryOptionsUtils.isPartitionedGroupByCombine(_queryOptions));
 
       // Pre-calculate the aggregation functions and columns for the query
       generateAggregationFunctions(queryContext);
@@ -24,6 +24,7 @@ import java.util.concurrent.atomic.LongAccumulator;
 import javax.annotation.Nullable;
 import org.apache.pinot.common.metrics.ServerMetrics;
 import org.apache.pinot.core.query.executor.QueryExecutor;
+import org.apache.pinot.core.query.scheduler.deadline.DeadlineAwareQueryScheduler;
 import org.apache.pinot.core.query.scheduler.fcfs.BoundedFCFSScheduler;
 import org.apache.pinot.core.query.scheduler.fcfs.FCFSQueryScheduler;
 import org.apache.pinot.core.query.scheduler.tokenbucket.TokenPriorityScheduler;
@@ -47,6 +48,7 @@ public class QuerySchedulerFactory {
   public static final String TOKEN_BUCKET_ALGORITHM = "tokenbucket";
   public static final String BOUNDED_FCFS_ALGORITHM = "bounded_fcfs";
   public static final String BINARY_WORKLOAD_ALGORITHM = "binary_workload";
+  public static final String DEADLINE_ALGORITHM = "deadline";
   public static final String ALGORITHM_NAME_CONFIG_KEY = "name";
   public static final String DEFAULT_QUERY_SCHEDULER_ALGORITHM = FCFS_ALGORITHM;
   public static final String WORKLOAD_SCHEDULER_ALGORITHM = "workload";
@@ -80,6 +82,10 @@ public class QuerySchedulerFactory {
         scheduler = BoundedFCFSScheduler.create(schedulerConfig, queryExecutor, serverMetrics, latestQueryTime,
             resourceUsageAccountant);
         break;
+      case DEADLINE_ALGORITHM:
+        scheduler = DeadlineAwareQueryScheduler.create(schedulerConfig, queryExecutor, serverMetrics,
+            latestQueryTime, resourceUsageAccountant);
+        break;
       case BINARY_WORKLOAD_ALGORITHM:
         scheduler = new BinaryWorkloadScheduler(schedulerConfig, queryExecutor, serverMetrics, latestQueryTime,
             resourceUsageAccountant);
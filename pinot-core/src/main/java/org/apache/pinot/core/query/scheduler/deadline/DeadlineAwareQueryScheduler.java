@@ -0,0 +1,212 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.query.scheduler.deadline;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.util.List;
+import java.util.concurrent.atomic.LongAccumulator;
+import javax.annotation.Nullable;
+import org.apache.pinot.common.metrics.ServerMeter;
+import org.apache.pinot.common.metrics.ServerMetrics;
+import org.apache.pinot.common.metrics.ServerQueryPhase;
+import org.apache.pinot.common.utils.config.QueryOptionsUtils;
+import org.apache.pinot.core.query.executor.QueryExecutor;
+import org.apache.pinot.core.query.request.ServerQueryRequest;
+import org.apache.pinot.core.query.scheduler.MultiLevelPriorityQueue;
+import org.apache.pinot.core.query.scheduler.OutOfCapacityException;
+import org.apache.pinot.core.query.scheduler.PriorityScheduler;
+import org.apache.pinot.core.query.scheduler.SchedulerGroup;
+import org.apache.pinot.core.query.scheduler.SchedulerGroupFactory;
+import org.apache.pinot.core.query.scheduler.SchedulerPriorityQueue;
+import org.apache.pinot.core.query.scheduler.SchedulerQueryContext;
+import org.apache.pinot.core.query.scheduler.TableBasedGroupMapper;
+import org.apache.pinot.core.query.scheduler.resources.PolicyBasedResourceManager;
+import org.apache.pinot.core.query.scheduler.resources.ResourceManager;
+import org.apache.pinot.spi.accounting.ThreadResourceUsageAccountant;
+import org.apache.pinot.spi.env.PinotConfiguration;
+import org.apache.pinot.spi.exception.QueryErrorCode;
+import org.apache.pinot.spi.utils.CommonConstants.Server;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Scheduler that orders the queries by deadline instead of arrival time, so that a burst of heavy scans does not starve
+ * the cheap queries that are about to time out.
+ *
+ * The expected execution time of each query is estimated by the {@link QueryCostEstimator} from the number of
+ * segments, the filter shape and the historical latency of the table. The pending queries are then run in the
+ * configured {@link DeadlineOrdering} (least slack first by default), within the per table resource limits of the
+ * {@link SchedulerGroup}s. The queries that cannot meet their deadline anymore are shed with a scheduling timeout
+ * error, both when they are submitted and when they are about to be scheduled, instead of wasting the worker threads.
+ *
+ * This is a thin wrapper that configures {@link PriorityScheduler} with {@link DeadlineSchedulerGroup}s.
+ */
+public class DeadlineAwareQueryScheduler extends PriorityScheduler {
+  private static final Logger LOGGER = LoggerFactory.getLogger(DeadlineAwareQueryScheduler.class);
+
+  public static final String ORDERING_KEY = "ordering";
+  // Timeout of the queries without timeout query option, which should match the query executor timeout
+  public static final String DEFAULT_TIMEOUT_MS_KEY = "default_timeout_ms";
+  // Execution time of a full segment scan for the tables without history
+  public static final String DEFAULT_MS_PER_SEGMENT_KEY = "default_ms_per_segment";
+  // Queries are shed when the time left before their deadline is lower than this fraction of their expected cost.
+  // Lower values tolerate more underestimation, 0 only sheds the queries already past their deadline.
+  public static final String SHED_COST_FRACTION_KEY = "shed_cost_fraction";
+  private static final double DEFAULT_MS_PER_SEGMENT = 1.0;
+  private static final double DEFAULT_SHED_COST_FRACTION = 0.5;
+
+  private final DeadlineOrdering _ordering;
+  private final long _defaultTimeoutMs;
+  private final double _shedCostFraction;
+  private final QueryCostEstimator _costEstimator;
+
+  public static DeadlineAwareQueryScheduler create(PinotConfiguration config, QueryExecutor queryExecutor,
+      ServerMetrics metrics, LongAccumulator latestQueryTime, ThreadResourceUsageAccountant resourceUsageAccountant) {
+    final ResourceManager rm = new PolicyBasedResourceManager(config, resourceUsageAccountant);
+    final SchedulerGroupFactory groupFactory = new SchedulerGroupFactory() {
+      @Override
+      public SchedulerGroup create(PinotConfiguration config, String groupName) {
+        return new DeadlineSchedulerGroup(groupName);
+      }
+    };
+    MultiLevelPriorityQueue queue = new MultiLevelPriorityQueue(config, rm, groupFactory, new TableBasedGroupMapper());
+    return new DeadlineAwareQueryScheduler(config, rm, queryExecutor, new SheddingQueue(queue), metrics,
+        latestQueryTime);
+  }
+
+  private DeadlineAwareQueryScheduler(PinotConfiguration config, ResourceManager resourceManager,
+      QueryExecutor queryExecutor, SheddingQueue queue, ServerMetrics metrics, LongAccumulator latestQueryTime) {
+    super(config, resourceManager, queryExecutor, queue, metrics, latestQueryTime);
+    _ordering = DeadlineOrdering.valueOf(config.getProperty(ORDERING_KEY, DeadlineOrdering.LEAST_SLACK.name())
+        .trim().toUpperCase());
+    _defaultTimeoutMs = config.getProperty(DEFAULT_TIMEOUT_MS_KEY, Server.DEFAULT_QUERY_EXECUTOR_TIMEOUT_MS);
+    _shedCostFraction = config.getProperty(SHED_COST_FRACTION_KEY, DEFAULT_SHED_COST_FRACTION);
+    _costEstimator =
+        new QueryCostEstimator(config.getProperty(DEFAULT_MS_PER_SEGMENT_KEY, DEFAULT_MS_PER_SEGMENT));
+    queue._scheduler = this;
+    LOGGER.info("Initialized deadline aware scheduler with ordering: {}, defaultTimeoutMs: {}, shedCostFraction: {}",
+        _ordering, _defaultTimeoutMs, _shedCostFraction);
+  }
+
+  @Override
+  public ListenableFuture<byte[]> submit(ServerQueryRequest queryRequest) {
+    if (!_isRunning) {
+      return shuttingDown(queryRequest);
+    }
+    queryRequest.getTimerContext().startNewPhaseTimer(ServerQueryPhase.SCHEDULER_WAIT);
+    DeadlineQueryContext schedQueryContext = createQueryContext(queryRequest);
+    if (!schedQueryContext.canMeetDeadline(System.currentTimeMillis(), _shedCostFraction)) {
+      return shed(schedQueryContext);
+    }
+    try {
+      _queryQueue.put(schedQueryContext);
+    } catch (OutOfCapacityException e) {
+      LOGGER.error("Out of capacity for table {}, message: {}", queryRequest.getTableNameWithType(), e.getMessage());
+      return outOfCapacity(queryRequest);
+    }
+    return schedQueryContext.getResultFuture();
+  }
+
+  @VisibleForTesting
+  DeadlineQueryContext createQueryContext(ServerQueryRequest queryRequest) {
+    long timeoutMs = _defaultTimeoutMs;
+    try {
+      Long timeoutFromQueryOptions = QueryOptionsUtils.getTimeoutMs(queryRequest.getQueryContext().getQueryOptions());
+      if (timeoutFromQueryOptions != null) {
+        timeoutMs = timeoutFromQueryOptions;
+      }
+    } catch (Exception e) {
+      // Invalid timeout is reported by the query executor
+    }
+    long deadlineMs = queryRequest.getTimerContext().getQueryArrivalTimeMs() + timeoutMs;
+    double numCostUnits = QueryCostEstimator.getNumCostUnits(queryRequest);
+    long expectedCostMs = _costEstimator.estimateCostMs(queryRequest.getTableNameWithType(), numCostUnits);
+    return new DeadlineQueryContext(queryRequest, numCostUnits, deadlineMs, expectedCostMs, _ordering);
+  }
+
+  private ListenableFuture<byte[]> shed(DeadlineQueryContext query) {
+    ServerQueryRequest queryRequest = query.getQueryRequest();
+    LOGGER.debug("Shedding requestId: {} expected to take {}ms with deadline: {}", queryRequest.getRequestId(),
+        query.getExpectedCostMs(), query.getDeadlineMs());
+    _serverMetrics.addMeteredTableValue(queryRequest.getTableNameWithType(),
+        ServerMeter.SCHEDULING_TIMEOUT_EXCEPTIONS, 1);
+    return immediateErrorResponse(queryRequest, QueryErrorCode.QUERY_SCHEDULING_TIMEOUT);
+  }
+
+  /**
+   * Called right before the query is scheduled. Returns {@code false} if the query was shed, or tracks the execution
+   * time of the query to refine the cost estimations otherwise.
+   */
+  private boolean startOrShed(DeadlineQueryContext query) {
+    long startTimeMs = System.currentTimeMillis();
+    if (!query.canMeetDeadline(startTimeMs, _shedCostFraction)) {
+      query.setResultFuture(shed(query));
+      return false;
+    }
+    query.setStartTimeMs(startTimeMs);
+    String tableNameWithType = query.getQueryRequest().getTableNameWithType();
+    query.getResultFuture().addListener(
+        () -> _costEstimator.recordExecution(tableNameWithType, query.getNumCostUnits(),
+            System.currentTimeMillis() - query.getStartTimeMs()), MoreExecutors.directExecutor());
+    return true;
+  }
+
+  @Override
+  public String name() {
+    return "DeadlineAware";
+  }
+
+  /**
+   * Sheds the queries that cannot meet their deadline anymore when they are taken from the queue, so that the
+   * scheduler never hands them to the query runners.
+   */
+  private static class SheddingQueue implements SchedulerPriorityQueue {
+    private final SchedulerPriorityQueue _delegate;
+    private DeadlineAwareQueryScheduler _scheduler;
+
+    SheddingQueue(SchedulerPriorityQueue delegate) {
+      _delegate = delegate;
+    }
+
+    @Override
+    public void put(SchedulerQueryContext query)
+        throws OutOfCapacityException {
+      _delegate.put(query);
+    }
+
+    @Nullable
+    @Override
+    public SchedulerQueryContext take() {
+      while (true) {
+        SchedulerQueryContext query = _delegate.take();
+        if (query == null || _scheduler.startOrShed((DeadlineQueryContext) query)) {
+          return query;
+        }
+      }
+    }
+
+    @Override
+    public List<SchedulerQueryContext> drain() {
+      return _delegate.drain();
+    }
+  }
+}
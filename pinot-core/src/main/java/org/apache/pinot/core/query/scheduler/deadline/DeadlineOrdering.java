@@ -0,0 +1,66 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.query.scheduler.deadline;
+
+/**
+ * Order in which the {@link DeadlineAwareQueryScheduler} runs the pending queries. Each ordering maps a query to a
+ * priority key, and the query with the lowest key runs first.
+ */
+public enum DeadlineOrdering {
+  /**
+   * First come first served, only for comparison purpose.
+   */
+  FCFS {
+    @Override
+    public long getPriorityKey(long arrivalTimeMs, long deadlineMs, long expectedCostMs) {
+      return arrivalTimeMs;
+    }
+  },
+  /**
+   * Earliest deadline first.
+   */
+  EDF {
+    @Override
+    public long getPriorityKey(long arrivalTimeMs, long deadlineMs, long expectedCostMs) {
+      return deadlineMs;
+    }
+  },
+  /**
+   * Least slack first, where the slack is the time left before the query must start to meet its deadline. This is
+   * EDF where the expensive queries start earlier.
+   */
+  LEAST_SLACK {
+    @Override
+    public long getPriorityKey(long arrivalTimeMs, long deadlineMs, long expectedCostMs) {
+      return deadlineMs - expectedCostMs;
+    }
+  },
+  /**
+   * Shortest expected job first, which minimizes the average latency but can delay the expensive queries until they
+   * are shed.
+   */
+  SJF {
+    @Override
+    public long getPriorityKey(long arrivalTimeMs, long deadlineMs, long expectedCostMs) {
+      return expectedCostMs;
+    }
+  };
+
+  public abstract long getPriorityKey(long arrivalTimeMs, long deadlineMs, long expectedCostMs);
+}
@@ -0,0 +1,79 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.query.scheduler.deadline;
+
+import org.apache.pinot.core.query.request.ServerQueryRequest;
+import org.apache.pinot.core.query.scheduler.SchedulerQueryContext;
+
+
+/**
+ * {@link SchedulerQueryContext} carrying the deadline and the expected cost of the query, which are computed once when
+ * the query is submitted.
+ */
+public class DeadlineQueryContext extends SchedulerQueryContext {
+  private final double _numCostUnits;
+  private final long _deadlineMs;
+  private final long _expectedCostMs;
+  private final long _priorityKey;
+  private long _startTimeMs;
+
+  public DeadlineQueryContext(ServerQueryRequest queryRequest, double numCostUnits, long deadlineMs,
+      long expectedCostMs, DeadlineOrdering ordering) {
+    super(queryRequest);
+    _numCostUnits = numCostUnits;
+    _deadlineMs = deadlineMs;
+    _expectedCostMs = expectedCostMs;
+    _priorityKey = ordering.getPriorityKey(getArrivalTimeMs(), deadlineMs, expectedCostMs);
+  }
+
+  public double getNumCostUnits() {
+    return _numCostUnits;
+  }
+
+  public long getDeadlineMs() {
+    return _deadlineMs;
+  }
+
+  public long getExpectedCostMs() {
+    return _expectedCostMs;
+  }
+
+  /**
+   * Lower key runs first, see {@link DeadlineOrdering}.
+   */
+  public long getPriorityKey() {
+    return _priorityKey;
+  }
+
+  public long getStartTimeMs() {
+    return _startTimeMs;
+  }
+
+  public void setStartTimeMs(long startTimeMs) {
+    _startTimeMs = startTimeMs;
+  }
+
+  /**
+   * Returns whether the query can still complete before its deadline if it starts at the given time, where only the
+   * given fraction of the expected cost is accounted to tolerate estimation errors.
+   */
+  public boolean canMeetDeadline(long currentTimeMs, double costFraction) {
+    return currentTimeMs + (long) (_expectedCostMs * costFraction) < _deadlineMs;
+  }
+}
@@ -0,0 +1,112 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.query.scheduler.deadline;
+
+import java.util.Comparator;
+import java.util.concurrent.PriorityBlockingQueue;
+import org.apache.pinot.core.query.scheduler.AbstractSchedulerGroup;
+import org.apache.pinot.core.query.scheduler.SchedulerGroup;
+import org.apache.pinot.core.query.scheduler.SchedulerGroupAccountant;
+import org.apache.pinot.core.query.scheduler.SchedulerQueryContext;
+
+
+/**
+ * Scheduler group that keeps its pending queries ordered by {@link DeadlineQueryContext#getPriorityKey()} instead of
+ * arrival time. Groups are compared on the priority key of their first pending query, so that the most urgent query
+ * across all the groups is scheduled first, within the resource limits of the groups.
+ */
+public class DeadlineSchedulerGroup extends AbstractSchedulerGroup {
+  private static final Comparator<SchedulerQueryContext> COMPARATOR =
+      Comparator.comparingLong((SchedulerQueryContext query) -> ((DeadlineQueryContext) query).getPriorityKey())
+          .thenComparingLong(SchedulerQueryContext::getArrivalTimeMs);
+
+  private final PriorityBlockingQueue<SchedulerQueryContext> _orderedPendingQueries =
+      new PriorityBlockingQueue<>(11, COMPARATOR);
+
+  public DeadlineSchedulerGroup(String name) {
+    super(name);
+  }
+
+  @Override
+  public void addLast(SchedulerQueryContext query) {
+    _orderedPendingQueries.add(query);
+  }
+
+  @Override
+  public SchedulerQueryContext peekFirst() {
+    return _orderedPendingQueries.peek();
+  }
+
+  @Override
+  public SchedulerQueryContext removeFirst() {
+    return _orderedPendingQueries.poll();
+  }
+
+  /**
+   * Queries are never dropped silently here. The queries that cannot meet their deadline anymore are shed by the
+   * {@link DeadlineAwareQueryScheduler} with an error response.
+   */
+  @Override
+  public void trimExpired(long deadlineMillis) {
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return _orderedPendingQueries.isEmpty();
+  }
+
+  @Override
+  public int numPending() {
+    return _orderedPendingQueries.size();
+  }
+
+  /**
+   * Group with the lower priority key for its first pending query has higher priority. Falls back to FCFS when the
+   * keys are equal.
+   * @return > 0 if this group has higher priority than rhs
+   *         < 0 if this group has lower priority than rhs
+   *         = 0 if both groups have the same priority
+   */
+  @Override
+  public int compareTo(SchedulerGroupAccountant rhs) {
+    if (this == rhs) {
+      return 0;
+    }
+    if (rhs == null) {
+      return 1;
+    }
+    SchedulerQueryContext lhsFirst = peekFirst();
+    SchedulerQueryContext rhsFirst = ((SchedulerGroup) rhs).peekFirst();
+    if (lhsFirst != null && rhsFirst != null) {
+      return COMPARATOR.compare(rhsFirst, lhsFirst);
+    } else if (lhsFirst != null) {
+      return 1;
+    } else if (rhsFirst != null) {
+      return -1;
+    } else {
+      return 0;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return String.format(" {%s:[%d,%d,%d,%d]},", name(), numPending(), numRunning(), getThreadsInUse(),
+        totalReservedThreads());
+  }
+}
@@ -0,0 +1,159 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.query.scheduler.deadline;
+
+import com.google.common.base.Preconditions;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nullable;
+import org.apache.pinot.common.request.context.FilterContext;
+import org.apache.pinot.common.request.context.predicate.Predicate;
+import org.apache.pinot.core.query.request.ServerQueryRequest;
+import org.apache.pinot.core.query.request.context.TableSegmentsContext;
+
+
+/**
+ * Estimates the execution time of the queries before they are scheduled.
+ *
+ * The cost of a query is modeled in cost units, where a cost unit is a full scan of one segment. The number of cost
+ * units of a query is the number of segments to query scaled down by the expected selectivity of its filter, e.g. a
+ * point lookup is expected to only read a small part of each segment. The execution time of a cost unit is learned
+ * per table, as an exponential moving average of the execution time of the completed queries, so that tables with
+ * larger segments or more expensive aggregations are estimated accordingly.
+ */
+public class QueryCostEstimator {
+  // Weight of the latest sample in the moving average of the execution time per cost unit
+  private static final double ALPHA = 0.2;
+
+  // Expected fraction of the segment read for the different filter shapes
+  static final double FULL_SCAN_FACTOR = 1.0;
+  static final double RANGE_FACTOR = 0.5;
+  static final double POINT_LOOKUP_FACTOR = 0.1;
+  static final double MIN_FACTOR = 0.01;
+
+  private final double _defaultMsPerSegment;
+  private final Map<String, Double> _msPerCostUnitByTable = new ConcurrentHashMap<>();
+
+  /**
+   * @param defaultMsPerSegment execution time of a full segment scan, used for the tables without history
+   */
+  public QueryCostEstimator(double defaultMsPerSegment) {
+    Preconditions.checkArgument(defaultMsPerSegment > 0, "Invalid default ms per segment: %s", defaultMsPerSegment);
+    _defaultMsPerSegment = defaultMsPerSegment;
+  }
+
+  /**
+   * Returns the number of cost units of the given query.
+   */
+  public static double getNumCostUnits(ServerQueryRequest queryRequest) {
+    int numSegments = 0;
+    List<String> segmentsToQuery = queryRequest.getSegmentsToQuery();
+    if (segmentsToQuery != null) {
+      numSegments += segmentsToQuery.size();
+    }
+    List<TableSegmentsContext> tableSegmentsContexts = queryRequest.getTableSegmentsContexts();
+    if (tableSegmentsContexts != null) {
+      for (TableSegmentsContext tableSegmentsContext : tableSegmentsContexts) {
+        numSegments += tableSegmentsContext.getSegments().size();
+      }
+    }
+    return getNumCostUnits(numSegments, queryRequest.getQueryContext().getFilter());
+  }
+
+  public static double getNumCostUnits(int numSegments, @Nullable FilterContext filter) {
+    // A query without segment still has a fixed overhead
+    return Math.max(numSegments, 1) * getFilterFactor(filter);
+  }
+
+  /**
+   * Returns the expected fraction of the segment read by the given filter. AND filters read as much as their most
+   * selective child (the other children are evaluated on the matching documents only), OR filters read the sum of
+   * their children.
+   */
+  public static double getFilterFactor(@Nullable FilterContext filter) {
+    if (filter == null) {
+      return FULL_SCAN_FACTOR;
+    }
+    switch (filter.getType()) {
+      case AND: {
+        double factor = FULL_SCAN_FACTOR;
+        for (FilterContext child : filter.getChildren()) {
+          factor = Math.min(factor, getFilterFactor(child));
+        }
+        return factor;
+      }
+      case OR: {
+        double factor = 0;
+        for (FilterContext child : filter.getChildren()) {
+          factor += getFilterFactor(child);
+        }
+        return Math.min(factor, FULL_SCAN_FACTOR);
+      }
+      case NOT:
+        return FULL_SCAN_FACTOR;
+      case PREDICATE:
+        return getPredicateFactor(filter.getPredicate().getType());
+      case CONSTANT:
+        return filter.isConstantTrue() ? FULL_SCAN_FACTOR : MIN_FACTOR;
+      default:
+        throw new IllegalStateException("Unsupported filter type: " + filter.getType());
+    }
+  }
+
+  private static double getPredicateFactor(Predicate.Type predicateType) {
+    if (predicateType.isExclusive()) {
+      return FULL_SCAN_FACTOR;
+    }
+    switch (predicateType) {
+      case EQ:
+      case IN:
+        return POINT_LOOKUP_FACTOR;
+      case RANGE:
+      case IS_NULL:
+      case TEXT_CONTAINS:
+      case TEXT_MATCH:
+      case JSON_MATCH:
+      case VECTOR_SIMILARITY:
+        return RANGE_FACTOR;
+      default:
+        return FULL_SCAN_FACTOR;
+    }
+  }
+
+  /**
+   * Returns the expected execution time in milliseconds of a query with the given number of cost units.
+   */
+  public long estimateCostMs(String tableNameWithType, double numCostUnits) {
+    Double msPerCostUnit = _msPerCostUnitByTable.get(tableNameWithType);
+    if (msPerCostUnit == null) {
+      msPerCostUnit = _defaultMsPerSegment;
+    }
+    return (long) Math.ceil(numCostUnits * msPerCostUnit);
+  }
+
+  /**
+   * Records the execution time of a completed query to refine the estimations of the table.
+   */
+  public void recordExecution(String tableNameWithType, double numCostUnits, long executionTimeMs) {
+    double msPerCostUnit = Math.max(executionTimeMs, 0) / numCostUnits;
+    _msPerCostUnitByTable.merge(tableNameWithType, msPerCostUnit,
+        (average, sample) -> average + ALPHA * (sample - average));
+  }
+}
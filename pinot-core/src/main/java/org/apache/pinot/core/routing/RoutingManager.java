@@ -117,4 +117,13 @@ public interface RoutingManager {
    */
   @Nullable
   Set<String> getServingInstances(String tableNameWithType);
+
+  /**
+   * Returns the {@link TableStatistics} derived from the segment ZK metadata for a given table, or {@code null} if the
+   * statistics are not available.
+   */
+  @Nullable
+  default TableStatistics getTableStatistics(String tableNameWithType) {
+    return null;
+  }
 }
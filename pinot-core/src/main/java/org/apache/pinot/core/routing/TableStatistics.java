@@ -0,0 +1,142 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.routing;
+
+import java.util.HashMap;
+import java.util.Map;
+import javax.annotation.Nullable;
+
+
+/**
+ * Approximate statistics of a table derived from the segment ZK metadata, used by the multi-stage query planner to
+ * estimate the cost of the query plan (e.g. to pick the join order and the join build side).
+ * <ul>
+ *   <li>The number of documents only counts the segments with total docs in the ZK metadata (e.g. the consuming
+ *   segments are not counted)</li>
+ *   <li>The cardinality of a column is the max cardinality among the segments, which is a lower bound of the actual
+ *   cardinality of the table</li>
+ *   <li>The min/max value of a column is only available when all the segments have a numeric value range for the
+ *   column</li>
+ * </ul>
+ */
+public class TableStatistics {
+  private final String _tableNameWithType;
+  private final long _numDocs;
+  private final Map<String, ColumnStatistics> _columnStatisticsMap;
+
+  public TableStatistics(String tableNameWithType, long numDocs, Map<String, ColumnStatistics> columnStatisticsMap) {
+    _tableNameWithType = tableNameWithType;
+    _numDocs = numDocs;
+    _columnStatisticsMap = columnStatisticsMap;
+  }
+
+  public String getTableNameWithType() {
+    return _tableNameWithType;
+  }
+
+  public long getNumDocs() {
+    return _numDocs;
+  }
+
+  public Map<String, ColumnStatistics> getColumnStatisticsMap() {
+    return _columnStatisticsMap;
+  }
+
+  @Nullable
+  public ColumnStatistics getColumnStatistics(String column) {
+    return _columnStatisticsMap.get(column);
+  }
+
+  /**
+   * Merges the statistics of the OFFLINE and REALTIME table of a hybrid table. The overlap of the 2 tables (based on
+   * the time boundary) is ignored.
+   */
+  public static TableStatistics merge(TableStatistics offlineTableStatistics,
+      TableStatistics realtimeTableStatistics) {
+    Map<String, ColumnStatistics> columnStatisticsMap = new HashMap<>();
+    for (Map.Entry<String, ColumnStatistics> entry : offlineTableStatistics._columnStatisticsMap.entrySet()) {
+      ColumnStatistics realtimeColumnStatistics = realtimeTableStatistics.getColumnStatistics(entry.getKey());
+      if (realtimeColumnStatistics != null) {
+        columnStatisticsMap.put(entry.getKey(), entry.getValue().merge(realtimeColumnStatistics));
+      }
+    }
+    return new TableStatistics(offlineTableStatistics._tableNameWithType,
+        offlineTableStatistics._numDocs + realtimeTableStatistics._numDocs, columnStatisticsMap);
+  }
+
+  @Override
+  public String toString() {
+    return "{tableNameWithType=" + _tableNameWithType + ", numDocs=" + _numDocs + ", columnStatistics="
+        + _columnStatisticsMap + "}";
+  }
+
+  public static class ColumnStatistics {
+    public static final int UNKNOWN_CARDINALITY = -1;
+
+    private final int _cardinality;
+    private final double _minValue;
+    private final double _maxValue;
+
+    /**
+     * @param cardinality Cardinality of the column, or {@link #UNKNOWN_CARDINALITY} if unknown
+     * @param minValue Min value of the column, or {@link Double#NaN} if unknown or the column is not numeric
+     * @param maxValue Max value of the column, or {@link Double#NaN} if unknown or the column is not numeric
+     */
+    public ColumnStatistics(int cardinality, double minValue, double maxValue) {
+      _cardinality = cardinality;
+      _minValue = minValue;
+      _maxValue = maxValue;
+    }
+
+    public int getCardinality() {
+      return _cardinality;
+    }
+
+    public double getMinValue() {
+      return _minValue;
+    }
+
+    public double getMaxValue() {
+      return _maxValue;
+    }
+
+    public boolean hasCardinality() {
+      return _cardinality > 0;
+    }
+
+    public boolean hasValueRange() {
+      return !Double.isNaN(_minValue) && !Double.isNaN(_maxValue);
+    }
+
+    /**
+     * Merges the statistics of the same column from 2 disjoint sets of segments. The min/max value is unknown when it
+     * is unknown in either of the sets.
+     */
+    public ColumnStatistics merge(ColumnStatistics other) {
+      // NOTE: Math.min() and Math.max() return NaN when either value is NaN
+      return new ColumnStatistics(Math.max(_cardinality, other._cardinality), Math.min(_minValue, other._minValue),
+          Math.max(_maxValue, other._maxValue));
+    }
+
+    @Override
+    public String toString() {
+      return "{cardinality=" + _cardinality + ", minValue=" + _minValue + ", maxValue=" + _maxValue + "}";
+    }
+  }
+}
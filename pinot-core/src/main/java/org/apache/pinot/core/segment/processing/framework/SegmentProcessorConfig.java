@@ -39,6 +39,8 @@ import org.apache.pinot.spi.utils.TimestampIndexUtils;
  */
 public class SegmentProcessorConfig {
   private static final MergeType DEFAULT_MERGE_TYPE = MergeType.CONCAT;
+  public static final int DEFAULT_NUM_THREADS = 1;
+  public static final long DEFAULT_MEMORY_BUDGET_IN_BYTES = Long.MAX_VALUE;
 
   private final TableConfig _tableConfig;
   private final Schema _schema;
@@ -51,13 +53,15 @@ public class SegmentProcessorConfig {
   private final Consumer<Object> _progressObserver;
   private final SegmentNameGenerator _segmentNameGenerator;
   private final Long _customCreationTime;
+  private final int _numThreads;
+  private final long _memoryBudgetInBytes;
 
   private SegmentProcessorConfig(TableConfig tableConfig, Schema schema, TimeHandlerConfig timeHandlerConfig,
       List<PartitionerConfig> partitionerConfigs, MergeType mergeType,
       Map<String, AggregationFunctionType> aggregationTypes,
       Map<String, Map<String, String>> aggregationFunctionParameters, SegmentConfig segmentConfig,
       Consumer<Object> progressObserver, @Nullable SegmentNameGenerator segmentNameGenerator,
-      @Nullable Long customCreationTime) {
+      @Nullable Long customCreationTime, int numThreads, long memoryBudgetInBytes) {
     TimestampIndexUtils.applyTimestampIndex(tableConfig, schema);
     _tableConfig = tableConfig;
     _schema = schema;
@@ -72,6 +76,8 @@ public class SegmentProcessorConfig {
     };
     _segmentNameGenerator = segmentNameGenerator;
     _customCreationTime = customCreationTime;
+    _numThreads = numThreads;
+    _memoryBudgetInBytes = memoryBudgetInBytes;
   }
 
   /**
@@ -142,12 +148,30 @@ public class SegmentProcessorConfig {
     return _customCreationTime != null ? _customCreationTime : System.currentTimeMillis();
   }
 
+  /**
+   * The number of threads used to map the record readers, sort and reduce the partitions, and generate the segments.
+   * With a single thread, all the phases are processed sequentially on the caller thread.
+   */
+  public int getNumThreads() {
+    return _numThreads;
+  }
+
+  /**
+   * The memory budget for the partitions processed concurrently in the reduce and segment generation phases. The memory
+   * required by a partition is estimated with the size of its intermediate files, which are memory mapped while being
+   * sorted and converted into segments. A partition exceeding the budget is processed alone.
+   */
+  public long getMemoryBudgetInBytes() {
+    return _memoryBudgetInBytes;
+  }
+
   @Override
   public String toString() {
     return "SegmentProcessorConfig{" + "_tableConfig=" + _tableConfig + ", _schema=" + _schema + ", _timeHandlerConfig="
         + _timeHandlerConfig + ", _partitionerConfigs=" + _partitionerConfigs + ", _mergeType=" + _mergeType
         + ", _aggregationTypes=" + _aggregationTypes + ", _segmentConfig=" + _segmentConfig
-        + ", _segmentNameGenerator=" + _segmentNameGenerator + ", _customCreationTime=" + _customCreationTime + '}';
+        + ", _segmentNameGenerator=" + _segmentNameGenerator + ", _customCreationTime=" + _customCreationTime
+        + ", _numThreads=" + _numThreads + ", _memoryBudgetInBytes=" + _memoryBudgetInBytes + '}';
   }
 
   /**
@@ -165,6 +189,8 @@ public class SegmentProcessorConfig {
     private Consumer<Object> _progressObserver;
     private SegmentNameGenerator _segmentNameGenerator;
     private Long _customCreationTime;
+    private int _numThreads = DEFAULT_NUM_THREADS;
+    private long _memoryBudgetInBytes = DEFAULT_MEMORY_BUDGET_IN_BYTES;
 
     public Builder setTableConfig(TableConfig tableConfig) {
       _tableConfig = tableConfig;
@@ -221,9 +247,21 @@ public class SegmentProcessorConfig {
       return this;
     }
 
+    public Builder setNumThreads(int numThreads) {
+      _numThreads = numThreads;
+      return this;
+    }
+
+    public Builder setMemoryBudgetInBytes(long memoryBudgetInBytes) {
+      _memoryBudgetInBytes = memoryBudgetInBytes;
+      return this;
+    }
+
     public SegmentProcessorConfig build() {
       Preconditions.checkState(_tableConfig != null, "Must provide table config in SegmentProcessorConfig");
       Preconditions.checkState(_schema != null, "Must provide schema in SegmentProcessorConfig");
+      Preconditions.checkState(_numThreads > 0, "Number of threads must be > 0");
+      Preconditions.checkState(_memoryBudgetInBytes > 0, "Memory budget must be > 0");
 
       if (_timeHandlerConfig == null) {
         _timeHandlerConfig = new TimeHandlerConfig.Builder(TimeHandler.Type.NO_OP).build();
@@ -245,7 +283,7 @@ public class SegmentProcessorConfig {
       }
       return new SegmentProcessorConfig(_tableConfig, _schema, _timeHandlerConfig, _partitionerConfigs, _mergeType,
           _aggregationTypes, _aggregationFunctionParameters, _segmentConfig, _progressObserver,
-              _segmentNameGenerator, _customCreationTime);
+              _segmentNameGenerator, _customCreationTime, _numThreads, _memoryBudgetInBytes);
     }
   }
 }
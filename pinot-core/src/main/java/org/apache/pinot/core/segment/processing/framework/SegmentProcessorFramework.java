@@ -25,6 +25,9 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.function.Consumer;
 import org.apache.commons.io.FileUtils;
 import org.apache.pinot.core.segment.processing.genericrow.GenericRowFileManager;
@@ -33,6 +36,7 @@ import org.apache.pinot.core.segment.processing.genericrow.GenericRowFileRecordR
 import org.apache.pinot.core.segment.processing.mapper.SegmentMapper;
 import org.apache.pinot.core.segment.processing.reducer.Reducer;
 import org.apache.pinot.core.segment.processing.reducer.ReducerFactory;
+import org.apache.pinot.core.segment.processing.utils.SegmentProcessorUtils;
 import org.apache.pinot.segment.local.segment.creator.RecordReaderSegmentCreationDataSource;
 import org.apache.pinot.segment.local.segment.creator.TransformPipeline;
 import org.apache.pinot.segment.local.segment.creator.impl.SegmentIndexCreationDriverImpl;
@@ -57,6 +61,11 @@ import org.slf4j.LoggerFactory;
  *
  * This will typically be used by minion tasks, which want to perform some processing on segments
  * (eg task which merges segments, tasks which aligns segments per time boundaries etc)
+ *
+ * When multiple threads are configured (see {@link SegmentProcessorConfig#getNumThreads()}), the record readers are
+ * mapped in parallel, and the partitions are sorted, reduced and converted into segments in parallel within the memory
+ * budget (see {@link SegmentProcessorConfig#getMemoryBudgetInBytes()}). Segments are generated in parallel only with
+ * the {@link DefaultSegmentNumRowProvider}, where the sequence ids of the segments can be assigned upfront.
  */
 public class SegmentProcessorFramework {
   private static final Logger LOGGER = LoggerFactory.getLogger(SegmentProcessorFramework.class);
@@ -72,6 +81,8 @@ public class SegmentProcessorFramework {
   private final File _reducerOutputDir;
   private final File _segmentsOutputDir;
   private final SegmentNumRowProvider _segmentNumRowProvider;
+  // Executor to process the phases with multiple threads, null if processed with a single thread
+  private ForkJoinPool _executorService;
   private int _segmentSequenceId = 0;
   private int _incompleteRowsFound = 0;
   private int _skippedRowsFound = 0;
@@ -145,6 +156,11 @@ public class SegmentProcessorFramework {
    */
   public List<File> process()
       throws Exception {
+    int numThreads = _segmentProcessorConfig.getNumThreads();
+    if (numThreads > 1) {
+      // NOTE: Use ForkJoinPool so that the partitions can be sorted in parallel within the same pool
+      _executorService = new ForkJoinPool(numThreads);
+    }
     try {
       return doProcess();
     } catch (Exception e) {
@@ -153,6 +169,10 @@ public class SegmentProcessorFramework {
       FileUtils.deleteQuietly(_segmentsOutputDir);
       throw e;
     } finally {
+      if (_executorService != null) {
+        _executorService.shutdownNow();
+        _executorService = null;
+      }
       FileUtils.deleteDirectory(_mapperOutputDir);
       FileUtils.deleteDirectory(_reducerOutputDir);
     }
@@ -189,9 +209,7 @@ public class SegmentProcessorFramework {
       long mapStartTimeInMs = System.currentTimeMillis();
       logToObserver(MAP_STAGE, "Starting Map phase for iteration " + iterationCount);
       Map<String, GenericRowFileManager> partitionToFileManagerMap = mapper.map();
-      _incompleteRowsFound += mapper.getIncompleteRowsFound();
-      _skippedRowsFound += mapper.getSkippedRowsFound();
-      _sanitizedRowsFound += mapper.getSanitizedRowsFound();
+      updateRowCounts(mapper.getIncompleteRowsFound(), mapper.getSkippedRowsFound(), mapper.getSanitizedRowsFound());
 
       // Log the time taken to map.
       logMessage = "Finished Map phase for iteration " + iterationCount + " in "
@@ -261,7 +279,7 @@ public class SegmentProcessorFramework {
       return new SegmentMapper(recordReaderFileConfigs, _transformPipeline, _segmentProcessorConfig, _mapperOutputDir);
     } else {
       return new SegmentMapper(recordReaderFileConfigs, _customRecordTransformers, _segmentProcessorConfig,
-          _mapperOutputDir);
+          _mapperOutputDir, _executorService);
     }
   }
 
@@ -281,6 +299,30 @@ public class SegmentProcessorFramework {
     Consumer<Object> observer = _segmentProcessorConfig.getProgressObserver();
     int totalCount = partitionToFileManagerMap.size();
     int count = 1;
+    if (_executorService != null) {
+      List<Callable<GenericRowFileManager>> tasks = new ArrayList<>(totalCount);
+      List<Long> memoryEstimates = new ArrayList<>(totalCount);
+      for (Map.Entry<String, GenericRowFileManager> entry : partitionToFileManagerMap.entrySet()) {
+        String partitionId = entry.getKey();
+        GenericRowFileManager fileManager = entry.getValue();
+        String logMessage =
+            String.format("Doing reduce phase on data from partition: %s (%d out of %d)", partitionId, count++,
+                totalCount);
+        Reducer reducer =
+            ReducerFactory.getReducer(partitionId, fileManager, _segmentProcessorConfig, _reducerOutputDir);
+        tasks.add(() -> {
+          observer.accept(logMessage);
+          return reducer.reduce();
+        });
+        memoryEstimates.add(fileManager.getFileSizeInBytes());
+      }
+      List<GenericRowFileManager> reducedFileManagers = runTasks(tasks, memoryEstimates);
+      int index = 0;
+      for (Map.Entry<String, GenericRowFileManager> entry : partitionToFileManagerMap.entrySet()) {
+        entry.setValue(reducedFileManagers.get(index++));
+      }
+      return;
+    }
     for (Map.Entry<String, GenericRowFileManager> entry : partitionToFileManagerMap.entrySet()) {
       String partitionId = entry.getKey();
       observer.accept(
@@ -296,6 +338,39 @@ public class SegmentProcessorFramework {
       throws Exception {
     LOGGER.info("Beginning segment creation phase on partitions: {}", partitionToFileManagerMap.keySet());
     List<File> outputSegmentDirs = new ArrayList<>();
+    if (_executorService != null && _segmentNumRowProvider.getClass() == DefaultSegmentNumRowProvider.class) {
+      // Assign the sequence ids of the segments upfront so that the segments can be generated in parallel
+      int maxNumRecordsPerSegment = _segmentNumRowProvider.getNumRows();
+      int numPartitions = partitionToFileManagerMap.size();
+      List<Callable<List<File>>> tasks = new ArrayList<>(numPartitions);
+      List<Long> memoryEstimates = new ArrayList<>(numPartitions);
+      for (Map.Entry<String, GenericRowFileManager> entry : partitionToFileManagerMap.entrySet()) {
+        String partitionId = entry.getKey();
+        GenericRowFileManager fileManager = entry.getValue();
+        SegmentGeneratorConfig generatorConfig = getSegmentGeneratorConfig();
+        int startSequenceId = _segmentSequenceId;
+        tasks.add(() -> generateSegments(partitionId, fileManager, generatorConfig, startSequenceId));
+        memoryEstimates.add(fileManager.getFileSizeInBytes());
+        int numRows = fileManager.getFileReader().getNumRows();
+        _segmentSequenceId += (numRows + maxNumRecordsPerSegment - 1) / maxNumRecordsPerSegment;
+      }
+      for (List<File> segmentDirs : runTasks(tasks, memoryEstimates)) {
+        outputSegmentDirs.addAll(segmentDirs);
+      }
+    } else {
+      SegmentGeneratorConfig generatorConfig = getSegmentGeneratorConfig();
+      for (Map.Entry<String, GenericRowFileManager> entry : partitionToFileManagerMap.entrySet()) {
+        List<File> segmentDirs =
+            generateSegments(entry.getKey(), entry.getValue(), generatorConfig, _segmentSequenceId);
+        _segmentSequenceId += segmentDirs.size();
+        outputSegmentDirs.addAll(segmentDirs);
+      }
+    }
+    LOGGER.info("Successfully created segments: {}", outputSegmentDirs);
+    return outputSegmentDirs;
+  }
+
+  private SegmentGeneratorConfig getSegmentGeneratorConfig() {
     TableConfig tableConfig = _segmentProcessorConfig.getTableConfig();
     Schema schema = _segmentProcessorConfig.getSchema();
     String segmentNamePrefix = _segmentProcessorConfig.getSegmentConfig().getSegmentNamePrefix();
@@ -303,7 +378,6 @@ public class SegmentProcessorFramework {
     String fixedSegmentName = _segmentProcessorConfig.getSegmentConfig().getFixedSegmentName();
     SegmentGeneratorConfig generatorConfig = new SegmentGeneratorConfig(tableConfig, schema);
     generatorConfig.setOutDir(_segmentsOutputDir.getPath());
-    Consumer<Object> observer = _segmentProcessorConfig.getProgressObserver();
     generatorConfig.setCreationTime(String.valueOf(_segmentProcessorConfig.getCustomCreationTime()));
 
     if (_segmentProcessorConfig.getSegmentNameGenerator() != null) {
@@ -318,47 +392,93 @@ public class SegmentProcessorFramework {
       generatorConfig.setSegmentNamePostfix(segmentNamePostfix);
       generatorConfig.setSegmentName(fixedSegmentName);
     }
+    return generatorConfig;
+  }
 
-    for (Map.Entry<String, GenericRowFileManager> entry : partitionToFileManagerMap.entrySet()) {
-      String partitionId = entry.getKey();
-      GenericRowFileManager fileManager = entry.getValue();
-      try {
-        GenericRowFileReader fileReader = fileManager.getFileReader();
-        int numRows = fileReader.getNumRows();
-        int numSortFields = fileReader.getNumSortFields();
-        LOGGER.info("Start creating segments on partition: {}, numRows: {}, numSortFields: {}", partitionId, numRows,
-            numSortFields);
-        GenericRowFileRecordReader recordReader = fileReader.getRecordReader();
-        int maxNumRecordsPerSegment;
-        for (int startRowId = 0; startRowId < numRows; startRowId += maxNumRecordsPerSegment, _segmentSequenceId++) {
-          maxNumRecordsPerSegment = _segmentNumRowProvider.getNumRows();
-          int endRowId = Math.min(startRowId + maxNumRecordsPerSegment, numRows);
-          LOGGER.info("Start creating segment of sequenceId: {} with row range: {} to {}", _segmentSequenceId,
-              startRowId, endRowId);
-          observer.accept(String.format(
-              "Creating segment of sequentId: %d with data from partition: %s and row range: [%d, %d) out of [0, %d)",
-              _segmentSequenceId, partitionId, startRowId, endRowId, numRows));
-          generatorConfig.setSequenceId(_segmentSequenceId);
-          GenericRowFileRecordReader recordReaderForRange = recordReader.getRecordReaderForRange(startRowId, endRowId);
-          SegmentIndexCreationDriverImpl driver = new SegmentIndexCreationDriverImpl();
-          driver.init(generatorConfig, new RecordReaderSegmentCreationDataSource(recordReaderForRange),
-              TransformPipeline.getPassThroughPipeline(tableConfig.getTableName()));
-          driver.build();
-          _incompleteRowsFound += driver.getIncompleteRowsFound();
-          _skippedRowsFound += driver.getSkippedRowsFound();
-          _sanitizedRowsFound += driver.getSanitizedRowsFound();
-          outputSegmentDirs.add(driver.getOutputDirectory());
-          _segmentNumRowProvider.updateSegmentInfo(driver.getSegmentStats().getTotalDocCount(),
-              FileUtils.sizeOfDirectory(driver.getOutputDirectory()));
-        }
-      } finally {
-        fileManager.cleanUp();
+  /**
+   * Generates the segments for the rows of the partition with sequence ids starting from the given one, returns the
+   * directories of the generated segments.
+   */
+  private List<File> generateSegments(String partitionId, GenericRowFileManager fileManager,
+      SegmentGeneratorConfig generatorConfig, int startSequenceId)
+      throws Exception {
+    List<File> outputSegmentDirs = new ArrayList<>();
+    String tableName = _segmentProcessorConfig.getTableConfig().getTableName();
+    Consumer<Object> observer = _segmentProcessorConfig.getProgressObserver();
+    int segmentSequenceId = startSequenceId;
+    try {
+      GenericRowFileReader fileReader = fileManager.getFileReader();
+      int numRows = fileReader.getNumRows();
+      int numSortFields = fileReader.getNumSortFields();
+      LOGGER.info("Start creating segments on partition: {}, numRows: {}, numSortFields: {}", partitionId, numRows,
+          numSortFields);
+      GenericRowFileRecordReader recordReader = fileReader.getRecordReader();
+      int maxNumRecordsPerSegment;
+      for (int startRowId = 0; startRowId < numRows; startRowId += maxNumRecordsPerSegment, segmentSequenceId++) {
+        maxNumRecordsPerSegment = _segmentNumRowProvider.getNumRows();
+        int endRowId = Math.min(startRowId + maxNumRecordsPerSegment, numRows);
+        LOGGER.info("Start creating segment of sequenceId: {} with row range: {} to {}", segmentSequenceId,
+            startRowId, endRowId);
+        observer.accept(String.format(
+            "Creating segment of sequentId: %d with data from partition: %s and row range: [%d, %d) out of [0, %d)",
+            segmentSequenceId, partitionId, startRowId, endRowId, numRows));
+        generatorConfig.setSequenceId(segmentSequenceId);
+        GenericRowFileRecordReader recordReaderForRange = recordReader.getRecordReaderForRange(startRowId, endRowId);
+        SegmentIndexCreationDriverImpl driver = new SegmentIndexCreationDriverImpl();
+        driver.init(generatorConfig, new RecordReaderSegmentCreationDataSource(recordReaderForRange),
+            TransformPipeline.getPassThroughPipeline(tableName));
+        driver.build();
+        updateRowCounts(driver.getIncompleteRowsFound(), driver.getSkippedRowsFound(),
+            driver.getSanitizedRowsFound());
+        outputSegmentDirs.add(driver.getOutputDirectory());
+        _segmentNumRowProvider.updateSegmentInfo(driver.getSegmentStats().getTotalDocCount(),
+            FileUtils.sizeOfDirectory(driver.getOutputDirectory()));
       }
+    } finally {
+      fileManager.cleanUp();
     }
-    LOGGER.info("Successfully created segments: {}", outputSegmentDirs);
     return outputSegmentDirs;
   }
 
+  /**
+   * Runs the tasks with the executor and returns their results in the same order. Each task is submitted only when its
+   * estimated memory fits in the memory budget, and the memory is released after the task is done.
+   */
+  private <T> List<T> runTasks(List<Callable<T>> tasks, List<Long> memoryEstimates)
+      throws Exception {
+    MemoryBudget memoryBudget = new MemoryBudget(_segmentProcessorConfig.getMemoryBudgetInBytes());
+    int numTasks = tasks.size();
+    List<Future<T>> futures = new ArrayList<>(numTasks);
+    try {
+      for (int i = 0; i < numTasks; i++) {
+        Callable<T> task = tasks.get(i);
+        long memory = memoryBudget.acquire(memoryEstimates.get(i));
+        futures.add(_executorService.submit(() -> {
+          try {
+            return task.call();
+          } finally {
+            memoryBudget.release(memory);
+          }
+        }));
+      }
+    } catch (InterruptedException e) {
+      // Wait for the submitted tasks to be done so that the caller can safely clean up the resources
+      try {
+        SegmentProcessorUtils.waitForAll(futures);
+      } catch (Exception suppressed) {
+        e.addSuppressed(suppressed);
+      }
+      throw e;
+    }
+    return SegmentProcessorUtils.waitForAll(futures);
+  }
+
+  private synchronized void updateRowCounts(int incompleteRowsFound, int skippedRowsFound, int sanitizedRowsFound) {
+    _incompleteRowsFound += incompleteRowsFound;
+    _skippedRowsFound += skippedRowsFound;
+    _sanitizedRowsFound += sanitizedRowsFound;
+  }
+
   public int getIncompleteRowsFound() {
     return _incompleteRowsFound;
   }
@@ -370,4 +490,34 @@ public class SegmentProcessorFramework {
   public int getSanitizedRowsFound() {
     return _sanitizedRowsFound;
   }
+
+  /**
+   * Memory budget for the tasks running concurrently. A task requiring more memory than the budget runs alone.
+   */
+  private static class MemoryBudget {
+    final long _budget;
+    long _used;
+
+    MemoryBudget(long budget) {
+      _budget = budget;
+    }
+
+    /**
+     * Blocks until the given memory fits in the budget, returns the acquired memory.
+     */
+    synchronized long acquire(long memory)
+        throws InterruptedException {
+      long memoryToAcquire = Math.min(memory, _budget);
+      while (memoryToAcquire > _budget - _used) {
+        wait();
+      }
+      _used += memoryToAcquire;
+      return memoryToAcquire;
+    }
+
+    synchronized void release(long memory) {
+      _used -= memory;
+      notifyAll();
+    }
+  }
 }
@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.nio.file.FileStore;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.annotation.Nullable;
 import org.apache.pinot.spi.data.readers.GenericRow;
 import org.slf4j.Logger;
@@ -44,6 +45,8 @@ import org.slf4j.LoggerFactory;
  *   </li>
  * </ul>
  * <p>
+ * The writer can be shared by multiple threads writing to different files, where the constraints apply to the total
+ * number of bytes written by all the threads.
  */
 public class AdaptiveSizeBasedWriter implements AdaptiveConstraintsWriter<FileWriter<GenericRow>, GenericRow> {
 
@@ -52,18 +55,18 @@ public class AdaptiveSizeBasedWriter implements AdaptiveConstraintsWriter<FileWr
   private final long _bytesLimit; // Max number of bytes that can be written for this instance of the writer
   private final int _maxDiskUsagePercentage; // Max disk usage percentage for the underlying file store
 
-  private long _numBytesWritten; // Number of bytes written so far by this instance of the writer
+  // Number of bytes written so far by this instance of the writer
+  private final AtomicLong _numBytesWritten = new AtomicLong();
   @Nullable
   private final FileStore _fileStore;
-  private long _lastDiskUsageCheckTime = 0L;
+  private volatile long _lastDiskUsageCheckTime = 0L;
 
-  private boolean _hasExceededSizeLimit = false;
+  private volatile boolean _hasExceededSizeLimit = false;
 
   private static final long DISK_USAGE_CHECK_INTERVAL_MS = 10 * 1000L; // 10 seconds
 
   public AdaptiveSizeBasedWriter(long bytesLimit, int maxDiskUsagePercentage, File outputDir) {
     _bytesLimit = bytesLimit;
-    _numBytesWritten = 0;
 
     FileStore fileStore;
     try {
@@ -81,18 +84,18 @@ public class AdaptiveSizeBasedWriter implements AdaptiveConstraintsWriter<FileWr
     return _bytesLimit;
   }
   public long getNumBytesWritten() {
-    return _numBytesWritten;
+    return _numBytesWritten.get();
   }
 
   // Ensure canWrite() doesn't return true after it has returned false once
   @Override
   public boolean canWrite() {
-    return _numBytesWritten < _bytesLimit && !isDiskUsageExceeded();
+    return _numBytesWritten.get() < _bytesLimit && !isDiskUsageExceeded();
   }
 
   @Override
   public void write(FileWriter<GenericRow> writer, GenericRow row) throws IOException {
-    _numBytesWritten += writer.writeData(row);
+    _numBytesWritten.addAndGet(writer.writeData(row));
   }
 
   private boolean isDiskUsageExceeded() {
@@ -19,8 +19,16 @@
 package org.apache.pinot.core.segment.processing.genericrow;
 
 import com.google.common.base.Preconditions;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
 import org.apache.commons.io.FileUtils;
 import org.apache.pinot.spi.data.FieldSpec;
@@ -120,6 +128,64 @@ public class GenericRowFileManager {
     }
   }
 
+  /**
+   * Returns the total size of the files in bytes.
+   */
+  public long getFileSizeInBytes() {
+    return _offsetFile.length() + _dataFile.length();
+  }
+
+  /**
+   * Concatenates the files of the given file managers into the files under the output directory, and cleans up the
+   * given file managers. The given file managers should have the same field specs and their file writers should have
+   * been closed.
+   */
+  public static GenericRowFileManager concat(File outputDir, List<GenericRowFileManager> fileManagers)
+      throws IOException {
+    Preconditions.checkArgument(!fileManagers.isEmpty(), "No file manager to concatenate");
+    GenericRowFileManager firstFileManager = fileManagers.get(0);
+    GenericRowFileManager concatFileManager =
+        new GenericRowFileManager(outputDir, firstFileManager._fieldSpecs, firstFileManager._includeNullFields,
+            firstFileManager._numSortFields);
+    Preconditions.checkState(!concatFileManager._offsetFile.exists(), "Record offset file: %s already exists",
+        concatFileManager._offsetFile);
+    Preconditions.checkState(!concatFileManager._dataFile.exists(), "Record data file: %s already exists",
+        concatFileManager._dataFile);
+    try (DataOutputStream offsetStream = new DataOutputStream(
+        new BufferedOutputStream(new FileOutputStream(concatFileManager._offsetFile)));
+        FileChannel dataChannel = FileChannel.open(concatFileManager._dataFile.toPath(), StandardOpenOption.CREATE_NEW,
+            StandardOpenOption.WRITE)) {
+      long baseOffset = 0;
+      for (GenericRowFileManager fileManager : fileManagers) {
+        Preconditions.checkState(fileManager._fileWriter == null, "File writer is not closed");
+        // Offsets are stored as BIG_ENDIAN longs, shift them by the size of the data concatenated so far
+        long numRows = fileManager._offsetFile.length() >>> 3; // offsetFileLength / Long.BYTES
+        try (DataInputStream inputOffsetStream = new DataInputStream(
+            new BufferedInputStream(new FileInputStream(fileManager._offsetFile)))) {
+          for (long i = 0; i < numRows; i++) {
+            offsetStream.writeLong(baseOffset + inputOffsetStream.readLong());
+          }
+        }
+        try (FileChannel inputDataChannel = FileChannel.open(fileManager._dataFile.toPath(),
+            StandardOpenOption.READ)) {
+          long dataSize = inputDataChannel.size();
+          long position = 0;
+          while (position < dataSize) {
+            position += inputDataChannel.transferTo(position, dataSize - position, dataChannel);
+          }
+          baseOffset += dataSize;
+        }
+      }
+    } catch (Exception e) {
+      concatFileManager.cleanUp();
+      throw e;
+    }
+    for (GenericRowFileManager fileManager : fileManagers) {
+      fileManager.cleanUp();
+    }
+    return concatFileManager;
+  }
+
   /**
    * Cleans up the files.
    */
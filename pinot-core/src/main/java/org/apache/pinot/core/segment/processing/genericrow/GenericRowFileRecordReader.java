@@ -19,8 +19,11 @@
 package org.apache.pinot.core.segment.processing.genericrow;
 
 import it.unimi.dsi.fastutil.Arrays;
+import it.unimi.dsi.fastutil.Swapper;
+import it.unimi.dsi.fastutil.ints.IntComparator;
 import java.io.File;
 import java.util.Set;
+import java.util.concurrent.ForkJoinTask;
 import javax.annotation.Nullable;
 import org.apache.pinot.spi.data.readers.GenericRow;
 import org.apache.pinot.spi.data.readers.RecordReader;
@@ -48,12 +51,19 @@ public class GenericRowFileRecordReader implements RecordReader {
       for (int i = 0; i < numRows; i++) {
         _sortedRowIds[i] = i;
       }
-      Arrays
-          .quickSort(0, _endRowId, (i1, i2) -> _fileReader.compare(_sortedRowIds[i1], _sortedRowIds[i2]), (i1, i2) -> {
-            int temp = _sortedRowIds[i1];
-            _sortedRowIds[i1] = _sortedRowIds[i2];
-            _sortedRowIds[i2] = temp;
-          });
+      IntComparator comparator = (i1, i2) -> _fileReader.compare(_sortedRowIds[i1], _sortedRowIds[i2]);
+      Swapper swapper = (i1, i2) -> {
+        int temp = _sortedRowIds[i1];
+        _sortedRowIds[i1] = _sortedRowIds[i2];
+        _sortedRowIds[i2] = temp;
+      };
+      // Sort in parallel with the ForkJoinPool (e.g. the one used by the multi-threaded SegmentProcessorFramework) when
+      // running within one
+      if (ForkJoinTask.inForkJoinPool()) {
+        Arrays.parallelQuickSort(0, _endRowId, comparator, swapper);
+      } else {
+        Arrays.quickSort(0, _endRowId, comparator, swapper);
+      }
     } else {
       _sortedRowIds = null;
     }
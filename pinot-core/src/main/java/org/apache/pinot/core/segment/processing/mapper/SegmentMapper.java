@@ -20,11 +20,16 @@ package org.apache.pinot.core.segment.processing.mapper;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import org.apache.commons.collections4.CollectionUtils;
@@ -62,6 +67,12 @@ import org.slf4j.LoggerFactory;
  * - record filtering
  * - column transformations
  * - partitioning
+ *
+ * When an executor is provided and multiple threads are configured (see
+ * {@link SegmentProcessorConfig#getNumThreads()}), the record readers are mapped in parallel by multiple mapper
+ * threads, each with its own transform pipeline and partition files. The partition files from the mapper threads are
+ * concatenated after all of them are done. Note that the custom record transformers are shared by the mapper threads,
+ * so they must be thread-safe in this case.
  */
 public class SegmentMapper {
   private static final Logger LOGGER = LoggerFactory.getLogger(SegmentMapper.class);
@@ -71,6 +82,14 @@ public class SegmentMapper {
   private final boolean _includeNullFields;
   private final int _numSortFields;
   private final TransformPipeline _transformPipeline;
+  // Creates the transform pipeline for each mapper thread, null if the mapper cannot be run with multiple threads
+  private final Supplier<TransformPipeline> _transformPipelineSupplier;
+  private final ExecutorService _executorService;
+  // Name of the sub-directory within the partition directory to put the partition files for a mapper thread, null for
+  // single-threaded mapper
+  private final String _threadDirName;
+  // Index of the next record reader to be processed, shared by all the mapper threads
+  private final AtomicInteger _nextRecordReaderIndex;
   private final TimeHandler _timeHandler;
   private final Partitioner[] _partitioners;
   private final String[] _partitionsBuffer;
@@ -84,9 +103,31 @@ public class SegmentMapper {
 
   public SegmentMapper(List<RecordReaderFileConfig> recordReaderFileConfigs,
       List<RecordTransformer> customRecordTransformers, SegmentProcessorConfig processorConfig, File mapperOutputDir) {
+    this(recordReaderFileConfigs, customRecordTransformers, processorConfig, mapperOutputDir, null);
+  }
+
+  public SegmentMapper(List<RecordReaderFileConfig> recordReaderFileConfigs,
+      List<RecordTransformer> customRecordTransformers, SegmentProcessorConfig processorConfig, File mapperOutputDir,
+      @Nullable ExecutorService executorService) {
     this(recordReaderFileConfigs,
-        getTransformPipeline(processorConfig.getTableConfig(), processorConfig.getSchema(), customRecordTransformers),
-        processorConfig, mapperOutputDir);
+        () -> getTransformPipeline(processorConfig.getTableConfig(), processorConfig.getSchema(),
+            customRecordTransformers), processorConfig, mapperOutputDir, executorService);
+  }
+
+  private SegmentMapper(List<RecordReaderFileConfig> recordReaderFileConfigs,
+      Supplier<TransformPipeline> transformPipelineSupplier, SegmentProcessorConfig processorConfig,
+      File mapperOutputDir, @Nullable ExecutorService executorService) {
+    this(recordReaderFileConfigs, transformPipelineSupplier.get(), transformPipelineSupplier, processorConfig,
+        mapperOutputDir, executorService, null, new AtomicInteger(), null);
+  }
+
+  /**
+   * Creates a mapper thread of the given multi-threaded mapper, which shares the record readers and the size based
+   * writer with the other mapper threads.
+   */
+  private SegmentMapper(SegmentMapper mapper, String threadDirName) {
+    this(mapper._recordReaderFileConfigs, mapper._transformPipelineSupplier.get(), null, mapper._processorConfig,
+        mapper._mapperOutputDir, null, threadDirName, mapper._nextRecordReaderIndex, mapper._adaptiveSizeBasedWriter);
   }
 
   private static TransformPipeline getTransformPipeline(TableConfig tableConfig, Schema schema,
@@ -100,6 +141,14 @@ public class SegmentMapper {
 
   public SegmentMapper(List<RecordReaderFileConfig> recordReaderFileConfigs, TransformPipeline transformPipeline,
       SegmentProcessorConfig processorConfig, File mapperOutputDir) {
+    this(recordReaderFileConfigs, transformPipeline, null, processorConfig, mapperOutputDir, null, null,
+        new AtomicInteger(), null);
+  }
+
+  private SegmentMapper(List<RecordReaderFileConfig> recordReaderFileConfigs, TransformPipeline transformPipeline,
+      @Nullable Supplier<TransformPipeline> transformPipelineSupplier, SegmentProcessorConfig processorConfig,
+      File mapperOutputDir, @Nullable ExecutorService executorService, @Nullable String threadDirName,
+      AtomicInteger nextRecordReaderIndex, @Nullable AdaptiveSizeBasedWriter adaptiveSizeBasedWriter) {
     _recordReaderFileConfigs = recordReaderFileConfigs;
     _processorConfig = processorConfig;
     _mapperOutputDir = mapperOutputDir;
@@ -113,6 +162,10 @@ public class SegmentMapper {
     _includeNullFields =
         schema.isEnableColumnBasedNullHandling() || tableConfig.getIndexingConfig().isNullHandlingEnabled();
     _transformPipeline = transformPipeline;
+    _transformPipelineSupplier = transformPipelineSupplier;
+    _executorService = executorService;
+    _threadDirName = threadDirName;
+    _nextRecordReaderIndex = nextRecordReaderIndex;
     _timeHandler = TimeHandlerFactory.getTimeHandler(processorConfig);
     List<PartitionerConfig> partitionerConfigs = processorConfig.getPartitionerConfigs();
     int numPartitioners = partitionerConfigs.size();
@@ -128,8 +181,8 @@ public class SegmentMapper {
         Arrays.stream(_partitioners).map(p -> p.getClass().toString()).collect(Collectors.joining(",")));
 
     // initialize adaptive writer.
-    _adaptiveSizeBasedWriter =
-        new AdaptiveSizeBasedWriter(processorConfig.getSegmentConfig().getIntermediateFileSizeThreshold(),
+    _adaptiveSizeBasedWriter = adaptiveSizeBasedWriter != null ? adaptiveSizeBasedWriter
+        : new AdaptiveSizeBasedWriter(processorConfig.getSegmentConfig().getIntermediateFileSizeThreshold(),
             processorConfig.getSegmentConfig().getMaxDiskUsagePercentage(), mapperOutputDir);
   }
 
@@ -139,6 +192,10 @@ public class SegmentMapper {
    */
   public Map<String, GenericRowFileManager> map()
       throws Exception {
+    if (_executorService != null && _transformPipelineSupplier != null && _processorConfig.getNumThreads() > 1
+        && _recordReaderFileConfigs.size() > 1) {
+      return mapWithMultipleThreads();
+    }
     try {
       return doMap();
     } catch (Exception e) {
@@ -153,11 +210,17 @@ public class SegmentMapper {
   private Map<String, GenericRowFileManager> doMap()
       throws Exception {
     Consumer<Object> observer = _processorConfig.getProgressObserver();
-    int count = 1;
     int totalNumRecordReaders = _recordReaderFileConfigs.size();
     GenericRow reuse = new GenericRow();
-    for (RecordReaderFileConfig recordReaderFileConfig : _recordReaderFileConfigs) {
+    int recordReaderIndex;
+    while ((recordReaderIndex = _nextRecordReaderIndex.getAndIncrement()) < totalNumRecordReaders) {
+      RecordReaderFileConfig recordReaderFileConfig = _recordReaderFileConfigs.get(recordReaderIndex);
+      // Record reader might be fully processed by another mapper thread in the previous iteration
+      if (recordReaderFileConfig.isRecordReaderDone()) {
+        continue;
+      }
       RecordReader recordReader = recordReaderFileConfig.getRecordReader();
+      int count = recordReaderIndex + 1;
 
       // Mapper can terminate midway of reading a file if the intermediate file size has crossed the configured
       // threshold. Map phase will continue in the next iteration right where we are leaving off in the current
@@ -170,7 +233,6 @@ public class SegmentMapper {
         break;
       }
       recordReaderFileConfig.closeRecordReader();
-      count++;
     }
 
     for (GenericRowFileManager fileManager : _partitionToFileManagerMap.values()) {
@@ -179,6 +241,54 @@ public class SegmentMapper {
     return _partitionToFileManagerMap;
   }
 
+  private Map<String, GenericRowFileManager> mapWithMultipleThreads()
+      throws Exception {
+    int numThreads = Math.min(_processorConfig.getNumThreads(), _recordReaderFileConfigs.size());
+    LOGGER.info("Mapping {} record readers with {} threads", _recordReaderFileConfigs.size(), numThreads);
+    List<SegmentMapper> threadMappers = new ArrayList<>(numThreads);
+    List<Future<Map<String, GenericRowFileManager>>> futures = new ArrayList<>(numThreads);
+    for (int i = 0; i < numThreads; i++) {
+      SegmentMapper threadMapper = new SegmentMapper(this, "thread_" + i);
+      threadMappers.add(threadMapper);
+      futures.add(_executorService.submit(threadMapper::map));
+    }
+
+    // NOTE: Use TreeMap so that the order is deterministic
+    Map<String, List<GenericRowFileManager>> partitionToThreadFileManagersMap = new TreeMap<>();
+    try {
+      SegmentProcessorUtils.waitForAll(futures);
+      for (SegmentMapper threadMapper : threadMappers) {
+        _incompleteRowsFound += threadMapper._incompleteRowsFound;
+        _skippedRowsFound += threadMapper._skippedRowsFound;
+        _sanitizedRowsFound += threadMapper._sanitizedRowsFound;
+        for (Map.Entry<String, GenericRowFileManager> entry : threadMapper._partitionToFileManagerMap.entrySet()) {
+          partitionToThreadFileManagersMap.computeIfAbsent(entry.getKey(), k -> new ArrayList<>())
+              .add(entry.getValue());
+        }
+      }
+      // Concatenate the partition files from the mapper threads
+      for (Map.Entry<String, List<GenericRowFileManager>> entry : partitionToThreadFileManagersMap.entrySet()) {
+        String partition = entry.getKey();
+        List<GenericRowFileManager> threadFileManagers = entry.getValue();
+        GenericRowFileManager fileManager = threadFileManagers.size() == 1 ? threadFileManagers.get(0)
+            : GenericRowFileManager.concat(new File(_mapperOutputDir, partition), threadFileManagers);
+        _partitionToFileManagerMap.put(partition, fileManager);
+      }
+      return _partitionToFileManagerMap;
+    } catch (Exception e) {
+      // Cleaning up resources created by the mapper threads.
+      for (SegmentMapper threadMapper : threadMappers) {
+        for (GenericRowFileManager fileManager : threadMapper._partitionToFileManagerMap.values()) {
+          fileManager.cleanUp();
+        }
+      }
+      for (GenericRowFileManager fileManager : _partitionToFileManagerMap.values()) {
+        fileManager.cleanUp();
+      }
+      throw e;
+    }
+  }
+
 
 //   Returns true if the map phase can continue, false if it should terminate based on the configured threshold for
 //   intermediate file size during map phase.
@@ -248,6 +358,9 @@ public class SegmentMapper {
     GenericRowFileManager fileManager = _partitionToFileManagerMap.get(partition);
     if (fileManager == null) {
       File partitionOutputDir = new File(_mapperOutputDir, partition);
+      if (_threadDirName != null) {
+        partitionOutputDir = new File(partitionOutputDir, _threadDirName);
+      }
       FileUtils.forceMkdir(partitionOutputDir);
       fileManager = new GenericRowFileManager(partitionOutputDir, _fieldSpecs, _includeNullFields, _numSortFields);
       _partitionToFileManagerMap.put(partition, fileManager);
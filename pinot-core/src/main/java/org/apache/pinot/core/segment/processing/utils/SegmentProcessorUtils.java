@@ -23,6 +23,8 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import javax.annotation.Nullable;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
@@ -95,4 +97,28 @@ public final class SegmentProcessorUtils {
 
     return new ImmutablePair<>(fieldSpecs, numSortFields);
   }
+
+  /**
+   * Waits for all the futures to be done and returns their results. If any of them fails, throws the first failure
+   * after all the futures are done, so that the caller can safely clean up the resources used by them.
+   */
+  public static <T> List<T> waitForAll(List<? extends Future<T>> futures)
+      throws Exception {
+    List<T> results = new ArrayList<>(futures.size());
+    Exception exception = null;
+    for (Future<T> future : futures) {
+      try {
+        results.add(future.get());
+      } catch (ExecutionException e) {
+        if (exception == null) {
+          Throwable cause = e.getCause();
+          exception = cause instanceof Exception ? (Exception) cause : e;
+        }
+      }
+    }
+    if (exception != null) {
+      throw exception;
+    }
+    return results;
+  }
 }
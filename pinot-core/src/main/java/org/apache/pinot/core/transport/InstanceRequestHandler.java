@@ -40,15 +40,19 @@ import java.util.concurrent.TimeUnit;
 import javax.annotation.Nullable;
 import org.apache.pinot.common.datatable.DataTable;
 import org.apache.pinot.common.datatable.DataTable.MetadataKey;
+import org.apache.pinot.common.datatable.DataTableFactory;
 import org.apache.pinot.common.metrics.ServerMeter;
 import org.apache.pinot.common.metrics.ServerMetrics;
 import org.apache.pinot.common.metrics.ServerQueryPhase;
 import org.apache.pinot.common.metrics.ServerTimer;
 import org.apache.pinot.common.request.InstanceRequest;
+import org.apache.pinot.common.utils.config.QueryOptionsUtils;
 import org.apache.pinot.core.common.datatable.DataTableBuilderFactory;
 import org.apache.pinot.core.query.request.ServerQueryRequest;
 import org.apache.pinot.core.query.scheduler.QueryScheduler;
+import org.apache.pinot.segment.spi.compression.ChunkCompressionType;
 import org.apache.pinot.server.access.AccessControl;
+import org.apache.pinot.spi.accounting.ThreadResourceUsageProvider;
 import org.apache.pinot.spi.env.PinotConfiguration;
 import org.apache.pinot.spi.exception.QueryErrorCode;
 import org.apache.pinot.spi.query.QueryThreadContext;
@@ -80,6 +84,7 @@ public class InstanceRequestHandler extends SimpleChannelInboundHandler<ByteBuf>
   private final ServerMetrics _serverMetrics;
   private final AccessControl _accessControl;
   private final Map<String, Future<byte[]>> _queryFuturesById;
+  private final int _minCompressionSizeBytes;
 
   public InstanceRequestHandler(String instanceName, PinotConfiguration config, QueryScheduler queryScheduler,
       ServerMetrics serverMetrics, AccessControl accessControl) {
@@ -101,6 +106,8 @@ public class InstanceRequestHandler extends SimpleChannelInboundHandler<ByteBuf>
     } else {
       _queryFuturesById = null;
     }
+    _minCompressionSizeBytes = config.getProperty(CommonConstants.Server.CONFIG_OF_WIRE_COMPRESSION_MIN_SIZE_BYTES,
+        CommonConstants.Server.DEFAULT_WIRE_COMPRESSION_MIN_SIZE_BYTES);
   }
 
   @Override
@@ -199,7 +206,7 @@ public class InstanceRequestHandler extends SimpleChannelInboundHandler<ByteBuf>
         if (responseBytes != null) {
           // responseBytes contains either query results or exception.
           sendResponse(ctx, queryRequest.getRequestId(), queryRequest.getTableNameWithType(), queryArrivalTimeMs,
-              responseBytes);
+              compressResponse(queryRequest, responseBytes));
         } else {
           // Send exception response.
           sendErrorResponse(ctx, queryRequest.getRequestId(), tableNameWithType, queryArrivalTimeMs,
@@ -334,4 +341,39 @@ public class InstanceRequestHandler extends SimpleChannelInboundHandler<ByteBuf>
       }
     });
   }
+
+  /**
+   * Compresses the serialized response when the broker asked for it (the broker only asks for it when it can read the
+   * compressed responses) and the response is large enough. The response is sent as is when the compression does not
+   * reduce its size, or fails.
+   */
+  private byte[] compressResponse(ServerQueryRequest queryRequest, byte[] responseBytes) {
+    if (responseBytes.length < _minCompressionSizeBytes) {
+      return responseBytes;
+    }
+    try {
+      ChunkCompressionType compressionType =
+          QueryOptionsUtils.getWireCompression(queryRequest.getQueryContext().getQueryOptions());
+      if (compressionType == null) {
+        return responseBytes;
+      }
+      long startCpuTimeNs = ThreadResourceUsageProvider.getCurrentThreadCpuTime();
+      byte[] compressedBytes = DataTableFactory.compress(responseBytes, compressionType);
+      if (ThreadResourceUsageProvider.isThreadCpuTimeMeasurementEnabled()) {
+        _serverMetrics.addTimedValue(ServerTimer.RESPONSE_COMPRESSION_CPU_TIME_NS,
+            ThreadResourceUsageProvider.getCurrentThreadCpuTime() - startCpuTimeNs, TimeUnit.NANOSECONDS);
+      }
+      _serverMetrics.addMeteredGlobalValue(ServerMeter.RESPONSE_COMPRESSION_INPUT_BYTES, responseBytes.length);
+      if (compressedBytes.length >= responseBytes.length) {
+        _serverMetrics.addMeteredGlobalValue(ServerMeter.RESPONSE_COMPRESSION_OUTPUT_BYTES, responseBytes.length);
+        return responseBytes;
+      }
+      _serverMetrics.addMeteredGlobalValue(ServerMeter.RESPONSE_COMPRESSION_OUTPUT_BYTES, compressedBytes.length);
+      return compressedBytes;
+    } catch (Exception e) {
+      LOGGER.warn("Caught exception while compressing response for query: {}, sending it uncompressed",
+          queryRequest.getQueryId(), e);
+      return responseBytes;
+    }
+  }
 }
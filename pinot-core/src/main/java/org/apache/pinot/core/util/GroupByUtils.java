@@ -29,6 +29,7 @@ import org.apache.pinot.core.data.table.ConcurrentIndexedTable;
 import org.apache.pinot.core.data.table.DeterministicConcurrentIndexedTable;
 import org.apache.pinot.core.data.table.IndexedTable;
 import org.apache.pinot.core.data.table.IntermediateRecord;
+import org.apache.pinot.core.data.table.PartitionedIndexedTable;
 import org.apache.pinot.core.data.table.Record;
 import org.apache.pinot.core.data.table.SimpleIndexedTable;
 import org.apache.pinot.core.data.table.SortedRecords;
@@ -150,6 +151,39 @@ public final class GroupByUtils {
     }
   }
 
+  /**
+   * Creates a {@link PartitionedIndexedTable} for the partitioned combine operator given a sample results block. The
+   * result size, trim size and trim threshold are calculated the same way as
+   * {@link #createIndexedTableForCombineOperator}, and are applied to each partition separately.
+   */
+  public static PartitionedIndexedTable createPartitionedIndexedTableForCombineOperator(
+      GroupByResultsBlock resultsBlock, QueryContext queryContext, int numPartitions,
+      ExecutorService executorService) {
+    DataSchema dataSchema = resultsBlock.getDataSchema();
+    int numGroups = resultsBlock.getNumGroups();
+    int limit = queryContext.getLimit();
+    boolean hasOrderBy = queryContext.getOrderByExpressions() != null;
+    boolean hasHaving = queryContext.getHavingFilter() != null;
+    int minTrimSize = queryContext.getMinServerGroupTrimSize();
+    int minInitialIndexedTableCapacity = queryContext.getMinInitialIndexedTableCapacity();
+
+    // Disable trim when min trim size is non-positive
+    int trimSize = minTrimSize > 0 ? getTableCapacity(limit, minTrimSize) : Integer.MAX_VALUE;
+
+    if (!hasOrderBy) {
+      int resultSize = hasHaving ? trimSize : limit;
+      int initialCapacity = getIndexedTableInitialCapacity(resultSize, numGroups, minInitialIndexedTableCapacity);
+      return new PartitionedIndexedTable(dataSchema, false, queryContext, resultSize, Integer.MAX_VALUE,
+          Integer.MAX_VALUE, numPartitions, initialCapacity, executorService);
+    }
+
+    int resultSize = queryContext.isServerReturnFinalResult() && !hasHaving ? limit : trimSize;
+    int trimThreshold = getIndexedTableTrimThreshold(trimSize, queryContext.getGroupTrimThreshold());
+    int initialCapacity = getIndexedTableInitialCapacity(trimThreshold, numGroups, minInitialIndexedTableCapacity);
+    return new PartitionedIndexedTable(dataSchema, false, queryContext, resultSize, trimSize, trimThreshold,
+        numPartitions, initialCapacity, executorService);
+  }
+
   /**
    * Creates an indexed table for the data table reducer given a sample data table.
    */
@@ -171,6 +171,53 @@ public class DataBlockBuilderTest {
     checkEquals(type, rowDataBlock, i -> column[i]);
   }
 
+  @Test
+  void testLargeStringColumnBlock()
+      throws IOException {
+    // More rows than the interruption check interval, so that the column is serialized in multiple batches
+    int numRows = 25_000;
+    Object[] column = generateColumns(ColumnDataType.STRING, numRows);
+    DataSchema dataSchema = new DataSchema(new String[]{"column"}, new ColumnDataType[]{ColumnDataType.STRING});
+    DataBlock columnDataBlock = DataBlockBuilder.buildFromColumns(Collections.singletonList(column), dataSchema);
+    assertEquals(columnDataBlock.getNumberOfRows(), numRows);
+    checkEquals(ColumnDataType.STRING, columnDataBlock, i -> column[i]);
+  }
+
+  @Test
+  void testTypedColumnBlock()
+      throws IOException {
+    int numRows = 100;
+    int[] intValues = new int[numRows];
+    double[] doubleValues = new double[numRows];
+    Object[] stringValues = generateColumns(ColumnDataType.STRING, numRows);
+    RoaringBitmap intNullBitmap = new RoaringBitmap();
+    Random r = new Random(42);
+    for (int i = 0; i < numRows; i++) {
+      intValues[i] = r.nextInt();
+      doubleValues[i] = r.nextDouble();
+      if (i % 7 == 0) {
+        intNullBitmap.add(i);
+      }
+    }
+    DataSchema dataSchema = new DataSchema(new String[]{"intCol", "doubleCol", "stringCol"},
+        new ColumnDataType[]{ColumnDataType.INT, ColumnDataType.DOUBLE, ColumnDataType.STRING});
+    DataBlock dataBlock = DataBlockBuilder.buildFromTypedColumns(numRows,
+        new Object[]{intValues, doubleValues, stringValues}, new RoaringBitmap[]{intNullBitmap, null, null},
+        dataSchema);
+    assertEquals(dataBlock.getNumberOfRows(), numRows);
+    assertEquals(dataBlock.getNullRowIds(0), intNullBitmap);
+    assertNull(dataBlock.getNullRowIds(1));
+    for (int i = 0; i < numRows; i++) {
+      if (!intNullBitmap.contains(i)) {
+        assertEquals(dataBlock.getInt(i, 0), intValues[i], "Failure on row " + i);
+      }
+      assertEquals(dataBlock.getDouble(i, 1), doubleValues[i], "Failure on row " + i);
+      if (stringValues[i] != null) {
+        assertEquals(dataBlock.getString(i, 2), stringValues[i], "Failure on row " + i);
+      }
+    }
+  }
+
   Object[] generateColumns(ColumnDataType type, int numRows) {
     Object[] result = new Object[numRows];
     Random r = new Random(42);
@@ -30,6 +30,7 @@ import org.apache.pinot.common.datatable.DataTable;
 import org.apache.pinot.common.datatable.DataTable.MetadataKey;
 import org.apache.pinot.common.datatable.DataTableFactory;
 import org.apache.pinot.common.utils.DataSchema;
+import org.apache.pinot.segment.spi.compression.ChunkCompressionType;
 import org.apache.pinot.spi.accounting.ThreadResourceUsageProvider;
 import org.apache.pinot.spi.exception.QueryErrorCode;
 import org.apache.pinot.spi.utils.ByteArray;
@@ -239,6 +240,35 @@ public class DataTableSerDeTest {
     verifyDataIsSame(newDataTable, columnDataTypes, numColumns);
   }
 
+  @Test(dataProvider = "versionProvider")
+  public void testCompressedDataTable(int dataTableVersion)
+      throws IOException {
+    DataTableBuilderFactory.setDataTableVersion(dataTableVersion);
+    DataSchema.ColumnDataType[] columnDataTypes = DataSchema.ColumnDataType.values();
+    int numColumns = columnDataTypes.length;
+    String[] columnNames = new String[numColumns];
+    for (int i = 0; i < numColumns; i++) {
+      columnNames[i] = columnDataTypes[i].name();
+    }
+
+    DataSchema dataSchema = new DataSchema(columnNames, columnDataTypes);
+    DataTableBuilder dataTableBuilder = DataTableBuilderFactory.getDataTableBuilder(dataSchema);
+    fillDataTableWithRandomData(dataTableBuilder, columnDataTypes, numColumns);
+
+    DataTable dataTable = dataTableBuilder.build();
+    dataTable.getMetadata().put(MetadataKey.NUM_DOCS_SCANNED.getName(), "10");
+    byte[] bytes = dataTable.toBytes();
+    for (ChunkCompressionType compressionType : new ChunkCompressionType[]{
+        ChunkCompressionType.LZ4, ChunkCompressionType.ZSTANDARD
+    }) {
+      DataTable newDataTable = DataTableFactory.getDataTable(DataTableFactory.compress(bytes, compressionType));
+      Assert.assertEquals(newDataTable.getDataSchema(), dataSchema, ERROR_MESSAGE);
+      Assert.assertEquals(newDataTable.getNumberOfRows(), NUM_ROWS, ERROR_MESSAGE);
+      Assert.assertEquals(newDataTable.getMetadata(), dataTable.getMetadata(), ERROR_MESSAGE);
+      verifyDataIsSame(newDataTable, columnDataTypes, numColumns);
+    }
+  }
+
   @Test(dataProvider = "versionProvider")
   public void testAllDataTypes(int dataTableVersion)
       throws IOException {
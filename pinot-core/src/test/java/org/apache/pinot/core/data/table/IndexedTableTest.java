@@ -271,6 +271,60 @@ public class IndexedTableTest {
     indexedTable = new ConcurrentIndexedTable(dataSchema, false, queryContext, 5, Integer.MAX_VALUE, Integer.MAX_VALUE,
         INITIAL_CAPACITY, Executors.newCachedThreadPool());
     testNoMoreNewRecordsInTable(indexedTable);
+
+    indexedTable = new PartitionedIndexedTable(dataSchema, false, queryContext, 5, Integer.MAX_VALUE,
+        Integer.MAX_VALUE, 4, INITIAL_CAPACITY, Executors.newCachedThreadPool());
+    testNoMoreNewRecordsInTable(indexedTable);
+  }
+
+  @Test
+  public void testPartitionedIndexedTable()
+      throws InterruptedException, TimeoutException, ExecutionException {
+    QueryContext queryContext = QueryContextConverterUtils.getQueryContext(
+        "SELECT SUM(m1) FROM testTable GROUP BY d1 ORDER BY SUM(m1) DESC");
+    DataSchema dataSchema =
+        new DataSchema(new String[]{"d1", "sum(m1)"}, new ColumnDataType[]{ColumnDataType.INT, ColumnDataType.DOUBLE});
+    int numPartitions = 8;
+    PartitionedIndexedTable indexedTable =
+        new PartitionedIndexedTable(dataSchema, false, queryContext, 5, TRIM_SIZE, TRIM_THRESHOLD, numPartitions,
+            INITIAL_CAPACITY, Executors.newCachedThreadPool());
+    Assert.assertEquals(indexedTable.getNumPartitions(), numPartitions);
+
+    // Each thread upserts a separate partition, where group i has sum i * 10 (10 records with value i)
+    int numGroups = 1000;
+    ExecutorService executorService = Executors.newFixedThreadPool(numPartitions);
+    try {
+      List<Callable<Void>> callables = new ArrayList<>(numPartitions);
+      for (int i = 0; i < numPartitions; i++) {
+        int partitionId = i;
+        callables.add(() -> {
+          for (int j = 0; j < 10; j++) {
+            for (int group = 0; group < numGroups; group++) {
+              Key key = getKey(new Object[]{group});
+              if (indexedTable.getPartitionId(key.hashCode()) == partitionId) {
+                indexedTable.upsert(partitionId, key, getRecord(new Object[]{group, (double) group}));
+              }
+            }
+          }
+          return null;
+        });
+      }
+      for (Future<Void> future : executorService.invokeAll(callables)) {
+        future.get(10, TimeUnit.SECONDS);
+      }
+    } finally {
+      executorService.shutdown();
+    }
+
+    // Each partition is trimmed separately, so the global top groups are always kept
+    Assert.assertTrue(indexedTable.isTrimmed());
+    indexedTable.finish(true);
+    Assert.assertEquals(indexedTable.size(), 5);
+    Iterator<Record> iterator = indexedTable.iterator();
+    for (int i = 0; i < 5; i++) {
+      int group = numGroups - 1 - i;
+      Assert.assertEquals(iterator.next().getValues(), new Object[]{group, group * 10d});
+    }
   }
 
   private void testNoMoreNewRecordsInTable(IndexedTable indexedTable) {
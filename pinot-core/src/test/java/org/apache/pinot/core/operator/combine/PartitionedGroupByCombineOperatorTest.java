@@ -0,0 +1,219 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.operator.combine;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.core.operator.blocks.results.GroupByResultsBlock;
+import org.apache.pinot.core.plan.CombinePlanNode;
+import org.apache.pinot.core.plan.PlanNode;
+import org.apache.pinot.core.plan.maker.InstancePlanMakerImplV2;
+import org.apache.pinot.core.plan.maker.PlanMaker;
+import org.apache.pinot.core.query.request.context.QueryContext;
+import org.apache.pinot.core.query.request.context.utils.QueryContextConverterUtils;
+import org.apache.pinot.segment.local.indexsegment.immutable.ImmutableSegmentLoader;
+import org.apache.pinot.segment.local.segment.creator.impl.SegmentIndexCreationDriverImpl;
+import org.apache.pinot.segment.local.segment.readers.GenericRowRecordReader;
+import org.apache.pinot.segment.spi.IndexSegment;
+import org.apache.pinot.segment.spi.SegmentContext;
+import org.apache.pinot.segment.spi.creator.SegmentGeneratorConfig;
+import org.apache.pinot.spi.config.table.TableConfig;
+import org.apache.pinot.spi.config.table.TableType;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.apache.pinot.spi.data.Schema;
+import org.apache.pinot.spi.data.readers.GenericRow;
+import org.apache.pinot.spi.utils.CommonConstants;
+import org.apache.pinot.spi.utils.ReadMode;
+import org.apache.pinot.spi.utils.builder.TableConfigBuilder;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+
+/**
+ * Tests the {@link PartitionedGroupByCombineOperator} by comparing its results with the default combine operator.
+ */
+public class PartitionedGroupByCombineOperatorTest {
+  private static final File TEMP_DIR = new File(FileUtils.getTempDirectory(), "PartitionedGroupByCombineOperatorTest");
+  private static final String RAW_TABLE_NAME = "testTable";
+  private static final String SEGMENT_NAME_PREFIX = "testSegment_";
+  private static final int NUM_SEGMENTS = 8;
+  private static final int NUM_RECORDS_PER_SEGMENT = 1000;
+
+  private static final String INT_COLUMN = "intColumn";
+  private static final String LONG_COLUMN = "longColumn";
+  private static final String STRING_COLUMN = "stringColumn";
+  private static final String METRIC_COLUMN = "metricColumn";
+  private static final TableConfig TABLE_CONFIG =
+      new TableConfigBuilder(TableType.OFFLINE).setTableName(RAW_TABLE_NAME).build();
+  private static final Schema SCHEMA = new Schema.SchemaBuilder().addSingleValueDimension(INT_COLUMN, DataType.INT)
+      .addSingleValueDimension(LONG_COLUMN, DataType.LONG).addSingleValueDimension(STRING_COLUMN, DataType.STRING)
+      .addMetric(METRIC_COLUMN, DataType.INT).build();
+
+  private static final PlanMaker PLAN_MAKER = new InstancePlanMakerImplV2();
+  private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(4);
+
+  private List<IndexSegment> _indexSegments;
+
+  @DataProvider
+  public static Object[][] queries() {
+    return new Object[][]{
+        {"SELECT intColumn, COUNT(*), SUM(metricColumn) FROM testTable GROUP BY intColumn LIMIT 100000"},
+        {"SELECT longColumn, MAX(metricColumn) FROM testTable GROUP BY longColumn LIMIT 100000"},
+        {"SELECT stringColumn, DISTINCTCOUNT(intColumn) FROM testTable GROUP BY stringColumn LIMIT 100000"},
+        {"SELECT intColumn, stringColumn, SUM(metricColumn) FROM testTable GROUP BY intColumn, stringColumn "
+            + "LIMIT 100000"},
+        {"SELECT intColumn, SUM(metricColumn) FROM testTable GROUP BY intColumn ORDER BY SUM(metricColumn) DESC, "
+            + "intColumn LIMIT 10"},
+        {"SELECT longColumn, COUNT(*) FROM testTable GROUP BY longColumn ORDER BY longColumn LIMIT 20"},
+        {"SET enableNullHandling=true; SELECT intColumn, COUNT(*) FROM testTable GROUP BY intColumn LIMIT 100000"},
+        {"SET serverReturnFinalResult=true; SELECT stringColumn, AVG(metricColumn) FROM testTable "
+            + "GROUP BY stringColumn ORDER BY AVG(metricColumn), stringColumn LIMIT 10"}
+    };
+  }
+
+  @Test(dataProvider = "queries")
+  public void testPartitionedCombine(String query) {
+    GroupByResultsBlock expectedResult = getCombineResult(query, false);
+    GroupByResultsBlock partitionedResult = getCombineResult(query, true);
+    assertEquals(partitionedResult.getDataSchema(), expectedResult.getDataSchema());
+    assertEquals(partitionedResult.getNumSegmentsProcessed(), NUM_SEGMENTS);
+    List<Object[]> expectedRows = sortRows(expectedResult.getRows());
+    List<Object[]> partitionedRows = sortRows(partitionedResult.getRows());
+    assertEquals(partitionedRows.size(), expectedRows.size());
+    for (int i = 0; i < expectedRows.size(); i++) {
+      assertEquals(partitionedRows.get(i), expectedRows.get(i));
+    }
+  }
+
+  @Test
+  public void testLimitWithoutOrderBy() {
+    GroupByResultsBlock result =
+        getCombineResult("SELECT intColumn, COUNT(*) FROM testTable GROUP BY intColumn LIMIT 5", true);
+    assertEquals(result.getRows().size(), 5);
+    for (Object[] row : result.getRows()) {
+      // Each value appears in at most 2 adjacent segments
+      long count = (long) row[1];
+      assertTrue(count == 1 || count == 2, "Unexpected count: " + count);
+    }
+  }
+
+  @Test
+  public void testTrim() {
+    // Trim the groups to 10 once reaching 20 groups. The top groups should always be kept because MAX(metricColumn) of
+    // each group is the same in all the segments.
+    QueryContext queryContext = QueryContextConverterUtils.getQueryContext(
+        "SET partitionedGroupByCombine=true; SELECT intColumn, MAX(metricColumn) FROM testTable GROUP BY intColumn "
+            + "ORDER BY MAX(metricColumn) DESC LIMIT 1");
+    queryContext.setMinServerGroupTrimSize(10);
+    queryContext.setGroupTrimThreshold(20);
+    GroupByResultsBlock result = getCombineResult(queryContext, true);
+    assertTrue(result.getNumResizes() > 1);
+    List<Object[]> rows = new ArrayList<>(result.getRows());
+    rows.sort((row1, row2) -> Integer.compare((int) row2[0], (int) row1[0]));
+    assertEquals(rows.size(), 10);
+    int maxValue = (NUM_SEGMENTS + 1) * NUM_RECORDS_PER_SEGMENT / 2 - 1;
+    for (int i = 0; i < 10; i++) {
+      assertEquals(rows.get(i), new Object[]{maxValue - i, (double) (maxValue - i)});
+    }
+  }
+
+  private static List<Object[]> sortRows(List<Object[]> rows) {
+    List<Object[]> sortedRows = new ArrayList<>(rows);
+    sortedRows.sort(Comparator.comparing(Arrays::toString));
+    return sortedRows;
+  }
+
+  @BeforeClass
+  public void setUp()
+      throws Exception {
+    FileUtils.deleteDirectory(TEMP_DIR);
+    _indexSegments = new ArrayList<>(NUM_SEGMENTS);
+    for (int i = 0; i < NUM_SEGMENTS; i++) {
+      _indexSegments.add(createOfflineSegment(i));
+    }
+  }
+
+  @AfterClass
+  public void tearDown()
+      throws IOException {
+    for (IndexSegment indexSegment : _indexSegments) {
+      indexSegment.destroy();
+    }
+    FileUtils.deleteDirectory(TEMP_DIR);
+  }
+
+  private IndexSegment createOfflineSegment(int index)
+      throws Exception {
+    // Adjacent segments share half of the values
+    int baseValue = index * NUM_RECORDS_PER_SEGMENT / 2;
+    List<GenericRow> records = new ArrayList<>(NUM_RECORDS_PER_SEGMENT);
+    for (int i = 0; i < NUM_RECORDS_PER_SEGMENT; i++) {
+      int value = baseValue + i;
+      GenericRow record = new GenericRow();
+      record.putValue(INT_COLUMN, value);
+      record.putValue(LONG_COLUMN, (long) (value % 300) << 32);
+      record.putValue(STRING_COLUMN, "str_" + value % 100);
+      record.putValue(METRIC_COLUMN, value);
+      records.add(record);
+    }
+
+    SegmentGeneratorConfig segmentGeneratorConfig = new SegmentGeneratorConfig(TABLE_CONFIG, SCHEMA);
+    segmentGeneratorConfig.setTableName(RAW_TABLE_NAME);
+    String segmentName = SEGMENT_NAME_PREFIX + index;
+    segmentGeneratorConfig.setSegmentName(segmentName);
+    segmentGeneratorConfig.setOutDir(TEMP_DIR.getPath());
+
+    SegmentIndexCreationDriverImpl driver = new SegmentIndexCreationDriverImpl();
+    driver.init(segmentGeneratorConfig, new GenericRowRecordReader(records));
+    driver.build();
+
+    return ImmutableSegmentLoader.load(new File(TEMP_DIR, segmentName), ReadMode.mmap);
+  }
+
+  private GroupByResultsBlock getCombineResult(String query, boolean partitioned) {
+    if (partitioned) {
+      query = "SET partitionedGroupByCombine=true; " + query;
+    }
+    return getCombineResult(QueryContextConverterUtils.getQueryContext(query), partitioned);
+  }
+
+  private GroupByResultsBlock getCombineResult(QueryContext queryContext, boolean partitioned) {
+    List<PlanNode> planNodes = new ArrayList<>(NUM_SEGMENTS);
+    for (IndexSegment indexSegment : _indexSegments) {
+      planNodes.add(PLAN_MAKER.makeSegmentPlanNode(new SegmentContext(indexSegment), queryContext));
+    }
+    queryContext.setEndTimeMs(System.currentTimeMillis() + CommonConstants.Server.DEFAULT_QUERY_EXECUTOR_TIMEOUT_MS);
+    CombinePlanNode combinePlanNode = new CombinePlanNode(planNodes, queryContext, EXECUTOR, null);
+    BaseCombineOperator combineOperator = combinePlanNode.run();
+    assertEquals(combineOperator instanceof PartitionedGroupByCombineOperator, partitioned);
+    return (GroupByResultsBlock) combineOperator.nextBlock();
+  }
+}
@@ -27,6 +27,7 @@ import java.util.OptionalInt;
 import org.apache.pinot.core.common.Operator;
 import org.apache.pinot.core.operator.blocks.FilterBlock;
 import org.apache.pinot.core.query.request.context.QueryContext;
+import org.roaringbitmap.buffer.MutableRoaringBitmap;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
@@ -175,6 +176,41 @@ public class FilterOperatorUtilsTest {
         + " should have more priority than filter " + lowerPriorty);
   }
 
+  @Test
+  public void testReorderBySelectivity() {
+    QueryContext queryContext = mock(QueryContext.class);
+    when(queryContext.isFilterSelectivityReorder()).thenReturn(true);
+    int numDocs = 100;
+    BaseFilterOperator fiftyPercentBitmap = getBitmapBasedFilterOperator(50, numDocs);
+    BaseFilterOperator tenPercentBitmap = getBitmapBasedFilterOperator(10, numDocs);
+    // Nested filter with selectivity 0.9, which is less selective than the unknown filter with default selectivity 0.5
+    BaseFilterOperator ninetyPercentNot =
+        new NotFilterOperator(getBitmapBasedFilterOperator(10, numDocs), numDocs, false);
+    BaseFilterOperator unknown = new TestFilterOperator(new int[]{1, 4, 7}, numDocs);
+
+    BaseFilterOperator filterOperator = FilterOperatorUtils.getAndFilterOperator(queryContext,
+        Lists.newArrayList(ninetyPercentNot, unknown, fiftyPercentBitmap, tenPercentBitmap), numDocs);
+    assertTrue(filterOperator instanceof AndFilterOperator);
+    AndFilterOperator andFilterOperator = (AndFilterOperator) filterOperator;
+    assertEquals(andFilterOperator.getChildOperators(),
+        Lists.newArrayList(tenPercentBitmap, fiftyPercentBitmap, unknown, ninetyPercentNot));
+    assertEquals(andFilterOperator.getEstimatedSelectivities(), new double[]{0.1, 0.5, 0.5, 0.9}, 1e-9);
+    assertEquals(andFilterOperator.toExplainString(),
+        "FILTER_AND(estimatedSelectivities:[0.1000, 0.5000, 0.5000, 0.9000])");
+
+    // Selectivity is not estimated without the query option
+    filterOperator = FilterOperatorUtils.getAndFilterOperator(QUERY_CONTEXT,
+        Lists.newArrayList(fiftyPercentBitmap, tenPercentBitmap), numDocs);
+    assertTrue(filterOperator instanceof AndFilterOperator);
+    assertEquals(((AndFilterOperator) filterOperator).toExplainString(), "FILTER_AND");
+  }
+
+  private static BaseFilterOperator getBitmapBasedFilterOperator(int numMatchingDocs, int numDocs) {
+    MutableRoaringBitmap docIds = new MutableRoaringBitmap();
+    docIds.add(0L, numMatchingDocs);
+    return new BitmapBasedFilterOperator(docIds, false, numDocs);
+  }
+
   private void assertOrder(BaseFilterOperator first, BaseFilterOperator second) {
     BaseFilterOperator filterOperator =
         FilterOperatorUtils.getAndFilterOperator(QUERY_CONTEXT, Lists.newArrayList(second, first), NUM_DOCS);
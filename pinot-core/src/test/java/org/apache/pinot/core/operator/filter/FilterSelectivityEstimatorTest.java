@@ -0,0 +1,153 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.operator.filter;
+
+import java.util.Arrays;
+import org.apache.pinot.common.request.context.ExpressionContext;
+import org.apache.pinot.common.request.context.predicate.EqPredicate;
+import org.apache.pinot.common.request.context.predicate.Predicate;
+import org.apache.pinot.common.request.context.predicate.RangePredicate;
+import org.apache.pinot.core.operator.filter.predicate.PredicateEvaluator;
+import org.apache.pinot.segment.spi.datasource.DataSource;
+import org.apache.pinot.segment.spi.datasource.DataSourceMetadata;
+import org.apache.pinot.segment.spi.index.reader.Dictionary;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.roaringbitmap.buffer.MutableRoaringBitmap;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+
+public class FilterSelectivityEstimatorTest {
+  private static final int NUM_DOCS = 100;
+  private static final double DELTA = 1e-9;
+
+  @AfterMethod
+  public void tearDown() {
+    FilterSelectivityEstimator.clearObservedSelectivities();
+  }
+
+  @Test
+  public void testEstimateSelectivity() {
+    BaseFilterOperator tenPercent = getBitmapBasedFilterOperator(10, false);
+    BaseFilterOperator twentyPercent = getBitmapBasedFilterOperator(20, false);
+    BaseFilterOperator eightyPercent = getBitmapBasedFilterOperator(20, true);
+
+    assertEquals(FilterSelectivityEstimator.estimateSelectivity(EmptyFilterOperator.getInstance()), 0.0);
+    assertEquals(FilterSelectivityEstimator.estimateSelectivity(new MatchAllFilterOperator(NUM_DOCS)), 1.0);
+    assertEquals(FilterSelectivityEstimator.estimateSelectivity(tenPercent), 0.1, DELTA);
+    assertEquals(FilterSelectivityEstimator.estimateSelectivity(eightyPercent), 0.8, DELTA);
+    assertEquals(FilterSelectivityEstimator.estimateSelectivity(new TestFilterOperator(new int[]{1, 2}, NUM_DOCS)),
+        FilterSelectivityEstimator.DEFAULT_SELECTIVITY);
+
+    // Children are assumed to be independent
+    assertEquals(FilterSelectivityEstimator.estimateSelectivity(
+        new AndFilterOperator(Arrays.asList(tenPercent, twentyPercent), null, NUM_DOCS, false)), 0.02, DELTA);
+    assertEquals(FilterSelectivityEstimator.estimateSelectivity(
+        new OrFilterOperator(Arrays.asList(tenPercent, twentyPercent), null, NUM_DOCS, false)), 0.28, DELTA);
+    assertEquals(FilterSelectivityEstimator.estimateSelectivity(new NotFilterOperator(tenPercent, NUM_DOCS, false)),
+        0.9, DELTA);
+  }
+
+  @Test
+  public void testEstimateSelectivityFromMetadata() {
+    DataSource dataSource = mock(DataSource.class);
+    DataSourceMetadata dataSourceMetadata = mock(DataSourceMetadata.class);
+    when(dataSource.getDataSourceMetadata()).thenReturn(dataSourceMetadata);
+    when(dataSourceMetadata.getDataType()).thenReturn(DataType.INT);
+    when(dataSourceMetadata.getCardinality()).thenReturn(50);
+    when(dataSourceMetadata.getMinValue()).thenReturn(0);
+    when(dataSourceMetadata.getMaxValue()).thenReturn(1000);
+    Dictionary dictionary = mock(Dictionary.class);
+    when(dictionary.length()).thenReturn(40);
+    when(dataSource.getDictionary()).thenReturn(dictionary);
+
+    // Dictionary based: number of matching dictionary ids over dictionary size
+    PredicateEvaluator predicateEvaluator = mock(PredicateEvaluator.class);
+    when(predicateEvaluator.isDictionaryBased()).thenReturn(true);
+    when(predicateEvaluator.getNumMatchingItems()).thenReturn(4);
+    assertEquals(FilterSelectivityEstimator.estimateSelectivityFromMetadata(predicateEvaluator, dataSource), 0.1,
+        DELTA);
+    // Negative number of matching items indicates the number of non-matching items
+    when(predicateEvaluator.getNumMatchingItems()).thenReturn(-4);
+    assertEquals(FilterSelectivityEstimator.estimateSelectivityFromMetadata(predicateEvaluator, dataSource), 0.9,
+        DELTA);
+
+    // Raw value based: number of matching values over column cardinality
+    predicateEvaluator = mock(PredicateEvaluator.class);
+    when(predicateEvaluator.getNumMatchingItems()).thenReturn(5);
+    assertEquals(FilterSelectivityEstimator.estimateSelectivityFromMetadata(predicateEvaluator, dataSource), 0.1,
+        DELTA);
+
+    // Range: overlap with min/max value
+    predicateEvaluator = mock(PredicateEvaluator.class);
+    when(predicateEvaluator.getNumMatchingItems()).thenReturn(Integer.MIN_VALUE);
+    when(predicateEvaluator.getPredicateType()).thenReturn(Predicate.Type.RANGE);
+    when(predicateEvaluator.getPredicate()).thenReturn(
+        new RangePredicate(ExpressionContext.forIdentifier("col"), true, "100", false, "350", DataType.INT));
+    assertEquals(FilterSelectivityEstimator.estimateSelectivityFromMetadata(predicateEvaluator, dataSource), 0.25,
+        DELTA);
+    when(predicateEvaluator.getPredicate()).thenReturn(
+        new RangePredicate(ExpressionContext.forIdentifier("col"), false, RangePredicate.UNBOUNDED, true, "-1",
+            DataType.INT));
+    assertEquals(FilterSelectivityEstimator.estimateSelectivityFromMetadata(predicateEvaluator, dataSource), 0.0,
+        DELTA);
+
+    // Cannot be estimated
+    when(predicateEvaluator.getPredicateType()).thenReturn(Predicate.Type.REGEXP_LIKE);
+    assertEquals(FilterSelectivityEstimator.estimateSelectivityFromMetadata(predicateEvaluator, dataSource),
+        FilterSelectivityEstimator.DEFAULT_SELECTIVITY);
+  }
+
+  @Test
+  public void testObservedSelectivity() {
+    DataSource dataSource = mock(DataSource.class);
+    Predicate predicate = new EqPredicate(ExpressionContext.forIdentifier("col"), "foo");
+    assertNull(FilterSelectivityEstimator.getObservedSelectivity(dataSource, predicate));
+
+    // Too few documents scanned
+    long numDocsScanned = FilterSelectivityEstimator.MIN_NUM_DOCS_SCANNED_FOR_FEEDBACK;
+    FilterSelectivityEstimator.recordObservedSelectivity(dataSource, predicate, numDocsScanned - 1, 0);
+    assertNull(FilterSelectivityEstimator.getObservedSelectivity(dataSource, predicate));
+
+    FilterSelectivityEstimator.getScanStatsListener(dataSource, predicate)
+        .onScanFinished(numDocsScanned, numDocsScanned / 10);
+    assertEquals(FilterSelectivityEstimator.getObservedSelectivity(dataSource, predicate), 0.1, DELTA);
+
+    // Averaged with the previous observation
+    FilterSelectivityEstimator.recordObservedSelectivity(dataSource, predicate, numDocsScanned,
+        numDocsScanned * 3 / 10);
+    assertEquals(FilterSelectivityEstimator.getObservedSelectivity(dataSource, predicate), 0.2, DELTA);
+
+    // Observed selectivity is tracked per data source and predicate
+    assertNull(FilterSelectivityEstimator.getObservedSelectivity(mock(DataSource.class), predicate));
+    assertNull(FilterSelectivityEstimator.getObservedSelectivity(dataSource,
+        new EqPredicate(ExpressionContext.forIdentifier("col"), "bar")));
+  }
+
+  private static BitmapBasedFilterOperator getBitmapBasedFilterOperator(int numMatchingDocs, boolean exclusive) {
+    MutableRoaringBitmap docIds = new MutableRoaringBitmap();
+    docIds.add(0L, numMatchingDocs);
+    return new BitmapBasedFilterOperator(docIds, exclusive, NUM_DOCS);
+  }
+}
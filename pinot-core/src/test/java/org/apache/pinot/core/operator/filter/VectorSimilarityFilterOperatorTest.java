@@ -0,0 +1,94 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.operator.filter;
+
+import java.util.Collections;
+import org.apache.pinot.common.request.context.ExpressionContext;
+import org.apache.pinot.common.request.context.predicate.VectorSimilarityPredicate;
+import org.apache.pinot.segment.spi.index.reader.VectorIndexReader;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
+import org.roaringbitmap.buffer.MutableRoaringBitmap;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+public class VectorSimilarityFilterOperatorTest {
+  private static final int NUM_DOCS = 40;
+  private static final VectorSimilarityPredicate PREDICATE =
+      new VectorSimilarityPredicate(ExpressionContext.forIdentifier("embedding"), new float[]{1.0f, 2.0f}, 3);
+
+  @Test
+  public void testWithoutPrefilter() {
+    VectorSimilarityFilterOperator operator =
+        new VectorSimilarityFilterOperator(new TestVectorIndexReader(), PREDICATE, NUM_DOCS);
+    Assert.assertEquals(operator.getBitmaps().reduce(), ImmutableRoaringBitmap.bitmapOf(0, 1, 2));
+    Assert.assertEquals(operator.getChildOperators(), Collections.emptyList());
+    Assert.assertFalse(operator.toExplainString().contains("prefilter"));
+  }
+
+  @Test
+  public void testWithPrefilter() {
+    // Prefilter that can produce bitmaps
+    BaseFilterOperator prefilter =
+        new BitmapBasedFilterOperator(ImmutableRoaringBitmap.bitmapOf(5, 10, 15, 20, 25), false, NUM_DOCS);
+    VectorSimilarityFilterOperator operator =
+        new VectorSimilarityFilterOperator(new TestVectorIndexReader(), PREDICATE, prefilter, NUM_DOCS);
+    Assert.assertTrue(operator.isPrefilterSupported());
+    Assert.assertEquals(operator.getBitmaps().reduce(), ImmutableRoaringBitmap.bitmapOf(5, 10, 15));
+    Assert.assertEquals(operator.getNumMatchingDocs(), 3);
+    Assert.assertEquals(operator.getChildOperators(), Collections.singletonList(prefilter));
+    Assert.assertTrue(operator.toExplainString().contains("prefilter:true"));
+
+    // Prefilter that cannot produce bitmaps
+    prefilter = new TestFilterOperator(new int[]{7, 9, 30, 31}, NUM_DOCS);
+    operator = new VectorSimilarityFilterOperator(new TestVectorIndexReader(), PREDICATE, prefilter, NUM_DOCS);
+    Assert.assertEquals(operator.getBitmaps().reduce(), ImmutableRoaringBitmap.bitmapOf(7, 9, 30));
+  }
+
+  /**
+   * Returns the first top k documents (within the filter).
+   */
+  private static class TestVectorIndexReader implements VectorIndexReader {
+
+    @Override
+    public ImmutableRoaringBitmap getDocIds(float[] vector, int topK) {
+      return MutableRoaringBitmap.bitmapOf(0, 1, 2);
+    }
+
+    @Override
+    public boolean isPrefilterSupported() {
+      return true;
+    }
+
+    @Override
+    public ImmutableRoaringBitmap getDocIds(float[] vector, int topK, ImmutableRoaringBitmap filterBitmap) {
+      MutableRoaringBitmap docIds = new MutableRoaringBitmap();
+      filterBitmap.forEach((int docId) -> {
+        if (docIds.getCardinality() < topK) {
+          docIds.add(docId);
+        }
+      });
+      return docIds;
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+}
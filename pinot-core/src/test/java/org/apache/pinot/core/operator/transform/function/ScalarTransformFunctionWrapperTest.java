@@ -1156,4 +1156,31 @@ public class ScalarTransformFunctionWrapperTest extends BaseTransformFunctionTes
     }
     testTransformFunctionWithNull(transformFunction, expectedValues, bitmap);
   }
+
+  @Test
+  public void testPrimitiveBatchTransformFunction() {
+    // All non-literal arguments, where INT column is converted to DOUBLE
+    ExpressionContext expression = RequestContextUtils.getExpression(
+        String.format("positive_modulo(%s, %s)", DOUBLE_SV_COLUMN, INT_SV_COLUMN));
+    TransformFunction transformFunction = TransformFunctionFactory.get(expression, _dataSourceMap);
+    assertTrue(transformFunction instanceof ScalarTransformFunctionWrapper);
+    assertEquals(transformFunction.getName(), "positiveModulo");
+    double[] expectedDoubleValues = new double[NUM_ROWS];
+    for (int i = 0; i < NUM_ROWS; i++) {
+      double result = _doubleSVValues[i] % _intSVValues[i];
+      expectedDoubleValues[i] = result >= 0 ? result : result + Math.abs((double) _intSVValues[i]);
+    }
+    testTransformFunction(transformFunction, expectedDoubleValues);
+
+    // Literal argument
+    expression = RequestContextUtils.getExpression(String.format("to_epoch_seconds_rounded(%s, 10)", LONG_SV_COLUMN));
+    transformFunction = TransformFunctionFactory.get(expression, _dataSourceMap);
+    assertTrue(transformFunction instanceof ScalarTransformFunctionWrapper);
+    assertEquals(transformFunction.getName(), "toEpochSecondsRounded");
+    long[] expectedLongValues = new long[NUM_ROWS];
+    for (int i = 0; i < NUM_ROWS; i++) {
+      expectedLongValues[i] = _longSVValues[i] / 1000 / 10 * 10;
+    }
+    testTransformFunction(transformFunction, expectedLongValues);
+  }
 }
@@ -22,17 +22,15 @@ import java.io.File;
 import java.net.URL;
 import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
-import java.util.Objects;
-import java.util.Optional;
+import java.util.OptionalDouble;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.apache.commons.configuration2.PropertiesConfiguration;
 import org.apache.commons.io.FileUtils;
 import org.apache.helix.HelixManager;
@@ -232,8 +230,8 @@ public class QueryExecutorTest {
     TimeSeriesBlock timeSeriesBlock = TimeSeriesOperatorUtils.buildTimeSeriesBlock(timeBuckets,
         (AggregationResultsBlock) instanceResponse.getResultsBlock());
     assertEquals(timeSeriesBlock.getSeriesMap().size(), 1);
-    assertNull(timeSeriesBlock.getSeriesMap().values().iterator().next().get(0).getDoubleValues()[0]);
-    assertEquals(timeSeriesBlock.getSeriesMap().values().iterator().next().get(0).getDoubleValues()[1], 29885544.0);
+    assertNull(timeSeriesBlock.getSeriesMap().values().iterator().next().get(0).getDoubleValue(0));
+    assertEquals(timeSeriesBlock.getSeriesMap().values().iterator().next().get(0).getDoubleValue(1), 29885544.0);
   }
 
   @Test
@@ -256,10 +254,10 @@ public class QueryExecutorTest {
       if (timeSeries.getTagValues()[0].equals("New York")) {
         assertFalse(foundNewYork, "Found multiple time-series for New York");
         foundNewYork = true;
-        Optional<Double> maxValue =
-            Arrays.stream(timeSeries.getDoubleValues()).filter(Objects::nonNull).max(Comparator.naturalOrder());
+        OptionalDouble maxValue = IntStream.range(0, timeSeries.getNumValues()).filter(i -> !timeSeries.isNull(i))
+            .mapToDouble(i -> timeSeries.getDoubleValues()[i]).max();
         assertTrue(maxValue.isPresent());
-        assertEquals(maxValue.get().longValue(), 4L);
+        assertEquals((long) maxValue.getAsDouble(), 4L);
       }
     }
     assertTrue(foundNewYork, "Did not find the expected time-series");
@@ -285,10 +283,10 @@ public class QueryExecutorTest {
       if (timeSeries.getTagValues()[0].equals("Chicago")) {
         assertFalse(foundChicago, "Found multiple time-series for Chicago");
         foundChicago = true;
-        Optional<Double> minValue =
-            Arrays.stream(timeSeries.getDoubleValues()).filter(Objects::nonNull).min(Comparator.naturalOrder());
+        OptionalDouble minValue = IntStream.range(0, timeSeries.getNumValues()).filter(i -> !timeSeries.isNull(i))
+            .mapToDouble(i -> timeSeries.getDoubleValues()[i]).min();
         assertTrue(minValue.isPresent());
-        assertEquals(minValue.get().longValue(), 0L);
+        assertEquals((long) minValue.getAsDouble(), 0L);
       }
     }
     assertTrue(foundChicago, "Did not find the expected time-series");
@@ -0,0 +1,109 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.query.scheduler.deadline;
+
+import org.apache.pinot.common.metrics.ServerMetrics;
+import org.apache.pinot.spi.metrics.PinotMetricUtils;
+import org.testng.annotations.Test;
+
+import static org.apache.pinot.core.query.scheduler.TestHelper.createServerQueryRequest;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+
+public class DeadlineSchedulerGroupTest {
+  private static final ServerMetrics METRICS = new ServerMetrics(PinotMetricUtils.getPinotMetricsRegistry());
+
+  private static DeadlineQueryContext createQuery(long arrivalTimeMs, long timeoutMs, long expectedCostMs,
+      DeadlineOrdering ordering) {
+    return new DeadlineQueryContext(createServerQueryRequest("testTable", METRICS, arrivalTimeMs), 1.0,
+        arrivalTimeMs + timeoutMs, expectedCostMs, ordering);
+  }
+
+  @Test
+  public void testOrdering() {
+    // Heavy scan arrived first, cheap lookup arrived later with a shorter timeout
+    DeadlineSchedulerGroup group = new DeadlineSchedulerGroup("edf");
+    DeadlineQueryContext heavy = createQuery(1000, 10_000, 5000, DeadlineOrdering.EDF);
+    DeadlineQueryContext cheap = createQuery(2000, 1000, 10, DeadlineOrdering.EDF);
+    group.addLast(heavy);
+    group.addLast(cheap);
+    assertEquals(group.numPending(), 2);
+    assertSame(group.peekFirst(), cheap);
+    assertSame(group.removeFirst(), cheap);
+    assertSame(group.removeFirst(), heavy);
+    assertTrue(group.isEmpty());
+
+    // Least slack runs the heavy scan first when it has less slack: 11000 - 9500 < 4000 - 10
+    group = new DeadlineSchedulerGroup("leastSlack");
+    heavy = createQuery(1000, 10_000, 9500, DeadlineOrdering.LEAST_SLACK);
+    cheap = createQuery(2000, 2000, 10, DeadlineOrdering.LEAST_SLACK);
+    group.addLast(cheap);
+    group.addLast(heavy);
+    assertSame(group.removeFirst(), heavy);
+    assertSame(group.removeFirst(), cheap);
+
+    // Shortest job first
+    group = new DeadlineSchedulerGroup("sjf");
+    heavy = createQuery(1000, 1000, 500, DeadlineOrdering.SJF);
+    cheap = createQuery(2000, 10_000, 10, DeadlineOrdering.SJF);
+    group.addLast(heavy);
+    group.addLast(cheap);
+    assertSame(group.removeFirst(), cheap);
+    assertSame(group.removeFirst(), heavy);
+
+    // Expired queries are not trimmed silently
+    group.addLast(heavy);
+    group.trimExpired(Long.MAX_VALUE);
+    assertEquals(group.numPending(), 1);
+  }
+
+  @Test
+  public void testCompare() {
+    DeadlineSchedulerGroup lhs = new DeadlineSchedulerGroup("one");
+    DeadlineSchedulerGroup rhs = new DeadlineSchedulerGroup("two");
+    assertEquals(lhs.compareTo(lhs), 0);
+    assertEquals(lhs.compareTo(null), 1);
+
+    // Both groups are empty
+    assertNull(lhs.peekFirst());
+    assertEquals(lhs.compareTo(rhs), 0);
+
+    lhs.addLast(createQuery(1000, 10_000, 100, DeadlineOrdering.EDF));
+    assertEquals(lhs.compareTo(rhs), 1);
+    assertEquals(rhs.compareTo(lhs), -1);
+
+    // Group with the earlier deadline wins even though its query arrived later
+    rhs.addLast(createQuery(2000, 1000, 100, DeadlineOrdering.EDF));
+    assertTrue(rhs.compareTo(lhs) > 0);
+    assertTrue(lhs.compareTo(rhs) < 0);
+  }
+
+  @Test
+  public void testCanMeetDeadline() {
+    DeadlineQueryContext query = createQuery(1000, 1000, 400, DeadlineOrdering.LEAST_SLACK);
+    assertTrue(query.canMeetDeadline(1500, 1.0));
+    assertFalse(query.canMeetDeadline(1700, 1.0));
+    assertTrue(query.canMeetDeadline(1700, 0.5));
+    assertFalse(query.canMeetDeadline(2000, 0.0));
+  }
+}
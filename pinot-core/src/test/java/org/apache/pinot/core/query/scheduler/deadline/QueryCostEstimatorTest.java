@@ -0,0 +1,74 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.core.query.scheduler.deadline;
+
+import org.apache.pinot.core.query.request.context.QueryContext;
+import org.apache.pinot.core.query.request.context.utils.QueryContextConverterUtils;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+
+
+public class QueryCostEstimatorTest {
+
+  private static double getFilterFactor(String query) {
+    QueryContext queryContext = QueryContextConverterUtils.getQueryContext(query);
+    return QueryCostEstimator.getFilterFactor(queryContext.getFilter());
+  }
+
+  @Test
+  public void testFilterFactor() {
+    assertEquals(getFilterFactor("SELECT * FROM testTable"), QueryCostEstimator.FULL_SCAN_FACTOR);
+    assertEquals(getFilterFactor("SELECT * FROM testTable WHERE a = 1"), QueryCostEstimator.POINT_LOOKUP_FACTOR);
+    assertEquals(getFilterFactor("SELECT * FROM testTable WHERE a IN (1, 2)"),
+        QueryCostEstimator.POINT_LOOKUP_FACTOR);
+    assertEquals(getFilterFactor("SELECT * FROM testTable WHERE a > 1"), QueryCostEstimator.RANGE_FACTOR);
+    assertEquals(getFilterFactor("SELECT * FROM testTable WHERE a <> 1"), QueryCostEstimator.FULL_SCAN_FACTOR);
+    assertEquals(getFilterFactor("SELECT * FROM testTable WHERE REGEXP_LIKE(b, 'foo.*')"),
+        QueryCostEstimator.FULL_SCAN_FACTOR);
+
+    // AND reads as much as its most selective child, OR reads the sum of its children
+    assertEquals(getFilterFactor("SELECT * FROM testTable WHERE a = 1 AND b > 2"),
+        QueryCostEstimator.POINT_LOOKUP_FACTOR);
+    assertEquals(getFilterFactor("SELECT * FROM testTable WHERE a = 1 OR b > 2"),
+        QueryCostEstimator.POINT_LOOKUP_FACTOR + QueryCostEstimator.RANGE_FACTOR, 1e-9);
+    assertEquals(getFilterFactor("SELECT * FROM testTable WHERE a > 1 OR b > 2 OR c > 3"),
+        QueryCostEstimator.FULL_SCAN_FACTOR);
+    assertEquals(getFilterFactor("SELECT * FROM testTable WHERE NOT a = 1"), QueryCostEstimator.FULL_SCAN_FACTOR);
+  }
+
+  @Test
+  public void testEstimateCost() {
+    QueryCostEstimator estimator = new QueryCostEstimator(2.0);
+    assertEquals(QueryCostEstimator.getNumCostUnits(10, null), 10.0);
+    assertEquals(QueryCostEstimator.getNumCostUnits(0, null), 1.0);
+
+    // Tables without history use the default cost
+    assertEquals(estimator.estimateCostMs("table1_OFFLINE", 10.0), 20);
+    assertEquals(estimator.estimateCostMs("table2_OFFLINE", 10.0), 20);
+
+    // First execution sets the cost of the table, the following ones are averaged
+    estimator.recordExecution("table1_OFFLINE", 10.0, 100);
+    assertEquals(estimator.estimateCostMs("table1_OFFLINE", 10.0), 100);
+    assertEquals(estimator.estimateCostMs("table1_OFFLINE", 1.0), 10);
+    estimator.recordExecution("table1_OFFLINE", 10.0, 200);
+    assertEquals(estimator.estimateCostMs("table1_OFFLINE", 10.0), 120);
+    assertEquals(estimator.estimateCostMs("table2_OFFLINE", 10.0), 20);
+  }
+}
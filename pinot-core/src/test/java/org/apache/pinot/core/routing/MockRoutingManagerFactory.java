@@ -56,6 +56,7 @@ public class MockRoutingManagerFactory {
   private final Map<String, ServerInstance> _serverInstances;
   private final Map<String, Map<String, List<ServerInstance>>> _tableSegmentServersMap;
   private final Set<String> _disabledTables;
+  private final Map<String, TableStatistics> _tableStatisticsMap;
 
   public MockRoutingManagerFactory(int... ports) {
     _tableNameMap = new HashMap<>();
@@ -64,6 +65,7 @@ public class MockRoutingManagerFactory {
     _serverInstances = new HashMap<>();
     _tableSegmentServersMap = new HashMap<>();
     _disabledTables = new HashSet<>();
+    _tableStatisticsMap = new HashMap<>();
     for (int port : ports) {
       _serverInstances.put(toHostname(port), getServerInstance(HOST_NAME, port, port, port, port));
     }
@@ -97,6 +99,10 @@ public class MockRoutingManagerFactory {
     _disabledTables.add(tableNameWithType);
   }
 
+  public void registerTableStatistics(TableStatistics tableStatistics) {
+    _tableStatisticsMap.put(tableStatistics.getTableNameWithType(), tableStatistics);
+  }
+
   public RoutingManager buildRoutingManager(
       @Nullable Map<String, TablePartitionReplicatedServersInfo> partitionInfoMap) {
     int numTables = _tableSegmentServersMap.size();
@@ -147,7 +153,7 @@ public class MockRoutingManagerFactory {
       }
     }
     return new FakeRoutingManager(routingTableMap, tableSegmentsMap, _hybridTables, _disabledTables, partitionInfoMap,
-        _serverInstances, tablePartitionInfoMap);
+        _serverInstances, tablePartitionInfoMap, _tableStatisticsMap);
   }
 
   public TableCache buildTableCache() {
@@ -199,11 +205,13 @@ public class MockRoutingManagerFactory {
     @Nullable
     private final Map<String, TablePartitionInfo> _partitionInfoMap;
     private final Map<String, ServerInstance> _serverInstances;
+    private final Map<String, TableStatistics> _tableStatisticsMap;
 
     public FakeRoutingManager(Map<String, RoutingTable> routingTableMap, Map<String, List<String>> segmentsMap,
         Set<String> hybridTables, Set<String> disabledTables,
         @Nullable Map<String, TablePartitionReplicatedServersInfo> partitionReplicatedServersInfoMap,
-        Map<String, ServerInstance> serverInstances, @Nullable Map<String, TablePartitionInfo> partitionInfoMap) {
+        Map<String, ServerInstance> serverInstances, @Nullable Map<String, TablePartitionInfo> partitionInfoMap,
+        Map<String, TableStatistics> tableStatisticsMap) {
       _segmentsMap = segmentsMap;
       _routingTableMap = routingTableMap;
       _hybridTables = hybridTables;
@@ -211,6 +219,7 @@ public class MockRoutingManagerFactory {
       _serverInstances = serverInstances;
       _disabledTables = disabledTables;
       _partitionInfoMap = partitionInfoMap;
+      _tableStatisticsMap = tableStatisticsMap;
     }
 
     @Override
@@ -273,5 +282,11 @@ public class MockRoutingManagerFactory {
     public boolean isTableDisabled(String tableNameWithType) {
       return _disabledTables.contains(tableNameWithType);
     }
+
+    @Nullable
+    @Override
+    public TableStatistics getTableStatistics(String tableNameWithType) {
+      return _tableStatisticsMap.get(tableNameWithType);
+    }
   }
 }
@@ -667,6 +667,73 @@ public class SegmentProcessorFrameworkTest {
     rewindRecordReaders(_multipleSegments);
   }
 
+  @Test
+  public void testMultipleSegmentsWithMultipleThreads()
+      throws Exception {
+    File workingDir = new File(TEMP_DIR, "multiple_segments_multiple_threads_output");
+    FileUtils.forceMkdir(workingDir);
+
+    // Default configs
+    SegmentProcessorConfig config =
+        new SegmentProcessorConfig.Builder().setTableConfig(_tableConfig).setSchema(_schema).setNumThreads(4).build();
+    SegmentProcessorFramework framework = new SegmentProcessorFramework(_multipleSegments, config, workingDir);
+    List<File> outputSegments = framework.process();
+    assertEquals(outputSegments.size(), 1);
+    String[] outputDirs = workingDir.list();
+    assertTrue(outputDirs != null && outputDirs.length == 1, Arrays.toString(outputDirs));
+    SegmentMetadata segmentMetadata = new SegmentMetadataImpl(outputSegments.get(0));
+    assertEquals(segmentMetadata.getTotalDocs(), 10);
+    assertEquals(segmentMetadata.getName(), "myTable_1597719600000_1597892400000_0");
+    FileUtils.cleanDirectory(workingDir);
+    rewindRecordReaders(_multipleSegments);
+
+    // Time round, partition, rollup with memory budget smaller than a partition, so that partitions are processed one
+    // at a time
+    config = new SegmentProcessorConfig.Builder().setTableConfig(_tableConfig).setSchema(_schema).setTimeHandlerConfig(
+            new TimeHandlerConfig.Builder(TimeHandler.Type.EPOCH).setRoundBucketMs(86400000)
+                .setPartitionBucketMs(86400000).build()).setMergeType(MergeType.ROLLUP).setNumThreads(4)
+        .setMemoryBudgetInBytes(1).build();
+    framework = new SegmentProcessorFramework(_multipleSegments, config, workingDir);
+    outputSegments = framework.process();
+    assertEquals(outputSegments.size(), 3);
+    outputDirs = workingDir.list();
+    assertTrue(outputDirs != null && outputDirs.length == 1, Arrays.toString(outputDirs));
+    outputSegments.sort(null);
+    segmentMetadata = new SegmentMetadataImpl(outputSegments.get(0));
+    assertEquals(segmentMetadata.getTotalDocs(), 2);
+    assertEquals(segmentMetadata.getName(), "myTable_1597708800000_1597708800000_0");
+    segmentMetadata = new SegmentMetadataImpl(outputSegments.get(1));
+    assertEquals(segmentMetadata.getTotalDocs(), 3);
+    assertEquals(segmentMetadata.getName(), "myTable_1597795200000_1597795200000_1");
+    segmentMetadata = new SegmentMetadataImpl(outputSegments.get(2));
+    assertEquals(segmentMetadata.getTotalDocs(), 2);
+    assertEquals(segmentMetadata.getName(), "myTable_1597881600000_1597881600000_2");
+    FileUtils.cleanDirectory(workingDir);
+    rewindRecordReaders(_multipleSegments);
+
+    // Time round, partition, rollup with multiple segments per partition, where the sequence ids should be assigned in
+    // the order of the partitions
+    config = new SegmentProcessorConfig.Builder().setTableConfig(_tableConfig).setSchema(_schema).setTimeHandlerConfig(
+            new TimeHandlerConfig.Builder(TimeHandler.Type.EPOCH).setRoundBucketMs(86400000)
+                .setPartitionBucketMs(86400000).build()).setMergeType(MergeType.ROLLUP)
+        .setSegmentConfig(new SegmentConfig.Builder().setMaxNumRecordsPerSegment(2).build()).setNumThreads(4).build();
+    framework = new SegmentProcessorFramework(_multipleSegments, config, workingDir);
+    outputSegments = framework.process();
+    assertEquals(outputSegments.size(), 4);
+    int[] expectedNumDocs = new int[]{2, 2, 1, 2};
+    String[] expectedTimeRanges = new String[]{
+        "1597708800000_1597708800000", "1597795200000_1597795200000", "1597795200000_1597795200000",
+        "1597881600000_1597881600000"
+    };
+    for (int i = 0; i < 4; i++) {
+      segmentMetadata = new SegmentMetadataImpl(outputSegments.get(i));
+      assertEquals(segmentMetadata.getTotalDocs(), expectedNumDocs[i]);
+      assertEquals(segmentMetadata.getName(), "myTable_" + expectedTimeRanges[i] + "_" + i);
+    }
+    FileUtils.cleanDirectory(workingDir);
+    rewindRecordReaders(_multipleSegments);
+  }
+
   @Test
   public void testConfigurableMapperOutputSize()
       throws Exception {
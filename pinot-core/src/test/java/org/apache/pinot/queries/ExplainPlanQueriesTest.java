@@ -1132,6 +1132,37 @@ public class ExplainPlanQueriesTest extends BaseQueriesTest {
     check(query3, new ResultTable(DATA_SCHEMA, result3));
   }
 
+  /** Test case for SQL statements with AND filter ordered by the estimated selectivity. */
+  @Test
+  public void testSelectColumnsUsingFilterReorderedBySelectivity() {
+    // Segment 3 results in an EmptyFilterOperator as the invertedIndexCol1 doesn't have the value 1.1 in it, and
+    // 'noIndexCol1 > 1' is removed from the segments where it matches all the rows.
+    // The index-based filters are ordered by the estimated selectivity before the scan-based filter, and the estimated
+    // selectivity of each child is shown in the FILTER_AND.
+    // Since verbose mode is disabled, the deepest plan is returned.
+    String query1 = "SET filterSelectivityReorder=true; EXPLAIN PLAN FOR SELECT noIndexCol1, invertedIndexCol1, "
+        + "sortedIndexCol1 FROM testTable WHERE noIndexCol1 > 1 AND invertedIndexCol1 = 1.1 "
+        + "AND sortedIndexCol1 = 100.1 LIMIT 100";
+    List<Object[]> result1 = new ArrayList<>();
+    result1.add(new Object[]{"BROKER_REDUCE(limit:100)", 1, 0});
+    result1.add(new Object[]{"COMBINE_SELECT", 2, 1});
+    result1.add(new Object[]{
+        "PLAN_START(numSegmentsForThisPlan:1)", ExplainPlanRows.PLAN_START_IDS, ExplainPlanRows.PLAN_START_IDS
+    });
+    result1.add(new Object[]{"SELECT(selectList:noIndexCol1, invertedIndexCol1, sortedIndexCol1)", 3, 2});
+    result1.add(new Object[]{"PROJECT(sortedIndexCol1, invertedIndexCol1, noIndexCol1)", 4, 3});
+    result1.add(new Object[]{"DOC_ID_SET", 5, 4});
+    result1.add(new Object[]{"FILTER_AND(estimatedSelectivities:[0.3333, 0.3333, 0.3333])", 6, 5});
+    result1.add(new Object[]{
+        "FILTER_INVERTED_INDEX(indexLookUp:inverted_index,operator:EQ,predicate:invertedIndexCol1 = '1.1')", 7, 6
+    });
+    result1.add(new Object[]{
+        "FILTER_SORTED_INDEX(indexLookUp:sorted_index,operator:EQ,predicate:sortedIndexCol1 = '100.1')", 8, 6
+    });
+    result1.add(new Object[]{"FILTER_FULL_SCAN(operator:RANGE,predicate:noIndexCol1 > '1')", 9, 6});
+    check(query1, new ResultTable(DATA_SCHEMA, result1));
+  }
+
   /** Test case for SQL statements with filter that involves range index access. */
   @Test
   public void testSelectColumnUsingFilterOnRangeIndexColumn() {
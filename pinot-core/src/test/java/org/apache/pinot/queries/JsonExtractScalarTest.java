@@ -21,6 +21,7 @@ package org.apache.pinot.queries;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 import org.apache.pinot.spi.config.table.FieldConfig;
 import org.apache.pinot.spi.config.table.TableConfig;
 import org.apache.pinot.spi.config.table.TableType;
@@ -32,6 +33,7 @@ import org.testng.annotations.Test;
 
 
 public class JsonExtractScalarTest extends BaseJsonQueryTest {
+  private static final String BINARY_JSON_COLUMN = "binaryJsonColumn";
 
   private static final Schema SCHEMA = new Schema.SchemaBuilder().setSchemaName(RAW_TABLE_NAME)
       .addSingleValueDimension(INT_COLUMN, FieldSpec.DataType.INT)
@@ -39,6 +41,7 @@ public class JsonExtractScalarTest extends BaseJsonQueryTest {
       .addSingleValueDimension(STRING_COLUMN, FieldSpec.DataType.STRING)
       .addSingleValueDimension(JSON_COLUMN, FieldSpec.DataType.JSON)
       .addSingleValueDimension(RAW_JSON_COLUMN, FieldSpec.DataType.JSON)
+      .addSingleValueDimension(BINARY_JSON_COLUMN, FieldSpec.DataType.JSON)
       .addSingleValueDimension(RAW_BYTES_COLUMN, FieldSpec.DataType.BYTES)
       .addSingleValueDimension(RAW_STRING_COLUMN, FieldSpec.DataType.STRING)
       .addSingleValueDimension(DICTIONARY_BYTES_COLUMN, FieldSpec.DataType.BYTES)
@@ -47,6 +50,8 @@ public class JsonExtractScalarTest extends BaseJsonQueryTest {
 
   private static final FieldConfig RAW_JSON_COLUMN_CONFIG = new FieldConfig(RAW_JSON_COLUMN,
       FieldConfig.EncodingType.RAW, ImmutableList.of(), FieldConfig.CompressionCodec.LZ4, ImmutableMap.of());
+  private static final FieldConfig BINARY_JSON_COLUMN_CONFIG = new FieldConfig(BINARY_JSON_COLUMN,
+      FieldConfig.EncodingType.RAW, ImmutableList.of(), FieldConfig.CompressionCodec.BINARY_JSON, ImmutableMap.of());
   private static final FieldConfig RAW_BYTES_COLUMN_CONFIG = new FieldConfig(RAW_BYTES_COLUMN,
       FieldConfig.EncodingType.RAW, ImmutableList.of(), FieldConfig.CompressionCodec.LZ4, ImmutableMap.of());
   private static final FieldConfig RAW_STRING_COLUMN_CONFIG = new FieldConfig(RAW_STRING_COLUMN,
@@ -55,7 +60,8 @@ public class JsonExtractScalarTest extends BaseJsonQueryTest {
   private static final TableConfig TABLE_CONFIG =
       new TableConfigBuilder(TableType.OFFLINE).setTableName(RAW_TABLE_NAME)
           .setFieldConfigList(
-              ImmutableList.of(RAW_JSON_COLUMN_CONFIG, RAW_BYTES_COLUMN_CONFIG, RAW_STRING_COLUMN_CONFIG))
+              ImmutableList.of(RAW_JSON_COLUMN_CONFIG, BINARY_JSON_COLUMN_CONFIG, RAW_BYTES_COLUMN_CONFIG,
+                  RAW_STRING_COLUMN_CONFIG))
           .build();
 
   GenericRow createRecord(int intValue, long longValue, String stringValue, String jsonValue) {
@@ -65,6 +71,7 @@ public class JsonExtractScalarTest extends BaseJsonQueryTest {
     record.putValue(STRING_COLUMN, stringValue);
     record.putValue(JSON_COLUMN, jsonValue);
     record.putValue(RAW_JSON_COLUMN, jsonValue);
+    record.putValue(BINARY_JSON_COLUMN, jsonValue);
     record.putValue(JSON_COLUMN_WITHOUT_INDEX, jsonValue);
     record.putValue(RAW_BYTES_COLUMN, jsonValue.getBytes(StandardCharsets.UTF_8));
     record.putValue(DICTIONARY_BYTES_COLUMN, jsonValue.getBytes(StandardCharsets.UTF_8));
@@ -171,4 +178,24 @@ public class JsonExtractScalarTest extends BaseJsonQueryTest {
             + "limit 4",
         new Object[][]{{15, Long.MAX_VALUE}, {16, Long.MIN_VALUE}, {17, -100L}, {18, 1000L}});
   }
+
+  @Test
+  public void testBinaryJsonColumn() {
+    // Results should be the same as the string stored JSON column for both the natively read and the fallback paths
+    String[] queries = {
+        "SELECT jsonextractscalar(%s, '$.name.last', 'STRING') FROM testTable LIMIT 3",
+        "SELECT jsonextractscalar(%s, '$.longVal', 'LONG', 0) FROM testTable LIMIT 20",
+        "SELECT jsonextractscalar(%s, '$.data[0].e[2].z[0].i1', 'STRING', 'null') FROM testTable",
+        "SELECT jsonextractscalar(%s, '$.data[*].e[*].z', 'STRING', 'null') FROM testTable",
+        "SELECT jsonextractkey(%s, '$.*') FROM testTable LIMIT 5"
+    };
+    for (String query : queries) {
+      List<Object[]> expecteds =
+          getBrokerResponseForOptimizedQuery(String.format(query, RAW_JSON_COLUMN), TABLE_CONFIG, SCHEMA)
+              .getResultTable().getRows();
+      QueriesTestUtils.testInterSegmentsResult(
+          getBrokerResponseForOptimizedQuery(String.format(query, BINARY_JSON_COLUMN), TABLE_CONFIG, SCHEMA),
+          expecteds);
+    }
+  }
 }
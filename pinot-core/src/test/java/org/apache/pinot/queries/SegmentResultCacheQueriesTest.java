@@ -0,0 +1,232 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.queries;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.common.metrics.ServerMeter;
+import org.apache.pinot.common.metrics.ServerMetrics;
+import org.apache.pinot.common.response.broker.BrokerResponseNative;
+import org.apache.pinot.core.plan.maker.InstancePlanMakerImplV2;
+import org.apache.pinot.core.query.executor.SegmentResultCache;
+import org.apache.pinot.segment.local.indexsegment.immutable.ImmutableSegmentLoader;
+import org.apache.pinot.segment.local.segment.creator.impl.SegmentIndexCreationDriverImpl;
+import org.apache.pinot.segment.local.segment.readers.GenericRowRecordReader;
+import org.apache.pinot.segment.spi.ImmutableSegment;
+import org.apache.pinot.segment.spi.IndexSegment;
+import org.apache.pinot.segment.spi.creator.SegmentGeneratorConfig;
+import org.apache.pinot.spi.config.table.TableConfig;
+import org.apache.pinot.spi.config.table.TableType;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.apache.pinot.spi.data.Schema;
+import org.apache.pinot.spi.data.readers.GenericRow;
+import org.apache.pinot.spi.utils.ReadMode;
+import org.apache.pinot.spi.utils.builder.TableConfigBuilder;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+
+/**
+ * Queries test for the segment level result cache, which should return the same results as the uncached execution.
+ */
+public class SegmentResultCacheQueriesTest extends BaseQueriesTest {
+  private static final File INDEX_DIR = new File(FileUtils.getTempDirectory(), "SegmentResultCacheQueriesTest");
+  private static final String RAW_TABLE_NAME = "testTable";
+  private static final String SEGMENT_NAME = "testSegment";
+  private static final int NUM_RECORDS = 1000;
+
+  private static final String INT_COLUMN = "intColumn";
+  private static final String LONG_COLUMN = "longColumn";
+  private static final String STRING_COLUMN = "stringColumn";
+  private static final Schema SCHEMA = new Schema.SchemaBuilder().addSingleValueDimension(INT_COLUMN, DataType.INT)
+      .addSingleValueDimension(LONG_COLUMN, DataType.LONG).addSingleValueDimension(STRING_COLUMN, DataType.STRING)
+      .build();
+  private static final TableConfig TABLE_CONFIG =
+      new TableConfigBuilder(TableType.OFFLINE).setTableName(RAW_TABLE_NAME).build();
+
+  private IndexSegment _indexSegment;
+  private List<IndexSegment> _indexSegments;
+  private ServerMetrics _serverMetrics;
+  private SegmentResultCache _segmentResultCache;
+  private InstancePlanMakerImplV2 _cachingPlanMaker;
+
+  @Override
+  protected String getFilter() {
+    return "";
+  }
+
+  @Override
+  protected IndexSegment getIndexSegment() {
+    return _indexSegment;
+  }
+
+  @Override
+  protected List<IndexSegment> getIndexSegments() {
+    return _indexSegments;
+  }
+
+  @BeforeClass
+  public void setUp()
+      throws Exception {
+    FileUtils.deleteDirectory(INDEX_DIR);
+
+    List<GenericRow> records = new ArrayList<>(NUM_RECORDS);
+    for (int i = 0; i < NUM_RECORDS; i++) {
+      GenericRow record = new GenericRow();
+      record.putValue(INT_COLUMN, i % 50);
+      record.putValue(LONG_COLUMN, (long) i);
+      record.putValue(STRING_COLUMN, "s" + (i % 7));
+      records.add(record);
+    }
+
+    SegmentGeneratorConfig segmentGeneratorConfig = new SegmentGeneratorConfig(TABLE_CONFIG, SCHEMA);
+    segmentGeneratorConfig.setTableName(RAW_TABLE_NAME);
+    segmentGeneratorConfig.setSegmentName(SEGMENT_NAME);
+    segmentGeneratorConfig.setOutDir(INDEX_DIR.getPath());
+
+    SegmentIndexCreationDriverImpl driver = new SegmentIndexCreationDriverImpl();
+    driver.init(segmentGeneratorConfig, new GenericRowRecordReader(records));
+    driver.build();
+
+    ImmutableSegment immutableSegment = ImmutableSegmentLoader.load(new File(INDEX_DIR, SEGMENT_NAME), ReadMode.mmap);
+    _indexSegment = immutableSegment;
+    _indexSegments = Arrays.asList(immutableSegment, immutableSegment);
+  }
+
+  @BeforeMethod
+  public void setUpCache() {
+    _serverMetrics = mock(ServerMetrics.class);
+    _segmentResultCache = new SegmentResultCache(10_000_000L, _serverMetrics);
+    _cachingPlanMaker = new InstancePlanMakerImplV2();
+    _cachingPlanMaker.setSegmentResultCache(_segmentResultCache);
+  }
+
+  @DataProvider
+  public static Object[][] cacheableQueries() {
+    return new Object[][]{
+        new Object[]{"SELECT COUNT(*), SUM(longColumn), MAX(intColumn) FROM testTable WHERE intColumn > 10"},
+        new Object[]{"SELECT DISTINCTCOUNT(stringColumn), AVG(longColumn), PERCENTILE(longColumn, 90) "
+            + "FROM testTable"},
+        new Object[]{"SELECT COUNT(*) FILTER(WHERE stringColumn = 's1'), MINMAXRANGE(longColumn) FROM testTable"},
+        new Object[]{"SELECT stringColumn, COUNT(*), DISTINCTCOUNT(intColumn) FROM testTable GROUP BY stringColumn "
+            + "ORDER BY COUNT(*) DESC, stringColumn LIMIT 10"},
+        new Object[]{"SET minSegmentGroupTrimSize = 5; SELECT intColumn, SUM(longColumn) FROM testTable "
+            + "GROUP BY intColumn ORDER BY SUM(longColumn) DESC LIMIT 3"}
+    };
+  }
+
+  @Test(dataProvider = "cacheableQueries")
+  public void testCachedResultsMatchUncachedResults(String query) {
+    BrokerResponseNative expected = getBrokerResponse(query);
+
+    BrokerResponseNative firstResponse = getBrokerResponse(query, _cachingPlanMaker);
+    assertSameResults(firstResponse, expected);
+    assertEquals(_segmentResultCache.size(), 1);
+    verify(_serverMetrics, times(2)).addMeteredTableValue(RAW_TABLE_NAME, ServerMeter.SEGMENT_RESULT_CACHE_MISSES,
+        1L);
+
+    // Run twice to ensure the cached results are not modified by the combine operator
+    for (int i = 0; i < 2; i++) {
+      BrokerResponseNative cachedResponse = getBrokerResponse(query, _cachingPlanMaker);
+      assertSameResults(cachedResponse, expected);
+      assertEquals(cachedResponse.getNumDocsScanned(), expected.getNumDocsScanned());
+      assertEquals(cachedResponse.getNumEntriesScannedInFilter(), 0);
+      assertEquals(cachedResponse.getNumEntriesScannedPostFilter(), 0);
+    }
+    verify(_serverMetrics, times(4)).addMeteredTableValue(RAW_TABLE_NAME, ServerMeter.SEGMENT_RESULT_CACHE_HITS, 1L);
+  }
+
+  @Test
+  public void testCacheMissOnDifferentQueries() {
+    getBrokerResponse("SELECT COUNT(*) FROM testTable WHERE intColumn > 10", _cachingPlanMaker);
+    getBrokerResponse("SELECT COUNT(*) FROM testTable WHERE intColumn > 11", _cachingPlanMaker);
+    getBrokerResponse("SET enableNullHandling = true; SELECT COUNT(*) FROM testTable WHERE intColumn > 10",
+        _cachingPlanMaker);
+    assertEquals(_segmentResultCache.size(), 3);
+    // Query options that don't affect the segment level results should be ignored
+    getBrokerResponse("SET timeoutMs = 10000; SELECT COUNT(*) FROM testTable WHERE intColumn > 10", _cachingPlanMaker);
+    assertEquals(_segmentResultCache.size(), 3);
+    verify(_serverMetrics, times(2)).addMeteredTableValue(RAW_TABLE_NAME, ServerMeter.SEGMENT_RESULT_CACHE_HITS, 1L);
+  }
+
+  @Test
+  public void testNonCacheableQueries() {
+    getBrokerResponse("SELECT * FROM testTable LIMIT 10", _cachingPlanMaker);
+    getBrokerResponse("SELECT DISTINCT stringColumn FROM testTable LIMIT 10", _cachingPlanMaker);
+    assertEquals(_segmentResultCache.size(), 0);
+  }
+
+  @Test
+  public void testInvalidation() {
+    String query = "SELECT COUNT(*) FROM testTable WHERE intColumn > 10";
+    getBrokerResponse(query, _cachingPlanMaker);
+    assertEquals(_segmentResultCache.size(), 1);
+    assertEquals(_segmentResultCache.getNumSegments(), 1);
+    _segmentResultCache.invalidate(RAW_TABLE_NAME, "otherSegment");
+    assertEquals(_segmentResultCache.size(), 1);
+    assertEquals(_segmentResultCache.getNumSegments(), 1);
+    _segmentResultCache.invalidate(RAW_TABLE_NAME, SEGMENT_NAME);
+    assertEquals(_segmentResultCache.size(), 0);
+    assertEquals(_segmentResultCache.getNumSegments(), 0);
+  }
+
+  @Test
+  public void testEviction() {
+    SegmentResultCache segmentResultCache = new SegmentResultCache(16_000L, _serverMetrics);
+    InstancePlanMakerImplV2 planMaker = new InstancePlanMakerImplV2();
+    planMaker.setSegmentResultCache(segmentResultCache);
+    for (int i = 0; i < 100; i++) {
+      getBrokerResponse("SELECT COUNT(*) FROM testTable WHERE intColumn > " + i, planMaker);
+    }
+    assertTrue(segmentResultCache.size() < 100);
+    verify(_serverMetrics, atLeastOnce()).addMeteredGlobalValue(
+        ServerMeter.SEGMENT_RESULT_CACHE_EVICTIONS, 1L);
+  }
+
+  private static void assertSameResults(BrokerResponseNative actual, BrokerResponseNative expected) {
+    assertTrue(actual.getExceptions().isEmpty(), actual.getExceptions().toString());
+    assertEquals(actual.getResultTable().getDataSchema(), expected.getResultTable().getDataSchema());
+    List<Object[]> actualRows = actual.getResultTable().getRows();
+    List<Object[]> expectedRows = expected.getResultTable().getRows();
+    assertEquals(actualRows.size(), expectedRows.size());
+    for (int i = 0; i < actualRows.size(); i++) {
+      assertEquals(actualRows.get(i), expectedRows.get(i));
+    }
+  }
+
+  @AfterClass
+  public void tearDown()
+      throws Exception {
+    _indexSegment.destroy();
+    FileUtils.deleteDirectory(INDEX_DIR);
+  }
+}
@@ -0,0 +1,190 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.perf;
+
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.Option;
+import com.jayway.jsonpath.ParseContext;
+import com.jayway.jsonpath.spi.json.JacksonJsonProvider;
+import com.jayway.jsonpath.spi.mapper.JacksonMappingProvider;
+import java.io.File;
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.segment.local.io.writer.impl.VarByteChunkForwardIndexWriterV4;
+import org.apache.pinot.segment.local.segment.creator.impl.fwd.BinaryJsonForwardIndexCreator;
+import org.apache.pinot.segment.local.segment.creator.impl.fwd.SingleValueVarByteRawIndexCreator;
+import org.apache.pinot.segment.local.segment.index.readers.forward.BinaryJsonForwardIndexReader;
+import org.apache.pinot.segment.local.segment.index.readers.forward.VarByteChunkForwardIndexReaderV4;
+import org.apache.pinot.segment.local.utils.BinaryJsonUtils;
+import org.apache.pinot.segment.spi.V1Constants;
+import org.apache.pinot.segment.spi.compression.ChunkCompressionType;
+import org.apache.pinot.segment.spi.index.ForwardIndexConfig;
+import org.apache.pinot.segment.spi.memory.PinotDataBuffer;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * Benchmark for reading a JSON path (as {@code jsonExtractScalar}) from a JSON column stored as JSON string (parsed
+ * with JsonPath for every row) vs stored with the {@code BINARY_JSON} compression codec (read directly from the binary
+ * document, or evaluated with JsonPath on the decoded document for the paths not supported natively).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@State(Scope.Benchmark)
+public class BenchmarkBinaryJsonForwardIndex {
+  private static final File INDEX_DIR = new File(FileUtils.getTempDirectory(), "BenchmarkBinaryJsonForwardIndex");
+  private static final String STRING_COLUMN = "stringJson";
+  private static final String BINARY_COLUMN = "binaryJson";
+  private static final String[] EVENT_TYPES = {"click", "view", "purchase", "share"};
+  private static final ParseContext JSON_PARSER_CONTEXT = JsonPath.using(
+      new Configuration.ConfigurationBuilder().jsonProvider(new JacksonJsonProvider())
+          .mappingProvider(new JacksonMappingProvider()).options(Option.SUPPRESS_EXCEPTIONS).build());
+
+  @Param("100000")
+  private int _numDocs;
+
+  @Param("10")
+  private int _numEvents;
+
+  @Param({"$.user.address.city", "$.events[5].type", "$.events[*].type"})
+  private String _jsonPath;
+
+  private PinotDataBuffer _stringDataBuffer;
+  private VarByteChunkForwardIndexReaderV4 _stringReader;
+  private PinotDataBuffer _binaryDataBuffer;
+  private BinaryJsonForwardIndexReader _binaryReader;
+  private JsonPath _compiledJsonPath;
+  private BinaryJsonUtils.Path _binaryJsonPath;
+
+  public static void main(String[] args)
+      throws Exception {
+    ChainedOptionsBuilder opt =
+        new OptionsBuilder().include(BenchmarkBinaryJsonForwardIndex.class.getSimpleName());
+    new Runner(opt.build()).run();
+  }
+
+  @Setup(Level.Trial)
+  public void setUp()
+      throws IOException {
+    FileUtils.forceMkdir(INDEX_DIR);
+    SplittableRandom random = new SplittableRandom(42);
+    String[] jsonStrings = new String[_numDocs];
+    int maxLength = 0;
+    for (int i = 0; i < _numDocs; i++) {
+      jsonStrings[i] = generateJson(random, i);
+      maxLength = Math.max(maxLength, jsonStrings[i].length());
+    }
+    try (SingleValueVarByteRawIndexCreator stringCreator = new SingleValueVarByteRawIndexCreator(INDEX_DIR,
+        ChunkCompressionType.LZ4, STRING_COLUMN, _numDocs, DataType.STRING, maxLength, false,
+        VarByteChunkForwardIndexWriterV4.VERSION, ForwardIndexConfig.getDefaultTargetMaxChunkSizeBytes(),
+        ForwardIndexConfig.getDefaultTargetDocsPerChunk());
+        BinaryJsonForwardIndexCreator binaryCreator = new BinaryJsonForwardIndexCreator(INDEX_DIR,
+            ChunkCompressionType.LZ4, BINARY_COLUMN, maxLength, ForwardIndexConfig.getDefaultTargetMaxChunkSizeBytes(),
+            ForwardIndexConfig.getDefaultTargetDocsPerChunk())) {
+      for (String jsonString : jsonStrings) {
+        stringCreator.putString(jsonString);
+        binaryCreator.putString(jsonString);
+      }
+    }
+    _stringDataBuffer = PinotDataBuffer.mapReadOnlyBigEndianFile(
+        new File(INDEX_DIR, STRING_COLUMN + V1Constants.Indexes.RAW_SV_FORWARD_INDEX_FILE_EXTENSION));
+    _stringReader = new VarByteChunkForwardIndexReaderV4(_stringDataBuffer, DataType.STRING, true);
+    _binaryDataBuffer = PinotDataBuffer.mapReadOnlyBigEndianFile(
+        new File(INDEX_DIR, BINARY_COLUMN + V1Constants.Indexes.RAW_SV_FORWARD_INDEX_FILE_EXTENSION));
+    _binaryReader = new BinaryJsonForwardIndexReader(_binaryDataBuffer);
+    _compiledJsonPath = JsonPath.compile(_jsonPath);
+    _binaryJsonPath = BinaryJsonUtils.compilePath(_jsonPath);
+  }
+
+  private String generateJson(SplittableRandom random, int docId) {
+    StringBuilder stringBuilder = new StringBuilder();
+    stringBuilder.append("{\"id\":").append(docId).append(",\"timestamp\":").append(1700000000000L + docId)
+        .append(",\"user\":{\"name\":\"user_").append(random.nextInt(10000)).append("\",\"age\":")
+        .append(random.nextInt(18, 80)).append(",\"address\":{\"street\":\"street_").append(random.nextInt(1000))
+        .append("\",\"city\":\"city_").append(random.nextInt(100)).append("\",\"zip\":\"")
+        .append(10000 + random.nextInt(90000)).append("\"}},\"events\":[");
+    for (int i = 0; i < _numEvents; i++) {
+      if (i > 0) {
+        stringBuilder.append(',');
+      }
+      stringBuilder.append("{\"type\":\"").append(EVENT_TYPES[random.nextInt(EVENT_TYPES.length)])
+          .append("\",\"value\":").append(random.nextDouble() * 100).append('}');
+    }
+    return stringBuilder.append("],\"active\":").append(random.nextBoolean()).append('}').toString();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown()
+      throws IOException {
+    _stringReader.close();
+    _stringDataBuffer.close();
+    _binaryReader.close();
+    _binaryDataBuffer.close();
+    FileUtils.deleteQuietly(INDEX_DIR);
+  }
+
+  @Benchmark
+  public void stringStorage(Blackhole bh)
+      throws IOException {
+    try (VarByteChunkForwardIndexReaderV4.ReaderContext context = _stringReader.createContext()) {
+      for (int i = 0; i < _numDocs; i++) {
+        bh.consume(JSON_PARSER_CONTEXT.parse(_stringReader.getString(i, context)).read(_compiledJsonPath));
+      }
+    }
+  }
+
+  @Benchmark
+  public void binaryStorage(Blackhole bh)
+      throws IOException {
+    try (VarByteChunkForwardIndexReaderV4.ReaderContext context = _binaryReader.createContext()) {
+      for (int i = 0; i < _numDocs; i++) {
+        byte[] binaryJson = _binaryReader.getBytes(i, context);
+        if (_binaryJsonPath != null) {
+          bh.consume(BinaryJsonUtils.read(binaryJson, _binaryJsonPath, false));
+        } else {
+          bh.consume(JSON_PARSER_CONTEXT.parse(BinaryJsonUtils.toJavaObject(binaryJson, false))
+              .read(_compiledJsonPath));
+        }
+      }
+    }
+  }
+}
@@ -34,6 +34,8 @@ import org.apache.commons.lang3.RandomStringUtils;
 import org.apache.pinot.common.utils.DataSchema;
 import org.apache.pinot.core.data.table.ConcurrentIndexedTable;
 import org.apache.pinot.core.data.table.IndexedTable;
+import org.apache.pinot.core.data.table.Key;
+import org.apache.pinot.core.data.table.PartitionedIndexedTable;
 import org.apache.pinot.core.data.table.Record;
 import org.apache.pinot.core.query.request.context.QueryContext;
 import org.apache.pinot.core.query.request.context.utils.QueryContextConverterUtils;
@@ -54,6 +56,7 @@ import org.openjdk.jmh.runner.options.OptionsBuilder;
 import org.openjdk.jmh.runner.options.TimeValue;
 
 
+@SuppressWarnings("unchecked")
 @State(Scope.Benchmark)
 @Fork(value = 1, jvmArgs = {"-server", "-Xmx8G", "-XX:MaxDirectMemorySize=16G"})
 public class BenchmarkCombineGroupBy {
@@ -147,6 +150,69 @@ public class BenchmarkCombineGroupBy {
     concurrentIndexedTable.finish(false);
   }
 
+  /**
+   * Simulates the partitioned combine, where each thread partitions its records into thread-local lists, then each
+   * partition is merged into the {@link PartitionedIndexedTable} by a single thread without locking.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public void partitionedIndexedTableForCombineGroupBy()
+      throws InterruptedException, ExecutionException, TimeoutException {
+    int trimSize = GroupByUtils.getTableCapacity(_queryContext.getLimit());
+    int numPartitions = Integer.highestOneBit(NUM_SEGMENTS * 4);
+
+    PartitionedIndexedTable partitionedIndexedTable =
+        new PartitionedIndexedTable(_dataSchema, false, _queryContext, trimSize, trimSize,
+            Server.DEFAULT_QUERY_EXECUTOR_GROUPBY_TRIM_THRESHOLD, numPartitions,
+            Server.DEFAULT_QUERY_EXECUTOR_MIN_INITIAL_INDEXED_TABLE_CAPACITY, _executorService);
+
+    // Each segment partitions the records into thread-local lists
+    List<List<Record>[]> segmentPartitions = new ArrayList<>(NUM_SEGMENTS);
+    List<Callable<Void>> innerSegmentCallables = new ArrayList<>(NUM_SEGMENTS);
+    for (int i = 0; i < NUM_SEGMENTS; i++) {
+      List<Record>[] partitions = new List[numPartitions];
+      for (int j = 0; j < numPartitions; j++) {
+        partitions[j] = new ArrayList<>();
+      }
+      segmentPartitions.add(partitions);
+      innerSegmentCallables.add(() -> {
+        for (int r = 0; r < NUM_RECORDS_PER_SEGMENT; r++) {
+          Record record = getRecord();
+          partitions[partitionedIndexedTable.getPartitionId(getKey(record).hashCode())].add(record);
+        }
+        return null;
+      });
+    }
+    for (Future<Void> future : _executorService.invokeAll(innerSegmentCallables)) {
+      future.get(30, TimeUnit.SECONDS);
+    }
+
+    // Each partition is merged by a single thread
+    List<Callable<Void>> partitionCallables = new ArrayList<>(numPartitions);
+    for (int i = 0; i < numPartitions; i++) {
+      int partitionId = i;
+      partitionCallables.add(() -> {
+        for (List<Record>[] partitions : segmentPartitions) {
+          for (Record record : partitions[partitionId]) {
+            partitionedIndexedTable.upsert(partitionId, getKey(record), record);
+          }
+        }
+        return null;
+      });
+    }
+    for (Future<Void> future : _executorService.invokeAll(partitionCallables)) {
+      future.get(30, TimeUnit.SECONDS);
+    }
+
+    partitionedIndexedTable.finish(false);
+  }
+
+  private static Key getKey(Record record) {
+    Object[] values = record.getValues();
+    return new Key(new Object[]{values[0], values[1]});
+  }
+
   public static void main(String[] args)
       throws Exception {
     ChainedOptionsBuilder opt =
@@ -0,0 +1,221 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.perf;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.pinot.common.request.context.FilterContext;
+import org.apache.pinot.core.query.request.context.utils.QueryContextConverterUtils;
+import org.apache.pinot.core.query.scheduler.deadline.DeadlineAwareQueryScheduler;
+import org.apache.pinot.core.query.scheduler.deadline.DeadlineOrdering;
+import org.apache.pinot.core.query.scheduler.deadline.QueryCostEstimator;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * Simulates the scheduling of a mixed workload on the query runner threads of a server, to compare the orderings of
+ * the {@link DeadlineAwareQueryScheduler} with and without shedding.
+ *
+ * The workload mixes cheap point lookups with a short timeout and heavy full scans with a long timeout, and the scans
+ * periodically arrive in bursts that overload the server. The simulation runs in virtual time, so the interesting
+ * outputs are the 'met', 'missed' and 'shed' counters (number of queries that completed before their deadline, after
+ * their deadline, or were shed), not the benchmark time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 1, time = 2)
+@Measurement(iterations = 3, time = 2)
+@State(Scope.Benchmark)
+public class BenchmarkDeadlineAwareScheduling {
+  private static final int NUM_QUERIES = 50_000;
+  private static final String LOOKUP_TABLE = "lookups_OFFLINE";
+  private static final String SCAN_TABLE = "scans_OFFLINE";
+  // Same as the default shed cost fraction of the scheduler
+  private static final double SHED_COST_FRACTION = 0.5;
+
+  @Param({"FCFS", "EDF", "LEAST_SLACK", "SJF"})
+  private DeadlineOrdering _ordering;
+
+  @Param({"false", "true"})
+  private boolean _shed;
+
+  @Param("8")
+  private int _numThreads;
+
+  private final List<SimulatedQuery> _queries = new ArrayList<>(NUM_QUERIES);
+
+  public static void main(String[] args)
+      throws Exception {
+    new Runner(new OptionsBuilder().include(BenchmarkDeadlineAwareScheduling.class.getSimpleName()).build()).run();
+  }
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    FilterContext lookupFilter =
+        QueryContextConverterUtils.getQueryContext("SELECT * FROM lookups WHERE id = 123").getFilter();
+    double lookupCostUnits = QueryCostEstimator.getNumCostUnits(10, lookupFilter);
+    double scanCostUnits = QueryCostEstimator.getNumCostUnits(100, null);
+    long timeMs = 0;
+    for (int i = 0; i < NUM_QUERIES; i++) {
+      // Scans arrive every 40ms on average (~5 threads busy), and every 8ms during the 1s bursts happening every 5s
+      // (~25 threads busy). Lookups arrive every 2ms on average (~2 threads busy).
+      boolean burst = timeMs % 5000 < 1000;
+      boolean scan = random.nextDouble() < (burst ? 0.2 : 0.05);
+      timeMs += (long) (-Math.log(1 - random.nextDouble()) * (burst ? 1.6 : 1.9));
+      if (scan) {
+        _queries.add(new SimulatedQuery(SCAN_TABLE, scanCostUnits, timeMs, timeMs + 2000, 100 + random.nextInt(200)));
+      } else {
+        _queries.add(new SimulatedQuery(LOOKUP_TABLE, lookupCostUnits, timeMs, timeMs + 100, 2 + random.nextInt(5)));
+      }
+    }
+  }
+
+  @Benchmark
+  public int simulate(Outcomes outcomes) {
+    QueryCostEstimator costEstimator = new QueryCostEstimator(1.0);
+    PriorityQueue<ScheduledQuery> pendingQueries = new PriorityQueue<>(
+        Comparator.comparingLong((ScheduledQuery query) -> query._priorityKey)
+            .thenComparingLong(query -> query._query._arrivalTimeMs));
+    PriorityQueue<Long> threadFreeTimesMs = new PriorityQueue<>();
+    for (int i = 0; i < _numThreads; i++) {
+      threadFreeTimesMs.add(0L);
+    }
+
+    int nextQueryId = 0;
+    while (nextQueryId < NUM_QUERIES || !pendingQueries.isEmpty()) {
+      long threadFreeTimeMs = threadFreeTimesMs.peek();
+      if (nextQueryId < NUM_QUERIES && (pendingQueries.isEmpty()
+          || _queries.get(nextQueryId)._arrivalTimeMs <= threadFreeTimeMs)) {
+        // Submit the next query
+        SimulatedQuery query = _queries.get(nextQueryId++);
+        long expectedCostMs = costEstimator.estimateCostMs(query._table, query._numCostUnits);
+        if (_shed && !canMeetDeadline(query._arrivalTimeMs, expectedCostMs, query._deadlineMs)) {
+          outcomes._shed++;
+        } else {
+          pendingQueries.add(new ScheduledQuery(query, expectedCostMs,
+              _ordering.getPriorityKey(query._arrivalTimeMs, query._deadlineMs, expectedCostMs)));
+        }
+        continue;
+      }
+
+      // Schedule the next query on the first free thread. The pending queries arrived before the thread is free, except
+      // when the queue was empty.
+      threadFreeTimesMs.poll();
+      ScheduledQuery scheduledQuery;
+      while ((scheduledQuery = pendingQueries.poll()) != null && _shed && !canMeetDeadline(
+          Math.max(threadFreeTimeMs, scheduledQuery._query._arrivalTimeMs), scheduledQuery._expectedCostMs,
+          scheduledQuery._query._deadlineMs)) {
+        outcomes._shed++;
+      }
+      if (scheduledQuery == null) {
+        threadFreeTimesMs.add(threadFreeTimeMs);
+        continue;
+      }
+      SimulatedQuery query = scheduledQuery._query;
+      long endTimeMs = Math.max(threadFreeTimeMs, query._arrivalTimeMs) + query._executionTimeMs;
+      if (endTimeMs <= query._deadlineMs) {
+        outcomes._met++;
+      } else {
+        outcomes._missed++;
+      }
+      costEstimator.recordExecution(query._table, query._numCostUnits, query._executionTimeMs);
+      threadFreeTimesMs.add(endTimeMs);
+    }
+    return pendingQueries.size();
+  }
+
+  private static boolean canMeetDeadline(long startTimeMs, long expectedCostMs, long deadlineMs) {
+    return startTimeMs + (long) (expectedCostMs * SHED_COST_FRACTION) < deadlineMs;
+  }
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Outcomes {
+    long _met;
+    long _missed;
+    long _shed;
+
+    public long met() {
+      return _met;
+    }
+
+    public long missed() {
+      return _missed;
+    }
+
+    public long shed() {
+      return _shed;
+    }
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      _met = 0;
+      _missed = 0;
+      _shed = 0;
+    }
+  }
+
+  private static class SimulatedQuery {
+    final String _table;
+    final double _numCostUnits;
+    final long _arrivalTimeMs;
+    final long _deadlineMs;
+    final long _executionTimeMs;
+
+    SimulatedQuery(String table, double numCostUnits, long arrivalTimeMs, long deadlineMs, long executionTimeMs) {
+      _table = table;
+      _numCostUnits = numCostUnits;
+      _arrivalTimeMs = arrivalTimeMs;
+      _deadlineMs = deadlineMs;
+      _executionTimeMs = executionTimeMs;
+    }
+  }
+
+  private static class ScheduledQuery {
+    final SimulatedQuery _query;
+    final long _expectedCostMs;
+    final long _priorityKey;
+
+    ScheduledQuery(SimulatedQuery query, long expectedCostMs, long priorityKey) {
+      _query = query;
+      _expectedCostMs = expectedCostMs;
+      _priorityKey = priorityKey;
+    }
+  }
+}
@@ -35,6 +35,8 @@ import org.apache.commons.lang3.RandomStringUtils;
 import org.apache.pinot.common.utils.DataSchema;
 import org.apache.pinot.core.data.table.ConcurrentIndexedTable;
 import org.apache.pinot.core.data.table.IndexedTable;
+import org.apache.pinot.core.data.table.Key;
+import org.apache.pinot.core.data.table.PartitionedIndexedTable;
 import org.apache.pinot.core.data.table.Record;
 import org.apache.pinot.core.data.table.SimpleIndexedTable;
 import org.apache.pinot.core.query.request.context.QueryContext;
@@ -54,6 +56,7 @@ import org.openjdk.jmh.runner.options.OptionsBuilder;
 import org.openjdk.jmh.runner.options.TimeValue;
 
 
+@SuppressWarnings("unchecked")
 @State(Scope.Benchmark)
 public class BenchmarkIndexedTable {
   private static final int TRIM_SIZE = 800;
@@ -200,6 +203,65 @@ public class BenchmarkIndexedTable {
     mergedTable.finish(false);
   }
 
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public void partitionedIndexedTable()
+      throws InterruptedException, TimeoutException, ExecutionException {
+    int numSegments = 10;
+    int numPartitions = 16;
+
+    // make 1 partitioned table
+    PartitionedIndexedTable partitionedIndexedTable =
+        new PartitionedIndexedTable(_dataSchema, false, _queryContext, TRIM_SIZE, TRIM_SIZE, TRIM_THRESHOLD,
+            numPartitions, TRIM_THRESHOLD, _executorService);
+
+    // 10 parallel threads partitioning 1k records each into thread-local lists
+    List<List<Record>[]> segmentPartitions = new ArrayList<>(numSegments);
+    List<Callable<Void>> innerSegmentCallables = new ArrayList<>(numSegments);
+    for (int i = 0; i < numSegments; i++) {
+      List<Record>[] partitions = new List[numPartitions];
+      for (int j = 0; j < numPartitions; j++) {
+        partitions[j] = new ArrayList<>();
+      }
+      segmentPartitions.add(partitions);
+      innerSegmentCallables.add(() -> {
+        for (int r = 0; r < NUM_RECORDS; r++) {
+          Record record = getNewRecord();
+          partitions[partitionedIndexedTable.getPartitionId(getKey(record).hashCode())].add(record);
+        }
+        return null;
+      });
+    }
+    for (Future<Void> future : _executorService.invokeAll(innerSegmentCallables)) {
+      future.get(10, TimeUnit.SECONDS);
+    }
+
+    // each partition merged by a single thread without locking
+    List<Callable<Void>> partitionCallables = new ArrayList<>(numPartitions);
+    for (int i = 0; i < numPartitions; i++) {
+      int partitionId = i;
+      partitionCallables.add(() -> {
+        for (List<Record>[] partitions : segmentPartitions) {
+          for (Record record : partitions[partitionId]) {
+            partitionedIndexedTable.upsert(partitionId, getKey(record), record);
+          }
+        }
+        return null;
+      });
+    }
+    for (Future<Void> future : _executorService.invokeAll(partitionCallables)) {
+      future.get(10, TimeUnit.SECONDS);
+    }
+
+    partitionedIndexedTable.finish(false);
+  }
+
+  private static Key getKey(Record record) {
+    Object[] values = record.getValues();
+    return new Key(new Object[]{values[0], values[1]});
+  }
+
   public static void main(String[] args)
       throws Exception {
     ChainedOptionsBuilder opt =
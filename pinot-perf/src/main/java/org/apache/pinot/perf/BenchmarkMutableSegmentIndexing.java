@@ -0,0 +1,132 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.perf;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.apache.pinot.segment.local.indexsegment.mutable.MutableSegmentImpl;
+import org.apache.pinot.segment.local.indexsegment.mutable.MutableSegmentImplTestUtils;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.apache.pinot.spi.data.Schema;
+import org.apache.pinot.spi.data.readers.GenericRow;
+import org.apache.pinot.spi.stream.StreamMessageMetadata;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * Benchmark for indexing rows into the {@link MutableSegmentImpl}, either one by one (as done before batch indexing
+ * was supported) or in batches of the given size (as done by the RealtimeSegmentDataManager for each message batch).
+ * Use BenchmarkRealtimeConsumptionSpeed to measure the end-to-end consumption speed.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@State(Scope.Benchmark)
+public class BenchmarkMutableSegmentIndexing {
+  private static final int NUM_ROWS = 100_000;
+  private static final int NUM_DIMENSIONS = 10;
+  private static final Schema SCHEMA;
+
+  static {
+    Schema.SchemaBuilder schemaBuilder = new Schema.SchemaBuilder().setSchemaName("benchmark");
+    for (int i = 0; i < NUM_DIMENSIONS; i++) {
+      schemaBuilder.addSingleValueDimension("dim" + i, i % 2 == 0 ? DataType.INT : DataType.STRING);
+    }
+    SCHEMA = schemaBuilder.addMetric("metric", DataType.LONG).build();
+  }
+
+  // 0 means indexing the rows one by one
+  @Param({"0", "100", "500"})
+  private int _batchSize;
+
+  @Param({"100", "10000"})
+  private int _cardinality;
+
+  @Param({"false", "true"})
+  private boolean _invertedIndex;
+
+  private List<GenericRow> _rows;
+  private List<StreamMessageMetadata> _metadataList;
+
+  public static void main(String[] args)
+      throws Exception {
+    ChainedOptionsBuilder opt = new OptionsBuilder().include(BenchmarkMutableSegmentIndexing.class.getSimpleName());
+    new Runner(opt.build()).run();
+  }
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    _rows = new ArrayList<>(NUM_ROWS);
+    for (int i = 0; i < NUM_ROWS; i++) {
+      GenericRow row = new GenericRow();
+      for (int j = 0; j < NUM_DIMENSIONS; j++) {
+        int value = random.nextInt(_cardinality);
+        row.putValue("dim" + j, j % 2 == 0 ? value : "value_" + value);
+      }
+      row.putValue("metric", random.nextLong());
+      _rows.add(row);
+    }
+    _metadataList = Collections.nCopies(NUM_ROWS, null);
+  }
+
+  @Benchmark
+  public int indexRows()
+      throws Exception {
+    Set<String> invertedIndexColumns = _invertedIndex ? new HashSet<>(SCHEMA.getDimensionNames()) : Set.of();
+    MutableSegmentImpl mutableSegment =
+        MutableSegmentImplTestUtils.createMutableSegmentImpl(SCHEMA, Set.of("metric"), Set.of(),
+            invertedIndexColumns, false);
+    try {
+      if (_batchSize == 0) {
+        for (GenericRow row : _rows) {
+          mutableSegment.index(row, null);
+        }
+      } else {
+        for (int i = 0; i < NUM_ROWS; i += _batchSize) {
+          int end = Math.min(i + _batchSize, NUM_ROWS);
+          mutableSegment.index(_rows.subList(i, end), _metadataList.subList(i, end));
+        }
+      }
+      return mutableSegment.getNumDocsIndexed();
+    } finally {
+      mutableSegment.destroy();
+    }
+  }
+}
@@ -51,12 +51,16 @@ import org.xerial.snappy.Snappy;
 @Warmup(iterations = 3)
 @Measurement(iterations = 5)
 @State(Scope.Benchmark)
-// Test to get memory statistics for snappy, zstandard and lz4 integer compression techniques
+// Test to get memory statistics for snappy, zstandard, lz4, gzip and bit-packing integer compression techniques
 public class BenchmarkNoDictionaryIntegerCompression {
 
   @Param({"500000", "1000000", "2000000", "3000000", "4000000", "5000000"})
   public static int _rowLength;
 
+  // Distribution of the values: random values, narrow range values (e.g. metrics) or monotonic values (e.g. timestamps)
+  @Param({"RANDOM", "NARROW_RANGE", "MONOTONIC"})
+  public static String _distribution;
+
   @State(Scope.Thread)
   public static class BenchmarkNoDictionaryIntegerCompressionState {
 
@@ -76,9 +80,27 @@ public class BenchmarkNoDictionaryIntegerCompression {
     private static ByteBuffer _gzipCompressedIntegerInput;
     private static ByteBuffer _gzipIntegerDecompressed;
 
+    private static ByteBuffer _forCompressedIntegerOutput;
+    private static ByteBuffer _forCompressedIntegerInput;
+    private static ByteBuffer _forIntegerDecompressed;
+
+    private static ByteBuffer _deltaCompressedIntegerOutput;
+    private static ByteBuffer _deltaCompressedIntegerInput;
+    private static ByteBuffer _deltaIntegerDecompressed;
+
+    private static ByteBuffer _pforCompressedIntegerOutput;
+    private static ByteBuffer _pforCompressedIntegerInput;
+    private static ByteBuffer _pforIntegerDecompressed;
+
     private static LZ4Factory _factory;
     private static ChunkCompressor _gzipCompressor;
     private static ChunkDecompressor _gzipDecompressor;
+    private static ChunkCompressor _forCompressor;
+    private static ChunkDecompressor _forDecompressor;
+    private static ChunkCompressor _deltaCompressor;
+    private static ChunkDecompressor _deltaDecompressor;
+    private static ChunkCompressor _pforCompressor;
+    private static ChunkDecompressor _pforDecompressor;
 
     @Setup(Level.Invocation)
     public void setUp()
@@ -102,14 +124,33 @@ public class BenchmarkNoDictionaryIntegerCompression {
       _snappyIntegerDecompressed.rewind();
       _lz4CompressedIntegerInput.flip();
       _gzipCompressedIntegerInput.flip();
+      _uncompressedInt.rewind();
+      _forCompressor.compress(_uncompressedInt, _forCompressedIntegerInput);
+      _uncompressedInt.rewind();
+      _deltaCompressor.compress(_uncompressedInt, _deltaCompressedIntegerInput);
+      _uncompressedInt.rewind();
+      _pforCompressor.compress(_uncompressedInt, _pforCompressedIntegerInput);
+      _uncompressedInt.rewind();
     }
 
     private void generateRandomIntegerBuffer() {
       //Generate Random Int
       _uncompressedInt = ByteBuffer.allocateDirect(_rowLength * Integer.BYTES);
       Random random = new Random();
+      int value = 0;
       for (int i = 0; i < _rowLength; i++) {
-        _uncompressedInt.putInt(random.nextInt());
+        switch (_distribution) {
+          case "NARROW_RANGE":
+            value = 1_000_000 + random.nextInt(1000);
+            break;
+          case "MONOTONIC":
+            value += random.nextInt(100);
+            break;
+          default:
+            value = random.nextInt();
+            break;
+        }
+        _uncompressedInt.putInt(value);
       }
       _uncompressedInt.flip();
     }
@@ -119,6 +160,12 @@ public class BenchmarkNoDictionaryIntegerCompression {
       _factory = LZ4Factory.fastestInstance();
       _gzipCompressor = ChunkCompressorFactory.getCompressor(ChunkCompressionType.GZIP);
       _gzipDecompressor = ChunkCompressorFactory.getDecompressor(ChunkCompressionType.GZIP);
+      _forCompressor = ChunkCompressorFactory.getCompressor(ChunkCompressionType.FOR, Integer.BYTES);
+      _forDecompressor = ChunkCompressorFactory.getDecompressor(ChunkCompressionType.FOR);
+      _deltaCompressor = ChunkCompressorFactory.getCompressor(ChunkCompressionType.DELTA, Integer.BYTES);
+      _deltaDecompressor = ChunkCompressorFactory.getDecompressor(ChunkCompressionType.DELTA);
+      _pforCompressor = ChunkCompressorFactory.getCompressor(ChunkCompressionType.PFOR, Integer.BYTES);
+      _pforDecompressor = ChunkCompressorFactory.getDecompressor(ChunkCompressionType.PFOR);
     }
 
     private void allocateBufferMemory() {
@@ -135,6 +182,15 @@ public class BenchmarkNoDictionaryIntegerCompression {
       _gzipIntegerDecompressed = ByteBuffer.allocateDirect(_uncompressedInt.capacity() * 2);
       _gzipCompressedIntegerOutput = ByteBuffer.allocateDirect(_uncompressedInt.capacity() * 2);
       _gzipCompressedIntegerInput = ByteBuffer.allocateDirect(_uncompressedInt.capacity() * 2);
+      _forCompressedIntegerOutput = ByteBuffer.allocateDirect(_uncompressedInt.capacity() * 2);
+      _forCompressedIntegerInput = ByteBuffer.allocateDirect(_uncompressedInt.capacity() * 2);
+      _forIntegerDecompressed = ByteBuffer.allocateDirect(_uncompressedInt.capacity() * 2);
+      _deltaCompressedIntegerOutput = ByteBuffer.allocateDirect(_uncompressedInt.capacity() * 2);
+      _deltaCompressedIntegerInput = ByteBuffer.allocateDirect(_uncompressedInt.capacity() * 2);
+      _deltaIntegerDecompressed = ByteBuffer.allocateDirect(_uncompressedInt.capacity() * 2);
+      _pforCompressedIntegerOutput = ByteBuffer.allocateDirect(_uncompressedInt.capacity() * 2);
+      _pforCompressedIntegerInput = ByteBuffer.allocateDirect(_uncompressedInt.capacity() * 2);
+      _pforIntegerDecompressed = ByteBuffer.allocateDirect(_uncompressedInt.capacity() * 2);
     }
 
     @TearDown(Level.Invocation)
@@ -148,11 +204,20 @@ public class BenchmarkNoDictionaryIntegerCompression {
       _lz4IntegerDecompressed.clear();
       _gzipCompressedIntegerOutput.clear();
       _gzipIntegerDecompressed.clear();
+      _forCompressedIntegerOutput.clear();
+      _forIntegerDecompressed.clear();
+      _deltaCompressedIntegerOutput.clear();
+      _deltaIntegerDecompressed.clear();
+      _pforCompressedIntegerOutput.clear();
+      _pforIntegerDecompressed.clear();
 
       _uncompressedInt.rewind();
       _zstandardCompressedIntegerInput.rewind();
       _lz4CompressedIntegerInput.rewind();
       _gzipCompressedIntegerInput.rewind();
+      _forCompressedIntegerInput.rewind();
+      _deltaCompressedIntegerInput.rewind();
+      _pforCompressedIntegerInput.rewind();
     }
   }
 
@@ -246,6 +311,54 @@ public class BenchmarkNoDictionaryIntegerCompression {
     return state._gzipIntegerDecompressed.position();
   }
 
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public int benchmarkFORIntegerCompression(BenchmarkNoDictionaryIntegerCompressionState state)
+      throws IOException {
+    return state._forCompressor.compress(state._uncompressedInt, state._forCompressedIntegerOutput);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public int benchmarkFORIntegerDecompression(BenchmarkNoDictionaryIntegerCompressionState state)
+      throws IOException {
+    return state._forDecompressor.decompress(state._forCompressedIntegerInput, state._forIntegerDecompressed);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public int benchmarkDELTAIntegerCompression(BenchmarkNoDictionaryIntegerCompressionState state)
+      throws IOException {
+    return state._deltaCompressor.compress(state._uncompressedInt, state._deltaCompressedIntegerOutput);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public int benchmarkDELTAIntegerDecompression(BenchmarkNoDictionaryIntegerCompressionState state)
+      throws IOException {
+    return state._deltaDecompressor.decompress(state._deltaCompressedIntegerInput, state._deltaIntegerDecompressed);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public int benchmarkPFORIntegerCompression(BenchmarkNoDictionaryIntegerCompressionState state)
+      throws IOException {
+    return state._pforCompressor.compress(state._uncompressedInt, state._pforCompressedIntegerOutput);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public int benchmarkPFORIntegerDecompression(BenchmarkNoDictionaryIntegerCompressionState state)
+      throws IOException {
+    return state._pforDecompressor.decompress(state._pforCompressedIntegerInput, state._pforIntegerDecompressed);
+  }
+
   public static void main(String[] args)
       throws Exception {
     new Runner(
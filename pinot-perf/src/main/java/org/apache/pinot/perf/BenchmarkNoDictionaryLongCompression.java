@@ -51,12 +51,16 @@ import org.xerial.snappy.Snappy;
 @Warmup(iterations = 3)
 @Measurement(iterations = 5)
 @State(Scope.Benchmark)
-// Test to get memory statistics for snappy, zstandard and lz4 long compression techniques
+// Test to get memory statistics for snappy, zstandard, lz4, gzip and bit-packing long compression techniques
 public class BenchmarkNoDictionaryLongCompression {
 
   @Param({"500000", "1000000", "2000000", "3000000", "4000000", "5000000"})
   public static int _rowLength;
 
+  // Distribution of the values: random values, narrow range values (e.g. metrics) or monotonic values (e.g. timestamps)
+  @Param({"RANDOM", "NARROW_RANGE", "MONOTONIC"})
+  public static String _distribution;
+
   @State(Scope.Thread)
   public static class BenchmarkNoDictionaryLongCompressionState {
 
@@ -75,9 +79,27 @@ public class BenchmarkNoDictionaryLongCompression {
     private static ByteBuffer _gzipCompressedLongInput;
     private static ByteBuffer _gzipLongDecompressed;
 
+    private static ByteBuffer _forCompressedLongOutput;
+    private static ByteBuffer _forCompressedLongInput;
+    private static ByteBuffer _forLongDecompressed;
+
+    private static ByteBuffer _deltaCompressedLongOutput;
+    private static ByteBuffer _deltaCompressedLongInput;
+    private static ByteBuffer _deltaLongDecompressed;
+
+    private static ByteBuffer _pforCompressedLongOutput;
+    private static ByteBuffer _pforCompressedLongInput;
+    private static ByteBuffer _pforLongDecompressed;
+
     private static LZ4Factory _factory;
     private static ChunkCompressor _gzipCompressor;
     private static ChunkDecompressor _gzipDecompressor;
+    private static ChunkCompressor _forCompressor;
+    private static ChunkDecompressor _forDecompressor;
+    private static ChunkCompressor _deltaCompressor;
+    private static ChunkDecompressor _deltaDecompressor;
+    private static ChunkCompressor _pforCompressor;
+    private static ChunkDecompressor _pforDecompressor;
 
     @Setup(Level.Invocation)
     public void setUp()
@@ -101,14 +123,33 @@ public class BenchmarkNoDictionaryLongCompression {
       _snappyLongDecompressedOutput.flip();
       _lz4CompressedLongInput.flip();
       _gzipCompressedLongInput.flip();
+      _uncompressedLong.rewind();
+      _forCompressor.compress(_uncompressedLong, _forCompressedLongInput);
+      _uncompressedLong.rewind();
+      _deltaCompressor.compress(_uncompressedLong, _deltaCompressedLongInput);
+      _uncompressedLong.rewind();
+      _pforCompressor.compress(_uncompressedLong, _pforCompressedLongInput);
+      _uncompressedLong.rewind();
     }
 
     private void generateRandomLongBuffer() {
       //Generate Random Long
       Random random = new Random();
       _uncompressedLong = ByteBuffer.allocateDirect(_rowLength * Long.BYTES);
+      long value = System.currentTimeMillis();
       for (int i = 0; i < _rowLength; i++) {
-        _uncompressedLong.putLong(random.nextLong());
+        switch (_distribution) {
+          case "NARROW_RANGE":
+            value = 1_000_000_000L + random.nextInt(1000);
+            break;
+          case "MONOTONIC":
+            value += random.nextInt(100);
+            break;
+          default:
+            value = random.nextLong();
+            break;
+        }
+        _uncompressedLong.putLong(value);
       }
       _uncompressedLong.flip();
     }
@@ -118,6 +159,12 @@ public class BenchmarkNoDictionaryLongCompression {
       _factory = LZ4Factory.fastestInstance();
       _gzipCompressor = ChunkCompressorFactory.getCompressor(ChunkCompressionType.GZIP);
       _gzipDecompressor = ChunkCompressorFactory.getDecompressor(ChunkCompressionType.GZIP);
+      _forCompressor = ChunkCompressorFactory.getCompressor(ChunkCompressionType.FOR, Long.BYTES);
+      _forDecompressor = ChunkCompressorFactory.getDecompressor(ChunkCompressionType.FOR);
+      _deltaCompressor = ChunkCompressorFactory.getCompressor(ChunkCompressionType.DELTA, Long.BYTES);
+      _deltaDecompressor = ChunkCompressorFactory.getDecompressor(ChunkCompressionType.DELTA);
+      _pforCompressor = ChunkCompressorFactory.getCompressor(ChunkCompressionType.PFOR, Long.BYTES);
+      _pforDecompressor = ChunkCompressorFactory.getDecompressor(ChunkCompressionType.PFOR);
     }
 
     private void allocateBufferMemory() {
@@ -133,6 +180,15 @@ public class BenchmarkNoDictionaryLongCompression {
       _gzipLongDecompressed = ByteBuffer.allocateDirect(_uncompressedLong.capacity() * 2);
       _gzipCompressedLongOutput = ByteBuffer.allocateDirect(_uncompressedLong.capacity() * 2);
       _gzipCompressedLongInput = ByteBuffer.allocateDirect(_uncompressedLong.capacity() * 2);
+      _forCompressedLongOutput = ByteBuffer.allocateDirect(_uncompressedLong.capacity() * 2);
+      _forCompressedLongInput = ByteBuffer.allocateDirect(_uncompressedLong.capacity() * 2);
+      _forLongDecompressed = ByteBuffer.allocateDirect(_uncompressedLong.capacity() * 2);
+      _deltaCompressedLongOutput = ByteBuffer.allocateDirect(_uncompressedLong.capacity() * 2);
+      _deltaCompressedLongInput = ByteBuffer.allocateDirect(_uncompressedLong.capacity() * 2);
+      _deltaLongDecompressed = ByteBuffer.allocateDirect(_uncompressedLong.capacity() * 2);
+      _pforCompressedLongOutput = ByteBuffer.allocateDirect(_uncompressedLong.capacity() * 2);
+      _pforCompressedLongInput = ByteBuffer.allocateDirect(_uncompressedLong.capacity() * 2);
+      _pforLongDecompressed = ByteBuffer.allocateDirect(_uncompressedLong.capacity() * 2);
     }
 
     @TearDown(Level.Invocation)
@@ -146,11 +202,20 @@ public class BenchmarkNoDictionaryLongCompression {
       _lz4LongDecompressed.clear();
       _gzipCompressedLongOutput.clear();
       _gzipLongDecompressed.clear();
+      _forCompressedLongOutput.clear();
+      _forLongDecompressed.clear();
+      _deltaCompressedLongOutput.clear();
+      _deltaLongDecompressed.clear();
+      _pforCompressedLongOutput.clear();
+      _pforLongDecompressed.clear();
 
       _uncompressedLong.rewind();
       _zstandardCompressedLongInput.rewind();
       _lz4CompressedLongInput.rewind();
       _gzipCompressedLongInput.rewind();
+      _forCompressedLongInput.rewind();
+      _deltaCompressedLongInput.rewind();
+      _pforCompressedLongInput.rewind();
     }
   }
 
@@ -250,6 +315,54 @@ public class BenchmarkNoDictionaryLongCompression {
     return state._gzipLongDecompressed.position();
   }
 
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public int benchmarkFORLongCompression(BenchmarkNoDictionaryLongCompressionState state)
+      throws IOException {
+    return state._forCompressor.compress(state._uncompressedLong, state._forCompressedLongOutput);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public int benchmarkFORLongDecompression(BenchmarkNoDictionaryLongCompressionState state)
+      throws IOException {
+    return state._forDecompressor.decompress(state._forCompressedLongInput, state._forLongDecompressed);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public int benchmarkDELTALongCompression(BenchmarkNoDictionaryLongCompressionState state)
+      throws IOException {
+    return state._deltaCompressor.compress(state._uncompressedLong, state._deltaCompressedLongOutput);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public int benchmarkDELTALongDecompression(BenchmarkNoDictionaryLongCompressionState state)
+      throws IOException {
+    return state._deltaDecompressor.decompress(state._deltaCompressedLongInput, state._deltaLongDecompressed);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public int benchmarkPFORLongCompression(BenchmarkNoDictionaryLongCompressionState state)
+      throws IOException {
+    return state._pforCompressor.compress(state._uncompressedLong, state._pforCompressedLongOutput);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public int benchmarkPFORLongDecompression(BenchmarkNoDictionaryLongCompressionState state)
+      throws IOException {
+    return state._pforDecompressor.decompress(state._pforCompressedLongInput, state._pforLongDecompressed);
+  }
+
   public static void main(String[] args)
       throws Exception {
     new Runner(new OptionsBuilder().include(BenchmarkNoDictionaryLongCompression.class.getSimpleName()).build()).run();
@@ -0,0 +1,148 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.perf;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.apache.pinot.spi.accounting.ThreadExecutionContext;
+import org.apache.pinot.spi.env.PinotConfiguration;
+import org.apache.pinot.spi.executor.ExecutorServiceUtils;
+import org.apache.pinot.spi.trace.Tracing;
+import org.apache.pinot.spi.utils.CommonConstants.Server;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * Benchmark for the multi-stage executor types (see {@link Server#MULTISTAGE_EXECUTOR_CONFIG_PREFIX}) with a large
+ * number of concurrent queries. Each query is simulated as a pipeline of op chains, where the leaf op chain waits on
+ * the (simulated) leaf stage results, and each intermediate op chain blocks on the mailbox of its child like
+ * {@code BlockingMultiStreamConsumer.readBlockBlocking()}.
+ *
+ * Each benchmark thread represents a concurrent query, so the throughput mode reports the QPS and the sample time mode
+ * reports the latency percentiles (e.g. p99). The virtual executor requires Java 21 or above, otherwise it falls back
+ * to the cached executor.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgs = {"-Xms4G", "-Xmx4G"})
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Threads(1024)
+@State(Scope.Benchmark)
+public class BenchmarkOpChainExecutor {
+  private static final String CONFIG_PREFIX = Server.MULTISTAGE_EXECUTOR_CONFIG_PREFIX;
+
+  @Param({"cached", "virtual"})
+  private String _executorType;
+
+  @Param("4")
+  private int _numStages;
+
+  // Time spent by the leaf op chain waiting on the leaf stage results
+  @Param("1000")
+  private int _leafWaitMicros;
+
+  // CPU work (number of tokens consumed) done by each op chain per block
+  @Param("1000")
+  private int _cpuTokensPerStage;
+
+  @Param("8")
+  private int _numBlocksPerQuery;
+
+  private ExecutorService _executorService;
+
+  public static void main(String[] args)
+      throws Exception {
+    ChainedOptionsBuilder opt = new OptionsBuilder().include(BenchmarkOpChainExecutor.class.getSimpleName());
+    new Runner(opt.build()).run();
+  }
+
+  @Setup
+  public void setUp() {
+    _executorService = ExecutorServiceUtils.create(new PinotConfiguration(), CONFIG_PREFIX, "benchmark-op-chain",
+        _executorType);
+  }
+
+  @TearDown
+  public void tearDown() {
+    ExecutorServiceUtils.close(_executorService);
+  }
+
+  @Benchmark
+  @SuppressWarnings("unchecked")
+  public int runQuery()
+      throws InterruptedException {
+    // Mailboxes between the op chains, where the last one is read by the broker (the benchmark thread)
+    BlockingQueue<Integer>[] mailboxes = new BlockingQueue[_numStages];
+    for (int i = 0; i < _numStages; i++) {
+      mailboxes[i] = new ArrayBlockingQueue<>(1);
+    }
+    _executorService.submit(() -> runOpChain(0, null, mailboxes[0]));
+    for (int i = 1; i < _numStages; i++) {
+      int stageId = i;
+      _executorService.submit(() -> runOpChain(stageId, mailboxes[stageId - 1], mailboxes[stageId]));
+    }
+    BlockingQueue<Integer> brokerMailbox = mailboxes[_numStages - 1];
+    int result = 0;
+    for (int i = 0; i < _numBlocksPerQuery; i++) {
+      result += brokerMailbox.take();
+    }
+    return result;
+  }
+
+  private void runOpChain(int stageId, BlockingQueue<Integer> receivingMailbox, BlockingQueue<Integer> sendingMailbox) {
+    Tracing.ThreadAccountantOps.setupWorker(stageId, ThreadExecutionContext.TaskType.MSE, null);
+    try {
+      for (int i = 0; i < _numBlocksPerQuery; i++) {
+        int block;
+        if (receivingMailbox == null) {
+          LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(_leafWaitMicros) / _numBlocksPerQuery);
+          block = i;
+        } else {
+          block = receivingMailbox.take();
+        }
+        Blackhole.consumeCPU(_cpuTokensPerStage);
+        sendingMailbox.put(block);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      Tracing.ThreadAccountantOps.clear();
+    }
+  }
+}
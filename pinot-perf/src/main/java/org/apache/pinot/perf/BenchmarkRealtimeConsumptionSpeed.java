@@ -100,7 +100,9 @@ public class BenchmarkRealtimeConsumptionSpeed extends BaseClusterIntegrationTes
 
     long endTime = System.currentTimeMillis();
 
-    System.out.println("Consumed " + ROW_COUNT + " rows in " + (endTime - startTime) / 1000.0 + " seconds");
+    double timeInSeconds = (endTime - startTime) / 1000.0;
+    System.out.println("Consumed " + ROW_COUNT + " rows in " + timeInSeconds + " seconds (" + (int) (ROW_COUNT
+        / timeInSeconds) + " rows/s)");
     FileUtils.deleteDirectory(_tempDir);
   }
 }
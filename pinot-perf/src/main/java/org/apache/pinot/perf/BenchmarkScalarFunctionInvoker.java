@@ -0,0 +1,117 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.perf;
+
+import java.lang.reflect.Method;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.pinot.common.function.BatchFunctionInvoker;
+import org.apache.pinot.common.function.FunctionInfo;
+import org.apache.pinot.common.function.FunctionInvoker;
+import org.apache.pinot.common.function.scalar.ArithmeticFunctions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * Benchmark for evaluating a scalar function on a block of values with reflection, {@link FunctionInvoker} (method
+ * handle with boxed arguments) and {@link BatchFunctionInvoker} (generated primitive loop).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class BenchmarkScalarFunctionInvoker {
+
+  @Param("10000")
+  private int _numValues;
+
+  private Method _method;
+  private FunctionInvoker _functionInvoker;
+  private BatchFunctionInvoker _batchInvoker;
+  private double[] _values1;
+  private double[] _values2;
+  private double[] _results;
+
+  public static void main(String[] args)
+      throws Exception {
+    ChainedOptionsBuilder opt = new OptionsBuilder().include(BenchmarkScalarFunctionInvoker.class.getSimpleName());
+    new Runner(opt.build()).run();
+  }
+
+  @Setup
+  public void setUp()
+      throws Exception {
+    _method = ArithmeticFunctions.class.getMethod("positiveModulo", double.class, double.class);
+    _functionInvoker = new FunctionInvoker(new FunctionInfo(_method, ArithmeticFunctions.class, false));
+    _batchInvoker = BatchFunctionInvoker.create(_functionInvoker, new Object[2], new int[]{0, 1}, 2);
+    Random random = new Random(42);
+    _values1 = new double[_numValues];
+    _values2 = new double[_numValues];
+    for (int i = 0; i < _numValues; i++) {
+      _values1[i] = random.nextDouble() * 1000 - 500;
+      _values2[i] = random.nextInt(100) + 1;
+    }
+    _results = new double[_numValues];
+  }
+
+  @Benchmark
+  public double[] reflection()
+      throws Exception {
+    Object[] arguments = new Object[2];
+    for (int i = 0; i < _numValues; i++) {
+      arguments[0] = _values1[i];
+      arguments[1] = _values2[i];
+      _results[i] = (double) _method.invoke(null, arguments);
+    }
+    return _results;
+  }
+
+  @Benchmark
+  public double[] functionInvoker() {
+    Object[] arguments = new Object[2];
+    for (int i = 0; i < _numValues; i++) {
+      arguments[0] = _values1[i];
+      arguments[1] = _values2[i];
+      _results[i] = (double) _functionInvoker.invoke(arguments);
+    }
+    return _results;
+  }
+
+  @Benchmark
+  public double[] batchFunctionInvoker()
+      throws Throwable {
+    _batchInvoker.invoke(new Object[]{_values1, _values2, _results}, _numValues);
+    return _results;
+  }
+}
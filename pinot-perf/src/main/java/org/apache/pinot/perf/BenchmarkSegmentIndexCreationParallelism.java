@@ -0,0 +1,153 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.perf;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.segment.local.segment.creator.impl.SegmentIndexCreationDriverImpl;
+import org.apache.pinot.segment.local.segment.readers.GenericRowRecordReader;
+import org.apache.pinot.segment.spi.creator.SegmentGeneratorConfig;
+import org.apache.pinot.spi.config.table.StarTreeIndexConfig;
+import org.apache.pinot.spi.config.table.TableConfig;
+import org.apache.pinot.spi.config.table.TableType;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.apache.pinot.spi.data.Schema;
+import org.apache.pinot.spi.data.readers.GenericRow;
+import org.apache.pinot.spi.utils.builder.TableConfigBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * Benchmark for the segment creation time of a wide table with respect to the number of threads used to build the
+ * indexes of different columns (and different star-trees) concurrently.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class BenchmarkSegmentIndexCreationParallelism {
+  private static final File INDEX_DIR =
+      new File(FileUtils.getTempDirectory(), "BenchmarkSegmentIndexCreationParallelism");
+  private static final String TABLE_NAME = "testTable";
+  private static final String SEGMENT_NAME = "testSegment";
+  private static final String INT_COLUMN_PREFIX = "intColumn";
+  private static final String STRING_COLUMN_PREFIX = "stringColumn";
+  private static final String METRIC_COLUMN_PREFIX = "metricColumn";
+
+  @Param({"1", "2", "4", "8"})
+  private int _parallelism;
+
+  @Param("100000")
+  private int _numRows;
+
+  @Param("32")
+  private int _numColumnsPerType;
+
+  private Schema _schema;
+  private TableConfig _tableConfig;
+  private List<GenericRow> _rows;
+
+  public static void main(String[] args)
+      throws Exception {
+    ChainedOptionsBuilder opt =
+        new OptionsBuilder().include(BenchmarkSegmentIndexCreationParallelism.class.getSimpleName());
+    new Runner(opt.build()).run();
+  }
+
+  @Setup
+  public void setUp() {
+    Schema.SchemaBuilder schemaBuilder = new Schema.SchemaBuilder().setSchemaName(TABLE_NAME);
+    List<String> invertedIndexColumns = new ArrayList<>();
+    List<String> rangeIndexColumns = new ArrayList<>();
+    List<String> bloomFilterColumns = new ArrayList<>();
+    for (int i = 0; i < _numColumnsPerType; i++) {
+      schemaBuilder.addSingleValueDimension(INT_COLUMN_PREFIX + i, DataType.INT);
+      schemaBuilder.addSingleValueDimension(STRING_COLUMN_PREFIX + i, DataType.STRING);
+      schemaBuilder.addMetric(METRIC_COLUMN_PREFIX + i, DataType.LONG);
+      invertedIndexColumns.add(INT_COLUMN_PREFIX + i);
+      rangeIndexColumns.add(METRIC_COLUMN_PREFIX + i);
+      bloomFilterColumns.add(STRING_COLUMN_PREFIX + i);
+    }
+    _schema = schemaBuilder.build();
+    List<StarTreeIndexConfig> starTreeIndexConfigs = Arrays.asList(
+        new StarTreeIndexConfig(Arrays.asList(INT_COLUMN_PREFIX + 0, STRING_COLUMN_PREFIX + 0), null,
+            Arrays.asList("SUM__" + METRIC_COLUMN_PREFIX + 0, "MAX__" + METRIC_COLUMN_PREFIX + 1), null, 1000),
+        new StarTreeIndexConfig(Arrays.asList(STRING_COLUMN_PREFIX + 1, INT_COLUMN_PREFIX + 1), null,
+            Arrays.asList("SUM__" + METRIC_COLUMN_PREFIX + 2, "MIN__" + METRIC_COLUMN_PREFIX + 3), null, 1000));
+    _tableConfig = new TableConfigBuilder(TableType.OFFLINE).setTableName(TABLE_NAME)
+        .setInvertedIndexColumns(invertedIndexColumns)
+        .setRangeIndexColumns(rangeIndexColumns)
+        .setBloomFilterColumns(bloomFilterColumns)
+        .setStarTreeIndexConfigs(starTreeIndexConfigs)
+        .build();
+    _tableConfig.getIndexingConfig().setCreateInvertedIndexDuringSegmentGeneration(true);
+    _tableConfig.getIndexingConfig().setSegmentIndexCreationParallelism(_parallelism);
+
+    Random random = new Random(42);
+    _rows = new ArrayList<>(_numRows);
+    for (int i = 0; i < _numRows; i++) {
+      GenericRow row = new GenericRow();
+      for (int j = 0; j < _numColumnsPerType; j++) {
+        row.putValue(INT_COLUMN_PREFIX + j, random.nextInt(1000));
+        row.putValue(STRING_COLUMN_PREFIX + j, "value" + random.nextInt(10000));
+        row.putValue(METRIC_COLUMN_PREFIX + j, random.nextLong());
+      }
+      _rows.add(row);
+    }
+  }
+
+  @Benchmark
+  public File buildSegment()
+      throws Exception {
+    FileUtils.deleteQuietly(INDEX_DIR);
+    SegmentGeneratorConfig config = new SegmentGeneratorConfig(_tableConfig, _schema);
+    config.setOutDir(INDEX_DIR.getPath());
+    config.setSegmentName(SEGMENT_NAME);
+    SegmentIndexCreationDriverImpl driver = new SegmentIndexCreationDriverImpl();
+    driver.init(config, new GenericRowRecordReader(_rows));
+    driver.build();
+    return driver.getOutputDirectory();
+  }
+
+  @TearDown
+  public void tearDown() {
+    FileUtils.deleteQuietly(INDEX_DIR);
+  }
+}
@@ -0,0 +1,138 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.perf;
+
+import com.google.protobuf.ByteString;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.pinot.query.runtime.timeseries.serde.TimeSeriesBlockSerde;
+import org.apache.pinot.tsdb.spi.TimeBuckets;
+import org.apache.pinot.tsdb.spi.series.TimeSeries;
+import org.apache.pinot.tsdb.spi.series.TimeSeriesBlock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * Compares the binary format of {@link TimeSeriesBlockSerde} with the data block format (used by the older versions)
+ * for transferring time series blocks from servers to brokers. Run with the GC profiler to compare the allocations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgs = {"-Xms4G", "-Xmx4G"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class BenchmarkTimeSeriesBlockSerde {
+  private static final List<String> TAG_NAMES = List.of("city", "zip", "host");
+
+  @Param({"1000", "10000"})
+  private int _numSeries;
+
+  @Param({"60", "360"})
+  private int _numBuckets;
+
+  @Param("10")
+  private int _nullPercent;
+
+  private TimeSeriesBlock _block;
+  private ByteString _binaryBytes;
+  private ByteString _dataBlockBytes;
+
+  public static void main(String[] args)
+      throws Exception {
+    ChainedOptionsBuilder opt = new OptionsBuilder().include(BenchmarkTimeSeriesBlockSerde.class.getSimpleName())
+        .addProfiler(GCProfiler.class);
+    new Runner(opt.build()).run();
+  }
+
+  @Setup
+  public void setUp()
+      throws IOException {
+    Random random = new Random(42);
+    TimeBuckets timeBuckets = TimeBuckets.ofSeconds(1_700_000_000L, Duration.ofMinutes(1), _numBuckets);
+    Map<Long, List<TimeSeries>> seriesMap = new HashMap<>();
+    for (int i = 0; i < _numSeries; i++) {
+      // Low cardinality city, medium cardinality zip and unique host
+      String[] tagValues = new String[]{"city-" + (i % 20), "zip-" + (i % 500), "host-" + i};
+      double[] values = new double[_numBuckets];
+      BitSet nullBitmap = new BitSet(_numBuckets);
+      for (int j = 0; j < _numBuckets; j++) {
+        if (random.nextInt(100) < _nullPercent) {
+          nullBitmap.set(j);
+        } else {
+          values[j] = random.nextDouble() * 1000;
+        }
+      }
+      long seriesHash = TimeSeries.hash(tagValues);
+      List<TimeSeries> seriesList = new ArrayList<>(1);
+      seriesList.add(new TimeSeries(Long.toString(seriesHash), null, timeBuckets, values, nullBitmap, TAG_NAMES,
+          tagValues));
+      seriesMap.put(seriesHash, seriesList);
+    }
+    _block = new TimeSeriesBlock(timeBuckets, seriesMap);
+    _binaryBytes = TimeSeriesBlockSerde.serializeTimeSeriesBlock(_block);
+    _dataBlockBytes = TimeSeriesBlockSerde.serializeTimeSeriesBlockAsDataBlock(_block);
+    System.out.printf("Serialized size - binary: %d bytes, data block: %d bytes%n", _binaryBytes.size(),
+        _dataBlockBytes.size());
+  }
+
+  @Benchmark
+  public ByteString serializeBinary() {
+    return TimeSeriesBlockSerde.serializeTimeSeriesBlock(_block);
+  }
+
+  @Benchmark
+  public ByteString serializeDataBlock()
+      throws IOException {
+    return TimeSeriesBlockSerde.serializeTimeSeriesBlockAsDataBlock(_block);
+  }
+
+  @Benchmark
+  public TimeSeriesBlock deserializeBinary()
+      throws IOException {
+    return TimeSeriesBlockSerde.deserializeTimeSeriesBlock(_binaryBytes.asReadOnlyByteBuffer());
+  }
+
+  @Benchmark
+  public TimeSeriesBlock deserializeDataBlock()
+      throws IOException {
+    return TimeSeriesBlockSerde.deserializeTimeSeriesBlock(_dataBlockBytes.asReadOnlyByteBuffer());
+  }
+}
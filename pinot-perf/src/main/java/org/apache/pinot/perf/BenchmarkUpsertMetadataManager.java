@@ -0,0 +1,204 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.perf;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.common.utils.LLCSegmentName;
+import org.apache.pinot.segment.local.data.manager.TableDataManager;
+import org.apache.pinot.segment.local.indexsegment.immutable.ImmutableSegmentImpl;
+import org.apache.pinot.segment.local.upsert.BasePartitionUpsertMetadataManager;
+import org.apache.pinot.segment.local.upsert.ConcurrentMapPartitionUpsertMetadataManager;
+import org.apache.pinot.segment.local.upsert.OffHeapPartitionUpsertMetadataManager;
+import org.apache.pinot.segment.local.upsert.RecordInfo;
+import org.apache.pinot.segment.local.upsert.UpsertContext;
+import org.apache.pinot.segment.spi.MutableSegment;
+import org.apache.pinot.segment.spi.index.metadata.SegmentMetadataImpl;
+import org.apache.pinot.segment.spi.index.mutable.ThreadSafeMutableRoaringBitmap;
+import org.apache.pinot.spi.config.table.HashFunction;
+import org.apache.pinot.spi.config.table.TableConfig;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.apache.pinot.spi.data.Schema;
+import org.apache.pinot.spi.data.readers.PrimaryKey;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * Benchmark for the on-heap {@link ConcurrentMapPartitionUpsertMetadataManager} and the off-heap
+ * {@link OffHeapPartitionUpsertMetadataManager} on adding records from the consuming segment, and replacing a committed
+ * segment (e.g. on reload) which touches all the primary keys in the segment.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(value = 1, jvmArgs = {"-Xms4G", "-Xmx4G"})
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class BenchmarkUpsertMetadataManager {
+  private static final File INDEX_DIR = new File(FileUtils.getTempDirectory(), "BenchmarkUpsertMetadataManager");
+  private static final String RAW_TABLE_NAME = "testTable";
+  private static final String REALTIME_TABLE_NAME = RAW_TABLE_NAME + "_REALTIME";
+  private static final String PRIMARY_KEY_COLUMN = "pk";
+  private static final String COMPARISON_COLUMN = "ts";
+  private static final int NUM_RECORDS_PER_INVOCATION = 100_000;
+
+  @Param({"CONCURRENT_MAP", "OFF_HEAP"})
+  private String _metadataManagerType;
+
+  @Param({"MURMUR3", "MD5"})
+  private HashFunction _hashFunction;
+
+  @Param("1000000")
+  private int _numKeys;
+
+  private BasePartitionUpsertMetadataManager _metadataManager;
+  private List<RecordInfo> _segmentRecordInfos;
+  private ImmutableSegmentImpl[] _segments;
+  private ThreadSafeMutableRoaringBitmap[] _validDocIds;
+  private int _currentSegmentIndex;
+  private MutableSegment _consumingSegment;
+  private PrimaryKey[] _consumingPrimaryKeys;
+  private int _consumingDocId;
+  private long _consumingTimestamp;
+
+  public static void main(String[] args)
+      throws Exception {
+    ChainedOptionsBuilder opt =
+        new OptionsBuilder().include(BenchmarkUpsertMetadataManager.class.getSimpleName());
+    new Runner(opt.build()).run();
+  }
+
+  @Setup(Level.Iteration)
+  public void setUp()
+      throws IOException {
+    FileUtils.forceMkdir(INDEX_DIR);
+    Schema schema = new Schema.SchemaBuilder().setSchemaName(RAW_TABLE_NAME)
+        .addSingleValueDimension(PRIMARY_KEY_COLUMN, DataType.STRING)
+        .addSingleValueDimension(COMPARISON_COLUMN, DataType.LONG)
+        .setPrimaryKeyColumns(Collections.singletonList(PRIMARY_KEY_COLUMN))
+        .build();
+    TableDataManager tableDataManager = Mockito.mock(TableDataManager.class);
+    Mockito.when(tableDataManager.getTableDataDir()).thenReturn(INDEX_DIR);
+    UpsertContext context = new UpsertContext.Builder()
+        .setTableConfig(Mockito.mock(TableConfig.class))
+        .setSchema(schema)
+        .setTableDataManager(tableDataManager)
+        .setPrimaryKeyColumns(Collections.singletonList(PRIMARY_KEY_COLUMN))
+        .setComparisonColumns(Collections.singletonList(COMPARISON_COLUMN))
+        .setHashFunction(_hashFunction)
+        .build();
+    if (_metadataManagerType.equals("OFF_HEAP")) {
+      _metadataManager = new OffHeapPartitionUpsertMetadataManager(REALTIME_TABLE_NAME, 0, context);
+    } else {
+      _metadataManager = new ConcurrentMapPartitionUpsertMetadataManager(REALTIME_TABLE_NAME, 0, context);
+    }
+
+    // Add a committed segment with all the primary keys
+    _segmentRecordInfos = new ArrayList<>(_numKeys);
+    for (int i = 0; i < _numKeys; i++) {
+      _segmentRecordInfos.add(new RecordInfo(makePrimaryKey(i), i, 0L, false));
+    }
+    String segmentName = new LLCSegmentName(RAW_TABLE_NAME, 0, 0, System.currentTimeMillis()).toString();
+    _segments = new ImmutableSegmentImpl[2];
+    _validDocIds = new ThreadSafeMutableRoaringBitmap[2];
+    for (int i = 0; i < 2; i++) {
+      int index = i;
+      ImmutableSegmentImpl segment = Mockito.mock(ImmutableSegmentImpl.class);
+      Mockito.when(segment.getSegmentName()).thenReturn(segmentName);
+      Mockito.when(segment.getValidDocIds()).thenAnswer(invocation -> _validDocIds[index]);
+      SegmentMetadataImpl segmentMetadata = Mockito.mock(SegmentMetadataImpl.class);
+      Mockito.when(segment.getSegmentMetadata()).thenReturn(segmentMetadata);
+      _segments[i] = segment;
+      _validDocIds[i] = new ThreadSafeMutableRoaringBitmap();
+    }
+    _currentSegmentIndex = 0;
+    _metadataManager.addSegment(_segments[0], _validDocIds[0], null, _segmentRecordInfos.iterator());
+
+    // Prepare the consuming segment, where half of the records update existing primary keys
+    String consumingSegmentName = new LLCSegmentName(RAW_TABLE_NAME, 0, 1, System.currentTimeMillis()).toString();
+    _consumingSegment = Mockito.mock(MutableSegment.class);
+    Mockito.when(_consumingSegment.getSegmentName()).thenReturn(consumingSegmentName);
+    Mockito.when(_consumingSegment.getValidDocIds()).thenReturn(new ThreadSafeMutableRoaringBitmap());
+    Random random = new Random(42);
+    _consumingPrimaryKeys = new PrimaryKey[NUM_RECORDS_PER_INVOCATION];
+    for (int i = 0; i < NUM_RECORDS_PER_INVOCATION; i++) {
+      _consumingPrimaryKeys[i] = makePrimaryKey(random.nextInt(2 * _numKeys));
+    }
+    _consumingDocId = 0;
+    _consumingTimestamp = 1;
+  }
+
+  @TearDown(Level.Iteration)
+  public void tearDown()
+      throws IOException {
+    _metadataManager.stop();
+    _metadataManager.close();
+    FileUtils.deleteQuietly(INDEX_DIR);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(NUM_RECORDS_PER_INVOCATION)
+  public int addRecord() {
+    int numAdded = 0;
+    for (PrimaryKey primaryKey : _consumingPrimaryKeys) {
+      if (_metadataManager.addRecord(_consumingSegment,
+          new RecordInfo(primaryKey, _consumingDocId++, _consumingTimestamp++, false))) {
+        numAdded++;
+      }
+    }
+    return numAdded;
+  }
+
+  @Benchmark
+  public int replaceSegment() {
+    int newSegmentIndex = 1 - _currentSegmentIndex;
+    _validDocIds[newSegmentIndex] = new ThreadSafeMutableRoaringBitmap();
+    _metadataManager.replaceSegment(_segments[newSegmentIndex], _validDocIds[newSegmentIndex], null,
+        _segmentRecordInfos.iterator(), _segments[_currentSegmentIndex]);
+    _currentSegmentIndex = newSegmentIndex;
+    return _validDocIds[newSegmentIndex].getMutableRoaringBitmap().getCardinality();
+  }
+
+  private static PrimaryKey makePrimaryKey(int value) {
+    return new PrimaryKey(new Object[]{"pk_" + value});
+  }
+}
@@ -0,0 +1,141 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.plugin.inputformat.orc;
+
+import java.io.File;
+import java.io.IOException;
+import javax.annotation.Nullable;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hive.ql.exec.vector.ColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
+import org.apache.orc.OrcFile;
+import org.apache.orc.Reader;
+import org.apache.orc.TypeDescription;
+import org.apache.pinot.spi.data.readers.ColumnReader;
+
+
+/**
+ * Column reader for ORC files, which reads the values of a single top-level single-value column batch by batch. Only
+ * the stream of the given column is read from the file.
+ * <p>The values are extracted the same way as {@link ORCRecordReader}.
+ */
+public class ORCColumnReader implements ColumnReader {
+  private final String _column;
+  private final Reader _orcReader;
+  private final int _fieldId;
+  private final TypeDescription.Category _category;
+  private final boolean[] _orcReaderInclude;
+
+  private org.apache.orc.RecordReader _orcRecordReader;
+  private VectorizedRowBatch _rowBatch;
+  private ColumnVector _columnVector;
+  private int _nextRowId;
+  // Number of rows to return when the column does not exist in the file
+  private long _numMissingRows;
+
+  public ORCColumnReader(File orcFile, String column)
+      throws IOException {
+    _column = column;
+    Configuration configuration = new Configuration();
+    _orcReader = OrcFile.createReader(new Path(orcFile.getAbsolutePath()),
+        OrcFile.readerOptions(configuration).filesystem(FileSystem.getLocal(configuration)));
+    TypeDescription orcSchema = _orcReader.getSchema();
+    _fieldId = orcSchema.getFieldNames().indexOf(column);
+    if (_fieldId >= 0) {
+      TypeDescription fieldType = orcSchema.getChildren().get(_fieldId);
+      _category = fieldType.getCategory();
+      // NOTE: Include for ORC reader uses field id as the index
+      _orcReaderInclude = new boolean[orcSchema.getMaximumId() + 1];
+      _orcReaderInclude[orcSchema.getId()] = true;
+      _orcReaderInclude[fieldType.getId()] = true;
+    } else {
+      _category = null;
+      _orcReaderInclude = null;
+    }
+    init();
+  }
+
+  /**
+   * Returns whether the given column of the ORC schema can be read column by column, which requires the column to be
+   * either a missing column or a top-level single-value column.
+   */
+  public static boolean isColumnReadable(TypeDescription orcSchema, String column) {
+    int fieldId = orcSchema.getFieldNames().indexOf(column);
+    return fieldId < 0 || ORCRecordReader.isSupportedSingleValueType(
+        orcSchema.getChildren().get(fieldId).getCategory());
+  }
+
+  private void init()
+      throws IOException {
+    if (_fieldId >= 0) {
+      _orcRecordReader = _orcReader.rows(new Reader.Options().include(_orcReaderInclude));
+      _rowBatch = _orcReader.getSchema().createRowBatch();
+      _columnVector = _rowBatch.cols[_fieldId];
+      _numMissingRows = 0;
+    } else {
+      _numMissingRows = _orcReader.getNumberOfRows();
+    }
+    _nextRowId = 0;
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (_fieldId < 0) {
+      return _nextRowId < _numMissingRows;
+    }
+    while (_nextRowId == _rowBatch.size) {
+      try {
+        if (!_orcRecordReader.nextBatch(_rowBatch)) {
+          return false;
+        }
+      } catch (IOException e) {
+        throw new RuntimeException("Caught exception while reading batch for column: " + _column, e);
+      }
+      _nextRowId = 0;
+    }
+    return true;
+  }
+
+  @Nullable
+  @Override
+  public Object next() {
+    int rowId = _nextRowId++;
+    if (_fieldId < 0) {
+      return null;
+    }
+    return ORCRecordReader.extractSingleValue(_column, _columnVector, rowId, _category);
+  }
+
+  @Override
+  public void rewind()
+      throws IOException {
+    close();
+    init();
+  }
+
+  @Override
+  public void close()
+      throws IOException {
+    if (_orcRecordReader != null) {
+      _orcRecordReader.close();
+    }
+  }
+}
@@ -43,8 +43,9 @@ import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
 import org.apache.orc.OrcFile;
 import org.apache.orc.Reader;
 import org.apache.orc.TypeDescription;
+import org.apache.pinot.spi.data.readers.ColumnReader;
+import org.apache.pinot.spi.data.readers.ColumnarRecordReader;
 import org.apache.pinot.spi.data.readers.GenericRow;
-import org.apache.pinot.spi.data.readers.RecordReader;
 import org.apache.pinot.spi.data.readers.RecordReaderConfig;
 import org.apache.pinot.spi.data.readers.RecordReaderUtils;
 
@@ -65,10 +66,13 @@ import static java.nio.charset.StandardCharsets.UTF_8;
  *   <li>LIST -> Object[] of the supported types</li> TODO: -> List?
  *   <li>MAP -> Map of the supported types</li>
  * </ul>
+ * <p>The top-level single-value columns can also be read column by column with {@link ORCColumnReader}.
  */
-public class ORCRecordReader implements RecordReader {
+public class ORCRecordReader implements ColumnarRecordReader {
   private static final String EXTENSION = "orc";
 
+  private File _orcFile;
+  private TypeDescription _orcSchema;
   private List<String> _orcFields;
   private List<TypeDescription> _orcFieldTypes;
   private boolean[] _includeOrcFields;
@@ -85,6 +89,8 @@ public class ORCRecordReader implements RecordReader {
     Reader orcReader = OrcFile.createReader(new Path(orcFile.getAbsolutePath()),
         OrcFile.readerOptions(configuration).filesystem(FileSystem.getLocal(configuration)));
     TypeDescription orcSchema = orcReader.getSchema();
+    _orcFile = orcFile;
+    _orcSchema = orcSchema;
     Preconditions.checkState(orcSchema.getCategory() == TypeDescription.Category.STRUCT,
         "ORC schema must be of type: STRUCT");
     _orcFields = orcSchema.getFieldNames();
@@ -150,7 +156,7 @@ public class ORCRecordReader implements RecordReader {
     }
   }
 
-  private static boolean isSupportedSingleValueType(TypeDescription.Category category) {
+  static boolean isSupportedSingleValueType(TypeDescription.Category category) {
     switch (category) {
       case BOOLEAN:
       case BYTE:
@@ -285,7 +291,7 @@ public class ORCRecordReader implements RecordReader {
   }
 
   @Nullable
-  private static Object extractSingleValue(String field, ColumnVector columnVector, int rowId,
+  static Object extractSingleValue(String field, ColumnVector columnVector, int rowId,
       TypeDescription.Category category) {
     if (columnVector.isRepeating) {
       rowId = 0;
@@ -380,6 +386,17 @@ public class ORCRecordReader implements RecordReader {
     }
   }
 
+  @Override
+  public boolean isColumnReadable(String column) {
+    return ORCColumnReader.isColumnReadable(_orcSchema, column);
+  }
+
+  @Override
+  public ColumnReader getColumnReader(String column)
+      throws IOException {
+    return new ORCColumnReader(_orcFile, column);
+  }
+
   @Override
   public void rewind()
       throws IOException {
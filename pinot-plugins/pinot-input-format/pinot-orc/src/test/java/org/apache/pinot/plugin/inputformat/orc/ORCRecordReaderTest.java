@@ -32,6 +32,7 @@ import org.apache.orc.TypeDescription;
 import org.apache.orc.Writer;
 import org.apache.pinot.spi.data.readers.AbstractRecordReaderTest;
 import org.apache.pinot.spi.data.readers.RecordReader;
+import org.testng.annotations.Test;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 
@@ -46,6 +47,14 @@ public class ORCRecordReaderTest extends AbstractRecordReaderTest {
     return orcRecordReader;
   }
 
+  @Test
+  public void testColumnReaders()
+      throws Exception {
+    try (ORCRecordReader recordReader = (ORCRecordReader) createRecordReader(_dataFile)) {
+      checkColumnReaders(recordReader);
+    }
+  }
+
   @Override
   protected void writeRecordsToFile(List<Map<String, Object>> recordsToWrite)
       throws Exception {
@@ -0,0 +1,204 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.plugin.inputformat.parquet;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import javax.annotation.Nullable;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.ParquetReadOptions;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.impl.ColumnReadStoreImpl;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.example.data.simple.convert.GroupRecordConverter;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Type;
+import org.apache.pinot.spi.data.readers.ColumnReader;
+
+
+/**
+ * Column reader for Native Parquet file, which reads the values of a single top-level primitive (non-repeated) column
+ * row group by row group. Only the column chunks of the given column are read from the file.
+ * <p>The values are extracted the same way as {@link ParquetNativeRecordExtractor}.
+ */
+public class ParquetNativeColumnReader implements ColumnReader {
+  private final Path _dataFilePath;
+  private final Configuration _hadoopConf;
+  private final ParquetReadOptions _parquetReadOptions;
+  private final String _column;
+
+  private ParquetFileReader _parquetFileReader;
+  private MessageType _requestedSchema;
+  private ColumnDescriptor _columnDescriptor;
+  private LogicalTypeAnnotation _logicalTypeAnnotation;
+  private String _createdBy;
+  // Parquet column reader for the current row group
+  private org.apache.parquet.column.ColumnReader _parquetColumnReader;
+  private long _numRowsInRowGroup;
+  private long _nextRowId;
+  // Number of rows to return when the column does not exist in the file
+  private long _numMissingRows;
+
+  public ParquetNativeColumnReader(Path dataFilePath, Configuration hadoopConf, ParquetReadOptions parquetReadOptions,
+      String column)
+      throws IOException {
+    _dataFilePath = dataFilePath;
+    _hadoopConf = hadoopConf;
+    _parquetReadOptions = parquetReadOptions;
+    _column = column;
+    init();
+  }
+
+  /**
+   * Returns whether the given column of the Parquet schema can be read column by column, which requires the column to
+   * be either a missing column or a top-level primitive non-repeated column.
+   */
+  public static boolean isColumnReadable(MessageType schema, String column) {
+    if (!schema.containsField(column)) {
+      return true;
+    }
+    Type type = schema.getType(column);
+    return type.isPrimitive() && !type.isRepetition(Type.Repetition.REPEATED);
+  }
+
+  private void init()
+      throws IOException {
+    _parquetFileReader =
+        ParquetFileReader.open(HadoopInputFile.fromPath(_dataFilePath, _hadoopConf), _parquetReadOptions);
+    MessageType schema = _parquetFileReader.getFooter().getFileMetaData().getSchema();
+    if (schema.containsField(_column)) {
+      Type type = schema.getType(_column);
+      _requestedSchema = new MessageType(schema.getName(), type);
+      _parquetFileReader.setRequestedSchema(_requestedSchema);
+      _columnDescriptor = _requestedSchema.getColumnDescription(new String[]{_column});
+      _logicalTypeAnnotation = type.getLogicalTypeAnnotation();
+      _createdBy = _parquetFileReader.getFooter().getFileMetaData().getCreatedBy();
+      _numMissingRows = 0;
+    } else {
+      _numMissingRows = _parquetFileReader.getRecordCount();
+    }
+    _parquetColumnReader = null;
+    _numRowsInRowGroup = 0;
+    _nextRowId = 0;
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (_columnDescriptor == null) {
+      return _nextRowId < _numMissingRows;
+    }
+    while (_nextRowId == _numRowsInRowGroup) {
+      PageReadStore pageReadStore;
+      try {
+        pageReadStore = _parquetFileReader.readNextRowGroup();
+      } catch (IOException e) {
+        throw new RuntimeException("Caught exception while reading row group for column: " + _column, e);
+      }
+      if (pageReadStore == null) {
+        return false;
+      }
+      _parquetColumnReader =
+          new ColumnReadStoreImpl(pageReadStore, new GroupRecordConverter(_requestedSchema).getRootConverter(),
+              _requestedSchema, _createdBy).getColumnReader(_columnDescriptor);
+      _numRowsInRowGroup = pageReadStore.getRowCount();
+      _nextRowId = 0;
+    }
+    return true;
+  }
+
+  @Nullable
+  @Override
+  public Object next() {
+    _nextRowId++;
+    if (_columnDescriptor == null) {
+      return null;
+    }
+    Object value = null;
+    if (_parquetColumnReader.getCurrentDefinitionLevel() == _columnDescriptor.getMaxDefinitionLevel()) {
+      value = extractValue();
+    }
+    _parquetColumnReader.consume();
+    return value;
+  }
+
+  private Object extractValue() {
+    PrimitiveType.PrimitiveTypeName primitiveTypeName = _columnDescriptor.getPrimitiveType().getPrimitiveTypeName();
+    switch (primitiveTypeName) {
+      case INT32:
+        int intValue = _parquetColumnReader.getInteger();
+        if (_logicalTypeAnnotation instanceof LogicalTypeAnnotation.DecimalLogicalTypeAnnotation) {
+          return BigDecimal.valueOf(intValue,
+              ((LogicalTypeAnnotation.DecimalLogicalTypeAnnotation) _logicalTypeAnnotation).getScale());
+        }
+        return intValue;
+      case INT64:
+        long longValue = _parquetColumnReader.getLong();
+        if (_logicalTypeAnnotation instanceof LogicalTypeAnnotation.DecimalLogicalTypeAnnotation) {
+          return BigDecimal.valueOf(longValue,
+              ((LogicalTypeAnnotation.DecimalLogicalTypeAnnotation) _logicalTypeAnnotation).getScale());
+        }
+        return longValue;
+      case FLOAT:
+        return _parquetColumnReader.getFloat();
+      case DOUBLE:
+        return _parquetColumnReader.getDouble();
+      case BOOLEAN:
+        return Boolean.toString(_parquetColumnReader.getBoolean());
+      case INT96:
+        return ParquetNativeRecordExtractor.convertInt96ToLong(_parquetColumnReader.getBinary().getBytes());
+      case BINARY:
+      case FIXED_LEN_BYTE_ARRAY:
+        Binary binary = _parquetColumnReader.getBinary();
+        if (_logicalTypeAnnotation instanceof LogicalTypeAnnotation.DecimalLogicalTypeAnnotation) {
+          LogicalTypeAnnotation.DecimalLogicalTypeAnnotation decimalLogicalTypeAnnotation =
+              (LogicalTypeAnnotation.DecimalLogicalTypeAnnotation) _logicalTypeAnnotation;
+          return ParquetNativeRecordExtractor.binaryToDecimal(binary, decimalLogicalTypeAnnotation.getPrecision(),
+              decimalLogicalTypeAnnotation.getScale());
+        }
+        if (_logicalTypeAnnotation instanceof LogicalTypeAnnotation.StringLogicalTypeAnnotation
+            || _logicalTypeAnnotation instanceof LogicalTypeAnnotation.EnumLogicalTypeAnnotation) {
+          return binary.toStringUsingUTF8();
+        }
+        return binary.getBytes();
+      default:
+        throw new IllegalArgumentException(
+            String.format("Unsupported primitive type: %s, logical type: %s for column: %s", primitiveTypeName,
+                _logicalTypeAnnotation, _column));
+    }
+  }
+
+  @Override
+  public void rewind()
+      throws IOException {
+    _parquetFileReader.close();
+    init();
+  }
+
+  @Override
+  public void close()
+      throws IOException {
+    _parquetFileReader.close();
+  }
+}
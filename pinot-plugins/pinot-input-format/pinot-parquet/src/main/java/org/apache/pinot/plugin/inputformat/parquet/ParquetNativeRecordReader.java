@@ -34,16 +34,19 @@ import org.apache.parquet.hadoop.util.HadoopInputFile;
 import org.apache.parquet.io.ColumnIOFactory;
 import org.apache.parquet.io.MessageColumnIO;
 import org.apache.parquet.schema.MessageType;
+import org.apache.pinot.spi.data.readers.ColumnReader;
+import org.apache.pinot.spi.data.readers.ColumnarRecordReader;
 import org.apache.pinot.spi.data.readers.GenericRow;
-import org.apache.pinot.spi.data.readers.RecordReader;
 import org.apache.pinot.spi.data.readers.RecordReaderConfig;
 import org.apache.pinot.spi.data.readers.RecordReaderUtils;
 
 
 /**
  * Record reader for Native Parquet file.
+ * <p>The top-level primitive (non-repeated) columns can also be read column by column with
+ * {@link ParquetNativeColumnReader}.
  */
-public class ParquetNativeRecordReader implements RecordReader {
+public class ParquetNativeRecordReader implements ColumnarRecordReader {
   private static final String EXTENSION = "parquet";
 
   private Path _dataFilePath;
@@ -120,6 +123,17 @@ public class ParquetNativeRecordReader implements RecordReader {
     return reuse;
   }
 
+  @Override
+  public boolean isColumnReadable(String column) {
+    return ParquetNativeColumnReader.isColumnReadable(_schema, column);
+  }
+
+  @Override
+  public ColumnReader getColumnReader(String column)
+      throws IOException {
+    return new ParquetNativeColumnReader(_dataFilePath, _hadoopConf, _parquetReadOptions, column);
+  }
+
   @Override
   public void rewind()
       throws IOException {
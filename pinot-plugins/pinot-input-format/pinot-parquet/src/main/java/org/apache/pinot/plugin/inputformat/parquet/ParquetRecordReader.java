@@ -18,11 +18,14 @@
  */
 package org.apache.pinot.plugin.inputformat.parquet;
 
+import com.google.common.base.Preconditions;
 import java.io.File;
 import java.io.IOException;
 import java.util.Set;
 import javax.annotation.Nullable;
 import org.apache.hadoop.fs.Path;
+import org.apache.pinot.spi.data.readers.ColumnReader;
+import org.apache.pinot.spi.data.readers.ColumnarRecordReader;
 import org.apache.pinot.spi.data.readers.GenericRow;
 import org.apache.pinot.spi.data.readers.RecordReader;
 import org.apache.pinot.spi.data.readers.RecordReaderConfig;
@@ -32,8 +35,9 @@ import org.apache.pinot.spi.data.readers.RecordReaderUtils;
 /**
  * Pinot Record reader for Parquet file.<p>
  * It has two implementations: {@link ParquetAvroRecordReader} (Default) and {@link ParquetNativeRecordReader}.
+ * Reading column by column is only supported with {@link ParquetNativeRecordReader}.
  */
-public class ParquetRecordReader implements RecordReader {
+public class ParquetRecordReader implements ColumnarRecordReader {
   private static final String EXTENSION = "parquet";
 
   private RecordReader _internalParquetRecordReader;
@@ -72,6 +76,20 @@ public class ParquetRecordReader implements RecordReader {
     return _internalParquetRecordReader.next(reuse);
   }
 
+  @Override
+  public boolean isColumnReadable(String column) {
+    return !_useAvroParquetRecordReader
+        && ((ParquetNativeRecordReader) _internalParquetRecordReader).isColumnReadable(column);
+  }
+
+  @Override
+  public ColumnReader getColumnReader(String column)
+      throws IOException {
+    Preconditions.checkState(!_useAvroParquetRecordReader, "Cannot read column: %s with Parquet Avro record reader",
+        column);
+    return ((ParquetNativeRecordReader) _internalParquetRecordReader).getColumnReader(column);
+  }
+
   @Override
   public void rewind()
       throws IOException {
@@ -31,6 +31,7 @@ import org.apache.pinot.plugin.inputformat.avro.AvroUtils;
 import org.apache.pinot.spi.data.FieldSpec;
 import org.apache.pinot.spi.data.readers.AbstractRecordReaderTest;
 import org.apache.pinot.spi.data.readers.RecordReader;
+import org.testng.annotations.Test;
 
 
 public class ParquetNativeRecordReaderTest extends AbstractRecordReaderTest {
@@ -43,6 +44,14 @@ public class ParquetNativeRecordReaderTest extends AbstractRecordReaderTest {
     return recordReader;
   }
 
+  @Test
+  public void testColumnReaders()
+      throws Exception {
+    try (ParquetNativeRecordReader recordReader = (ParquetNativeRecordReader) createRecordReader(_dataFile)) {
+      checkColumnReaders(recordReader);
+    }
+  }
+
   @Override
   protected void writeRecordsToFile(List<Map<String, Object>> recordsToWrite)
       throws Exception {
@@ -30,6 +30,7 @@ import org.apache.pinot.common.metadata.segment.SegmentZKMetadata;
 import org.apache.pinot.core.common.MinionConstants.MergeTask;
 import org.apache.pinot.core.segment.processing.framework.MergeType;
 import org.apache.pinot.core.segment.processing.framework.SegmentConfig;
+import org.apache.pinot.core.segment.processing.framework.SegmentProcessorConfig;
 import org.apache.pinot.core.segment.processing.partitioner.PartitionerConfig;
 import org.apache.pinot.core.segment.processing.partitioner.PartitionerFactory;
 import org.apache.pinot.core.segment.processing.timehandler.TimeHandler;
@@ -161,6 +162,23 @@ public class MergeTaskUtils {
     return segmentConfigBuilder.build();
   }
 
+  /**
+   * Returns the number of threads used to process the segments based on the task config.
+   */
+  public static int getNumThreads(Map<String, String> taskConfig) {
+    String numThreads = taskConfig.get(MergeTask.NUM_THREADS_KEY);
+    return numThreads != null ? Integer.parseInt(numThreads) : SegmentProcessorConfig.DEFAULT_NUM_THREADS;
+  }
+
+  /**
+   * Returns the memory budget (in bytes) used to process the segments based on the task config.
+   */
+  public static long getMemoryBudgetInBytes(Map<String, String> taskConfig) {
+    String memoryBudgetInBytes = taskConfig.get(MergeTask.MEMORY_BUDGET_IN_BYTES_KEY);
+    return memoryBudgetInBytes != null ? Long.parseLong(memoryBudgetInBytes)
+        : SegmentProcessorConfig.DEFAULT_MEMORY_BUDGET_IN_BYTES;
+  }
+
   /**
    * Check if the segment can be merged. Only skip merging the segment if 'shouldNotMerge'
    * field exists and is set to true in its segment metadata custom map.
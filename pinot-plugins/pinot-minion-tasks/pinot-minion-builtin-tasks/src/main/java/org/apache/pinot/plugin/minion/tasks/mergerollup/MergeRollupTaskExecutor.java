@@ -100,6 +100,8 @@ public class MergeRollupTaskExecutor extends BaseMultipleSegmentsConversionExecu
 
     // Segment config
     segmentProcessorConfigBuilder.setSegmentConfig(MergeTaskUtils.getSegmentConfig(configs));
+    segmentProcessorConfigBuilder.setNumThreads(MergeTaskUtils.getNumThreads(configs));
+    segmentProcessorConfigBuilder.setMemoryBudgetInBytes(MergeTaskUtils.getMemoryBudgetInBytes(configs));
 
     // Progress observer
     segmentProcessorConfigBuilder.setProgressObserver(p -> _eventObserver.notifyProgress(_pinotTaskConfig, p));
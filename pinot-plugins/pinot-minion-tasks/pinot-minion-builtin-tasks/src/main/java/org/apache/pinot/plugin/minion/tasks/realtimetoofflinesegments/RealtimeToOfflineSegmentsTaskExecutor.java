@@ -159,6 +159,8 @@ public class RealtimeToOfflineSegmentsTaskExecutor extends BaseMultipleSegmentsC
 
     // Segment config
     segmentProcessorConfigBuilder.setSegmentConfig(MergeTaskUtils.getSegmentConfig(configs));
+    segmentProcessorConfigBuilder.setNumThreads(MergeTaskUtils.getNumThreads(configs));
+    segmentProcessorConfigBuilder.setMemoryBudgetInBytes(MergeTaskUtils.getMemoryBudgetInBytes(configs));
 
     // Progress observer
     segmentProcessorConfigBuilder.setProgressObserver(p -> _eventObserver.notifyProgress(_pinotTaskConfig, p));
@@ -26,6 +26,7 @@ import org.apache.pinot.common.metadata.segment.SegmentZKMetadata;
 import org.apache.pinot.core.common.MinionConstants.MergeTask;
 import org.apache.pinot.core.segment.processing.framework.MergeType;
 import org.apache.pinot.core.segment.processing.framework.SegmentConfig;
+import org.apache.pinot.core.segment.processing.framework.SegmentProcessorConfig;
 import org.apache.pinot.core.segment.processing.partitioner.PartitionerConfig;
 import org.apache.pinot.core.segment.processing.partitioner.PartitionerFactory;
 import org.apache.pinot.core.segment.processing.timehandler.TimeHandler;
@@ -197,6 +198,19 @@ public class MergeTaskUtilsTest {
     assertNull(segmentConfig.getFixedSegmentName());
   }
 
+  @Test
+  public void testGetNumThreadsAndMemoryBudget() {
+    Map<String, String> taskConfig = new HashMap<>();
+    taskConfig.put(MergeTask.NUM_THREADS_KEY, "4");
+    taskConfig.put(MergeTask.MEMORY_BUDGET_IN_BYTES_KEY, "1000000000");
+    assertEquals(MergeTaskUtils.getNumThreads(taskConfig), 4);
+    assertEquals(MergeTaskUtils.getMemoryBudgetInBytes(taskConfig), 1000000000L);
+
+    assertEquals(MergeTaskUtils.getNumThreads(Collections.emptyMap()), SegmentProcessorConfig.DEFAULT_NUM_THREADS);
+    assertEquals(MergeTaskUtils.getMemoryBudgetInBytes(Collections.emptyMap()),
+        SegmentProcessorConfig.DEFAULT_MEMORY_BUDGET_IN_BYTES);
+  }
+
   @Test
   public void testAllowMerge() {
     SegmentZKMetadata segmentZKMetadata = new SegmentZKMetadata("seg01");
@@ -18,6 +18,8 @@
  */
 package org.apache.pinot.tsdb.m3ql.operator;
 
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 import org.apache.pinot.tsdb.spi.operator.BaseTimeSeriesOperator;
 import org.apache.pinot.tsdb.spi.series.TimeSeries;
@@ -34,14 +36,17 @@ public class KeepLastValueOperator extends BaseTimeSeriesOperator {
     TimeSeriesBlock seriesBlock = _childOperators.get(0).nextBlock();
     seriesBlock.getSeriesMap().values().parallelStream().forEach(unionOfSeries -> {
       for (TimeSeries series : unionOfSeries) {
-        Double[] values = series.getDoubleValues();
-        Double lastValue = null;
-        for (int index = 0; index < values.length; index++) {
-          if (values[index] != null) {
-            lastValue = values[index];
-          } else {
-            values[index] = lastValue;
+        double[] values = series.getDoubleValues();
+        BitSet nullBitmap = series.getNullBitmap();
+        // Fill each run of nulls with the value before it, where the leading nulls are kept
+        int index = nullBitmap.nextSetBit(1);
+        while (index >= 0 && index < values.length) {
+          int end = Math.min(nullBitmap.nextClearBit(index), values.length);
+          if (!nullBitmap.get(index - 1)) {
+            Arrays.fill(values, index, end, values[index - 1]);
+            nullBitmap.clear(index, end);
           }
+          index = nullBitmap.nextSetBit(end);
         }
       }
     });
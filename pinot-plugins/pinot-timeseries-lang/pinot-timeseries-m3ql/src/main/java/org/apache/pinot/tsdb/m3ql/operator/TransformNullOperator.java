@@ -18,6 +18,7 @@
  */
 package org.apache.pinot.tsdb.m3ql.operator;
 
+import java.util.BitSet;
 import java.util.List;
 import org.apache.pinot.tsdb.spi.operator.BaseTimeSeriesOperator;
 import org.apache.pinot.tsdb.spi.series.TimeSeries;
@@ -37,10 +38,13 @@ public class TransformNullOperator extends BaseTimeSeriesOperator {
     TimeSeriesBlock seriesBlock = _childOperators.get(0).nextBlock();
     seriesBlock.getSeriesMap().values().parallelStream().forEach(unionOfSeries -> {
       for (TimeSeries series : unionOfSeries) {
-        Double[] values = series.getDoubleValues();
-        for (int index = 0; index < values.length; index++) {
-          values[index] = values[index] == null ? _defaultValue : values[index];
+        double[] values = series.getDoubleValues();
+        BitSet nullBitmap = series.getNullBitmap();
+        for (int index = nullBitmap.nextSetBit(0); index >= 0 && index < values.length;
+            index = nullBitmap.nextSetBit(index + 1)) {
+          values[index] = _defaultValue;
         }
+        nullBitmap.clear();
       }
     });
     return seriesBlock;
@@ -103,6 +103,12 @@ public class PinotHintOptions {
      */
     public static final String JOIN_OVERFLOW_MODE = "join_overflow_mode";
 
+    /**
+     * Estimated size (in bytes) of the right table that can be kept in memory to build the hash table. When exceeded,
+     * both join inputs are hash partitioned to disk and the partitions are joined one at a time.
+     */
+    public static final String JOIN_SPILL_THRESHOLD_BYTES = "join_spill_threshold_bytes";
+
     /**
      * Indicates that the join operator(s) within a certain selection scope are colocated
      */
@@ -113,6 +119,26 @@ public class PinotHintOptions {
      */
     public static final String APPEND_DISTINCT_TO_SEMI_JOIN_PROJECT = "append_distinct_to_semi_join_project";
 
+    /**
+     * Enables the runtime filter for an INNER join, where the join keys from the right (build) side are pushed to the
+     * leaf stage of the left (probe) side as a dynamic filter, so that the non-matching rows are filtered out before
+     * being shuffled to the join.
+     */
+    public static final String ENABLE_RUNTIME_FILTER = "enable_runtime_filter";
+
+    /**
+     * Indicates that the SEMI join is a runtime filter of an INNER join (added by the planner), where the dynamic
+     * filter doesn't need to be exact (e.g. can be a bloom filter) because the join condition is evaluated again by the
+     * INNER join.
+     */
+    public static final String IS_RUNTIME_FILTER = "is_runtime_filter";
+
+    /**
+     * Max number of values from the right side to be pushed as an IN filter for the runtime filter. When exceeded, a
+     * bloom filter is pushed instead.
+     */
+    public static final String RUNTIME_FILTER_MAX_IN_VALUES = "runtime_filter_max_in_values";
+
     @Nullable
     public static Map<String, String> getJoinHintOptions(Join join) {
       return PinotHintStrategyTable.getHintOptions(join.getHints(), JOIN_HINT_OPTIONS);
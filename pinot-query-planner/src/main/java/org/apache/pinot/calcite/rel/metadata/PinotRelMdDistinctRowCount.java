@@ -0,0 +1,76 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.calcite.rel.metadata;
+
+import java.util.List;
+import javax.annotation.Nullable;
+import org.apache.calcite.rel.core.TableScan;
+import org.apache.calcite.rel.metadata.BuiltInMetadata;
+import org.apache.calcite.rel.metadata.ReflectiveRelMetadataProvider;
+import org.apache.calcite.rel.metadata.RelMdDistinctRowCount;
+import org.apache.calcite.rel.metadata.RelMdUtil;
+import org.apache.calcite.rel.metadata.RelMetadataProvider;
+import org.apache.calcite.rel.metadata.RelMetadataQuery;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.util.ImmutableBitSet;
+import org.apache.pinot.calcite.rel.rules.PinotRuleUtils;
+import org.apache.pinot.core.routing.TableStatistics;
+import org.apache.pinot.core.routing.TableStatistics.ColumnStatistics;
+
+
+/**
+ * Estimates the number of distinct values of the scanned columns based on the column cardinality from the
+ * {@link TableStatistics}. Falls back to the default Calcite estimation when the statistics are not available.
+ */
+public class PinotRelMdDistinctRowCount extends RelMdDistinctRowCount {
+  public static final RelMetadataProvider SOURCE =
+      ReflectiveRelMetadataProvider.reflectiveSource(new PinotRelMdDistinctRowCount(),
+          BuiltInMetadata.DistinctRowCount.Handler.class);
+
+  protected PinotRelMdDistinctRowCount() {
+  }
+
+  @Override
+  public Double getDistinctRowCount(TableScan rel, RelMetadataQuery mq, ImmutableBitSet groupKey,
+      @Nullable RexNode predicate) {
+    TableStatistics tableStatistics = PinotRuleUtils.getTableStatistics(rel);
+    if (tableStatistics == null || groupKey.isEmpty()) {
+      return super.getDistinctRowCount(rel, mq, groupKey, predicate);
+    }
+    List<String> fieldNames = rel.getRowType().getFieldNames();
+    double numDistinctValues = 1.0;
+    for (int column : groupKey) {
+      ColumnStatistics columnStatistics = tableStatistics.getColumnStatistics(fieldNames.get(column));
+      if (columnStatistics == null || !columnStatistics.hasCardinality()) {
+        return super.getDistinctRowCount(rel, mq, groupKey, predicate);
+      }
+      numDistinctValues *= columnStatistics.getCardinality();
+    }
+    double rowCount = mq.getRowCount(rel);
+    numDistinctValues = Math.min(numDistinctValues, rowCount);
+    if (predicate == null || predicate.isAlwaysTrue()) {
+      return numDistinctValues;
+    }
+    Double selectivity = mq.getSelectivity(rel, predicate);
+    if (selectivity == null) {
+      return numDistinctValues;
+    }
+    return RelMdUtil.numDistinctVals(numDistinctValues, rowCount * selectivity);
+  }
+}
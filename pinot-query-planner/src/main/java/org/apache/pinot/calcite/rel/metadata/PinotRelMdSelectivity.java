@@ -0,0 +1,279 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.calcite.rel.metadata;
+
+import com.google.common.collect.Range;
+import javax.annotation.Nullable;
+import org.apache.calcite.plan.RelOptTable;
+import org.apache.calcite.plan.RelOptUtil;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.core.Join;
+import org.apache.calcite.rel.core.JoinInfo;
+import org.apache.calcite.rel.core.TableScan;
+import org.apache.calcite.rel.metadata.BuiltInMetadata;
+import org.apache.calcite.rel.metadata.ReflectiveRelMetadataProvider;
+import org.apache.calcite.rel.metadata.RelColumnOrigin;
+import org.apache.calcite.rel.metadata.RelMdSelectivity;
+import org.apache.calcite.rel.metadata.RelMdUtil;
+import org.apache.calcite.rel.metadata.RelMetadataProvider;
+import org.apache.calcite.rel.metadata.RelMetadataQuery;
+import org.apache.calcite.rex.RexCall;
+import org.apache.calcite.rex.RexInputRef;
+import org.apache.calcite.rex.RexLiteral;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.rex.RexUtil;
+import org.apache.calcite.sql.SqlKind;
+import org.apache.calcite.util.ImmutableBitSet;
+import org.apache.calcite.util.Sarg;
+import org.apache.pinot.calcite.rel.rules.PinotRuleUtils;
+import org.apache.pinot.core.routing.TableStatistics;
+import org.apache.pinot.core.routing.TableStatistics.ColumnStatistics;
+import org.apache.pinot.query.catalog.PinotTable;
+
+
+/**
+ * Estimates the selectivity of the predicates based on the {@link TableStatistics} of the scanned tables:
+ * <ul>
+ *   <li>Equality predicate on a column: 1 / cardinality</li>
+ *   <li>IN predicate on a column: number of values / cardinality</li>
+ *   <li>Range predicate on a numeric column: fraction of the [min, max] value range covered by the predicate</li>
+ *   <li>Equi-join: 1 / max(cardinality of the left key, cardinality of the right key)</li>
+ * </ul>
+ * Falls back to the default Calcite estimation when the statistics are not available.
+ */
+public class PinotRelMdSelectivity extends RelMdSelectivity {
+  public static final RelMetadataProvider SOURCE =
+      ReflectiveRelMetadataProvider.reflectiveSource(new PinotRelMdSelectivity(),
+          BuiltInMetadata.Selectivity.Handler.class);
+
+  protected PinotRelMdSelectivity() {
+  }
+
+  @Override
+  public Double getSelectivity(TableScan rel, RelMetadataQuery mq, @Nullable RexNode predicate) {
+    TableStatistics tableStatistics = PinotRuleUtils.getTableStatistics(rel);
+    if (tableStatistics == null || predicate == null) {
+      return super.getSelectivity(rel, mq, predicate);
+    }
+    double selectivity = 1.0;
+    for (RexNode conjunction : RelOptUtil.conjunctions(predicate)) {
+      selectivity *= estimateSelectivity(rel, tableStatistics, conjunction);
+    }
+    return selectivity;
+  }
+
+  @Override
+  public Double getSelectivity(Join rel, RelMetadataQuery mq, @Nullable RexNode predicate) {
+    if (predicate == null || !rel.getJoinType().projectsRight()) {
+      return super.getSelectivity(rel, mq, predicate);
+    }
+    RelNode left = rel.getLeft();
+    RelNode right = rel.getRight();
+    JoinInfo joinInfo = JoinInfo.of(left, right, predicate);
+    // Use the most selective join key, as the join keys are usually correlated
+    Double keySelectivity = null;
+    for (int i = 0; i < joinInfo.leftKeys.size(); i++) {
+      int leftKey = joinInfo.leftKeys.get(i);
+      int rightKey = joinInfo.rightKeys.get(i);
+      if (!hasCardinality(mq, left, leftKey) || !hasCardinality(mq, right, rightKey)) {
+        continue;
+      }
+      Double leftNdv = mq.getDistinctRowCount(left, ImmutableBitSet.of(leftKey), null);
+      Double rightNdv = mq.getDistinctRowCount(right, ImmutableBitSet.of(rightKey), null);
+      if (leftNdv == null || rightNdv == null) {
+        continue;
+      }
+      double selectivity = 1.0 / Math.max(Math.max(leftNdv, rightNdv), 1.0);
+      if (keySelectivity == null || selectivity < keySelectivity) {
+        keySelectivity = selectivity;
+      }
+    }
+    if (keySelectivity == null) {
+      return super.getSelectivity(rel, mq, predicate);
+    }
+    return keySelectivity * RelMdUtil.guessSelectivity(joinInfo.getRemaining(rel.getCluster().getRexBuilder()));
+  }
+
+  /**
+   * Returns whether the given column originates from a table column with known cardinality.
+   */
+  private static boolean hasCardinality(RelMetadataQuery mq, RelNode rel, int column) {
+    RelColumnOrigin columnOrigin = mq.getColumnOrigin(rel, column);
+    if (columnOrigin == null || columnOrigin.isDerived()) {
+      return false;
+    }
+    RelOptTable originTable = columnOrigin.getOriginTable();
+    PinotTable pinotTable = originTable.unwrap(PinotTable.class);
+    if (pinotTable == null || pinotTable.getTableStatistics() == null) {
+      return false;
+    }
+    String columnName = originTable.getRowType().getFieldNames().get(columnOrigin.getOriginColumnOrdinal());
+    ColumnStatistics columnStatistics = pinotTable.getTableStatistics().getColumnStatistics(columnName);
+    return columnStatistics != null && columnStatistics.hasCardinality();
+  }
+
+  private static double estimateSelectivity(TableScan rel, TableStatistics tableStatistics, RexNode predicate) {
+    Double selectivity = null;
+    if (predicate instanceof RexCall) {
+      RexCall call = (RexCall) predicate;
+      switch (call.getKind()) {
+        case OR:
+          double orSelectivity = 0.0;
+          for (RexNode operand : call.getOperands()) {
+            orSelectivity += estimateSelectivity(rel, tableStatistics, operand);
+          }
+          selectivity = Math.min(orSelectivity, 1.0);
+          break;
+        case EQUALS:
+        case NOT_EQUALS:
+        case LESS_THAN:
+        case LESS_THAN_OR_EQUAL:
+        case GREATER_THAN:
+        case GREATER_THAN_OR_EQUAL:
+          selectivity = estimateComparisonSelectivity(rel, tableStatistics, call);
+          break;
+        case SEARCH:
+          selectivity = estimateSearchSelectivity(rel, tableStatistics, call);
+          break;
+        default:
+          break;
+      }
+    }
+    return selectivity != null ? selectivity : RelMdUtil.guessSelectivity(predicate);
+  }
+
+  @Nullable
+  private static Double estimateComparisonSelectivity(TableScan rel, TableStatistics tableStatistics, RexCall call) {
+    SqlKind kind = call.getKind();
+    RexNode literal = call.getOperands().get(1);
+    ColumnStatistics columnStatistics = getColumnStatistics(rel, tableStatistics, call.getOperands().get(0));
+    if (columnStatistics == null) {
+      // Literal on the left side
+      kind = kind.reverse();
+      literal = call.getOperands().get(0);
+      columnStatistics = getColumnStatistics(rel, tableStatistics, call.getOperands().get(1));
+    }
+    RexNode value = RexUtil.removeCast(literal);
+    if (columnStatistics == null || !(value instanceof RexLiteral)) {
+      return null;
+    }
+    switch (kind) {
+      case EQUALS:
+        return columnStatistics.hasCardinality() ? 1.0 / columnStatistics.getCardinality() : null;
+      case NOT_EQUALS:
+        return columnStatistics.hasCardinality() ? 1.0 - 1.0 / columnStatistics.getCardinality() : null;
+      case LESS_THAN:
+      case LESS_THAN_OR_EQUAL:
+        return estimateRangeSelectivity(columnStatistics, null, toDouble(((RexLiteral) value).getValue()));
+      case GREATER_THAN:
+      case GREATER_THAN_OR_EQUAL:
+        return estimateRangeSelectivity(columnStatistics, toDouble(((RexLiteral) value).getValue()), null);
+      default:
+        return null;
+    }
+  }
+
+  @Nullable
+  private static Double estimateSearchSelectivity(TableScan rel, TableStatistics tableStatistics, RexCall call) {
+    ColumnStatistics columnStatistics = getColumnStatistics(rel, tableStatistics, call.getOperands().get(0));
+    RexNode literal = call.getOperands().get(1);
+    if (columnStatistics == null || !(literal instanceof RexLiteral)) {
+      return null;
+    }
+    Sarg<?> sarg = ((RexLiteral) literal).getValueAs(Sarg.class);
+    if (sarg == null) {
+      return null;
+    }
+    if (sarg.isPoints()) {
+      return columnStatistics.hasCardinality() ? Math.min((double) sarg.pointCount / columnStatistics.getCardinality(),
+          1.0) : null;
+    }
+    if (sarg.isComplementedPoints()) {
+      return columnStatistics.hasCardinality() ? Math.max(
+          1.0 - (double) sarg.negate().pointCount / columnStatistics.getCardinality(), 0.0) : null;
+    }
+    double selectivity = 0.0;
+    for (Range<?> range : sarg.rangeSet.asRanges()) {
+      Double lower = null;
+      if (range.hasLowerBound()) {
+        lower = toDouble(range.lowerEndpoint());
+        if (lower == null) {
+          return null;
+        }
+      }
+      Double upper = null;
+      if (range.hasUpperBound()) {
+        upper = toDouble(range.upperEndpoint());
+        if (upper == null) {
+          return null;
+        }
+      }
+      Double rangeSelectivity = estimateRangeSelectivity(columnStatistics, lower, upper);
+      if (rangeSelectivity == null) {
+        return null;
+      }
+      selectivity += rangeSelectivity;
+    }
+    return Math.min(selectivity, 1.0);
+  }
+
+  /**
+   * Estimates the selectivity of a range predicate assuming the values are uniformly distributed within the
+   * [min, max] value range of the column. Bound of {@code null} means unbounded.
+   */
+  @Nullable
+  private static Double estimateRangeSelectivity(ColumnStatistics columnStatistics, @Nullable Double lower,
+      @Nullable Double upper) {
+    if (!columnStatistics.hasValueRange()) {
+      return null;
+    }
+    double minValue = columnStatistics.getMinValue();
+    double maxValue = columnStatistics.getMaxValue();
+    if (lower == null && upper == null) {
+      return 1.0;
+    }
+    if (maxValue <= minValue) {
+      // Single value column
+      boolean matches = (lower == null || lower <= minValue) && (upper == null || upper >= maxValue);
+      return matches ? 1.0 : 0.0;
+    }
+    double rangeLower = lower != null ? Math.max(lower, minValue) : minValue;
+    double rangeUpper = upper != null ? Math.min(upper, maxValue) : maxValue;
+    if (rangeLower == rangeUpper && columnStatistics.hasCardinality()) {
+      // Point
+      return 1.0 / columnStatistics.getCardinality();
+    }
+    return rangeUpper > rangeLower ? (rangeUpper - rangeLower) / (maxValue - minValue) : 0.0;
+  }
+
+  @Nullable
+  private static ColumnStatistics getColumnStatistics(TableScan rel, TableStatistics tableStatistics, RexNode node) {
+    RexNode operand = RexUtil.removeCast(node);
+    if (!(operand instanceof RexInputRef)) {
+      return null;
+    }
+    String columnName = rel.getRowType().getFieldNames().get(((RexInputRef) operand).getIndex());
+    return tableStatistics.getColumnStatistics(columnName);
+  }
+
+  @Nullable
+  private static Double toDouble(@Nullable Object value) {
+    return value instanceof Number ? ((Number) value).doubleValue() : null;
+  }
+}
@@ -0,0 +1,42 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.calcite.rel.metadata;
+
+import java.util.List;
+import org.apache.calcite.rel.metadata.ChainedRelMetadataProvider;
+import org.apache.calcite.rel.metadata.DefaultRelMetadataProvider;
+import org.apache.calcite.rel.metadata.JaninoRelMetadataProvider;
+import org.apache.calcite.rel.metadata.RelMetadataQuery;
+
+
+/**
+ * Metadata provider for the Pinot planner, where the Pinot metadata handlers (based on the table statistics) take
+ * precedence over the default Calcite metadata handlers.
+ */
+public class PinotRelMetadataProvider {
+  private PinotRelMetadataProvider() {
+  }
+
+  public static final JaninoRelMetadataProvider INSTANCE = JaninoRelMetadataProvider.of(ChainedRelMetadataProvider.of(
+      List.of(PinotRelMdSelectivity.SOURCE, PinotRelMdDistinctRowCount.SOURCE, DefaultRelMetadataProvider.INSTANCE)));
+
+  public static RelMetadataQuery newMetadataQuery() {
+    return new RelMetadataQuery(INSTANCE);
+  }
+}
@@ -0,0 +1,84 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.calcite.rel.rules;
+
+import javax.annotation.Nullable;
+import org.apache.calcite.plan.RelOptRule;
+import org.apache.calcite.plan.RelOptRuleCall;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.core.JoinRelType;
+import org.apache.calcite.rel.logical.LogicalJoin;
+import org.apache.calcite.rel.metadata.RelMetadataQuery;
+import org.apache.calcite.rel.rules.JoinCommuteRule;
+import org.apache.calcite.tools.RelBuilderFactory;
+
+
+/**
+ * Special rule for Pinot, this rule swaps the inputs of a join without hints when the right (build) side is estimated
+ * to be larger than the left (probe) side, so that the hash table is built on the smaller input:
+ *
+ *         [ Join ]                          [ Project ]
+ *         /      \                               |
+ *   [ Small ]  [ Large ]   ==>               [ Join ]
+ *                                            /      \
+ *                                      [ Large ]  [ Small ]
+ *
+ * <p>The rule only applies when all the tables scanned on both sides have statistics. LEFT and RIGHT joins are swapped
+ * into each other; SEMI and ANTI joins are never swapped.
+ */
+public class PinotJoinBuildSideRule extends RelOptRule {
+  public static final PinotJoinBuildSideRule INSTANCE =
+      new PinotJoinBuildSideRule(PinotRuleUtils.PINOT_REL_FACTORY, null);
+
+  public static PinotJoinBuildSideRule instanceWithDescription(String description) {
+    return new PinotJoinBuildSideRule(PinotRuleUtils.PINOT_REL_FACTORY, description);
+  }
+
+  public PinotJoinBuildSideRule(RelBuilderFactory factory, @Nullable String description) {
+    super(operand(LogicalJoin.class, any()), factory, description);
+  }
+
+  @Override
+  public boolean matches(RelOptRuleCall call) {
+    LogicalJoin join = call.rel(0);
+    JoinRelType joinType = join.getJoinType();
+    if (joinType != JoinRelType.INNER && joinType != JoinRelType.LEFT && joinType != JoinRelType.RIGHT) {
+      return false;
+    }
+    if (!join.getHints().isEmpty()) {
+      return false;
+    }
+    if (!PinotRuleUtils.hasTableStatistics(join.getLeft()) || !PinotRuleUtils.hasTableStatistics(join.getRight())) {
+      return false;
+    }
+    RelMetadataQuery mq = call.getMetadataQuery();
+    Double leftRowCount = mq.getRowCount(join.getLeft());
+    Double rightRowCount = mq.getRowCount(join.getRight());
+    return leftRowCount != null && rightRowCount != null && rightRowCount > leftRowCount;
+  }
+
+  @Override
+  public void onMatch(RelOptRuleCall call) {
+    LogicalJoin join = call.rel(0);
+    RelNode swapped = JoinCommuteRule.swap(join, true, call.builder());
+    if (swapped != null) {
+      call.transformTo(swapped);
+    }
+  }
+}
@@ -0,0 +1,165 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.calcite.rel.rules;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+import org.apache.calcite.plan.RelOptRule;
+import org.apache.calcite.plan.RelOptRuleCall;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.core.Filter;
+import org.apache.calcite.rel.core.JoinInfo;
+import org.apache.calcite.rel.core.JoinRelType;
+import org.apache.calcite.rel.core.Project;
+import org.apache.calcite.rel.core.TableScan;
+import org.apache.calcite.rel.hint.RelHint;
+import org.apache.calcite.rel.logical.LogicalJoin;
+import org.apache.calcite.tools.RelBuilder;
+import org.apache.calcite.tools.RelBuilderFactory;
+import org.apache.pinot.calcite.rel.hint.PinotHintOptions;
+import org.apache.pinot.calcite.rel.hint.PinotHintOptions.JoinHintOptions;
+import org.apache.pinot.calcite.rel.hint.PinotHintStrategyTable;
+
+
+/**
+ * Special rule for Pinot, this rule adds a runtime filter to an INNER JOIN when the
+ * {@link JoinHintOptions#ENABLE_RUNTIME_FILTER} hint is set, by filtering the left (probe) side with a SEMI JOIN
+ * against the join keys of the right (build) side:
+ *
+ *         [ Inner Join ]                           [ Inner Join ]
+ *         /            \                           /            \
+ *    [ Left ]        [ Right ]   ==>        [ Semi Join ]      [ Right ]
+ *                                           /           \
+ *                                      [ Left ]      [ Project ]
+ *                                                         \
+ *                                                       [ Right ]
+ *
+ * <p>The SEMI JOIN is then converted into a dynamic broadcast join by {@link PinotJoinToDynamicBroadcastRule}, where
+ * the right side join keys are pushed to the leaf stage of the left side as an extra filter. This way the left side
+ * rows without a match are filtered out by the leaf stage (leveraging the indexes), instead of being shuffled to the
+ * join.
+ *
+ * <p>The SEMI JOIN is marked with the {@link JoinHintOptions#IS_RUNTIME_FILTER} hint because the INNER JOIN still
+ * evaluates the join condition, so the dynamic filter doesn't need to be exact. When the right side has more than
+ * {@link JoinHintOptions#RUNTIME_FILTER_MAX_IN_VALUES} join keys, a bloom filter is pushed instead of an IN filter.
+ *
+ * <p>The right side is planned (and executed) twice, so the runtime filter should only be used when the right side is
+ * much smaller than the left side, e.g. a selective dimension table joined with a fact table.
+ */
+public class PinotJoinRuntimeFilterRule extends RelOptRule {
+  public static final PinotJoinRuntimeFilterRule INSTANCE =
+      new PinotJoinRuntimeFilterRule(PinotRuleUtils.PINOT_REL_FACTORY, null);
+
+  public static PinotJoinRuntimeFilterRule instanceWithDescription(String description) {
+    return new PinotJoinRuntimeFilterRule(PinotRuleUtils.PINOT_REL_FACTORY, description);
+  }
+
+  public PinotJoinRuntimeFilterRule(RelBuilderFactory factory, @Nullable String description) {
+    super(operand(LogicalJoin.class, any()), factory, description);
+  }
+
+  @Override
+  public boolean matches(RelOptRuleCall call) {
+    LogicalJoin join = call.rel(0);
+    String hintOption = PinotHintStrategyTable.getHintOption(join.getHints(), PinotHintOptions.JOIN_HINT_OPTIONS,
+        JoinHintOptions.ENABLE_RUNTIME_FILTER);
+    if (!Boolean.parseBoolean(hintOption)) {
+      return false;
+    }
+    // Lookup join doesn't shuffle the left side
+    if (JoinHintOptions.useLookupJoinStrategy(join)) {
+      return false;
+    }
+    // Dynamic filter only supports single join key
+    JoinInfo joinInfo = join.analyzeCondition();
+    if (join.getJoinType() != JoinRelType.INNER || joinInfo.leftKeys.size() != 1) {
+      return false;
+    }
+    // Only apply this rule if the dynamic filter can be pushed to the leaf stage of the left side
+    return isLeafInput(join.getLeft());
+  }
+
+  @Override
+  public void onMatch(RelOptRuleCall call) {
+    LogicalJoin join = call.rel(0);
+    JoinInfo joinInfo = join.analyzeCondition();
+    int leftKey = joinInfo.leftKeys.get(0);
+    int rightKey = joinInfo.rightKeys.get(0);
+
+    RelBuilder relBuilder = call.builder();
+    relBuilder.push(join.getLeft());
+    relBuilder.push(join.getRight());
+    relBuilder.project(relBuilder.field(rightKey));
+    relBuilder.semiJoin(relBuilder.equals(relBuilder.field(2, 0, leftKey), relBuilder.field(2, 1, 0)));
+    LogicalJoin semiJoin = (LogicalJoin) relBuilder.build();
+    // Do not inherit the join strategy from the INNER JOIN so that the SEMI JOIN can be converted to dynamic broadcast
+    Map<String, String> semiJoinOptions = new HashMap<>();
+    semiJoinOptions.put(JoinHintOptions.ENABLE_RUNTIME_FILTER, "false");
+    semiJoinOptions.put(JoinHintOptions.IS_RUNTIME_FILTER, "true");
+    semiJoinOptions.put(JoinHintOptions.JOIN_STRATEGY, null);
+    RelNode newLeft = semiJoin.withHints(updateJoinHintOptions(join.getHints(), semiJoinOptions));
+
+    // Disable the runtime filter on the INNER JOIN to prevent this rule from being applied again
+    List<RelHint> newHints =
+        updateJoinHintOptions(join.getHints(), Map.of(JoinHintOptions.ENABLE_RUNTIME_FILTER, "false"));
+    call.transformTo(join.copy(join.getTraitSet(), join.getCondition(), newLeft, join.getRight(), join.getJoinType(),
+        join.isSemiJoinDone()).withHints(newHints));
+  }
+
+  /**
+   * Returns whether the given input can be fully processed by the leaf stage, i.e. a chain of Project and Filter on top
+   * of a TableScan.
+   */
+  private static boolean isLeafInput(RelNode input) {
+    RelNode relNode = PinotRuleUtils.unboxRel(input);
+    if (relNode instanceof TableScan) {
+      return true;
+    } else if (relNode instanceof Project || relNode instanceof Filter) {
+      return isLeafInput(relNode.getInput(0));
+    } else {
+      return false;
+    }
+  }
+
+  /**
+   * Returns the hints with the join hint options updated. Option with {@code null} value is removed.
+   */
+  private static List<RelHint> updateJoinHintOptions(List<RelHint> hints, Map<String, String> optionsToUpdate) {
+    List<RelHint> newHints = new ArrayList<>(hints.size());
+    for (RelHint hint : hints) {
+      if (hint.hintName.equals(PinotHintOptions.JOIN_HINT_OPTIONS)) {
+        Map<String, String> options = new HashMap<>(hint.kvOptions);
+        for (Map.Entry<String, String> entry : optionsToUpdate.entrySet()) {
+          if (entry.getValue() != null) {
+            options.put(entry.getKey(), entry.getValue());
+          } else {
+            options.remove(entry.getKey());
+          }
+        }
+        newHints.add(RelHint.builder(hint.hintName).hintOptions(options).inheritPath(hint.inheritPath).build());
+      } else {
+        newHints.add(hint);
+      }
+    }
+    return newHints;
+  }
+}
@@ -0,0 +1,57 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.calcite.rel.rules;
+
+import org.apache.calcite.plan.RelOptRuleCall;
+import org.apache.calcite.rel.core.Join;
+import org.apache.calcite.rel.core.JoinRelType;
+import org.apache.calcite.rel.rules.JoinToMultiJoinRule;
+import org.apache.calcite.rel.rules.LoptOptimizeJoinRule;
+
+
+/**
+ * Similar to {@link JoinToMultiJoinRule}, but only flattens the INNER joins without hints where all the tables scanned
+ * on both sides have statistics. The {@link org.apache.calcite.rel.rules.MultiJoin} is then reordered by
+ * {@link LoptOptimizeJoinRule} based on the estimated row counts, which puts the smaller input on the right (build)
+ * side of each join.
+ *
+ * <p>Joins with hints are not flattened because the hints cannot be carried over to the reordered joins, and joins
+ * without statistics are not flattened because the row count estimations are not reliable enough to reorder them.
+ */
+public class PinotJoinToMultiJoinRule extends JoinToMultiJoinRule {
+
+  public static PinotJoinToMultiJoinRule instanceWithDescription(String description) {
+    return new PinotJoinToMultiJoinRule((Config) Config.DEFAULT.withRelBuilderFactory(PinotRuleUtils.PINOT_REL_FACTORY)
+        .withDescription(description));
+  }
+
+  private PinotJoinToMultiJoinRule(Config config) {
+    super(config);
+  }
+
+  @Override
+  public boolean matches(RelOptRuleCall call) {
+    Join join = call.rel(0);
+    if (join.getJoinType() != JoinRelType.INNER || !join.getHints().isEmpty()) {
+      return false;
+    }
+    return super.matches(call) && PinotRuleUtils.hasTableStatistics(join.getLeft())
+        && PinotRuleUtils.hasTableStatistics(join.getRight());
+  }
+}
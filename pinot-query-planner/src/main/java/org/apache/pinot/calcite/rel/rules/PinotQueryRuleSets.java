@@ -28,11 +28,14 @@ import org.apache.calcite.rel.rules.AggregateUnionAggregateRule;
 import org.apache.calcite.rel.rules.CoreRules;
 import org.apache.calcite.rel.rules.FilterAggregateTransposeRule;
 import org.apache.calcite.rel.rules.FilterMergeRule;
+import org.apache.calcite.rel.rules.FilterMultiJoinMergeRule;
 import org.apache.calcite.rel.rules.FilterProjectTransposeRule;
 import org.apache.calcite.rel.rules.FilterSetOpTransposeRule;
 import org.apache.calcite.rel.rules.JoinPushExpressionsRule;
+import org.apache.calcite.rel.rules.LoptOptimizeJoinRule;
 import org.apache.calcite.rel.rules.ProjectFilterTransposeRule;
 import org.apache.calcite.rel.rules.ProjectMergeRule;
+import org.apache.calcite.rel.rules.ProjectMultiJoinMergeRule;
 import org.apache.calcite.rel.rules.ProjectRemoveRule;
 import org.apache.calcite.rel.rules.ProjectSetOpTransposeRule;
 import org.apache.calcite.rel.rules.ProjectToWindowRule;
@@ -123,6 +126,10 @@ public class PinotQueryRuleSets {
       // Pinot version doesn't push predicates to the right in case of lookup join
       PinotJoinPushTransitivePredicatesRule
           .instanceWithDescription(PlannerRuleNames.JOIN_PUSH_TRANSITIVE_PREDICATES),
+      // add runtime filter to the probe side of the inner join when enabled via hint
+      // put it after JOIN_PUSH_TRANSITIVE_PREDICATES so that the build side is already filtered
+      PinotJoinRuntimeFilterRule
+          .instanceWithDescription(PlannerRuleNames.JOIN_RUNTIME_FILTER),
 
       // convert non-all union into all-union + distinct
       UnionToDistinctRule.Config.DEFAULT
@@ -153,6 +160,31 @@ public class PinotQueryRuleSets {
           .withDescription(PlannerRuleNames.AGGREGATE_CASE_TO_FILTER).toRule()
   );
 
+  // Join reorder rules run after the BASIC_RULES in a dedicated sub-program, where the joins are first flattened into
+  // MultiJoin using a RuleCollection, then reordered by MULTI_JOIN_OPTIMIZE based on the estimated row counts. Only the
+  // joins where all the scanned tables have statistics are flattened, so these rules are no-op without statistics.
+  public static final List<RelOptRule> JOIN_TO_MULTI_JOIN_RULES = List.of(
+      // flatten inner joins into MultiJoin
+      PinotJoinToMultiJoinRule
+          .instanceWithDescription(PlannerRuleNames.JOIN_TO_MULTI_JOIN),
+      // merge project and filter into MultiJoin so that nested joins can be flattened
+      ProjectMultiJoinMergeRule.Config.DEFAULT
+          .withDescription(PlannerRuleNames.PROJECT_MULTI_JOIN_MERGE).toRule(),
+      FilterMultiJoinMergeRule.Config.DEFAULT
+          .withDescription(PlannerRuleNames.FILTER_MULTI_JOIN_MERGE).toRule()
+  );
+
+  // reorder the MultiJoin into a tree of joins, where the smaller input is put on the right (build) side of each join
+  public static final RelOptRule MULTI_JOIN_OPTIMIZE_RULE = LoptOptimizeJoinRule.Config.DEFAULT
+      .withRelBuilderFactory(PinotRuleUtils.PINOT_REL_FACTORY)
+      .withDescription(PlannerRuleNames.MULTI_JOIN_OPTIMIZE).toRule();
+
+  // swap the inputs of the (non-flattened) joins so that the smaller input is on the right (build) side
+  public static final List<RelOptRule> JOIN_BUILD_SIDE_RULES = List.of(
+      PinotJoinBuildSideRule
+          .instanceWithDescription(PlannerRuleNames.JOIN_BUILD_SIDE)
+  );
+
   // Filter pushdown rules run using a RuleCollection since we want to push down a filter as much as possible in a
   // single HepInstruction.
   public static final List<RelOptRule> FILTER_PUSHDOWN_RULES = List.of(
@@ -35,6 +35,7 @@ import org.apache.calcite.rel.core.Project;
 import org.apache.calcite.rel.core.RelFactories;
 import org.apache.calcite.rel.core.TableScan;
 import org.apache.calcite.rel.core.Window;
+import org.apache.calcite.rel.rules.MultiJoin;
 import org.apache.calcite.rex.RexCall;
 import org.apache.calcite.rex.RexInputRef;
 import org.apache.calcite.rex.RexLiteral;
@@ -47,6 +48,8 @@ import org.apache.calcite.sql2rel.SqlToRelConverter;
 import org.apache.calcite.tools.RelBuilder;
 import org.apache.calcite.tools.RelBuilderFactory;
 import org.apache.pinot.calcite.rel.hint.PinotHintStrategyTable;
+import org.apache.pinot.core.routing.TableStatistics;
+import org.apache.pinot.query.catalog.PinotTable;
 
 
 public class PinotRuleUtils {
@@ -93,6 +96,49 @@ public class PinotRuleUtils {
     return unboxRel(rel) instanceof Aggregate;
   }
 
+  /**
+   * Returns the {@link TableStatistics} attached to the {@link PinotTable} scanned by the given {@link TableScan}, or
+   * {@code null} if the statistics are not available.
+   */
+  @Nullable
+  public static TableStatistics getTableStatistics(TableScan tableScan) {
+    PinotTable pinotTable = tableScan.getTable().unwrap(PinotTable.class);
+    return pinotTable != null ? pinotTable.getTableStatistics() : null;
+  }
+
+  /**
+   * Returns whether the given rel node scans at least one table, and all the tables scanned under it have
+   * {@link TableStatistics}, so that the row count estimated by the metadata query is reliable enough for cost based
+   * decisions. Subtrees without table scan (e.g. VALUES or literal only sub-queries) don't qualify, so that the cost
+   * based rules are not applied when the statistics are disabled.
+   */
+  public static boolean hasTableStatistics(RelNode rel) {
+    return getNumTableScansWithStatistics(rel) > 0;
+  }
+
+  /**
+   * Returns the number of table scans under the given rel node, or -1 if any of them doesn't have statistics.
+   * {@link MultiJoin} is only created for inputs with statistics, so it is not traversed.
+   */
+  private static int getNumTableScansWithStatistics(RelNode rel) {
+    RelNode relNode = unboxRel(rel);
+    if (relNode instanceof MultiJoin) {
+      return relNode.getInputs().size();
+    }
+    if (relNode instanceof TableScan) {
+      return getTableStatistics((TableScan) relNode) != null ? 1 : -1;
+    }
+    int numTableScans = 0;
+    for (RelNode input : relNode.getInputs()) {
+      int numInputTableScans = getNumTableScansWithStatistics(input);
+      if (numInputTableScans < 0) {
+        return -1;
+      }
+      numTableScans += numInputTableScans;
+    }
+    return numTableScans;
+  }
+
   /**
    * utility logic to determine if a JOIN can be pushed down to the leaf-stage execution and leverage the
    * segment-local info (indexing and others) to speed up the execution.
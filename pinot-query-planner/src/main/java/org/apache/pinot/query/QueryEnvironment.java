@@ -56,6 +56,7 @@ import org.apache.calcite.tools.Frameworks;
 import org.apache.calcite.tools.RelBuilder;
 import org.apache.commons.collections4.MapUtils;
 import org.apache.commons.lang3.tuple.Pair;
+import org.apache.pinot.calcite.rel.metadata.PinotRelMetadataProvider;
 import org.apache.pinot.calcite.rel.rules.PinotEnrichedJoinRule;
 import org.apache.pinot.calcite.rel.rules.PinotImplicitTableHintRule;
 import org.apache.pinot.calcite.rel.rules.PinotJoinToDynamicBroadcastRule;
@@ -145,7 +146,9 @@ public class QueryEnvironment {
   public QueryEnvironment(Config config) {
     _envConfig = config;
     String database = config.getDatabase();
-    _catalog = new PinotCatalog(config.getTableCache(), database);
+    WorkerManager workerManager = config.getWorkerManager();
+    _catalog = new PinotCatalog(config.getTableCache(), database,
+        workerManager != null ? workerManager.getRoutingManager() : null);
     CalciteSchema rootSchema = CalciteSchema.createRootSchema(false, false, database, _catalog);
     _config = Frameworks.newConfigBuilder()
         .traitDefs()
@@ -414,6 +417,7 @@ public class QueryEnvironment {
     try {
       RexBuilder rexBuilder = new RexBuilder(_typeFactory);
       RelOptCluster cluster = RelOptCluster.create(plannerContext.getRelOptPlanner(), rexBuilder);
+      cluster.setMetadataQuerySupplier(PinotRelMetadataProvider::newMetadataQuery);
       SqlToRelConverter converter =
           new SqlToRelConverter(plannerContext.getPlanner(), plannerContext.getValidator(), _catalogReader, cluster,
               PinotConvertletTable.INSTANCE, _config.getSqlToRelConverterConfig());
@@ -502,7 +506,8 @@ public class QueryEnvironment {
   /**
    * Creates and returns a HepProgram that performs mostly logical transformations.
    * It performs several phases of rule application over the parsed decorrelated trimmed plan:
-   * - In the first phase, it prunes the applies BASIC_RULES that are almost always helpful to simplify logical plan
+   * - In the first phase, it prunes the applies BASIC_RULES that are almost always helpful to simplify logical plan,
+   *   then reorders the joins based on the table statistics (when available).
    * - In the second phase, it performs predicate pushdown -> projection pushdown -> predicate pushdown.
    * - In the third phase, the logical plan is prune with PRUNE_RULES.
    *
@@ -531,6 +536,22 @@ public class QueryEnvironment {
       hepProgramBuilder.addRuleInstance(relOptRule);
     }
 
+    // ----
+    // Reorder joins using a dedicated sub-program, where the joins are flattened into MultiJoin bottom-up before being
+    // reordered. Both steps must be enabled, otherwise the MultiJoin cannot be converted back into joins.
+    if (!isRuleSkipped(CommonConstants.Broker.PlannerRuleNames.JOIN_TO_MULTI_JOIN, skipRuleSet, useRuleSet)
+        && !isRuleSkipped(CommonConstants.Broker.PlannerRuleNames.MULTI_JOIN_OPTIMIZE, skipRuleSet, useRuleSet)) {
+      HepProgramBuilder joinReorderProgramBuilder = new HepProgramBuilder();
+      joinReorderProgramBuilder.addMatchOrder(HepMatchOrder.BOTTOM_UP);
+      joinReorderProgramBuilder.addRuleCollection(
+          filterRuleList(PinotQueryRuleSets.JOIN_TO_MULTI_JOIN_RULES, skipRuleSet, useRuleSet));
+      joinReorderProgramBuilder.addRuleInstance(PinotQueryRuleSets.MULTI_JOIN_OPTIMIZE_RULE);
+      hepProgramBuilder.addSubprogram(joinReorderProgramBuilder.build());
+    }
+    for (RelOptRule relOptRule : filterRuleList(PinotQueryRuleSets.JOIN_BUILD_SIDE_RULES, skipRuleSet, useRuleSet)) {
+      hepProgramBuilder.addRuleInstance(relOptRule);
+    }
+
     // ----
     // Pushdown filters using a single HepInstruction.
     hepProgramBuilder.addRuleCollection(filterPushdownRules);
@@ -33,6 +33,8 @@ import org.apache.calcite.schema.Schemas;
 import org.apache.calcite.schema.Table;
 import org.apache.pinot.common.config.provider.TableCache;
 import org.apache.pinot.common.utils.DatabaseUtils;
+import org.apache.pinot.core.routing.RoutingManager;
+import org.apache.pinot.core.routing.TableStatistics;
 import org.apache.pinot.spi.utils.builder.TableNameBuilder;
 
 import static java.util.Objects.requireNonNull;
@@ -48,14 +50,24 @@ public class PinotCatalog implements Schema {
 
   private final TableCache _tableCache;
   private final String _databaseName;
+  private final RoutingManager _routingManager;
 
   /**
    * PinotCatalog needs have access to the actual {@link TableCache} object because TableCache hosts the actual
    * table available for query and processes table/segment metadata updates when cluster status changes.
    */
   public PinotCatalog(TableCache tableCache, String databaseName) {
+    this(tableCache, databaseName, null);
+  }
+
+  /**
+   * When the {@link RoutingManager} is provided, the {@link TableStatistics} of the tables are attached to the
+   * {@link PinotTable} so that they can be used for the cost based optimizations (e.g. join reordering).
+   */
+  public PinotCatalog(TableCache tableCache, String databaseName, @Nullable RoutingManager routingManager) {
     _tableCache = tableCache;
     _databaseName = databaseName;
+    _routingManager = routingManager;
   }
 
   /**
@@ -69,9 +81,11 @@ public class PinotCatalog implements Schema {
     String rawTableName = TableNameBuilder.extractRawTableName(name);
     String physicalTableName = DatabaseUtils.translateTableName(rawTableName, _databaseName);
     String tableName = _tableCache.getActualTableName(physicalTableName);
+    boolean isLogicalTable = false;
 
     if (tableName == null) {
       tableName = _tableCache.getActualLogicalTableName(physicalTableName);
+      isLogicalTable = true;
     }
 
     if (tableName == null) {
@@ -82,7 +96,37 @@ public class PinotCatalog implements Schema {
       return null;
     }
 
-    return new PinotTable(schema);
+    return new PinotTable(schema, isLogicalTable ? null : getTableStatistics(name, tableName));
+  }
+
+  /**
+   * Returns the statistics of the table, or {@code null} if they are not available. For hybrid table queried without
+   * the table type suffix, statistics are only returned when available for both the OFFLINE and REALTIME tables.
+   */
+  @Nullable
+  private TableStatistics getTableStatistics(String name, String rawTableName) {
+    if (_routingManager == null) {
+      return null;
+    }
+    org.apache.pinot.spi.config.table.TableType tableType = TableNameBuilder.getTableTypeFromTableName(name);
+    if (tableType != null) {
+      return _routingManager.getTableStatistics(TableNameBuilder.forType(tableType).tableNameWithType(rawTableName));
+    }
+    String offlineTableName = TableNameBuilder.OFFLINE.tableNameWithType(rawTableName);
+    String realtimeTableName = TableNameBuilder.REALTIME.tableNameWithType(rawTableName);
+    boolean hasOfflineTable = _tableCache.getTableConfig(offlineTableName) != null;
+    boolean hasRealtimeTable = _tableCache.getTableConfig(realtimeTableName) != null;
+    TableStatistics offlineTableStatistics =
+        hasOfflineTable ? _routingManager.getTableStatistics(offlineTableName) : null;
+    TableStatistics realtimeTableStatistics =
+        hasRealtimeTable ? _routingManager.getTableStatistics(realtimeTableName) : null;
+    if (hasOfflineTable && hasRealtimeTable) {
+      if (offlineTableStatistics == null || realtimeTableStatistics == null) {
+        return null;
+      }
+      return TableStatistics.merge(offlineTableStatistics, realtimeTableStatistics);
+    }
+    return hasOfflineTable ? offlineTableStatistics : realtimeTableStatistics;
   }
 
   /**
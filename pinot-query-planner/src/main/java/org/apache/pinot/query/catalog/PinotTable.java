@@ -18,12 +18,17 @@
  */
 package org.apache.pinot.query.catalog;
 
+import java.util.List;
+import javax.annotation.Nullable;
 import org.apache.calcite.DataContext;
 import org.apache.calcite.linq4j.Enumerable;
 import org.apache.calcite.rel.type.RelDataType;
 import org.apache.calcite.rel.type.RelDataTypeFactory;
 import org.apache.calcite.schema.ScannableTable;
+import org.apache.calcite.schema.Statistic;
+import org.apache.calcite.schema.Statistics;
 import org.apache.calcite.schema.impl.AbstractTable;
+import org.apache.pinot.core.routing.TableStatistics;
 import org.apache.pinot.query.type.TypeFactory;
 import org.apache.pinot.spi.data.Schema;
 
@@ -33,12 +38,27 @@ import org.apache.pinot.spi.data.Schema;
  *
  * <p>This construct is used to connect a Pinot table to Apache Calcite's relational planner by providing a
  * {@link RelDataType} of the table to the planner.
+ *
+ * <p>When the {@link TableStatistics} are available, the row count is exposed to the planner through
+ * {@link #getStatistic()}, and the column statistics are used by the Pinot metadata handlers to estimate the
+ * selectivity and the number of distinct values (see {@code org.apache.pinot.calcite.rel.metadata}).
  */
 public class PinotTable extends AbstractTable implements ScannableTable {
   private Schema _schema;
+  private final TableStatistics _tableStatistics;
 
   public PinotTable(Schema schema) {
+    this(schema, null);
+  }
+
+  public PinotTable(Schema schema, @Nullable TableStatistics tableStatistics) {
     _schema = schema;
+    _tableStatistics = tableStatistics;
+  }
+
+  @Nullable
+  public TableStatistics getTableStatistics() {
+    return _tableStatistics;
   }
 
   @Override
@@ -52,6 +72,18 @@ public class PinotTable extends AbstractTable implements ScannableTable {
     return typeFactory.createRelDataTypeFromSchema(_schema);
   }
 
+  /**
+   * Returns the row count from the table statistics when available. Unique keys are not exposed because the column
+   * cardinality is only an estimate.
+   */
+  @Override
+  public Statistic getStatistic() {
+    if (_tableStatistics == null) {
+      return super.getStatistic();
+    }
+    return Statistics.of(_tableStatistics.getNumDocs(), List.of());
+  }
+
   @Override
   public boolean isRolledUp(String s) {
     return false;
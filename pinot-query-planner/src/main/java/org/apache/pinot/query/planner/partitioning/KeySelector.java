@@ -42,6 +42,15 @@ public interface KeySelector<T> {
    */
   int computeHash(Object[] input);
 
+  /**
+   * Returns the ids of the columns the key is extracted from, or {@code null} if they are not known, in which case
+   * all the columns of the row must be provided to {@link #getKey(Object[])} and {@link #computeHash(Object[])}.
+   */
+  @Nullable
+  default int[] getKeyIds() {
+    return null;
+  }
+
   /**
    * Returns the hash algorithm used to compute the hash.
    */
@@ -66,6 +66,11 @@ public class MultiColumnKeySelector implements KeySelector<Key> {
     return HashFunctionSelector.computeMultiHash(input, _keyIds, _hashFunction);
   }
 
+  @Override
+  public int[] getKeyIds() {
+    return _keyIds;
+  }
+
   @Override
   public String hashAlgorithm() {
     return _hashFunction;
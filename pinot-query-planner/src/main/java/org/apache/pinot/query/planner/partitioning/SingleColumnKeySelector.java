@@ -46,6 +46,11 @@ public class SingleColumnKeySelector implements KeySelector<Object> {
     return HashFunctionSelector.computeHash(key, _hashFunction);
   }
 
+  @Override
+  public int[] getKeyIds() {
+    return new int[]{_keyId};
+  }
+
   @Override
   public String hashAlgorithm() {
     return _hashFunction;
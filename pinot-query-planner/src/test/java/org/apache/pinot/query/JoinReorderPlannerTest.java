@@ -0,0 +1,132 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.pinot.core.routing.MockRoutingManagerFactory;
+import org.apache.pinot.core.routing.TableStatistics;
+import org.apache.pinot.core.routing.TableStatistics.ColumnStatistics;
+import org.apache.pinot.query.routing.WorkerManager;
+import org.apache.pinot.spi.utils.CommonConstants;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+
+/**
+ * Tests the join reordering and the build side selection based on the table statistics.
+ */
+public class JoinReorderPlannerTest {
+  private static final Pattern TABLE_SCAN_PATTERN =
+      Pattern.compile("PinotLogicalTableScan\\(table=\\[\\[default, (\\w+)]]");
+
+  private QueryEnvironment _queryEnvironment;
+
+  @BeforeClass
+  public void setUp() {
+    MockRoutingManagerFactory factory = new MockRoutingManagerFactory(1, 2);
+    for (String tableName : new String[]{"fact", "dim1", "dim2", "nostats"}) {
+      String offlineTableName = tableName + "_OFFLINE";
+      factory.registerTable(QueryEnvironmentTestBase.getSchemaBuilder(tableName).build(), offlineTableName);
+      factory.registerSegment(1, offlineTableName, tableName + "1");
+    }
+    factory.registerTableStatistics(new TableStatistics("fact_OFFLINE", 1_000_000,
+        Map.of("col1", new ColumnStatistics(1000, Double.NaN, Double.NaN), "col2",
+            new ColumnStatistics(10, Double.NaN, Double.NaN))));
+    factory.registerTableStatistics(new TableStatistics("dim1_OFFLINE", 1000,
+        Map.of("col1", new ColumnStatistics(1000, Double.NaN, Double.NaN), "col3",
+            new ColumnStatistics(1000, 0, 1000))));
+    factory.registerTableStatistics(new TableStatistics("dim2_OFFLINE", 10,
+        Map.of("col2", new ColumnStatistics(10, Double.NaN, Double.NaN))));
+    _queryEnvironment = new QueryEnvironment(CommonConstants.DEFAULT_DATABASE, factory.buildTableCache(),
+        new WorkerManager("Broker_localhost", "localhost", 3, factory.buildRoutingManager(null)));
+  }
+
+  @Test
+  public void testStarSchemaJoinReorder() {
+    // The fact table should be the left-most (probe) input, with the dimension tables on the right (build) side
+    String query = "SELECT * FROM dim1 JOIN fact ON dim1.col1 = fact.col1 JOIN dim2 ON fact.col2 = dim2.col2";
+    assertEquals(getTableScanOrder(explain("", query)), List.of("fact", "dim1", "dim2"));
+  }
+
+  @Test
+  public void testBuildSide() {
+    String query = "SELECT dim2.col1, fact.col3 FROM dim2 JOIN fact ON dim2.col2 = fact.col2";
+    assertEquals(getTableScanOrder(explain("", query)), List.of("fact", "dim2"));
+  }
+
+  @Test
+  public void testBuildSideForLeftJoin() {
+    String query = "SELECT dim2.col1, fact.col3 FROM dim2 LEFT JOIN fact ON dim2.col2 = fact.col2";
+    String explain = explain("", query);
+    assertEquals(getTableScanOrder(explain), List.of("fact", "dim2"));
+    assertTrue(explain.contains("joinType=[right]"), explain);
+  }
+
+  @Test
+  public void testBuildSideWithFilter() {
+    // Without filter, dim2 (10 rows) is smaller than dim1 (1000 rows)
+    String query = "SELECT dim1.col1, dim2.col3 FROM dim1 JOIN dim2 ON dim1.col2 = dim2.col2";
+    assertEquals(getTableScanOrder(explain("", query)), List.of("dim1", "dim2"));
+    // With filter on the value range [0, 1000] of dim1.col3, dim1 is estimated to have 5 rows
+    query = "SELECT dim1.col1, dim2.col3 FROM dim1 JOIN dim2 ON dim1.col2 = dim2.col2 WHERE dim1.col3 < 5";
+    assertEquals(getTableScanOrder(explain("", query)), List.of("dim2", "dim1"));
+  }
+
+  @Test
+  public void testNoReorder() {
+    // Table without statistics
+    String query = "SELECT nostats.col1, fact.col3 FROM nostats JOIN fact ON nostats.col2 = fact.col2";
+    assertEquals(getTableScanOrder(explain("", query)), List.of("nostats", "fact"));
+
+    // Sub-query without table scan
+    query = "SELECT * FROM (SELECT 'a' AS col2) AS lit JOIN fact ON lit.col2 = fact.col2";
+    String explain = explain("", query);
+    assertTrue(explain.indexOf("LogicalValues") < explain.indexOf("PinotLogicalTableScan"), explain);
+
+    // Join with hint
+    query = "SELECT /*+ joinOptions(join_strategy='hash') */ dim2.col1, fact.col3 FROM dim2 JOIN fact "
+        + "ON dim2.col2 = fact.col2";
+    assertEquals(getTableScanOrder(explain("", query)), List.of("dim2", "fact"));
+
+    // Rules skipped
+    query = "SELECT * FROM dim1 JOIN fact ON dim1.col1 = fact.col1 JOIN dim2 ON fact.col2 = dim2.col2";
+    assertEquals(getTableScanOrder(explain("SET skipPlannerRules='JoinToMultiJoin,JoinBuildSide'; ", query)),
+        List.of("dim1", "fact", "dim2"));
+  }
+
+  private String explain(String queryOptions, String query) {
+    return _queryEnvironment.explainQuery(queryOptions + "EXPLAIN PLAN WITHOUT IMPLEMENTATION FOR " + query, 1L);
+  }
+
+  private static List<String> getTableScanOrder(String explain) {
+    List<String> tables = new ArrayList<>();
+    Matcher matcher = TABLE_SCAN_PATTERN.matcher(explain);
+    while (matcher.find()) {
+      tables.add(matcher.group(1));
+    }
+    return tables;
+  }
+}
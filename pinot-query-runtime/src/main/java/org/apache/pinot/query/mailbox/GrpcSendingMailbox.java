@@ -33,6 +33,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import javax.annotation.Nullable;
 import org.apache.pinot.common.datablock.DataBlock;
 import org.apache.pinot.common.datablock.DataBlockUtils;
 import org.apache.pinot.common.datablock.MetadataBlock;
@@ -42,13 +43,16 @@ import org.apache.pinot.common.proto.PinotMailboxGrpc;
 import org.apache.pinot.query.mailbox.channel.ChannelManager;
 import org.apache.pinot.query.mailbox.channel.ChannelUtils;
 import org.apache.pinot.query.mailbox.channel.MailboxStatusObserver;
+import org.apache.pinot.query.runtime.blocks.ColumnarHeapDataBlock;
 import org.apache.pinot.query.runtime.blocks.ErrorMseBlock;
 import org.apache.pinot.query.runtime.blocks.MseBlock;
 import org.apache.pinot.query.runtime.blocks.RowHeapDataBlock;
 import org.apache.pinot.query.runtime.blocks.SerializedDataBlock;
 import org.apache.pinot.query.runtime.blocks.SuccessMseBlock;
 import org.apache.pinot.query.runtime.operator.MailboxSendOperator;
+import org.apache.pinot.segment.spi.compression.ChunkCompressionType;
 import org.apache.pinot.segment.spi.memory.DataBuffer;
+import org.apache.pinot.spi.accounting.ThreadResourceUsageProvider;
 import org.apache.pinot.spi.exception.QueryErrorCode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -67,6 +71,9 @@ public class GrpcSendingMailbox implements SendingMailbox {
   private final int _port;
   private final long _deadlineMs;
   private final StatMap<MailboxSendOperator.StatKey> _statMap;
+  @Nullable
+  private final ChunkCompressionType _compressionType;
+  private final int _minCompressionSizeBytes;
   private final MailboxStatusObserver _statusObserver = new MailboxStatusObserver();
   private final Sender _sender;
 
@@ -74,12 +81,24 @@ public class GrpcSendingMailbox implements SendingMailbox {
 
   public GrpcSendingMailbox(String id, ChannelManager channelManager, String hostname, int port, long deadlineMs,
       StatMap<MailboxSendOperator.StatKey> statMap, int maxByteStringSize) {
+    this(id, channelManager, hostname, port, deadlineMs, statMap, maxByteStringSize, null, 0);
+  }
+
+  /**
+   * When the compression type is not {@code null}, the serialized blocks of at least the given size are compressed
+   * before being sent, unless the compression does not reduce their size.
+   */
+  public GrpcSendingMailbox(String id, ChannelManager channelManager, String hostname, int port, long deadlineMs,
+      StatMap<MailboxSendOperator.StatKey> statMap, int maxByteStringSize,
+      @Nullable ChunkCompressionType compressionType, int minCompressionSizeBytes) {
     _id = id;
     _channelManager = channelManager;
     _hostname = hostname;
     _port = port;
     _deadlineMs = deadlineMs;
     _statMap = statMap;
+    _compressionType = compressionType;
+    _minCompressionSizeBytes = minCompressionSizeBytes;
     _sender = maxByteStringSize > 0 ? new SplitSender(this, maxByteStringSize) : new NonSplitSender(this);
   }
 
@@ -130,7 +149,11 @@ public class GrpcSendingMailbox implements SendingMailbox {
     long start = System.currentTimeMillis();
     try {
       DataBlock dataBlock = MseBlockSerializer.toDataBlock(block, serializedStats);
-      int sizeInBytes = _sender.processAndSend(dataBlock);
+      List<ByteBuffer> serialized = dataBlock.serialize();
+      if (_compressionType != null) {
+        serialized = compress(dataBlock, serialized, _compressionType);
+      }
+      int sizeInBytes = _sender.processAndSend(serialized);
       if (LOGGER.isDebugEnabled()) {
         LOGGER.debug("Serialized block: {} to {} bytes", block, sizeInBytes);
       }
@@ -140,6 +163,29 @@ public class GrpcSendingMailbox implements SendingMailbox {
     }
   }
 
+  private List<ByteBuffer> compress(DataBlock dataBlock, List<ByteBuffer> serialized,
+      ChunkCompressionType compressionType)
+      throws IOException {
+    long sizeInBytes = DataBlockUtils.getSerializedSize(serialized);
+    if (sizeInBytes < _minCompressionSizeBytes) {
+      return serialized;
+    }
+    long startCpuTimeNs = ThreadResourceUsageProvider.getCurrentThreadCpuTime();
+    ByteBuffer compressed = DataBlockUtils.compress(serialized, dataBlock.getDataBlockType(), compressionType);
+    if (ThreadResourceUsageProvider.isThreadCpuTimeMeasurementEnabled()) {
+      _statMap.merge(MailboxSendOperator.StatKey.COMPRESSION_CPU_TIME_NS,
+          ThreadResourceUsageProvider.getCurrentThreadCpuTime() - startCpuTimeNs);
+    }
+    _statMap.merge(MailboxSendOperator.StatKey.COMPRESSION_INPUT_BYTES, sizeInBytes);
+    // Keep the uncompressed block when the data is not compressible
+    if (compressed.remaining() >= sizeInBytes) {
+      _statMap.merge(MailboxSendOperator.StatKey.COMPRESSION_OUTPUT_BYTES, sizeInBytes);
+      return serialized;
+    }
+    _statMap.merge(MailboxSendOperator.StatKey.COMPRESSION_OUTPUT_BYTES, compressed.remaining());
+    return List.of(compressed);
+  }
+
   @Override
   public void complete() {
     if (isTerminated()) {
@@ -232,6 +278,15 @@ public class GrpcSendingMailbox implements SendingMailbox {
       return block.getDataBlock();
     }
 
+    @Override
+    public DataBlock visit(ColumnarHeapDataBlock block, List<DataBuffer> serializedStats) {
+      // this is already guaranteed by the SendingMailbox.send(MseBlock.Data) signature, but just to be sure...
+      if (serializedStats != null && !serializedStats.isEmpty()) {
+        throw new UnsupportedOperationException("Cannot serialize stats with ColumnarHeapDataBlock");
+      }
+      return block.asSerialized().getDataBlock();
+    }
+
     @Override
     public DataBlock visit(SuccessMseBlock block, List<DataBuffer> serializedStats) {
       if (serializedStats != null && !serializedStats.isEmpty()) {
@@ -312,7 +367,7 @@ public class GrpcSendingMailbox implements SendingMailbox {
       _mailbox = mailbox;
     }
 
-    protected abstract int processAndSend(DataBlock dataBlock)
+    protected abstract int processAndSend(List<ByteBuffer> serialized)
         throws IOException;
   }
 
@@ -325,9 +380,8 @@ public class GrpcSendingMailbox implements SendingMailbox {
     }
 
     @Override
-    protected int processAndSend(DataBlock dataBlock)
-        throws IOException {
-      List<ByteString> byteStrings = toByteStrings(dataBlock, _maxByteStringSize);
+    protected int processAndSend(List<ByteBuffer> serialized) {
+      List<ByteString> byteStrings = toByteStrings(serialized, _maxByteStringSize);
       int sizeInBytes = 0;
       for (ByteString byteString : byteStrings) {
         sizeInBytes += byteString.size();
@@ -348,9 +402,8 @@ public class GrpcSendingMailbox implements SendingMailbox {
     }
 
     @Override
-    protected int processAndSend(DataBlock dataBlock)
-        throws IOException {
-      ByteString byteString = DataBlockUtils.toByteString(dataBlock);
+    protected int processAndSend(List<ByteBuffer> serialized) {
+      ByteString byteString = DataBlockUtils.toByteString(serialized);
       int sizeInBytes = byteString.size();
       _mailbox.sendContent(byteString, false);
       return sizeInBytes;
@@ -31,6 +31,7 @@ import org.apache.pinot.query.access.QueryAccessControlFactory;
 import org.apache.pinot.query.mailbox.channel.ChannelManager;
 import org.apache.pinot.query.mailbox.channel.GrpcMailboxServer;
 import org.apache.pinot.query.runtime.operator.MailboxSendOperator;
+import org.apache.pinot.segment.spi.compression.ChunkCompressionType;
 import org.apache.pinot.spi.config.instance.InstanceType;
 import org.apache.pinot.spi.env.PinotConfiguration;
 import org.apache.pinot.spi.utils.CommonConstants;
@@ -71,6 +72,7 @@ public class MailboxService {
   @Nullable private final TlsConfig _tlsConfig;
   @Nullable private final QueryAccessControlFactory _accessControlFactory;
   private final int _maxByteStringSize;
+  private final int _minCompressionSizeBytes;
 
   private GrpcMailboxServer _grpcMailboxServer;
 
@@ -105,6 +107,9 @@ public class MailboxService {
     } else {
       _maxByteStringSize = 0;
     }
+    _minCompressionSizeBytes = config.getProperty(
+        CommonConstants.MultiStageQueryRunner.KEY_OF_MAILBOX_COMPRESSION_MIN_SIZE_BYTES,
+        CommonConstants.MultiStageQueryRunner.DEFAULT_MAILBOX_COMPRESSION_MIN_SIZE_BYTES);
     LOGGER.info("Initialized MailboxService with hostname: {}, port: {}", hostname, port);
   }
 
@@ -144,11 +149,21 @@ public class MailboxService {
    */
   public SendingMailbox getSendingMailbox(String hostname, int port, String mailboxId, long deadlineMs,
       StatMap<MailboxSendOperator.StatKey> statMap) {
+    return getSendingMailbox(hostname, port, mailboxId, deadlineMs, statMap, null);
+  }
+
+  /**
+   * Same as {@link #getSendingMailbox(String, int, String, long, StatMap)}, but the blocks sent to the remote
+   * mailboxes are compressed with the given compression type when they are large enough. In-memory mailboxes never
+   * compress the blocks.
+   */
+  public SendingMailbox getSendingMailbox(String hostname, int port, String mailboxId, long deadlineMs,
+      StatMap<MailboxSendOperator.StatKey> statMap, @Nullable ChunkCompressionType compressionType) {
     if (_hostname.equals(hostname) && _port == port) {
       return new InMemorySendingMailbox(mailboxId, this, deadlineMs, statMap);
     } else {
       return new GrpcSendingMailbox(mailboxId, _channelManager, hostname, port, deadlineMs, statMap,
-          _maxByteStringSize);
+          _maxByteStringSize, compressionType, _minCompressionSizeBytes);
     }
   }
 
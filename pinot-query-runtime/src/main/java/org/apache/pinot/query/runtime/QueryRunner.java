@@ -35,6 +35,7 @@ import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.Nullable;
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.pinot.common.config.TlsConfig;
@@ -136,6 +137,9 @@ public class QueryRunner {
   @Nullable
   private JoinOverFlowMode _joinOverflowMode;
   @Nullable
+  private Long _joinSpillThresholdBytes;
+  private String _joinSpillDir;
+  @Nullable
   private Integer _maxRowsInWindow;
   @Nullable
   private WindowOverFlowMode _windowOverflowMode;
@@ -191,6 +195,12 @@ public class QueryRunner {
     String joinOverflowModeStr = serverConf.getProperty(MultiStageQueryRunner.KEY_OF_JOIN_OVERFLOW_MODE);
     _joinOverflowMode = joinOverflowModeStr != null ? JoinOverFlowMode.valueOf(joinOverflowModeStr) : null;
 
+    String joinSpillThresholdBytesStr = serverConf.getProperty(MultiStageQueryRunner.KEY_OF_JOIN_SPILL_THRESHOLD_BYTES);
+    _joinSpillThresholdBytes = joinSpillThresholdBytesStr != null ? Long.parseLong(joinSpillThresholdBytesStr) : null;
+
+    _joinSpillDir = serverConf.getProperty(MultiStageQueryRunner.KEY_OF_JOIN_SPILL_DIR,
+        FileUtils.getTempDirectoryPath());
+
     String maxRowsInWindowStr = serverConf.getProperty(MultiStageQueryRunner.KEY_OF_MAX_ROWS_IN_WINDOW);
     _maxRowsInWindow = maxRowsInWindowStr != null ? Integer.parseInt(maxRowsInWindowStr) : null;
 
@@ -500,6 +510,16 @@ public class QueryRunner {
       opChainMetadata.put(QueryOptionKey.JOIN_OVERFLOW_MODE, joinOverflowMode.name());
     }
 
+    Long joinSpillThresholdBytes = QueryOptionsUtils.getJoinSpillThresholdBytes(opChainMetadata);
+    if (joinSpillThresholdBytes == null) {
+      joinSpillThresholdBytes = _joinSpillThresholdBytes;
+    }
+    if (joinSpillThresholdBytes != null) {
+      opChainMetadata.put(QueryOptionKey.JOIN_SPILL_THRESHOLD_BYTES, Long.toString(joinSpillThresholdBytes));
+    }
+    // The spill directory is always taken from the server config and cannot be overridden by the query
+    opChainMetadata.put(QueryOptionKey.JOIN_SPILL_DIR, _joinSpillDir);
+
     Integer maxRowsInWindow = QueryOptionsUtils.getMaxRowsInWindow(opChainMetadata);
     if (maxRowsInWindow == null) {
       maxRowsInWindow = _maxRowsInWindow;
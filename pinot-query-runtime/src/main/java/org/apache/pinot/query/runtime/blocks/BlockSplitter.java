@@ -45,7 +45,8 @@ public interface BlockSplitter {
    *  Split a block into multiple block so that each block size is within maxBlockSize. Currently,
    *  <ul>
    *    <li>For row data block, we split for row type dataBlock.</li>
-   *    <li>For columnar data block, exceptions are thrown.</li>
+   *    <li>For columnar heap data block, we split by row ranges.</li>
+   *    <li>For columnar data block, the block is not split.</li>
    *    <li>For metadata block, split is not supported.</li>
    *  </ul>
    *
@@ -93,5 +94,26 @@ public interface BlockSplitter {
       }
       return Iterators.singletonIterator(block);
     }
+
+    @Override
+    public Iterator<MseBlock.Data> visit(ColumnarHeapDataBlock block, Integer maxBlockSize) {
+      // Use the same estimated row size as for row heap blocks to keep the chunks consistent.
+      DataSchema dataSchema = block.getDataSchema();
+      int estimatedRowSizeInBytes = Math.max(1, dataSchema.getColumnNames().length * MEDIAN_COLUMN_SIZE_BYTES);
+      int numRowsPerChunk = maxBlockSize / estimatedRowSizeInBytes;
+      Preconditions.checkState(numRowsPerChunk > 0, "row size too large for query engine to handle, abort!");
+
+      int numRows = block.getNumRows();
+      int numChunks = (numRows + numRowsPerChunk - 1) / numRowsPerChunk;
+      if (numChunks <= 1) {
+        return Iterators.singletonIterator(block);
+      }
+      List<MseBlock.Data> blockChunks = new ArrayList<>(numChunks);
+      for (int fromIndex = 0; fromIndex < numRows; fromIndex += numRowsPerChunk) {
+        int toIndex = Math.min(fromIndex + numRowsPerChunk, numRows);
+        blockChunks.add(block.slice(fromIndex, toIndex));
+      }
+      return blockChunks.iterator();
+    }
   }
 }
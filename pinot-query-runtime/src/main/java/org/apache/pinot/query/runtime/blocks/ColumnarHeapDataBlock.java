@@ -0,0 +1,486 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.query.runtime.blocks;
+
+import com.google.common.base.Preconditions;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.annotation.Nullable;
+import org.apache.pinot.common.datablock.DataBlock;
+import org.apache.pinot.common.utils.DataSchema;
+import org.apache.pinot.common.utils.DataSchema.ColumnDataType;
+import org.apache.pinot.core.common.datablock.DataBlockBuilder;
+import org.apache.pinot.core.util.DataBlockExtractUtils;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+
+/// A block that contains data in columnar heap format.
+/// This means that each column is stored in a single array: `int[]`, `long[]`, `float[]` or `double[]` for columns
+/// whose stored type is INT, LONG, FLOAT or DOUBLE, and `Object[]` for the other stored types. Null values are tracked
+/// in one (optional) [RoaringBitmap] per column. The values of the null rows in the primitive columns are undefined and
+/// must be ignored.
+///
+/// Compared to [RowHeapDataBlock], fixed width values are not boxed and there is no array per row, which reduces the
+/// memory used by the block and the allocation rate of the operators that are able to process it directly
+/// ([FilterOperator][org.apache.pinot.query.runtime.operator.FilterOperator],
+/// [TransformOperator][org.apache.pinot.query.runtime.operator.TransformOperator],
+/// [AggregateOperator][org.apache.pinot.query.runtime.operator.AggregateOperator] and
+/// [HashExchange][org.apache.pinot.query.runtime.operator.exchange.HashExchange]).
+/// The format maps directly onto [ColumnarDataBlock][org.apache.pinot.common.datablock.ColumnarDataBlock] when the
+/// block needs to be serialized.
+///
+/// Blocks whose schema contains OBJECT columns (aggregation intermediate results) cannot be stored in this format.
+/// Use [#isSupported(DataSchema)] before converting a block.
+public class ColumnarHeapDataBlock implements MseBlock.Data {
+  private final int _numRows;
+  private final Object[] _columns;
+  private final RoaringBitmap[] _nullBitmaps;
+  private final DataSchema _dataSchema;
+
+  /// Creates a new block with the given columns.
+  /// @param numRows The number of rows in the block. All the columns must have exactly this number of values.
+  /// @param columns The columns in the block, see the class documentation for the expected array types. Once received,
+  ///                the arrays should not be mutated from outside this class.
+  /// @param nullBitmaps The null bitmap of each column, where a `null` entry means the column has no null values.
+  /// @param dataSchema The schema of the data in the block.
+  public ColumnarHeapDataBlock(int numRows, Object[] columns, RoaringBitmap[] nullBitmaps, DataSchema dataSchema) {
+    Preconditions.checkArgument(columns.length == dataSchema.size() && nullBitmaps.length == dataSchema.size(),
+        "Number of columns: %s and null bitmaps: %s must match the schema size: %s", columns.length,
+        nullBitmaps.length, dataSchema.size());
+    _numRows = numRows;
+    _columns = columns;
+    _nullBitmaps = nullBitmaps;
+    _dataSchema = dataSchema;
+  }
+
+  /// Returns whether data with the given schema can be stored in a [ColumnarHeapDataBlock].
+  public static boolean isSupported(DataSchema dataSchema) {
+    for (ColumnDataType storedType : dataSchema.getStoredColumnDataTypes()) {
+      if (storedType == ColumnDataType.OBJECT) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /// Returns whether the given block should be processed in columnar format by the operators that support it.
+  /// This is the case when the columnar data blocks are enabled for the query with the `useColumnarDataBlocks` query
+  /// option, and the block is already a [ColumnarHeapDataBlock] or a serialized
+  /// [ColumnarDataBlock][org.apache.pinot.common.datablock.ColumnarDataBlock]. Blocks in row format are kept in row
+  /// format, as converting them would cost as much as the savings of the columnar processing. Without the option, the
+  /// blocks are always processed in row format.
+  public static boolean shouldProcessAsColumnar(MseBlock.Data block, boolean useColumnarDataBlocks) {
+    if (!useColumnarDataBlocks) {
+      return false;
+    }
+    if (block.isColumnar()) {
+      return true;
+    }
+    return block instanceof SerializedDataBlock
+        && ((SerializedDataBlock) block).getDataBlock().getDataBlockType() == DataBlock.Type.COLUMNAR
+        && isSupported(block.getDataSchema());
+  }
+
+  /// Creates a new block from the given rows.
+  public static ColumnarHeapDataBlock fromRows(List<Object[]> rows, DataSchema dataSchema) {
+    ColumnDataType[] storedTypes = dataSchema.getStoredColumnDataTypes();
+    int numColumns = storedTypes.length;
+    int numRows = rows.size();
+    ColumnBuilder[] builders = new ColumnBuilder[numColumns];
+    for (int colId = 0; colId < numColumns; colId++) {
+      builders[colId] = new ColumnBuilder(storedTypes[colId], numRows);
+    }
+    for (int rowId = 0; rowId < numRows; rowId++) {
+      Object[] row = rows.get(rowId);
+      for (int colId = 0; colId < numColumns; colId++) {
+        builders[colId].set(rowId, row[colId]);
+      }
+    }
+    return build(numRows, builders, dataSchema);
+  }
+
+  /// Creates a new block from the given (non-metadata) data block, which can be either in row or columnar format.
+  public static ColumnarHeapDataBlock fromDataBlock(DataBlock dataBlock) {
+    DataSchema dataSchema = dataBlock.getDataSchema();
+    ColumnDataType[] storedTypes = dataSchema.getStoredColumnDataTypes();
+    int numColumns = storedTypes.length;
+    int numRows = dataBlock.getNumberOfRows();
+    Object[] columns = new Object[numColumns];
+    RoaringBitmap[] nullBitmaps = new RoaringBitmap[numColumns];
+    for (int colId = 0; colId < numColumns; colId++) {
+      RoaringBitmap nullBitmap = dataBlock.getNullRowIds(colId);
+      nullBitmaps[colId] = nullBitmap;
+      ColumnDataType storedType = storedTypes[colId];
+      switch (storedType) {
+        case INT: {
+          int[] values = new int[numRows];
+          for (int rowId = 0; rowId < numRows; rowId++) {
+            values[rowId] = dataBlock.getInt(rowId, colId);
+          }
+          columns[colId] = values;
+          break;
+        }
+        case LONG: {
+          long[] values = new long[numRows];
+          for (int rowId = 0; rowId < numRows; rowId++) {
+            values[rowId] = dataBlock.getLong(rowId, colId);
+          }
+          columns[colId] = values;
+          break;
+        }
+        case FLOAT: {
+          float[] values = new float[numRows];
+          for (int rowId = 0; rowId < numRows; rowId++) {
+            values[rowId] = dataBlock.getFloat(rowId, colId);
+          }
+          columns[colId] = values;
+          break;
+        }
+        case DOUBLE: {
+          double[] values = new double[numRows];
+          for (int rowId = 0; rowId < numRows; rowId++) {
+            values[rowId] = dataBlock.getDouble(rowId, colId);
+          }
+          columns[colId] = values;
+          break;
+        }
+        default: {
+          Object[] values = new Object[numRows];
+          for (int rowId = 0; rowId < numRows; rowId++) {
+            if (nullBitmap == null || !nullBitmap.contains(rowId)) {
+              values[rowId] = DataBlockExtractUtils.extractValue(dataBlock, storedType, rowId, colId);
+            }
+          }
+          columns[colId] = values;
+          break;
+        }
+      }
+    }
+    return new ColumnarHeapDataBlock(numRows, columns, nullBitmaps, dataSchema);
+  }
+
+  private static ColumnarHeapDataBlock build(int numRows, ColumnBuilder[] builders, DataSchema dataSchema) {
+    int numColumns = builders.length;
+    Object[] columns = new Object[numColumns];
+    RoaringBitmap[] nullBitmaps = new RoaringBitmap[numColumns];
+    for (int colId = 0; colId < numColumns; colId++) {
+      columns[colId] = builders[colId].getValues();
+      nullBitmaps[colId] = builders[colId].getNullBitmap();
+    }
+    return new ColumnarHeapDataBlock(numRows, columns, nullBitmaps, dataSchema);
+  }
+
+  @Override
+  public int getNumRows() {
+    return _numRows;
+  }
+
+  @Override
+  public DataSchema getDataSchema() {
+    return _dataSchema;
+  }
+
+  /// Returns the values of the given column, see the class documentation for the array type.
+  /// The returned array should be considered immutable.
+  public Object getColumn(int colId) {
+    return _columns[colId];
+  }
+
+  /// Returns the null bitmap of the given column, or `null` if the column has no null values.
+  /// The returned bitmap should be considered immutable.
+  @Nullable
+  public RoaringBitmap getNullBitmap(int colId) {
+    return _nullBitmaps[colId];
+  }
+
+  public boolean isNull(int rowId, int colId) {
+    RoaringBitmap nullBitmap = _nullBitmaps[colId];
+    return nullBitmap != null && nullBitmap.contains(rowId);
+  }
+
+  /// Returns the (boxed) value at the given position, or `null` if the value is null.
+  @Nullable
+  public Object getValue(int rowId, int colId) {
+    Object column = _columns[colId];
+    if (column instanceof Object[]) {
+      return ((Object[]) column)[rowId];
+    }
+    if (isNull(rowId, colId)) {
+      return null;
+    }
+    if (column instanceof int[]) {
+      return ((int[]) column)[rowId];
+    } else if (column instanceof long[]) {
+      return ((long[]) column)[rowId];
+    } else if (column instanceof float[]) {
+      return ((float[]) column)[rowId];
+    } else {
+      return ((double[]) column)[rowId];
+    }
+  }
+
+  /// Returns a reusable view over the rows of this block that can be fed to the row based APIs.
+  /// Values are boxed lazily when they are accessed.
+  public RowView getRowView() {
+    return new RowView();
+  }
+
+  /// Returns a new block with the given rows of this block.
+  /// @param rowIds The ids of the rows to keep, in ascending order. Only the first `numRows` entries are read.
+  public ColumnarHeapDataBlock select(int[] rowIds, int numRows) {
+    int numColumns = _columns.length;
+    Object[] columns = new Object[numColumns];
+    RoaringBitmap[] nullBitmaps = new RoaringBitmap[numColumns];
+    for (int colId = 0; colId < numColumns; colId++) {
+      Object column = _columns[colId];
+      if (column instanceof int[]) {
+        int[] values = (int[]) column;
+        int[] selected = new int[numRows];
+        for (int i = 0; i < numRows; i++) {
+          selected[i] = values[rowIds[i]];
+        }
+        columns[colId] = selected;
+      } else if (column instanceof long[]) {
+        long[] values = (long[]) column;
+        long[] selected = new long[numRows];
+        for (int i = 0; i < numRows; i++) {
+          selected[i] = values[rowIds[i]];
+        }
+        columns[colId] = selected;
+      } else if (column instanceof float[]) {
+        float[] values = (float[]) column;
+        float[] selected = new float[numRows];
+        for (int i = 0; i < numRows; i++) {
+          selected[i] = values[rowIds[i]];
+        }
+        columns[colId] = selected;
+      } else if (column instanceof double[]) {
+        double[] values = (double[]) column;
+        double[] selected = new double[numRows];
+        for (int i = 0; i < numRows; i++) {
+          selected[i] = values[rowIds[i]];
+        }
+        columns[colId] = selected;
+      } else {
+        Object[] values = (Object[]) column;
+        Object[] selected = new Object[numRows];
+        for (int i = 0; i < numRows; i++) {
+          selected[i] = values[rowIds[i]];
+        }
+        columns[colId] = selected;
+      }
+      RoaringBitmap nullBitmap = _nullBitmaps[colId];
+      if (nullBitmap != null && !nullBitmap.isEmpty()) {
+        RoaringBitmap selectedNullBitmap = new RoaringBitmap();
+        for (int i = 0; i < numRows; i++) {
+          if (nullBitmap.contains(rowIds[i])) {
+            selectedNullBitmap.add(i);
+          }
+        }
+        if (!selectedNullBitmap.isEmpty()) {
+          nullBitmaps[colId] = selectedNullBitmap;
+        }
+      }
+    }
+    return new ColumnarHeapDataBlock(numRows, columns, nullBitmaps, _dataSchema);
+  }
+
+  /// Returns a new block with the rows of this block in the range `[fromRowId, toRowId)`.
+  public ColumnarHeapDataBlock slice(int fromRowId, int toRowId) {
+    int numColumns = _columns.length;
+    Object[] columns = new Object[numColumns];
+    RoaringBitmap[] nullBitmaps = new RoaringBitmap[numColumns];
+    for (int colId = 0; colId < numColumns; colId++) {
+      Object column = _columns[colId];
+      if (column instanceof int[]) {
+        columns[colId] = Arrays.copyOfRange((int[]) column, fromRowId, toRowId);
+      } else if (column instanceof long[]) {
+        columns[colId] = Arrays.copyOfRange((long[]) column, fromRowId, toRowId);
+      } else if (column instanceof float[]) {
+        columns[colId] = Arrays.copyOfRange((float[]) column, fromRowId, toRowId);
+      } else if (column instanceof double[]) {
+        columns[colId] = Arrays.copyOfRange((double[]) column, fromRowId, toRowId);
+      } else {
+        columns[colId] = Arrays.copyOfRange((Object[]) column, fromRowId, toRowId);
+      }
+      RoaringBitmap nullBitmap = _nullBitmaps[colId];
+      if (nullBitmap != null && !nullBitmap.isEmpty()) {
+        RoaringBitmap slicedNullBitmap = new RoaringBitmap();
+        PeekableIntIterator iterator = nullBitmap.getIntIterator();
+        iterator.advanceIfNeeded(fromRowId);
+        while (iterator.hasNext()) {
+          int rowId = iterator.next();
+          if (rowId >= toRowId) {
+            break;
+          }
+          slicedNullBitmap.add(rowId - fromRowId);
+        }
+        if (!slicedNullBitmap.isEmpty()) {
+          nullBitmaps[colId] = slicedNullBitmap;
+        }
+      }
+    }
+    return new ColumnarHeapDataBlock(toRowId - fromRowId, columns, nullBitmaps, _dataSchema);
+  }
+
+  @Override
+  public RowHeapDataBlock asRowHeap() {
+    int numColumns = _columns.length;
+    List<Object[]> rows = new ArrayList<>(_numRows);
+    for (int rowId = 0; rowId < _numRows; rowId++) {
+      Object[] row = new Object[numColumns];
+      for (int colId = 0; colId < numColumns; colId++) {
+        row[colId] = getValue(rowId, colId);
+      }
+      rows.add(row);
+    }
+    return new RowHeapDataBlock(rows, _dataSchema);
+  }
+
+  @Override
+  public SerializedDataBlock asSerialized() {
+    try {
+      return new SerializedDataBlock(
+          DataBlockBuilder.buildFromTypedColumns(_numRows, _columns, _nullBitmaps, _dataSchema));
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  /// Returns this same object.
+  @Override
+  public ColumnarHeapDataBlock asColumnar() {
+    return this;
+  }
+
+  @Override
+  public boolean isRowHeap() {
+    return false;
+  }
+
+  @Override
+  public boolean isColumnar() {
+    return true;
+  }
+
+  @Override
+  public <R, A> R accept(Visitor<R, A> visitor, A arg) {
+    return visitor.visit(this, arg);
+  }
+
+  @Override
+  public String toString() {
+    return "{\"type\": \"columnarHeap\", \"numRows\": " + getNumRows() + "}";
+  }
+
+  /// A view over a single row of the block, which can be moved to another row with [#setRowId(int)].
+  public class RowView extends AbstractList<Object> {
+    private int _rowId;
+
+    private RowView() {
+    }
+
+    public void setRowId(int rowId) {
+      _rowId = rowId;
+    }
+
+    @Nullable
+    @Override
+    public Object get(int colId) {
+      return getValue(_rowId, colId);
+    }
+
+    @Override
+    public int size() {
+      return _columns.length;
+    }
+  }
+
+  /// Builds a single column of a [ColumnarHeapDataBlock] one value at a time.
+  public static class ColumnBuilder {
+    private final ColumnDataType _storedType;
+    private final Object _values;
+    private RoaringBitmap _nullBitmap;
+
+    public ColumnBuilder(ColumnDataType storedType, int numRows) {
+      _storedType = storedType;
+      switch (storedType) {
+        case INT:
+          _values = new int[numRows];
+          break;
+        case LONG:
+          _values = new long[numRows];
+          break;
+        case FLOAT:
+          _values = new float[numRows];
+          break;
+        case DOUBLE:
+          _values = new double[numRows];
+          break;
+        default:
+          _values = new Object[numRows];
+          break;
+      }
+    }
+
+    /// Sets the value of the given row.
+    /// NOTE: Like in [DataBlockBuilder], the type casting is strict (e.g. only accepting Integer for INT) to catch
+    /// values that don't conform to the data schema early.
+    public void set(int rowId, @Nullable Object value) {
+      if (value == null) {
+        if (_nullBitmap == null) {
+          _nullBitmap = new RoaringBitmap();
+        }
+        _nullBitmap.add(rowId);
+        return;
+      }
+      switch (_storedType) {
+        case INT:
+          ((int[]) _values)[rowId] = (int) value;
+          break;
+        case LONG:
+          ((long[]) _values)[rowId] = (long) value;
+          break;
+        case FLOAT:
+          ((float[]) _values)[rowId] = (float) value;
+          break;
+        case DOUBLE:
+          ((double[]) _values)[rowId] = (double) value;
+          break;
+        default:
+          ((Object[]) _values)[rowId] = value;
+          break;
+      }
+    }
+
+    public Object getValues() {
+      return _values;
+    }
+
+    @Nullable
+    public RoaringBitmap getNullBitmap() {
+      return _nullBitmap;
+    }
+  }
+}
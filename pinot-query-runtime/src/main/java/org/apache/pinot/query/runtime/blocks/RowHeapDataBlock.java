@@ -111,6 +111,11 @@ public class RowHeapDataBlock implements MseBlock.Data {
     }
   }
 
+  @Override
+  public ColumnarHeapDataBlock asColumnar() {
+    return ColumnarHeapDataBlock.fromRows(_rows, _dataSchema);
+  }
+
   @Override
   public boolean isRowHeap() {
     return true;
@@ -69,6 +69,11 @@ public class SerializedDataBlock implements MseBlock.Data {
     return this;
   }
 
+  @Override
+  public ColumnarHeapDataBlock asColumnar() {
+    return ColumnarHeapDataBlock.fromDataBlock(_dataBlock);
+  }
+
   @Override
   public boolean isRowHeap() {
     return false;
@@ -36,6 +36,7 @@ import org.apache.pinot.common.request.context.FunctionContext;
 import org.apache.pinot.common.utils.DataSchema;
 import org.apache.pinot.common.utils.config.QueryOptionsUtils;
 import org.apache.pinot.core.common.BlockValSet;
+import org.apache.pinot.core.operator.docvalsets.ColumnarBlockValSet;
 import org.apache.pinot.core.operator.docvalsets.DataBlockValSet;
 import org.apache.pinot.core.operator.docvalsets.FilteredDataBlockValSet;
 import org.apache.pinot.core.operator.docvalsets.FilteredRowBasedBlockValSet;
@@ -49,6 +50,7 @@ import org.apache.pinot.query.parser.CalciteRexExpressionParser;
 import org.apache.pinot.query.planner.logical.RexExpression;
 import org.apache.pinot.query.planner.plannode.AggregateNode;
 import org.apache.pinot.query.planner.plannode.PlanNode;
+import org.apache.pinot.query.runtime.blocks.ColumnarHeapDataBlock;
 import org.apache.pinot.query.runtime.blocks.MseBlock;
 import org.apache.pinot.query.runtime.blocks.RowHeapDataBlock;
 import org.apache.pinot.query.runtime.operator.utils.SortUtils;
@@ -347,7 +349,17 @@ public class AggregateOperator extends MultiStageOperator {
   static RoaringBitmap getMatchedBitmap(MseBlock.Data block, int filterArgId) {
     Preconditions.checkArgument(filterArgId >= 0, "Got negative filter argument id: %s", filterArgId);
     RoaringBitmap matchedBitmap = new RoaringBitmap();
-    if (block.isRowHeap()) {
+    if (block.isColumnar()) {
+      ColumnarHeapDataBlock columnarBlock = block.asColumnar();
+      int[] values = (int[]) columnarBlock.getColumn(filterArgId);
+      RoaringBitmap nullBitmap = columnarBlock.getNullBitmap(filterArgId);
+      int numRows = columnarBlock.getNumRows();
+      for (int rowId = 0; rowId < numRows; rowId++) {
+        if (values[rowId] == 1 && (nullBitmap == null || !nullBitmap.contains(rowId))) {
+          matchedBitmap.add(rowId);
+        }
+      }
+    } else if (block.isRowHeap()) {
       List<Object[]> rows = block.asRowHeap().getRows();
       int numRows = rows.size();
       for (int rowId = 0; rowId < numRows; rowId++) {
@@ -377,7 +389,9 @@ public class AggregateOperator extends MultiStageOperator {
     DataSchema dataSchema = block.getDataSchema();
     assert dataSchema != null;
     Map<ExpressionContext, BlockValSet> blockValSetMap = new HashMap<>();
-    if (block.isRowHeap()) {
+    if (block.isColumnar()) {
+      putColumnarBlockValSets(expressions, block.asColumnar(), blockValSetMap);
+    } else if (block.isRowHeap()) {
       List<Object[]> rows = block.asRowHeap().getRows();
       for (ExpressionContext expression : expressions) {
         String identifier = expression.getIdentifier();
@@ -410,7 +424,10 @@ public class AggregateOperator extends MultiStageOperator {
     DataSchema dataSchema = block.getDataSchema();
     assert dataSchema != null;
     Map<ExpressionContext, BlockValSet> blockValSetMap = new HashMap<>();
-    if (block.isRowHeap()) {
+    if (block.isColumnar()) {
+      putColumnarBlockValSets(expressions, block.asColumnar().select(matchedBitmap.toArray(), numMatchedRows),
+          blockValSetMap);
+    } else if (block.isRowHeap()) {
       List<Object[]> rows = block.asRowHeap().getRows();
       for (ExpressionContext expression : expressions) {
         String identifier = expression.getIdentifier();
@@ -436,13 +453,35 @@ public class AggregateOperator extends MultiStageOperator {
     return blockValSetMap;
   }
 
+  private static void putColumnarBlockValSets(List<ExpressionContext> expressions, ColumnarHeapDataBlock block,
+      Map<ExpressionContext, BlockValSet> blockValSetMap) {
+    DataSchema dataSchema = block.getDataSchema();
+    int numRows = block.getNumRows();
+    for (ExpressionContext expression : expressions) {
+      String identifier = expression.getIdentifier();
+      if (identifier != null) {
+        int colId = fromIdentifierToColId(identifier);
+        blockValSetMap.put(expression,
+            new ColumnarBlockValSet(dataSchema.getColumnDataType(colId), block.getColumn(colId), numRows,
+                block.getNullBitmap(colId)));
+      }
+    }
+  }
+
   static Object[] getIntermediateResults(AggregationFunction<?, ?> aggFunction, MseBlock.Data block) {
     ExpressionContext firstArgument = aggFunction.getInputExpressions().get(0);
     Preconditions.checkState(firstArgument.getType() == ExpressionContext.Type.IDENTIFIER,
         "Expected the first argument to be IDENTIFIER, got: %s", firstArgument.getType());
     int colId = fromIdentifierToColId(firstArgument.getIdentifier());
     int numRows = block.getNumRows();
-    if (block.isRowHeap()) {
+    if (block.isColumnar()) {
+      ColumnarHeapDataBlock columnarBlock = block.asColumnar();
+      Object[] values = new Object[numRows];
+      for (int rowId = 0; rowId < numRows; rowId++) {
+        values[rowId] = columnarBlock.getValue(rowId, colId);
+      }
+      return values;
+    } else if (block.isRowHeap()) {
       Object[] values = new Object[numRows];
       List<Object[]> rows = block.asRowHeap().getRows();
       for (int rowId = 0; rowId < numRows; rowId++) {
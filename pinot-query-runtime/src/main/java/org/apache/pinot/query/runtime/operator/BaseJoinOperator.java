@@ -48,9 +48,10 @@ import org.slf4j.LoggerFactory;
 
 /**
  * The {@code BaseJoinOperator} implements the basic join algorithm.
- * <p>This algorithm assumes that the right table has to fit in memory since we are not supporting any spilling. It
- * reads the complete right table and materialize the data in memory. Then for each of the left table row, it looks up
- * for the corresponding row(s) from the right table, applies the non-equi evaluators and creates a joint row.
+ * <p>This algorithm assumes that the right table has to fit in memory. It reads the complete right table and
+ * materialize the data in memory. Then for each of the left table row, it looks up for the corresponding row(s) from
+ * the right table, applies the non-equi evaluators and creates a joint row. Subclasses can relax the memory assumption
+ * by spilling (see {@link HashJoinOperator}).
  * <p>For each of the data block received from the left table, it generates a joint data block. The output is in the
  * format of [left_row, right_row].
  */
@@ -158,6 +159,25 @@ public abstract class BaseJoinOperator extends MultiStageOperator {
     return joinOverflowMode != null ? joinOverflowMode : DEFAULT_JOIN_OVERFLOW_MODE;
   }
 
+  /**
+   * Returns the estimated size (in bytes) of the right table that can be kept in memory before spilling, or {@code 0}
+   * when spilling is disabled.
+   */
+  protected static long getJoinSpillThresholdBytes(Map<String, String> opChainMetadata,
+      @Nullable PlanNode.NodeHint nodeHint) {
+    if (nodeHint != null) {
+      Map<String, String> joinOptions = nodeHint.getHintOptions().get(PinotHintOptions.JOIN_HINT_OPTIONS);
+      if (joinOptions != null) {
+        String joinSpillThresholdBytesStr = joinOptions.get(JoinHintOptions.JOIN_SPILL_THRESHOLD_BYTES);
+        if (joinSpillThresholdBytesStr != null) {
+          return Long.parseLong(joinSpillThresholdBytesStr);
+        }
+      }
+    }
+    Long joinSpillThresholdBytes = QueryOptionsUtils.getJoinSpillThresholdBytes(opChainMetadata);
+    return joinSpillThresholdBytes != null ? joinSpillThresholdBytes : 0;
+  }
+
   @Override
   public void registerExecution(long time, int numRows, long memoryUsedBytes, long gcTimeMs) {
     _statMap.merge(StatKey.EXECUTION_TIME_MS, time);
@@ -397,7 +417,15 @@ public abstract class BaseJoinOperator extends MultiStageOperator {
     /**
      * Time spent on GC while this operator or its children in the same stage were running.
      */
-    GC_TIME_MS(StatMap.Type.LONG);
+    GC_TIME_MS(StatMap.Type.LONG),
+    /**
+     * Number of bytes written to disk when the right table exceeded the join spill threshold.
+     */
+    SPILLED_BYTES(StatMap.Type.LONG),
+    /**
+     * Number of partitions the join inputs were split into when the right table exceeded the join spill threshold.
+     */
+    SPILLED_PARTITIONS(StatMap.Type.INT);
 
     private final StatMap.Type _type;
 
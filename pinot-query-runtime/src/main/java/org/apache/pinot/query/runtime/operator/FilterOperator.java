@@ -24,13 +24,17 @@ import java.util.List;
 import org.apache.pinot.common.datatable.StatMap;
 import org.apache.pinot.common.utils.DataSchema;
 import org.apache.pinot.common.utils.DataSchema.ColumnDataType;
+import org.apache.pinot.common.utils.config.QueryOptionsUtils;
 import org.apache.pinot.query.planner.plannode.FilterNode;
+import org.apache.pinot.query.runtime.blocks.ColumnarHeapDataBlock;
 import org.apache.pinot.query.runtime.blocks.MseBlock;
 import org.apache.pinot.query.runtime.blocks.RowHeapDataBlock;
+import org.apache.pinot.query.runtime.operator.operands.ColumnarFilterEvaluator;
 import org.apache.pinot.query.runtime.operator.operands.TransformOperand;
 import org.apache.pinot.query.runtime.operator.operands.TransformOperandFactory;
 import org.apache.pinot.query.runtime.plan.OpChainExecutionContext;
 import org.apache.pinot.spi.utils.BooleanUtils;
+import org.roaringbitmap.RoaringBitmap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -47,6 +51,7 @@ import org.slf4j.LoggerFactory;
     2) Binary Operand: equals, notEquals, greaterThan, greaterThanOrEqual, lessThan, lessThanOrEqual
     3) All boolean scalar functions we have that take tranformOperand.
     Note: Scalar functions are the ones we have in v1 engine and only do function name and arg # matching.
+   Columnar input blocks (see ColumnarHeapDataBlock) are filtered with a ColumnarFilterEvaluator and stay columnar.
  */
 public class FilterOperator extends MultiStageOperator {
 
@@ -55,6 +60,8 @@ public class FilterOperator extends MultiStageOperator {
 
   private final MultiStageOperator _input;
   private final TransformOperand _filterOperand;
+  private final ColumnarFilterEvaluator _columnarFilterEvaluator;
+  private final boolean _useColumnarDataBlocks;
   private final DataSchema _dataSchema;
   private final StatMap<StatKey> _statMap = new StatMap<>(StatKey.class);
 
@@ -65,6 +72,8 @@ public class FilterOperator extends MultiStageOperator {
     _filterOperand = TransformOperandFactory.getTransformOperand(node.getCondition(), _dataSchema);
     Preconditions.checkState(_filterOperand.getResultType() == ColumnDataType.BOOLEAN,
         "Filter operand must return BOOLEAN, got: %s", _filterOperand.getResultType());
+    _columnarFilterEvaluator = ColumnarFilterEvaluator.create(node.getCondition(), _dataSchema);
+    _useColumnarDataBlocks = QueryOptionsUtils.isUseColumnarDataBlocks(context.getOpChainMetadata());
   }
 
   @Override
@@ -105,6 +114,16 @@ public class FilterOperator extends MultiStageOperator {
         return block;
       }
       MseBlock.Data dataBlock = (MseBlock.Data) block;
+      if (ColumnarHeapDataBlock.shouldProcessAsColumnar(dataBlock, _useColumnarDataBlocks)) {
+        ColumnarHeapDataBlock columnarBlock = dataBlock.asColumnar();
+        RoaringBitmap matchedRows = _columnarFilterEvaluator.getMatchedRows(columnarBlock);
+        int numMatchedRows = matchedRows.getCardinality();
+        if (numMatchedRows == 0) {
+          continue;
+        }
+        return numMatchedRows == columnarBlock.getNumRows() ? columnarBlock
+            : columnarBlock.select(matchedRows.toArray(), numMatchedRows);
+      }
       List<Object[]> rows = new ArrayList<>();
       for (Object[] row : dataBlock.asRowHeap().getRows()) {
         Object filterResult = _filterOperand.apply(row);
@@ -19,6 +19,7 @@
 package org.apache.pinot.query.runtime.operator;
 
 import com.google.common.base.Preconditions;
+import java.io.File;
 import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.HashMap;
@@ -26,28 +27,40 @@ import java.util.List;
 import java.util.Map;
 import javax.annotation.Nullable;
 import org.apache.calcite.rel.core.JoinRelType;
+import org.apache.commons.io.FileUtils;
 import org.apache.pinot.common.utils.DataSchema;
+import org.apache.pinot.common.utils.config.QueryOptionsUtils;
 import org.apache.pinot.core.data.table.Key;
 import org.apache.pinot.query.planner.partitioning.KeySelector;
 import org.apache.pinot.query.planner.partitioning.KeySelectorFactory;
 import org.apache.pinot.query.planner.plannode.JoinNode;
 import org.apache.pinot.query.runtime.blocks.MseBlock;
+import org.apache.pinot.query.runtime.blocks.RowHeapDataBlock;
 import org.apache.pinot.query.runtime.operator.join.DoubleLookupTable;
 import org.apache.pinot.query.runtime.operator.join.FloatLookupTable;
 import org.apache.pinot.query.runtime.operator.join.IntLookupTable;
 import org.apache.pinot.query.runtime.operator.join.LongLookupTable;
 import org.apache.pinot.query.runtime.operator.join.LookupTable;
 import org.apache.pinot.query.runtime.operator.join.ObjectLookupTable;
+import org.apache.pinot.query.runtime.operator.join.SpilledPartitions;
 import org.apache.pinot.query.runtime.plan.OpChainExecutionContext;
+import org.apache.pinot.spi.utils.CommonConstants.MultiStageQueryRunner.JoinOverFlowMode;
 
 
 /**
  * This {@code HashJoinOperator} join algorithm with join keys. Right table is materialized into a hash table.
+ * <p>When a join spill threshold is configured (see {@link BaseJoinOperator#getJoinSpillThresholdBytes}) and the
+ * estimated size of the right table exceeds it, the operator switches to a grace hash join: both inputs are hash
+ * partitioned on the join keys into files on local disk, then each partition is joined independently so that only one
+ * partition of the right table needs to be kept in memory at a time. The row limit then applies to each partition.
  */
-// TODO: Support memory size based resource limit.
 @SuppressWarnings("unchecked")
 public class HashJoinOperator extends BaseJoinOperator {
   private static final String EXPLAIN_NAME = "HASH_JOIN";
+  private static final int NUM_SPILL_PARTITIONS = 32;
+  // Rough per row overhead of the hash table, plus the object header and references of the row array
+  private static final int ROW_OVERHEAD_BYTES = 64;
+  private static final int NUM_ROWS_TO_SAMPLE_PER_BLOCK = 8;
 
   // Placeholder for BitSet in _matchedRightRows when all keys are unique in the right table.
   protected static final BitSet BIT_SET_PLACEHOLDER = new BitSet(0);
@@ -65,6 +78,20 @@ public class HashJoinOperator extends BaseJoinOperator {
   @Nullable
   private List<Object[]> _nullKeyRightRows;
 
+  private final List<Integer> _leftKeys;
+  private final DataSchema _leftSchema;
+  private final long _spillThresholdBytes;
+  // Both inputs are spilled once the right table exceeds the spill threshold
+  @Nullable
+  private SpilledPartitions _rightSpilledPartitions;
+  @Nullable
+  private SpilledPartitions _leftSpilledPartitions;
+  @Nullable
+  private MseBlock.Eos _leftEos;
+  private int _spilledPartitionId = -1;
+  @Nullable
+  private SpilledPartitions.Reader _spilledLeftReader;
+
   public HashJoinOperator(OpChainExecutionContext context, MultiStageOperator leftInput, DataSchema leftSchema,
       MultiStageOperator rightInput, JoinNode node) {
     super(context, leftInput, leftSchema, rightInput, node);
@@ -76,6 +103,9 @@ public class HashJoinOperator extends BaseJoinOperator {
     _matchedRightRows = needUnmatchedRightRows() ? new HashMap<>() : null;
     // Initialize _nullKeyRightRows for both RIGHT and FULL JOINs
     _nullKeyRightRows = needUnmatchedRightRows() ? new ArrayList<>() : null;
+    _leftKeys = leftKeys;
+    _leftSchema = leftSchema;
+    _spillThresholdBytes = getJoinSpillThresholdBytes(context.getOpChainMetadata(), node.getNodeHint());
   }
 
   /// Constructor that takes the schema for NonEquiEvaluator as an argument
@@ -88,6 +118,9 @@ public class HashJoinOperator extends BaseJoinOperator {
     _rightKeySelector = KeySelectorFactory.getKeySelector(node.getRightKeys());
     _rightTable = createLookupTable(leftKeys, leftSchema);
     _matchedRightRows = needUnmatchedRightRows() ? new HashMap<>() : null;
+    _leftKeys = leftKeys;
+    _leftSchema = leftSchema;
+    _spillThresholdBytes = getJoinSpillThresholdBytes(context.getOpChainMetadata(), node.getNodeHint());
   }
 
   private static LookupTable createLookupTable(List<Integer> joinKeys, DataSchema schema) {
@@ -162,6 +195,283 @@ public class HashJoinOperator extends BaseJoinOperator {
     _rightTable = null;
     _matchedRightRows = null;
     _nullKeyRightRows = null;
+    closeSpilledPartitions();
+  }
+
+  @Override
+  protected void buildRightTable() {
+    if (_spillThresholdBytes <= 0) {
+      super.buildRightTable();
+      return;
+    }
+    LOGGER.trace("Building right table for spillable join operator");
+    long startTime = System.currentTimeMillis();
+    // Keep the rows in a buffer until we know whether the right table fits in memory
+    List<Object[]> bufferedRows = new ArrayList<>();
+    long estimatedBytes = 0;
+    MseBlock rightBlock = _rightInput.nextBlock();
+    while (rightBlock.isData()) {
+      MseBlock.Data rightDataBlock = (MseBlock.Data) rightBlock;
+      List<Object[]> rows = rightDataBlock.asRowHeap().getRows();
+      long numBytes = estimateSizeInBytes(rows);
+      if (_rightSpilledPartitions == null) {
+        if (estimatedBytes + numBytes <= _spillThresholdBytes
+            && bufferedRows.size() + rows.size() <= _maxRowsInJoin) {
+          bufferedRows.addAll(rows);
+          estimatedBytes += numBytes;
+        } else {
+          LOGGER.info("Right table of join operator: {} exceeded the spill threshold: {} bytes, spilling to disk",
+              _operatorId, _spillThresholdBytes);
+          _rightSpilledPartitions = createSpilledPartitions("right", rightDataBlock.getDataSchema(),
+              _rightKeySelector);
+          _rightSpilledPartitions.addRows(bufferedRows, estimatedBytes);
+          bufferedRows = List.of();
+          _rightSpilledPartitions.addRows(rows, numBytes);
+        }
+      } else {
+        _rightSpilledPartitions.addRows(rows, numBytes);
+      }
+      sampleAndCheckInterruption();
+      rightBlock = _rightInput.nextBlock();
+    }
+
+    MseBlock.Eos eosBlock = (MseBlock.Eos) rightBlock;
+    if (eosBlock.isError()) {
+      _eos = eosBlock;
+    } else {
+      _isRightTableBuilt = true;
+      if (_rightSpilledPartitions == null) {
+        addRowsToRightTable(bufferedRows);
+        finishBuildingRightTable();
+      } else {
+        _rightSpilledPartitions.finish();
+        _statMap.merge(StatKey.SPILLED_PARTITIONS, _rightSpilledPartitions.getNumPartitions());
+      }
+    }
+
+    _statMap.merge(StatKey.TIME_BUILDING_HASH_TABLE_MS, System.currentTimeMillis() - startTime);
+    LOGGER.trace("Finished building right table for spillable join operator");
+  }
+
+  private SpilledPartitions createSpilledPartitions(String side, DataSchema dataSchema, KeySelector<?> keySelector) {
+    String spillDir = QueryOptionsUtils.getJoinSpillDir(_context.getOpChainMetadata());
+    File parentDir = new File(spillDir != null ? spillDir : FileUtils.getTempDirectoryPath());
+    // The spill directory gets a random suffix, so each spilled input owns its directory and can delete it on close
+    String dirPrefix =
+        "join_" + _context.getRequestId() + "_" + _context.getStageId() + "_" + _context.getWorkerId() + "_" + side
+            + "_";
+    // The partition buffers share the memory budget of the in-memory hash table
+    return new SpilledPartitions(parentDir, dirPrefix, NUM_SPILL_PARTITIONS, _spillThresholdBytes, dataSchema,
+        keySelector);
+  }
+
+  /**
+   * Estimates the on-heap size of the given rows by sampling a few of them.
+   */
+  private static long estimateSizeInBytes(List<Object[]> rows) {
+    int numRows = rows.size();
+    if (numRows == 0) {
+      return 0;
+    }
+    int step = Math.max(1, numRows / NUM_ROWS_TO_SAMPLE_PER_BLOCK);
+    long sampledBytes = 0;
+    int numSampledRows = 0;
+    for (int i = 0; i < numRows; i += step) {
+      sampledBytes += estimateRowSizeInBytes(rows.get(i));
+      numSampledRows++;
+    }
+    return sampledBytes * numRows / numSampledRows;
+  }
+
+  private static long estimateRowSizeInBytes(Object[] row) {
+    long size = ROW_OVERHEAD_BYTES + 8L * row.length;
+    for (Object value : row) {
+      if (value == null) {
+        continue;
+      }
+      if (value instanceof String) {
+        size += 40 + ((String) value).length();
+      } else if (value instanceof byte[]) {
+        size += 16 + ((byte[]) value).length;
+      } else if (value instanceof int[]) {
+        size += 16 + 4L * ((int[]) value).length;
+      } else if (value instanceof long[]) {
+        size += 16 + 8L * ((long[]) value).length;
+      } else if (value instanceof float[]) {
+        size += 16 + 4L * ((float[]) value).length;
+      } else if (value instanceof double[]) {
+        size += 16 + 8L * ((double[]) value).length;
+      } else if (value instanceof String[]) {
+        for (String element : (String[]) value) {
+          size += 48 + element.length();
+        }
+      } else {
+        // Boxed primitive or other small object
+        size += 24;
+      }
+    }
+    return size;
+  }
+
+  @Override
+  protected MseBlock buildJoinedDataBlock() {
+    if (_rightSpilledPartitions == null) {
+      return super.buildJoinedDataBlock();
+    }
+    if (_leftEos == null) {
+      MseBlock.Eos leftEos = spillLeftInput();
+      if (leftEos.isError()) {
+        return leftEos;
+      }
+    }
+    assert _leftSpilledPartitions != null;
+    while (true) {
+      if (_eos != null) {
+        return _eos;
+      }
+      if (_spilledLeftReader == null && !loadNextSpilledPartition()) {
+        return _leftEos;
+      }
+      assert _spilledLeftReader != null;
+      List<Object[]> leftRows = _spilledLeftReader.nextRows();
+      List<Object[]> rows;
+      if (leftRows != null) {
+        rows = buildJoinedRows(new RowHeapDataBlock(leftRows, _leftSchema));
+      } else {
+        _spilledLeftReader.close();
+        _spilledLeftReader = null;
+        rows = needUnmatchedRightRows() ? buildNonMatchRightRows() : List.of();
+      }
+      sampleAndCheckInterruption();
+      if (!rows.isEmpty()) {
+        return new RowHeapDataBlock(rows, _resultSchema);
+      }
+    }
+  }
+
+  /**
+   * Partitions the whole left input to disk with the same partitioning as the right table. Returns the EOS block of
+   * the left input.
+   */
+  private MseBlock.Eos spillLeftInput() {
+    _leftSpilledPartitions = createSpilledPartitions("left", _leftSchema, _leftKeySelector);
+    MseBlock leftBlock = _leftInput.nextBlock();
+    while (leftBlock.isData()) {
+      List<Object[]> rows = ((MseBlock.Data) leftBlock).asRowHeap().getRows();
+      _leftSpilledPartitions.addRows(rows, estimateSizeInBytes(rows));
+      sampleAndCheckInterruption();
+      leftBlock = _leftInput.nextBlock();
+    }
+    _leftSpilledPartitions.finish();
+    assert _rightSpilledPartitions != null;
+    _statMap.merge(StatKey.SPILLED_BYTES,
+        _rightSpilledPartitions.getNumBytesWritten() + _leftSpilledPartitions.getNumBytesWritten());
+    _leftEos = (MseBlock.Eos) leftBlock;
+    return _leftEos;
+  }
+
+  /**
+   * Builds the hash table for the next spilled partition that can produce rows and opens the reader over the left rows
+   * of the same partition. Returns {@code false} when all the partitions have been processed.
+   */
+  private boolean loadNextSpilledPartition() {
+    assert _rightSpilledPartitions != null && _leftSpilledPartitions != null;
+    int numPartitions = _rightSpilledPartitions.getNumPartitions();
+    while (++_spilledPartitionId < numPartitions) {
+      int numRightRows = _rightSpilledPartitions.getNumRows(_spilledPartitionId);
+      int numLeftRows = _leftSpilledPartitions.getNumRows(_spilledPartitionId);
+      boolean canProduceRows;
+      if (numRightRows == 0) {
+        canProduceRows = numLeftRows > 0 && (needUnmatchedLeftRows() || _joinType == JoinRelType.ANTI);
+      } else {
+        canProduceRows = numLeftRows > 0 || needUnmatchedRightRows();
+      }
+      if (canProduceRows) {
+        break;
+      }
+    }
+    if (_spilledPartitionId >= numPartitions) {
+      return false;
+    }
+
+    long startTime = System.currentTimeMillis();
+    _rightTable = createLookupTable(_leftKeys, _leftSchema);
+    if (_matchedRightRows != null) {
+      _matchedRightRows = new HashMap<>();
+    }
+    if (_nullKeyRightRows != null) {
+      _nullKeyRightRows = new ArrayList<>();
+    }
+    int numRows = 0;
+    try (SpilledPartitions.Reader reader = _rightSpilledPartitions.openReader(_spilledPartitionId)) {
+      List<Object[]> rows;
+      while ((rows = reader.nextRows()) != null) {
+        if (numRows + rows.size() > _maxRowsInJoin) {
+          if (_joinOverflowMode == JoinOverFlowMode.THROW) {
+            throwForJoinRowLimitExceeded(
+                "Cannot build in memory hash table for spilled partition of join operator, reached number of rows "
+                    + "limit: " + _maxRowsInJoin);
+          }
+          _statMap.merge(StatKey.MAX_ROWS_IN_JOIN_REACHED, true);
+          addRowsToRightTable(rows.subList(0, _maxRowsInJoin - numRows));
+          break;
+        }
+        addRowsToRightTable(rows);
+        numRows += rows.size();
+        sampleAndCheckInterruption();
+      }
+    }
+    finishBuildingRightTable();
+    _spilledLeftReader = _leftSpilledPartitions.openReader(_spilledPartitionId);
+    _statMap.merge(StatKey.TIME_BUILDING_HASH_TABLE_MS, System.currentTimeMillis() - startTime);
+    return true;
+  }
+
+  @Override
+  protected void earlyTerminateLeftInput() {
+    if (_leftEos != null) {
+      // The left input has already been fully consumed into the spilled partitions
+      _eos = _leftEos;
+    } else {
+      super.earlyTerminateLeftInput();
+    }
+  }
+
+  /**
+   * Closes the spilled partitions and deletes their spill directories. Each step runs even if the previous one fails,
+   * so that the directories are deleted on the failure and cancellation paths as well.
+   */
+  private void closeSpilledPartitions() {
+    SpilledPartitions.Reader spilledLeftReader = _spilledLeftReader;
+    SpilledPartitions rightSpilledPartitions = _rightSpilledPartitions;
+    SpilledPartitions leftSpilledPartitions = _leftSpilledPartitions;
+    _spilledLeftReader = null;
+    _rightSpilledPartitions = null;
+    _leftSpilledPartitions = null;
+    try {
+      if (spilledLeftReader != null) {
+        spilledLeftReader.close();
+      }
+    } finally {
+      try {
+        if (rightSpilledPartitions != null) {
+          rightSpilledPartitions.close();
+        }
+      } finally {
+        if (leftSpilledPartitions != null) {
+          leftSpilledPartitions.close();
+        }
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    try {
+      closeSpilledPartitions();
+    } finally {
+      super.close();
+    }
   }
 
   @Override
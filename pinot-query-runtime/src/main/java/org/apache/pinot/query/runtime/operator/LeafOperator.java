@@ -55,6 +55,7 @@ import org.apache.pinot.core.query.request.ServerQueryRequest;
 import org.apache.pinot.core.query.request.context.QueryContext;
 import org.apache.pinot.query.planner.plannode.ExplainedNode;
 import org.apache.pinot.query.planner.plannode.PlanNode;
+import org.apache.pinot.query.runtime.blocks.ColumnarHeapDataBlock;
 import org.apache.pinot.query.runtime.blocks.ErrorMseBlock;
 import org.apache.pinot.query.runtime.blocks.MseBlock;
 import org.apache.pinot.query.runtime.blocks.RowHeapDataBlock;
@@ -91,6 +92,7 @@ public class LeafOperator extends MultiStageOperator {
   private final QueryExecutor _queryExecutor;
   private final ExecutorService _executorService;
   private final String _tableName;
+  private final boolean _useColumnarDataBlocks;
   private final StatMap<StatKey> _statMap = new StatMap<>(StatKey.class);
   private final AtomicReference<ErrorMseBlock> _errorBlock = new AtomicReference<>();
   private final ResultsBlockStreamer _resultsBlockStreamer = this::addResultsBlock;
@@ -118,6 +120,8 @@ public class LeafOperator extends MultiStageOperator {
     Integer maxStreamingPendingBlocks = QueryOptionsUtils.getMaxStreamingPendingBlocks(context.getOpChainMetadata());
     _blockingQueue = new ArrayBlockingQueue<>(maxStreamingPendingBlocks != null ? maxStreamingPendingBlocks
         : QueryOptionValue.DEFAULT_MAX_STREAMING_PENDING_BLOCKS);
+    _useColumnarDataBlocks = QueryOptionsUtils.isUseColumnarDataBlocks(context.getOpChainMetadata())
+        && ColumnarHeapDataBlock.isSupported(dataSchema);
   }
 
   public List<ServerQueryRequest> getRequests() {
@@ -189,7 +193,8 @@ public class LeafOperator extends MultiStageOperator {
       return SuccessMseBlock.INSTANCE;
     } else {
       // Regular data block
-      return composeMseBlock(resultsBlock);
+      RowHeapDataBlock dataBlock = composeMseBlock(resultsBlock);
+      return _useColumnarDataBlocks ? dataBlock.asColumnar() : dataBlock;
     }
   }
 
@@ -30,6 +30,7 @@ import java.util.stream.Collectors;
 import org.apache.calcite.rel.RelDistribution;
 import org.apache.pinot.common.datatable.StatMap;
 import org.apache.pinot.common.metrics.ServerMetrics;
+import org.apache.pinot.common.utils.config.QueryOptionsUtils;
 import org.apache.pinot.query.mailbox.MailboxService;
 import org.apache.pinot.query.mailbox.SendingMailbox;
 import org.apache.pinot.query.planner.physical.MailboxIdUtils;
@@ -43,6 +44,7 @@ import org.apache.pinot.query.runtime.blocks.SuccessMseBlock;
 import org.apache.pinot.query.runtime.operator.exchange.BlockExchange;
 import org.apache.pinot.query.runtime.plan.MultiStageQueryStats;
 import org.apache.pinot.query.runtime.plan.OpChainExecutionContext;
+import org.apache.pinot.segment.spi.compression.ChunkCompressionType;
 import org.apache.pinot.segment.spi.memory.DataBuffer;
 import org.apache.pinot.spi.exception.QueryCancelledException;
 import org.slf4j.Logger;
@@ -169,8 +171,10 @@ public class MailboxSendOperator extends MultiStageOperator {
     List<RoutingInfo> routingInfos =
           MailboxIdUtils.toRoutingInfos(requestId, context.getStageId(), context.getWorkerId(), receiverStageId,
               mailboxInfos);
+    ChunkCompressionType compressionType = QueryOptionsUtils.getWireCompression(context.getOpChainMetadata());
     List<SendingMailbox> sendingMailboxes = routingInfos.stream()
-        .map(v -> mailboxService.getSendingMailbox(v.getHostname(), v.getPort(), v.getMailboxId(), deadlineMs, statMap))
+        .map(v -> mailboxService.getSendingMailbox(v.getHostname(), v.getPort(), v.getMailboxId(), deadlineMs, statMap,
+            compressionType))
         .collect(Collectors.toList());
     statMap.merge(StatKey.FAN_OUT, sendingMailboxes.size());
     return BlockExchange.getExchange(sendingMailboxes, distributionType, node.getKeys(), splitter,
@@ -396,7 +400,25 @@ public class MailboxSendOperator extends MultiStageOperator {
     /**
      * Time spent on GC while this operator or its children in the same stage were running.
      */
-    GC_TIME_MS(StatMap.Type.LONG);
+    GC_TIME_MS(StatMap.Type.LONG),
+    /**
+     * How many serialized bytes have been compressed by this mailbox before being sent.
+     * <p>
+     * Only blocks larger than the compression threshold are compressed, so this can be lower than SERIALIZED_BYTES.
+     */
+    COMPRESSION_INPUT_BYTES(StatMap.Type.LONG),
+    /**
+     * How many bytes the compressed blocks took once compressed.
+     * <p>
+     * The relation between COMPRESSION_INPUT_BYTES and this stat is the compression ratio of the mailbox.
+     */
+    COMPRESSION_OUTPUT_BYTES(StatMap.Type.LONG),
+    /**
+     * How long (in thread CPU time, nanoseconds) it took to compress the blocks sent by this mailbox.
+     * <p>
+     * Only collected when thread CPU time measurement is enabled.
+     */
+    COMPRESSION_CPU_TIME_NS(StatMap.Type.LONG);
 
     private final StatMap.Type _type;
 
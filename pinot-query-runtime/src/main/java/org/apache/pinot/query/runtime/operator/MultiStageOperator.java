@@ -288,6 +288,10 @@ public abstract class MultiStageOperator implements Operator<MseBlock>, AutoClos
         }
         serverMetrics.addTimedValue(ServerTimer.HASH_JOIN_BUILD_TABLE_CPU_TIME_MS,
             stats.getLong(HashJoinOperator.StatKey.TIME_BUILDING_HASH_TABLE_MS), TimeUnit.MILLISECONDS);
+        long spilledBytes = stats.getLong(HashJoinOperator.StatKey.SPILLED_BYTES);
+        if (spilledBytes > 0) {
+          serverMetrics.addMeteredGlobalValue(ServerMeter.HASH_JOIN_SPILLED_BYTES, spilledBytes);
+        }
       }
     },
     INTERSECT(SetOperator.StatKey.class) {
@@ -361,6 +365,16 @@ public abstract class MultiStageOperator implements Operator<MseBlock>, AutoClos
         StatMap<MailboxSendOperator.StatKey> stats = (StatMap<MailboxSendOperator.StatKey>) map;
         serverMetrics.addTimedValue(ServerTimer.MULTI_STAGE_SERIALIZATION_CPU_TIME_MS,
             stats.getLong(MailboxSendOperator.StatKey.SERIALIZATION_TIME_MS), TimeUnit.MILLISECONDS);
+        long compressionInputBytes = stats.getLong(MailboxSendOperator.StatKey.COMPRESSION_INPUT_BYTES);
+        if (compressionInputBytes > 0) {
+          serverMetrics.addMeteredGlobalValue(ServerMeter.MULTI_STAGE_COMPRESSION_INPUT_BYTES, compressionInputBytes);
+          serverMetrics.addMeteredGlobalValue(ServerMeter.MULTI_STAGE_COMPRESSION_OUTPUT_BYTES,
+              stats.getLong(MailboxSendOperator.StatKey.COMPRESSION_OUTPUT_BYTES));
+          if (ThreadResourceUsageProvider.isThreadCpuTimeMeasurementEnabled()) {
+            serverMetrics.addTimedValue(ServerTimer.MULTI_STAGE_COMPRESSION_CPU_TIME_NS,
+                stats.getLong(MailboxSendOperator.StatKey.COMPRESSION_CPU_TIME_NS), TimeUnit.NANOSECONDS);
+          }
+        }
       }
     },
     MINUS(SetOperator.StatKey.class) {
@@ -39,6 +39,7 @@ import org.apache.pinot.core.query.aggregation.groupby.GroupKeyGenerator;
 import org.apache.pinot.core.util.DataBlockExtractUtils;
 import org.apache.pinot.query.planner.plannode.AggregateNode.AggType;
 import org.apache.pinot.query.planner.plannode.PlanNode;
+import org.apache.pinot.query.runtime.blocks.ColumnarHeapDataBlock;
 import org.apache.pinot.query.runtime.blocks.MseBlock;
 import org.apache.pinot.query.runtime.operator.groupby.GroupIdGenerator;
 import org.apache.pinot.query.runtime.operator.groupby.GroupIdGeneratorFactory;
@@ -445,11 +446,36 @@ public class MultistageGroupByExecutor {
    * GroupByAggregationResultHolders used in v1 aggregations.
    */
   private int[] generateGroupByKeys(MseBlock.Data block) {
+    if (block.isColumnar()) {
+      ColumnarHeapDataBlock columnarBlock = block.asColumnar();
+      int numRows = columnarBlock.getNumRows();
+      int[] intKeys = new int[numRows];
+      Object[] key = new Object[_groupKeyIds.length];
+      for (int rowId = 0; rowId < numRows; rowId++) {
+        intKeys[rowId] = getGroupId(columnarBlock, rowId, key);
+      }
+      return intKeys;
+    }
     return block.isRowHeap()
         ? generateGroupByKeys(block.asRowHeap().getRows())
         : generateGroupByKeys(block.asSerialized().getDataBlock());
   }
 
+  /**
+   * Returns the group id of the given row of a columnar block, using {@code key} as a reusable buffer for multi-column
+   * keys.
+   */
+  private int getGroupId(ColumnarHeapDataBlock block, int rowId, Object[] key) {
+    int numKeys = _groupKeyIds.length;
+    if (numKeys == 1) {
+      return _groupIdGenerator.getGroupId(block.getValue(rowId, _groupKeyIds[0]));
+    }
+    for (int i = 0; i < numKeys; i++) {
+      key[i] = block.getValue(rowId, _groupKeyIds[i]);
+    }
+    return _groupIdGenerator.getGroupId(key);
+  }
+
   private int[] generateGroupByKeys(List<Object[]> rows) {
     int numRows = rows.size();
     int[] intKeys = new int[numRows];
@@ -492,6 +518,16 @@ public class MultistageGroupByExecutor {
    * GroupByAggregationResultHolders used in v1 aggregations.
    */
   private int[] generateGroupByKeys(MseBlock.Data block, int numMatchedRows, RoaringBitmap matchedBitmap) {
+    if (block.isColumnar()) {
+      ColumnarHeapDataBlock columnarBlock = block.asColumnar();
+      int[] intKeys = new int[numMatchedRows];
+      Object[] key = new Object[_groupKeyIds.length];
+      PeekableIntIterator iterator = matchedBitmap.getIntIterator();
+      for (int i = 0; i < numMatchedRows; i++) {
+        intKeys[i] = getGroupId(columnarBlock, iterator.next(), key);
+      }
+      return intKeys;
+    }
     return block.isRowHeap()
         ? generateGroupByKeys(block.asRowHeap().getRows(), numMatchedRows, matchedBitmap)
         : generateGroupByKeys(block.asSerialized().getDataBlock(), numMatchedRows, matchedBitmap);
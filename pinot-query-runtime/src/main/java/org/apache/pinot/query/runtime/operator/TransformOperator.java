@@ -22,13 +22,17 @@ import java.util.ArrayList;
 import java.util.List;
 import org.apache.pinot.common.datatable.StatMap;
 import org.apache.pinot.common.utils.DataSchema;
+import org.apache.pinot.common.utils.DataSchema.ColumnDataType;
+import org.apache.pinot.common.utils.config.QueryOptionsUtils;
 import org.apache.pinot.query.planner.logical.RexExpression;
 import org.apache.pinot.query.planner.plannode.ProjectNode;
+import org.apache.pinot.query.runtime.blocks.ColumnarHeapDataBlock;
 import org.apache.pinot.query.runtime.blocks.MseBlock;
 import org.apache.pinot.query.runtime.blocks.RowHeapDataBlock;
 import org.apache.pinot.query.runtime.operator.operands.TransformOperand;
 import org.apache.pinot.query.runtime.operator.operands.TransformOperandFactory;
 import org.apache.pinot.query.runtime.plan.OpChainExecutionContext;
+import org.roaringbitmap.RoaringBitmap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -42,6 +46,9 @@ import org.slf4j.LoggerFactory;
  * - Function transform, which runs a function on function operands. Function operands and be any of 3 the transform.
  * Note: Function transform only runs functions from v1 engine scalar function factory, which only does argument count
  * and canonicalized function name matching (lower case).
+ *
+ * Columnar input blocks (see {@link ColumnarHeapDataBlock}) produce columnar output blocks, where InputRef transforms
+ * share the column arrays of the input block and the other transforms are evaluated row by row into primitive arrays.
  */
 public class TransformOperator extends MultiStageOperator {
   private static final Logger LOGGER = LoggerFactory.getLogger(TransformOperator.class);
@@ -52,6 +59,10 @@ public class TransformOperator extends MultiStageOperator {
   private final int _resultColumnSize;
   // TODO: Check type matching between resultSchema and the actual result.
   private final DataSchema _resultSchema;
+  // Input column id for each InputRef transform, -1 for the other transforms
+  private final int[] _inputRefIds;
+  private final boolean _columnarSupported;
+  private final boolean _useColumnarDataBlocks;
   private final StatMap<StatKey> _statMap = new StatMap<>(StatKey.class);
 
   public TransformOperator(OpChainExecutionContext context, MultiStageOperator input, DataSchema inputSchema,
@@ -65,6 +76,23 @@ public class TransformOperator extends MultiStageOperator {
       _transformOperandsList.add(TransformOperandFactory.getTransformOperand(rexExpression, inputSchema));
     }
     _resultSchema = node.getDataSchema();
+    _inputRefIds = new int[_resultColumnSize];
+    boolean columnarSupported = ColumnarHeapDataBlock.isSupported(_resultSchema);
+    for (int i = 0; i < _resultColumnSize; i++) {
+      RexExpression rexExpression = projects.get(i);
+      if (rexExpression instanceof RexExpression.InputRef) {
+        int inputRefId = ((RexExpression.InputRef) rexExpression).getIndex();
+        _inputRefIds[i] = inputRefId;
+        if (inputSchema.getColumnDataType(inputRefId).getStoredType()
+            != _resultSchema.getColumnDataType(i).getStoredType()) {
+          columnarSupported = false;
+        }
+      } else {
+        _inputRefIds[i] = -1;
+      }
+    }
+    _columnarSupported = columnarSupported;
+    _useColumnarDataBlocks = QueryOptionsUtils.isUseColumnarDataBlocks(context.getOpChainMetadata());
   }
 
   @Override
@@ -102,6 +130,9 @@ public class TransformOperator extends MultiStageOperator {
       return block;
     }
     MseBlock.Data dataBlock = (MseBlock.Data) block;
+    if (_columnarSupported && ColumnarHeapDataBlock.shouldProcessAsColumnar(dataBlock, _useColumnarDataBlocks)) {
+      return transformColumnar(dataBlock.asColumnar());
+    }
     List<Object[]> container = dataBlock.asRowHeap().getRows();
     List<Object[]> resultRows = new ArrayList<>(container.size());
     for (Object[] row : container) {
@@ -114,6 +145,32 @@ public class TransformOperator extends MultiStageOperator {
     return new RowHeapDataBlock(resultRows, _resultSchema);
   }
 
+  private ColumnarHeapDataBlock transformColumnar(ColumnarHeapDataBlock block) {
+    int numRows = block.getNumRows();
+    ColumnDataType[] storedTypes = _resultSchema.getStoredColumnDataTypes();
+    Object[] columns = new Object[_resultColumnSize];
+    RoaringBitmap[] nullBitmaps = new RoaringBitmap[_resultColumnSize];
+    ColumnarHeapDataBlock.RowView rowView = block.getRowView();
+    for (int i = 0; i < _resultColumnSize; i++) {
+      int inputRefId = _inputRefIds[i];
+      if (inputRefId >= 0) {
+        columns[i] = block.getColumn(inputRefId);
+        nullBitmaps[i] = block.getNullBitmap(inputRefId);
+      } else {
+        TransformOperand transformOperand = _transformOperandsList.get(i);
+        ColumnarHeapDataBlock.ColumnBuilder columnBuilder =
+            new ColumnarHeapDataBlock.ColumnBuilder(storedTypes[i], numRows);
+        for (int rowId = 0; rowId < numRows; rowId++) {
+          rowView.setRowId(rowId);
+          columnBuilder.set(rowId, transformOperand.apply(rowView));
+        }
+        columns[i] = columnBuilder.getValues();
+        nullBitmaps[i] = columnBuilder.getNullBitmap();
+      }
+    }
+    return new ColumnarHeapDataBlock(numRows, columns, nullBitmaps, _resultSchema);
+  }
+
   @Override
   protected StatMap<?> copyStatMaps() {
     return new StatMap<>(_statMap);
@@ -29,6 +29,7 @@ import org.apache.pinot.query.mailbox.SendingMailbox;
 import org.apache.pinot.query.planner.partitioning.EmptyKeySelector;
 import org.apache.pinot.query.planner.partitioning.KeySelector;
 import org.apache.pinot.query.runtime.blocks.BlockSplitter;
+import org.apache.pinot.query.runtime.blocks.ColumnarHeapDataBlock;
 import org.apache.pinot.query.runtime.blocks.MseBlock;
 import org.apache.pinot.query.runtime.blocks.RowHeapDataBlock;
 
@@ -62,6 +63,11 @@ class HashExchange extends BlockExchange {
       return;
     }
 
+    if (block.isColumnar()) {
+      routeColumnar(destinations, block.asColumnar());
+      return;
+    }
+
     List<Object[]>[] mailboxIdToRowsMap = new List[numMailboxes];
     for (int i = 0; i < numMailboxes; i++) {
       mailboxIdToRowsMap[i] = new ArrayList<>();
@@ -80,4 +86,50 @@ class HashExchange extends BlockExchange {
       }
     }
   }
+
+  /**
+   * Routes a columnar block without materializing its rows. Only the key columns are boxed to compute the hash, and
+   * each destination receives a columnar block with its selected rows.
+   */
+  private void routeColumnar(List<SendingMailbox> destinations, ColumnarHeapDataBlock block)
+      throws IOException, TimeoutException {
+    int numMailboxes = destinations.size();
+    int numRows = block.getNumRows();
+    int numColumns = block.getDataSchema().size();
+    int[] keyIds = _keySelector.getKeyIds();
+    if (keyIds == null) {
+      keyIds = new int[numColumns];
+      for (int i = 0; i < numColumns; i++) {
+        keyIds[i] = i;
+      }
+    }
+    Object[] row = new Object[numColumns];
+    int[] mailboxIds = new int[numRows];
+    int[] numRowsPerMailbox = new int[numMailboxes];
+    for (int rowId = 0; rowId < numRows; rowId++) {
+      for (int keyId : keyIds) {
+        row[keyId] = block.getValue(rowId, keyId);
+      }
+      int mailboxId = _keySelector.computeHash(row) % numMailboxes;
+      mailboxIds[rowId] = mailboxId;
+      numRowsPerMailbox[mailboxId]++;
+    }
+    int[][] mailboxIdToRowIds = new int[numMailboxes][];
+    for (int i = 0; i < numMailboxes; i++) {
+      mailboxIdToRowIds[i] = new int[numRowsPerMailbox[i]];
+    }
+    int[] numAddedRows = new int[numMailboxes];
+    for (int rowId = 0; rowId < numRows; rowId++) {
+      int mailboxId = mailboxIds[rowId];
+      mailboxIdToRowIds[mailboxId][numAddedRows[mailboxId]++] = rowId;
+    }
+    for (int i = 0; i < numMailboxes; i++) {
+      int numMailboxRows = numRowsPerMailbox[i];
+      if (numMailboxRows == numRows) {
+        sendBlock(destinations.get(i), block);
+      } else if (numMailboxRows > 0) {
+        sendBlock(destinations.get(i), block.select(mailboxIdToRowIds[i], numMailboxRows));
+      }
+    }
+  }
 }
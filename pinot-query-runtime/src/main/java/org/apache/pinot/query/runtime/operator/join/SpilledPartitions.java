@@ -0,0 +1,344 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.query.runtime.operator.join;
+
+import com.google.common.base.Preconditions;
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nullable;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.common.datablock.DataBlock;
+import org.apache.pinot.common.datablock.DataBlockUtils;
+import org.apache.pinot.common.utils.DataSchema;
+import org.apache.pinot.core.common.datablock.DataBlockBuilder;
+import org.apache.pinot.core.util.DataBlockExtractUtils;
+import org.apache.pinot.query.planner.partitioning.KeySelector;
+
+
+/**
+ * The {@code SpilledPartitions} hash partitions the rows of one join input into files on local disk.
+ * <p>Rows are routed to a partition by the hash of their join key, so rows with the same key from both join inputs end
+ * up in the partition with the same id as long as both sides use the same hash function. Rows are buffered per
+ * partition and flushed as serialized {@link DataBlock}s (length prefixed). The buffers share a memory budget: once
+ * the estimated size of all the buffered rows exceeds it, the largest buffers are flushed until it fits again.
+ * <p>The files are created in a spill directory owned by this instance, which is deleted (with the files) when the
+ * instance is closed. This class is not thread safe.
+ */
+public class SpilledPartitions implements Closeable {
+  private final File _parentDir;
+  private final String _dirPrefix;
+  private final DataSchema _dataSchema;
+  private final KeySelector<?> _keySelector;
+  private final int _numPartitions;
+  private final long _maxBufferedBytes;
+  private final List<Object[]>[] _buffers;
+  private final long[] _bufferedBytes;
+  private final File[] _files;
+  private final FileChannel[] _channels;
+  private final int[] _numRows;
+  private File _spillDir;
+  private long _totalBufferedBytes;
+  private long _numBytesWritten;
+  private boolean _finished;
+
+  /**
+   * @param parentDir Directory where the spill directory is created
+   * @param dirPrefix Prefix of the spill directory name, a random suffix is appended to make it unique
+   * @param numPartitions Number of partitions, must be a power of 2
+   * @param maxBufferedBytes Maximum estimated size of the rows buffered in memory across all the partitions
+   * @param dataSchema Schema of the rows to spill
+   * @param keySelector Key selector used to compute the hash of the join key of the rows
+   */
+  @SuppressWarnings("unchecked")
+  public SpilledPartitions(File parentDir, String dirPrefix, int numPartitions, long maxBufferedBytes,
+      DataSchema dataSchema, KeySelector<?> keySelector) {
+    Preconditions.checkArgument(numPartitions > 0 && (numPartitions & (numPartitions - 1)) == 0,
+        "Number of partitions must be a power of 2, got: %s", numPartitions);
+    Preconditions.checkArgument(maxBufferedBytes > 0, "Max buffered bytes must be positive, got: %s",
+        maxBufferedBytes);
+    _parentDir = parentDir;
+    _dirPrefix = dirPrefix;
+    _dataSchema = dataSchema;
+    _keySelector = keySelector;
+    _numPartitions = numPartitions;
+    _maxBufferedBytes = maxBufferedBytes;
+    _buffers = new List[numPartitions];
+    for (int i = 0; i < numPartitions; i++) {
+      _buffers[i] = new ArrayList<>();
+    }
+    _bufferedBytes = new long[numPartitions];
+    _files = new File[numPartitions];
+    _channels = new FileChannel[numPartitions];
+    _numRows = new int[numPartitions];
+  }
+
+  /**
+   * Returns the partition id for the given hash.
+   * <p>The hash is re-mixed before picking the partition because the join inputs are usually already hash distributed
+   * across workers with the same hash, which would otherwise leave most of the partitions of a worker empty.
+   */
+  public static int getPartitionId(int hash, int numPartitions) {
+    // Finalization step of MurmurHash3
+    hash ^= hash >>> 16;
+    hash *= 0x85ebca6b;
+    hash ^= hash >>> 13;
+    hash *= 0xc2b2ae35;
+    hash ^= hash >>> 16;
+    return hash & (numPartitions - 1);
+  }
+
+  public int getNumPartitions() {
+    return _numPartitions;
+  }
+
+  /**
+   * Returns the number of rows added to the given partition.
+   */
+  public int getNumRows(int partitionId) {
+    return _numRows[partitionId];
+  }
+
+  /**
+   * Returns the number of bytes written to disk so far.
+   */
+  public long getNumBytesWritten() {
+    return _numBytesWritten;
+  }
+
+  /**
+   * Returns the spill directory, or {@code null} if nothing has been written to disk yet.
+   */
+  @Nullable
+  public File getSpillDir() {
+    return _spillDir;
+  }
+
+  /**
+   * Adds the given rows to their partitions, flushing the largest partition buffers when the buffered rows exceed the
+   * memory budget.
+   *
+   * @param rows Rows to add
+   * @param estimatedBytes Estimated on-heap size of the rows
+   */
+  public void addRows(List<Object[]> rows, long estimatedBytes) {
+    Preconditions.checkState(!_finished, "Cannot add rows after the partitions are finished");
+    int numRows = rows.size();
+    if (numRows == 0) {
+      return;
+    }
+    long bytesPerRow = Math.max(1, estimatedBytes / numRows);
+    for (Object[] row : rows) {
+      int partitionId = getPartitionId(_keySelector.computeHash(row), _numPartitions);
+      _buffers[partitionId].add(row);
+      _bufferedBytes[partitionId] += bytesPerRow;
+      _totalBufferedBytes += bytesPerRow;
+      _numRows[partitionId]++;
+      while (_totalBufferedBytes > _maxBufferedBytes) {
+        flush(getLargestBufferPartitionId());
+      }
+    }
+  }
+
+  private int getLargestBufferPartitionId() {
+    int largestPartitionId = 0;
+    for (int i = 1; i < _numPartitions; i++) {
+      if (_bufferedBytes[i] > _bufferedBytes[largestPartitionId]) {
+        largestPartitionId = i;
+      }
+    }
+    return largestPartitionId;
+  }
+
+  /**
+   * Flushes all the buffered rows to disk. No more rows can be added after this method is called.
+   */
+  public void finish() {
+    if (_finished) {
+      return;
+    }
+    for (int i = 0; i < _numPartitions; i++) {
+      flush(i);
+    }
+    closeChannels();
+    _finished = true;
+  }
+
+  private void flush(int partitionId) {
+    List<Object[]> buffer = _buffers[partitionId];
+    if (buffer.isEmpty()) {
+      return;
+    }
+    try {
+      DataBlock dataBlock = DataBlockBuilder.buildFromRows(buffer, _dataSchema);
+      List<ByteBuffer> serialized = DataBlockUtils.serialize(dataBlock);
+      int numBytes = 0;
+      for (ByteBuffer byteBuffer : serialized) {
+        numBytes += byteBuffer.remaining();
+      }
+      ByteBuffer[] byteBuffers = new ByteBuffer[serialized.size() + 1];
+      byteBuffers[0] = ByteBuffer.allocate(Integer.BYTES).putInt(0, numBytes);
+      for (int i = 0; i < serialized.size(); i++) {
+        byteBuffers[i + 1] = serialized.get(i);
+      }
+      FileChannel channel = getChannel(partitionId);
+      long numBytesToWrite = Integer.BYTES + (long) numBytes;
+      long numBytesWritten = 0;
+      while (numBytesWritten < numBytesToWrite) {
+        numBytesWritten += channel.write(byteBuffers);
+      }
+      _numBytesWritten += numBytesToWrite;
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to spill join partition: " + partitionId, e);
+    }
+    _buffers[partitionId] = new ArrayList<>();
+    _totalBufferedBytes -= _bufferedBytes[partitionId];
+    _bufferedBytes[partitionId] = 0;
+  }
+
+  private FileChannel getChannel(int partitionId)
+      throws IOException {
+    FileChannel channel = _channels[partitionId];
+    if (channel == null) {
+      if (_spillDir == null) {
+        FileUtils.forceMkdir(_parentDir);
+        _spillDir = Files.createTempDirectory(_parentDir.toPath(), _dirPrefix).toFile();
+      }
+      File file = new File(_spillDir, "partition_" + partitionId + ".spill");
+      _files[partitionId] = file;
+      channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+      _channels[partitionId] = channel;
+    }
+    return channel;
+  }
+
+  /**
+   * Opens a reader over the rows of the given partition. Can only be called after {@link #finish()}.
+   */
+  public Reader openReader(int partitionId) {
+    Preconditions.checkState(_finished, "Cannot read partitions before they are finished");
+    File file = _files[partitionId];
+    if (file == null) {
+      return Reader.EMPTY;
+    }
+    try {
+      return new Reader(new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath()))));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to open spilled join partition: " + partitionId, e);
+    }
+  }
+
+  private void closeChannels() {
+    // Close all the channels even if some of them fail, and throw the first failure
+    UncheckedIOException exception = null;
+    for (int i = 0; i < _numPartitions; i++) {
+      FileChannel channel = _channels[i];
+      if (channel != null) {
+        _channels[i] = null;
+        try {
+          channel.close();
+        } catch (IOException e) {
+          if (exception == null) {
+            exception = new UncheckedIOException("Failed to close spilled join partition: " + i, e);
+          }
+        }
+      }
+    }
+    if (exception != null) {
+      throw exception;
+    }
+  }
+
+  @Override
+  public void close() {
+    try {
+      closeChannels();
+    } finally {
+      for (int i = 0; i < _numPartitions; i++) {
+        _files[i] = null;
+        _buffers[i] = List.of();
+        _bufferedBytes[i] = 0;
+      }
+      _totalBufferedBytes = 0;
+      if (_spillDir != null) {
+        FileUtils.deleteQuietly(_spillDir);
+        _spillDir = null;
+      }
+    }
+  }
+
+  /**
+   * Reads back the rows of a spilled partition one block at a time.
+   */
+  public static class Reader implements Closeable {
+    private static final Reader EMPTY = new Reader(null);
+
+    @Nullable
+    private final DataInputStream _inputStream;
+
+    private Reader(@Nullable DataInputStream inputStream) {
+      _inputStream = inputStream;
+    }
+
+    /**
+     * Returns the rows of the next block, or {@code null} when all the blocks have been read.
+     */
+    @Nullable
+    public List<Object[]> nextRows() {
+      if (_inputStream == null) {
+        return null;
+      }
+      try {
+        int numBytes;
+        try {
+          numBytes = _inputStream.readInt();
+        } catch (EOFException e) {
+          return null;
+        }
+        byte[] bytes = new byte[numBytes];
+        _inputStream.readFully(bytes);
+        DataBlock dataBlock = DataBlockUtils.deserialize(List.of(ByteBuffer.wrap(bytes)));
+        return DataBlockExtractUtils.extractRows(dataBlock);
+      } catch (IOException e) {
+        throw new UncheckedIOException("Failed to read spilled join partition", e);
+      }
+    }
+
+    @Override
+    public void close() {
+      if (_inputStream != null) {
+        try {
+          _inputStream.close();
+        } catch (IOException e) {
+          throw new UncheckedIOException("Failed to close spilled join partition", e);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,334 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.query.runtime.operator.operands;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.function.IntPredicate;
+import javax.annotation.Nullable;
+import org.apache.pinot.common.utils.DataSchema;
+import org.apache.pinot.common.utils.DataSchema.ColumnDataType;
+import org.apache.pinot.query.planner.logical.RexExpression;
+import org.apache.pinot.query.runtime.blocks.ColumnarHeapDataBlock;
+import org.apache.pinot.spi.utils.BooleanUtils;
+import org.roaringbitmap.RoaringBitmap;
+
+
+/**
+ * Evaluates a filter condition over all the rows of a {@link ColumnarHeapDataBlock} at once.
+ * <p>Comparisons between a numeric column and a numeric literal are evaluated directly on the primitive column arrays,
+ * and AND, OR and NOT are evaluated on bitmaps. Any other expression falls back to its {@link TransformOperand},
+ * evaluated over a {@link ColumnarHeapDataBlock.RowView} so that only the accessed values are boxed.
+ * <p>Results follow the SQL three-valued logic: each node computes the rows where it evaluates to TRUE and the rows
+ * where it evaluates to FALSE, the remaining rows being NULL.
+ */
+public abstract class ColumnarFilterEvaluator {
+  private static final EnumSet<ColumnDataType> NUMERIC_TYPES =
+      EnumSet.of(ColumnDataType.INT, ColumnDataType.LONG, ColumnDataType.FLOAT, ColumnDataType.DOUBLE);
+
+  public static ColumnarFilterEvaluator create(RexExpression condition, DataSchema dataSchema) {
+    if (condition instanceof RexExpression.FunctionCall) {
+      RexExpression.FunctionCall functionCall = (RexExpression.FunctionCall) condition;
+      List<RexExpression> operands = functionCall.getFunctionOperands();
+      switch (functionCall.getFunctionName()) {
+        case "AND":
+          if (operands.size() >= 2) {
+            return new And(create(operands, dataSchema));
+          }
+          break;
+        case "OR":
+          if (operands.size() >= 2) {
+            return new Or(create(operands, dataSchema));
+          }
+          break;
+        case "NOT":
+          if (operands.size() == 1) {
+            return new Not(create(operands.get(0), dataSchema));
+          }
+          break;
+        case "EQUALS":
+          return createComparison(condition, operands, dataSchema, v -> v == 0);
+        case "NOT_EQUALS":
+          return createComparison(condition, operands, dataSchema, v -> v != 0);
+        case "GREATER_THAN":
+          return createComparison(condition, operands, dataSchema, v -> v > 0);
+        case "GREATER_THAN_OR_EQUAL":
+          return createComparison(condition, operands, dataSchema, v -> v >= 0);
+        case "LESS_THAN":
+          return createComparison(condition, operands, dataSchema, v -> v < 0);
+        case "LESS_THAN_OR_EQUAL":
+          return createComparison(condition, operands, dataSchema, v -> v <= 0);
+        default:
+          break;
+      }
+    }
+    return new RowBased(TransformOperandFactory.getTransformOperand(condition, dataSchema));
+  }
+
+  private static List<ColumnarFilterEvaluator> create(List<RexExpression> conditions, DataSchema dataSchema) {
+    List<ColumnarFilterEvaluator> children = new ArrayList<>(conditions.size());
+    for (RexExpression condition : conditions) {
+      children.add(create(condition, dataSchema));
+    }
+    return children;
+  }
+
+  private static ColumnarFilterEvaluator createComparison(RexExpression condition, List<RexExpression> operands,
+      DataSchema dataSchema, IntPredicate comparisonResultPredicate) {
+    if (operands.size() == 2) {
+      RexExpression lhs = operands.get(0);
+      RexExpression rhs = operands.get(1);
+      if (lhs instanceof RexExpression.InputRef && rhs instanceof RexExpression.Literal) {
+        ColumnarFilterEvaluator evaluator =
+            NumericComparison.create((RexExpression.InputRef) lhs, (RexExpression.Literal) rhs, dataSchema,
+                comparisonResultPredicate);
+        if (evaluator != null) {
+          return evaluator;
+        }
+      } else if (lhs instanceof RexExpression.Literal && rhs instanceof RexExpression.InputRef) {
+        // Compare the column to the literal and reverse the comparison result
+        ColumnarFilterEvaluator evaluator =
+            NumericComparison.create((RexExpression.InputRef) rhs, (RexExpression.Literal) lhs, dataSchema,
+                v -> comparisonResultPredicate.test(-v));
+        if (evaluator != null) {
+          return evaluator;
+        }
+      }
+    }
+    return new RowBased(TransformOperandFactory.getTransformOperand(condition, dataSchema));
+  }
+
+  /**
+   * Returns the rows of the given block where the condition evaluates to TRUE.
+   */
+  public RoaringBitmap getMatchedRows(ColumnarHeapDataBlock block) {
+    return evaluate(block).getTrueRows();
+  }
+
+  abstract Result evaluate(ColumnarHeapDataBlock block);
+
+  static class Result {
+    private final RoaringBitmap _trueRows;
+    private final RoaringBitmap _falseRows;
+
+    Result(RoaringBitmap trueRows, RoaringBitmap falseRows) {
+      _trueRows = trueRows;
+      _falseRows = falseRows;
+    }
+
+    RoaringBitmap getTrueRows() {
+      return _trueRows;
+    }
+
+    RoaringBitmap getFalseRows() {
+      return _falseRows;
+    }
+  }
+
+  static class And extends ColumnarFilterEvaluator {
+    private final List<ColumnarFilterEvaluator> _children;
+
+    And(List<ColumnarFilterEvaluator> children) {
+      _children = children;
+    }
+
+    @Override
+    Result evaluate(ColumnarHeapDataBlock block) {
+      Result result = _children.get(0).evaluate(block);
+      RoaringBitmap trueRows = result.getTrueRows();
+      RoaringBitmap falseRows = result.getFalseRows();
+      int numChildren = _children.size();
+      for (int i = 1; i < numChildren; i++) {
+        result = _children.get(i).evaluate(block);
+        trueRows.and(result.getTrueRows());
+        falseRows.or(result.getFalseRows());
+      }
+      return new Result(trueRows, falseRows);
+    }
+  }
+
+  static class Or extends ColumnarFilterEvaluator {
+    private final List<ColumnarFilterEvaluator> _children;
+
+    Or(List<ColumnarFilterEvaluator> children) {
+      _children = children;
+    }
+
+    @Override
+    Result evaluate(ColumnarHeapDataBlock block) {
+      Result result = _children.get(0).evaluate(block);
+      RoaringBitmap trueRows = result.getTrueRows();
+      RoaringBitmap falseRows = result.getFalseRows();
+      int numChildren = _children.size();
+      for (int i = 1; i < numChildren; i++) {
+        result = _children.get(i).evaluate(block);
+        trueRows.or(result.getTrueRows());
+        falseRows.and(result.getFalseRows());
+      }
+      return new Result(trueRows, falseRows);
+    }
+  }
+
+  static class Not extends ColumnarFilterEvaluator {
+    private final ColumnarFilterEvaluator _child;
+
+    Not(ColumnarFilterEvaluator child) {
+      _child = child;
+    }
+
+    @Override
+    Result evaluate(ColumnarHeapDataBlock block) {
+      Result result = _child.evaluate(block);
+      return new Result(result.getFalseRows(), result.getTrueRows());
+    }
+  }
+
+  /**
+   * Compares a numeric column to a numeric literal, casting both to their common type like
+   * {@link FilterOperand.Predicate} does.
+   */
+  static class NumericComparison extends ColumnarFilterEvaluator {
+    private final int _colId;
+    private final ColumnDataType _commonType;
+    private final Number _literal;
+    private final IntPredicate _comparisonResultPredicate;
+
+    private NumericComparison(int colId, ColumnDataType commonType, Number literal,
+        IntPredicate comparisonResultPredicate) {
+      _colId = colId;
+      _commonType = commonType;
+      _literal = literal;
+      _comparisonResultPredicate = comparisonResultPredicate;
+    }
+
+    @Nullable
+    static NumericComparison create(RexExpression.InputRef column, RexExpression.Literal literal,
+        DataSchema dataSchema, IntPredicate comparisonResultPredicate) {
+      int colId = column.getIndex();
+      ColumnDataType columnType = dataSchema.getColumnDataType(colId);
+      ColumnDataType literalType = literal.getDataType();
+      if (!NUMERIC_TYPES.contains(columnType) || !NUMERIC_TYPES.contains(literalType)
+          || !(literal.getValue() instanceof Number)) {
+        return null;
+      }
+      ColumnDataType commonType = columnType.ordinal() >= literalType.ordinal() ? columnType : literalType;
+      return new NumericComparison(colId, commonType, (Number) literal.getValue(), comparisonResultPredicate);
+    }
+
+    @Override
+    Result evaluate(ColumnarHeapDataBlock block) {
+      int numRows = block.getNumRows();
+      int[] trueRowIds = new int[numRows];
+      int numTrueRows = 0;
+      int[] falseRowIds = new int[numRows];
+      int numFalseRows = 0;
+      RoaringBitmap nullBitmap = block.getNullBitmap(_colId);
+      Object column = block.getColumn(_colId);
+      for (int rowId = 0; rowId < numRows; rowId++) {
+        if (nullBitmap != null && nullBitmap.contains(rowId)) {
+          continue;
+        }
+        if (_comparisonResultPredicate.test(compare(column, rowId))) {
+          trueRowIds[numTrueRows++] = rowId;
+        } else {
+          falseRowIds[numFalseRows++] = rowId;
+        }
+      }
+      RoaringBitmap trueRows = new RoaringBitmap();
+      trueRows.addN(trueRowIds, 0, numTrueRows);
+      RoaringBitmap falseRows = new RoaringBitmap();
+      falseRows.addN(falseRowIds, 0, numFalseRows);
+      return new Result(trueRows, falseRows);
+    }
+
+    private int compare(Object column, int rowId) {
+      switch (_commonType) {
+        case INT:
+          return Integer.compare(((int[]) column)[rowId], _literal.intValue());
+        case LONG:
+          return Long.compare(getLong(column, rowId), _literal.longValue());
+        case FLOAT:
+          return Float.compare(getFloat(column, rowId), _literal.floatValue());
+        case DOUBLE:
+          return Double.compare(getDouble(column, rowId), _literal.doubleValue());
+        default:
+          throw new IllegalStateException("Unsupported common type: " + _commonType);
+      }
+    }
+
+    private static long getLong(Object column, int rowId) {
+      if (column instanceof int[]) {
+        return ((int[]) column)[rowId];
+      }
+      return ((long[]) column)[rowId];
+    }
+
+    private static float getFloat(Object column, int rowId) {
+      if (column instanceof int[]) {
+        return ((int[]) column)[rowId];
+      } else if (column instanceof long[]) {
+        return ((long[]) column)[rowId];
+      }
+      return ((float[]) column)[rowId];
+    }
+
+    private static double getDouble(Object column, int rowId) {
+      if (column instanceof int[]) {
+        return ((int[]) column)[rowId];
+      } else if (column instanceof long[]) {
+        return ((long[]) column)[rowId];
+      } else if (column instanceof float[]) {
+        return ((float[]) column)[rowId];
+      }
+      return ((double[]) column)[rowId];
+    }
+  }
+
+  /**
+   * Evaluates the expression row by row with its {@link TransformOperand}.
+   */
+  static class RowBased extends ColumnarFilterEvaluator {
+    private final TransformOperand _operand;
+
+    RowBased(TransformOperand operand) {
+      _operand = operand;
+    }
+
+    @Override
+    Result evaluate(ColumnarHeapDataBlock block) {
+      int numRows = block.getNumRows();
+      RoaringBitmap trueRows = new RoaringBitmap();
+      RoaringBitmap falseRows = new RoaringBitmap();
+      ColumnarHeapDataBlock.RowView rowView = block.getRowView();
+      for (int rowId = 0; rowId < numRows; rowId++) {
+        rowView.setRowId(rowId);
+        Object result = _operand.apply(rowView);
+        if (result != null) {
+          if (BooleanUtils.isTrueInternalValue(result)) {
+            trueRows.add(rowId);
+          } else {
+            falseRows.add(rowId);
+          }
+        }
+      }
+      return new Result(trueRows, falseRows);
+    }
+  }
+}
@@ -20,6 +20,7 @@ package org.apache.pinot.query.runtime.plan.server;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -31,6 +32,9 @@ import java.util.function.BiConsumer;
 import javax.annotation.Nullable;
 import org.apache.commons.collections4.MapUtils;
 import org.apache.commons.lang3.tuple.Pair;
+import org.apache.pinot.calcite.rel.hint.PinotHintOptions;
+import org.apache.pinot.calcite.rel.hint.PinotHintOptions.JoinHintOptions;
+import org.apache.pinot.common.function.TransformFunctionType;
 import org.apache.pinot.common.metrics.ServerMetrics;
 import org.apache.pinot.common.request.BrokerRequest;
 import org.apache.pinot.common.request.Expression;
@@ -46,6 +50,8 @@ import org.apache.pinot.core.data.manager.LogicalTableContext;
 import org.apache.pinot.core.query.executor.QueryExecutor;
 import org.apache.pinot.core.query.optimizer.QueryOptimizer;
 import org.apache.pinot.core.query.request.ServerQueryRequest;
+import org.apache.pinot.core.query.utils.idset.IdSet;
+import org.apache.pinot.core.query.utils.idset.IdSets;
 import org.apache.pinot.core.routing.timeboundary.TimeBoundaryInfo;
 import org.apache.pinot.query.planner.plannode.PlanNode;
 import org.apache.pinot.query.routing.StageMetadata;
@@ -82,6 +88,8 @@ public class ServerPlanRequestUtils {
   private static final List<QueryRewriter> QUERY_REWRITERS =
       new ArrayList<>(QueryRewriterFactory.getQueryRewriters(QUERY_REWRITERS_CLASS_NAMES));
   private static final QueryOptimizer QUERY_OPTIMIZER = new QueryOptimizer();
+  // Max number of values to be pushed as an IN filter for the runtime filter, beyond which a bloom filter is pushed
+  private static final int DEFAULT_RUNTIME_FILTER_MAX_IN_VALUES = 10_000;
 
   public static OpChain compileLeafStage(OpChainExecutionContext executionContext, StagePlan stagePlan,
       QueryExecutor leafQueryExecutor, ExecutorService executorService, Map<String, String> rowFilters) {
@@ -310,11 +318,38 @@ public class ServerPlanRequestUtils {
     }
   }
 
+  /**
+   * Returns the max number of values to be pushed as an IN filter for the dynamic filter of the given join. Only the
+   * runtime filter (see {@link JoinHintOptions#IS_RUNTIME_FILTER}) can be converted to a bloom filter, because the join
+   * condition is evaluated again by the join on top of it.
+   */
+  static int getDynamicFilterMaxInValues(@Nullable PlanNode.NodeHint nodeHint) {
+    if (nodeHint == null) {
+      return Integer.MAX_VALUE;
+    }
+    Map<String, String> joinOptions = nodeHint.getHintOptions().get(PinotHintOptions.JOIN_HINT_OPTIONS);
+    if (joinOptions == null || !Boolean.parseBoolean(joinOptions.get(JoinHintOptions.IS_RUNTIME_FILTER))) {
+      return Integer.MAX_VALUE;
+    }
+    String maxInValues = joinOptions.get(JoinHintOptions.RUNTIME_FILTER_MAX_IN_VALUES);
+    return maxInValues != null ? Integer.parseInt(maxInValues) : DEFAULT_RUNTIME_FILTER_MAX_IN_VALUES;
+  }
+
   /**
    * attach the dynamic filter to the given PinotQuery.
    */
   static void attachDynamicFilter(PinotQuery pinotQuery, List<Integer> leftKeys, List<Integer> rightKeys,
       List<Object[]> dataContainer, DataSchema dataSchema) {
+    attachDynamicFilter(pinotQuery, leftKeys, rightKeys, dataContainer, dataSchema, Integer.MAX_VALUE);
+  }
+
+  /**
+   * attach the dynamic filter to the given PinotQuery. When there are more than {@code maxInValues} values, a bloom
+   * filter (IN_ID_SET) is attached instead of the IN filter. Because the bloom filter might have false positives, it
+   * should only be used when the join condition is evaluated again after the dynamic filter (runtime filter).
+   */
+  static void attachDynamicFilter(PinotQuery pinotQuery, List<Integer> leftKeys, List<Integer> rightKeys,
+      List<Object[]> dataContainer, DataSchema dataSchema, int maxInValues) {
     List<Expression> expressions = new ArrayList<>();
     for (int i = 0; i < leftKeys.size(); i++) {
       Expression leftExpr = pinotQuery.getSelectList().get(leftKeys.get(i));
@@ -323,10 +358,18 @@ public class ServerPlanRequestUtils {
         expressions.add(RequestUtils.getLiteralExpression(false));
       } else {
         int rightIdx = rightKeys.get(i);
-        List<Expression> operands = new ArrayList<>(dataContainer.size() + 1);
-        operands.add(leftExpr);
-        operands.addAll(computeInOperands(dataContainer, dataSchema, rightIdx));
-        expressions.add(RequestUtils.getFunctionExpression(FilterKind.IN.name(), operands));
+        Expression bloomFilterExpr = null;
+        if (dataContainer.size() > maxInValues) {
+          bloomFilterExpr = computeBloomFilterExpression(leftExpr, dataContainer, dataSchema, rightIdx);
+        }
+        if (bloomFilterExpr != null) {
+          expressions.add(bloomFilterExpr);
+        } else {
+          List<Expression> operands = new ArrayList<>(dataContainer.size() + 1);
+          operands.add(leftExpr);
+          operands.addAll(computeInOperands(dataContainer, dataSchema, rightIdx));
+          expressions.add(RequestUtils.getFunctionExpression(FilterKind.IN.name(), operands));
+        }
       }
     }
     Expression filterExpression = pinotQuery.getFilterExpression();
@@ -340,6 +383,66 @@ public class ServerPlanRequestUtils {
     }
   }
 
+  /**
+   * Computes the {@code IN_ID_SET(leftExpr, '<base64 encoded BloomFilterIdSet>') = true} filter, or returns
+   * {@code null} if the data type is not supported by the bloom filter.
+   */
+  @Nullable
+  private static Expression computeBloomFilterExpression(Expression leftExpr, List<Object[]> dataContainer,
+      DataSchema dataSchema, int colIdx) {
+    FieldSpec.DataType storedType = dataSchema.getColumnDataType(colIdx).getStoredType().toDataType();
+    if (storedType == FieldSpec.DataType.BIG_DECIMAL) {
+      return null;
+    }
+    // Directly create BloomFilterIdSet by setting the size threshold to 0
+    IdSet idSet = IdSets.create(storedType, 0, dataContainer.size(), IdSets.DEFAULT_FPP);
+    switch (storedType) {
+      case INT:
+        for (Object[] row : dataContainer) {
+          idSet.add((int) row[colIdx]);
+        }
+        break;
+      case LONG:
+        for (Object[] row : dataContainer) {
+          idSet.add((long) row[colIdx]);
+        }
+        break;
+      case FLOAT:
+        for (Object[] row : dataContainer) {
+          idSet.add((float) row[colIdx]);
+        }
+        break;
+      case DOUBLE:
+        for (Object[] row : dataContainer) {
+          idSet.add((double) row[colIdx]);
+        }
+        break;
+      case STRING:
+        for (Object[] row : dataContainer) {
+          idSet.add((String) row[colIdx]);
+        }
+        break;
+      case BYTES:
+        for (Object[] row : dataContainer) {
+          idSet.add(((ByteArray) row[colIdx]).getBytes());
+        }
+        break;
+      default:
+        throw new IllegalStateException("Illegal SV data type for bloom filter: " + storedType);
+    }
+    String serializedIdSet;
+    try {
+      serializedIdSet = idSet.toBase64String();
+    } catch (IOException e) {
+      throw new RuntimeException("Caught exception while serializing the bloom filter", e);
+    }
+    Expression inIdSetExpr = RequestUtils.getFunctionExpression(
+        RequestUtils.canonicalizeFunctionName(TransformFunctionType.IN_ID_SET.getName()), leftExpr,
+        RequestUtils.getLiteralExpression(serializedIdSet));
+    return RequestUtils.getFunctionExpression(FilterKind.EQUALS.name(), inIdSetExpr,
+        RequestUtils.getLiteralExpression(true));
+  }
+
   private static List<Expression> computeInOperands(List<Object[]> dataContainer, DataSchema dataSchema, int colIdx) {
     final DataSchema.ColumnDataType columnDataType = dataSchema.getColumnDataType(colIdx);
     final FieldSpec.DataType storedType = columnDataType.getStoredType().toDataType();
@@ -168,7 +168,7 @@ public class ServerPlanRequestVisitor implements PlanNodeVisitor<Void, ServerPla
         }
         // TODO: we should keep query stats here as well
         ServerPlanRequestUtils.attachDynamicFilter(context.getPinotQuery(), node.getLeftKeys(), node.getRightKeys(),
-            resultDataContainer, dataSchema);
+            resultDataContainer, dataSchema, ServerPlanRequestUtils.getDynamicFilterMaxInValues(node.getNodeHint()));
       }
     } else {
       // For lookup join, visit the right child and set it as the leaf boundary.
@@ -207,7 +207,7 @@ public class ServerPlanRequestVisitor implements PlanNodeVisitor<Void, ServerPla
         }
         // TODO: we should keep query stats here as well
         ServerPlanRequestUtils.attachDynamicFilter(context.getPinotQuery(), node.getLeftKeys(), node.getRightKeys(),
-            resultDataContainer, dataSchema);
+            resultDataContainer, dataSchema, ServerPlanRequestUtils.getDynamicFilterMaxInValues(node.getNodeHint()));
 
         PinotQuery pinotQuery = context.getPinotQuery();
         for (EnrichedJoinNode.FilterProjectRex rex : node.getFilterProjectRexes()) {
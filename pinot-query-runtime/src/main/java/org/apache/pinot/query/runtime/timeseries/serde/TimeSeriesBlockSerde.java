@@ -21,11 +21,15 @@ package org.apache.pinot.query.runtime.timeseries.serde;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -48,14 +52,33 @@ import org.apache.pinot.tsdb.spi.series.TimeSeriesBlock;
 
 
 /**
- * Implements a simple Serde mechanism for the Time Series Block. This is used for transferring data between servers
- * and brokers. The approach is to use a {@link MseBlock} and rely on the existing serialization code to avoid
- * re-inventing the wheel. Once the time-series engine coalesces with the Multistage Engine, we will anyway use
- * MseBlock for data transfers.
- * <p>
- *   The {@link TimeSeriesBlock} is converted to and from a table, where the first row contains information about the
- *   time-buckets. For each tag/label in the query, there's a dedicated column, and the Double values are stored in
- *   the last column. As an example, consider the following, where FBV represents the first bucket value of TimeBuckets.
+ * Implements the Serde mechanism for the Time Series Block. This is used for transferring data between servers and
+ * brokers.
+ *
+ * <h3>Binary Format</h3>
+ * The {@link TimeSeriesBlock} is serialized into a columnar binary format, where the double values are written as
+ * primitive arrays along with the null bitmaps, and the tag values are dictionary encoded. Since the tag values are
+ * shared across a lot of series (e.g. the same city for multiple zip codes), the deserialized series share the same
+ * String instance for the same tag value. All the values are big-endian.
+ * <pre>
+ *   | version (int, negative) | first bucket value (long) | bucket size seconds (long) | num buckets (int) |
+ *   | num tags (int) | tag names (string...) | value type (byte) | num series (int) |
+ *   | num dictionary values (int) | dictionary values (string...) |
+ *   | series hashes (long[num series]) |
+ *   | dictionary ids of tag-0 (int[num series]) | ... | dictionary ids of tag-n (int[num series]) |
+ *   | values of series-0 | ... | values of series-m |
+ * </pre>
+ * Each string is written as the length (int) followed by the UTF-8 bytes. A null tag value has dictionary id -1.
+ * For double values, the values of each series are written as: num values (int), num null bitmap words (int), null
+ * bitmap words (long...) and values (double...). For byte[] values, the values of each series are written as: num
+ * values (int), then the length (int) and the bytes of each value.
+ *
+ * <h3>Data Block Format</h3>
+ * Blocks serialized with {@link #serializeTimeSeriesBlockAsDataBlock} (the format used by the older versions) can
+ * still be deserialized. The block is converted to a {@link MseBlock} with a row for each series, where the first row
+ * contains information about the time-buckets. For each tag/label in the query, there's a dedicated column, and the
+ * Double values are stored in the last column. As an example, consider the following, where FBV represents the first
+ * bucket value of TimeBuckets.
  *   <pre>
  *     +-------------+------------+-------------+---------------------------------+
  *     | tag-0       | tag-1      | tag-n       | values (String[] or double[])  |
@@ -67,21 +90,24 @@ import org.apache.pinot.tsdb.spi.series.TimeSeriesBlock;
  *     | San Fran.   | 94107      | ...         | [value-0, value-1, ... value-x] |
  *     +-------------+------------+-------------+---------------------------------+
  *   </pre>
+ * The data block format always starts with a non-negative int (version and type of the data block), which is how the
+ * two formats are distinguished.
+ * <p>
  *   TODO(timeseries): When we support Time Series selection queries, we will likely need a special column instead of
  *     tags, because one could store data in JSON Blobs and the series may have different tags/labels.
  * </p>
- * <p>
- *  TODO(timeseries): One source of inefficiency is boxing/unboxing of Double arrays.
- *  TODO(timeseries): The other is tag values being Object[]. We should make tag values String[].
- * </p>
  */
 public class TimeSeriesBlockSerde {
+  private static final int BINARY_FORMAT_VERSION = -1;
+  private static final byte DOUBLE_VALUES = 0;
+  private static final byte BYTES_VALUES = 1;
+  private static final int NULL_DICT_ID = -1;
+
+  private static final String VALUES_COLUMN_NAME = "__ts_serde_values";
   /**
-   * Since DataBlock can only handle primitive double[] arrays, we use Double.MIN_VALUE to represent nulls.
-   * Using Double.MIN_VALUE is better than using Double.NaN since Double.NaN can help detect divide by 0.
-   * TODO(timeseries): Check if we can get rid of boxed Doubles altogether.
+   * Since DataBlock can only handle primitive double[] arrays, we use Double.MIN_VALUE to represent nulls in the data
+   * block format. Using Double.MIN_VALUE is better than using Double.NaN since Double.NaN can help detect divide by 0.
    */
-  private static final String VALUES_COLUMN_NAME = "__ts_serde_values";
   private static final double NULL_PLACEHOLDER = Double.MIN_VALUE;
 
   private TimeSeriesBlockSerde() {
@@ -89,6 +115,204 @@ public class TimeSeriesBlockSerde {
 
   public static TimeSeriesBlock deserializeTimeSeriesBlock(ByteBuffer readOnlyByteBuffer)
       throws IOException {
+    if (readOnlyByteBuffer.getInt(readOnlyByteBuffer.position()) == BINARY_FORMAT_VERSION) {
+      return deserializeBinary(readOnlyByteBuffer.slice().order(ByteOrder.BIG_ENDIAN));
+    }
+    return deserializeDataBlock(readOnlyByteBuffer);
+  }
+
+  public static ByteString serializeTimeSeriesBlock(TimeSeriesBlock timeSeriesBlock) {
+    TimeBuckets timeBuckets = Objects.requireNonNull(timeSeriesBlock.getTimeBuckets());
+    TimeSeries sampledTimeSeries = sampleTimeSeries(timeSeriesBlock).orElse(null);
+    List<String> tagNames = sampledTimeSeries == null ? List.of() : sampledTimeSeries.getTagNames();
+    int numTags = tagNames.size();
+    boolean bytesValues = sampledTimeSeries != null && sampledTimeSeries.isBytesValues();
+
+    // Dictionary encode the tag values, and compute the size of the serialized block
+    int numSeries = 0;
+    for (List<TimeSeries> timeSeriesList : timeSeriesBlock.getSeriesMap().values()) {
+      numSeries += timeSeriesList.size();
+    }
+    long[] seriesHashes = new long[numSeries];
+    TimeSeries[] seriesArray = new TimeSeries[numSeries];
+    int[][] tagDictIds = new int[numTags][numSeries];
+    Map<String, Integer> dictionary = new HashMap<>();
+    List<byte[]> dictionaryValues = new ArrayList<>();
+    long size = Integer.BYTES + 2 * Long.BYTES + Integer.BYTES + Integer.BYTES + Byte.BYTES + 2 * Integer.BYTES
+        + (long) numSeries * (Long.BYTES + numTags * Integer.BYTES);
+    List<byte[]> tagNameBytes = new ArrayList<>(numTags);
+    for (String tagName : tagNames) {
+      byte[] bytes = tagName.getBytes(StandardCharsets.UTF_8);
+      tagNameBytes.add(bytes);
+      size += Integer.BYTES + bytes.length;
+    }
+    int seriesId = 0;
+    for (Map.Entry<Long, List<TimeSeries>> entry : timeSeriesBlock.getSeriesMap().entrySet()) {
+      for (TimeSeries timeSeries : entry.getValue()) {
+        Preconditions.checkState(
+            timeSeries.isBytesValues() == bytesValues && timeSeries.getTagNames().size() == numTags,
+            "Found time series with different value type or tags in the same block");
+        seriesHashes[seriesId] = entry.getKey();
+        seriesArray[seriesId] = timeSeries;
+        String[] tagValues = timeSeries.getTagValues();
+        for (int tagId = 0; tagId < numTags; tagId++) {
+          String tagValue = tagValues[tagId];
+          if (tagValue == null) {
+            tagDictIds[tagId][seriesId] = NULL_DICT_ID;
+          } else {
+            Integer dictId = dictionary.get(tagValue);
+            if (dictId == null) {
+              dictId = dictionaryValues.size();
+              dictionary.put(tagValue, dictId);
+              byte[] bytes = tagValue.getBytes(StandardCharsets.UTF_8);
+              dictionaryValues.add(bytes);
+              size += Integer.BYTES + bytes.length;
+            }
+            tagDictIds[tagId][seriesId] = dictId;
+          }
+        }
+        size += Integer.BYTES;
+        if (bytesValues) {
+          for (byte[] value : timeSeries.getBytesValues()) {
+            size += Integer.BYTES + value.length;
+          }
+        } else {
+          size += Integer.BYTES + (long) Long.BYTES * getNumNullBitmapWords(timeSeries.getNullBitmap())
+              + (long) Double.BYTES * timeSeries.getNumValues();
+        }
+        seriesId++;
+      }
+    }
+    Preconditions.checkState(size <= Integer.MAX_VALUE, "Time series block is too large: %s bytes", size);
+
+    byte[] bytes = new byte[(int) size];
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    buffer.putInt(BINARY_FORMAT_VERSION);
+    buffer.putLong(timeBuckets.getTimeBuckets()[0]);
+    buffer.putLong(timeBuckets.getBucketSize().getSeconds());
+    buffer.putInt(timeBuckets.getNumBuckets());
+    buffer.putInt(numTags);
+    for (byte[] tagName : tagNameBytes) {
+      buffer.putInt(tagName.length).put(tagName);
+    }
+    buffer.put(bytesValues ? BYTES_VALUES : DOUBLE_VALUES);
+    buffer.putInt(numSeries);
+    buffer.putInt(dictionaryValues.size());
+    for (byte[] dictionaryValue : dictionaryValues) {
+      buffer.putInt(dictionaryValue.length).put(dictionaryValue);
+    }
+    buffer.asLongBuffer().put(seriesHashes);
+    buffer.position(buffer.position() + numSeries * Long.BYTES);
+    for (int[] dictIds : tagDictIds) {
+      buffer.asIntBuffer().put(dictIds);
+      buffer.position(buffer.position() + numSeries * Integer.BYTES);
+    }
+    for (TimeSeries timeSeries : seriesArray) {
+      buffer.putInt(timeSeries.getNumValues());
+      if (bytesValues) {
+        for (byte[] value : timeSeries.getBytesValues()) {
+          buffer.putInt(value.length).put(value);
+        }
+      } else {
+        BitSet nullBitmap = timeSeries.getNullBitmap();
+        int numWords = getNumNullBitmapWords(nullBitmap);
+        buffer.putInt(numWords);
+        if (numWords > 0) {
+          buffer.asLongBuffer().put(nullBitmap.toLongArray());
+          buffer.position(buffer.position() + numWords * Long.BYTES);
+        }
+        double[] values = timeSeries.getDoubleValues();
+        buffer.asDoubleBuffer().put(values);
+        buffer.position(buffer.position() + values.length * Double.BYTES);
+      }
+    }
+    Preconditions.checkState(!buffer.hasRemaining(), "Serialized time series block size mismatch");
+    return UnsafeByteOperations.unsafeWrap(bytes);
+  }
+
+  /**
+   * Serializes the block in the data block format, which is used by the older versions.
+   */
+  public static ByteString serializeTimeSeriesBlockAsDataBlock(TimeSeriesBlock timeSeriesBlock)
+      throws IOException {
+    TimeBuckets timeBuckets = Objects.requireNonNull(timeSeriesBlock.getTimeBuckets());
+    List<Object[]> container = new ArrayList<>();
+    DataSchema dataSchema = generateDataSchema(timeSeriesBlock);
+    container.add(timeBucketsToRow(timeBuckets, dataSchema));
+    for (var entry : timeSeriesBlock.getSeriesMap().entrySet()) {
+      for (TimeSeries timeSeries : entry.getValue()) {
+        container.add(timeSeriesToRow(timeSeries, dataSchema));
+      }
+    }
+    RowHeapDataBlock transferableBlock = new RowHeapDataBlock(container, dataSchema);
+    return DataBlockUtils.toByteString(transferableBlock.asSerialized().getDataBlock());
+  }
+
+  private static TimeSeriesBlock deserializeBinary(ByteBuffer buffer) {
+    Preconditions.checkState(buffer.getInt() == BINARY_FORMAT_VERSION, "Unsupported time series block format");
+    long firstBucketValue = buffer.getLong();
+    Duration bucketSize = Duration.ofSeconds(buffer.getLong());
+    int numBuckets = buffer.getInt();
+    TimeBuckets timeBuckets = TimeBuckets.ofSeconds(firstBucketValue, bucketSize, numBuckets);
+    int numTags = buffer.getInt();
+    String[] tagNameArray = new String[numTags];
+    for (int tagId = 0; tagId < numTags; tagId++) {
+      tagNameArray[tagId] = readString(buffer);
+    }
+    List<String> tagNames = Arrays.asList(tagNameArray);
+    boolean bytesValues = buffer.get() == BYTES_VALUES;
+    int numSeries = buffer.getInt();
+    String[] dictionary = new String[buffer.getInt()];
+    for (int dictId = 0; dictId < dictionary.length; dictId++) {
+      dictionary[dictId] = readString(buffer);
+    }
+    long[] seriesHashes = new long[numSeries];
+    buffer.asLongBuffer().get(seriesHashes);
+    buffer.position(buffer.position() + numSeries * Long.BYTES);
+    String[][] tagValues = new String[numSeries][numTags];
+    int[] dictIds = new int[numSeries];
+    for (int tagId = 0; tagId < numTags; tagId++) {
+      buffer.asIntBuffer().get(dictIds);
+      buffer.position(buffer.position() + numSeries * Integer.BYTES);
+      for (int seriesId = 0; seriesId < numSeries; seriesId++) {
+        int dictId = dictIds[seriesId];
+        tagValues[seriesId][tagId] = dictId != NULL_DICT_ID ? dictionary[dictId] : null;
+      }
+    }
+    Map<Long, List<TimeSeries>> seriesMap = new HashMap<>();
+    for (int seriesId = 0; seriesId < numSeries; seriesId++) {
+      long seriesHash = seriesHashes[seriesId];
+      String id = Long.toString(seriesHash);
+      int numValues = buffer.getInt();
+      TimeSeries timeSeries;
+      if (bytesValues) {
+        byte[][] values = new byte[numValues][];
+        for (int i = 0; i < numValues; i++) {
+          values[i] = new byte[buffer.getInt()];
+          buffer.get(values[i]);
+        }
+        timeSeries = new TimeSeries(id, null, timeBuckets, values, tagNames, tagValues[seriesId]);
+      } else {
+        int numWords = buffer.getInt();
+        BitSet nullBitmap = null;
+        if (numWords > 0) {
+          long[] words = new long[numWords];
+          buffer.asLongBuffer().get(words);
+          buffer.position(buffer.position() + numWords * Long.BYTES);
+          nullBitmap = BitSet.valueOf(words);
+        }
+        double[] values = new double[numValues];
+        buffer.asDoubleBuffer().get(values);
+        buffer.position(buffer.position() + numValues * Double.BYTES);
+        timeSeries = new TimeSeries(id, null, timeBuckets, values, nullBitmap, tagNames, tagValues[seriesId]);
+      }
+      seriesMap.computeIfAbsent(seriesHash, x -> new ArrayList<>(1)).add(timeSeries);
+    }
+    return new TimeSeriesBlock(timeBuckets, seriesMap);
+  }
+
+  private static TimeSeriesBlock deserializeDataBlock(ByteBuffer readOnlyByteBuffer)
+      throws IOException {
     DataBlock dataBlock = DataBlockUtils.readFrom(readOnlyByteBuffer);
     SerializedDataBlock mseBlock = new SerializedDataBlock(dataBlock);
     List<String> tagNames = generateTagNames(Objects.requireNonNull(mseBlock.getDataSchema(),
@@ -106,19 +330,14 @@ public class TimeSeriesBlockSerde {
     return new TimeSeriesBlock(timeBuckets, seriesMap);
   }
 
-  public static ByteString serializeTimeSeriesBlock(TimeSeriesBlock timeSeriesBlock)
-      throws IOException {
-    TimeBuckets timeBuckets = Objects.requireNonNull(timeSeriesBlock.getTimeBuckets());
-    List<Object[]> container = new ArrayList<>();
-    DataSchema dataSchema = generateDataSchema(timeSeriesBlock);
-    container.add(timeBucketsToRow(timeBuckets, dataSchema));
-    for (var entry : timeSeriesBlock.getSeriesMap().entrySet()) {
-      for (TimeSeries timeSeries : entry.getValue()) {
-        container.add(timeSeriesToRow(timeSeries, dataSchema));
-      }
-    }
-    RowHeapDataBlock transferableBlock = new RowHeapDataBlock(container, dataSchema);
-    return DataBlockUtils.toByteString(transferableBlock.asSerialized().getDataBlock());
+  private static int getNumNullBitmapWords(BitSet nullBitmap) {
+    return (nullBitmap.length() + Long.SIZE - 1) / Long.SIZE;
+  }
+
+  private static String readString(ByteBuffer buffer) {
+    byte[] bytes = new byte[buffer.getInt()];
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
   }
 
   /**
@@ -214,7 +433,7 @@ public class TimeSeriesBlockSerde {
   }
 
   private static ColumnDataType inferValueDataType(@Nullable TimeSeries timeSeries) {
-    if (timeSeries == null || timeSeries.getValues() instanceof Double[]) {
+    if (timeSeries == null || !timeSeries.isBytesValues()) {
       return ColumnDataType.DOUBLE_ARRAY;
     }
     // Byte values are encoded as hex array
@@ -261,11 +480,11 @@ public class TimeSeriesBlockSerde {
     int numColumns = dataSchema.getColumnNames().length;
     Object[] result = new Object[numColumns];
     for (int index = 0; index < numColumns - 1; index++) {
-      Object tagValue = timeSeries.getTagValues()[index];
-      result[index] = tagValue == null ? "null" : tagValue.toString();
+      String tagValue = timeSeries.getTagValues()[index];
+      result[index] = tagValue == null ? "null" : tagValue;
     }
     if (dataSchema.getColumnDataTypes()[numColumns - 1] == ColumnDataType.DOUBLE_ARRAY) {
-      result[numColumns - 1] = unboxDoubleArray(timeSeries.getDoubleValues());
+      result[numColumns - 1] = encodeNulls(timeSeries.getDoubleValues(), timeSeries.getNullBitmap());
     } else {
       result[numColumns - 1] = encodeAsHex(timeSeries.getBytesValues());
     }
@@ -275,30 +494,37 @@ public class TimeSeriesBlockSerde {
   private static TimeSeries timeSeriesFromRow(List<String> tagNames, Object[] row, TimeBuckets timeBuckets,
       DataSchema dataSchema) {
     int numColumns = dataSchema.getColumnDataTypes().length;
-    Object[] tagValues = new Object[row.length - 1];
+    String[] tagValues = new String[row.length - 1];
     System.arraycopy(row, 0, tagValues, 0, row.length - 1);
-    Object[] values;
+    String id = Long.toString(TimeSeries.hash(tagValues));
     if (dataSchema.getColumnDataTypes()[numColumns - 1] == ColumnDataType.DOUBLE_ARRAY) {
-      values = boxDoubleArray((double[]) row[row.length - 1]);
+      double[] values = (double[]) row[row.length - 1];
+      return new TimeSeries(id, null, timeBuckets, values, decodeNulls(values), tagNames, tagValues);
     } else {
-      values = decodeFromHex((String[]) row[row.length - 1]);
+      byte[][] values = decodeFromHex((String[]) row[row.length - 1]);
+      return new TimeSeries(id, null, timeBuckets, values, tagNames, tagValues);
     }
-    return new TimeSeries(Long.toString(TimeSeries.hash(tagValues)), null, timeBuckets, values, tagNames, tagValues);
   }
 
-  private static double[] unboxDoubleArray(Double[] values) {
-    double[] result = new double[values.length];
-    for (int index = 0; index < result.length; index++) {
-      result[index] = values[index] == null ? NULL_PLACEHOLDER : values[index];
+  private static double[] encodeNulls(double[] values, BitSet nullBitmap) {
+    if (nullBitmap.isEmpty()) {
+      return values;
+    }
+    double[] result = values.clone();
+    for (int index = nullBitmap.nextSetBit(0); index >= 0 && index < result.length;
+        index = nullBitmap.nextSetBit(index + 1)) {
+      result[index] = NULL_PLACEHOLDER;
     }
     return result;
   }
 
-  private static Double[] boxDoubleArray(double[] values) {
-    Double[] result = new Double[values.length];
-    for (int index = 0; index < result.length; index++) {
-      result[index] = values[index] == NULL_PLACEHOLDER ? null : values[index];
+  private static BitSet decodeNulls(double[] values) {
+    BitSet nullBitmap = new BitSet(values.length);
+    for (int index = 0; index < values.length; index++) {
+      if (values[index] == NULL_PLACEHOLDER) {
+        nullBitmap.set(index);
+      }
     }
-    return result;
+    return nullBitmap;
   }
 }
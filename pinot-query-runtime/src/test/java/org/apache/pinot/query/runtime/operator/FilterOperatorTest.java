@@ -19,16 +19,21 @@
 package org.apache.pinot.query.runtime.operator;
 
 import java.util.List;
+import java.util.Map;
 import org.apache.calcite.sql.SqlKind;
 import org.apache.pinot.common.utils.DataSchema;
 import org.apache.pinot.common.utils.DataSchema.ColumnDataType;
 import org.apache.pinot.query.planner.logical.RexExpression;
 import org.apache.pinot.query.planner.plannode.FilterNode;
 import org.apache.pinot.query.planner.plannode.PlanNode;
+import org.apache.pinot.query.runtime.blocks.ColumnarHeapDataBlock;
 import org.apache.pinot.query.runtime.blocks.ErrorMseBlock;
 import org.apache.pinot.query.runtime.blocks.MseBlock;
+import org.apache.pinot.query.runtime.blocks.RowHeapDataBlock;
 import org.apache.pinot.query.runtime.blocks.SuccessMseBlock;
+import org.apache.pinot.query.runtime.plan.OpChainExecutionContext;
 import org.apache.pinot.spi.exception.QueryErrorCode;
+import org.apache.pinot.spi.utils.CommonConstants.Broker.Request.QueryOptionKey;
 import org.mockito.Mock;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
@@ -218,6 +223,46 @@ public class FilterOperatorTest {
     assertEquals(resultRows.get(0), new Object[]{"starTree"});
   }
 
+  @Test
+  public void shouldFilterColumnarBlockLikeRowBlock() {
+    DataSchema inputSchema = new DataSchema(new String[]{"int0", "double1", "string2"}, new ColumnDataType[]{
+        ColumnDataType.INT, ColumnDataType.DOUBLE, ColumnDataType.STRING
+    });
+    List<Object[]> rows = List.of(new Object[]{1, 2.0, "a"}, new Object[]{2, 2.0, "b"}, new Object[]{3, 1.0, "c"},
+        new Object[]{null, 1.0, "a"}, new Object[]{4, null, "b"}, new Object[]{5, 3.0, null});
+    // (int0 > 1L AND NOT(double1 = 2.0)) OR startsWith(string2, 'a')
+    RexExpression condition = new RexExpression.FunctionCall(ColumnDataType.BOOLEAN, SqlKind.OR.name(), List.of(
+        new RexExpression.FunctionCall(ColumnDataType.BOOLEAN, SqlKind.AND.name(), List.of(
+            new RexExpression.FunctionCall(ColumnDataType.BOOLEAN, SqlKind.GREATER_THAN.name(),
+                List.of(new RexExpression.InputRef(0), new RexExpression.Literal(ColumnDataType.LONG, 1L))),
+            new RexExpression.FunctionCall(ColumnDataType.BOOLEAN, SqlKind.NOT.name(), List.of(
+                new RexExpression.FunctionCall(ColumnDataType.BOOLEAN, SqlKind.EQUALS.name(),
+                    List.of(new RexExpression.Literal(ColumnDataType.DOUBLE, 2.0), new RexExpression.InputRef(1))))))),
+        new RexExpression.FunctionCall(ColumnDataType.BOOLEAN, SqlKind.STARTS_WITH.name(),
+            List.of(new RexExpression.InputRef(2), new RexExpression.Literal(ColumnDataType.STRING, "a")))));
+
+    when(_input.nextBlock()).thenReturn(new RowHeapDataBlock(rows, inputSchema))
+        .thenReturn(SuccessMseBlock.INSTANCE);
+    List<Object[]> expectedRows = ((MseBlock.Data) getOperator(inputSchema, condition).nextBlock()).asRowHeap()
+        .getRows();
+    assertEquals(expectedRows.size(), 4);
+
+    for (boolean useColumnarDataBlocks : new boolean[]{true, false}) {
+      when(_input.nextBlock()).thenReturn(ColumnarHeapDataBlock.fromRows(rows, inputSchema))
+          .thenReturn(SuccessMseBlock.INSTANCE);
+      OpChainExecutionContext context = OperatorTestUtil.getContext(
+          Map.of(QueryOptionKey.USE_COLUMNAR_DATA_BLOCKS, Boolean.toString(useColumnarDataBlocks)));
+      MseBlock.Data block = (MseBlock.Data) getOperator(context, inputSchema, condition).nextBlock();
+      // Columnar blocks should only be processed in columnar format when enabled with the query option
+      assertEquals(block.isColumnar(), useColumnarDataBlocks);
+      List<Object[]> resultRows = block.asRowHeap().getRows();
+      assertEquals(resultRows.size(), expectedRows.size());
+      for (int i = 0; i < resultRows.size(); i++) {
+        assertEquals(resultRows.get(i), expectedRows.get(i));
+      }
+    }
+  }
+
   //@formatter:off
   @Test(
       expectedExceptions = IllegalArgumentException.class,
@@ -236,7 +281,11 @@ public class FilterOperatorTest {
   }
 
   private FilterOperator getOperator(DataSchema schema, RexExpression condition) {
-    return new FilterOperator(OperatorTestUtil.getTracingContext(), _input,
+    return getOperator(OperatorTestUtil.getTracingContext(), schema, condition);
+  }
+
+  private FilterOperator getOperator(OpChainExecutionContext context, DataSchema schema, RexExpression condition) {
+    return new FilterOperator(context, _input,
         new FilterNode(-1, schema, PlanNode.NodeHint.EMPTY, List.of(), condition));
   }
 }
@@ -18,6 +18,7 @@
  */
 package org.apache.pinot.query.runtime.operator;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import org.apache.calcite.rel.core.JoinRelType;
@@ -765,6 +766,89 @@ public class HashJoinOperatorTest {
     assertTrue(containsRow(resultRows, new Object[]{3, "Cc", 3.0}));  // Unmatched preserved
   }
 
+  @Test
+  public void shouldSpillInnerJoinWhenRightTableExceedsSpillThreshold() {
+    BlockListMultiStageOperator.Builder leftBuilder = new BlockListMultiStageOperator.Builder(DEFAULT_CHILD_SCHEMA);
+    BlockListMultiStageOperator.Builder rightBuilder = new BlockListMultiStageOperator.Builder(DEFAULT_CHILD_SCHEMA);
+    for (int i = 0; i < 1000; i++) {
+      leftBuilder.addRow(i, "left_" + i);
+      // Two right rows per even key
+      if (i % 2 == 0) {
+        rightBuilder.addRow(i, "right_" + i);
+        rightBuilder.addRow(i, "right_dup_" + i);
+      }
+      if (i % 100 == 99) {
+        leftBuilder.finishBlock();
+        rightBuilder.finishBlock();
+      }
+    }
+    _leftInput = leftBuilder.buildWithEos();
+    _rightInput = rightBuilder.buildWithEos();
+    DataSchema resultSchema = new DataSchema(new String[]{"int_col1", "string_col1", "int_col2", "string_col2"},
+        new ColumnDataType[]{ColumnDataType.INT, ColumnDataType.STRING, ColumnDataType.INT, ColumnDataType.STRING});
+    PlanNode.NodeHint nodeHint = new PlanNode.NodeHint(Map.of(PinotHintOptions.JOIN_HINT_OPTIONS,
+        Map.of(PinotHintOptions.JoinHintOptions.JOIN_SPILL_THRESHOLD_BYTES, "1024")));
+    HashJoinOperator operator =
+        getOperator(resultSchema, JoinRelType.INNER, List.of(0), List.of(0), List.of(), nodeHint);
+
+    List<Object[]> resultRows = new ArrayList<>();
+    MseBlock block = operator.nextBlock();
+    while (block.isData()) {
+      resultRows.addAll(((MseBlock.Data) block).asRowHeap().getRows());
+      block = operator.nextBlock();
+    }
+    assertTrue(block.isSuccess());
+    assertEquals(resultRows.size(), 1000);
+    for (Object[] row : resultRows) {
+      int key = (int) row[0];
+      assertEquals(key % 2, 0);
+      assertEquals(row[1], "left_" + key);
+      assertEquals(row[2], key);
+      assertTrue(row[3].equals("right_" + key) || row[3].equals("right_dup_" + key));
+    }
+
+    StatMap<HashJoinOperator.StatKey> statMap =
+        OperatorTestUtil.getStatMap(HashJoinOperator.StatKey.class, operator.calculateStats());
+    assertTrue(statMap.getLong(HashJoinOperator.StatKey.SPILLED_BYTES) > 0);
+    assertEquals(statMap.getInt(HashJoinOperator.StatKey.SPILLED_PARTITIONS), 32);
+  }
+
+  @Test
+  public void shouldSpillFullJoinWithNullsWhenRightTableExceedsRowsLimit() {
+    _leftInput = new BlockListMultiStageOperator.Builder(DEFAULT_CHILD_SCHEMA)
+        .addRow(1, "Aa")
+        .addRow(2, null)
+        .addRow(4, "CC")
+        .buildWithEos();
+    _rightInput = new BlockListMultiStageOperator.Builder(DEFAULT_CHILD_SCHEMA)
+        .addRow(2, "Aa")
+        .addRow(2, null)
+        .addRow(3, "BB")
+        .buildWithEos();
+    DataSchema resultSchema = new DataSchema(new String[]{"int_col1", "string_col1", "int_col2", "string_col2"},
+        new ColumnDataType[]{ColumnDataType.INT, ColumnDataType.STRING, ColumnDataType.INT, ColumnDataType.STRING});
+    // The right table fits in the spill threshold but not in the rows limit, so it is spilled instead of failing
+    PlanNode.NodeHint nodeHint = new PlanNode.NodeHint(Map.of(PinotHintOptions.JOIN_HINT_OPTIONS,
+        Map.of(PinotHintOptions.JoinHintOptions.JOIN_SPILL_THRESHOLD_BYTES, "1000000",
+            PinotHintOptions.JoinHintOptions.MAX_ROWS_IN_JOIN, "2")));
+    HashJoinOperator operator =
+        getOperator(resultSchema, JoinRelType.FULL, List.of(1), List.of(1), List.of(), nodeHint);
+
+    List<Object[]> resultRows = new ArrayList<>();
+    MseBlock block = operator.nextBlock();
+    while (block.isData()) {
+      resultRows.addAll(((MseBlock.Data) block).asRowHeap().getRows());
+      block = operator.nextBlock();
+    }
+    assertTrue(block.isSuccess());
+    assertEquals(resultRows.size(), 5);
+    assertTrue(containsRow(resultRows, new Object[]{1, "Aa", 2, "Aa"}));
+    assertTrue(containsRow(resultRows, new Object[]{2, null, null, null}));
+    assertTrue(containsRow(resultRows, new Object[]{4, "CC", null, null}));
+    assertTrue(containsRow(resultRows, new Object[]{null, null, 2, null}));
+    assertTrue(containsRow(resultRows, new Object[]{null, null, 3, "BB"}));
+  }
+
   private HashJoinOperator getOperator(DataSchema leftSchema, DataSchema resultSchema, JoinRelType joinType,
       List<Integer> leftKeys, List<Integer> rightKeys, List<RexExpression> nonEquiConditions,
       PlanNode.NodeHint nodeHint) {
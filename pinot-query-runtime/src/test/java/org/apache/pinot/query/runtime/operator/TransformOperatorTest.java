@@ -26,9 +26,11 @@ import org.apache.pinot.common.utils.DataSchema.ColumnDataType;
 import org.apache.pinot.query.planner.logical.RexExpression;
 import org.apache.pinot.query.planner.plannode.PlanNode;
 import org.apache.pinot.query.planner.plannode.ProjectNode;
+import org.apache.pinot.query.runtime.blocks.ColumnarHeapDataBlock;
 import org.apache.pinot.query.runtime.blocks.ErrorMseBlock;
 import org.apache.pinot.query.runtime.blocks.MseBlock;
 import org.apache.pinot.spi.exception.QueryErrorCode;
+import org.apache.pinot.spi.utils.CommonConstants.Broker.Request.QueryOptionKey;
 import org.mockito.Mock;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
@@ -74,6 +76,48 @@ public class TransformOperatorTest {
     assertEquals(resultRows.get(1), new Object[]{2, "b"});
   }
 
+  @Test
+  public void shouldTransformColumnarBlock() {
+    DataSchema inputSchema = new DataSchema(new String[]{"doubleCol1", "doubleCol2", "strCol"}, new ColumnDataType[]{
+        ColumnDataType.DOUBLE, ColumnDataType.DOUBLE, ColumnDataType.STRING
+    });
+    ColumnarHeapDataBlock inputBlock = ColumnarHeapDataBlock.fromRows(
+        List.of(new Object[]{1.0, 1.0, "a"}, new Object[]{2.0, null, "b"}, new Object[]{null, 3.0, null}),
+        inputSchema);
+    when(_input.nextBlock()).thenReturn(inputBlock);
+    DataSchema resultSchema = new DataSchema(new String[]{"strCol", "plusR", "lit"},
+        new ColumnDataType[]{ColumnDataType.STRING, ColumnDataType.DOUBLE, ColumnDataType.LONG});
+    List<RexExpression> projects = List.of(new RexExpression.InputRef(2),
+        new RexExpression.FunctionCall(ColumnDataType.DOUBLE, SqlKind.PLUS.name(),
+            List.of(new RexExpression.InputRef(0), new RexExpression.InputRef(1))),
+        new RexExpression.Literal(ColumnDataType.LONG, 5L));
+    TransformOperator operator = new TransformOperator(
+        OperatorTestUtil.getContext(Map.of(QueryOptionKey.USE_COLUMNAR_DATA_BLOCKS, "true")), _input, inputSchema,
+        new ProjectNode(-1, resultSchema, PlanNode.NodeHint.EMPTY, List.of(), projects));
+    MseBlock.Data block = (MseBlock.Data) operator.nextBlock();
+    assertTrue(block.isColumnar());
+    ColumnarHeapDataBlock columnarBlock = block.asColumnar();
+    // Input references share the column of the input block
+    assertTrue(columnarBlock.getColumn(0) == inputBlock.getColumn(2));
+    assertTrue(columnarBlock.getColumn(1) instanceof double[]);
+    assertTrue(columnarBlock.getColumn(2) instanceof long[]);
+    List<Object[]> resultRows = block.asRowHeap().getRows();
+    assertEquals(resultRows.size(), 3);
+    assertEquals(resultRows.get(0), new Object[]{"a", 2.0, 5L});
+    assertEquals(resultRows.get(1), new Object[]{"b", null, 5L});
+    assertEquals(resultRows.get(2), new Object[]{null, null, 5L});
+
+    // Without the query option, the columnar block should be processed in row format
+    when(_input.nextBlock()).thenReturn(inputBlock);
+    block = (MseBlock.Data) getOperator(inputSchema, resultSchema, projects).nextBlock();
+    assertTrue(block.isRowHeap());
+    List<Object[]> rowBasedResultRows = block.asRowHeap().getRows();
+    assertEquals(rowBasedResultRows.size(), 3);
+    for (int i = 0; i < 3; i++) {
+      assertEquals(rowBasedResultRows.get(i), resultRows.get(i));
+    }
+  }
+
   @Test
   public void shouldHandleLiteralTransform() {
     DataSchema inputSchema = new DataSchema(new String[]{"boolCol", "strCol"}, new ColumnDataType[]{
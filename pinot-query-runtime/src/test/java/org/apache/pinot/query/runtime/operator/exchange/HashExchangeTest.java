@@ -85,6 +85,31 @@ public class HashExchangeTest {
     Assert.assertEquals(mailbox2DataBlock.asRowHeap().getRows().get(0), new Object[]{2});
   }
 
+  @Test
+  public void shouldSplitAndRouteColumnarBlocksBasedOnPartitionKey()
+      throws Exception {
+    // Given:
+    TestSelector selector = new TestSelector(Iterators.forArray(2, 0, 1));
+    ImmutableList<SendingMailbox> destinations = ImmutableList.of(_mailbox1, _mailbox2);
+
+    // When:
+    new HashExchange(destinations, selector, BlockSplitter.DEFAULT).route(destinations, _block.asColumnar());
+
+    // Then:
+    ArgumentCaptor<MseBlock.Data> captor = ArgumentCaptor.forClass(MseBlock.Data.class);
+
+    Mockito.verify(_mailbox1, Mockito.times(1)).send(captor.capture());
+    MseBlock.Data mailbox1DataBlock = captor.getValue();
+    Assert.assertTrue(mailbox1DataBlock.isColumnar(), "Expected columnar data block");
+    Assert.assertEquals(mailbox1DataBlock.asRowHeap().getRows().get(0), new Object[]{0});
+    Assert.assertEquals(mailbox1DataBlock.asRowHeap().getRows().get(1), new Object[]{1});
+
+    Mockito.verify(_mailbox2, Mockito.times(1)).send(captor.capture());
+    MseBlock.Data mailbox2DataBlock = captor.getValue();
+    Assert.assertTrue(mailbox2DataBlock.isColumnar(), "Expected columnar data block");
+    Assert.assertEquals(mailbox2DataBlock.asRowHeap().getRows().get(0), new Object[]{2});
+  }
+
   private static class TestSelector implements KeySelector<Object> {
     private final Iterator<Integer> _hashes;
 
@@ -0,0 +1,100 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.query.runtime.operator.join;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.common.utils.DataSchema;
+import org.apache.pinot.common.utils.DataSchema.ColumnDataType;
+import org.apache.pinot.query.planner.partitioning.KeySelectorFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+
+public class SpilledPartitionsTest {
+  private static final File TEMP_DIR = new File(FileUtils.getTempDirectory(), "SpilledPartitionsTest");
+  private static final DataSchema DATA_SCHEMA =
+      new DataSchema(new String[]{"key", "value"}, new ColumnDataType[]{ColumnDataType.INT, ColumnDataType.STRING});
+
+  @BeforeClass
+  public void setUp()
+      throws Exception {
+    FileUtils.deleteDirectory(TEMP_DIR);
+  }
+
+  @AfterClass
+  public void tearDown()
+      throws Exception {
+    FileUtils.deleteDirectory(TEMP_DIR);
+  }
+
+  @Test
+  public void testSpillAndRead() {
+    List<Object[]> rows = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      rows.add(new Object[]{i, "value_" + i});
+    }
+    File spillDir;
+    try (SpilledPartitions spilledPartitions = new SpilledPartitions(TEMP_DIR, "join_1_", 4, 1024, DATA_SCHEMA,
+        KeySelectorFactory.getKeySelector(List.of(0)))) {
+      // The buffered rows exceed the memory budget, so some of them should be flushed right away
+      spilledPartitions.addRows(rows, 100_000);
+      assertTrue(spilledPartitions.getNumBytesWritten() > 0);
+      spillDir = spilledPartitions.getSpillDir();
+      assertNotNull(spillDir);
+      assertTrue(spillDir.getName().startsWith("join_1_"));
+
+      spilledPartitions.finish();
+      int numRows = 0;
+      for (int i = 0; i < 4; i++) {
+        int numPartitionRows = 0;
+        try (SpilledPartitions.Reader reader = spilledPartitions.openReader(i)) {
+          List<Object[]> partitionRows;
+          while ((partitionRows = reader.nextRows()) != null) {
+            numPartitionRows += partitionRows.size();
+          }
+        }
+        assertEquals(numPartitionRows, spilledPartitions.getNumRows(i));
+        numRows += numPartitionRows;
+      }
+      assertEquals(numRows, 1000);
+    }
+    // The spill directory should be deleted on close
+    assertFalse(spillDir.exists());
+  }
+
+  @Test
+  public void testCloseBeforeFinish() {
+    File spillDir;
+    try (SpilledPartitions spilledPartitions = new SpilledPartitions(TEMP_DIR, "join_2_", 4, 1, DATA_SCHEMA,
+        KeySelectorFactory.getKeySelector(List.of(0)))) {
+      spilledPartitions.addRows(List.of(new Object[]{1, "a"}, new Object[]{2, "b"}), 200);
+      spillDir = spilledPartitions.getSpillDir();
+      assertNotNull(spillDir);
+      assertTrue(spillDir.exists());
+    }
+    // The spill directory should be deleted when the partitions are closed without being finished (e.g. on failure)
+    assertFalse(spillDir.exists());
+  }
+}
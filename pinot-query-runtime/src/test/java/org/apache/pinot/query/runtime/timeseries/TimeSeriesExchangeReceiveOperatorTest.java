@@ -42,8 +42,8 @@ public class TimeSeriesExchangeReceiveOperatorTest {
   private static final AggInfo SUM_AGG_INFO = new AggInfo("SUM", false, Collections.emptyMap());
   private static final TimeBuckets TIME_BUCKETS = TimeBuckets.ofSeconds(1000, Duration.ofSeconds(200), 4);
   private static final List<String> TAG_NAMES = ImmutableList.of("city", "zip");
-  private static final Object[] CHICAGO_SERIES_VALUES = new Object[]{"Chicago", "60605"};
-  private static final Object[] SF_SERIES_VALUES = new Object[]{"San Francisco", "94107"};
+  private static final String[] CHICAGO_SERIES_VALUES = new String[]{"Chicago", "60605"};
+  private static final String[] SF_SERIES_VALUES = new String[]{"San Francisco", "94107"};
   private static final Long CHICAGO_SERIES_HASH = TimeSeries.hash(CHICAGO_SERIES_VALUES);
   private static final Long SF_SERIES_HASH = TimeSeries.hash(SF_SERIES_VALUES);
   private static final SimpleTimeSeriesBuilderFactory SERIES_BUILDER_FACTORY = new SimpleTimeSeriesBuilderFactory();
@@ -65,11 +65,11 @@ public class TimeSeriesExchangeReceiveOperatorTest {
     assertEquals(block.getSeriesMap().get(CHICAGO_SERIES_HASH).size(), 1, "Expected 1 series for Chicago");
     assertEquals(block.getSeriesMap().get(SF_SERIES_HASH).size(), 1, "Expected 1 series for SF");
     // Ensure Chicago had series addition performed
-    Double[] chicagoSeriesValues = block.getSeriesMap().get(CHICAGO_SERIES_HASH).get(0).getDoubleValues();
-    assertEquals(chicagoSeriesValues, new Double[]{20.0, 20.0, 20.0, 20.0});
+    double[] chicagoSeriesValues = block.getSeriesMap().get(CHICAGO_SERIES_HASH).get(0).getDoubleValues();
+    assertEquals(chicagoSeriesValues, new double[]{20.0, 20.0, 20.0, 20.0});
     // Ensure SF had input series unmodified
-    Double[] sanFranciscoSeriesValues = block.getSeriesMap().get(SF_SERIES_HASH).get(0).getDoubleValues();
-    assertEquals(sanFranciscoSeriesValues, new Double[]{10.0, 10.0, 10.0, 10.0});
+    double[] sanFranciscoSeriesValues = block.getSeriesMap().get(SF_SERIES_HASH).get(0).getDoubleValues();
+    assertEquals(sanFranciscoSeriesValues, new double[]{10.0, 10.0, 10.0, 10.0});
   }
 
   @Test
@@ -89,13 +89,13 @@ public class TimeSeriesExchangeReceiveOperatorTest {
     assertEquals(block.getSeriesMap().get(CHICAGO_SERIES_HASH).size(), 2, "Expected 2 series for Chicago");
     assertEquals(block.getSeriesMap().get(SF_SERIES_HASH).size(), 1, "Expected 1 series for SF");
     // Ensure Chicago has unmodified series values
-    Double[] firstChicagoSeriesValues = block.getSeriesMap().get(CHICAGO_SERIES_HASH).get(0).getDoubleValues();
-    Double[] secondChicagoSeriesValues = block.getSeriesMap().get(CHICAGO_SERIES_HASH).get(1).getDoubleValues();
-    assertEquals(firstChicagoSeriesValues, new Double[]{10.0, 10.0, 10.0, 10.0});
-    assertEquals(secondChicagoSeriesValues, new Double[]{10.0, 10.0, 10.0, 10.0});
+    double[] firstChicagoSeriesValues = block.getSeriesMap().get(CHICAGO_SERIES_HASH).get(0).getDoubleValues();
+    double[] secondChicagoSeriesValues = block.getSeriesMap().get(CHICAGO_SERIES_HASH).get(1).getDoubleValues();
+    assertEquals(firstChicagoSeriesValues, new double[]{10.0, 10.0, 10.0, 10.0});
+    assertEquals(secondChicagoSeriesValues, new double[]{10.0, 10.0, 10.0, 10.0});
     // Ensure SF has input unmodified series values
-    Double[] sanFranciscoSeriesValues = block.getSeriesMap().get(SF_SERIES_HASH).get(0).getDoubleValues();
-    assertEquals(sanFranciscoSeriesValues, new Double[]{10.0, 10.0, 10.0, 10.0});
+    double[] sanFranciscoSeriesValues = block.getSeriesMap().get(SF_SERIES_HASH).get(0).getDoubleValues();
+    assertEquals(sanFranciscoSeriesValues, new double[]{10.0, 10.0, 10.0, 10.0});
   }
 
   @Test
@@ -128,13 +128,13 @@ public class TimeSeriesExchangeReceiveOperatorTest {
     List<TimeSeriesBlock> seriesBlocks = new ArrayList<>();
     {
       Map<Long, List<TimeSeries>> seriesMap = new HashMap<>();
-      seriesMap.put(CHICAGO_SERIES_HASH, ImmutableList.of(createChicagoSeries(new Double[]{10.0, 10.0, 10.0, 10.0})));
-      seriesMap.put(SF_SERIES_HASH, ImmutableList.of(createSanFranciscoSeries(new Double[]{10.0, 10.0, 10.0, 10.0})));
+      seriesMap.put(CHICAGO_SERIES_HASH, ImmutableList.of(createChicagoSeries(new double[]{10.0, 10.0, 10.0, 10.0})));
+      seriesMap.put(SF_SERIES_HASH, ImmutableList.of(createSanFranciscoSeries(new double[]{10.0, 10.0, 10.0, 10.0})));
       seriesBlocks.add(new TimeSeriesBlock(TIME_BUCKETS, seriesMap));
     }
     {
       Map<Long, List<TimeSeries>> seriesMap = new HashMap<>();
-      seriesMap.put(CHICAGO_SERIES_HASH, ImmutableList.of(createChicagoSeries(new Double[]{10.0, 10.0, 10.0, 10.0})));
+      seriesMap.put(CHICAGO_SERIES_HASH, ImmutableList.of(createChicagoSeries(new double[]{10.0, 10.0, 10.0, 10.0})));
       seriesBlocks.add(new TimeSeriesBlock(TIME_BUCKETS, seriesMap));
     }
     {
@@ -146,11 +146,12 @@ public class TimeSeriesExchangeReceiveOperatorTest {
     return seriesBlocks;
   }
 
-  private TimeSeries createChicagoSeries(Double[] values) {
-    return new TimeSeries(CHICAGO_SERIES_HASH.toString(), null, TIME_BUCKETS, values, TAG_NAMES, CHICAGO_SERIES_VALUES);
+  private TimeSeries createChicagoSeries(double[] values) {
+    return new TimeSeries(CHICAGO_SERIES_HASH.toString(), null, TIME_BUCKETS, values, null, TAG_NAMES,
+        CHICAGO_SERIES_VALUES);
   }
 
-  private TimeSeries createSanFranciscoSeries(Double[] values) {
-    return new TimeSeries(SF_SERIES_HASH.toString(), null, TIME_BUCKETS, values, TAG_NAMES, SF_SERIES_VALUES);
+  private TimeSeries createSanFranciscoSeries(double[] values) {
+    return new TimeSeries(SF_SERIES_HASH.toString(), null, TIME_BUCKETS, values, null, TAG_NAMES, SF_SERIES_VALUES);
   }
 }
@@ -22,6 +22,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.protobuf.ByteString;
 import java.io.IOException;
 import java.time.Duration;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -61,6 +62,47 @@ public class TimeSeriesBlockSerdeTest {
     }
   }
 
+  @Test
+  public void testDataBlockFormatSerde()
+      throws IOException {
+    // Blocks serialized in the data block format (by older versions) should be deserialized to the same blocks
+    List<TimeSeriesBlock> blocks = List.of(buildBlockWithNoTags(), buildBlockWithSingleTag(),
+        buildBlockWithMultipleTags(), buildBlockWithByteValues());
+    for (TimeSeriesBlock block1 : blocks) {
+      ByteString byteString = TimeSeriesBlockSerde.serializeTimeSeriesBlockAsDataBlock(block1);
+      TimeSeriesBlock block2 = TimeSeriesBlockSerde.deserializeTimeSeriesBlock(byteString.asReadOnlyByteBuffer());
+      compareBlocks(block1, block2);
+    }
+  }
+
+  @Test
+  public void testTagValuesInterned()
+      throws IOException {
+    // Series are: [cityId=Chicago, zip=60605], [cityId=Chicago, zip=60607] and [cityId=null, zip=60605]
+    List<String> tagNames = ImmutableList.of("cityId", "zip");
+    String[][] tagValues = new String[][]{
+        {new String("Chicago"), new String("60605")},
+        {new String("Chicago"), new String("60607")},
+        {null, new String("60605")}
+    };
+    Map<Long, List<TimeSeries>> seriesMap = new HashMap<>();
+    for (String[] seriesTagValues : tagValues) {
+      long seriesHash = TimeSeries.hash(seriesTagValues);
+      seriesMap.put(seriesHash, ImmutableList.of(new TimeSeries(Long.toString(seriesHash), null, TIME_BUCKETS,
+          new double[]{1.0, 2.0, 3.0, 4.0, 5.0}, null, tagNames, seriesTagValues)));
+    }
+    TimeSeriesBlock block1 = new TimeSeriesBlock(TIME_BUCKETS, seriesMap);
+    TimeSeriesBlock block2 = TimeSeriesBlockSerde.deserializeTimeSeriesBlock(
+        TimeSeriesBlockSerde.serializeTimeSeriesBlock(block1).asReadOnlyByteBuffer());
+    compareBlocks(block1, block2);
+    TimeSeries chicago60605 = block2.getSeriesMap().get(TimeSeries.hash(tagValues[0])).get(0);
+    TimeSeries chicago60607 = block2.getSeriesMap().get(TimeSeries.hash(tagValues[1])).get(0);
+    TimeSeries null60605 = block2.getSeriesMap().get(TimeSeries.hash(tagValues[2])).get(0);
+    assertSame(chicago60605.getTagValues()[0], chicago60607.getTagValues()[0]);
+    assertSame(chicago60605.getTagValues()[1], null60605.getTagValues()[1]);
+    assertNull(null60605.getTagValues()[0]);
+  }
+
   @Test
   public void testFromToBytesArray() {
     // Encode and decode a double[] array to confirm the values turn out to be the same.
@@ -110,7 +152,16 @@ public class TimeSeriesBlockSerdeTest {
       TimeSeries seriesOne = series1.get(index);
       TimeSeries seriesTwo = series2.get(index);
       assertEquals(seriesOne.getTagNames(), seriesTwo.getTagNames());
-      assertEquals(seriesOne.getValues(), seriesTwo .getValues());
+      assertEquals(seriesOne.getTagValues(), seriesTwo.getTagValues());
+      assertEquals(seriesOne.isBytesValues(), seriesTwo.isBytesValues());
+      if (seriesOne.isBytesValues()) {
+        assertEquals(seriesOne.getBytesValues(), seriesTwo.getBytesValues());
+      } else {
+        assertEquals(seriesOne.getNullBitmap(), seriesTwo.getNullBitmap());
+        for (int i = 0; i < seriesOne.getNumValues(); i++) {
+          assertEquals(seriesOne.getDoubleValue(i), seriesTwo.getDoubleValue(i));
+        }
+      }
     }
   }
 
@@ -118,11 +169,11 @@ public class TimeSeriesBlockSerdeTest {
     TimeBuckets timeBuckets = TIME_BUCKETS;
     // Single series: []
     List<String> tagNames = Collections.emptyList();
-    Object[] seriesValues = new Object[0];
+    String[] seriesValues = new String[0];
     long seriesHash = TimeSeries.hash(seriesValues);
     Map<Long, List<TimeSeries>> seriesMap = new HashMap<>();
     seriesMap.put(seriesHash, ImmutableList.of(new TimeSeries(Long.toString(seriesHash), null, timeBuckets,
-        new Double[]{null, 123.0, 0.0, 1.0}, tagNames, seriesValues)));
+        new double[]{0.0, 123.0, 0.0, 1.0}, nullBitmap(0), tagNames, seriesValues)));
     return new TimeSeriesBlock(timeBuckets, seriesMap);
   }
 
@@ -130,15 +181,15 @@ public class TimeSeriesBlockSerdeTest {
     TimeBuckets timeBuckets = TIME_BUCKETS;
     // Series are: [cityId=Chicago] and [cityId=San Francisco]
     List<String> tagNames = ImmutableList.of("cityId");
-    Object[] seriesOneValues = new Object[]{"Chicago"};
-    Object[] seriesTwoValues = new Object[]{"San Francisco"};
+    String[] seriesOneValues = new String[]{"Chicago"};
+    String[] seriesTwoValues = new String[]{"San Francisco"};
     long seriesOneHash = TimeSeries.hash(seriesOneValues);
     long seriesTwoHash = TimeSeries.hash(seriesTwoValues);
     Map<Long, List<TimeSeries>> seriesMap = new HashMap<>();
     seriesMap.put(seriesOneHash, ImmutableList.of(new TimeSeries(Long.toString(seriesOneHash), null, timeBuckets,
-        new Double[]{null, 123.0, 0.0, 1.0}, tagNames, seriesOneValues)));
+        new double[]{0.0, 123.0, 0.0, 1.0}, nullBitmap(0), tagNames, seriesOneValues)));
     seriesMap.put(seriesTwoHash, ImmutableList.of(new TimeSeries(Long.toString(seriesTwoHash), null, timeBuckets,
-        new Double[]{null, null, null, null}, tagNames, seriesTwoValues)));
+        new double[]{0.0, 0.0, 0.0, 0.0}, nullBitmap(0, 1, 2, 3), tagNames, seriesTwoValues)));
     return new TimeSeriesBlock(timeBuckets, seriesMap);
   }
 
@@ -146,15 +197,15 @@ public class TimeSeriesBlockSerdeTest {
     TimeBuckets timeBuckets = TIME_BUCKETS;
     // Series are: [cityId=Chicago, zip=60605] and [cityId=San Francisco, zip=94107]
     List<String> tagNames = ImmutableList.of("cityId", "zip");
-    Object[] seriesOneValues = new Object[]{"Chicago", "60605"};
-    Object[] seriesTwoValues = new Object[]{"San Francisco", "94107"};
+    String[] seriesOneValues = new String[]{"Chicago", "60605"};
+    String[] seriesTwoValues = new String[]{"San Francisco", "94107"};
     long seriesOneHash = TimeSeries.hash(seriesOneValues);
     long seriesTwoHash = TimeSeries.hash(seriesTwoValues);
     Map<Long, List<TimeSeries>> seriesMap = new HashMap<>();
     seriesMap.put(seriesOneHash, ImmutableList.of(new TimeSeries(Long.toString(seriesOneHash), null, timeBuckets,
-        new Double[]{null, 123.0, Double.NaN, 1.0}, tagNames, seriesOneValues)));
+        new double[]{0.0, 123.0, Double.NaN, 1.0}, nullBitmap(0), tagNames, seriesOneValues)));
     seriesMap.put(seriesTwoHash, ImmutableList.of(new TimeSeries(Long.toString(seriesTwoHash), null, timeBuckets,
-        new Double[]{Double.NaN, -1.0, -1231231.0, 3.14}, tagNames, seriesTwoValues)));
+        new double[]{Double.NaN, -1.0, -1231231.0, 3.14}, null, tagNames, seriesTwoValues)));
     return new TimeSeriesBlock(timeBuckets, seriesMap);
   }
 
@@ -162,8 +213,8 @@ public class TimeSeriesBlockSerdeTest {
     TimeBuckets timeBuckets = TIME_BUCKETS;
     // Series are: [cityId=Chicago, zip=60605] and [cityId=San Francisco, zip=94107]
     List<String> tagNames = ImmutableList.of("cityId", "zip");
-    Object[] seriesOneValues = new Object[]{"Chicago", "60605"};
-    Object[] seriesTwoValues = new Object[]{"San Francisco", "94107"};
+    String[] seriesOneValues = new String[]{"Chicago", "60605"};
+    String[] seriesTwoValues = new String[]{"San Francisco", "94107"};
     long seriesOneHash = TimeSeries.hash(seriesOneValues);
     long seriesTwoHash = TimeSeries.hash(seriesTwoValues);
     Map<Long, List<TimeSeries>> seriesMap = new HashMap<>();
@@ -173,4 +224,12 @@ public class TimeSeriesBlockSerdeTest {
         new byte[][]{{0x00}, {0x00}, {Byte.MIN_VALUE}, {0x7f}}, tagNames, seriesTwoValues)));
     return new TimeSeriesBlock(timeBuckets, seriesMap);
   }
+
+  private static BitSet nullBitmap(int... nullIndexes) {
+    BitSet nullBitmap = new BitSet();
+    for (int nullIndex : nullIndexes) {
+      nullBitmap.set(nullIndex);
+    }
+    return nullBitmap;
+  }
 }
@@ -28,6 +28,7 @@ import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -121,7 +122,7 @@ import org.apache.pinot.spi.utils.FixedIntArray;
 import org.apache.pinot.spi.utils.MapUtils;
 import org.apache.pinot.spi.utils.builder.TableNameBuilder;
 import org.roaringbitmap.BatchIterator;
-import org.roaringbitmap.buffer.MutableRoaringBitmap;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -382,11 +383,16 @@ public class MutableSegmentImpl implements MutableSegment {
         nullValueVector = null;
       }
 
+      // NOTE: Aggregated metric values are updated in place in the forward index, so the value based indexes (range
+      //       index and bloom filter) cannot be maintained for them.
+      boolean aggregatedMetric = _recordIdMap != null && fieldSpec.getFieldType() == FieldSpec.FieldType.METRIC;
       Map<IndexType, MutableIndex> mutableIndexes = new HashMap<>();
       for (IndexType<?, ?, ?> indexType : IndexService.getInstance().getAllIndexes()) {
-        if (!specialIndexes.contains(indexType)) {
-          addMutableIndex(mutableIndexes, indexType, context, indexConfigs);
+        if (specialIndexes.contains(indexType) || (aggregatedMetric && (indexType == StandardIndexes.range()
+            || indexType == StandardIndexes.bloomFilter()))) {
+          continue;
         }
+        addMutableIndex(mutableIndexes, indexType, context, indexConfigs);
       }
 
       Pair<String, ValueAggregator> columnAggregatorPair =
@@ -701,6 +707,72 @@ public class MutableSegmentImpl implements MutableSegment {
     return canTakeMore;
   }
 
+  /**
+   * Returns whether the records can be indexed in batch. Upsert, dedup and metrics aggregation need to look up the
+   * previously indexed records for each record, and multi-column text index is updated per record, so the records are
+   * indexed one by one for them.
+   */
+  @Override
+  public boolean isBatchIndexingSupported() {
+    return !isUpsertEnabled() && !isDedupEnabled() && !isAggregateMetricsEnabled() && _multiColumnTextIndex == null;
+  }
+
+  /**
+   * Indexes the records column by column: the dictionary of each column is updated with the values of all the records
+   * first, then the values are appended to the indexes of the column. The records become queryable together once all
+   * the columns are indexed.
+   * <p>All the conversions and checks that can fail are performed before adding any value to the indexes, so when an
+   * exception is thrown, none of the records is added to the indexes (only the dictionaries and the column stats might
+   * have been updated), and the records can be indexed again one by one at the same doc ids.
+   */
+  @Override
+  public boolean index(List<GenericRow> rows, List<StreamMessageMetadata> metadataList)
+      throws IOException {
+    Preconditions.checkState(isBatchIndexingSupported(), "Batch indexing is not supported for segment: %s",
+        _segmentName);
+    int numRows = rows.size();
+    Preconditions.checkArgument(metadataList.size() == numRows, "Got %s metadata for %s rows", metadataList.size(),
+        numRows);
+    int numDocsIndexed = _numDocsIndexed;
+    if (numRows == 0) {
+      return numDocsIndexed < _capacity;
+    }
+
+    try {
+      // NOTE: We must validate all the rows, update the dictionaries and the column stats before adding any value to
+      //       the indexes so that no row is partially indexed when an exception is thrown. addNewRows() does not throw
+      //       because the failure of each index is recorded separately, the same way as addNewRow().
+      for (GenericRow row : rows) {
+        validateLengthOfMVColumns(row);
+      }
+      updateDictionary(rows);
+      updateColumnStats(numRows);
+      addNewRows(numDocsIndexed, rows);
+    } finally {
+      for (IndexContainer indexContainer : _indexContainerMap.values()) {
+        indexContainer._batchValues = null;
+        indexContainer._batchDictIds = null;
+        indexContainer._batchMVDictIds = null;
+      }
+    }
+
+    // Update number of documents indexed at last to make the latest rows queryable
+    boolean canTakeMore = numDocsIndexed + numRows - 1 < _capacity;
+    _numDocsIndexed = numDocsIndexed + numRows;
+
+    // Update last indexed time and latest ingestion time
+    _lastIndexedTimeMs = System.currentTimeMillis();
+    long latestIngestionTimeMs = _latestIngestionTimeMs;
+    for (StreamMessageMetadata metadata : metadataList) {
+      if (metadata != null) {
+        latestIngestionTimeMs = Math.max(latestIngestionTimeMs, metadata.getRecordIngestionTimeMs());
+      }
+    }
+    _latestIngestionTimeMs = latestIngestionTimeMs;
+
+    return canTakeMore;
+  }
+
   private boolean isUpsertEnabled() {
     return _partitionUpsertMetadataManager != null;
   }
@@ -811,6 +883,220 @@ public class MutableSegmentImpl implements MutableSegment {
     }
   }
 
+  private void updateDictionary(List<GenericRow> rows) {
+    int numRows = rows.size();
+    for (Map.Entry<String, IndexContainer> entry : _indexContainerMap.entrySet()) {
+      String column = entry.getKey();
+      IndexContainer indexContainer = entry.getValue();
+      Object[] values = new Object[numRows];
+      boolean hasNullValue = false;
+      for (int i = 0; i < numRows; i++) {
+        Object value = rows.get(i).getValue(column);
+        values[i] = value;
+        hasNullValue |= value == null;
+      }
+      indexContainer._batchValues = values;
+
+      MutableDictionary dictionary = indexContainer._dictionary;
+      if (dictionary == null) {
+        continue;
+      }
+      if (indexContainer._fieldSpec.isSingleValueField()) {
+        if (hasNullValue) {
+          int[] dictIds = new int[numRows];
+          for (int i = 0; i < numRows; i++) {
+            if (values[i] == null) {
+              recordIndexingError("DICTIONARY");
+            } else {
+              dictIds[i] = dictionary.index(values[i]);
+            }
+          }
+          indexContainer._batchDictIds = dictIds;
+        } else {
+          indexContainer._batchDictIds = dictionary.index(values);
+        }
+      } else {
+        int[][] dictIds = new int[numRows][];
+        for (int i = 0; i < numRows; i++) {
+          if (values[i] == null) {
+            recordIndexingError("DICTIONARY");
+          } else {
+            dictIds[i] = dictionary.index((Object[]) values[i]);
+          }
+        }
+        indexContainer._batchMVDictIds = dictIds;
+      }
+
+      // Update min/max value from dictionary
+      indexContainer._minValue = dictionary.getMinVal();
+      indexContainer._maxValue = dictionary.getMaxVal();
+      updateIndexCapacityThresholdBreached(dictionary, column);
+    }
+  }
+
+  /**
+   * Checks the partition and updates the column stats (min/max raw value, max multi-value row length) for the batch
+   * values collected by {@link #updateDictionary(List)}. The raw values are also checked against the stored type, and
+   * the multi-value values to be arrays. This can fail on unexpected values, so it must be done before adding any value
+   * to the indexes.
+   */
+  private void updateColumnStats(int numRows) {
+    for (Map.Entry<String, IndexContainer> entry : _indexContainerMap.entrySet()) {
+      String column = entry.getKey();
+      IndexContainer indexContainer = entry.getValue();
+      Object[] values = indexContainer._batchValues;
+      if (indexContainer._fieldSpec.isSingleValueField()) {
+        boolean isPartitionColumn = column.equals(_partitionColumn);
+        boolean isRawColumn = indexContainer._dictionary == null;
+        if (!isPartitionColumn && !isRawColumn) {
+          continue;
+        }
+        DataType storedType = indexContainer._fieldSpec.getDataType().getStoredType();
+        for (int i = 0; i < numRows; i++) {
+          Object value = values[i];
+          if (value != null) {
+            if (isPartitionColumn) {
+              checkPartition(column, indexContainer, value);
+            }
+            if (isRawColumn) {
+              // The raw value is cast to the stored type when added to the forward index
+              Preconditions.checkState(isValidRawValue(value, storedType),
+                  "Got value of type: %s for raw column: %s of stored type: %s", value.getClass().getSimpleName(),
+                  column, storedType);
+              // Update min/max value from raw value
+              updateMinMaxValue(indexContainer, value);
+            }
+          }
+        }
+      } else {
+        DataType storedType = indexContainer._fieldSpec.getDataType().getStoredType();
+        for (int i = 0; i < numRows; i++) {
+          Object value = values[i];
+          if (value != null) {
+            Preconditions.checkState(value instanceof Object[], "Got non-array value for multi-value column: %s",
+                column);
+            indexContainer._valuesInfo.updateVarByteMVMaxRowLengthInBytes(value, storedType);
+          }
+        }
+      }
+    }
+  }
+
+  private static boolean isValidRawValue(Object value, DataType storedType) {
+    switch (storedType) {
+      case INT:
+        return value instanceof Integer;
+      case LONG:
+        return value instanceof Long;
+      case FLOAT:
+        return value instanceof Float;
+      case DOUBLE:
+        return value instanceof Double;
+      case BIG_DECIMAL:
+        return value instanceof BigDecimal || value instanceof byte[];
+      case STRING:
+        return value instanceof String;
+      case BYTES:
+        return value instanceof byte[];
+      default:
+        return true;
+    }
+  }
+
+  /**
+   * Adds the batch values to the indexes starting from the given doc id. The failure of each index is recorded without
+   * throwing so that the doc ids of all the indexes remain aligned.
+   */
+  private void addNewRows(int startDocId, List<GenericRow> rows) {
+    int numRows = rows.size();
+    for (Map.Entry<String, IndexContainer> entry : _indexContainerMap.entrySet()) {
+      String column = entry.getKey();
+      IndexContainer indexContainer = entry.getValue();
+
+      // Update the null value vector even if a null value is somehow produced
+      if (indexContainer._nullValueVector != null) {
+        for (int i = 0; i < numRows; i++) {
+          if (rows.get(i).isNullValue(column)) {
+            indexContainer._nullValueVector.setNull(startDocId + i);
+          }
+        }
+      }
+
+      // NOTE: Null value should not be produced unless something is broken upstream. Skip indexing it the same way as
+      //       addNewRow() to avoid corrupting the indexes. A metric is already emitted when updating the dictionary.
+      Object[] values = indexContainer._batchValues;
+      boolean hasNullValue = false;
+      for (Object value : values) {
+        if (value == null) {
+          hasNullValue = true;
+          break;
+        }
+      }
+
+      if (indexContainer._fieldSpec.isSingleValueField()) {
+        // Update indexes
+        int[] dictIds = indexContainer._batchDictIds;
+        for (Map.Entry<IndexType, MutableIndex> indexEntry : indexContainer._mutableIndexes.entrySet()) {
+          MutableIndex mutableIndex = indexEntry.getValue();
+          if (hasNullValue) {
+            for (int i = 0; i < numRows; i++) {
+              if (values[i] != null) {
+                try {
+                  mutableIndex.add(values[i], dictIds != null ? dictIds[i] : -1, startDocId + i);
+                } catch (Exception e) {
+                  recordIndexingError(indexEntry.getKey(), e);
+                }
+              }
+            }
+          } else {
+            try {
+              mutableIndex.addBatch(values, dictIds, startDocId, numRows);
+            } catch (Exception e) {
+              recordIndexingError(indexEntry.getKey(), e);
+            }
+          }
+          try {
+            updateIndexCapacityThresholdBreached(mutableIndex, indexEntry.getKey(), column);
+          } catch (Exception e) {
+            recordIndexingError(indexEntry.getKey(), e);
+          }
+        }
+
+        // Update numValues info
+        for (Object value : values) {
+          if (value != null) {
+            indexContainer._valuesInfo.updateSVNumValues();
+          }
+        }
+      } else {
+        // Multi-value column
+        int[][] dictIds = indexContainer._batchMVDictIds;
+        for (int i = 0; i < numRows; i++) {
+          Object value = values[i];
+          if (value == null) {
+            continue;
+          }
+          Object[] mvValues = (Object[]) value;
+          for (Map.Entry<IndexType, MutableIndex> indexEntry : indexContainer._mutableIndexes.entrySet()) {
+            try {
+              indexEntry.getValue().add(mvValues, dictIds != null ? dictIds[i] : null, startDocId + i);
+            } catch (Exception e) {
+              recordIndexingError(indexEntry.getKey(), e);
+            }
+          }
+          indexContainer._valuesInfo.updateMVNumValues(mvValues.length);
+        }
+        for (Map.Entry<IndexType, MutableIndex> indexEntry : indexContainer._mutableIndexes.entrySet()) {
+          try {
+            updateIndexCapacityThresholdBreached(indexEntry.getValue(), indexEntry.getKey(), column);
+          } catch (Exception e) {
+            recordIndexingError(indexEntry.getKey(), e);
+          }
+        }
+      }
+    }
+  }
+
   private void addNewRow(int docId, GenericRow row) {
     for (Map.Entry<String, IndexContainer> entry : _indexContainerMap.entrySet()) {
       String column = entry.getKey();
@@ -880,19 +1166,7 @@ public class MutableSegmentImpl implements MutableSegment {
       if (fieldSpec.isSingleValueField()) {
         // Check partitions
         if (column.equals(_partitionColumn)) {
-          String stringValue = dataType.toString(value);
-          int partition = _partitionFunction.getPartition(stringValue);
-          if (partition != _mainPartitionId) {
-            if (indexContainer._partitions.add(partition)) {
-              // for every partition other than mainPartitionId, log a warning once
-              _logger.warn("Found new partition: {} from partition column: {}, value: {}", partition, column,
-                  stringValue);
-            }
-            // always emit a metric when a partition other than mainPartitionId is detected
-            if (_serverMetrics != null) {
-              _serverMetrics.addMeteredTableValue(_realtimeTableName, ServerMeter.REALTIME_PARTITION_MISMATCH, 1);
-            }
-          }
+          checkPartition(column, indexContainer, value);
         }
 
         // Update numValues info
@@ -914,25 +1188,7 @@ public class MutableSegmentImpl implements MutableSegment {
           // Update min/max value from raw value
           // NOTE: Skip updating min/max value for aggregated metrics because the value will change over time.
           if (!isAggregateMetricsEnabled() || fieldSpec.getFieldType() != FieldSpec.FieldType.METRIC) {
-            Comparable comparable;
-            if (dataType == BYTES) {
-              comparable = new ByteArray((byte[]) value);
-            } else if (dataType == MAP) {
-              comparable = new ByteArray(MapUtils.serializeMap((Map) value));
-            } else {
-              comparable = (Comparable) value;
-            }
-            if (indexContainer._minValue == null) {
-              indexContainer._minValue = comparable;
-              indexContainer._maxValue = comparable;
-            } else {
-              if (comparable.compareTo(indexContainer._minValue) < 0) {
-                indexContainer._minValue = comparable;
-              }
-              if (comparable.compareTo(indexContainer._maxValue) > 0) {
-                indexContainer._maxValue = comparable;
-              }
-            }
+            updateMinMaxValue(indexContainer, value);
           }
         }
 
@@ -974,6 +1230,44 @@ public class MutableSegmentImpl implements MutableSegment {
     }
   }
 
+  private void checkPartition(String column, IndexContainer indexContainer, Object value) {
+    String stringValue = indexContainer._fieldSpec.getDataType().toString(value);
+    int partition = _partitionFunction.getPartition(stringValue);
+    if (partition != _mainPartitionId) {
+      if (indexContainer._partitions.add(partition)) {
+        // for every partition other than mainPartitionId, log a warning once
+        _logger.warn("Found new partition: {} from partition column: {}, value: {}", partition, column, stringValue);
+      }
+      // always emit a metric when a partition other than mainPartitionId is detected
+      if (_serverMetrics != null) {
+        _serverMetrics.addMeteredTableValue(_realtimeTableName, ServerMeter.REALTIME_PARTITION_MISMATCH, 1);
+      }
+    }
+  }
+
+  private static void updateMinMaxValue(IndexContainer indexContainer, Object value) {
+    DataType dataType = indexContainer._fieldSpec.getDataType();
+    Comparable comparable;
+    if (dataType == BYTES) {
+      comparable = new ByteArray((byte[]) value);
+    } else if (dataType == MAP) {
+      comparable = new ByteArray(MapUtils.serializeMap((Map) value));
+    } else {
+      comparable = (Comparable) value;
+    }
+    if (indexContainer._minValue == null) {
+      indexContainer._minValue = comparable;
+      indexContainer._maxValue = comparable;
+    } else {
+      if (comparable.compareTo(indexContainer._minValue) < 0) {
+        indexContainer._minValue = comparable;
+      }
+      if (comparable.compareTo(indexContainer._maxValue) > 0) {
+        indexContainer._maxValue = comparable;
+      }
+    }
+  }
+
   private void updateIndexCapacityThresholdBreached(MutableIndex mutableIndex, IndexType indexType, String column) {
     // Few of the Immutable version of the mutable index are bounded by size like
     // {@link VarByteChunkForwardIndexWriterV4#putBytes(byte[])} and {@link FixedBitMVForwardIndex}
@@ -1346,7 +1640,7 @@ public class MutableSegmentImpl implements MutableSegment {
     int[] batch = new int[256];
     int docIdIndex = 0;
     for (int dictId : dictIds) {
-      MutableRoaringBitmap bitmap = invertedIndex.getDocIds(dictId);
+      ImmutableRoaringBitmap bitmap = invertedIndex.getDocIds(dictId);
       BatchIterator iterator = bitmap.getBatchIterator();
       while (iterator.hasNext()) {
         int limit = iterator.nextBatch(batch);
@@ -1567,6 +1861,13 @@ public class MutableSegmentImpl implements MutableSegment {
      * It is set on {@link #updateDictionary(GenericRow)} and read in {@link #addNewRow(int, GenericRow)}
      */
     int[] _dictIds;
+    /**
+     * The values and the dictionary ids for the batch of records being indexed.
+     * They are set on {@link #updateDictionary(List)} and read in {@link #addNewRows(int, List)}
+     */
+    Object[] _batchValues;
+    int[] _batchDictIds;
+    int[][] _batchMVDictIds;
 
     IndexContainer(FieldSpec fieldSpec, @Nullable PartitionFunction partitionFunction,
         @Nullable Set<Integer> partitions, ValuesInfo valuesInfo, Map<IndexType, MutableIndex> mutableIndexes,
@@ -0,0 +1,239 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.io.compression;
+
+import com.google.common.base.Preconditions;
+import java.nio.ByteBuffer;
+import org.apache.pinot.segment.spi.compression.ChunkCompressionType;
+import org.apache.pinot.segment.spi.compression.ChunkCompressor;
+
+
+/**
+ * Implementation of {@link ChunkCompressor} that bit-packs fixed width integral values (INT or LONG), for
+ * {@link ChunkCompressionType#FOR}, {@link ChunkCompressionType#DELTA} and {@link ChunkCompressionType#PFOR}.
+ *
+ * <p>The layout of the compressed chunk is as follows:
+ * <ul>
+ *   <li>Size of value in bytes (byte)</li>
+ *   <li>Bit width of the packed values (byte)</li>
+ *   <li>Number of values (int)</li>
+ *   <li>Reference value (long): min value for FOR/PFOR, min delta for DELTA</li>
+ *   <li>DELTA only: first value (long)</li>
+ *   <li>PFOR only: number of exceptions (int)</li>
+ *   <li>Bit-packed values (longs): offsets from the reference value, where DELTA packs the deltas of the consecutive
+ *   values (starting from the second value), and PFOR only packs the low bits of the offsets</li>
+ *   <li>PFOR only: exceptions, each with the index (int) and the high bits of the offset (int or long based on the
+ *   value size)</li>
+ * </ul>
+ *
+ * <p>Values are packed from the least significant bit of each long, and the arithmetic is done in long so that the
+ * deltas of INT values never overflow. For LONG values, the arithmetic wraps around, which is fine because the decoding
+ * wraps around the same way.
+ *
+ * <p>NOTE: This class is not thread-safe because it re-uses the value buffer across chunks. A new instance should be
+ * created for each writer.
+ */
+class BitPackingCompressor implements ChunkCompressor {
+  // Header: value size (byte), bit width (byte), number of values (int), reference value (long) and an extra long
+  // (first value for DELTA) or int (number of exceptions for PFOR)
+  static final int MAX_HEADER_SIZE = 2 * Byte.BYTES + Integer.BYTES + 2 * Long.BYTES;
+
+  private final ChunkCompressionType _compressionType;
+  private final int _valueSizeInBytes;
+
+  private long[] _values = new long[0];
+
+  BitPackingCompressor(ChunkCompressionType compressionType, int valueSizeInBytes) {
+    Preconditions.checkArgument(compressionType.isBitPacking(), "Unsupported compression type: %s", compressionType);
+    Preconditions.checkArgument(valueSizeInBytes == Integer.BYTES || valueSizeInBytes == Long.BYTES,
+        "Compression type: %s only supports INT or LONG values, got value size: %s", compressionType,
+        valueSizeInBytes);
+    _compressionType = compressionType;
+    _valueSizeInBytes = valueSizeInBytes;
+  }
+
+  @Override
+  public int compress(ByteBuffer inUncompressed, ByteBuffer outCompressed) {
+    int numValues = readValues(inUncompressed);
+    long[] values = _values;
+    outCompressed.put((byte) _valueSizeInBytes);
+    switch (_compressionType) {
+      case FOR: {
+        long min = min(values, 0, numValues);
+        long bits = 0;
+        for (int i = 0; i < numValues; i++) {
+          values[i] -= min;
+          bits |= values[i];
+        }
+        int bitWidth = Long.SIZE - Long.numberOfLeadingZeros(bits);
+        outCompressed.put((byte) bitWidth);
+        outCompressed.putInt(numValues);
+        outCompressed.putLong(min);
+        pack(values, 0, numValues, bitWidth, outCompressed);
+        break;
+      }
+      case DELTA: {
+        long first = numValues > 0 ? values[0] : 0;
+        for (int i = numValues - 1; i > 0; i--) {
+          values[i] -= values[i - 1];
+        }
+        long minDelta = min(values, 1, numValues);
+        long bits = 0;
+        for (int i = 1; i < numValues; i++) {
+          values[i] -= minDelta;
+          bits |= values[i];
+        }
+        int bitWidth = Long.SIZE - Long.numberOfLeadingZeros(bits);
+        outCompressed.put((byte) bitWidth);
+        outCompressed.putInt(numValues);
+        outCompressed.putLong(minDelta);
+        outCompressed.putLong(first);
+        pack(values, 1, numValues, bitWidth, outCompressed);
+        break;
+      }
+      case PFOR: {
+        long min = min(values, 0, numValues);
+        // Count the values for each bit width to pick the bit width with the smallest compressed size
+        int[] numValuesPerBitWidth = new int[Long.SIZE + 1];
+        for (int i = 0; i < numValues; i++) {
+          values[i] -= min;
+          numValuesPerBitWidth[Long.SIZE - Long.numberOfLeadingZeros(values[i])]++;
+        }
+        int exceptionSize = Integer.BYTES + _valueSizeInBytes;
+        int bitWidth = 0;
+        long minSize = Long.MAX_VALUE;
+        int numExceptions = numValues;
+        for (int width = 0; width <= Long.SIZE; width++) {
+          numExceptions -= numValuesPerBitWidth[width];
+          long size = getPackedSize(numValues, width) + (long) numExceptions * exceptionSize;
+          if (size < minSize) {
+            minSize = size;
+            bitWidth = width;
+          }
+        }
+        numExceptions = 0;
+        for (int width = bitWidth + 1; width <= Long.SIZE; width++) {
+          numExceptions += numValuesPerBitWidth[width];
+        }
+        outCompressed.put((byte) bitWidth);
+        outCompressed.putInt(numValues);
+        outCompressed.putLong(min);
+        outCompressed.putInt(numExceptions);
+        int exceptionsPosition = outCompressed.position() + getPackedSize(numValues, bitWidth);
+        if (numExceptions > 0) {
+          long mask = getMask(bitWidth);
+          for (int i = 0; i < numValues; i++) {
+            long value = values[i];
+            if ((value & mask) != value) {
+              outCompressed.putInt(exceptionsPosition, i);
+              exceptionsPosition += Integer.BYTES;
+              if (_valueSizeInBytes == Integer.BYTES) {
+                outCompressed.putInt(exceptionsPosition, (int) (value >>> bitWidth));
+              } else {
+                outCompressed.putLong(exceptionsPosition, value >>> bitWidth);
+              }
+              exceptionsPosition += _valueSizeInBytes;
+              values[i] = value & mask;
+            }
+          }
+        }
+        pack(values, 0, numValues, bitWidth, outCompressed);
+        outCompressed.position(exceptionsPosition);
+        break;
+      }
+      default:
+        throw new IllegalStateException("Unsupported compression type: " + _compressionType);
+    }
+    int size = outCompressed.position();
+    outCompressed.flip();
+    return size;
+  }
+
+  private int readValues(ByteBuffer inUncompressed) {
+    int numValues = inUncompressed.remaining() / _valueSizeInBytes;
+    if (_values.length < numValues) {
+      _values = new long[numValues];
+    }
+    long[] values = _values;
+    if (_valueSizeInBytes == Integer.BYTES) {
+      for (int i = 0; i < numValues; i++) {
+        values[i] = inUncompressed.getInt();
+      }
+    } else {
+      for (int i = 0; i < numValues; i++) {
+        values[i] = inUncompressed.getLong();
+      }
+    }
+    return numValues;
+  }
+
+  private static long min(long[] values, int from, int to) {
+    long min = Long.MAX_VALUE;
+    for (int i = from; i < to; i++) {
+      min = Math.min(min, values[i]);
+    }
+    return from < to ? min : 0;
+  }
+
+  /**
+   * Packs the values (each fits in the given bit width) into longs, starting from the least significant bit.
+   */
+  private static void pack(long[] values, int from, int to, int bitWidth, ByteBuffer out) {
+    if (bitWidth == 0) {
+      return;
+    }
+    long word = 0;
+    int numBitsInWord = 0;
+    for (int i = from; i < to; i++) {
+      long value = values[i];
+      word |= value << numBitsInWord;
+      numBitsInWord += bitWidth;
+      if (numBitsInWord >= Long.SIZE) {
+        out.putLong(word);
+        numBitsInWord -= Long.SIZE;
+        word = numBitsInWord > 0 ? value >>> (bitWidth - numBitsInWord) : 0;
+      }
+    }
+    if (numBitsInWord > 0) {
+      out.putLong(word);
+    }
+  }
+
+  static int getPackedSize(int numValues, int bitWidth) {
+    return (int) (((long) numValues * bitWidth + Long.SIZE - 1) / Long.SIZE) * Long.BYTES;
+  }
+
+  static long getMask(int bitWidth) {
+    return bitWidth == Long.SIZE ? -1L : (1L << bitWidth) - 1;
+  }
+
+  @Override
+  public int maxCompressedSize(int uncompressedSize) {
+    // INT deltas can take 33 bits, and PFOR never picks a bit width with larger size than packing all values without
+    // exceptions
+    int numValues = uncompressedSize / _valueSizeInBytes;
+    int maxBitWidth = _valueSizeInBytes == Integer.BYTES ? Integer.SIZE + 1 : Long.SIZE;
+    return MAX_HEADER_SIZE + getPackedSize(numValues, maxBitWidth);
+  }
+
+  @Override
+  public ChunkCompressionType compressionType() {
+    return _compressionType;
+  }
+}
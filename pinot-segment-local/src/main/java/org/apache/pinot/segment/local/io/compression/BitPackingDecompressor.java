@@ -0,0 +1,174 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.io.compression;
+
+import java.nio.ByteBuffer;
+import org.apache.pinot.segment.spi.compression.ChunkCompressionType;
+import org.apache.pinot.segment.spi.compression.ChunkDecompressor;
+
+
+/**
+ * Implementation of {@link ChunkDecompressor} for the chunks compressed by {@link BitPackingCompressor}. The values are
+ * decoded directly into the output buffer as fixed width values, so that the decompressed chunk has the same layout
+ * as the uncompressed chunk.
+ */
+class BitPackingDecompressor implements ChunkDecompressor {
+
+  static final BitPackingDecompressor FOR_INSTANCE = new BitPackingDecompressor(ChunkCompressionType.FOR);
+  static final BitPackingDecompressor DELTA_INSTANCE = new BitPackingDecompressor(ChunkCompressionType.DELTA);
+  static final BitPackingDecompressor PFOR_INSTANCE = new BitPackingDecompressor(ChunkCompressionType.PFOR);
+
+  private final ChunkCompressionType _compressionType;
+
+  private BitPackingDecompressor(ChunkCompressionType compressionType) {
+    _compressionType = compressionType;
+  }
+
+  @Override
+  public int decompress(ByteBuffer compressedInput, ByteBuffer decompressedOutput) {
+    int position = compressedInput.position();
+    int valueSizeInBytes = compressedInput.get(position);
+    int bitWidth = compressedInput.get(position + 1);
+    int numValues = compressedInput.getInt(position + 2);
+    long reference = compressedInput.getLong(position + 6);
+    position += 14;
+    boolean isInt = valueSizeInBytes == Integer.BYTES;
+    int outputPosition = decompressedOutput.position();
+    switch (_compressionType) {
+      case FOR: {
+        Unpacker unpacker = new Unpacker(compressedInput, position, bitWidth);
+        if (isInt) {
+          for (int i = 0; i < numValues; i++) {
+            decompressedOutput.putInt((int) (reference + unpacker.next()));
+          }
+        } else {
+          for (int i = 0; i < numValues; i++) {
+            decompressedOutput.putLong(reference + unpacker.next());
+          }
+        }
+        break;
+      }
+      case DELTA: {
+        if (numValues == 0) {
+          break;
+        }
+        long value = compressedInput.getLong(position);
+        Unpacker unpacker = new Unpacker(compressedInput, position + Long.BYTES, bitWidth);
+        if (isInt) {
+          decompressedOutput.putInt((int) value);
+          for (int i = 1; i < numValues; i++) {
+            value += reference + unpacker.next();
+            decompressedOutput.putInt((int) value);
+          }
+        } else {
+          decompressedOutput.putLong(value);
+          for (int i = 1; i < numValues; i++) {
+            value += reference + unpacker.next();
+            decompressedOutput.putLong(value);
+          }
+        }
+        break;
+      }
+      case PFOR: {
+        int numExceptions = compressedInput.getInt(position);
+        position += Integer.BYTES;
+        Unpacker unpacker = new Unpacker(compressedInput, position, bitWidth);
+        if (isInt) {
+          for (int i = 0; i < numValues; i++) {
+            decompressedOutput.putInt((int) (reference + unpacker.next()));
+          }
+        } else {
+          for (int i = 0; i < numValues; i++) {
+            decompressedOutput.putLong(reference + unpacker.next());
+          }
+        }
+        // Patch the exceptions with the high bits
+        int exceptionsPosition = position + BitPackingCompressor.getPackedSize(numValues, bitWidth);
+        for (int i = 0; i < numExceptions; i++) {
+          int index = compressedInput.getInt(exceptionsPosition);
+          exceptionsPosition += Integer.BYTES;
+          int valuePosition = outputPosition + index * valueSizeInBytes;
+          if (isInt) {
+            long highBits = compressedInput.getInt(exceptionsPosition) & 0xFFFFFFFFL;
+            decompressedOutput.putInt(valuePosition,
+                decompressedOutput.getInt(valuePosition) + (int) (highBits << bitWidth));
+          } else {
+            long highBits = compressedInput.getLong(exceptionsPosition);
+            decompressedOutput.putLong(valuePosition,
+                decompressedOutput.getLong(valuePosition) + (highBits << bitWidth));
+          }
+          exceptionsPosition += valueSizeInBytes;
+        }
+        break;
+      }
+      default:
+        throw new IllegalStateException("Unsupported compression type: " + _compressionType);
+    }
+
+    // Flip the output ByteBuffer for reading.
+    decompressedOutput.flip();
+    return decompressedOutput.limit();
+  }
+
+  @Override
+  public int decompressedLength(ByteBuffer compressedInput) {
+    int position = compressedInput.position();
+    return compressedInput.get(position) * compressedInput.getInt(position + 2);
+  }
+
+  /**
+   * Reads the values packed by {@link BitPackingCompressor} sequentially.
+   */
+  private static final class Unpacker {
+    final ByteBuffer _buffer;
+    final int _bitWidth;
+    final long _mask;
+    int _position;
+    long _word;
+    int _numBitsAvailable;
+
+    Unpacker(ByteBuffer buffer, int position, int bitWidth) {
+      _buffer = buffer;
+      _bitWidth = bitWidth;
+      _mask = BitPackingCompressor.getMask(bitWidth);
+      _position = position;
+    }
+
+    long next() {
+      if (_bitWidth == 0) {
+        return 0;
+      }
+      if (_numBitsAvailable == 0) {
+        _word = _buffer.getLong(_position);
+        _position += Long.BYTES;
+        _numBitsAvailable = Long.SIZE;
+      }
+      long value = _word >>> (Long.SIZE - _numBitsAvailable);
+      if (_numBitsAvailable >= _bitWidth) {
+        _numBitsAvailable -= _bitWidth;
+      } else {
+        _word = _buffer.getLong(_position);
+        _position += Long.BYTES;
+        value |= _word << _numBitsAvailable;
+        _numBitsAvailable += Long.SIZE - _bitWidth;
+      }
+      return value & _mask;
+    }
+  }
+}
@@ -71,11 +71,33 @@ public class ChunkCompressorFactory {
       case GZIP:
         return new GzipCompressor();
 
+      case FOR:
+      case DELTA:
+      case PFOR:
+        throw new IllegalArgumentException(
+            "Value size must be specified for bit-packing compression type: " + compressionType);
+
       default:
         throw new IllegalArgumentException("Illegal compressor name " + compressionType);
     }
   }
 
+  /**
+   * Returns the chunk compressor for the specified name, for fixed width values of the given size. This is required
+   * for the bit-packing compression types (see {@link ChunkCompressionType#isBitPacking()}), which only support INT or
+   * LONG values.
+   *
+   * @param compressionType Type of compressor.
+   * @param valueSizeInBytes Size of each value in bytes.
+   * @return Compressor for the specified type.
+   */
+  public static ChunkCompressor getCompressor(ChunkCompressionType compressionType, int valueSizeInBytes) {
+    if (compressionType.isBitPacking()) {
+      return new BitPackingCompressor(compressionType, valueSizeInBytes);
+    }
+    return getCompressor(compressionType, false);
+  }
+
   /**
    * Returns the chunk decompressor for the specified name.
    *
@@ -102,6 +124,15 @@ public class ChunkCompressorFactory {
       case GZIP:
         return new GzipDecompressor();
 
+      case FOR:
+        return BitPackingDecompressor.FOR_INSTANCE;
+
+      case DELTA:
+        return BitPackingDecompressor.DELTA_INSTANCE;
+
+      case PFOR:
+        return BitPackingDecompressor.PFOR_INSTANCE;
+
       default:
         throw new IllegalArgumentException("Illegal compressor name " + compressionType);
     }
@@ -51,14 +51,26 @@ public abstract class RealtimeIndexOffHeapMemoryManager implements PinotDataBuff
   private long _totalAllocatedBytes = 0;
 
   protected RealtimeIndexOffHeapMemoryManager(ServerMetrics serverMetrics, String segmentName) {
+    this(serverMetrics, segmentName, getRawTableName(segmentName));
+  }
+
+  /**
+   * Constructor for the memory managers not allocating for a consuming segment (e.g. the off-heap upsert metadata),
+   * where the raw table name to report the memory usage cannot be extracted from the segment name.
+   */
+  protected RealtimeIndexOffHeapMemoryManager(ServerMetrics serverMetrics, String segmentName, String rawTableName) {
     _serverMetrics = serverMetrics;
     _segmentName = segmentName;
+    _rawTableName = rawTableName;
+  }
+
+  private static String getRawTableName(String segmentName) {
     LLCSegmentName llcSegmentName = LLCSegmentName.of(segmentName);
     if (llcSegmentName != null) {
-      _rawTableName = llcSegmentName.getTableName();
+      return llcSegmentName.getTableName();
     } else {
       // For testing only
-      _rawTableName = "NoSuchTable";
+      return "NoSuchTable";
     }
   }
 
@@ -86,6 +98,27 @@ public abstract class RealtimeIndexOffHeapMemoryManager implements PinotDataBuff
     return buffer;
   }
 
+  /**
+   * Releases a buffer allocated by this memory manager before the memory manager is closed, e.g. when the buffer is
+   * replaced by a larger one.
+   *
+   * @param buffer Buffer returned by {@link #allocate(long, String)}
+   * @throws IOException
+   */
+  public void release(PinotDataBuffer buffer)
+      throws IOException {
+    // Buffers are compared by identity because PinotDataBuffer.equals() compares the content
+    boolean removed = _buffers.removeIf(allocatedBuffer -> allocatedBuffer == buffer);
+    Preconditions.checkArgument(removed, "Buffer was not allocated by the memory manager for segment: %s",
+        _segmentName);
+    long size = buffer.size();
+    buffer.close();
+    _totalAllocatedBytes -= size;
+    if (_serverMetrics != null) {
+      _serverMetrics.addValueToTableGauge(_rawTableName, ServerGauge.REALTIME_OFFHEAP_MEMORY_USED, -size);
+    }
+  }
+
   /**
    * Method to be implemented by inheriting concrete classes
    */
@@ -35,6 +35,13 @@ public class DirectMemoryManager extends RealtimeIndexOffHeapMemoryManager {
     super(serverMetrics, segmentName);
   }
 
+  /**
+   * @see RealtimeIndexOffHeapMemoryManager
+   */
+  public DirectMemoryManager(final String contextName, final String rawTableName, ServerMetrics serverMetrics) {
+    super(serverMetrics, contextName, rawTableName);
+  }
+
   @VisibleForTesting
   public DirectMemoryManager(final String segmentName) {
     this(segmentName, new ServerMetrics(PinotMetricUtils.getPinotMetricsRegistry()));
@@ -0,0 +1,175 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.realtime.impl.bloom;
+
+import com.google.common.base.Preconditions;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import javax.annotation.Nullable;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.segment.local.segment.creator.impl.bloom.OnHeapGuavaBloomFilterCreator;
+import org.apache.pinot.segment.local.segment.index.readers.bloom.GuavaBloomFilterReaderUtils;
+import org.apache.pinot.segment.spi.V1Constants;
+import org.apache.pinot.segment.spi.index.mutable.MutableIndex;
+import org.apache.pinot.segment.spi.index.reader.BloomFilterReader;
+import org.apache.pinot.spi.config.table.BloomFilterConfig;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.apache.pinot.spi.utils.BytesUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Bloom filter for the real-time columns which allows adding values on the fly.
+ * <p>The bloom filter is sized upfront for the expected number of values, and has the same bit layout and hashing as
+ * the guava bloom filter created by {@link OnHeapGuavaBloomFilterCreator}. On {@link #commit()}, it is serialized in
+ * the same format into the consumer directory, so that it can be reused by the realtime segment conversion instead of
+ * being rebuilt from the values.
+ * <p>This class is thread-safe for single writer multiple readers. The bits are set before the document is published
+ * (by updating the number of indexed documents of the segment), so the readers can see all the values in the documents
+ * being queried.
+ */
+public class MutableBloomFilter implements BloomFilterReader, MutableIndex {
+  private static final Logger LOGGER = LoggerFactory.getLogger(MutableBloomFilter.class);
+
+  // Strategy ordinal of the guava bloom filter (MURMUR128_MITZ_64)
+  private static final int STRATEGY_ORDINAL = 1;
+
+  private final DataType _dataType;
+  private final File _committedFile;
+  private final int _numHashFunctions;
+  private final long _numBits;
+  private final long[] _data;
+
+  /**
+   * @param dataType Data type of the column
+   * @param numValues Expected number of (distinct) values to be added
+   * @param bloomFilterConfig Bloom filter config
+   * @param committedFile File to commit the bloom filter to, or {@code null} to not commit the bloom filter
+   */
+  public MutableBloomFilter(DataType dataType, int numValues, BloomFilterConfig bloomFilterConfig,
+      @Nullable File committedFile) {
+    _dataType = dataType;
+    _committedFile = committedFile;
+    double fpp = OnHeapGuavaBloomFilterCreator.getFpp(bloomFilterConfig, numValues);
+    long numBits = GuavaBloomFilterReaderUtils.computeNumBits(numValues, fpp);
+    _numHashFunctions = GuavaBloomFilterReaderUtils.computeNumHashFunctions(numValues, numBits);
+    long numLongs = (numBits + Long.SIZE - 1) / Long.SIZE;
+    Preconditions.checkState(numLongs <= Integer.MAX_VALUE, "Bloom filter too large for %s values", numValues);
+    _data = new long[(int) numLongs];
+    _numBits = numLongs * Long.SIZE;
+    LOGGER.info("Creating mutable bloom filter with {} values, fpp: {}, size: {} bytes", numValues, fpp,
+        numLongs * Long.BYTES);
+  }
+
+  /**
+   * Returns the file to commit the bloom filter of the given column in the mutable segment to.
+   */
+  public static File getCommittedFile(File consumerDir, String segmentName, String column) {
+    return new File(new File(consumerDir, segmentName), column + V1Constants.Indexes.BLOOM_FILTER_FILE_EXTENSION);
+  }
+
+  @Override
+  public void add(Object value, int dictId, int docId) {
+    put(toString(value));
+  }
+
+  @Override
+  public void add(Object[] values, @Nullable int[] dictIds, int docId) {
+    for (Object value : values) {
+      put(toString(value));
+    }
+  }
+
+  /**
+   * Converts the value to string the same way as the bloom filter creator.
+   */
+  private String toString(Object value) {
+    return _dataType == DataType.BYTES ? BytesUtils.toHexString((byte[]) value) : value.toString();
+  }
+
+  private void put(String value) {
+    GuavaBloomFilterReaderUtils.Hash128AsLongs hash = GuavaBloomFilterReaderUtils.hashAsLongs(value);
+    long hash2 = hash.getHash2();
+    long combinedHash = hash.getHash1();
+    for (int i = 0; i < _numHashFunctions; i++) {
+      long bitIndex = (combinedHash & Long.MAX_VALUE) % _numBits;
+      // NOTE: Guava bloom filter stores bits in a long array. Inside each long value, the bits are stored in the
+      //       reverse order (the first bit is stored as the right most bit of the long).
+      _data[(int) (bitIndex >>> 6)] |= 1L << bitIndex;
+      combinedHash += hash2;
+    }
+  }
+
+  @Override
+  public boolean mightContain(String value) {
+    GuavaBloomFilterReaderUtils.Hash128AsLongs hash = GuavaBloomFilterReaderUtils.hashAsLongs(value);
+    return mightContain(hash.getHash1(), hash.getHash2());
+  }
+
+  @Override
+  public boolean mightContain(long hash1, long hash2) {
+    long combinedHash = hash1;
+    for (int i = 0; i < _numHashFunctions; i++) {
+      long bitIndex = (combinedHash & Long.MAX_VALUE) % _numBits;
+      if ((_data[(int) (bitIndex >>> 6)] & (1L << bitIndex)) == 0) {
+        return false;
+      }
+      combinedHash += hash2;
+    }
+    return true;
+  }
+
+  /**
+   * Writes the bloom filter in the same format as {@link OnHeapGuavaBloomFilterCreator}.
+   */
+  @Override
+  public void commit() {
+    if (_committedFile == null) {
+      return;
+    }
+    try {
+      FileUtils.forceMkdirParent(_committedFile);
+      try (DataOutputStream out = new DataOutputStream(
+          new BufferedOutputStream(new FileOutputStream(_committedFile)))) {
+        out.writeInt(OnHeapGuavaBloomFilterCreator.TYPE_VALUE);
+        out.writeInt(OnHeapGuavaBloomFilterCreator.VERSION);
+        out.writeByte(STRATEGY_ORDINAL);
+        out.writeByte(_numHashFunctions);
+        out.writeInt(_data.length);
+        for (long value : _data) {
+          out.writeLong(value);
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Caught exception while committing bloom filter to: " + _committedFile, e);
+    }
+  }
+
+  @Override
+  public void close() {
+    if (_committedFile != null) {
+      FileUtils.deleteQuietly(_committedFile);
+    }
+  }
+}
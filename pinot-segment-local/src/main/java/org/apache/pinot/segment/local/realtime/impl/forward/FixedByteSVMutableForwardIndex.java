@@ -25,6 +25,7 @@ import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
+import javax.annotation.Nullable;
 import org.apache.pinot.segment.local.io.reader.impl.FixedByteSingleValueMultiColReader;
 import org.apache.pinot.segment.local.io.writer.impl.FixedByteSingleValueMultiColWriter;
 import org.apache.pinot.segment.spi.index.mutable.MutableForwardIndex;
@@ -178,6 +179,25 @@ public class FixedByteSVMutableForwardIndex implements MutableForwardIndex {
     return row / _numRowsPerChunk;
   }
 
+  @Override
+  public void addBatch(Object[] values, @Nullable int[] dictIds, int startDocId, int numDocs) {
+    if (dictIds == null) {
+      MutableForwardIndex.super.addBatch(values, null, startDocId, numDocs);
+      return;
+    }
+    // Allocate the buffers once, then write the dictionary ids chunk by chunk
+    int endDocId = startDocId + numDocs;
+    addBufferIfNeeded(endDocId - 1);
+    int docId = startDocId;
+    while (docId < endDocId) {
+      WriterWithOffset writer = getWriterForRow(docId);
+      int chunkEndDocId = Math.min(writer._startRowId + _numRowsPerChunk, endDocId);
+      for (; docId < chunkEndDocId; docId++) {
+        writer.setInt(docId, dictIds[docId - startDocId]);
+      }
+    }
+  }
+
   @Override
   public void setDictId(int docId, int dictId) {
     addBufferIfNeeded(docId);
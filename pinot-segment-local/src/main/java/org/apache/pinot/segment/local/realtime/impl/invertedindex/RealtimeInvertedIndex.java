@@ -18,20 +18,28 @@
  */
 package org.apache.pinot.segment.local.realtime.impl.invertedindex;
 
+import it.unimi.dsi.fastutil.ints.IntArrays;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import javax.annotation.Nullable;
+import org.apache.pinot.segment.spi.index.mutable.AppendOnlyRoaringBitmap;
 import org.apache.pinot.segment.spi.index.mutable.MutableInvertedIndex;
-import org.apache.pinot.segment.spi.index.mutable.ThreadSafeMutableRoaringBitmap;
+import org.apache.pinot.segment.spi.index.reader.InvertedIndexReader;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
 import org.roaringbitmap.buffer.MutableRoaringBitmap;
 
 
 /**
  * Real-time bitmap based inverted index reader which allows adding values on the fly.
  * <p>This class is thread-safe for single writer multiple readers.
+ * <p>Document ids are always added in ascending order, so the bitmaps are append-only, and the bitmap returned by
+ * {@link #getDocIds(int)} is a read-only snapshot sharing all the containers except for the last one with the index
+ * instead of a full copy. Queries should read the index through {@link #getReader(int)}, which bounds the snapshots by
+ * the number of queryable documents.
  */
 public class RealtimeInvertedIndex implements MutableInvertedIndex {
-  private final List<ThreadSafeMutableRoaringBitmap> _bitmaps = new ArrayList<>();
+  private final List<AppendOnlyRoaringBitmap> _bitmaps = new ArrayList<>();
   private final ReentrantReadWriteLock.ReadLock _readLock;
   private final ReentrantReadWriteLock.WriteLock _writeLock;
 
@@ -48,7 +56,7 @@ public class RealtimeInvertedIndex implements MutableInvertedIndex {
   public void add(int dictId, int docId) {
     if (_bitmaps.size() == dictId) {
       // Bitmap for the dictionary id does not exist, add a new bitmap into the list
-      ThreadSafeMutableRoaringBitmap bitmap = new ThreadSafeMutableRoaringBitmap(docId);
+      AppendOnlyRoaringBitmap bitmap = new AppendOnlyRoaringBitmap(docId);
       try {
         _writeLock.lock();
         _bitmaps.add(bitmap);
@@ -61,9 +69,55 @@ public class RealtimeInvertedIndex implements MutableInvertedIndex {
     }
   }
 
+  /**
+   * Adds the consecutive document ids to the bitmaps of the given dictionary ids. The document ids are grouped by the
+   * dictionary id first, so that each bitmap is updated (and synchronized on) once per batch instead of once per
+   * document.
+   */
+  @Override
+  public void addBatch(Object[] values, @Nullable int[] dictIds, int startDocId, int numDocs) {
+    assert dictIds != null;
+    int[] docIds = new int[numDocs];
+    for (int i = 0; i < numDocs; i++) {
+      docIds[i] = startDocId + i;
+    }
+    // NOTE: Merge sort is stable, so the document ids for each dictionary id remain sorted
+    IntArrays.mergeSort(docIds,
+        (docId1, docId2) -> Integer.compare(dictIds[docId1 - startDocId], dictIds[docId2 - startDocId]));
+    int start = 0;
+    while (start < numDocs) {
+      int dictId = dictIds[docIds[start] - startDocId];
+      int end = start + 1;
+      while (end < numDocs && dictIds[docIds[end] - startDocId] == dictId) {
+        end++;
+      }
+      if (_bitmaps.size() == dictId) {
+        // Bitmap for the dictionary id does not exist, add a new bitmap into the list
+        AppendOnlyRoaringBitmap bitmap = new AppendOnlyRoaringBitmap();
+        bitmap.add(docIds, start, end - start);
+        try {
+          _writeLock.lock();
+          _bitmaps.add(bitmap);
+        } finally {
+          _writeLock.unlock();
+        }
+      } else {
+        _bitmaps.get(dictId).add(docIds, start, end - start);
+      }
+      start = end;
+    }
+  }
+
   @Override
-  public MutableRoaringBitmap getDocIds(int dictId) {
-    ThreadSafeMutableRoaringBitmap bitmap;
+  public ImmutableRoaringBitmap getDocIds(int dictId) {
+    return getDocIds(dictId, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Returns the document ids smaller than {@code numDocs} for the given dictionary id.
+   */
+  public ImmutableRoaringBitmap getDocIds(int dictId, int numDocs) {
+    AppendOnlyRoaringBitmap bitmap;
     try {
       _readLock.lock();
       // NOTE: the given dictionary id might not be added to the inverted index yet. We first add the value to the
@@ -77,7 +131,25 @@ public class RealtimeInvertedIndex implements MutableInvertedIndex {
     } finally {
       _readLock.unlock();
     }
-    return bitmap.getMutableRoaringBitmap();
+    return bitmap.getSnapshot(numDocs);
+  }
+
+  /**
+   * Returns a reader of the index which only returns the document ids smaller than {@code numDocs}, i.e. the documents
+   * queryable in the consuming segment when the reader is created. The documents added to the index but not yet
+   * queryable (e.g. while a batch of rows is being indexed) are excluded.
+   */
+  public InvertedIndexReader<ImmutableRoaringBitmap> getReader(int numDocs) {
+    return new InvertedIndexReader<ImmutableRoaringBitmap>() {
+      @Override
+      public ImmutableRoaringBitmap getDocIds(int dictId) {
+        return RealtimeInvertedIndex.this.getDocIds(dictId, numDocs);
+      }
+
+      @Override
+      public void close() {
+      }
+    };
   }
 
   @Override
@@ -0,0 +1,315 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.realtime.impl.range;
+
+import javax.annotation.Nullable;
+import org.apache.pinot.segment.local.utils.FPOrdering;
+import org.apache.pinot.segment.spi.index.mutable.AppendOnlyRoaringBitmap;
+import org.apache.pinot.segment.spi.index.mutable.MutableIndex;
+import org.apache.pinot.segment.spi.index.reader.RangeIndexReader;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
+import org.roaringbitmap.buffer.MutableRoaringBitmap;
+
+
+/**
+ * Bit-sliced range index for the real-time raw single-value numeric columns which allows adding values on the fly.
+ * <p>Each value is mapped to an unsigned ordinal with the same order (sign bit flipped for INT/LONG, {@link FPOrdering}
+ * for FLOAT/DOUBLE), and the bit slice {@code i} contains the document ids with the {@code i}th bit of the ordinal set.
+ * Unlike the immutable bit-sliced range index, the ordinal does not depend on the min value of the column, so values
+ * can be appended without rebuilding the slices. Because document ids are added in ascending order, each slice is an
+ * {@link AppendOnlyRoaringBitmap}, and the queries are evaluated on the slice snapshots (O'Neil's bit-sliced range
+ * algorithm), bounded by the number of documents indexed when the query starts.
+ * <p>This class is thread-safe for single writer multiple readers.
+ */
+public class MutableRangeIndex implements RangeIndexReader<ImmutableRoaringBitmap>, MutableIndex {
+  private final DataType _storedType;
+  private final AppendOnlyRoaringBitmap[] _slices;
+  private final long _maxOrdinal;
+
+  private volatile int _numDocs;
+
+  public MutableRangeIndex(DataType storedType) {
+    _storedType = storedType;
+    int numSlices;
+    switch (storedType) {
+      case INT:
+      case FLOAT:
+        numSlices = Integer.SIZE;
+        break;
+      case LONG:
+      case DOUBLE:
+        numSlices = Long.SIZE;
+        break;
+      default:
+        throw new IllegalArgumentException("Unsupported data type for mutable range index: " + storedType);
+    }
+    _slices = new AppendOnlyRoaringBitmap[numSlices];
+    for (int i = 0; i < numSlices; i++) {
+      _slices[i] = new AppendOnlyRoaringBitmap();
+    }
+    _maxOrdinal = -1L >>> (Long.SIZE - numSlices);
+  }
+
+  @Override
+  public void add(Object value, int dictId, int docId) {
+    long ordinal = getOrdinal((Number) value);
+    while (ordinal != 0) {
+      _slices[Long.numberOfTrailingZeros(ordinal)].add(docId);
+      ordinal &= ordinal - 1;
+    }
+    _numDocs = docId + 1;
+  }
+
+  @Override
+  public void add(Object[] values, @Nullable int[] dictIds, int docId) {
+    throw new UnsupportedOperationException("Mutable range indexes are not supported for multi-valued columns");
+  }
+
+  /**
+   * Adds the values slice by slice so that each slice is updated (and synchronized on) once per batch.
+   */
+  @Override
+  public void addBatch(Object[] values, @Nullable int[] dictIds, int startDocId, int numDocs) {
+    long[] ordinals = new long[numDocs];
+    for (int i = 0; i < numDocs; i++) {
+      ordinals[i] = getOrdinal((Number) values[i]);
+    }
+    int[] docIds = new int[numDocs];
+    for (int slice = 0; slice < _slices.length; slice++) {
+      int numDocIds = 0;
+      for (int i = 0; i < numDocs; i++) {
+        if ((ordinals[i] & (1L << slice)) != 0) {
+          docIds[numDocIds++] = startDocId + i;
+        }
+      }
+      if (numDocIds > 0) {
+        _slices[slice].add(docIds, 0, numDocIds);
+      }
+    }
+    _numDocs = startDocId + numDocs;
+  }
+
+  private long getOrdinal(Number value) {
+    switch (_storedType) {
+      case INT:
+        return getOrdinal(value.intValue());
+      case LONG:
+        return getOrdinal(value.longValue());
+      case FLOAT:
+        return FPOrdering.ordinalOf(value.floatValue());
+      case DOUBLE:
+        return FPOrdering.ordinalOf(value.doubleValue());
+      default:
+        throw new IllegalStateException();
+    }
+  }
+
+  private static long getOrdinal(int value) {
+    return (value ^ Integer.MIN_VALUE) & 0xFFFFFFFFL;
+  }
+
+  private static long getOrdinal(long value) {
+    return value ^ Long.MIN_VALUE;
+  }
+
+  @Override
+  public int getNumMatchingDocs(int min, int max) {
+    return getMatchingDocIds(min, max).getCardinality();
+  }
+
+  @Override
+  public int getNumMatchingDocs(long min, long max) {
+    return getMatchingDocIds(min, max).getCardinality();
+  }
+
+  @Override
+  public int getNumMatchingDocs(float min, float max) {
+    return getMatchingDocIds(min, max).getCardinality();
+  }
+
+  @Override
+  public int getNumMatchingDocs(double min, double max) {
+    return getMatchingDocIds(min, max).getCardinality();
+  }
+
+  @Override
+  public int getNumMatchingDocs(int value) {
+    return getMatchingDocIds(value).getCardinality();
+  }
+
+  @Override
+  public int getNumMatchingDocs(long value) {
+    return getMatchingDocIds(value).getCardinality();
+  }
+
+  @Override
+  public int getNumMatchingDocs(float value) {
+    return getMatchingDocIds(value).getCardinality();
+  }
+
+  @Override
+  public int getNumMatchingDocs(double value) {
+    return getMatchingDocIds(value).getCardinality();
+  }
+
+  @Override
+  public ImmutableRoaringBitmap getMatchingDocIds(int min, int max) {
+    if (min > max) {
+      return new MutableRoaringBitmap();
+    }
+    return queryRange(getOrdinal(min), getOrdinal(max));
+  }
+
+  @Override
+  public ImmutableRoaringBitmap getMatchingDocIds(long min, long max) {
+    if (min > max) {
+      return new MutableRoaringBitmap();
+    }
+    return queryRange(getOrdinal(min), getOrdinal(max));
+  }
+
+  @Override
+  public ImmutableRoaringBitmap getMatchingDocIds(float min, float max) {
+    if (min > max) {
+      return new MutableRoaringBitmap();
+    }
+    return queryRange(FPOrdering.ordinalOf(min), FPOrdering.ordinalOf(max));
+  }
+
+  @Override
+  public ImmutableRoaringBitmap getMatchingDocIds(double min, double max) {
+    if (min > max) {
+      return new MutableRoaringBitmap();
+    }
+    return queryRange(FPOrdering.ordinalOf(min), FPOrdering.ordinalOf(max));
+  }
+
+  @Override
+  public ImmutableRoaringBitmap getMatchingDocIds(int value) {
+    return queryValue(getOrdinal(value));
+  }
+
+  @Override
+  public ImmutableRoaringBitmap getMatchingDocIds(long value) {
+    return queryValue(getOrdinal(value));
+  }
+
+  @Override
+  public ImmutableRoaringBitmap getMatchingDocIds(float value) {
+    return queryValue(FPOrdering.ordinalOf(value));
+  }
+
+  @Override
+  public ImmutableRoaringBitmap getMatchingDocIds(double value) {
+    return queryValue(FPOrdering.ordinalOf(value));
+  }
+
+  /**
+   * Returns the documents with the ordinal within [min, max] (unsigned).
+   */
+  private MutableRoaringBitmap queryRange(long min, long max) {
+    // NOTE: Read the number of documents before taking the slice snapshots so that all the slices are up-to-date for
+    //       the documents within the bound
+    int numDocs = _numDocs;
+    ImmutableRoaringBitmap[] slices = getSliceSnapshots();
+    MutableRoaringBitmap docIds = new MutableRoaringBitmap();
+    docIds.add(0L, numDocs);
+    if (min != 0) {
+      docIds = greaterThanOrEqual(slices, min, docIds);
+    }
+    if (max != _maxOrdinal) {
+      docIds = lessThanOrEqual(slices, max, docIds);
+    }
+    return docIds;
+  }
+
+  /**
+   * Returns the documents with the given ordinal.
+   */
+  private MutableRoaringBitmap queryValue(long value) {
+    int numDocs = _numDocs;
+    ImmutableRoaringBitmap[] slices = getSliceSnapshots();
+    MutableRoaringBitmap docIds = new MutableRoaringBitmap();
+    docIds.add(0L, numDocs);
+    for (int i = slices.length - 1; i >= 0 && !docIds.isEmpty(); i--) {
+      if ((value & (1L << i)) != 0) {
+        docIds.and(slices[i]);
+      } else {
+        docIds.andNot(slices[i]);
+      }
+    }
+    return docIds;
+  }
+
+  private ImmutableRoaringBitmap[] getSliceSnapshots() {
+    int numSlices = _slices.length;
+    ImmutableRoaringBitmap[] slices = new ImmutableRoaringBitmap[numSlices];
+    for (int i = 0; i < numSlices; i++) {
+      slices[i] = _slices[i].getSnapshot();
+    }
+    return slices;
+  }
+
+  /**
+   * Returns the candidate documents with the ordinal greater than or equal to the given value. Scanning from the most
+   * significant slice, the documents equal to the value so far are greater than the value if they have the bit set
+   * where the value does not.
+   */
+  private static MutableRoaringBitmap greaterThanOrEqual(ImmutableRoaringBitmap[] slices, long value,
+      MutableRoaringBitmap candidates) {
+    MutableRoaringBitmap greaterThan = new MutableRoaringBitmap();
+    MutableRoaringBitmap equal = candidates;
+    for (int i = slices.length - 1; i >= 0 && !equal.isEmpty(); i--) {
+      if ((value & (1L << i)) != 0) {
+        equal.and(slices[i]);
+      } else {
+        greaterThan.or(ImmutableRoaringBitmap.and(equal, slices[i]));
+        equal.andNot(slices[i]);
+      }
+    }
+    greaterThan.or(equal);
+    return greaterThan;
+  }
+
+  /**
+   * Returns the candidate documents with the ordinal less than or equal to the given value. Scanning from the most
+   * significant slice, the documents equal to the value so far are less than the value if they do not have the bit set
+   * where the value does.
+   */
+  private static MutableRoaringBitmap lessThanOrEqual(ImmutableRoaringBitmap[] slices, long value,
+      MutableRoaringBitmap candidates) {
+    MutableRoaringBitmap lessThan = new MutableRoaringBitmap();
+    MutableRoaringBitmap equal = candidates;
+    for (int i = slices.length - 1; i >= 0 && !equal.isEmpty(); i--) {
+      if ((value & (1L << i)) != 0) {
+        lessThan.or(ImmutableRoaringBitmap.andNot(equal, slices[i]));
+        equal.and(slices[i]);
+      } else {
+        equal.andNot(slices[i]);
+      }
+    }
+    lessThan.or(equal);
+    return lessThan;
+  }
+
+  @Override
+  public void close() {
+  }
+}
@@ -0,0 +1,235 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.realtime.impl.vector;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import javax.annotation.Nullable;
+import org.apache.pinot.segment.local.segment.creator.impl.vector.ivf.IvfIndexProperties;
+import org.apache.pinot.segment.local.segment.creator.impl.vector.ivf.KMeans;
+import org.apache.pinot.segment.local.segment.creator.impl.vector.ivf.NearestNeighborCollector;
+import org.apache.pinot.segment.local.segment.creator.impl.vector.ivf.VectorDistances;
+import org.apache.pinot.segment.spi.V1Constants;
+import org.apache.pinot.segment.spi.index.IndexUtil;
+import org.apache.pinot.segment.spi.index.creator.VectorIndexConfig;
+import org.apache.pinot.segment.spi.index.creator.VectorIndexConfig.VectorDistanceFunction;
+import org.apache.pinot.segment.spi.index.mutable.MutableIndex;
+import org.apache.pinot.segment.spi.index.reader.VectorIndexReader;
+import org.apache.pinot.segment.spi.memory.PinotDataBuffer;
+import org.apache.pinot.segment.spi.memory.PinotDataBufferMemoryManager;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
+import org.roaringbitmap.buffer.MutableRoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Mutable counterpart of the IVF vector index for the consuming segments. The vectors are stored (not quantized) in
+ * off-heap chunks allocated from the memory manager, so that the search always computes the exact distances.
+ *
+ * Until enough vectors are ingested to train the centroids, the search is a brute force scan over all the vectors.
+ * After that, the centroids are trained once with k-means on the ingested vectors, each new vector is appended to the
+ * inverted list of its closest centroid, and the search only scans the lists with the closest centroids.
+ *
+ * <p>This class is thread-safe for single writer multiple readers.
+ */
+public class MutableIvfVectorIndex implements VectorIndexReader, MutableIndex {
+  private static final Logger LOGGER = LoggerFactory.getLogger(MutableIvfVectorIndex.class);
+  private static final int NUM_VECTORS_PER_CHUNK_SHIFT = 10;
+  private static final int NUM_VECTORS_PER_CHUNK = 1 << NUM_VECTORS_PER_CHUNK_SHIFT;
+  private static final int VECTOR_ID_MASK = NUM_VECTORS_PER_CHUNK - 1;
+
+  private final String _segmentName;
+  private final String _column;
+  private final int _dimension;
+  private final VectorDistanceFunction _distanceFunction;
+  private final boolean _innerProduct;
+  private final int _numLists;
+  private final int _numProbes;
+  private final int _numTrainingIterations;
+  private final int _numTrainingVectors;
+  private final PinotDataBufferMemoryManager _memoryManager;
+  private final String _allocationContext;
+  private final ReadWriteLock _readWriteLock = new ReentrantReadWriteLock();
+
+  private final List<PinotDataBuffer> _chunks = new ArrayList<>();
+  // Mapping from vector id to doc id
+  private final IntArrayList _docIds = new IntArrayList();
+  // Trained after ingesting enough vectors
+  private float[][] _centroids;
+  private IntArrayList[] _lists;
+
+  public MutableIvfVectorIndex(String segmentName, String column, VectorIndexConfig vectorIndexConfig,
+      @Nullable PinotDataBufferMemoryManager memoryManager) {
+    _segmentName = segmentName;
+    _column = column;
+    IvfIndexProperties properties = new IvfIndexProperties(vectorIndexConfig);
+    _dimension = properties.getDimension();
+    _distanceFunction = vectorIndexConfig.getVectorDistanceFunction();
+    _innerProduct = VectorDistances.isInnerProduct(_distanceFunction);
+    _numLists = properties.getMutableNumLists();
+    _numProbes = properties.getNumProbes();
+    _numTrainingIterations = properties.getNumTrainingIterations();
+    _numTrainingVectors = _numLists * IvfIndexProperties.NUM_TRAINING_VECTORS_PER_LIST;
+    _memoryManager = memoryManager;
+    _allocationContext =
+        IndexUtil.buildAllocationContext(segmentName, column, V1Constants.Indexes.VECTOR_IVF_INDEX_FILE_EXTENSION);
+  }
+
+  @Override
+  public void add(Object value, int dictId, int docId) {
+    throw new UnsupportedOperationException("Mutable Vector indexes are not supported for single-valued columns");
+  }
+
+  @Override
+  public void add(Object[] values, @Nullable int[] dictIds, int docId) {
+    if (values.length != _dimension) {
+      return;
+    }
+    float[] vector = new float[_dimension];
+    for (int i = 0; i < _dimension; i++) {
+      vector[i] = (Float) values[i];
+    }
+    VectorDistances.preprocess(vector, _distanceFunction);
+
+    _readWriteLock.writeLock().lock();
+    try {
+      int vectorId = _docIds.size();
+      int chunkId = vectorId >>> NUM_VECTORS_PER_CHUNK_SHIFT;
+      if (chunkId == _chunks.size()) {
+        long chunkSize = (long) NUM_VECTORS_PER_CHUNK * _dimension * Float.BYTES;
+        _chunks.add(_memoryManager != null ? _memoryManager.allocate(chunkSize, _allocationContext)
+            : PinotDataBuffer.allocateDirect(chunkSize, ByteOrder.nativeOrder(), _allocationContext));
+      }
+      PinotDataBuffer chunk = _chunks.get(chunkId);
+      long offset = (long) (vectorId & VECTOR_ID_MASK) * _dimension * Float.BYTES;
+      for (int i = 0; i < _dimension; i++) {
+        chunk.putFloat(offset + (long) i * Float.BYTES, vector[i]);
+      }
+      _docIds.add(docId);
+
+      if (_centroids != null) {
+        _lists[VectorDistances.getClosestCentroid(_centroids, vector)].add(vectorId);
+      } else if (_docIds.size() == _numTrainingVectors) {
+        train();
+      }
+    } finally {
+      _readWriteLock.writeLock().unlock();
+    }
+  }
+
+  private void train() {
+    int numVectors = _docIds.size();
+    float[][] vectors = new float[numVectors][];
+    for (int i = 0; i < numVectors; i++) {
+      vectors[i] = readVector(i);
+    }
+    float[][] centroids = KMeans.train(vectors, _numLists, _numTrainingIterations);
+    IntArrayList[] lists = new IntArrayList[_numLists];
+    for (int i = 0; i < _numLists; i++) {
+      lists[i] = new IntArrayList();
+    }
+    for (int i = 0; i < numVectors; i++) {
+      lists[VectorDistances.getClosestCentroid(centroids, vectors[i])].add(i);
+    }
+    _centroids = centroids;
+    _lists = lists;
+    LOGGER.info("Trained {} centroids with {} vectors for mutable IVF index of segment: {}, column: {}", _numLists,
+        numVectors, _segmentName, _column);
+  }
+
+  private float[] readVector(int vectorId) {
+    PinotDataBuffer chunk = _chunks.get(vectorId >>> NUM_VECTORS_PER_CHUNK_SHIFT);
+    long offset = (long) (vectorId & VECTOR_ID_MASK) * _dimension * Float.BYTES;
+    float[] vector = new float[_dimension];
+    for (int i = 0; i < _dimension; i++) {
+      vector[i] = chunk.getFloat(offset + (long) i * Float.BYTES);
+    }
+    return vector;
+  }
+
+  @Override
+  public ImmutableRoaringBitmap getDocIds(float[] vector, int topK) {
+    return search(vector, topK, null);
+  }
+
+  @Override
+  public boolean isPrefilterSupported() {
+    return true;
+  }
+
+  @Override
+  public ImmutableRoaringBitmap getDocIds(float[] vector, int topK, ImmutableRoaringBitmap filterBitmap) {
+    return search(vector, topK, filterBitmap);
+  }
+
+  private MutableRoaringBitmap search(float[] vector, int topK, @Nullable ImmutableRoaringBitmap filterBitmap) {
+    if (topK <= 0 || vector.length != _dimension) {
+      return new MutableRoaringBitmap();
+    }
+    float[] query = vector.clone();
+    VectorDistances.preprocess(query, _distanceFunction);
+    NearestNeighborCollector collector = new NearestNeighborCollector(topK);
+    _readWriteLock.readLock().lock();
+    try {
+      if (_centroids == null) {
+        int numVectors = _docIds.size();
+        for (int i = 0; i < numVectors; i++) {
+          collect(collector, query, i, filterBitmap);
+        }
+      } else {
+        int[] lists = VectorDistances.getListsByDistance(_centroids, query, _innerProduct);
+        for (int i = 0; i < lists.length; i++) {
+          if (i >= _numProbes && collector.isFull()) {
+            break;
+          }
+          IntArrayList list = _lists[lists[i]];
+          int size = list.size();
+          for (int j = 0; j < size; j++) {
+            collect(collector, query, list.getInt(j), filterBitmap);
+          }
+        }
+      }
+    } finally {
+      _readWriteLock.readLock().unlock();
+    }
+    return collector.toBitmap();
+  }
+
+  private void collect(NearestNeighborCollector collector, float[] query, int vectorId,
+      @Nullable ImmutableRoaringBitmap filterBitmap) {
+    int docId = _docIds.getInt(vectorId);
+    if (filterBitmap == null || filterBitmap.contains(docId)) {
+      collector.collect(docId, VectorDistances.distance(query, readVector(vectorId), _innerProduct));
+    }
+  }
+
+  @Override
+  public void close()
+      throws IOException {
+    for (PinotDataBuffer chunk : _chunks) {
+      chunk.close();
+    }
+  }
+}
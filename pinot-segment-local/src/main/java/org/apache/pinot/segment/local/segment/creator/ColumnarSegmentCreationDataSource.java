@@ -0,0 +1,216 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.segment.creator;
+
+import com.google.common.base.Preconditions;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import org.apache.pinot.common.Utils;
+import org.apache.pinot.segment.local.recordtransformer.DataTypeTransformer;
+import org.apache.pinot.segment.local.recordtransformer.NullValueTransformer;
+import org.apache.pinot.segment.local.recordtransformer.RecordTransformerUtils;
+import org.apache.pinot.segment.local.recordtransformer.SanitizationTransformer;
+import org.apache.pinot.segment.local.recordtransformer.SpecialValueTransformer;
+import org.apache.pinot.segment.local.recordtransformer.TimeValidationTransformer;
+import org.apache.pinot.segment.local.segment.creator.impl.stats.SegmentPreIndexStatsCollectorImpl;
+import org.apache.pinot.segment.spi.creator.SegmentCreationDataSource;
+import org.apache.pinot.segment.spi.creator.SegmentGeneratorConfig;
+import org.apache.pinot.segment.spi.creator.SegmentPreIndexStatsCollector;
+import org.apache.pinot.segment.spi.creator.StatsCollectorConfig;
+import org.apache.pinot.spi.config.table.TableConfig;
+import org.apache.pinot.spi.data.DateTimeFieldSpec;
+import org.apache.pinot.spi.data.Schema;
+import org.apache.pinot.spi.data.readers.ColumnReader;
+import org.apache.pinot.spi.data.readers.ColumnarRecordReader;
+import org.apache.pinot.spi.data.readers.GenericRow;
+import org.apache.pinot.spi.data.readers.RecordReader;
+import org.apache.pinot.spi.recordtransformer.RecordTransformer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * {@link SegmentCreationDataSource} that uses a {@link ColumnarRecordReader} as the underlying data source, where the
+ * stats are collected and the indexes are created one column at a time instead of one row at a time. This avoids
+ * converting every record into a {@link GenericRow} with all the columns, and only reads the data of one column at a
+ * time from the columnar file.
+ *
+ * <p>Only the default transformers (data type, time validation, special value, null value and sanitization) are
+ * supported because they transform each column independently. They are applied to a {@link GenericRow} that only
+ * holds the value of the column being read (and the time column required by the {@link NullValueTransformer}), which
+ * is reused across the records. See {@link #isSupported(SegmentGeneratorConfig, RecordReader)} for the requirements.
+ */
+public class ColumnarSegmentCreationDataSource implements SegmentCreationDataSource {
+  private static final Logger LOGGER = LoggerFactory.getLogger(ColumnarSegmentCreationDataSource.class);
+  private static final Set<Class<?>> SUPPORTED_TRANSFORMERS =
+      Set.of(DataTypeTransformer.class, TimeValidationTransformer.class, SpecialValueTransformer.class,
+          NullValueTransformer.class, SanitizationTransformer.class);
+
+  private final ColumnarRecordReader _recordReader;
+  // NOTE: Transformers are created once per column so that the default time value (which might be the current time) is
+  //       the same when collecting the stats and creating the indexes
+  private final Map<String, List<RecordTransformer>> _transformersMap = new HashMap<>();
+
+  public ColumnarSegmentCreationDataSource(ColumnarRecordReader recordReader, TableConfig tableConfig, Schema schema) {
+    _recordReader = recordReader;
+    String timeColumnName = tableConfig.getValidationConfig().getTimeColumnName();
+    DateTimeFieldSpec timeFieldSpec = timeColumnName != null ? schema.getSpecForTimeColumn(timeColumnName) : null;
+    for (String column : schema.getPhysicalColumnNames()) {
+      Schema columnSchema = new Schema();
+      columnSchema.setSchemaName(schema.getSchemaName());
+      columnSchema.addField(schema.getFieldSpecFor(column));
+      if (timeFieldSpec != null && !column.equals(timeColumnName)) {
+        columnSchema.addField(timeFieldSpec);
+      }
+      _transformersMap.put(column, RecordTransformerUtils.getDefaultTransformers(tableConfig, columnSchema));
+    }
+  }
+
+  /**
+   * Returns whether the segment can be built column by column from the given record reader, which requires:
+   * <ul>
+   *   <li>Columnar ingestion is enabled in the config</li>
+   *   <li>The record reader is a {@link ColumnarRecordReader} and can read all the columns in the schema</li>
+   *   <li>No transformer other than the default per-column transformers is configured</li>
+   *   <li>Continue on error is disabled because the invalid records cannot be skipped column by column</li>
+   * </ul>
+   */
+  public static boolean isSupported(SegmentGeneratorConfig config, RecordReader recordReader) {
+    if (!config.isColumnarIngestion() || !(recordReader instanceof ColumnarRecordReader)
+        || config.isContinueOnError()) {
+      return false;
+    }
+    Schema schema = config.getSchema();
+    for (RecordTransformer transformer : RecordTransformerUtils.getDefaultTransformers(config.getTableConfig(),
+        schema)) {
+      if (!SUPPORTED_TRANSFORMERS.contains(transformer.getClass())) {
+        LOGGER.info("Cannot build segment by column with transformer: {}", transformer.getClass().getSimpleName());
+        return false;
+      }
+    }
+    ColumnarRecordReader columnarRecordReader = (ColumnarRecordReader) recordReader;
+    for (String column : schema.getPhysicalColumnNames()) {
+      if (!columnarRecordReader.isColumnReadable(column)) {
+        LOGGER.info("Cannot build segment by column because column: {} cannot be read by column", column);
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public SegmentPreIndexStatsCollector gatherStats(StatsCollectorConfig statsCollectorConfig) {
+    try {
+      SegmentPreIndexStatsCollectorImpl collector = new SegmentPreIndexStatsCollectorImpl(statsCollectorConfig);
+      collector.init();
+
+      // Gather the stats column by column, and verify that all the columns have the same number of values
+      int totalDocCount = -1;
+      for (String column : _transformersMap.keySet()) {
+        int numValues = 0;
+        try (ColumnRowIterator rowIterator = getColumnRows(column)) {
+          while (rowIterator.hasNext()) {
+            collector.collectColumnValue(column, rowIterator.next().getValue(column));
+            numValues++;
+          }
+        }
+        Preconditions.checkState(totalDocCount < 0 || totalDocCount == numValues,
+            "Column: %s has %s values, expected: %s", column, numValues, totalDocCount);
+        totalDocCount = numValues;
+      }
+      collector.setTotalDocCount(Math.max(totalDocCount, 0));
+      collector.build();
+      return collector;
+    } catch (Exception e) {
+      LOGGER.error("Caught exception while gathering stats", e);
+      Utils.rethrowException(e);
+      return null;
+    }
+  }
+
+  /**
+   * Returns the transformed rows of the given column in the document order. The returned row only holds the value of
+   * the given column (and possibly the time column), and is reused across the records.
+   */
+  public ColumnRowIterator getColumnRows(String column)
+      throws IOException {
+    List<RecordTransformer> transformers = _transformersMap.get(column);
+    Preconditions.checkState(transformers != null, "Failed to find column: %s", column);
+    return new ColumnRowIterator(column, _recordReader.getColumnReader(column), transformers);
+  }
+
+  @Override
+  public RecordReader getRecordReader() {
+    try {
+      _recordReader.rewind();
+    } catch (Exception e) {
+      LOGGER.error("Caught exception while rewinding record reader", e);
+      Utils.rethrowException(e);
+    }
+
+    return _recordReader;
+  }
+
+  public static class ColumnRowIterator implements Iterator<GenericRow>, Closeable {
+    private final String _column;
+    private final ColumnReader _columnReader;
+    private final List<RecordTransformer> _transformers;
+    private final GenericRow _reuse = new GenericRow();
+
+    private ColumnRowIterator(String column, ColumnReader columnReader, List<RecordTransformer> transformers) {
+      _column = column;
+      _columnReader = columnReader;
+      _transformers = transformers;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return _columnReader.hasNext();
+    }
+
+    @Override
+    public GenericRow next() {
+      if (!_columnReader.hasNext()) {
+        throw new NoSuchElementException();
+      }
+      _reuse.clear();
+      try {
+        _reuse.putValue(_column, _columnReader.next());
+      } catch (IOException e) {
+        throw new RuntimeException("Caught exception while reading column: " + _column, e);
+      }
+      for (RecordTransformer transformer : _transformers) {
+        transformer.transform(_reuse);
+      }
+      return _reuse;
+    }
+
+    @Override
+    public void close()
+        throws IOException {
+      _columnReader.close();
+    }
+  }
+}
@@ -21,15 +21,24 @@ package org.apache.pinot.segment.local.segment.creator.impl;
 import com.fasterxml.jackson.core.JsonParseException;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
@@ -92,6 +101,8 @@ public class SegmentColumnarIndexCreator implements SegmentCreator {
   private static final Logger LOGGER = LoggerFactory.getLogger(SegmentColumnarIndexCreator.class);
   // Allow at most 512 characters for the metadata property
   static final int METADATA_PROPERTY_LENGTH_LIMIT = 512;
+  // Number of rows buffered before they are indexed concurrently for all the columns
+  static final int PARALLEL_INDEXING_BATCH_SIZE = 1000;
   private SegmentGeneratorConfig _config;
   private TreeMap<String, ColumnIndexCreationInfo> _indexCreationInfoMap;
   private final Map<String, SegmentDictionaryCreator> _dictionaryCreatorMap = new HashMap<>();
@@ -107,6 +118,9 @@ public class SegmentColumnarIndexCreator implements SegmentCreator {
   private File _indexDir;
   private int _totalDocs;
   private int _docIdCounter;
+  // Executor to build the indexes of different columns concurrently, null when indexes are built sequentially
+  private ExecutorService _executorService;
+  private final List<GenericRow> _pendingRows = new ArrayList<>();
 
   @Override
   public void init(SegmentGeneratorConfig segmentCreationSpec, SegmentIndexCreationInfo segmentIndexCreationInfo,
@@ -133,114 +147,134 @@ public class SegmentColumnarIndexCreator implements SegmentCreator {
 
     _creatorsByColAndIndex = Maps.newHashMapWithExpectedSize(indexConfigs.keySet().size());
 
-    for (String columnName : indexConfigs.keySet()) {
-      FieldSpec fieldSpec = schema.getFieldSpecFor(columnName);
-      Preconditions.checkState(fieldSpec != null, "Failed to find column: %s in the schema", columnName);
-      if (fieldSpec.isVirtualColumn()) {
-        LOGGER.warn("Ignoring index creation for virtual column {}", columnName);
-        continue;
-      }
+    int parallelism = segmentCreationSpec.getIndexCreationParallelism();
+    if (parallelism > 1) {
+      LOGGER.info("Building indexes with {} threads", parallelism);
+      _executorService = Executors.newFixedThreadPool(parallelism,
+          new ThreadFactoryBuilder().setNameFormat("segment-index-creation-%d").setDaemon(true).build());
+    }
+    forEachColumn(indexConfigs.keySet(),
+        columnName -> initColumn(columnName, segmentIndexCreationInfo, immutableToMutableIdMap));
 
-      FieldIndexConfigs originalConfig = indexConfigs.get(columnName);
-      ColumnIndexCreationInfo columnIndexCreationInfo = indexCreationInfoMap.get(columnName);
-      Preconditions.checkNotNull(columnIndexCreationInfo, "Missing index creation info for column: %s", columnName);
-      boolean dictEnabledColumn = createDictionaryForColumn(columnIndexCreationInfo, segmentCreationSpec, fieldSpec);
-      if (originalConfig.getConfig(StandardIndexes.inverted()).isEnabled()) {
-        Preconditions.checkState(dictEnabledColumn,
-            "Cannot create inverted index for raw index column: %s", columnName);
+    // Although NullValueVector is implemented as an index, it needs to be treated in a different way than other indexes
+    for (FieldSpec fieldSpec : schema.getAllFieldSpecs()) {
+      String columnName = fieldSpec.getName();
+      if (isNullable(fieldSpec)) {
+        // Initialize Null value vector map
+        LOGGER.info("Column: {} is nullable", columnName);
+        _nullValueVectorCreatorMap.put(columnName, new NullValueVectorCreator(_indexDir, columnName));
+      } else {
+        LOGGER.info("Column: {} is not nullable", columnName);
       }
+    }
+  }
 
-      IndexType<ForwardIndexConfig, ?, ForwardIndexCreator> forwardIdx = StandardIndexes.forward();
-      boolean forwardIndexDisabled = !originalConfig.getConfig(forwardIdx).isEnabled();
-
-      //@formatter:off
-      IndexCreationContext.Common context = IndexCreationContext.builder()
-          .withIndexDir(_indexDir)
-          .withDictionary(dictEnabledColumn)
-          .withFieldSpec(fieldSpec)
-          .withTotalDocs(segmentIndexCreationInfo.getTotalDocs())
-          .withColumnIndexCreationInfo(columnIndexCreationInfo)
-          .withOptimizedDictionary(_config.isOptimizeDictionary()
-              || _config.isOptimizeDictionaryForMetrics() && fieldSpec.getFieldType() == FieldSpec.FieldType.METRIC)
-          .onHeap(segmentCreationSpec.isOnHeap())
-          .withForwardIndexDisabled(forwardIndexDisabled)
-          .withTextCommitOnClose(true)
-          .withImmutableToMutableIdMap(immutableToMutableIdMap)
-          .withRealtimeConversion(segmentCreationSpec.isRealtimeConversion())
-          .withConsumerDir(segmentCreationSpec.getConsumerDir())
-          .withTableNameWithType(_config.getTableConfig().getTableName())
-          .withContinueOnError(_config.isContinueOnError())
-          .build();
-      //@formatter:on
-
-      FieldIndexConfigs config = adaptConfig(columnName, originalConfig, columnIndexCreationInfo, segmentCreationSpec);
-
-      if (dictEnabledColumn) {
-        // Create dictionary-encoded index
-        // Initialize dictionary creator
-        // TODO: Dictionary creator holds all unique values on heap. Consider keeping dictionary instead of creator
-        //       which uses off-heap memory.
-
-        DictionaryIndexConfig dictConfig = config.getConfig(StandardIndexes.dictionary());
-        if (!dictConfig.isEnabled()) {
-          LOGGER.info("Creating dictionary index in column {}.{} even when it is disabled in config",
-              segmentCreationSpec.getTableName(), columnName);
-        }
-
-        // override dictionary type if configured to do so
-        if (_config.isOptimizeDictionaryType()) {
-          LOGGER.info("Overriding dictionary type for column: {} using var-length dictionary: {}", columnName,
-              columnIndexCreationInfo.isUseVarLengthDictionary());
-          dictConfig = new DictionaryIndexConfig(dictConfig, columnIndexCreationInfo.isUseVarLengthDictionary());
-        }
+  /**
+   * Initializes the dictionary and the index creators for the given column. This method can be invoked concurrently
+   * for different columns.
+   */
+  private void initColumn(String columnName, SegmentIndexCreationInfo segmentIndexCreationInfo,
+      @Nullable int[] immutableToMutableIdMap)
+      throws Exception {
+    FieldSpec fieldSpec = _schema.getFieldSpecFor(columnName);
+    Preconditions.checkState(fieldSpec != null, "Failed to find column: %s in the schema", columnName);
+    if (fieldSpec.isVirtualColumn()) {
+      LOGGER.warn("Ignoring index creation for virtual column {}", columnName);
+      return;
+    }
 
-        SegmentDictionaryCreator creator =
-            new DictionaryIndexPlugin().getIndexType().createIndexCreator(context, dictConfig);
+    FieldIndexConfigs originalConfig = _config.getIndexConfigsByColName().get(columnName);
+    ColumnIndexCreationInfo columnIndexCreationInfo = _indexCreationInfoMap.get(columnName);
+    Preconditions.checkNotNull(columnIndexCreationInfo, "Missing index creation info for column: %s", columnName);
+    boolean dictEnabledColumn = createDictionaryForColumn(columnIndexCreationInfo, _config, fieldSpec);
+    if (originalConfig.getConfig(StandardIndexes.inverted()).isEnabled()) {
+      Preconditions.checkState(dictEnabledColumn,
+          "Cannot create inverted index for raw index column: %s", columnName);
+    }
+
+    IndexType<ForwardIndexConfig, ?, ForwardIndexCreator> forwardIdx = StandardIndexes.forward();
+    boolean forwardIndexDisabled = !originalConfig.getConfig(forwardIdx).isEnabled();
+
+    //@formatter:off
+    IndexCreationContext.Common context = IndexCreationContext.builder()
+        .withIndexDir(_indexDir)
+        .withDictionary(dictEnabledColumn)
+        .withFieldSpec(fieldSpec)
+        .withTotalDocs(segmentIndexCreationInfo.getTotalDocs())
+        .withColumnIndexCreationInfo(columnIndexCreationInfo)
+        .withOptimizedDictionary(_config.isOptimizeDictionary()
+            || _config.isOptimizeDictionaryForMetrics() && fieldSpec.getFieldType() == FieldSpec.FieldType.METRIC)
+        .onHeap(_config.isOnHeap())
+        .withForwardIndexDisabled(forwardIndexDisabled)
+        .withTextCommitOnClose(true)
+        .withImmutableToMutableIdMap(immutableToMutableIdMap)
+        .withRealtimeConversion(_config.isRealtimeConversion())
+        .withConsumerDir(_config.getConsumerDir())
+        .withSegmentName(_config.getSegmentName())
+        .withTableNameWithType(_config.getTableConfig().getTableName())
+        .withContinueOnError(_config.isContinueOnError())
+        .build();
+    //@formatter:on
+
+    FieldIndexConfigs config = adaptConfig(columnName, originalConfig, columnIndexCreationInfo, _config);
 
-        try {
-          creator.build(context.getSortedUniqueElementsArray());
-        } catch (Exception e) {
-          LOGGER.error("Error building dictionary for field: {}, cardinality: {}, number of bytes per entry: {}",
-              context.getFieldSpec().getName(), context.getCardinality(), creator.getNumBytesPerEntry());
-          throw e;
-        }
+    if (dictEnabledColumn) {
+      // Create dictionary-encoded index
+      // Initialize dictionary creator
+      // TODO: Dictionary creator holds all unique values on heap. Consider keeping dictionary instead of creator
+      //       which uses off-heap memory.
+
+      DictionaryIndexConfig dictConfig = config.getConfig(StandardIndexes.dictionary());
+      if (!dictConfig.isEnabled()) {
+        LOGGER.info("Creating dictionary index in column {}.{} even when it is disabled in config",
+            _config.getTableName(), columnName);
+      }
 
-        _dictionaryCreatorMap.put(columnName, creator);
+      // override dictionary type if configured to do so
+      if (_config.isOptimizeDictionaryType()) {
+        LOGGER.info("Overriding dictionary type for column: {} using var-length dictionary: {}", columnName,
+            columnIndexCreationInfo.isUseVarLengthDictionary());
+        dictConfig = new DictionaryIndexConfig(dictConfig, columnIndexCreationInfo.isUseVarLengthDictionary());
       }
 
-      Map<IndexType<?, ?, ?>, IndexCreator> creatorsByIndex =
-          Maps.newHashMapWithExpectedSize(IndexService.getInstance().getAllIndexes().size());
-      for (IndexType<?, ?, ?> index : IndexService.getInstance().getAllIndexes()) {
-        if (index.getIndexBuildLifecycle() != IndexType.BuildLifecycle.DURING_SEGMENT_CREATION) {
-          continue;
-        }
-        tryCreateIndexCreator(creatorsByIndex, index, context, config);
+      SegmentDictionaryCreator creator =
+          new DictionaryIndexPlugin().getIndexType().createIndexCreator(context, dictConfig);
+
+      try {
+        creator.build(context.getSortedUniqueElementsArray());
+      } catch (Exception e) {
+        LOGGER.error("Error building dictionary for field: {}, cardinality: {}, number of bytes per entry: {}",
+            context.getFieldSpec().getName(), context.getCardinality(), creator.getNumBytesPerEntry());
+        throw e;
       }
-      // TODO: Remove this when values stored as ForwardIndex stop depending on TextIndex config
-      IndexCreator oldFwdCreator = creatorsByIndex.get(forwardIdx);
-      if (oldFwdCreator != null) {
-        Object fakeForwardValue = calculateRawValueForTextIndex(dictEnabledColumn, config, fieldSpec);
-        if (fakeForwardValue != null) {
-          ForwardIndexCreator castedOldFwdCreator = (ForwardIndexCreator) oldFwdCreator;
-          SameValueForwardIndexCreator fakeValueFwdCreator =
-              new SameValueForwardIndexCreator(fakeForwardValue, castedOldFwdCreator);
-          creatorsByIndex.put(forwardIdx, fakeValueFwdCreator);
-        }
+
+      synchronized (this) {
+        _dictionaryCreatorMap.put(columnName, creator);
       }
-      _creatorsByColAndIndex.put(columnName, creatorsByIndex);
     }
 
-    // Although NullValueVector is implemented as an index, it needs to be treated in a different way than other indexes
-    for (FieldSpec fieldSpec : schema.getAllFieldSpecs()) {
-      String columnName = fieldSpec.getName();
-      if (isNullable(fieldSpec)) {
-        // Initialize Null value vector map
-        LOGGER.info("Column: {} is nullable", columnName);
-        _nullValueVectorCreatorMap.put(columnName, new NullValueVectorCreator(_indexDir, columnName));
-      } else {
-        LOGGER.info("Column: {} is not nullable", columnName);
+    Map<IndexType<?, ?, ?>, IndexCreator> creatorsByIndex =
+        Maps.newHashMapWithExpectedSize(IndexService.getInstance().getAllIndexes().size());
+    for (IndexType<?, ?, ?> index : IndexService.getInstance().getAllIndexes()) {
+      if (index.getIndexBuildLifecycle() != IndexType.BuildLifecycle.DURING_SEGMENT_CREATION) {
+        continue;
+      }
+      tryCreateIndexCreator(creatorsByIndex, index, context, config);
+    }
+    // TODO: Remove this when values stored as ForwardIndex stop depending on TextIndex config
+    IndexCreator oldFwdCreator = creatorsByIndex.get(forwardIdx);
+    if (oldFwdCreator != null) {
+      Object fakeForwardValue = calculateRawValueForTextIndex(dictEnabledColumn, config, fieldSpec);
+      if (fakeForwardValue != null) {
+        ForwardIndexCreator castedOldFwdCreator = (ForwardIndexCreator) oldFwdCreator;
+        SameValueForwardIndexCreator fakeValueFwdCreator =
+            new SameValueForwardIndexCreator(fakeForwardValue, castedOldFwdCreator);
+        creatorsByIndex.put(forwardIdx, fakeValueFwdCreator);
       }
     }
+    synchronized (this) {
+      _creatorsByColAndIndex.put(columnName, creatorsByIndex);
+    }
   }
 
   private boolean isNullable(FieldSpec fieldSpec) {
@@ -323,27 +357,18 @@ public class SegmentColumnarIndexCreator implements SegmentCreator {
   @Override
   public void indexRow(GenericRow row)
       throws IOException {
-    for (Map.Entry<String, Map<IndexType<?, ?, ?>, IndexCreator>> byColEntry : _creatorsByColAndIndex.entrySet()) {
-      String columnName = byColEntry.getKey();
-
-      Object columnValueToIndex = row.getValue(columnName);
-      if (columnValueToIndex == null) {
-        throw new RuntimeException("Null value for column:" + columnName);
+    if (_executorService != null) {
+      // Buffer the rows and index them concurrently for all the columns. The row needs to be copied because the
+      // caller might reuse it.
+      _pendingRows.add(row.copy());
+      if (_pendingRows.size() == PARALLEL_INDEXING_BATCH_SIZE) {
+        indexPendingRows();
       }
+      return;
+    }
 
-      Map<IndexType<?, ?, ?>, IndexCreator> creatorsByIndex = byColEntry.getValue();
-
-      FieldSpec fieldSpec = _schema.getFieldSpecFor(columnName);
-      SegmentDictionaryCreator dictionaryCreator = _dictionaryCreatorMap.get(columnName);
-      try {
-        if (fieldSpec.isSingleValueField()) {
-          indexSingleValueRow(dictionaryCreator, columnValueToIndex, creatorsByIndex);
-        } else {
-          indexMultiValueRow(dictionaryCreator, (Object[]) columnValueToIndex, creatorsByIndex);
-        }
-      } catch (JsonParseException jpe) {
-        throw new ColumnJsonParserException(columnName, jpe);
-      }
+    for (Map.Entry<String, Map<IndexType<?, ?, ?>, IndexCreator>> byColEntry : _creatorsByColAndIndex.entrySet()) {
+      indexColumnValue(byColEntry.getKey(), row, byColEntry.getValue());
     }
 
     for (Map.Entry<String, NullValueVectorCreator> entry : _nullValueVectorCreatorMap.entrySet()) {
@@ -356,6 +381,56 @@ public class SegmentColumnarIndexCreator implements SegmentCreator {
     _docIdCounter++;
   }
 
+  private void indexColumnValue(String columnName, GenericRow row,
+      Map<IndexType<?, ?, ?>, IndexCreator> creatorsByIndex)
+      throws IOException {
+    Object columnValueToIndex = row.getValue(columnName);
+    if (columnValueToIndex == null) {
+      throw new RuntimeException("Null value for column:" + columnName);
+    }
+
+    FieldSpec fieldSpec = _schema.getFieldSpecFor(columnName);
+    SegmentDictionaryCreator dictionaryCreator = _dictionaryCreatorMap.get(columnName);
+    try {
+      if (fieldSpec.isSingleValueField()) {
+        indexSingleValueRow(dictionaryCreator, columnValueToIndex, creatorsByIndex);
+      } else {
+        indexMultiValueRow(dictionaryCreator, (Object[]) columnValueToIndex, creatorsByIndex);
+      }
+    } catch (JsonParseException jpe) {
+      throw new ColumnJsonParserException(columnName, jpe);
+    }
+  }
+
+  /**
+   * Indexes the buffered rows, where each column (including its null value vector) is indexed by a separate task.
+   */
+  private void indexPendingRows()
+      throws IOException {
+    if (_pendingRows.isEmpty()) {
+      return;
+    }
+    Set<String> columns = new HashSet<>(_creatorsByColAndIndex.keySet());
+    columns.addAll(_nullValueVectorCreatorMap.keySet());
+    int startDocId = _docIdCounter;
+    forEachColumnUnchecked(columns, columnName -> {
+      Map<IndexType<?, ?, ?>, IndexCreator> creatorsByIndex = _creatorsByColAndIndex.get(columnName);
+      NullValueVectorCreator nullValueVectorCreator = _nullValueVectorCreatorMap.get(columnName);
+      int numRows = _pendingRows.size();
+      for (int i = 0; i < numRows; i++) {
+        GenericRow row = _pendingRows.get(i);
+        if (creatorsByIndex != null) {
+          indexColumnValue(columnName, row, creatorsByIndex);
+        }
+        if (nullValueVectorCreator != null && row.isNullValue(columnName)) {
+          nullValueVectorCreator.setNull(startDocId + i);
+        }
+      }
+    });
+    _docIdCounter += _pendingRows.size();
+    _pendingRows.clear();
+  }
+
   /**
    * Indexes a column from the given segment.
    *
@@ -417,6 +492,31 @@ public class SegmentColumnarIndexCreator implements SegmentCreator {
     }
   }
 
+  @Override
+  public void indexColumns(Collection<String> columnNames, @Nullable int[] sortedDocIds, IndexSegment segment,
+      @Nullable ThreadSafeMutableRoaringBitmap validDocIds)
+      throws IOException {
+    forEachColumnUnchecked(columnNames, columnName -> indexColumn(columnName, sortedDocIds, segment, validDocIds));
+  }
+
+  @Override
+  public void indexColumn(String columnName, Iterator<GenericRow> rows)
+      throws IOException {
+    Map<IndexType<?, ?, ?>, IndexCreator> creatorsByIndex = _creatorsByColAndIndex.get(columnName);
+    NullValueVectorCreator nullValueVectorCreator = _nullValueVectorCreatorMap.get(columnName);
+    int docId = 0;
+    while (rows.hasNext()) {
+      GenericRow row = rows.next();
+      if (creatorsByIndex != null) {
+        indexColumnValue(columnName, row, creatorsByIndex);
+      }
+      if (nullValueVectorCreator != null && row.isNullValue(columnName)) {
+        nullValueVectorCreator.setNull(docId);
+      }
+      docId++;
+    }
+  }
+
   private void indexColumnValue(PinotSegmentColumnReader colReader,
       Map<IndexType<?, ?, ?>, IndexCreator> creatorsByIndex, String columnName, FieldSpec fieldSpec,
       SegmentDictionaryCreator dictionaryCreator, int sourceDocId, int onDiskDocPos,
@@ -497,18 +597,99 @@ public class SegmentColumnarIndexCreator implements SegmentCreator {
   @Override
   public void seal()
       throws ConfigurationException, IOException {
-    for (SegmentDictionaryCreator creator : _dictionaryCreatorMap.values()) {
-      creator.seal();
+    if (_executorService != null) {
+      indexPendingRows();
+      Set<String> columns = new HashSet<>(_creatorsByColAndIndex.keySet());
+      columns.addAll(_dictionaryCreatorMap.keySet());
+      columns.addAll(_nullValueVectorCreatorMap.keySet());
+      forEachColumnUnchecked(columns, this::sealColumn);
+    } else {
+      for (SegmentDictionaryCreator creator : _dictionaryCreatorMap.values()) {
+        creator.seal();
+      }
+      for (NullValueVectorCreator creator : _nullValueVectorCreatorMap.values()) {
+        creator.seal();
+      }
+      for (Map<IndexType<?, ?, ?>, IndexCreator> creatorsByType : _creatorsByColAndIndex.values()) {
+        for (IndexCreator creator : creatorsByType.values()) {
+          creator.seal();
+        }
+      }
+    }
+    writeMetadata();
+  }
+
+  private void sealColumn(String columnName)
+      throws IOException {
+    SegmentDictionaryCreator dictionaryCreator = _dictionaryCreatorMap.get(columnName);
+    if (dictionaryCreator != null) {
+      dictionaryCreator.seal();
     }
-    for (NullValueVectorCreator creator : _nullValueVectorCreatorMap.values()) {
-      creator.seal();
+    NullValueVectorCreator nullValueVectorCreator = _nullValueVectorCreatorMap.get(columnName);
+    if (nullValueVectorCreator != null) {
+      nullValueVectorCreator.seal();
     }
-    for (Map<IndexType<?, ?, ?>, IndexCreator> creatorsByType : _creatorsByColAndIndex.values()) {
-      for (IndexCreator creator : creatorsByType.values()) {
+    Map<IndexType<?, ?, ?>, IndexCreator> creatorsByIndex = _creatorsByColAndIndex.get(columnName);
+    if (creatorsByIndex != null) {
+      for (IndexCreator creator : creatorsByIndex.values()) {
         creator.seal();
       }
     }
-    writeMetadata();
+  }
+
+  /**
+   * Runs the given task for each column, concurrently when the executor is configured. All the tasks are finished
+   * before the first exception (if any) is rethrown.
+   */
+  private void forEachColumn(Collection<String> columnNames, ColumnTask task)
+      throws Exception {
+    if (_executorService == null) {
+      for (String columnName : columnNames) {
+        task.run(columnName);
+      }
+      return;
+    }
+    List<Future<?>> futures = new ArrayList<>(columnNames.size());
+    for (String columnName : columnNames) {
+      futures.add(_executorService.submit(() -> {
+        task.run(columnName);
+        return null;
+      }));
+    }
+    Exception exception = null;
+    for (Future<?> future : futures) {
+      try {
+        future.get();
+      } catch (ExecutionException e) {
+        if (exception == null) {
+          Throwable cause = e.getCause();
+          if (cause instanceof Error) {
+            throw (Error) cause;
+          }
+          exception = (Exception) cause;
+        }
+      }
+    }
+    if (exception != null) {
+      throw exception;
+    }
+  }
+
+  private void forEachColumnUnchecked(Collection<String> columnNames, ColumnTask task)
+      throws IOException {
+    try {
+      forEachColumn(columnNames, task);
+    } catch (IOException | RuntimeException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  @FunctionalInterface
+  private interface ColumnTask {
+    void run(String columnName)
+        throws Exception;
   }
 
   private void writeMetadata()
@@ -811,6 +992,11 @@ public class SegmentColumnarIndexCreator implements SegmentCreator {
         _creatorsByColAndIndex.values().stream().flatMap(map -> map.values().stream()).collect(Collectors.toList());
     creators.addAll(_nullValueVectorCreatorMap.values());
     creators.addAll(_dictionaryCreatorMap.values());
+    _pendingRows.clear();
+    if (_executorService != null) {
+      _executorService.shutdownNow();
+      _executorService = null;
+    }
     FileUtils.close(creators);
   }
 }
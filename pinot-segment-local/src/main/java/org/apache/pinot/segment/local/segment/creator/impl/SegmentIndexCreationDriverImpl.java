@@ -19,6 +19,7 @@
 package org.apache.pinot.segment.local.segment.creator.impl;
 
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
@@ -30,6 +31,8 @@ import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
@@ -38,6 +41,7 @@ import org.apache.commons.io.FileUtils;
 import org.apache.pinot.common.metrics.MinionMeter;
 import org.apache.pinot.common.metrics.MinionMetrics;
 import org.apache.pinot.segment.local.realtime.converter.stats.RealtimeSegmentSegmentCreationDataSource;
+import org.apache.pinot.segment.local.segment.creator.ColumnarSegmentCreationDataSource;
 import org.apache.pinot.segment.local.segment.creator.RecordReaderSegmentCreationDataSource;
 import org.apache.pinot.segment.local.segment.creator.TransformPipeline;
 import org.apache.pinot.segment.local.segment.index.converter.SegmentFormatConverterFactory;
@@ -80,6 +84,7 @@ import org.apache.pinot.spi.data.FieldSpec.DataType;
 import org.apache.pinot.spi.data.IngestionSchemaValidator;
 import org.apache.pinot.spi.data.Schema;
 import org.apache.pinot.spi.data.SchemaValidatorFactory;
+import org.apache.pinot.spi.data.readers.ColumnarRecordReader;
 import org.apache.pinot.spi.data.readers.FileFormat;
 import org.apache.pinot.spi.data.readers.GenericRow;
 import org.apache.pinot.spi.data.readers.RecordReader;
@@ -167,8 +172,15 @@ public class SegmentIndexCreationDriverImpl implements SegmentIndexCreationDrive
 
   public void init(SegmentGeneratorConfig config, RecordReader recordReader)
       throws Exception {
-    init(config, new RecordReaderSegmentCreationDataSource(recordReader),
-        new TransformPipeline(config.getTableConfig(), config.getSchema()));
+    SegmentCreationDataSource dataSource;
+    if (ColumnarSegmentCreationDataSource.isSupported(config, recordReader)) {
+      LOGGER.info("Building segment by column from record reader: {}", recordReader.getClass().getSimpleName());
+      dataSource = new ColumnarSegmentCreationDataSource((ColumnarRecordReader) recordReader, config.getTableConfig(),
+          config.getSchema());
+    } else {
+      dataSource = new RecordReaderSegmentCreationDataSource(recordReader);
+    }
+    init(config, dataSource, new TransformPipeline(config.getTableConfig(), config.getSchema()));
   }
 
   public void init(SegmentGeneratorConfig config, SegmentCreationDataSource dataSource,
@@ -279,37 +291,10 @@ public class SegmentIndexCreationDriverImpl implements SegmentIndexCreationDrive
           immutableToMutableIdMap);
 
       // Build the index
-      _recordReader.rewind();
-      LOGGER.info("Start building IndexCreator!");
-      GenericRow reuse = new GenericRow();
-      while (_recordReader.hasNext()) {
-        long recordReadStopTimeNs;
-        reuse.clear();
-
-        TransformPipeline.Result result;
-        try {
-          long recordReadStartTimeNs = System.nanoTime();
-          GenericRow decodedRow = _recordReader.next(reuse);
-          result = _transformPipeline.processRow(decodedRow);
-          recordReadStopTimeNs = System.nanoTime();
-          _totalRecordReadTimeNs += recordReadStopTimeNs - recordReadStartTimeNs;
-        } catch (Exception e) {
-          if (!_continueOnError) {
-            throw new RuntimeException("Error occurred while reading row during indexing", e);
-          } else {
-            _incompleteRowsFound++;
-            LOGGER.debug("Error occurred while reading row during indexing", e);
-            continue;
-          }
-        }
-
-        for (GenericRow row : result.getTransformedRows()) {
-          _indexCreator.indexRow(row);
-        }
-        _totalIndexTimeNs += System.nanoTime() - recordReadStopTimeNs;
-        _incompleteRowsFound += result.getIncompleteRowCount();
-        _skippedRowsFound += result.getSkippedRowCount();
-        _sanitizedRowsFound += result.getSanitizedRowCount();
+      if (_dataSource instanceof ColumnarSegmentCreationDataSource) {
+        indexByColumn((ColumnarSegmentCreationDataSource) _dataSource);
+      } else {
+        indexByRow();
       }
     } catch (Exception e) {
       _indexCreator.close();
@@ -346,6 +331,58 @@ public class SegmentIndexCreationDriverImpl implements SegmentIndexCreationDrive
     handlePostCreation();
   }
 
+  private void indexByRow()
+      throws Exception {
+    _recordReader.rewind();
+    LOGGER.info("Start building IndexCreator!");
+    GenericRow reuse = new GenericRow();
+    while (_recordReader.hasNext()) {
+      long recordReadStopTimeNs;
+      reuse.clear();
+
+      TransformPipeline.Result result;
+      try {
+        long recordReadStartTimeNs = System.nanoTime();
+        GenericRow decodedRow = _recordReader.next(reuse);
+        result = _transformPipeline.processRow(decodedRow);
+        recordReadStopTimeNs = System.nanoTime();
+        _totalRecordReadTimeNs += recordReadStopTimeNs - recordReadStartTimeNs;
+      } catch (Exception e) {
+        if (!_continueOnError) {
+          throw new RuntimeException("Error occurred while reading row during indexing", e);
+        } else {
+          _incompleteRowsFound++;
+          LOGGER.debug("Error occurred while reading row during indexing", e);
+          continue;
+        }
+      }
+
+      for (GenericRow row : result.getTransformedRows()) {
+        _indexCreator.indexRow(row);
+      }
+      _totalIndexTimeNs += System.nanoTime() - recordReadStopTimeNs;
+      _incompleteRowsFound += result.getIncompleteRowCount();
+      _skippedRowsFound += result.getSkippedRowCount();
+      _sanitizedRowsFound += result.getSanitizedRowCount();
+    }
+  }
+
+  /**
+   * Indexes the data one column at a time. The columns are read and transformed independently, so no record can be
+   * skipped (see {@link ColumnarSegmentCreationDataSource#isSupported(SegmentGeneratorConfig, RecordReader)}).
+   */
+  private void indexByColumn(ColumnarSegmentCreationDataSource dataSource)
+      throws Exception {
+    LOGGER.info("Start building IndexCreator by column!");
+    long indexStartTimeNs = System.nanoTime();
+    for (String column : _dataSchema.getPhysicalColumnNames()) {
+      try (ColumnarSegmentCreationDataSource.ColumnRowIterator rowIterator = dataSource.getColumnRows(column)) {
+        _indexCreator.indexColumn(column, rowIterator);
+      }
+    }
+    _totalIndexTimeNs += System.nanoTime() - indexStartTimeNs;
+  }
+
   public void buildByColumn(IndexSegment indexSegment, ThreadSafeMutableRoaringBitmap validDocIds)
       throws Exception {
     // Count the number of documents and gather per-column statistics
@@ -370,10 +407,7 @@ public class SegmentIndexCreationDriverImpl implements SegmentIndexCreationDrive
       LOGGER.info("Start building Index by column");
 
       TreeSet<String> columns = _dataSchema.getPhysicalColumnNames();
-
-      for (String col : columns) {
-        _indexCreator.indexColumn(col, sortedDocIds, indexSegment, validDocIds);
-      }
+      _indexCreator.indexColumns(columns, sortedDocIds, indexSegment, validDocIds);
     } catch (Exception e) {
       _indexCreator.close();
       throw e;
@@ -538,10 +572,17 @@ public class SegmentIndexCreationDriverImpl implements SegmentIndexCreationDrive
     if (CollectionUtils.isNotEmpty(starTreeIndexConfigs) || enableDefaultStarTree) {
       MultipleTreesBuilder.BuildMode buildMode =
           _config.isOnHeap() ? MultipleTreesBuilder.BuildMode.ON_HEAP : MultipleTreesBuilder.BuildMode.OFF_HEAP;
+      int parallelism = _config.getIndexCreationParallelism();
+      ExecutorService executorService = parallelism > 1 ? Executors.newFixedThreadPool(parallelism,
+          new ThreadFactoryBuilder().setNameFormat("star-tree-creation-%d").setDaemon(true).build()) : null;
       try (
           MultipleTreesBuilder builder = new MultipleTreesBuilder(starTreeIndexConfigs, enableDefaultStarTree, indexDir,
               buildMode)) {
-        builder.build();
+        builder.build(executorService);
+      } finally {
+        if (executorService != null) {
+          executorService.shutdownNow();
+        }
       }
     }
   }
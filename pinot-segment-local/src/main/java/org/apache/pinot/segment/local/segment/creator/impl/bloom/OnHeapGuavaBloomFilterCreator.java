@@ -62,15 +62,22 @@ public class OnHeapGuavaBloomFilterCreator implements BloomFilterCreator {
       BloomFilterConfig bloomFilterConfig, FieldSpec.DataType dataType) {
     _dataType = dataType;
     _bloomFilterFile = new File(indexDir, columnName + V1Constants.Indexes.BLOOM_FILTER_FILE_EXTENSION);
-    // Calculate the actual fpp with regards to the max size for the bloom filter
+    double fpp = getFpp(bloomFilterConfig, cardinality);
+    LOGGER.info("Creating bloom filter with cardinality: {}, fpp: {}", cardinality, fpp);
+    _bloomFilter = BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8), cardinality, fpp);
+  }
+
+  /**
+   * Returns the actual fpp (false positive probability) with regards to the max size for the bloom filter.
+   */
+  public static double getFpp(BloomFilterConfig bloomFilterConfig, int cardinality) {
     double fpp = bloomFilterConfig.getFpp();
     int maxSizeInBytes = bloomFilterConfig.getMaxSizeInBytes();
     if (maxSizeInBytes > 0) {
       double minFpp = GuavaBloomFilterReaderUtils.computeFPP(maxSizeInBytes, cardinality);
       fpp = Math.max(fpp, minFpp);
     }
-    LOGGER.info("Creating bloom filter with cardinality: {}, fpp: {}", cardinality, fpp);
-    _bloomFilter = BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8), cardinality, fpp);
+    return fpp;
   }
 
   @Override
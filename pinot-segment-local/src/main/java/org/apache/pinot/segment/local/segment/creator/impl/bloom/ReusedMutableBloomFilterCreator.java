@@ -0,0 +1,118 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.segment.creator.impl.bloom;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.segment.local.realtime.impl.bloom.MutableBloomFilter;
+import org.apache.pinot.segment.local.segment.index.readers.bloom.GuavaBloomFilterReaderUtils;
+import org.apache.pinot.segment.spi.V1Constants;
+import org.apache.pinot.segment.spi.index.creator.BloomFilterCreator;
+import org.apache.pinot.spi.config.table.BloomFilterConfig;
+import org.apache.pinot.spi.data.FieldSpec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Bloom filter creator for the realtime segment conversion, which reuses the bloom filter committed by the mutable
+ * segment (see {@link MutableBloomFilter#commit()}) instead of rebuilding it from the values.
+ * <p>The bloom filter is value based, so it can be reused regardless of the document order of the converted segment.
+ * When documents are dropped during the conversion (e.g. commit time compaction), the bloom filter might contain extra
+ * values, which only affects the false positive rate.
+ */
+public class ReusedMutableBloomFilterCreator implements BloomFilterCreator {
+  private static final Logger LOGGER = LoggerFactory.getLogger(ReusedMutableBloomFilterCreator.class);
+
+  // Header of the committed file: type value (int), version (int), strategy ordinal (byte)
+  private static final int NUM_HASH_FUNCTIONS_OFFSET = 2 * Integer.BYTES + 1;
+
+  private final File _committedFile;
+  private final File _bloomFilterFile;
+  private final FieldSpec.DataType _dataType;
+
+  public ReusedMutableBloomFilterCreator(File indexDir, String columnName, File committedFile,
+      FieldSpec.DataType dataType) {
+    _committedFile = committedFile;
+    _bloomFilterFile = new File(indexDir, columnName + V1Constants.Indexes.BLOOM_FILTER_FILE_EXTENSION);
+    _dataType = dataType;
+  }
+
+  /**
+   * Returns whether the committed bloom filter can be reused for the given number of values, i.e. its fpp (false
+   * positive probability) is not worse than the expected fpp, and it is not much larger than a new bloom filter. The
+   * mutable bloom filter is sized before the values are known (e.g. with the segment capacity for raw columns), so it
+   * might be too small or too large for the actual number of values.
+   */
+  public static boolean canReuse(File committedFile, int numValues, BloomFilterConfig bloomFilterConfig) {
+    int numHashFunctions;
+    long numBits;
+    try (DataInputStream in = new DataInputStream(new FileInputStream(committedFile))) {
+      in.skipBytes(NUM_HASH_FUNCTIONS_OFFSET);
+      numHashFunctions = in.readUnsignedByte();
+      numBits = (long) in.readInt() * Long.SIZE;
+    } catch (IOException e) {
+      LOGGER.warn("Caught exception while reading committed bloom filter: {}, rebuilding it", committedFile, e);
+      return false;
+    }
+    // Compare with the actual fpp of a new bloom filter, which is slightly off the configured fpp because the number of
+    // hash functions is rounded
+    long expectedNumBits = GuavaBloomFilterReaderUtils.computeNumBits(numValues,
+        OnHeapGuavaBloomFilterCreator.getFpp(bloomFilterConfig, numValues));
+    double expectedFpp = GuavaBloomFilterReaderUtils.computeFPP(expectedNumBits,
+        GuavaBloomFilterReaderUtils.computeNumHashFunctions(numValues, expectedNumBits), numValues);
+    double fpp = GuavaBloomFilterReaderUtils.computeFPP(numBits, numHashFunctions, numValues);
+    boolean canReuse = fpp <= expectedFpp && numBits <= 2 * Math.max(expectedNumBits, Long.SIZE);
+    if (!canReuse) {
+      LOGGER.info("Cannot reuse committed bloom filter: {} with {} bits for {} values (fpp: {}, expected fpp: {}), "
+          + "rebuilding it", committedFile, numBits, numValues, fpp, expectedFpp);
+    }
+    return canReuse;
+  }
+
+  @Override
+  public FieldSpec.DataType getDataType() {
+    return _dataType;
+  }
+
+  @Override
+  public void add(Object value, int dictId) {
+  }
+
+  @Override
+  public void add(Object[] values, int[] dictIds) {
+  }
+
+  @Override
+  public void add(String value) {
+  }
+
+  @Override
+  public void seal()
+      throws IOException {
+    FileUtils.copyFile(_committedFile, _bloomFilterFile);
+  }
+
+  @Override
+  public void close() {
+  }
+}
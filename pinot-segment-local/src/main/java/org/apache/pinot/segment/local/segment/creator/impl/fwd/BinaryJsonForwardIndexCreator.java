@@ -0,0 +1,95 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.segment.creator.impl.fwd;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.pinot.segment.local.io.writer.impl.VarByteChunkForwardIndexWriterV4;
+import org.apache.pinot.segment.local.utils.BinaryJsonUtils;
+import org.apache.pinot.segment.spi.V1Constants;
+import org.apache.pinot.segment.spi.compression.ChunkCompressionType;
+import org.apache.pinot.segment.spi.index.creator.ForwardIndexCreator;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+
+
+/**
+ * Raw forward index creator for single-value JSON column with {@code BINARY_JSON} compression codec, where each JSON
+ * document is stored in the pre-parsed binary format (see {@link BinaryJsonUtils}) so that the JSON path lookups can
+ * skip directly to the field without parsing the whole document.
+ * <p>The index file contains the {@link #MAGIC_BYTES} followed by a {@link VarByteChunkForwardIndexWriterV4} index of
+ * the binary documents.
+ */
+public class BinaryJsonForwardIndexCreator implements ForwardIndexCreator {
+  public static final byte[] MAGIC_BYTES = "BJSON.v1".getBytes(StandardCharsets.UTF_8);
+
+  private final File _indexFile;
+  private final File _tempIndexFile;
+  private final VarByteChunkForwardIndexWriterV4 _indexWriter;
+
+  public BinaryJsonForwardIndexCreator(File baseIndexDir, ChunkCompressionType compressionType, String column,
+      int maxLength, int targetMaxChunkSizeBytes, int targetDocsPerChunk)
+      throws IOException {
+    _indexFile = new File(baseIndexDir, column + V1Constants.Indexes.RAW_SV_FORWARD_INDEX_FILE_EXTENSION);
+    _tempIndexFile =
+        new File(baseIndexDir, column + V1Constants.Indexes.RAW_SV_FORWARD_INDEX_FILE_EXTENSION + ".bjson.tmp");
+    FileUtils.deleteQuietly(_tempIndexFile);
+    int chunkSize = ForwardIndexUtils.getDynamicTargetChunkSize(maxLength, targetDocsPerChunk, targetMaxChunkSizeBytes);
+    _indexWriter = new VarByteChunkForwardIndexWriterV4(_tempIndexFile, compressionType, chunkSize);
+  }
+
+  @Override
+  public boolean isDictionaryEncoded() {
+    return false;
+  }
+
+  @Override
+  public boolean isSingleValue() {
+    return true;
+  }
+
+  @Override
+  public DataType getValueType() {
+    return DataType.STRING;
+  }
+
+  @Override
+  public void putString(String value) {
+    _indexWriter.putBytes(BinaryJsonUtils.fromJsonString(value));
+  }
+
+  @Override
+  public void close()
+      throws IOException {
+    _indexWriter.close();
+    try (OutputStream outputStream = new FileOutputStream(_indexFile);
+        InputStream inputStream = new FileInputStream(_tempIndexFile)) {
+      outputStream.write(MAGIC_BYTES);
+      IOUtils.copyLarge(inputStream, outputStream);
+    } finally {
+      FileUtils.deleteQuietly(_tempIndexFile);
+    }
+  }
+}
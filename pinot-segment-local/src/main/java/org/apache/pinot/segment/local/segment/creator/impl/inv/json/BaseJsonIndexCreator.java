@@ -19,6 +19,7 @@
 package org.apache.pinot.segment.local.segment.creator.impl.inv.json;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.base.Preconditions;
 import it.unimi.dsi.fastutil.ints.IntArrayList;
 import it.unimi.dsi.fastutil.ints.IntList;
@@ -121,6 +122,24 @@ public abstract class BaseJsonIndexCreator implements JsonIndexCreator {
     addFlattenedRecords(flattenedRecord);
   }
 
+  @Override
+  public void add(JsonNode jsonNode)
+      throws IOException {
+    List<Map<String, String>> flattenedRecord;
+    try {
+      flattenedRecord = JsonUtils.flatten(jsonNode, _jsonIndexConfig);
+    } catch (Exception e) {
+      // Same as adding the JSON string, skip the record if it cannot be flattened
+      if (_jsonIndexConfig.getSkipInvalidJson() || _continueOnError) {
+        MetricUtils.updateIndexingErrorMetric(_tableNameWithType, JsonIndexType.INDEX_DISPLAY_NAME);
+        flattenedRecord = JsonUtils.SKIPPED_FLATTENED_RECORD;
+      } else {
+        throw e;
+      }
+    }
+    addFlattenedRecords(flattenedRecord);
+  }
+
   @Override
   public void add(Map value)
       throws IOException {
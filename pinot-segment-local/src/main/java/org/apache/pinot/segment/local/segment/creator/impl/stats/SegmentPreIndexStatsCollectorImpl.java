@@ -111,6 +111,21 @@ public class SegmentPreIndexStatsCollectorImpl implements SegmentPreIndexStatsCo
     _totalDocCount++;
   }
 
+  /**
+   * Collects a value of the given column. This is used when the stats are collected column by column instead of row by
+   * row, in which case the total doc count should be set via {@link #setTotalDocCount(int)}.
+   */
+  public void collectColumnValue(String column, Object value) {
+    AbstractColumnStatisticsCollector columnStatsCollector = _columnStatsCollectorMap.get(column);
+    if (columnStatsCollector != null) {
+      columnStatsCollector.collect(value);
+    }
+  }
+
+  public void setTotalDocCount(int totalDocCount) {
+    _totalDocCount = totalDocCount;
+  }
+
   @Override
   public int getTotalDocCount() {
     return _totalDocCount;
@@ -0,0 +1,237 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.segment.creator.impl.vector;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import javax.annotation.Nullable;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.segment.local.segment.creator.impl.vector.ivf.IvfIndexProperties;
+import org.apache.pinot.segment.local.segment.creator.impl.vector.ivf.KMeans;
+import org.apache.pinot.segment.local.segment.creator.impl.vector.ivf.VectorDistances;
+import org.apache.pinot.segment.local.segment.creator.impl.vector.ivf.VectorQuantizer;
+import org.apache.pinot.segment.spi.V1Constants;
+import org.apache.pinot.segment.spi.index.creator.VectorIndexConfig;
+import org.apache.pinot.segment.spi.index.creator.VectorIndexConfig.VectorDistanceFunction;
+import org.apache.pinot.segment.spi.index.creator.VectorIndexCreator;
+import org.apache.pinot.segment.spi.memory.PinotDataBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Creator for the IVF (inverted file) vector index. The vectors are clustered into inverted lists with k-means, and the
+ * residual of each vector (vector minus the centroid of its list) is encoded with a product or scalar quantizer (see
+ * {@link IvfIndexProperties}). At query time, only the lists with the closest centroids are scanned, and the
+ * candidates are re-ranked with the exact vectors from the forward index.
+ *
+ * The vectors are buffered in a temporary file until the index is sealed, because the centroids and the quantizer have
+ * to be trained before encoding the vectors. Vectors with a dimension other than the configured one are not indexed.
+ *
+ * Index file format (big-endian):
+ * <ul>
+ *   <li>Header: version, dimension, distance function, quantizer type, number of vectors, number of lists, code size
+ *   (7 ints)</li>
+ *   <li>Centroids: numLists * dimension floats</li>
+ *   <li>Quantizer: see {@link VectorQuantizer#write}</li>
+ *   <li>List offsets: numLists + 1 ints</li>
+ *   <li>Doc ids: numVectors ints, grouped by list</li>
+ *   <li>Codes: numVectors * codeSize bytes, grouped by list</li>
+ * </ul>
+ */
+public class IvfVectorIndexCreator implements VectorIndexCreator {
+  private static final Logger LOGGER = LoggerFactory.getLogger(IvfVectorIndexCreator.class);
+  public static final int VERSION = 1;
+  public static final int HEADER_SIZE = 7 * Integer.BYTES;
+  public static final String TEMP_FILE_EXTENSION = ".vector.ivf.tmp";
+
+  private final String _column;
+  private final File _indexFile;
+  private final File _tempFile;
+  private final VectorDistanceFunction _distanceFunction;
+  private final IvfIndexProperties _properties;
+  private final int _dimension;
+  private final DataOutputStream _tempOutputStream;
+  private final IntArrayList _docIds = new IntArrayList();
+
+  private int _nextDocId = 0;
+
+  public IvfVectorIndexCreator(String column, File segmentIndexDir, VectorIndexConfig vectorIndexConfig)
+      throws IOException {
+    _column = column;
+    _distanceFunction = vectorIndexConfig.getVectorDistanceFunction();
+    _properties = new IvfIndexProperties(vectorIndexConfig);
+    _dimension = _properties.getDimension();
+    // segment generation is always in V1 and later we convert (as part of post creation processing)
+    // to V3 if segmentVersion is set to V3 in SegmentGeneratorConfig.
+    _indexFile = new File(segmentIndexDir, column + V1Constants.Indexes.VECTOR_IVF_INDEX_FILE_EXTENSION);
+    _tempFile = new File(segmentIndexDir, column + TEMP_FILE_EXTENSION);
+    LOGGER.info("Creating IVF index for column: {} at path: {} with {}", column, _indexFile.getAbsolutePath(),
+        vectorIndexConfig.getProperties());
+    _tempOutputStream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(_tempFile.toPath())));
+  }
+
+  @Override
+  public void add(Object[] values, @Nullable int[] dictIds) {
+    float[] floatValues = new float[values.length];
+    for (int i = 0; i < values.length; i++) {
+      floatValues[i] = (Float) values[i];
+    }
+    add(floatValues);
+  }
+
+  @Override
+  public void add(float[] document) {
+    int docId = _nextDocId++;
+    if (document.length != _dimension) {
+      return;
+    }
+    float[] vector = document.clone();
+    VectorDistances.preprocess(vector, _distanceFunction);
+    try {
+      for (float value : vector) {
+        _tempOutputStream.writeFloat(value);
+      }
+    } catch (IOException e) {
+      throw new RuntimeException(
+          "Caught exception while adding a new document to the IVF index for column: " + _column, e);
+    }
+    _docIds.add(docId);
+  }
+
+  @Override
+  public void seal()
+      throws IOException {
+    LOGGER.info("Sealing IVF index for column: {}", _column);
+    _tempOutputStream.close();
+    int numVectors = _docIds.size();
+    try (DataOutputStream outputStream = new DataOutputStream(
+        new BufferedOutputStream(Files.newOutputStream(_indexFile.toPath())))) {
+      if (numVectors == 0) {
+        writeHeader(outputStream, 0, 0, 0);
+        outputStream.writeInt(0);
+        return;
+      }
+      try (PinotDataBuffer vectorBuffer = PinotDataBuffer.mapFile(_tempFile, true, 0, _tempFile.length(),
+          ByteOrder.BIG_ENDIAN, "IVF vector index temp buffer: " + _column)) {
+        writeIndex(outputStream, vectorBuffer, numVectors);
+      }
+    }
+  }
+
+  private void writeIndex(DataOutputStream outputStream, PinotDataBuffer vectorBuffer, int numVectors)
+      throws IOException {
+    // Train the centroids and the quantizer on an evenly sampled subset of the vectors
+    int numLists = _properties.getNumLists(numVectors);
+    int numTrainingIterations = _properties.getNumTrainingIterations();
+    int trainingSampleSize = _properties.getTrainingSampleSize(numVectors, numLists);
+    float[][] trainingVectors = new float[trainingSampleSize][];
+    for (int i = 0; i < trainingSampleSize; i++) {
+      trainingVectors[i] = readVector(vectorBuffer, (int) ((long) i * numVectors / trainingSampleSize));
+    }
+    float[][] centroids = KMeans.train(trainingVectors, numLists, numTrainingIterations);
+    float[][] trainingResiduals = new float[trainingSampleSize][];
+    for (int i = 0; i < trainingSampleSize; i++) {
+      float[] vector = trainingVectors[i];
+      trainingResiduals[i] = getResidual(vector, centroids[VectorDistances.getClosestCentroid(centroids, vector)]);
+    }
+    VectorQuantizer quantizer =
+        VectorQuantizer.train(_properties.getQuantizerType(), trainingResiduals, _properties);
+
+    // Assign the vectors to the lists, and sort the vectors by list (counting sort)
+    int[] assignments = new int[numVectors];
+    int[] offsets = new int[numLists + 1];
+    for (int i = 0; i < numVectors; i++) {
+      int list = VectorDistances.getClosestCentroid(centroids, readVector(vectorBuffer, i));
+      assignments[i] = list;
+      offsets[list + 1]++;
+    }
+    for (int i = 0; i < numLists; i++) {
+      offsets[i + 1] += offsets[i];
+    }
+    int[] sortedVectorIds = new int[numVectors];
+    int[] positions = offsets.clone();
+    for (int i = 0; i < numVectors; i++) {
+      sortedVectorIds[positions[assignments[i]]++] = i;
+    }
+
+    int codeSize = quantizer.getCodeSize();
+    writeHeader(outputStream, numVectors, numLists, codeSize);
+    for (float[] centroid : centroids) {
+      for (float value : centroid) {
+        outputStream.writeFloat(value);
+      }
+    }
+    quantizer.write(outputStream);
+    for (int offset : offsets) {
+      outputStream.writeInt(offset);
+    }
+    for (int vectorId : sortedVectorIds) {
+      outputStream.writeInt(_docIds.getInt(vectorId));
+    }
+    byte[] code = new byte[codeSize];
+    for (int vectorId : sortedVectorIds) {
+      float[] vector = readVector(vectorBuffer, vectorId);
+      quantizer.encode(getResidual(vector, centroids[assignments[vectorId]]), code);
+      outputStream.write(code);
+    }
+    LOGGER.info("Created IVF index for column: {} with {} vectors, {} lists and {} quantizer", _column, numVectors,
+        numLists, quantizer.getType());
+  }
+
+  private void writeHeader(DataOutputStream outputStream, int numVectors, int numLists, int codeSize)
+      throws IOException {
+    outputStream.writeInt(VERSION);
+    outputStream.writeInt(_dimension);
+    outputStream.writeInt(_distanceFunction.ordinal());
+    outputStream.writeInt(_properties.getQuantizerType().ordinal());
+    outputStream.writeInt(numVectors);
+    outputStream.writeInt(numLists);
+    outputStream.writeInt(codeSize);
+  }
+
+  private float[] readVector(PinotDataBuffer vectorBuffer, int vectorId) {
+    float[] vector = new float[_dimension];
+    long offset = (long) vectorId * _dimension * Float.BYTES;
+    for (int i = 0; i < _dimension; i++) {
+      vector[i] = vectorBuffer.getFloat(offset + (long) i * Float.BYTES);
+    }
+    return vector;
+  }
+
+  private static float[] getResidual(float[] vector, float[] centroid) {
+    float[] residual = new float[vector.length];
+    for (int i = 0; i < vector.length; i++) {
+      residual[i] = vector[i] - centroid[i];
+    }
+    return residual;
+  }
+
+  @Override
+  public void close()
+      throws IOException {
+    _tempOutputStream.close();
+    FileUtils.deleteQuietly(_tempFile);
+  }
+}
@@ -0,0 +1,159 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.segment.creator.impl.vector.ivf;
+
+import com.google.common.base.Preconditions;
+import java.util.Map;
+import javax.annotation.Nullable;
+import org.apache.pinot.segment.spi.index.creator.VectorIndexConfig;
+
+
+/**
+ * Properties of the IVF (inverted file) vector index, which are configured in the properties of the
+ * {@link VectorIndexConfig}:
+ * <ul>
+ *   <li>quantizer: quantizer used to encode the vectors, PQ (product quantization, default) or SQ8 (8-bit scalar
+ *   quantization)</li>
+ *   <li>numLists: number of inverted lists (centroids), square root of the number of vectors by default</li>
+ *   <li>numProbes: number of closest inverted lists to search at query time</li>
+ *   <li>pqNumSubVectors: number of sub-vectors for the product quantizer, must divide the vector dimension</li>
+ *   <li>rerankFactor: number of candidates (in multiple of top k) re-ranked with the exact distance</li>
+ *   <li>trainingSampleSize: number of vectors sampled to train the centroids and the quantizer</li>
+ *   <li>numTrainingIterations: number of k-means iterations to train the centroids and the quantizer</li>
+ * </ul>
+ */
+public class IvfIndexProperties {
+  public static final String QUANTIZER = "quantizer";
+  public static final String NUM_LISTS = "numLists";
+  public static final String NUM_PROBES = "numProbes";
+  public static final String PQ_NUM_SUB_VECTORS = "pqNumSubVectors";
+  public static final String RERANK_FACTOR = "rerankFactor";
+  public static final String TRAINING_SAMPLE_SIZE = "trainingSampleSize";
+  public static final String NUM_TRAINING_ITERATIONS = "numTrainingIterations";
+
+  public static final QuantizerType DEFAULT_QUANTIZER = QuantizerType.PQ;
+  public static final int DEFAULT_NUM_PROBES = 8;
+  public static final int DEFAULT_RERANK_FACTOR = 4;
+  public static final int DEFAULT_NUM_TRAINING_ITERATIONS = 10;
+  // Number of lists for the mutable index, where the number of vectors is unknown when training the centroids
+  public static final int DEFAULT_MUTABLE_NUM_LISTS = 64;
+  // Number of training vectors per list when the training sample size is not configured
+  public static final int NUM_TRAINING_VECTORS_PER_LIST = 64;
+
+  public enum QuantizerType {
+    PQ, SQ8
+  }
+
+  private final int _dimension;
+  private final QuantizerType _quantizerType;
+  private final int _numLists;
+  private final int _numProbes;
+  private final int _pqNumSubVectors;
+  private final int _rerankFactor;
+  private final int _trainingSampleSize;
+  private final int _numTrainingIterations;
+
+  public IvfIndexProperties(VectorIndexConfig config) {
+    this(config.getVectorDimension(), config.getProperties());
+  }
+
+  public IvfIndexProperties(int dimension, @Nullable Map<String, String> properties) {
+    Preconditions.checkArgument(dimension > 0, "Vector dimension must be positive, got: %s", dimension);
+    _dimension = dimension;
+    if (properties == null) {
+      properties = Map.of();
+    }
+    String quantizer = properties.get(QUANTIZER);
+    _quantizerType = quantizer != null ? QuantizerType.valueOf(quantizer.toUpperCase()) : DEFAULT_QUANTIZER;
+    _numLists = Integer.parseInt(properties.getOrDefault(NUM_LISTS, "0"));
+    _numProbes = Integer.parseInt(properties.getOrDefault(NUM_PROBES, Integer.toString(DEFAULT_NUM_PROBES)));
+    Preconditions.checkArgument(_numProbes > 0, "Number of probes must be positive, got: %s", _numProbes);
+    _pqNumSubVectors =
+        Integer.parseInt(properties.getOrDefault(PQ_NUM_SUB_VECTORS, Integer.toString(getDefaultPqNumSubVectors())));
+    Preconditions.checkArgument(_pqNumSubVectors > 0 && _dimension % _pqNumSubVectors == 0,
+        "Number of PQ sub-vectors: %s must be positive and divide the vector dimension: %s", _pqNumSubVectors,
+        _dimension);
+    _rerankFactor =
+        Integer.parseInt(properties.getOrDefault(RERANK_FACTOR, Integer.toString(DEFAULT_RERANK_FACTOR)));
+    Preconditions.checkArgument(_rerankFactor > 0, "Rerank factor must be positive, got: %s", _rerankFactor);
+    _trainingSampleSize = Integer.parseInt(properties.getOrDefault(TRAINING_SAMPLE_SIZE, "0"));
+    _numTrainingIterations = Integer.parseInt(
+        properties.getOrDefault(NUM_TRAINING_ITERATIONS, Integer.toString(DEFAULT_NUM_TRAINING_ITERATIONS)));
+  }
+
+  /**
+   * Picks the sub-vector dimension from 4, 2, 1 (i.e. 1-2 bits per dimension after encoding).
+   */
+  private int getDefaultPqNumSubVectors() {
+    for (int subVectorDimension = 4; subVectorDimension > 1; subVectorDimension /= 2) {
+      if (_dimension % subVectorDimension == 0) {
+        return _dimension / subVectorDimension;
+      }
+    }
+    return _dimension;
+  }
+
+  public int getDimension() {
+    return _dimension;
+  }
+
+  public QuantizerType getQuantizerType() {
+    return _quantizerType;
+  }
+
+  /**
+   * Returns the number of lists to index the given number of vectors.
+   */
+  public int getNumLists(int numVectors) {
+    int numLists = _numLists > 0 ? _numLists : (int) Math.round(Math.sqrt(numVectors));
+    return Math.max(1, Math.min(numLists, numVectors));
+  }
+
+  /**
+   * Returns the number of lists for the mutable index.
+   */
+  public int getMutableNumLists() {
+    return _numLists > 0 ? _numLists : DEFAULT_MUTABLE_NUM_LISTS;
+  }
+
+  public int getNumProbes() {
+    return _numProbes;
+  }
+
+  public int getPqNumSubVectors() {
+    return _pqNumSubVectors;
+  }
+
+  public int getRerankFactor() {
+    return _rerankFactor;
+  }
+
+  /**
+   * Returns the number of vectors to sample to train the given number of lists.
+   */
+  public int getTrainingSampleSize(int numVectors, int numLists) {
+    int trainingSampleSize =
+        _trainingSampleSize > 0 ? _trainingSampleSize : numLists * NUM_TRAINING_VECTORS_PER_LIST;
+    return Math.min(trainingSampleSize, numVectors);
+  }
+
+  public int getNumTrainingIterations() {
+    return _numTrainingIterations;
+  }
+}
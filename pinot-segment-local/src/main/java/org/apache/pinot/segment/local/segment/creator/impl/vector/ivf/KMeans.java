@@ -0,0 +1,100 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.segment.creator.impl.vector.ivf;
+
+import com.google.common.base.Preconditions;
+import java.util.Arrays;
+import java.util.Random;
+
+
+/**
+ * K-means clustering (Lloyd's algorithm) in squared L2 distance, used to train the centroids of the inverted lists and
+ * the codebooks of the product quantizer.
+ */
+public class KMeans {
+  // Fixed seed so that the index is deterministic for the same input
+  public static final long SEED = 0x5eed;
+
+  private KMeans() {
+  }
+
+  /**
+   * Trains k centroids from the given vectors. The initial centroids are randomly picked from the vectors, and a
+   * centroid with no vector assigned is re-initialized with a random vector.
+   */
+  public static float[][] train(float[][] vectors, int k, int numIterations) {
+    int numVectors = vectors.length;
+    Preconditions.checkArgument(k > 0 && k <= numVectors, "Cannot train %s centroids from %s vectors", k, numVectors);
+    int dimension = vectors[0].length;
+    Random random = new Random(SEED);
+
+    // Pick k distinct vectors as the initial centroids (partial Fisher-Yates shuffle)
+    int[] vectorIds = new int[numVectors];
+    for (int i = 0; i < numVectors; i++) {
+      vectorIds[i] = i;
+    }
+    float[][] centroids = new float[k][];
+    for (int i = 0; i < k; i++) {
+      int j = i + random.nextInt(numVectors - i);
+      int vectorId = vectorIds[j];
+      vectorIds[j] = vectorIds[i];
+      vectorIds[i] = vectorId;
+      centroids[i] = vectors[vectorId].clone();
+    }
+
+    int[] assignments = new int[numVectors];
+    int[] counts = new int[k];
+    for (int iteration = 0; iteration < numIterations; iteration++) {
+      boolean changed = false;
+      for (int i = 0; i < numVectors; i++) {
+        int centroid = VectorDistances.getClosestCentroid(centroids, vectors[i]);
+        if (iteration == 0 || assignments[i] != centroid) {
+          assignments[i] = centroid;
+          changed = true;
+        }
+      }
+      if (!changed) {
+        break;
+      }
+      for (float[] centroid : centroids) {
+        Arrays.fill(centroid, 0);
+      }
+      Arrays.fill(counts, 0);
+      for (int i = 0; i < numVectors; i++) {
+        float[] centroid = centroids[assignments[i]];
+        float[] vector = vectors[i];
+        for (int j = 0; j < dimension; j++) {
+          centroid[j] += vector[j];
+        }
+        counts[assignments[i]]++;
+      }
+      for (int i = 0; i < k; i++) {
+        if (counts[i] > 0) {
+          float[] centroid = centroids[i];
+          for (int j = 0; j < dimension; j++) {
+            centroid[j] /= counts[i];
+          }
+        } else {
+          centroids[i] = vectors[random.nextInt(numVectors)].clone();
+        }
+      }
+    }
+    return centroids;
+  }
+}
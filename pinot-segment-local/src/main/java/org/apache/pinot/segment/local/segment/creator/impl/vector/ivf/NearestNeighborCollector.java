@@ -0,0 +1,109 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.segment.creator.impl.vector.ivf;
+
+import java.util.Arrays;
+import org.roaringbitmap.buffer.MutableRoaringBitmap;
+
+
+/**
+ * Collects the k nearest neighbors (smallest distances) with a bounded max-heap on primitive arrays, where the root is
+ * the farthest collected neighbor.
+ */
+public class NearestNeighborCollector {
+  private final int _capacity;
+  private final int[] _docIds;
+  private final float[] _distances;
+  private int _size;
+
+  public NearestNeighborCollector(int capacity) {
+    _capacity = capacity;
+    _docIds = new int[capacity];
+    _distances = new float[capacity];
+  }
+
+  /**
+   * Collects the doc if the collector is not full or the distance is smaller than the farthest collected neighbor.
+   */
+  public void collect(int docId, float distance) {
+    if (_size < _capacity) {
+      // Sift up
+      int index = _size++;
+      while (index > 0) {
+        int parent = (index - 1) >>> 1;
+        if (_distances[parent] >= distance) {
+          break;
+        }
+        _docIds[index] = _docIds[parent];
+        _distances[index] = _distances[parent];
+        index = parent;
+      }
+      _docIds[index] = docId;
+      _distances[index] = distance;
+    } else if (_capacity > 0 && distance < _distances[0]) {
+      // Replace the root and sift down
+      int index = 0;
+      while (true) {
+        int child = 2 * index + 1;
+        if (child >= _size) {
+          break;
+        }
+        if (child + 1 < _size && _distances[child + 1] > _distances[child]) {
+          child++;
+        }
+        if (_distances[child] <= distance) {
+          break;
+        }
+        _docIds[index] = _docIds[child];
+        _distances[index] = _distances[child];
+        index = child;
+      }
+      _docIds[index] = docId;
+      _distances[index] = distance;
+    }
+  }
+
+  public boolean isFull() {
+    return _size == _capacity;
+  }
+
+  /**
+   * Returns the distance of the farthest collected neighbor, or positive infinity if the collector is not full.
+   */
+  public float getMaxDistance() {
+    return _size == _capacity && _capacity > 0 ? _distances[0] : Float.POSITIVE_INFINITY;
+  }
+
+  public int size() {
+    return _size;
+  }
+
+  /**
+   * Returns the collected doc ids (not sorted).
+   */
+  public int[] getDocIds() {
+    return Arrays.copyOf(_docIds, _size);
+  }
+
+  public MutableRoaringBitmap toBitmap() {
+    MutableRoaringBitmap bitmap = new MutableRoaringBitmap();
+    bitmap.addN(_docIds, 0, _size);
+    return bitmap;
+  }
+}
@@ -0,0 +1,153 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.segment.creator.impl.vector.ivf;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import org.apache.pinot.segment.local.segment.creator.impl.vector.ivf.IvfIndexProperties.QuantizerType;
+import org.apache.pinot.segment.spi.memory.PinotDataBuffer;
+
+
+/**
+ * Product quantizer that splits the vector into M sub-vectors, and encodes each sub-vector with the id (1 byte) of the
+ * closest codeword among (up to) 256 codewords trained for the sub-space. The scorer pre-computes a look-up table of
+ * the partial scores for all the codewords, so that scoring a code takes M table look-ups.
+ *
+ * Serialized format: numSubVectors (int), numCodewords (int), codebooks (numSubVectors * numCodewords *
+ * subVectorDimension floats).
+ */
+public class ProductQuantizer extends VectorQuantizer {
+  public static final int MAX_NUM_CODEWORDS = 256;
+
+  private final int _numSubVectors;
+  private final int _numCodewords;
+  private final int _subVectorDimension;
+  // Codebook for each sub-space, where each codebook is [numCodewords][subVectorDimension]
+  private final float[][][] _codebooks;
+
+  public ProductQuantizer(float[][][] codebooks) {
+    _numSubVectors = codebooks.length;
+    _numCodewords = codebooks[0].length;
+    _subVectorDimension = codebooks[0][0].length;
+    _codebooks = codebooks;
+  }
+
+  public static ProductQuantizer train(float[][] residuals, int numSubVectors, int numIterations) {
+    int numVectors = residuals.length;
+    int subVectorDimension = residuals[0].length / numSubVectors;
+    int numCodewords = Math.min(MAX_NUM_CODEWORDS, numVectors);
+    float[][][] codebooks = new float[numSubVectors][][];
+    float[][] subVectors = new float[numVectors][subVectorDimension];
+    for (int i = 0; i < numSubVectors; i++) {
+      for (int j = 0; j < numVectors; j++) {
+        System.arraycopy(residuals[j], i * subVectorDimension, subVectors[j], 0, subVectorDimension);
+      }
+      codebooks[i] = KMeans.train(subVectors, numCodewords, numIterations);
+    }
+    return new ProductQuantizer(codebooks);
+  }
+
+  public static ProductQuantizer read(PinotDataBuffer buffer, long offset, int dimension) {
+    int numSubVectors = buffer.getInt(offset);
+    int numCodewords = buffer.getInt(offset + Integer.BYTES);
+    int subVectorDimension = dimension / numSubVectors;
+    long floatOffset = offset + 2 * Integer.BYTES;
+    float[][][] codebooks = new float[numSubVectors][numCodewords][subVectorDimension];
+    for (float[][] codebook : codebooks) {
+      for (float[] codeword : codebook) {
+        for (int i = 0; i < subVectorDimension; i++) {
+          codeword[i] = buffer.getFloat(floatOffset);
+          floatOffset += Float.BYTES;
+        }
+      }
+    }
+    return new ProductQuantizer(codebooks);
+  }
+
+  @Override
+  public QuantizerType getType() {
+    return QuantizerType.PQ;
+  }
+
+  @Override
+  public int getCodeSize() {
+    return _numSubVectors;
+  }
+
+  @Override
+  public void encode(float[] residual, byte[] code) {
+    for (int i = 0; i < _numSubVectors; i++) {
+      float[][] codebook = _codebooks[i];
+      int offset = i * _subVectorDimension;
+      int closestCodeword = 0;
+      float minDistance = Float.POSITIVE_INFINITY;
+      for (int j = 0; j < _numCodewords; j++) {
+        float distance = VectorDistances.squaredL2Distance(residual, offset, codebook[j], 0, _subVectorDimension);
+        if (distance < minDistance) {
+          minDistance = distance;
+          closestCodeword = j;
+        }
+      }
+      code[i] = (byte) closestCodeword;
+    }
+  }
+
+  @Override
+  public CodeScorer getScorer(float[] query, boolean innerProduct) {
+    // Look-up table of the partial scores, indexed by sub-vector * numCodewords + codeword
+    float[] lookupTable = new float[_numSubVectors * _numCodewords];
+    for (int i = 0; i < _numSubVectors; i++) {
+      float[][] codebook = _codebooks[i];
+      int offset = i * _subVectorDimension;
+      for (int j = 0; j < _numCodewords; j++) {
+        lookupTable[i * _numCodewords + j] =
+            innerProduct ? VectorDistances.dotProduct(query, offset, codebook[j], 0, _subVectorDimension)
+                : VectorDistances.squaredL2Distance(query, offset, codebook[j], 0, _subVectorDimension);
+      }
+    }
+    int numSubVectors = _numSubVectors;
+    int numCodewords = _numCodewords;
+    return (buffer, offset) -> {
+      float score = 0;
+      for (int i = 0; i < numSubVectors; i++) {
+        score += lookupTable[i * numCodewords + (buffer.getByte(offset + i) & 0xFF)];
+      }
+      return score;
+    };
+  }
+
+  @Override
+  public long getSerializedSize() {
+    return 2L * Integer.BYTES + (long) _numSubVectors * _numCodewords * _subVectorDimension * Float.BYTES;
+  }
+
+  @Override
+  public void write(DataOutput output)
+      throws IOException {
+    output.writeInt(_numSubVectors);
+    output.writeInt(_numCodewords);
+    for (float[][] codebook : _codebooks) {
+      for (float[] codeword : codebook) {
+        for (float value : codeword) {
+          output.writeFloat(value);
+        }
+      }
+    }
+  }
+}
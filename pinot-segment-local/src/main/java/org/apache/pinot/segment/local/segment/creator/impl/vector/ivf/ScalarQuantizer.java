@@ -0,0 +1,138 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.segment.creator.impl.vector.ivf;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import org.apache.pinot.segment.local.segment.creator.impl.vector.ivf.IvfIndexProperties.QuantizerType;
+import org.apache.pinot.segment.spi.memory.PinotDataBuffer;
+
+
+/**
+ * 8-bit scalar quantizer that encodes each dimension of the vector into 1 byte, by uniformly splitting the value range
+ * of the dimension (trained from the residual vectors) into 256 buckets. Values out of the range are clamped.
+ *
+ * Serialized format: min values (dimension floats), scales (dimension floats).
+ */
+public class ScalarQuantizer extends VectorQuantizer {
+  private static final int MAX_CODE = 255;
+
+  private final float[] _mins;
+  private final float[] _scales;
+
+  public ScalarQuantizer(float[] mins, float[] scales) {
+    _mins = mins;
+    _scales = scales;
+  }
+
+  public static ScalarQuantizer train(float[][] residuals) {
+    int dimension = residuals[0].length;
+    float[] mins = new float[dimension];
+    float[] maxs = new float[dimension];
+    Arrays.fill(mins, Float.POSITIVE_INFINITY);
+    Arrays.fill(maxs, Float.NEGATIVE_INFINITY);
+    for (float[] residual : residuals) {
+      for (int i = 0; i < dimension; i++) {
+        mins[i] = Math.min(mins[i], residual[i]);
+        maxs[i] = Math.max(maxs[i], residual[i]);
+      }
+    }
+    float[] scales = new float[dimension];
+    for (int i = 0; i < dimension; i++) {
+      scales[i] = (maxs[i] - mins[i]) / MAX_CODE;
+    }
+    return new ScalarQuantizer(mins, scales);
+  }
+
+  public static ScalarQuantizer read(PinotDataBuffer buffer, long offset, int dimension) {
+    float[] mins = new float[dimension];
+    float[] scales = new float[dimension];
+    for (int i = 0; i < dimension; i++) {
+      mins[i] = buffer.getFloat(offset + (long) i * Float.BYTES);
+      scales[i] = buffer.getFloat(offset + (long) (dimension + i) * Float.BYTES);
+    }
+    return new ScalarQuantizer(mins, scales);
+  }
+
+  @Override
+  public QuantizerType getType() {
+    return QuantizerType.SQ8;
+  }
+
+  @Override
+  public int getCodeSize() {
+    return _mins.length;
+  }
+
+  @Override
+  public void encode(float[] residual, byte[] code) {
+    for (int i = 0; i < _mins.length; i++) {
+      int value = _scales[i] > 0 ? Math.round((residual[i] - _mins[i]) / _scales[i]) : 0;
+      code[i] = (byte) Math.max(0, Math.min(MAX_CODE, value));
+    }
+  }
+
+  @Override
+  public CodeScorer getScorer(float[] query, boolean innerProduct) {
+    float[] mins = _mins;
+    float[] scales = _scales;
+    int dimension = mins.length;
+    if (innerProduct) {
+      // <q, min + c * scale> = <q, min> + sum(q[i] * scale[i] * c[i])
+      float baseScore = VectorDistances.dotProduct(query, mins);
+      float[] weights = new float[dimension];
+      for (int i = 0; i < dimension; i++) {
+        weights[i] = query[i] * scales[i];
+      }
+      return (buffer, offset) -> {
+        float score = baseScore;
+        for (int i = 0; i < dimension; i++) {
+          score += weights[i] * (buffer.getByte(offset + i) & 0xFF);
+        }
+        return score;
+      };
+    } else {
+      return (buffer, offset) -> {
+        float score = 0;
+        for (int i = 0; i < dimension; i++) {
+          float diff = query[i] - (mins[i] + (buffer.getByte(offset + i) & 0xFF) * scales[i]);
+          score += diff * diff;
+        }
+        return score;
+      };
+    }
+  }
+
+  @Override
+  public long getSerializedSize() {
+    return 2L * _mins.length * Float.BYTES;
+  }
+
+  @Override
+  public void write(DataOutput output)
+      throws IOException {
+    for (float min : _mins) {
+      output.writeFloat(min);
+    }
+    for (float scale : _scales) {
+      output.writeFloat(scale);
+    }
+  }
+}
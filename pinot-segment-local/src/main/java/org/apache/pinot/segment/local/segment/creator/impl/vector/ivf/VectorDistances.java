@@ -0,0 +1,119 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.segment.creator.impl.vector.ivf;
+
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import org.apache.pinot.segment.spi.index.creator.VectorIndexConfig.VectorDistanceFunction;
+
+
+/**
+ * Distance computation for the IVF vector index, where a smaller distance means a closer vector:
+ * <ul>
+ *   <li>EUCLIDEAN: squared L2 distance</li>
+ *   <li>COSINE: squared L2 distance of the normalized vectors, which is 2 - 2 * cosine similarity</li>
+ *   <li>INNER_PRODUCT/DOT_PRODUCT: negative inner product</li>
+ * </ul>
+ */
+public class VectorDistances {
+  private VectorDistances() {
+  }
+
+  public static boolean isInnerProduct(VectorDistanceFunction distanceFunction) {
+    return distanceFunction == VectorDistanceFunction.INNER_PRODUCT
+        || distanceFunction == VectorDistanceFunction.DOT_PRODUCT;
+  }
+
+  /**
+   * Prepares the vector to be indexed or searched, i.e. normalizes the vector for COSINE distance. Modifies the vector
+   * in place.
+   */
+  public static void preprocess(float[] vector, VectorDistanceFunction distanceFunction) {
+    if (distanceFunction == VectorDistanceFunction.COSINE) {
+      float norm = (float) Math.sqrt(dotProduct(vector, vector));
+      if (norm > 0) {
+        for (int i = 0; i < vector.length; i++) {
+          vector[i] /= norm;
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the distance between the preprocessed vectors.
+   */
+  public static float distance(float[] vector1, float[] vector2, boolean innerProduct) {
+    return innerProduct ? -dotProduct(vector1, vector2) : squaredL2Distance(vector1, vector2);
+  }
+
+  public static float squaredL2Distance(float[] vector1, float[] vector2) {
+    return squaredL2Distance(vector1, 0, vector2, 0, vector1.length);
+  }
+
+  public static float squaredL2Distance(float[] vector1, int offset1, float[] vector2, int offset2, int length) {
+    float distance = 0;
+    for (int i = 0; i < length; i++) {
+      float diff = vector1[offset1 + i] - vector2[offset2 + i];
+      distance += diff * diff;
+    }
+    return distance;
+  }
+
+  public static float dotProduct(float[] vector1, float[] vector2) {
+    return dotProduct(vector1, 0, vector2, 0, vector1.length);
+  }
+
+  public static float dotProduct(float[] vector1, int offset1, float[] vector2, int offset2, int length) {
+    float dotProduct = 0;
+    for (int i = 0; i < length; i++) {
+      dotProduct += vector1[offset1 + i] * vector2[offset2 + i];
+    }
+    return dotProduct;
+  }
+
+  /**
+   * Returns the index of the closest centroid (in squared L2 distance) to the vector.
+   */
+  public static int getClosestCentroid(float[][] centroids, float[] vector) {
+    int closestCentroid = 0;
+    float minDistance = Float.POSITIVE_INFINITY;
+    for (int i = 0; i < centroids.length; i++) {
+      float distance = squaredL2Distance(centroids[i], vector);
+      if (distance < minDistance) {
+        minDistance = distance;
+        closestCentroid = i;
+      }
+    }
+    return closestCentroid;
+  }
+
+  /**
+   * Returns the lists ordered by the distance from their centroids to the preprocessed query vector.
+   */
+  public static int[] getListsByDistance(float[][] centroids, float[] query, boolean innerProduct) {
+    int numLists = centroids.length;
+    float[] distances = new float[numLists];
+    int[] lists = new int[numLists];
+    for (int i = 0; i < numLists; i++) {
+      distances[i] = distance(query, centroids[i], innerProduct);
+      lists[i] = i;
+    }
+    IntArrays.quickSort(lists, (l1, l2) -> Float.compare(distances[l1], distances[l2]));
+    return lists;
+  }
+}
@@ -0,0 +1,102 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.segment.creator.impl.vector.ivf;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import org.apache.pinot.segment.local.segment.creator.impl.vector.ivf.IvfIndexProperties.QuantizerType;
+import org.apache.pinot.segment.spi.memory.PinotDataBuffer;
+
+
+/**
+ * Quantizer that encodes the residual vectors (vector minus the centroid of its inverted list) of the IVF vector index
+ * into fixed size codes.
+ */
+public abstract class VectorQuantizer {
+
+  /**
+   * Scores the encoded residual vectors against a query.
+   */
+  public interface CodeScorer {
+
+    /**
+     * Returns the score of the code stored at the given offset of the buffer.
+     */
+    float score(PinotDataBuffer buffer, long offset);
+  }
+
+  public abstract QuantizerType getType();
+
+  /**
+   * Returns the size in bytes of the code of each vector.
+   */
+  public abstract int getCodeSize();
+
+  /**
+   * Encodes the residual vector into the code array.
+   */
+  public abstract void encode(float[] residual, byte[] code);
+
+  /**
+   * Returns a scorer for the query, where the score is:
+   * <ul>
+   *   <li>For inner product: the inner product of the query and the decoded residual</li>
+   *   <li>Otherwise: the squared L2 distance between the query residual (query minus the centroid) and the decoded
+   *   residual</li>
+   * </ul>
+   */
+  public abstract CodeScorer getScorer(float[] query, boolean innerProduct);
+
+  /**
+   * Returns the size in bytes of the serialized quantizer.
+   */
+  public abstract long getSerializedSize();
+
+  public abstract void write(DataOutput output)
+      throws IOException;
+
+  /**
+   * Trains a quantizer of the given type from the residual vectors.
+   */
+  public static VectorQuantizer train(QuantizerType type, float[][] residuals, IvfIndexProperties properties) {
+    switch (type) {
+      case PQ:
+        return ProductQuantizer.train(residuals, properties.getPqNumSubVectors(),
+            properties.getNumTrainingIterations());
+      case SQ8:
+        return ScalarQuantizer.train(residuals);
+      default:
+        throw new IllegalStateException("Unsupported quantizer type: " + type);
+    }
+  }
+
+  /**
+   * Reads a quantizer of the given type serialized at the given offset of the buffer.
+   */
+  public static VectorQuantizer read(QuantizerType type, PinotDataBuffer buffer, long offset, int dimension) {
+    switch (type) {
+      case PQ:
+        return ProductQuantizer.read(buffer, offset, dimension);
+      case SQ8:
+        return ScalarQuantizer.read(buffer, offset, dimension);
+      default:
+        throw new IllegalStateException("Unsupported quantizer type: " + type);
+    }
+  }
+}
@@ -20,11 +20,14 @@
 package org.apache.pinot.segment.local.segment.index.bloom;
 
 import com.google.common.base.Preconditions;
+import java.io.File;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import javax.annotation.Nullable;
+import org.apache.pinot.segment.local.realtime.impl.bloom.MutableBloomFilter;
 import org.apache.pinot.segment.local.segment.creator.impl.bloom.OnHeapGuavaBloomFilterCreator;
+import org.apache.pinot.segment.local.segment.creator.impl.bloom.ReusedMutableBloomFilterCreator;
 import org.apache.pinot.segment.local.segment.index.loader.bloomfilter.BloomFilterHandler;
 import org.apache.pinot.segment.local.segment.index.readers.bloom.BloomFilterReaderFactory;
 import org.apache.pinot.segment.spi.ColumnMetadata;
@@ -40,6 +43,8 @@ import org.apache.pinot.segment.spi.index.IndexReaderFactory;
 import org.apache.pinot.segment.spi.index.IndexType;
 import org.apache.pinot.segment.spi.index.StandardIndexes;
 import org.apache.pinot.segment.spi.index.creator.BloomFilterCreator;
+import org.apache.pinot.segment.spi.index.mutable.MutableIndex;
+import org.apache.pinot.segment.spi.index.mutable.provider.MutableIndexContext;
 import org.apache.pinot.segment.spi.index.reader.BloomFilterReader;
 import org.apache.pinot.segment.spi.memory.PinotDataBuffer;
 import org.apache.pinot.segment.spi.store.SegmentDirectory;
@@ -106,6 +111,17 @@ public class BloomIndexType extends AbstractIndexType<BloomFilterConfig, BloomFi
       // TODO (saurabh) Check if we can do a better estimate
       cardinality = context.getTotalNumberOfEntries();
     }
+    String column = context.getFieldSpec().getName();
+    File consumerDir = context.getConsumerDir();
+    String segmentName = context.getSegmentName();
+    if (context.isRealtimeConversion() && consumerDir != null && segmentName != null) {
+      // Reuse the bloom filter committed by the mutable segment if possible
+      File committedFile = MutableBloomFilter.getCommittedFile(consumerDir, segmentName, column);
+      if (committedFile.exists() && ReusedMutableBloomFilterCreator.canReuse(committedFile, cardinality, indexConfig)) {
+        return new ReusedMutableBloomFilterCreator(context.getIndexDir(), column, committedFile,
+            context.getFieldSpec().getDataType());
+      }
+    }
     return new OnHeapGuavaBloomFilterCreator(context.getIndexDir(), context.getFieldSpec().getName(), cardinality,
         indexConfig, context.getFieldSpec().getDataType());
   }
@@ -146,6 +162,23 @@ public class BloomIndexType extends AbstractIndexType<BloomFilterConfig, BloomFi
     }
   }
 
+  @Nullable
+  @Override
+  public MutableIndex createMutableIndex(MutableIndexContext context, BloomFilterConfig config) {
+    if (config.isDisabled()) {
+      return null;
+    }
+    // NOTE: The cardinality is unknown for raw columns (not tracked in the stats history), so the bloom filter is sized
+    //       for the worst case where all the values are distinct.
+    int numValues = context.hasDictionary() ? Math.min(context.getEstimatedCardinality(), context.getCapacity())
+        : context.getCapacity();
+    FieldSpec fieldSpec = context.getFieldSpec();
+    File committedFile = context.getConsumerDir() != null && context.getSegmentName() != null
+        ? MutableBloomFilter.getCommittedFile(context.getConsumerDir(), context.getSegmentName(), fieldSpec.getName())
+        : null;
+    return new MutableBloomFilter(fieldSpec.getDataType(), numValues, config, committedFile);
+  }
+
   @Override
   protected void handleIndexSpecificCleanup(TableConfig tableConfig) {
     tableConfig.getIndexingConfig().setBloomFilterColumns(null);
@@ -280,6 +280,13 @@ public class SegmentV1V2ToV3FormatConverter implements SegmentFormatConverter {
         Files.copy(indexFile.toPath(), v3VectorIndexFile.toPath());
       }
     }
+
+    // IVF index is a single file
+    String ivfSuffix = V1Constants.Indexes.VECTOR_IVF_INDEX_FILE_EXTENSION;
+    File[] ivfIndexFiles = segmentDirectory.listFiles((dir, name) -> name.endsWith(ivfSuffix));
+    for (File ivfIndexFile : ivfIndexFiles) {
+      Files.copy(ivfIndexFile.toPath(), new File(v3Dir, ivfIndexFile.getName()).toPath());
+    }
   }
 
   private void copyNativeTextIndexIfExists(File segmentDirectory, File v3Dir) throws IOException {
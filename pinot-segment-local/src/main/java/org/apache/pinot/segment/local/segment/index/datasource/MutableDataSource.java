@@ -21,6 +21,7 @@ package org.apache.pinot.segment.local.segment.index.datasource;
 import java.util.Map;
 import java.util.Set;
 import javax.annotation.Nullable;
+import org.apache.pinot.segment.local.realtime.impl.invertedindex.RealtimeInvertedIndex;
 import org.apache.pinot.segment.local.realtime.impl.nullvalue.MutableNullValueVector;
 import org.apache.pinot.segment.spi.datasource.DataSourceMetadata;
 import org.apache.pinot.segment.spi.index.IndexType;
@@ -46,12 +47,23 @@ public class MutableDataSource extends BaseDataSource {
       int maxRowLengthInBytes, @Nullable MultiColumnTextIndexReader multiColTextIndexReader) {
     super(new MutableDataSourceMetadata(fieldSpec, numDocs, numValues, maxNumValuesPerMVEntry, cardinality,
             partitionFunction, partitions, minValue, maxValue, maxRowLengthInBytes),
-        new ColumnIndexContainer.FromMap.Builder()
-            .withAll(mutableIndexes)
-            .with(StandardIndexes.dictionary(), dictionary)
-            .with(StandardIndexes.nullValueVector(), nullValueVector)
-            .with(multiColTextIndexReader)
-            .build());
+        getIndexContainer(numDocs, mutableIndexes, dictionary, nullValueVector, multiColTextIndexReader));
+  }
+
+  private static ColumnIndexContainer getIndexContainer(int numDocs, Map<IndexType, MutableIndex> mutableIndexes,
+      @Nullable MutableDictionary dictionary, @Nullable MutableNullValueVector nullValueVector,
+      @Nullable MultiColumnTextIndexReader multiColTextIndexReader) {
+    ColumnIndexContainer.FromMap.Builder builder = new ColumnIndexContainer.FromMap.Builder()
+        .withAll(mutableIndexes)
+        .with(StandardIndexes.dictionary(), dictionary)
+        .with(StandardIndexes.nullValueVector(), nullValueVector)
+        .with(multiColTextIndexReader);
+    // Bound the inverted index by the number of queryable documents, so that the documents being indexed are excluded
+    MutableIndex invertedIndex = mutableIndexes.get(StandardIndexes.inverted());
+    if (invertedIndex instanceof RealtimeInvertedIndex) {
+      builder.with(StandardIndexes.inverted(), ((RealtimeInvertedIndex) invertedIndex).getReader(numDocs));
+    }
+    return builder.build();
   }
 
   private static class MutableDataSourceMetadata implements DataSourceMetadata {
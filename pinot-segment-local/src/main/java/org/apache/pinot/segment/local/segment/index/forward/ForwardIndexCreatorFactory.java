@@ -21,6 +21,7 @@ package org.apache.pinot.segment.local.segment.index.forward;
 
 import java.io.File;
 import java.io.IOException;
+import org.apache.pinot.segment.local.segment.creator.impl.fwd.BinaryJsonForwardIndexCreator;
 import org.apache.pinot.segment.local.segment.creator.impl.fwd.CLPForwardIndexCreatorV1;
 import org.apache.pinot.segment.local.segment.creator.impl.fwd.CLPForwardIndexCreatorV2;
 import org.apache.pinot.segment.local.segment.creator.impl.fwd.MultiValueEntryDictForwardIndexCreator;
@@ -90,6 +91,11 @@ public class ForwardIndexCreatorFactory {
       if (chunkCompressionType == null) {
         chunkCompressionType = ForwardIndexType.getDefaultCompressionType(fieldSpec.getFieldType());
       }
+      if (indexConfig.getCompressionCodec() == FieldConfig.CompressionCodec.BINARY_JSON) {
+        return new BinaryJsonForwardIndexCreator(indexDir, chunkCompressionType, columnName,
+            context.getLengthOfLongestEntry(), indexConfig.getTargetMaxChunkSizeBytes(),
+            indexConfig.getTargetDocsPerChunk());
+      }
       boolean deriveNumDocsPerChunk = indexConfig.isDeriveNumDocsPerChunk();
       int writerVersion = indexConfig.getRawIndexWriterVersion();
       int targetMaxChunkSize = indexConfig.getTargetMaxChunkSizeBytes();
@@ -22,8 +22,10 @@ package org.apache.pinot.segment.local.segment.index.forward;
 import java.util.Arrays;
 import org.apache.pinot.segment.local.io.writer.impl.VarByteChunkForwardIndexWriterV4;
 import org.apache.pinot.segment.local.io.writer.impl.VarByteChunkForwardIndexWriterV5;
+import org.apache.pinot.segment.local.segment.creator.impl.fwd.BinaryJsonForwardIndexCreator;
 import org.apache.pinot.segment.local.segment.creator.impl.fwd.CLPForwardIndexCreatorV1;
 import org.apache.pinot.segment.local.segment.creator.impl.fwd.CLPForwardIndexCreatorV2;
+import org.apache.pinot.segment.local.segment.index.readers.forward.BinaryJsonForwardIndexReader;
 import org.apache.pinot.segment.local.segment.index.readers.forward.CLPForwardIndexReaderV1;
 import org.apache.pinot.segment.local.segment.index.readers.forward.CLPForwardIndexReaderV2;
 import org.apache.pinot.segment.local.segment.index.readers.forward.FixedBitMVEntryDictForwardIndexReader;
@@ -104,6 +106,13 @@ public class ForwardIndexReaderFactory extends IndexReaderFactory.Default<Forwar
           return new CLPForwardIndexReaderV2(dataBuffer, metadata.getTotalDocs());
         }
       }
+      if (metadata.isSingleValue() && dataBuffer.size() >= BinaryJsonForwardIndexCreator.MAGIC_BYTES.length) {
+        byte[] magicBytes = new byte[BinaryJsonForwardIndexCreator.MAGIC_BYTES.length];
+        dataBuffer.copyTo(0, magicBytes);
+        if (Arrays.equals(magicBytes, BinaryJsonForwardIndexCreator.MAGIC_BYTES)) {
+          return new BinaryJsonForwardIndexReader(dataBuffer);
+        }
+      }
       return createRawIndexReader(dataBuffer, metadata.getDataType().getStoredType(), metadata.isSingleValue());
     }
   }
@@ -116,9 +116,21 @@ public class ForwardIndexType extends AbstractIndexType<ForwardIndexConfig, Forw
     } else {
       boolean isCLPCodec = compressionCodec == CompressionCodec.CLP || compressionCodec == CompressionCodec.CLPV2
           || compressionCodec == CompressionCodec.CLPV2_ZSTD || compressionCodec == CompressionCodec.CLPV2_LZ4;
+      boolean isBitPackingCodec = compressionCodec == CompressionCodec.FOR || compressionCodec == CompressionCodec.DELTA
+          || compressionCodec == CompressionCodec.PFOR;
       if (isCLPCodec) {
         Preconditions.checkState(fieldSpec.getDataType().getStoredType() == FieldSpec.DataType.STRING,
             "Cannot apply CLP compression codec to column: %s of stored type other than STRING", column);
+      } else if (isBitPackingCodec) {
+        FieldSpec.DataType storedType = fieldSpec.getDataType().getStoredType();
+        Preconditions.checkState(
+            fieldSpec.isSingleValueField() && (storedType == FieldSpec.DataType.INT
+                || storedType == FieldSpec.DataType.LONG),
+            "Cannot apply %s compression codec to column: %s other than single-value INT or LONG", compressionCodec,
+            column);
+      } else if (compressionCodec == CompressionCodec.BINARY_JSON) {
+        Preconditions.checkState(fieldSpec.isSingleValueField() && fieldSpec.getDataType() == FieldSpec.DataType.JSON,
+            "Cannot apply BINARY_JSON compression codec to column: %s other than single-value JSON", column);
       } else {
         Preconditions.checkState(compressionCodec == null || compressionCodec.isApplicableToRawIndex(),
             "Compression codec: %s is not applicable to raw column: %s", compressionCodec, column);
@@ -18,6 +18,7 @@
  */
 package org.apache.pinot.segment.local.segment.index.loader.invertedindex;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.base.Preconditions;
 import java.io.File;
 import java.util.HashSet;
@@ -27,6 +28,8 @@ import org.apache.commons.io.FileUtils;
 import org.apache.pinot.segment.local.segment.index.dictionary.DictionaryIndexType;
 import org.apache.pinot.segment.local.segment.index.loader.BaseIndexHandler;
 import org.apache.pinot.segment.local.segment.index.loader.LoaderUtils;
+import org.apache.pinot.segment.local.segment.index.readers.forward.BinaryJsonForwardIndexReader;
+import org.apache.pinot.segment.local.segment.index.readers.forward.VarByteChunkForwardIndexReaderV4;
 import org.apache.pinot.segment.spi.ColumnMetadata;
 import org.apache.pinot.segment.spi.V1Constants;
 import org.apache.pinot.segment.spi.creator.IndexCreationContext;
@@ -198,8 +201,23 @@ public class JsonIndexHandler extends BaseIndexHandler {
         ForwardIndexReaderContext readerContext = forwardIndexReader.createContext();
         JsonIndexCreator jsonIndexCreator = StandardIndexes.json().createIndexCreator(context, config)) {
       int numDocs = columnMetadata.getTotalDocs();
-      for (int i = 0; i < numDocs; i++) {
-        jsonIndexCreator.add(forwardIndexReader.getString(i, readerContext));
+      if (forwardIndexReader instanceof BinaryJsonForwardIndexReader) {
+        // Build the JSON node directly from the binary JSON document to avoid the JSON string ser/de
+        BinaryJsonForwardIndexReader binaryJsonReader = (BinaryJsonForwardIndexReader) forwardIndexReader;
+        VarByteChunkForwardIndexReaderV4.ReaderContext binaryJsonReaderContext =
+            (VarByteChunkForwardIndexReaderV4.ReaderContext) readerContext;
+        for (int i = 0; i < numDocs; i++) {
+          JsonNode jsonNode = binaryJsonReader.getJsonNode(i, binaryJsonReaderContext);
+          if (jsonNode != null) {
+            jsonIndexCreator.add(jsonNode);
+          } else {
+            jsonIndexCreator.add(binaryJsonReader.getString(i, binaryJsonReaderContext));
+          }
+        }
+      } else {
+        for (int i = 0; i < numDocs; i++) {
+          jsonIndexCreator.add(forwardIndexReader.getString(i, readerContext));
+        }
       }
       jsonIndexCreator.seal();
     }
@@ -217,6 +217,7 @@ public class VectorIndexHandler extends BaseIndexHandler {
       float[] vector = new float[columnMetadata.getMaxNumberOfMultiValues()];
       for (int i = 0; i < numDocs; i++) {
         forwardIndexReader.getFloatMV(i, vector, readerContext);
+        vectorIndexCreator.add(vector);
       }
       vectorIndexCreator.seal();
     }
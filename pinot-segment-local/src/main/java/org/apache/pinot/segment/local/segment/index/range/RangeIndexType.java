@@ -26,6 +26,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import javax.annotation.Nullable;
+import org.apache.pinot.segment.local.realtime.impl.range.MutableRangeIndex;
 import org.apache.pinot.segment.local.segment.creator.impl.inv.BitSlicedRangeIndexCreator;
 import org.apache.pinot.segment.local.segment.creator.impl.inv.RangeIndexCreator;
 import org.apache.pinot.segment.local.segment.index.loader.invertedindex.RangeIndexHandler;
@@ -45,6 +46,8 @@ import org.apache.pinot.segment.spi.index.IndexType;
 import org.apache.pinot.segment.spi.index.RangeIndexConfig;
 import org.apache.pinot.segment.spi.index.StandardIndexes;
 import org.apache.pinot.segment.spi.index.creator.CombinedInvertedIndexCreator;
+import org.apache.pinot.segment.spi.index.mutable.MutableIndex;
+import org.apache.pinot.segment.spi.index.mutable.provider.MutableIndexContext;
 import org.apache.pinot.segment.spi.index.reader.RangeIndexReader;
 import org.apache.pinot.segment.spi.memory.PinotDataBuffer;
 import org.apache.pinot.segment.spi.store.SegmentDirectory;
@@ -192,6 +195,30 @@ public class RangeIndexType
     }
   }
 
+  @Nullable
+  @Override
+  public MutableIndex createMutableIndex(MutableIndexContext context, RangeIndexConfig config) {
+    if (config.isDisabled()) {
+      return null;
+    }
+    // NOTE: Mutable range index is only supported on raw single-value numeric columns. The mutable dictionary is not
+    //       sorted, so range predicates on dictionary-encoded columns cannot be evaluated on the dictionary ids.
+    FieldSpec fieldSpec = context.getFieldSpec();
+    if (context.hasDictionary() || !fieldSpec.isSingleValueField()) {
+      return null;
+    }
+    DataType storedType = fieldSpec.getDataType().getStoredType();
+    switch (storedType) {
+      case INT:
+      case LONG:
+      case FLOAT:
+      case DOUBLE:
+        return new MutableRangeIndex(storedType);
+      default:
+        return null;
+    }
+  }
+
   @Override
   protected void handleIndexSpecificCleanup(TableConfig tableConfig) {
     tableConfig.getIndexingConfig().setRangeIndexColumns(null);
@@ -74,6 +74,30 @@ public class GuavaBloomFilterReaderUtils {
     return Math.pow(2, -k);
   }
 
+  /**
+   * Calculates the number of bits of the bloom filter for the given number of insertions and fpp (false positive
+   * probability), aligned with the guava bloom filter.
+   */
+  public static long computeNumBits(int numInsertions, double fpp) {
+    return (long) (-Math.max(numInsertions, 1) * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+  }
+
+  /**
+   * Calculates the optimal number of hash functions for the given number of insertions and bits, aligned with the guava
+   * bloom filter.
+   */
+  public static int computeNumHashFunctions(int numInsertions, long numBits) {
+    return Math.max(1, (int) Math.round((double) numBits / Math.max(numInsertions, 1) * Math.log(2)));
+  }
+
+  /**
+   * Calculates the fpp (false positive probability) of a bloom filter with the given number of bits and hash functions
+   * after the given number of insertions.
+   */
+  public static double computeFPP(long numBits, int numHashFunctions, int numInsertions) {
+    return Math.pow(1 - Math.exp(-(double) numHashFunctions * numInsertions / numBits), numHashFunctions);
+  }
+
   public static class Hash128AsLongs {
     private final long _hash1;
     private final long _hash2;
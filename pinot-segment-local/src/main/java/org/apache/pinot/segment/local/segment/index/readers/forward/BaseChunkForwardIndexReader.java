@@ -311,6 +311,8 @@ public abstract class BaseChunkForwardIndexReader implements ForwardIndexReader<
         default:
           throw new IllegalArgumentException();
       }
+    } else if (_isSingleValue && _isCompressed && _storedType == DataType.INT && isContiguousRange(docIds, length)) {
+      readIntValuesFromChunks(docIds[0], length, values, context);
     } else {
       ForwardIndexReader.super.readValuesSV(docIds, length, values, context);
     }
@@ -353,6 +355,8 @@ public abstract class BaseChunkForwardIndexReader implements ForwardIndexReader<
         default:
           throw new IllegalArgumentException();
       }
+    } else if (_isSingleValue && _isCompressed && _storedType == DataType.LONG && isContiguousRange(docIds, length)) {
+      readLongValuesFromChunks(docIds[0], length, values, context);
     } else {
       ForwardIndexReader.super.readValuesSV(docIds, length, values, context);
     }
@@ -454,4 +458,40 @@ public abstract class BaseChunkForwardIndexReader implements ForwardIndexReader<
   private boolean isContiguousRange(int[] docIds, int length) {
     return docIds[length - 1] - docIds[0] == length - 1;
   }
+
+  /**
+   * Reads the INT values for a contiguous range of docs from the decompressed chunks, where each chunk is decompressed
+   * (or decoded for the bit-packing compression types) once into the chunk buffer and then copied into the values.
+   */
+  private void readIntValuesFromChunks(int startDocId, int length, int[] values, ChunkReaderContext context) {
+    int docId = startDocId;
+    int endDocId = startDocId + length;
+    int valueIndex = 0;
+    while (docId < endDocId) {
+      int chunkStartDocId = getChunkId(docId) * _numDocsPerChunk;
+      int chunkEndDocId = Math.min(chunkStartDocId + _numDocsPerChunk, endDocId);
+      ByteBuffer chunkBuffer = getChunkBuffer(docId, context);
+      for (int chunkRowId = docId - chunkStartDocId; docId < chunkEndDocId; chunkRowId++, docId++) {
+        values[valueIndex++] = chunkBuffer.getInt(chunkRowId * Integer.BYTES);
+      }
+    }
+  }
+
+  /**
+   * Reads the LONG values for a contiguous range of docs from the decompressed chunks, where each chunk is decompressed
+   * (or decoded for the bit-packing compression types) once into the chunk buffer and then copied into the values.
+   */
+  private void readLongValuesFromChunks(int startDocId, int length, long[] values, ChunkReaderContext context) {
+    int docId = startDocId;
+    int endDocId = startDocId + length;
+    int valueIndex = 0;
+    while (docId < endDocId) {
+      int chunkStartDocId = getChunkId(docId) * _numDocsPerChunk;
+      int chunkEndDocId = Math.min(chunkStartDocId + _numDocsPerChunk, endDocId);
+      ByteBuffer chunkBuffer = getChunkBuffer(docId, context);
+      for (int chunkRowId = docId - chunkStartDocId; docId < chunkEndDocId; chunkRowId++, docId++) {
+        values[valueIndex++] = chunkBuffer.getLong(chunkRowId * Long.BYTES);
+      }
+    }
+  }
 }
@@ -0,0 +1,102 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.segment.index.readers.forward;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.IOException;
+import javax.annotation.Nullable;
+import org.apache.pinot.segment.local.segment.creator.impl.fwd.BinaryJsonForwardIndexCreator;
+import org.apache.pinot.segment.local.utils.BinaryJsonUtils;
+import org.apache.pinot.segment.spi.compression.ChunkCompressionType;
+import org.apache.pinot.segment.spi.index.reader.ForwardIndexReader;
+import org.apache.pinot.segment.spi.memory.PinotDataBuffer;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+
+
+/**
+ * Forward index reader for the single-value JSON column with {@code BINARY_JSON} compression codec. See
+ * {@link BinaryJsonForwardIndexCreator} for the index format.
+ * <p>{@link #getString(int, VarByteChunkForwardIndexReaderV4.ReaderContext)} converts the binary document back into
+ * JSON string, while {@link #getBytes(int, VarByteChunkForwardIndexReaderV4.ReaderContext)} returns the binary
+ * document so that the JSON path can be read directly from it (see {@link BinaryJsonUtils#read}). Reading the BYTES
+ * values through the regular projection path lets the data fetcher manage the reader context.
+ */
+public class BinaryJsonForwardIndexReader
+    implements ForwardIndexReader<VarByteChunkForwardIndexReaderV4.ReaderContext> {
+  private final VarByteChunkForwardIndexReaderV4 _indexReader;
+
+  public BinaryJsonForwardIndexReader(PinotDataBuffer dataBuffer) {
+    int headerLength = BinaryJsonForwardIndexCreator.MAGIC_BYTES.length;
+    _indexReader = new VarByteChunkForwardIndexReaderV4(dataBuffer.view(headerLength, dataBuffer.size()),
+        DataType.BYTES, true);
+  }
+
+  @Override
+  public boolean isDictionaryEncoded() {
+    return false;
+  }
+
+  @Override
+  public boolean isSingleValue() {
+    return true;
+  }
+
+  @Override
+  public DataType getStoredType() {
+    return DataType.STRING;
+  }
+
+  @Override
+  public ChunkCompressionType getCompressionType() {
+    return _indexReader.getCompressionType();
+  }
+
+  @Override
+  public VarByteChunkForwardIndexReaderV4.ReaderContext createContext() {
+    return _indexReader.createContext();
+  }
+
+  @Override
+  public String getString(int docId, VarByteChunkForwardIndexReaderV4.ReaderContext context) {
+    return BinaryJsonUtils.toJsonString(_indexReader.getBytes(docId, context));
+  }
+
+  /**
+   * Returns the binary JSON document for the given document id.
+   */
+  @Override
+  public byte[] getBytes(int docId, VarByteChunkForwardIndexReaderV4.ReaderContext context) {
+    return _indexReader.getBytes(docId, context);
+  }
+
+  /**
+   * Returns the JSON document as {@link JsonNode} for the given document id, or {@code null} if the document is not
+   * valid JSON (use {@link #getString(int, VarByteChunkForwardIndexReaderV4.ReaderContext)} to read the raw text).
+   */
+  @Nullable
+  public JsonNode getJsonNode(int docId, VarByteChunkForwardIndexReaderV4.ReaderContext context) {
+    return BinaryJsonUtils.toJsonNode(_indexReader.getBytes(docId, context));
+  }
+
+  @Override
+  public void close()
+      throws IOException {
+    _indexReader.close();
+  }
+}
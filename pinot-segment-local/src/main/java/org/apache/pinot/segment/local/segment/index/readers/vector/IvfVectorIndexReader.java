@@ -0,0 +1,250 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.segment.index.readers.vector;
+
+import com.google.common.base.Preconditions;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import javax.annotation.Nullable;
+import org.apache.pinot.segment.local.segment.creator.impl.vector.IvfVectorIndexCreator;
+import org.apache.pinot.segment.local.segment.creator.impl.vector.ivf.IvfIndexProperties;
+import org.apache.pinot.segment.local.segment.creator.impl.vector.ivf.IvfIndexProperties.QuantizerType;
+import org.apache.pinot.segment.local.segment.creator.impl.vector.ivf.NearestNeighborCollector;
+import org.apache.pinot.segment.local.segment.creator.impl.vector.ivf.VectorDistances;
+import org.apache.pinot.segment.local.segment.creator.impl.vector.ivf.VectorQuantizer;
+import org.apache.pinot.segment.spi.index.creator.VectorIndexConfig;
+import org.apache.pinot.segment.spi.index.creator.VectorIndexConfig.VectorDistanceFunction;
+import org.apache.pinot.segment.spi.index.reader.Dictionary;
+import org.apache.pinot.segment.spi.index.reader.ForwardIndexReader;
+import org.apache.pinot.segment.spi.index.reader.ForwardIndexReaderContext;
+import org.apache.pinot.segment.spi.index.reader.VectorIndexReader;
+import org.apache.pinot.segment.spi.memory.PinotDataBuffer;
+import org.apache.pinot.segment.spi.store.SegmentDirectoryPaths;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
+import org.roaringbitmap.buffer.MutableRoaringBitmap;
+
+
+/**
+ * Reader for the IVF vector index created by {@link IvfVectorIndexCreator}. The centroids, the quantizer and the list
+ * offsets are loaded on heap, while the doc ids and the codes are read from the memory-mapped index file.
+ *
+ * A search scans the lists with the closest centroids (at least numProbes lists, and more until enough candidates are
+ * collected), and scores the vectors with the quantized codes. When the forward index is available, the top
+ * (topK * rerankFactor) candidates are re-ranked with the exact vectors. When a filter bitmap is given, only the
+ * matching documents are collected, and if the filter is selective enough, the matching documents are searched
+ * exhaustively with the exact vectors instead.
+ */
+public class IvfVectorIndexReader implements VectorIndexReader {
+  private final String _column;
+  private final PinotDataBuffer _dataBuffer;
+  private final int _dimension;
+  private final VectorDistanceFunction _distanceFunction;
+  private final boolean _innerProduct;
+  private final int _numVectors;
+  private final int _numProbes;
+  private final int _rerankFactor;
+  private final float[][] _centroids;
+  @Nullable
+  private final VectorQuantizer _quantizer;
+  private final int[] _offsets;
+  private final int _codeSize;
+  private final long _docIdsOffset;
+  private final long _codesOffset;
+
+  // For exact re-ranking
+  @Nullable
+  private final ForwardIndexReader<ForwardIndexReaderContext> _forwardIndexReader;
+  @Nullable
+  private final Dictionary _dictionary;
+  private final int _maxNumValuesPerMVEntry;
+
+  public IvfVectorIndexReader(String column, File segmentIndexDir, VectorIndexConfig config,
+      @Nullable ForwardIndexReader<?> forwardIndexReader, @Nullable Dictionary dictionary, int maxNumValuesPerMVEntry)
+      throws IOException {
+    _column = column;
+    File indexFile = SegmentDirectoryPaths.findIvfVectorIndexFile(segmentIndexDir, column);
+    Preconditions.checkState(indexFile != null, "Failed to find IVF index file for column: %s", column);
+    _dataBuffer = PinotDataBuffer.mapFile(indexFile, true, 0, indexFile.length(), ByteOrder.BIG_ENDIAN,
+        "IVF vector index buffer: " + column);
+    try {
+      int version = _dataBuffer.getInt(0);
+      Preconditions.checkState(version == IvfVectorIndexCreator.VERSION, "Unsupported IVF index version: %s",
+          version);
+      _dimension = _dataBuffer.getInt(Integer.BYTES);
+      _distanceFunction = VectorDistanceFunction.values()[_dataBuffer.getInt(2 * Integer.BYTES)];
+      _innerProduct = VectorDistances.isInnerProduct(_distanceFunction);
+      QuantizerType quantizerType = QuantizerType.values()[_dataBuffer.getInt(3 * Integer.BYTES)];
+      _numVectors = _dataBuffer.getInt(4 * Integer.BYTES);
+      int numLists = _dataBuffer.getInt(5 * Integer.BYTES);
+      _codeSize = _dataBuffer.getInt(6 * Integer.BYTES);
+
+      long offset = IvfVectorIndexCreator.HEADER_SIZE;
+      _centroids = new float[numLists][_dimension];
+      for (float[] centroid : _centroids) {
+        for (int i = 0; i < _dimension; i++) {
+          centroid[i] = _dataBuffer.getFloat(offset);
+          offset += Float.BYTES;
+        }
+      }
+      if (_numVectors > 0) {
+        _quantizer = VectorQuantizer.read(quantizerType, _dataBuffer, offset, _dimension);
+        offset += _quantizer.getSerializedSize();
+      } else {
+        _quantizer = null;
+      }
+      _offsets = new int[numLists + 1];
+      for (int i = 0; i <= numLists; i++) {
+        _offsets[i] = _dataBuffer.getInt(offset);
+        offset += Integer.BYTES;
+      }
+      _docIdsOffset = offset;
+      _codesOffset = offset + (long) _numVectors * Integer.BYTES;
+    } catch (RuntimeException e) {
+      _dataBuffer.close();
+      throw e;
+    }
+
+    IvfIndexProperties properties = new IvfIndexProperties(_dimension, config.getProperties());
+    _numProbes = properties.getNumProbes();
+    _rerankFactor = properties.getRerankFactor();
+    //noinspection unchecked
+    _forwardIndexReader = (ForwardIndexReader<ForwardIndexReaderContext>) forwardIndexReader;
+    _dictionary = dictionary;
+    _maxNumValuesPerMVEntry = maxNumValuesPerMVEntry;
+  }
+
+  @Override
+  public ImmutableRoaringBitmap getDocIds(float[] vector, int topK) {
+    return search(vector, topK, null);
+  }
+
+  @Override
+  public boolean isPrefilterSupported() {
+    return true;
+  }
+
+  @Override
+  public ImmutableRoaringBitmap getDocIds(float[] vector, int topK, ImmutableRoaringBitmap filterBitmap) {
+    return search(vector, topK, filterBitmap);
+  }
+
+  private MutableRoaringBitmap search(float[] vector, int topK, @Nullable ImmutableRoaringBitmap filterBitmap) {
+    if (_numVectors == 0 || topK <= 0 || vector.length != _dimension) {
+      return new MutableRoaringBitmap();
+    }
+    float[] query = vector.clone();
+    VectorDistances.preprocess(query, _distanceFunction);
+    boolean rerank = _forwardIndexReader != null;
+    int numCandidates = rerank ? topK * _rerankFactor : topK;
+
+    try (ForwardIndexReaderContext context = rerank ? _forwardIndexReader.createContext() : null) {
+      // Exact search when the filter is selective enough
+      if (rerank && filterBitmap != null && filterBitmap.getCardinality() <= numCandidates) {
+        return rerank(query, filterBitmap.toArray(), topK, context);
+      }
+      NearestNeighborCollector collector = new NearestNeighborCollector(numCandidates);
+      int[] lists = VectorDistances.getListsByDistance(_centroids, query, _innerProduct);
+      assert _quantizer != null;
+      VectorQuantizer.CodeScorer innerProductScorer = _innerProduct ? _quantizer.getScorer(query, true) : null;
+      float[] queryResidual = _innerProduct ? null : new float[_dimension];
+      for (int i = 0; i < lists.length; i++) {
+        if (i >= _numProbes && collector.isFull()) {
+          break;
+        }
+        int list = lists[i];
+        int startPosition = _offsets[list];
+        int endPosition = _offsets[list + 1];
+        if (startPosition == endPosition) {
+          continue;
+        }
+        float[] centroid = _centroids[list];
+        VectorQuantizer.CodeScorer scorer;
+        float baseDistance;
+        if (_innerProduct) {
+          // -<q, c + r> = -<q, c> - <q, r>
+          scorer = innerProductScorer;
+          baseDistance = -VectorDistances.dotProduct(query, centroid);
+        } else {
+          for (int j = 0; j < _dimension; j++) {
+            queryResidual[j] = query[j] - centroid[j];
+          }
+          scorer = _quantizer.getScorer(queryResidual, false);
+          baseDistance = 0;
+        }
+        for (int position = startPosition; position < endPosition; position++) {
+          int docId = _dataBuffer.getInt(_docIdsOffset + (long) position * Integer.BYTES);
+          if (filterBitmap != null && !filterBitmap.contains(docId)) {
+            continue;
+          }
+          float score = scorer.score(_dataBuffer, _codesOffset + (long) position * _codeSize);
+          collector.collect(docId, _innerProduct ? baseDistance - score : score);
+        }
+      }
+      if (!rerank) {
+        return collector.toBitmap();
+      }
+      return rerank(query, collector.getDocIds(), topK, context);
+    }
+  }
+
+  /**
+   * Returns the top k closest documents among the candidates with the exact vectors read from the forward index.
+   */
+  private MutableRoaringBitmap rerank(float[] query, int[] candidates, int topK,
+      @Nullable ForwardIndexReaderContext context) {
+    assert _forwardIndexReader != null;
+    NearestNeighborCollector collector = new NearestNeighborCollector(topK);
+    float[] vector = new float[_maxNumValuesPerMVEntry];
+    int[] dictIds = _dictionary != null ? new int[_maxNumValuesPerMVEntry] : null;
+    for (int docId : candidates) {
+      int numValues;
+      if (_dictionary != null) {
+        numValues = _forwardIndexReader.getDictIdMV(docId, dictIds, context);
+        if (numValues == _dimension) {
+          for (int i = 0; i < numValues; i++) {
+            vector[i] = _dictionary.getFloatValue(dictIds[i]);
+          }
+        }
+      } else {
+        numValues = _forwardIndexReader.getFloatMV(docId, vector, context);
+      }
+      if (numValues != _dimension) {
+        continue;
+      }
+      float[] docVector = Arrays.copyOf(vector, _dimension);
+      VectorDistances.preprocess(docVector, _distanceFunction);
+      collector.collect(docId, VectorDistances.distance(query, docVector, _innerProduct));
+    }
+    return collector.toBitmap();
+  }
+
+  @Override
+  public void close()
+      throws IOException {
+    _dataBuffer.close();
+    if (_forwardIndexReader != null) {
+      _forwardIndexReader.close();
+    }
+    if (_dictionary != null) {
+      _dictionary.close();
+    }
+  }
+}
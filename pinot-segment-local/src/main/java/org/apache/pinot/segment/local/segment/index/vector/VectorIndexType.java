@@ -24,10 +24,13 @@ import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import javax.annotation.Nullable;
+import org.apache.pinot.segment.local.realtime.impl.vector.MutableIvfVectorIndex;
 import org.apache.pinot.segment.local.realtime.impl.vector.MutableVectorIndex;
 import org.apache.pinot.segment.local.segment.creator.impl.vector.HnswVectorIndexCreator;
+import org.apache.pinot.segment.local.segment.creator.impl.vector.IvfVectorIndexCreator;
 import org.apache.pinot.segment.local.segment.index.loader.invertedindex.VectorIndexHandler;
 import org.apache.pinot.segment.local.segment.index.readers.vector.HnswVectorIndexReader;
+import org.apache.pinot.segment.local.segment.index.readers.vector.IvfVectorIndexReader;
 import org.apache.pinot.segment.spi.ColumnMetadata;
 import org.apache.pinot.segment.spi.V1Constants;
 import org.apache.pinot.segment.spi.creator.IndexCreationContext;
@@ -43,8 +46,11 @@ import org.apache.pinot.segment.spi.index.creator.VectorIndexConfig;
 import org.apache.pinot.segment.spi.index.creator.VectorIndexCreator;
 import org.apache.pinot.segment.spi.index.mutable.MutableIndex;
 import org.apache.pinot.segment.spi.index.mutable.provider.MutableIndexContext;
+import org.apache.pinot.segment.spi.index.reader.Dictionary;
+import org.apache.pinot.segment.spi.index.reader.ForwardIndexReader;
 import org.apache.pinot.segment.spi.index.reader.VectorIndexReader;
 import org.apache.pinot.segment.spi.store.SegmentDirectory;
+import org.apache.pinot.segment.spi.store.SegmentDirectoryPaths;
 import org.apache.pinot.spi.config.table.FieldConfig;
 import org.apache.pinot.spi.config.table.TableConfig;
 import org.apache.pinot.spi.data.FieldSpec;
@@ -53,8 +59,12 @@ import org.apache.pinot.spi.data.Schema;
 
 /**
  * Index type for vector columns.
- * Currently only supports for float array columns and the supported vector index type is: HNSW.
- *
+ * Currently only supports for float array columns and the supported vector index types are:
+ * <ul>
+ *   <li>HNSW: Lucene based HNSW graph index</li>
+ *   <li>IVF: native inverted file index with product or scalar quantization, exact re-ranking from the forward index
+ *   and pre-filtering support (see {@link IvfVectorIndexCreator})</li>
+ * </ul>
  */
 public class VectorIndexType extends AbstractIndexType<VectorIndexConfig, VectorIndexReader, VectorIndexCreator> {
   public static final String INDEX_DISPLAY_NAME = "vector";
@@ -83,8 +93,9 @@ public class VectorIndexType extends AbstractIndexType<VectorIndexConfig, Vector
       Preconditions.checkState(fieldSpec.getDataType().getStoredType() == FieldSpec.DataType.FLOAT,
           "Cannot create vector index on column: %s of stored type other than FLOAT", column);
       String vectorIndexType = vectorIndexConfig.getVectorIndexType();
-      Preconditions.checkState("HNSW".equals(vectorIndexType),
-          "Unsupported vector index type: %s for column: %s, only 'HNSW' is supported", vectorIndexType, column);
+      Preconditions.checkState(isSupportedIndexType(vectorIndexType),
+          "Unsupported vector index type: %s for column: %s, only 'HNSW' and 'IVF' are supported", vectorIndexType,
+          column);
     }
   }
 
@@ -104,12 +115,19 @@ public class VectorIndexType extends AbstractIndexType<VectorIndexConfig, Vector
       throws IOException {
     Preconditions.checkState(context.getFieldSpec().getDataType() == FieldSpec.DataType.FLOAT && !context.getFieldSpec()
         .isSingleValueField(), "Vector index is currently only supported on float array columns");
-    // TODO: Support more vector index types.
-    Preconditions.checkState("HNSW".equals(indexConfig.getVectorIndexType()),
-        "Unsupported vector index type: %s, only 'HNSW' is support", indexConfig.getVectorIndexType());
+    String vectorIndexType = indexConfig.getVectorIndexType();
+    Preconditions.checkState(isSupportedIndexType(vectorIndexType),
+        "Unsupported vector index type: %s, only 'HNSW' and 'IVF' are supported", vectorIndexType);
+    if (IndexType.IVF.name().equals(vectorIndexType)) {
+      return new IvfVectorIndexCreator(context.getFieldSpec().getName(), context.getIndexDir(), indexConfig);
+    }
     return new HnswVectorIndexCreator(context.getFieldSpec().getName(), context.getIndexDir(), indexConfig);
   }
 
+  private static boolean isSupportedIndexType(String vectorIndexType) {
+    return IndexType.HNSW.name().equals(vectorIndexType) || IndexType.IVF.name().equals(vectorIndexType);
+  }
+
   @Override
   protected IndexReaderFactory<VectorIndexReader> createReaderFactory() {
     return ReaderFactory.INSTANCE;
@@ -125,7 +143,8 @@ public class VectorIndexType extends AbstractIndexType<VectorIndexConfig, Vector
   public List<String> getFileExtensions(@Nullable ColumnMetadata columnMetadata) {
     return List.of(V1Constants.Indexes.VECTOR_INDEX_FILE_EXTENSION,
         V1Constants.Indexes.VECTOR_V99_INDEX_FILE_EXTENSION,
-        V1Constants.Indexes.VECTOR_V912_INDEX_FILE_EXTENSION);
+        V1Constants.Indexes.VECTOR_V912_INDEX_FILE_EXTENSION,
+        V1Constants.Indexes.VECTOR_IVF_INDEX_FILE_EXTENSION);
   }
 
   private static class ReaderFactory implements IndexReaderFactory<VectorIndexReader> {
@@ -138,7 +157,7 @@ public class VectorIndexType extends AbstractIndexType<VectorIndexConfig, Vector
     @Override
     public VectorIndexReader createIndexReader(SegmentDirectory.Reader segmentReader,
         FieldIndexConfigs fieldIndexConfigs, ColumnMetadata metadata)
-        throws IndexReaderConstraintException {
+        throws IOException, IndexReaderConstraintException {
       if (metadata.getDataType() != FieldSpec.DataType.FLOAT || metadata.getFieldSpec().isSingleValueField()) {
         throw new IndexReaderConstraintException(metadata.getColumnName(), StandardIndexes.vector(),
             "HNSW Vector index is currently only supported on float array type columns");
@@ -146,6 +165,23 @@ public class VectorIndexType extends AbstractIndexType<VectorIndexConfig, Vector
       File segmentDir = segmentReader.toSegmentDirectory().getPath().toFile();
 
       VectorIndexConfig indexConfig = fieldIndexConfigs.getConfig(StandardIndexes.vector());
+      if (SegmentDirectoryPaths.findIvfVectorIndexFile(segmentDir, metadata.getColumnName()) != null) {
+        // Separate forward index (and dictionary) readers are created for the exact re-ranking
+        ForwardIndexReader<?> forwardIndexReader =
+            StandardIndexes.forward().getReaderFactory().createIndexReader(segmentReader, fieldIndexConfigs, metadata);
+        Dictionary dictionary = null;
+        if (forwardIndexReader != null && metadata.hasDictionary()) {
+          dictionary =
+              StandardIndexes.dictionary().getReaderFactory().createIndexReader(segmentReader, fieldIndexConfigs,
+                  metadata);
+          if (dictionary == null) {
+            forwardIndexReader.close();
+            forwardIndexReader = null;
+          }
+        }
+        return new IvfVectorIndexReader(metadata.getColumnName(), segmentDir, indexConfig, forwardIndexReader,
+            dictionary, metadata.getMaxNumberOfMultiValues());
+      }
       return new HnswVectorIndexReader(metadata.getColumnName(), segmentDir, metadata.getTotalDocs(), indexConfig);
     }
   }
@@ -161,10 +197,14 @@ public class VectorIndexType extends AbstractIndexType<VectorIndexConfig, Vector
       return null;
     }
 
+    if (IndexType.IVF.name().equals(config.getVectorIndexType())) {
+      return new MutableIvfVectorIndex(context.getSegmentName(), context.getFieldSpec().getName(), config,
+          context.getMemoryManager());
+    }
     return new MutableVectorIndex(context.getSegmentName(), context.getFieldSpec().getName(), config);
   }
 
   public enum IndexType {
-    HNSW
+    HNSW, IVF
   }
 }
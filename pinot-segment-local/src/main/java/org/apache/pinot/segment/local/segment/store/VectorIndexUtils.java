@@ -52,11 +52,16 @@ public class VectorIndexUtils {
     FileUtils.deleteQuietly(nativeV99IndexFile);
     File nativeV912IndexFile = new File(segDir, column + Indexes.VECTOR_V912_INDEX_FILE_EXTENSION);
     FileUtils.deleteQuietly(nativeV912IndexFile);
+
+    // Remove the IVF index file
+    File ivfIndexFile = new File(segDir, column + Indexes.VECTOR_IVF_INDEX_FILE_EXTENSION);
+    FileUtils.deleteQuietly(ivfIndexFile);
   }
 
   static boolean hasVectorIndex(File segDir, String column) {
     return new File(segDir, column + Indexes.VECTOR_V912_HNSW_INDEX_FILE_EXTENSION).exists()
-        || new File(segDir, column + Indexes.VECTOR_V912_INDEX_FILE_EXTENSION).exists();
+        || new File(segDir, column + Indexes.VECTOR_V912_INDEX_FILE_EXTENSION).exists()
+        || new File(segDir, column + Indexes.VECTOR_IVF_INDEX_FILE_EXTENSION).exists();
   }
 
   public static VectorSimilarityFunction toSimilarityFunction(
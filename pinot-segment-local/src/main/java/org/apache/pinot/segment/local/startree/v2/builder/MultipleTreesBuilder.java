@@ -24,7 +24,11 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import javax.annotation.Nullable;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.configuration2.Configuration;
@@ -169,6 +173,15 @@ public class MultipleTreesBuilder implements Closeable {
    */
   public void build()
       throws Exception {
+    build(null);
+  }
+
+  /**
+   * Builds the star-trees. When an executor service is provided, the star-trees that cannot be reused from the existing
+   * ones are built concurrently, each into its own temporary directory, and then combined in order.
+   */
+  public void build(@Nullable ExecutorService executorService)
+      throws Exception {
     long startTime = System.currentTimeMillis();
     int numStarTrees = _builderConfigs.size();
     int reusedStarTrees = 0;
@@ -182,21 +195,26 @@ public class MultipleTreesBuilder implements Closeable {
       _metadataProperties.addProperty(MetadataKey.STAR_TREE_COUNT, numStarTrees);
       List<List<Pair<IndexKey, IndexValue>>> indexMaps = new ArrayList<>(numStarTrees);
 
-      // Build all star-trees
-      for (int i = 0; i < numStarTrees; i++) {
-        StarTreeV2BuilderConfig builderConfig = _builderConfigs.get(i);
-        Configuration metadataProperties = _metadataProperties.subset(MetadataKey.getStarTreePrefix(i));
-        if (_separator != null && handleExistingStarTreeAddition(starTreeIndexDir, metadataProperties, builderConfig)) {
-          // Used existing tree
-          LOGGER.info("Reused existing star-tree: {}", builderConfig.toString());
-          reusedStarTrees++;
-        } else {
-          try (SingleTreeBuilder singleTreeBuilder = getSingleTreeBuilder(builderConfig, starTreeIndexDir, _segment,
-              metadataProperties, _buildMode)) {
-            singleTreeBuilder.build();
+      if (executorService != null && numStarTrees > 1) {
+        reusedStarTrees = buildConcurrently(executorService, indexCombiner, starTreeIndexDir, indexMaps);
+      } else {
+        // Build all star-trees
+        for (int i = 0; i < numStarTrees; i++) {
+          StarTreeV2BuilderConfig builderConfig = _builderConfigs.get(i);
+          Configuration metadataProperties = _metadataProperties.subset(MetadataKey.getStarTreePrefix(i));
+          if (_separator != null && handleExistingStarTreeAddition(starTreeIndexDir, metadataProperties,
+              builderConfig)) {
+            // Used existing tree
+            LOGGER.info("Reused existing star-tree: {}", builderConfig.toString());
+            reusedStarTrees++;
+          } else {
+            try (SingleTreeBuilder singleTreeBuilder = getSingleTreeBuilder(builderConfig, starTreeIndexDir, _segment,
+                metadataProperties, _buildMode)) {
+              singleTreeBuilder.build();
+            }
           }
+          indexMaps.add(indexCombiner.combine(builderConfig, starTreeIndexDir));
         }
-        indexMaps.add(indexCombiner.combine(builderConfig, starTreeIndexDir));
       }
 
       // Save the metadata and index maps to the disk
@@ -211,6 +229,71 @@ public class MultipleTreesBuilder implements Closeable {
         System.currentTimeMillis() - startTime);
   }
 
+  /**
+   * Builds the star-trees concurrently with the given executor service, and returns the number of reused star-trees.
+   * Each star-tree is built into a separate directory with a separate metadata properties, which are merged into the
+   * segment metadata properties in order after the star-tree is built.
+   */
+  private int buildConcurrently(ExecutorService executorService, StarTreeIndexCombiner indexCombiner,
+      File starTreeIndexDir, List<List<Pair<IndexKey, IndexValue>>> indexMaps)
+      throws Exception {
+    int numStarTrees = _builderConfigs.size();
+    int reusedStarTrees = 0;
+    List<File> starTreeDirs = new ArrayList<>(numStarTrees);
+    // Null future for the reused star-trees
+    List<Future<PropertiesConfiguration>> futures = new ArrayList<>(numStarTrees);
+    try {
+      for (int i = 0; i < numStarTrees; i++) {
+        StarTreeV2BuilderConfig builderConfig = _builderConfigs.get(i);
+        File starTreeDir = new File(starTreeIndexDir, Integer.toString(i));
+        FileUtils.forceMkdir(starTreeDir);
+        starTreeDirs.add(starTreeDir);
+        Configuration metadataProperties = _metadataProperties.subset(MetadataKey.getStarTreePrefix(i));
+        if (_separator != null && handleExistingStarTreeAddition(starTreeDir, metadataProperties, builderConfig)) {
+          LOGGER.info("Reused existing star-tree: {}", builderConfig.toString());
+          reusedStarTrees++;
+          futures.add(null);
+        } else {
+          futures.add(executorService.submit(() -> {
+            PropertiesConfiguration starTreeMetadataProperties = new PropertiesConfiguration();
+            try (SingleTreeBuilder singleTreeBuilder = getSingleTreeBuilder(builderConfig, starTreeDir, _segment,
+                starTreeMetadataProperties, _buildMode)) {
+              singleTreeBuilder.build();
+            }
+            return starTreeMetadataProperties;
+          }));
+        }
+      }
+      for (int i = 0; i < numStarTrees; i++) {
+        Future<PropertiesConfiguration> future = futures.get(i);
+        if (future != null) {
+          PropertiesConfiguration starTreeMetadataProperties;
+          try {
+            starTreeMetadataProperties = future.get();
+          } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof Exception ? (Exception) cause : e;
+          }
+          Configuration metadataProperties = _metadataProperties.subset(MetadataKey.getStarTreePrefix(i));
+          Iterator<String> keys = starTreeMetadataProperties.getKeys();
+          while (keys.hasNext()) {
+            String key = keys.next();
+            metadataProperties.setProperty(key, starTreeMetadataProperties.getProperty(key));
+          }
+        }
+        indexMaps.add(indexCombiner.combine(_builderConfigs.get(i), starTreeDirs.get(i)));
+      }
+    } catch (Exception e) {
+      for (Future<PropertiesConfiguration> future : futures) {
+        if (future != null) {
+          future.cancel(true);
+        }
+      }
+      throw e;
+    }
+    return reusedStarTrees;
+  }
+
   /**
    * Helper utility to move the individual star-tree files to the {@param starTreeIndexDir} from where it will be picked
    * by the combiner to merge them into the single star-tree index file. The method also takes care of updating the
@@ -0,0 +1,709 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.upsert;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.primitives.Longs;
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import org.apache.pinot.common.metrics.ServerMeter;
+import org.apache.pinot.segment.local.indexsegment.immutable.ImmutableSegmentImpl;
+import org.apache.pinot.segment.local.io.writer.impl.DirectMemoryManager;
+import org.apache.pinot.segment.local.segment.readers.LazyRow;
+import org.apache.pinot.segment.local.upsert.ConcurrentMapPartitionUpsertMetadataManager.RecordLocation;
+import org.apache.pinot.segment.local.utils.HashUtils;
+import org.apache.pinot.segment.spi.IndexSegment;
+import org.apache.pinot.segment.spi.MutableSegment;
+import org.apache.pinot.segment.spi.index.mutable.ThreadSafeMutableRoaringBitmap;
+import org.apache.pinot.segment.spi.memory.PinotDataBuffer;
+import org.apache.pinot.spi.config.table.HashFunction;
+import org.apache.pinot.spi.data.FieldSpec;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.apache.pinot.spi.data.readers.GenericRow;
+import org.apache.pinot.spi.data.readers.PrimaryKey;
+import org.apache.pinot.spi.utils.builder.TableNameBuilder;
+import org.roaringbitmap.buffer.MutableRoaringBitmap;
+
+
+/**
+ * Implementation of {@link PartitionUpsertMetadataManager} that is backed by an off-heap open-addressing hash table
+ * allocated from a {@link DirectMemoryManager}, which avoids keeping one on-heap key and record location
+ * object per primary key.
+ * <p>Each slot of the hash table has a fixed width of 32 bytes:
+ * <ul>
+ *   <li>16 bytes for the 128-bit primary key hash</li>
+ *   <li>4 bytes for the segment id (0 for empty slot, -1 for removed slot)</li>
+ *   <li>4 bytes for the doc id</li>
+ *   <li>8 bytes for the comparison value</li>
+ * </ul>
+ * <p>Primary keys are only stored as 128-bit hashes: the configured MD5 or MURMUR3 hash, or the UUID bytes for single
+ * UUID primary key (MURMUR3 otherwise). The full primary keys are not kept, so 2 primary keys with the same hash are
+ * treated as the same key. This is the same trade-off as configuring a hash function for the on-heap metadata
+ * manager, and the reason why {@code hashFunction} must be explicitly configured (NONE is rejected). Only a single
+ * numeric (INT, LONG, FLOAT, DOUBLE) comparison column is supported. Segments are referenced by integer ids, which
+ * are released once no primary key points to the segment.
+ * <p>All the accesses to the hash table within a partition are guarded by a single lock.
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+@ThreadSafe
+public class OffHeapPartitionUpsertMetadataManager extends BasePartitionUpsertMetadataManager {
+  // Key of the metadata manager configs for the initial number of slots of the hash table
+  public static final String INITIAL_CAPACITY_KEY = "offHeapInitialCapacity";
+  public static final int DEFAULT_INITIAL_CAPACITY = 1 << 16;
+
+  private static final int SLOT_SIZE = 32;
+  private static final int KEY_HIGH_OFFSET = 0;
+  private static final int KEY_LOW_OFFSET = 8;
+  private static final int SEGMENT_ID_OFFSET = 16;
+  private static final int DOC_ID_OFFSET = 20;
+  private static final int COMPARISON_VALUE_OFFSET = 24;
+  private static final int EMPTY_SEGMENT_ID = 0;
+  private static final int REMOVED_SEGMENT_ID = -1;
+  private static final double MAX_LOAD_FACTOR = 0.75;
+  private static final int MAX_CAPACITY = 1 << 30;
+
+  // Used to initialize a reference to previous row for merging in partial upsert
+  private final LazyRow _reusePreviousRow = new LazyRow();
+  private final Map<String, Object> _reuseMergeResultHolder = new HashMap<>();
+
+  private final DataType _comparisonValueType;
+  private final DirectMemoryManager _memoryManager;
+  private final Object _lock = new Object();
+
+  // Guarded by _lock
+  private final Map<IndexSegment, Integer> _segmentToIdMap = new IdentityHashMap<>();
+  private final Int2ObjectOpenHashMap<IndexSegment> _idToSegmentMap = new Int2ObjectOpenHashMap<>();
+  private final Int2IntOpenHashMap _segmentIdToNumKeysMap = new Int2IntOpenHashMap();
+  private PinotDataBuffer _buffer;
+  private int _capacity;
+  // Number of non-empty slots, including the removed ones
+  private int _numUsedSlots;
+  private int _nextSegmentId = 1;
+
+  private volatile int _numPrimaryKeys;
+
+  public OffHeapPartitionUpsertMetadataManager(String tableNameWithType, int partitionId, UpsertContext context) {
+    super(tableNameWithType, partitionId, context);
+    Preconditions.checkArgument(_hashFunction != HashFunction.NONE,
+        "Off-heap upsert metadata manager only supports MD5, MURMUR3 or UUID hash function, got: %s", _hashFunction);
+    Preconditions.checkArgument(_comparisonColumns.size() == 1,
+        "Off-heap upsert metadata manager only supports single comparison column, got: %s", _comparisonColumns);
+    String comparisonColumn = _comparisonColumns.get(0);
+    FieldSpec fieldSpec = context.getSchema().getFieldSpecFor(comparisonColumn);
+    Preconditions.checkArgument(fieldSpec != null, "Failed to find comparison column: %s in schema",
+        comparisonColumn);
+    _comparisonValueType = fieldSpec.getDataType().getStoredType();
+    Preconditions.checkArgument(_comparisonValueType.isNumeric() && _comparisonValueType != DataType.BIG_DECIMAL,
+        "Off-heap upsert metadata manager only supports INT/LONG/FLOAT/DOUBLE comparison column, got: %s of type: %s",
+        comparisonColumn, _comparisonValueType);
+    _memoryManager = new DirectMemoryManager(tableNameWithType + "_" + partitionId,
+        TableNameBuilder.extractRawTableName(tableNameWithType), _serverMetrics);
+    int initialCapacity = DEFAULT_INITIAL_CAPACITY;
+    Map<String, String> metadataManagerConfigs = context.getMetadataManagerConfigs();
+    if (metadataManagerConfigs != null && metadataManagerConfigs.containsKey(INITIAL_CAPACITY_KEY)) {
+      initialCapacity = Integer.parseInt(metadataManagerConfigs.get(INITIAL_CAPACITY_KEY));
+    }
+    _capacity = HashCommon.nextPowerOfTwo(Math.max(Math.min(initialCapacity, MAX_CAPACITY), 16));
+    _buffer = allocateBuffer(_capacity);
+  }
+
+  @Override
+  protected long getNumPrimaryKeys() {
+    return _numPrimaryKeys;
+  }
+
+  @Override
+  protected void doAddOrReplaceSegment(ImmutableSegmentImpl segment, ThreadSafeMutableRoaringBitmap validDocIds,
+      @Nullable ThreadSafeMutableRoaringBitmap queryableDocIds, Iterator<RecordInfo> recordInfoIterator,
+      @Nullable IndexSegment oldSegment, @Nullable MutableRoaringBitmap validDocIdsForOldSegment) {
+    String segmentName = segment.getSegmentName();
+    segment.enableUpsert(this, validDocIds, queryableDocIds);
+
+    int numKeysInWrongSegment = 0;
+    long[] key = new long[2];
+    while (recordInfoIterator.hasNext()) {
+      RecordInfo recordInfo = recordInfoIterator.next();
+      int newDocId = recordInfo.getDocId();
+      Comparable newComparisonValue = recordInfo.getComparisonValue();
+      long newComparisonBits = encodeComparisonValue(newComparisonValue);
+      hashPrimaryKey(recordInfo.getPrimaryKey(), key);
+      synchronized (_lock) {
+        int segmentId = getOrCreateSegmentId(segment);
+        int slot = findSlot(key[0], key[1]);
+        if (slot >= 0) {
+          // Existing primary key
+          long slotOffset = (long) slot * SLOT_SIZE;
+          IndexSegment currentSegment = _idToSegmentMap.get(_buffer.getInt(slotOffset + SEGMENT_ID_OFFSET));
+          int currentDocId = _buffer.getInt(slotOffset + DOC_ID_OFFSET);
+          int comparisonResult =
+              compareComparisonValues(newComparisonBits, _buffer.getLong(slotOffset + COMPARISON_VALUE_OFFSET));
+
+          // The current record is in the same segment
+          // Update the record location when there is a tie to keep the newer record. Note that the record info
+          // iterator will return records with incremental doc ids.
+          if (currentSegment == segment) {
+            if (comparisonResult >= 0) {
+              replaceDocId(segment, validDocIds, queryableDocIds, currentDocId, newDocId, recordInfo);
+              updateSlot(slotOffset, segmentId, newDocId, newComparisonBits);
+            }
+            continue;
+          }
+
+          // The current record is in an old segment being replaced
+          // See ConcurrentMapPartitionUpsertMetadataManager for details.
+          if (currentSegment == oldSegment) {
+            if (comparisonResult >= 0) {
+              if (validDocIdsForOldSegment == null && oldSegment != null && oldSegment.getValidDocIds() != null) {
+                // Update the old segment's bitmap in place if a copy of the bitmap was not provided.
+                replaceDocId(segment, validDocIds, queryableDocIds, oldSegment, currentDocId, newDocId, recordInfo);
+              } else {
+                addDocId(segment, validDocIds, queryableDocIds, newDocId, recordInfo);
+                if (validDocIdsForOldSegment != null) {
+                  validDocIdsForOldSegment.remove(currentDocId);
+                }
+              }
+              updateSlot(slotOffset, segmentId, newDocId, newComparisonBits);
+            }
+            continue;
+          }
+
+          // This should not happen because the previously replaced segment should have all keys removed. We still
+          // handle it here, and also track the number of keys not properly replaced previously.
+          String currentSegmentName = currentSegment.getSegmentName();
+          if (currentSegmentName.equals(segmentName)) {
+            numKeysInWrongSegment++;
+            if (comparisonResult >= 0) {
+              addDocId(segment, validDocIds, queryableDocIds, newDocId, recordInfo);
+              updateSlot(slotOffset, segmentId, newDocId, newComparisonBits);
+            }
+            continue;
+          }
+
+          // The current record is in a different segment
+          // Update the record location when getting a newer comparison value, or the value is the same as the
+          // current value, but the segment has a larger sequence number (the segment is newer than the current
+          // segment).
+          if (comparisonResult > 0 || (comparisonResult == 0 && shouldReplaceOnComparisonTie(segmentName,
+              currentSegmentName, getAuthoritativeCreationTime(segment),
+              getAuthoritativeCreationTime(currentSegment)))) {
+            replaceDocId(segment, validDocIds, queryableDocIds, currentSegment, currentDocId, newDocId, recordInfo);
+            updateSlot(slotOffset, segmentId, newDocId, newComparisonBits);
+          }
+        } else {
+          // New primary key
+          addDocId(segment, validDocIds, queryableDocIds, newDocId, recordInfo);
+          insertSlot(slot, key[0], key[1], segmentId, newDocId, newComparisonBits);
+        }
+      }
+    }
+    synchronized (_lock) {
+      releaseSegmentIdIfUnused(segment);
+    }
+    if (numKeysInWrongSegment > 0) {
+      _logger.warn("Found {} primary keys in the wrong segment when adding segment: {}", numKeysInWrongSegment,
+          segmentName);
+      _serverMetrics.addMeteredTableValue(_tableNameWithType, ServerMeter.UPSERT_KEYS_IN_WRONG_SEGMENT,
+          numKeysInWrongSegment);
+    }
+  }
+
+  @Override
+  protected void addSegmentWithoutUpsert(ImmutableSegmentImpl segment, ThreadSafeMutableRoaringBitmap validDocIds,
+      @Nullable ThreadSafeMutableRoaringBitmap queryableDocIds, Iterator<RecordInfo> recordInfoIterator) {
+    segment.enableUpsert(this, validDocIds, queryableDocIds);
+    long[] key = new long[2];
+    while (recordInfoIterator.hasNext()) {
+      RecordInfo recordInfo = recordInfoIterator.next();
+      int newDocId = recordInfo.getDocId();
+      long newComparisonBits = encodeComparisonValue(recordInfo.getComparisonValue());
+      addDocId(segment, validDocIds, queryableDocIds, newDocId, recordInfo);
+      hashPrimaryKey(recordInfo.getPrimaryKey(), key);
+      synchronized (_lock) {
+        int segmentId = getOrCreateSegmentId(segment);
+        int slot = findSlot(key[0], key[1]);
+        if (slot >= 0) {
+          updateSlot((long) slot * SLOT_SIZE, segmentId, newDocId, newComparisonBits);
+        } else {
+          insertSlot(slot, key[0], key[1], segmentId, newDocId, newComparisonBits);
+        }
+      }
+    }
+    synchronized (_lock) {
+      releaseSegmentIdIfUnused(segment);
+    }
+  }
+
+  @Override
+  protected void removeSegment(IndexSegment segment, Iterator<PrimaryKey> primaryKeyIterator) {
+    long[] key = new long[2];
+    while (primaryKeyIterator.hasNext()) {
+      hashPrimaryKey(primaryKeyIterator.next(), key);
+      synchronized (_lock) {
+        Integer segmentId = _segmentToIdMap.get(segment);
+        if (segmentId == null) {
+          // No primary key points to the segment
+          return;
+        }
+        int slot = findSlot(key[0], key[1]);
+        if (slot >= 0) {
+          long slotOffset = (long) slot * SLOT_SIZE;
+          if (_buffer.getInt(slotOffset + SEGMENT_ID_OFFSET) == segmentId) {
+            removeSlot(slotOffset);
+          }
+        }
+      }
+    }
+  }
+
+  @Override
+  public void doRemoveExpiredPrimaryKeys() {
+    int numMetadataTTLKeysRemoved = 0;
+    int numDeletedTTLKeysRemoved = 0;
+    int numTotalKeysMarkedForDeletion = 0;
+    int numDeletedKeysWithinTTLWindow = 0;
+    double largestSeenComparisonValue = _largestSeenComparisonValue.get();
+    double metadataTTLKeysThreshold =
+        _metadataTTL > 0 ? largestSeenComparisonValue - _metadataTTL : Double.NEGATIVE_INFINITY;
+    double deletedKeysThreshold =
+        _deletedKeysTTL > 0 ? largestSeenComparisonValue - _deletedKeysTTL : Double.NEGATIVE_INFINITY;
+    synchronized (_lock) {
+      for (int slot = 0; slot < _capacity; slot++) {
+        long slotOffset = (long) slot * SLOT_SIZE;
+        int segmentId = _buffer.getInt(slotOffset + SEGMENT_ID_OFFSET);
+        if (segmentId == EMPTY_SEGMENT_ID || segmentId == REMOVED_SEGMENT_ID) {
+          continue;
+        }
+        double comparisonValue = decodeComparisonValueAsDouble(_buffer.getLong(slotOffset + COMPARISON_VALUE_OFFSET));
+        if (_metadataTTL > 0 && comparisonValue < metadataTTLKeysThreshold) {
+          removeSlot(slotOffset);
+          numMetadataTTLKeysRemoved++;
+        } else if (_deletedKeysTTL > 0) {
+          IndexSegment segment = _idToSegmentMap.get(segmentId);
+          int docId = _buffer.getInt(slotOffset + DOC_ID_OFFSET);
+          ThreadSafeMutableRoaringBitmap currentQueryableDocIds = segment.getQueryableDocIds();
+          // if key not part of queryable doc id, it means it is deleted
+          if (currentQueryableDocIds != null && !currentQueryableDocIds.contains(docId)) {
+            numTotalKeysMarkedForDeletion++;
+            if (comparisonValue >= deletedKeysThreshold) {
+              // If key is within the TTL window, do not remove it from the hash table
+              numDeletedKeysWithinTTLWindow++;
+            } else {
+              // delete key from the hash table
+              removeSlot(slotOffset);
+              removeDocId(segment, docId);
+              numDeletedTTLKeysRemoved++;
+            }
+          }
+        }
+      }
+    }
+
+    // Update metrics
+    updatePrimaryKeyGauge();
+    if (numMetadataTTLKeysRemoved > 0) {
+      _logger.info("Deleted {} primary keys based on metadataTTL", numMetadataTTLKeysRemoved);
+      _serverMetrics.addMeteredTableValue(_tableNameWithType, ServerMeter.METADATA_TTL_PRIMARY_KEYS_REMOVED,
+          numMetadataTTLKeysRemoved);
+    }
+    if (numDeletedTTLKeysRemoved > 0) {
+      _logger.info("Deleted {} primary keys based on deletedKeysTTL", numDeletedTTLKeysRemoved);
+      _serverMetrics.addMeteredTableValue(_tableNameWithType, ServerMeter.DELETED_KEYS_TTL_PRIMARY_KEYS_REMOVED,
+          numDeletedTTLKeysRemoved);
+    }
+    if (numTotalKeysMarkedForDeletion > 0) {
+      _serverMetrics.addMeteredTableValue(_tableNameWithType, ServerMeter.TOTAL_KEYS_MARKED_FOR_DELETION,
+          numTotalKeysMarkedForDeletion);
+    }
+    if (numDeletedKeysWithinTTLWindow > 0) {
+      _serverMetrics.addMeteredTableValue(_tableNameWithType, ServerMeter.DELETED_KEYS_WITHIN_TTL_WINDOW,
+          numDeletedKeysWithinTTLWindow);
+    }
+  }
+
+  @Override
+  protected boolean doAddRecord(MutableSegment segment, RecordInfo recordInfo) {
+    boolean isOutOfOrderRecord = false;
+    ThreadSafeMutableRoaringBitmap validDocIds = Objects.requireNonNull(segment.getValidDocIds());
+    ThreadSafeMutableRoaringBitmap queryableDocIds = segment.getQueryableDocIds();
+    int newDocId = recordInfo.getDocId();
+    Comparable newComparisonValue = recordInfo.getComparisonValue();
+    long newComparisonBits = encodeComparisonValue(newComparisonValue);
+
+    // When TTL is enabled, update largestSeenComparisonValue when adding new record
+    if (isTTLEnabled()) {
+      double comparisonValue = ((Number) newComparisonValue).doubleValue();
+      _largestSeenComparisonValue.getAndUpdate(v -> Math.max(v, comparisonValue));
+    }
+
+    long[] key = new long[2];
+    hashPrimaryKey(recordInfo.getPrimaryKey(), key);
+    synchronized (_lock) {
+      int segmentId = getOrCreateSegmentId(segment);
+      int slot = findSlot(key[0], key[1]);
+      if (slot >= 0) {
+        // Existing primary key
+        long slotOffset = (long) slot * SLOT_SIZE;
+        long currentComparisonBits = _buffer.getLong(slotOffset + COMPARISON_VALUE_OFFSET);
+
+        // Update the record location when the new comparison value is greater than or equal to the current value.
+        // Update the record location when there is a tie to keep the newer record.
+        if (compareComparisonValues(newComparisonBits, currentComparisonBits) >= 0) {
+          IndexSegment currentSegment = _idToSegmentMap.get(_buffer.getInt(slotOffset + SEGMENT_ID_OFFSET));
+          int currentDocId = _buffer.getInt(slotOffset + DOC_ID_OFFSET);
+          if (segment == currentSegment) {
+            replaceDocId(segment, validDocIds, queryableDocIds, currentDocId, newDocId, recordInfo);
+          } else {
+            replaceDocId(segment, validDocIds, queryableDocIds, currentSegment, currentDocId, newDocId, recordInfo);
+          }
+          updateSlot(slotOffset, segmentId, newDocId, newComparisonBits);
+        } else {
+          // Out-of-order record
+          handleOutOfOrderEvent(decodeComparisonValue(currentComparisonBits), newComparisonValue);
+          isOutOfOrderRecord = true;
+          releaseSegmentIdIfUnused(segment);
+        }
+      } else {
+        // New primary key
+        addDocId(segment, validDocIds, queryableDocIds, newDocId, recordInfo);
+        insertSlot(slot, key[0], key[1], segmentId, newDocId, newComparisonBits);
+      }
+    }
+
+    updatePrimaryKeyGauge();
+    return !isOutOfOrderRecord;
+  }
+
+  @Override
+  protected GenericRow doUpdateRecord(GenericRow record, RecordInfo recordInfo) {
+    assert _partialUpsertHandler != null;
+    long[] key = new long[2];
+    hashPrimaryKey(recordInfo.getPrimaryKey(), key);
+    synchronized (_lock) {
+      int slot = findSlot(key[0], key[1]);
+      if (slot < 0) {
+        return record;
+      }
+      long slotOffset = (long) slot * SLOT_SIZE;
+      // Read the previous record if the following conditions are met:
+      // - New record is not a DELETE record
+      // - New record is not out-of-order
+      // - Previous record is not deleted
+      long newComparisonBits = encodeComparisonValue(recordInfo.getComparisonValue());
+      if (!recordInfo.isDeleteRecord()
+          && compareComparisonValues(newComparisonBits, _buffer.getLong(slotOffset + COMPARISON_VALUE_OFFSET)) >= 0) {
+        IndexSegment currentSegment = _idToSegmentMap.get(_buffer.getInt(slotOffset + SEGMENT_ID_OFFSET));
+        ThreadSafeMutableRoaringBitmap currentQueryableDocIds = currentSegment.getQueryableDocIds();
+        int currentDocId = _buffer.getInt(slotOffset + DOC_ID_OFFSET);
+        if (currentQueryableDocIds == null || currentQueryableDocIds.contains(currentDocId)) {
+          _reusePreviousRow.init(currentSegment, currentDocId);
+          _partialUpsertHandler.merge(_reusePreviousRow, record, _reuseMergeResultHolder);
+          _reuseMergeResultHolder.clear();
+        }
+      }
+    }
+    return record;
+  }
+
+  @Override
+  protected void doClose()
+      throws IOException {
+    synchronized (_lock) {
+      _segmentToIdMap.clear();
+      _idToSegmentMap.clear();
+      _segmentIdToNumKeysMap.clear();
+      _numPrimaryKeys = 0;
+      _memoryManager.close();
+    }
+  }
+
+  /**
+   * Returns the record location of the given primary key, or {@code null} if the primary key does not exist.
+   */
+  @VisibleForTesting
+  @Nullable
+  RecordLocation getRecordLocation(PrimaryKey primaryKey) {
+    long[] key = new long[2];
+    hashPrimaryKey(primaryKey, key);
+    synchronized (_lock) {
+      int slot = findSlot(key[0], key[1]);
+      if (slot < 0) {
+        return null;
+      }
+      long slotOffset = (long) slot * SLOT_SIZE;
+      return new RecordLocation(_idToSegmentMap.get(_buffer.getInt(slotOffset + SEGMENT_ID_OFFSET)),
+          _buffer.getInt(slotOffset + DOC_ID_OFFSET),
+          decodeComparisonValue(_buffer.getLong(slotOffset + COMPARISON_VALUE_OFFSET)));
+    }
+  }
+
+  @VisibleForTesting
+  int getCapacity() {
+    synchronized (_lock) {
+      return _capacity;
+    }
+  }
+
+  @VisibleForTesting
+  int getNumTrackedSegmentIds() {
+    synchronized (_lock) {
+      return _idToSegmentMap.size();
+    }
+  }
+
+  /**
+   * Computes the 128-bit hash of the primary key into the given array. Hash collisions are not detected.
+   */
+  private void hashPrimaryKey(PrimaryKey primaryKey, long[] key) {
+    byte[] bytes;
+    switch (_hashFunction) {
+      case MD5:
+        bytes = HashUtils.hashMD5(primaryKey.asBytes());
+        break;
+      case UUID:
+        bytes = HashUtils.hashUUID(primaryKey);
+        if (bytes.length != 16) {
+          bytes = HashUtils.hashMurmur3(bytes);
+        }
+        break;
+      case MURMUR3:
+        bytes = HashUtils.hashMurmur3(primaryKey.asBytes());
+        break;
+      default:
+        throw new IllegalStateException("Unsupported hash function: " + _hashFunction);
+    }
+    key[0] = Longs.fromBytes(bytes[0], bytes[1], bytes[2], bytes[3], bytes[4], bytes[5], bytes[6], bytes[7]);
+    key[1] = Longs.fromBytes(bytes[8], bytes[9], bytes[10], bytes[11], bytes[12], bytes[13], bytes[14], bytes[15]);
+  }
+
+  private long encodeComparisonValue(Comparable comparisonValue) {
+    Number number = (Number) comparisonValue;
+    switch (_comparisonValueType) {
+      case INT:
+        return number.intValue();
+      case LONG:
+        return number.longValue();
+      case FLOAT:
+        return Float.floatToRawIntBits(number.floatValue());
+      case DOUBLE:
+        return Double.doubleToRawLongBits(number.doubleValue());
+      default:
+        throw new IllegalStateException("Unsupported comparison value type: " + _comparisonValueType);
+    }
+  }
+
+  private Comparable decodeComparisonValue(long comparisonBits) {
+    switch (_comparisonValueType) {
+      case INT:
+        return (int) comparisonBits;
+      case LONG:
+        return comparisonBits;
+      case FLOAT:
+        return Float.intBitsToFloat((int) comparisonBits);
+      case DOUBLE:
+        return Double.longBitsToDouble(comparisonBits);
+      default:
+        throw new IllegalStateException("Unsupported comparison value type: " + _comparisonValueType);
+    }
+  }
+
+  private double decodeComparisonValueAsDouble(long comparisonBits) {
+    switch (_comparisonValueType) {
+      case INT:
+      case LONG:
+        return comparisonBits;
+      case FLOAT:
+        return Float.intBitsToFloat((int) comparisonBits);
+      case DOUBLE:
+        return Double.longBitsToDouble(comparisonBits);
+      default:
+        throw new IllegalStateException("Unsupported comparison value type: " + _comparisonValueType);
+    }
+  }
+
+  private int compareComparisonValues(long comparisonBits1, long comparisonBits2) {
+    switch (_comparisonValueType) {
+      case INT:
+      case LONG:
+        return Long.compare(comparisonBits1, comparisonBits2);
+      case FLOAT:
+        return Float.compare(Float.intBitsToFloat((int) comparisonBits1), Float.intBitsToFloat((int) comparisonBits2));
+      case DOUBLE:
+        return Double.compare(Double.longBitsToDouble(comparisonBits1), Double.longBitsToDouble(comparisonBits2));
+      default:
+        throw new IllegalStateException("Unsupported comparison value type: " + _comparisonValueType);
+    }
+  }
+
+  private PinotDataBuffer allocateBuffer(int capacity) {
+    return _memoryManager.allocate((long) capacity * SLOT_SIZE, "upsertPrimaryKeyToRecordLocation");
+  }
+
+  private int getStartSlot(long keyHigh, long keyLow, int capacity) {
+    return (int) HashCommon.mix(keyHigh ^ keyLow) & (capacity - 1);
+  }
+
+  /**
+   * Returns the slot of the given key if it exists, or {@code -(insertion slot) - 1} otherwise. Should be called while
+   * holding the lock.
+   */
+  private int findSlot(long keyHigh, long keyLow) {
+    int mask = _capacity - 1;
+    int slot = getStartSlot(keyHigh, keyLow, _capacity);
+    int firstRemovedSlot = -1;
+    while (true) {
+      long slotOffset = (long) slot * SLOT_SIZE;
+      int segmentId = _buffer.getInt(slotOffset + SEGMENT_ID_OFFSET);
+      if (segmentId == EMPTY_SEGMENT_ID) {
+        return -(firstRemovedSlot >= 0 ? firstRemovedSlot : slot) - 1;
+      }
+      if (segmentId == REMOVED_SEGMENT_ID) {
+        if (firstRemovedSlot < 0) {
+          firstRemovedSlot = slot;
+        }
+      } else if (_buffer.getLong(slotOffset + KEY_HIGH_OFFSET) == keyHigh
+          && _buffer.getLong(slotOffset + KEY_LOW_OFFSET) == keyLow) {
+        return slot;
+      }
+      slot = (slot + 1) & mask;
+    }
+  }
+
+  /**
+   * Inserts a new key into the slot returned by {@link #findSlot(long, long)}, and resizes the hash table if needed.
+   * Should be called while holding the lock.
+   */
+  private void insertSlot(int encodedSlot, long keyHigh, long keyLow, int segmentId, int docId, long comparisonBits) {
+    long slotOffset = (long) (-encodedSlot - 1) * SLOT_SIZE;
+    if (_buffer.getInt(slotOffset + SEGMENT_ID_OFFSET) == EMPTY_SEGMENT_ID) {
+      _numUsedSlots++;
+    }
+    _buffer.putLong(slotOffset + KEY_HIGH_OFFSET, keyHigh);
+    _buffer.putLong(slotOffset + KEY_LOW_OFFSET, keyLow);
+    _buffer.putInt(slotOffset + SEGMENT_ID_OFFSET, segmentId);
+    _buffer.putInt(slotOffset + DOC_ID_OFFSET, docId);
+    _buffer.putLong(slotOffset + COMPARISON_VALUE_OFFSET, comparisonBits);
+    _segmentIdToNumKeysMap.addTo(segmentId, 1);
+    _numPrimaryKeys++;
+    if (_numUsedSlots > _capacity * MAX_LOAD_FACTOR) {
+      resize();
+    }
+  }
+
+  /**
+   * Points an existing key to the new record location. Should be called while holding the lock.
+   */
+  private void updateSlot(long slotOffset, int segmentId, int docId, long comparisonBits) {
+    int currentSegmentId = _buffer.getInt(slotOffset + SEGMENT_ID_OFFSET);
+    _buffer.putInt(slotOffset + SEGMENT_ID_OFFSET, segmentId);
+    _buffer.putInt(slotOffset + DOC_ID_OFFSET, docId);
+    _buffer.putLong(slotOffset + COMPARISON_VALUE_OFFSET, comparisonBits);
+    if (currentSegmentId != segmentId) {
+      _segmentIdToNumKeysMap.addTo(segmentId, 1);
+      decrementNumKeys(currentSegmentId);
+    }
+  }
+
+  /**
+   * Marks the slot as removed. Should be called while holding the lock.
+   */
+  private void removeSlot(long slotOffset) {
+    int segmentId = _buffer.getInt(slotOffset + SEGMENT_ID_OFFSET);
+    _buffer.putInt(slotOffset + SEGMENT_ID_OFFSET, REMOVED_SEGMENT_ID);
+    _numPrimaryKeys--;
+    decrementNumKeys(segmentId);
+  }
+
+  private void decrementNumKeys(int segmentId) {
+    if (_segmentIdToNumKeysMap.addTo(segmentId, -1) == 1) {
+      _segmentIdToNumKeysMap.remove(segmentId);
+      _segmentToIdMap.remove(_idToSegmentMap.remove(segmentId));
+    }
+  }
+
+  private int getOrCreateSegmentId(IndexSegment segment) {
+    Integer segmentId = _segmentToIdMap.get(segment);
+    if (segmentId != null) {
+      return segmentId;
+    }
+    int newSegmentId = _nextSegmentId;
+    // Skip the reserved ids on overflow
+    _nextSegmentId = newSegmentId == Integer.MAX_VALUE ? 1 : newSegmentId + 1;
+    _segmentToIdMap.put(segment, newSegmentId);
+    _idToSegmentMap.put(newSegmentId, segment);
+    return newSegmentId;
+  }
+
+  /**
+   * Releases the id of the segment if no primary key points to it. Should be called while holding the lock.
+   */
+  private void releaseSegmentIdIfUnused(IndexSegment segment) {
+    Integer segmentId = _segmentToIdMap.get(segment);
+    if (segmentId != null && !_segmentIdToNumKeysMap.containsKey((int) segmentId)) {
+      _segmentToIdMap.remove(segment);
+      _idToSegmentMap.remove((int) segmentId);
+    }
+  }
+
+  /**
+   * Rehashes all the keys into a new buffer, which doubles the capacity unless most of the used slots are removed ones.
+   * Should be called while holding the lock.
+   */
+  private void resize() {
+    int newCapacity = _capacity;
+    if (_numPrimaryKeys * 2 > _capacity * MAX_LOAD_FACTOR) {
+      Preconditions.checkState(_capacity < MAX_CAPACITY, "Cannot grow off-heap upsert metadata beyond %s slots",
+          MAX_CAPACITY);
+      newCapacity = _capacity << 1;
+    }
+    PinotDataBuffer newBuffer = allocateBuffer(newCapacity);
+    int mask = newCapacity - 1;
+    for (int slot = 0; slot < _capacity; slot++) {
+      long slotOffset = (long) slot * SLOT_SIZE;
+      int segmentId = _buffer.getInt(slotOffset + SEGMENT_ID_OFFSET);
+      if (segmentId == EMPTY_SEGMENT_ID || segmentId == REMOVED_SEGMENT_ID) {
+        continue;
+      }
+      long keyHigh = _buffer.getLong(slotOffset + KEY_HIGH_OFFSET);
+      long keyLow = _buffer.getLong(slotOffset + KEY_LOW_OFFSET);
+      int newSlot = getStartSlot(keyHigh, keyLow, newCapacity);
+      while (newBuffer.getInt((long) newSlot * SLOT_SIZE + SEGMENT_ID_OFFSET) != EMPTY_SEGMENT_ID) {
+        newSlot = (newSlot + 1) & mask;
+      }
+      _buffer.copyTo(slotOffset, newBuffer, (long) newSlot * SLOT_SIZE, SLOT_SIZE);
+    }
+    try {
+      _memoryManager.release(_buffer);
+    } catch (IOException e) {
+      _logger.warn("Caught exception while closing the off-heap upsert metadata buffer", e);
+    }
+    _buffer = newBuffer;
+    _capacity = newCapacity;
+    _numUsedSlots = _numPrimaryKeys;
+  }
+}
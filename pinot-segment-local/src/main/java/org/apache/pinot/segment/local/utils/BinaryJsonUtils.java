@@ -0,0 +1,672 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.utils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+
+/**
+ * Utility class to convert JSON documents into a pre-parsed binary format, and to read values from the binary format
+ * without parsing the whole document.
+ *
+ * <p>Each value is encoded as a 1-byte tag followed by the payload (all the integers are big-endian):
+ * <ul>
+ *   <li>NULL, TRUE, FALSE: no payload</li>
+ *   <li>INT: 4-byte int; LONG: 8-byte long; DOUBLE: 8-byte double</li>
+ *   <li>BIG_INTEGER, BIG_DECIMAL, STRING: 4-byte length followed by the UTF-8 bytes (the text of the number for
+ *   BIG_INTEGER and BIG_DECIMAL)</li>
+ *   <li>ARRAY: 4-byte number of elements, followed by the offset table (4-byte offset of each element), followed by
+ *   the elements</li>
+ *   <li>OBJECT: 4-byte number of fields, followed by the offset table (4-byte key offset and 4-byte value offset of
+ *   each field) sorted by the key bytes, followed by the position in the offset table of each field in the original
+ *   order, followed by the keys (4-byte length followed by the UTF-8 bytes) and the values</li>
+ *   <li>RAW_TEXT: 4-byte length followed by the UTF-8 bytes, used for the documents that are not valid JSON</li>
+ * </ul>
+ * All the offsets are absolute within the document, so that a JSON path lookup can skip directly to the field (binary
+ * search on the object keys, direct access on the array elements) without decoding the other values.
+ *
+ * <p>Floating point numbers are stored as DOUBLE when the double value converts back to the same decimal, or as
+ * BIG_DECIMAL text otherwise, so that both the double and the big decimal representation can be read without loss.
+ */
+public class BinaryJsonUtils {
+  private BinaryJsonUtils() {
+  }
+
+  public static final byte NULL = 0;
+  public static final byte TRUE = 1;
+  public static final byte FALSE = 2;
+  public static final byte INT = 3;
+  public static final byte LONG = 4;
+  public static final byte DOUBLE = 5;
+  public static final byte BIG_INTEGER = 6;
+  public static final byte BIG_DECIMAL = 7;
+  public static final byte STRING = 8;
+  public static final byte ARRAY = 9;
+  public static final byte OBJECT = 10;
+  public static final byte RAW_TEXT = 11;
+
+  // Read the floating point numbers as BigDecimal to preserve the original text
+  private static final ObjectReader OBJECT_READER =
+      new ObjectMapper().reader(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS).forType(Object.class);
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  /**
+   * Converts the given JSON string into the binary format. String that is not valid JSON is stored as raw text.
+   */
+  public static byte[] fromJsonString(String jsonString) {
+    Object value;
+    try {
+      value = OBJECT_READER.readValue(jsonString);
+    } catch (Exception e) {
+      byte[] textBytes = jsonString.getBytes(UTF_8);
+      byte[] bytes = new byte[1 + Integer.BYTES + textBytes.length];
+      bytes[0] = RAW_TEXT;
+      writeInt(bytes, 1, textBytes.length);
+      System.arraycopy(textBytes, 0, bytes, 1 + Integer.BYTES, textBytes.length);
+      return bytes;
+    }
+    Output output = new Output(Math.max(jsonString.length(), 16));
+    writeValue(output, value);
+    return output.toBytes();
+  }
+
+  /**
+   * Returns whether the binary document is stored as raw text (not valid JSON).
+   */
+  public static boolean isRawText(byte[] bytes) {
+    return bytes[0] == RAW_TEXT;
+  }
+
+  /**
+   * Returns the raw text of a document stored as raw text.
+   */
+  public static String getRawText(byte[] bytes) {
+    return readText(bytes, 0);
+  }
+
+  /**
+   * Converts the binary document back into a JSON string. The output is the compact form of the original JSON, and is
+   * the original string for the documents stored as raw text.
+   */
+  public static String toJsonString(byte[] bytes) {
+    if (isRawText(bytes)) {
+      return getRawText(bytes);
+    }
+    StringWriter writer = new StringWriter(bytes.length);
+    try (JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+      writeJson(generator, bytes, 0);
+    } catch (IOException e) {
+      // Should not happen when writing to a StringWriter
+      throw new UncheckedIOException(e);
+    }
+    return writer.toString();
+  }
+
+  /**
+   * Converts the binary document into a {@link JsonNode}, or returns {@code null} for the documents stored as raw text.
+   * Floating point numbers are read as double, same as {@link org.apache.pinot.spi.utils.JsonUtils#stringToJsonNode}.
+   */
+  @Nullable
+  public static JsonNode toJsonNode(byte[] bytes) {
+    if (isRawText(bytes)) {
+      return null;
+    }
+    return readJsonNode(bytes, 0);
+  }
+
+  /**
+   * Converts the binary document into Java objects ({@link Map}, {@link List}, {@link String}, {@link Number},
+   * {@link Boolean} or {@code null}) with the same types as parsing the JSON string with Jackson into {@link Object}.
+   * Floating point numbers are read as {@link BigDecimal} when {@code useBigDecimal} is set, or as {@link Double}
+   * otherwise. Documents stored as raw text should be checked with {@link #isRawText(byte[])} before calling this
+   * method.
+   */
+  @Nullable
+  public static Object toJavaObject(byte[] bytes, boolean useBigDecimal) {
+    return readValue(bytes, 0, useBigDecimal);
+  }
+
+  /**
+   * Compiles the given JSON path into a {@link Path} that can be read from the binary format, or returns {@code null}
+   * if the path is not supported. Only the definite paths with property (dot or bracket notation) and non-negative
+   * array index steps are supported (e.g. {@code $.a.b[0]['c']}), other paths (wildcard, deep scan, filter, slice,
+   * function etc.) should be evaluated on the decoded document.
+   */
+  @Nullable
+  public static Path compilePath(String jsonPath) {
+    String path = jsonPath.trim();
+    if (path.isEmpty() || path.charAt(0) == '@') {
+      return null;
+    }
+    // Same as JsonPath, prepend '$.' when the path doesn't start with the root
+    if (path.charAt(0) != '$') {
+      path = "$." + path;
+    }
+    List<Object> steps = new ArrayList<>();
+    int length = path.length();
+    int index = 1;
+    while (index < length) {
+      char c = path.charAt(index);
+      if (c == '.') {
+        int start = ++index;
+        while (index < length && path.charAt(index) != '.' && path.charAt(index) != '[') {
+          if (!isSupportedPropertyChar(path.charAt(index))) {
+            return null;
+          }
+          index++;
+        }
+        if (index == start) {
+          // Deep scan (..) or trailing dot
+          return null;
+        }
+        steps.add(path.substring(start, index).getBytes(UTF_8));
+      } else if (c == '[') {
+        index++;
+        if (index >= length) {
+          return null;
+        }
+        char quote = path.charAt(index);
+        if (quote == '\'' || quote == '"') {
+          int start = ++index;
+          int end = path.indexOf(quote, start);
+          if (end < 0 || end + 1 >= length || path.charAt(end + 1) != ']') {
+            return null;
+          }
+          String key = path.substring(start, end);
+          if (key.indexOf('\\') >= 0) {
+            return null;
+          }
+          steps.add(key.getBytes(UTF_8));
+          index = end + 2;
+        } else {
+          int end = path.indexOf(']', index);
+          if (end < 0) {
+            return null;
+          }
+          String indexString = path.substring(index, end).trim();
+          if (indexString.isEmpty() || indexString.length() > 9) {
+            return null;
+          }
+          for (int i = 0; i < indexString.length(); i++) {
+            if (!Character.isDigit(indexString.charAt(i))) {
+              return null;
+            }
+          }
+          steps.add(Integer.parseInt(indexString));
+          index = end + 1;
+        }
+      } else {
+        return null;
+      }
+    }
+    return new Path(steps.toArray());
+  }
+
+  private static boolean isSupportedPropertyChar(char c) {
+    switch (c) {
+      case '*':
+      case '?':
+      case '@':
+      case '(':
+      case ')':
+      case '\'':
+      case '"':
+      case ',':
+      case ' ':
+      case ']':
+        return false;
+      default:
+        return true;
+    }
+  }
+
+  /**
+   * Reads the value of the given path from the binary document with the same types as
+   * {@link #toJavaObject(byte[], boolean)}, or returns {@code null} if the path does not exist (same as JsonPath with
+   * {@code SUPPRESS_EXCEPTIONS} option). Documents stored as raw text should be checked with
+   * {@link #isRawText(byte[])} before calling this method.
+   */
+  @Nullable
+  public static Object read(byte[] bytes, Path path, boolean useBigDecimal) {
+    int offset = 0;
+    for (Object step : path._steps) {
+      byte tag = bytes[offset];
+      if (step instanceof byte[]) {
+        if (tag != OBJECT) {
+          return null;
+        }
+        offset = findField(bytes, offset, (byte[]) step);
+        if (offset < 0) {
+          return null;
+        }
+      } else {
+        if (tag != ARRAY) {
+          return null;
+        }
+        int arrayIndex = (Integer) step;
+        if (arrayIndex >= readInt(bytes, offset + 1)) {
+          return null;
+        }
+        offset = readInt(bytes, offset + 1 + Integer.BYTES + arrayIndex * Integer.BYTES);
+      }
+    }
+    return readValue(bytes, offset, useBigDecimal);
+  }
+
+  /**
+   * Binary searches the field with the given key in the object at the given offset, and returns the offset of the
+   * value, or -1 if the field does not exist.
+   */
+  private static int findField(byte[] bytes, int offset, byte[] key) {
+    int entriesOffset = offset + 1 + Integer.BYTES;
+    int low = 0;
+    int high = readInt(bytes, offset + 1) - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      int entryOffset = entriesOffset + mid * 2 * Integer.BYTES;
+      int keyOffset = readInt(bytes, entryOffset);
+      int cmp = compareKey(bytes, keyOffset, key);
+      if (cmp < 0) {
+        low = mid + 1;
+      } else if (cmp > 0) {
+        high = mid - 1;
+      } else {
+        return readInt(bytes, entryOffset + Integer.BYTES);
+      }
+    }
+    return -1;
+  }
+
+  private static int compareKey(byte[] bytes, int keyOffset, byte[] key) {
+    int keyLength = readInt(bytes, keyOffset);
+    int start = keyOffset + Integer.BYTES;
+    return Arrays.compareUnsigned(bytes, start, start + keyLength, key, 0, key.length);
+  }
+
+  @Nullable
+  private static Object readValue(byte[] bytes, int offset, boolean useBigDecimal) {
+    switch (bytes[offset]) {
+      case NULL:
+        return null;
+      case TRUE:
+        return Boolean.TRUE;
+      case FALSE:
+        return Boolean.FALSE;
+      case INT:
+        return readInt(bytes, offset + 1);
+      case LONG:
+        return readLong(bytes, offset + 1);
+      case DOUBLE:
+        double doubleValue = Double.longBitsToDouble(readLong(bytes, offset + 1));
+        return useBigDecimal ? new BigDecimal(Double.toString(doubleValue)) : doubleValue;
+      case BIG_INTEGER:
+        return new BigInteger(readText(bytes, offset));
+      case BIG_DECIMAL:
+        String decimalText = readText(bytes, offset);
+        return useBigDecimal ? new BigDecimal(decimalText) : Double.parseDouble(decimalText);
+      case STRING:
+        return readText(bytes, offset);
+      case ARRAY: {
+        int numElements = readInt(bytes, offset + 1);
+        List<Object> list = new ArrayList<>(numElements);
+        int offsetsStart = offset + 1 + Integer.BYTES;
+        for (int i = 0; i < numElements; i++) {
+          list.add(readValue(bytes, readInt(bytes, offsetsStart + i * Integer.BYTES), useBigDecimal));
+        }
+        return list;
+      }
+      case OBJECT: {
+        int numFields = readInt(bytes, offset + 1);
+        Map<String, Object> map = new LinkedHashMap<>(numFields * 2);
+        int entriesOffset = offset + 1 + Integer.BYTES;
+        int orderOffset = entriesOffset + numFields * 2 * Integer.BYTES;
+        for (int i = 0; i < numFields; i++) {
+          int entryOffset = entriesOffset + readInt(bytes, orderOffset + i * Integer.BYTES) * 2 * Integer.BYTES;
+          map.put(readUtf8(bytes, readInt(bytes, entryOffset)),
+              readValue(bytes, readInt(bytes, entryOffset + Integer.BYTES), useBigDecimal));
+        }
+        return map;
+      }
+      default:
+        throw new IllegalStateException("Unsupported binary JSON tag: " + bytes[offset]);
+    }
+  }
+
+  private static JsonNode readJsonNode(byte[] bytes, int offset) {
+    JsonNodeFactory nodeFactory = JsonNodeFactory.instance;
+    switch (bytes[offset]) {
+      case NULL:
+        return nodeFactory.nullNode();
+      case TRUE:
+        return nodeFactory.booleanNode(true);
+      case FALSE:
+        return nodeFactory.booleanNode(false);
+      case INT:
+        return nodeFactory.numberNode(readInt(bytes, offset + 1));
+      case LONG:
+        return nodeFactory.numberNode(readLong(bytes, offset + 1));
+      case DOUBLE:
+        return nodeFactory.numberNode(Double.longBitsToDouble(readLong(bytes, offset + 1)));
+      case BIG_INTEGER:
+        return nodeFactory.numberNode(new BigInteger(readText(bytes, offset)));
+      case BIG_DECIMAL:
+        return nodeFactory.numberNode(Double.parseDouble(readText(bytes, offset)));
+      case STRING:
+        return nodeFactory.textNode(readText(bytes, offset));
+      case ARRAY: {
+        int numElements = readInt(bytes, offset + 1);
+        ArrayNode arrayNode = nodeFactory.arrayNode(numElements);
+        int offsetsStart = offset + 1 + Integer.BYTES;
+        for (int i = 0; i < numElements; i++) {
+          arrayNode.add(readJsonNode(bytes, readInt(bytes, offsetsStart + i * Integer.BYTES)));
+        }
+        return arrayNode;
+      }
+      case OBJECT: {
+        int numFields = readInt(bytes, offset + 1);
+        ObjectNode objectNode = nodeFactory.objectNode();
+        int entriesOffset = offset + 1 + Integer.BYTES;
+        int orderOffset = entriesOffset + numFields * 2 * Integer.BYTES;
+        for (int i = 0; i < numFields; i++) {
+          int entryOffset = entriesOffset + readInt(bytes, orderOffset + i * Integer.BYTES) * 2 * Integer.BYTES;
+          objectNode.set(readUtf8(bytes, readInt(bytes, entryOffset)),
+              readJsonNode(bytes, readInt(bytes, entryOffset + Integer.BYTES)));
+        }
+        return objectNode;
+      }
+      default:
+        throw new IllegalStateException("Unsupported binary JSON tag: " + bytes[offset]);
+    }
+  }
+
+  private static void writeJson(JsonGenerator generator, byte[] bytes, int offset)
+      throws IOException {
+    switch (bytes[offset]) {
+      case NULL:
+        generator.writeNull();
+        break;
+      case TRUE:
+        generator.writeBoolean(true);
+        break;
+      case FALSE:
+        generator.writeBoolean(false);
+        break;
+      case INT:
+        generator.writeNumber(readInt(bytes, offset + 1));
+        break;
+      case LONG:
+        generator.writeNumber(readLong(bytes, offset + 1));
+        break;
+      case DOUBLE:
+        generator.writeNumber(Double.longBitsToDouble(readLong(bytes, offset + 1)));
+        break;
+      case BIG_INTEGER:
+      case BIG_DECIMAL:
+        generator.writeNumber(readText(bytes, offset));
+        break;
+      case STRING:
+        generator.writeString(readText(bytes, offset));
+        break;
+      case ARRAY: {
+        int numElements = readInt(bytes, offset + 1);
+        generator.writeStartArray();
+        int offsetsStart = offset + 1 + Integer.BYTES;
+        for (int i = 0; i < numElements; i++) {
+          writeJson(generator, bytes, readInt(bytes, offsetsStart + i * Integer.BYTES));
+        }
+        generator.writeEndArray();
+        break;
+      }
+      case OBJECT: {
+        int numFields = readInt(bytes, offset + 1);
+        generator.writeStartObject();
+        int entriesOffset = offset + 1 + Integer.BYTES;
+        int orderOffset = entriesOffset + numFields * 2 * Integer.BYTES;
+        for (int i = 0; i < numFields; i++) {
+          int entryOffset = entriesOffset + readInt(bytes, orderOffset + i * Integer.BYTES) * 2 * Integer.BYTES;
+          generator.writeFieldName(readUtf8(bytes, readInt(bytes, entryOffset)));
+          writeJson(generator, bytes, readInt(bytes, entryOffset + Integer.BYTES));
+        }
+        generator.writeEndObject();
+        break;
+      }
+      default:
+        throw new IllegalStateException("Unsupported binary JSON tag: " + bytes[offset]);
+    }
+  }
+
+  private static void writeValue(Output output, @Nullable Object value) {
+    if (value == null) {
+      output.writeByte(NULL);
+    } else if (value instanceof Boolean) {
+      output.writeByte((Boolean) value ? TRUE : FALSE);
+    } else if (value instanceof Integer) {
+      output.writeByte(INT);
+      output.writeInt((Integer) value);
+    } else if (value instanceof Long) {
+      output.writeByte(LONG);
+      output.writeLong((Long) value);
+    } else if (value instanceof BigInteger) {
+      output.writeByte(BIG_INTEGER);
+      output.writeText(value.toString());
+    } else if (value instanceof BigDecimal) {
+      BigDecimal decimal = (BigDecimal) value;
+      double doubleValue = decimal.doubleValue();
+      if (Double.isFinite(doubleValue) && new BigDecimal(Double.toString(doubleValue)).equals(decimal)) {
+        output.writeByte(DOUBLE);
+        output.writeLong(Double.doubleToLongBits(doubleValue));
+      } else {
+        output.writeByte(BIG_DECIMAL);
+        output.writeText(decimal.toString());
+      }
+    } else if (value instanceof Number) {
+      // Should not happen with the Jackson deserialization, but handle it for completeness
+      output.writeByte(DOUBLE);
+      output.writeLong(Double.doubleToLongBits(((Number) value).doubleValue()));
+    } else if (value instanceof String) {
+      output.writeByte(STRING);
+      output.writeText((String) value);
+    } else if (value instanceof List) {
+      List<?> list = (List<?>) value;
+      int numElements = list.size();
+      int offset = output.reserve(1 + Integer.BYTES + numElements * Integer.BYTES);
+      output.putByte(offset, ARRAY);
+      output.putInt(offset + 1, numElements);
+      int offsetsStart = offset + 1 + Integer.BYTES;
+      for (int i = 0; i < numElements; i++) {
+        output.putInt(offsetsStart + i * Integer.BYTES, output.size());
+        writeValue(output, list.get(i));
+      }
+    } else if (value instanceof Map) {
+      Map<?, ?> map = (Map<?, ?>) value;
+      int numFields = map.size();
+      int offset = output.reserve(1 + Integer.BYTES + numFields * 3 * Integer.BYTES);
+      output.putByte(offset, OBJECT);
+      output.putInt(offset + 1, numFields);
+      byte[][] keys = new byte[numFields][];
+      int[] keyOffsets = new int[numFields];
+      int[] valueOffsets = new int[numFields];
+      int index = 0;
+      for (Map.Entry<?, ?> entry : map.entrySet()) {
+        keys[index] = entry.getKey().toString().getBytes(UTF_8);
+        keyOffsets[index] = output.size();
+        output.writeInt(keys[index].length);
+        output.writeBytes(keys[index]);
+        valueOffsets[index] = output.size();
+        writeValue(output, entry.getValue());
+        index++;
+      }
+      Integer[] sortedIndexes = new Integer[numFields];
+      for (int i = 0; i < numFields; i++) {
+        sortedIndexes[i] = i;
+      }
+      Arrays.sort(sortedIndexes, (i1, i2) -> Arrays.compareUnsigned(keys[i1], keys[i2]));
+      int entriesOffset = offset + 1 + Integer.BYTES;
+      int orderOffset = entriesOffset + numFields * 2 * Integer.BYTES;
+      for (int i = 0; i < numFields; i++) {
+        int originalIndex = sortedIndexes[i];
+        output.putInt(entriesOffset + i * 2 * Integer.BYTES, keyOffsets[originalIndex]);
+        output.putInt(entriesOffset + i * 2 * Integer.BYTES + Integer.BYTES, valueOffsets[originalIndex]);
+        output.putInt(orderOffset + originalIndex * Integer.BYTES, i);
+      }
+    } else {
+      throw new IllegalStateException("Unsupported JSON value class: " + value.getClass());
+    }
+  }
+
+  /**
+   * Reads the length-prefixed UTF-8 text following the tag at the given offset.
+   */
+  private static String readText(byte[] bytes, int offset) {
+    return readUtf8(bytes, offset + 1);
+  }
+
+  /**
+   * Reads the length-prefixed UTF-8 text (e.g. object key) at the given offset.
+   */
+  private static String readUtf8(byte[] bytes, int offset) {
+    return new String(bytes, offset + Integer.BYTES, readInt(bytes, offset), UTF_8);
+  }
+
+  private static int readInt(byte[] bytes, int offset) {
+    return (bytes[offset] & 0xFF) << 24 | (bytes[offset + 1] & 0xFF) << 16 | (bytes[offset + 2] & 0xFF) << 8
+        | (bytes[offset + 3] & 0xFF);
+  }
+
+  private static long readLong(byte[] bytes, int offset) {
+    return (long) readInt(bytes, offset) << 32 | (readInt(bytes, offset + Integer.BYTES) & 0xFFFFFFFFL);
+  }
+
+  private static void writeInt(byte[] bytes, int offset, int value) {
+    bytes[offset] = (byte) (value >>> 24);
+    bytes[offset + 1] = (byte) (value >>> 16);
+    bytes[offset + 2] = (byte) (value >>> 8);
+    bytes[offset + 3] = (byte) value;
+  }
+
+  /**
+   * Compiled JSON path that can be read from the binary format. Each step is either the UTF-8 bytes of a property name
+   * or an {@link Integer} array index.
+   */
+  public static final class Path {
+    private final Object[] _steps;
+
+    private Path(Object[] steps) {
+      _steps = steps;
+    }
+
+    public int getNumSteps() {
+      return _steps.length;
+    }
+  }
+
+  /**
+   * Growable byte array to write the binary document.
+   */
+  private static final class Output {
+    private byte[] _bytes;
+    private int _size;
+
+    Output(int initialCapacity) {
+      _bytes = new byte[initialCapacity];
+    }
+
+    int size() {
+      return _size;
+    }
+
+    /**
+     * Reserves the given number of bytes to be filled later, and returns the offset of the reserved bytes.
+     */
+    int reserve(int numBytes) {
+      ensureCapacity(numBytes);
+      int offset = _size;
+      _size += numBytes;
+      return offset;
+    }
+
+    void writeByte(byte value) {
+      ensureCapacity(1);
+      _bytes[_size++] = value;
+    }
+
+    void writeInt(int value) {
+      ensureCapacity(Integer.BYTES);
+      BinaryJsonUtils.writeInt(_bytes, _size, value);
+      _size += Integer.BYTES;
+    }
+
+    void writeLong(long value) {
+      writeInt((int) (value >>> 32));
+      writeInt((int) value);
+    }
+
+    void writeBytes(byte[] value) {
+      ensureCapacity(value.length);
+      System.arraycopy(value, 0, _bytes, _size, value.length);
+      _size += value.length;
+    }
+
+    void writeText(String value) {
+      byte[] textBytes = value.getBytes(UTF_8);
+      writeInt(textBytes.length);
+      writeBytes(textBytes);
+    }
+
+    void putByte(int offset, byte value) {
+      _bytes[offset] = value;
+    }
+
+    void putInt(int offset, int value) {
+      BinaryJsonUtils.writeInt(_bytes, offset, value);
+    }
+
+    byte[] toBytes() {
+      return Arrays.copyOf(_bytes, _size);
+    }
+
+    private void ensureCapacity(int numBytes) {
+      int minCapacity = _size + numBytes;
+      if (minCapacity > _bytes.length) {
+        _bytes = Arrays.copyOf(_bytes, Math.max(minCapacity, _bytes.length * 2));
+      }
+    }
+  }
+}
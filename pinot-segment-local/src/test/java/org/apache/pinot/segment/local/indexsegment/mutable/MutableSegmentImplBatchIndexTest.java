@@ -0,0 +1,219 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.indexsegment.mutable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.apache.pinot.segment.local.PinotBuffersAfterClassCheckRule;
+import org.apache.pinot.segment.local.segment.readers.PinotSegmentColumnReader;
+import org.apache.pinot.segment.spi.datasource.DataSource;
+import org.apache.pinot.segment.spi.datasource.DataSourceMetadata;
+import org.apache.pinot.segment.spi.index.reader.Dictionary;
+import org.apache.pinot.segment.spi.index.reader.ForwardIndexReader;
+import org.apache.pinot.segment.spi.index.reader.InvertedIndexReader;
+import org.apache.pinot.segment.spi.index.reader.NullValueVectorReader;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.apache.pinot.spi.data.Schema;
+import org.apache.pinot.spi.data.readers.GenericRow;
+import org.apache.pinot.spi.stream.StreamMessageMetadata;
+import org.roaringbitmap.buffer.MutableRoaringBitmap;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertThrows;
+import static org.testng.Assert.assertTrue;
+
+
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class MutableSegmentImplBatchIndexTest implements PinotBuffersAfterClassCheckRule {
+  private static final String INT_COLUMN = "intColumn";
+  private static final String STRING_COLUMN = "stringColumn";
+  private static final String MV_INT_COLUMN = "mvIntColumn";
+  private static final String RAW_LONG_COLUMN = "rawLongColumn";
+  private static final Set<String> INVERTED_INDEX_COLUMNS = Set.of(INT_COLUMN, STRING_COLUMN, MV_INT_COLUMN);
+  private static final Schema SCHEMA = new Schema.SchemaBuilder().setSchemaName("testTable")
+      .addSingleValueDimension(INT_COLUMN, DataType.INT)
+      .addSingleValueDimension(STRING_COLUMN, DataType.STRING)
+      .addMultiValueDimension(MV_INT_COLUMN, DataType.INT)
+      .addMetric(RAW_LONG_COLUMN, DataType.LONG)
+      .build();
+  private static final int NUM_ROWS = 1000;
+  private static final int BATCH_SIZE = 37;
+
+  @Test
+  public void testBatchIndexing()
+      throws Exception {
+    List<GenericRow> rows = generateRows();
+    StreamMessageMetadata metadata = mock(StreamMessageMetadata.class);
+    when(metadata.getRecordIngestionTimeMs()).thenReturn(123L);
+
+    MutableSegmentImpl expectedSegment = createMutableSegment();
+    MutableSegmentImpl actualSegment = createMutableSegment();
+    try {
+      for (GenericRow row : rows) {
+        expectedSegment.index(row, metadata);
+      }
+      assertTrue(actualSegment.isBatchIndexingSupported());
+      for (int i = 0; i < NUM_ROWS; i += BATCH_SIZE) {
+        List<GenericRow> batch = rows.subList(i, Math.min(i + BATCH_SIZE, NUM_ROWS));
+        assertTrue(actualSegment.index(batch, Collections.nCopies(batch.size(), metadata)));
+        assertEquals(actualSegment.getNumDocsIndexed(), i + batch.size());
+      }
+      assertEquals(actualSegment.getSegmentMetadata().getLatestIngestionTimestamp(), 123L);
+
+      // Batch indexing should produce the same segment as indexing the rows one by one
+      for (String column : SCHEMA.getPhysicalColumnNames()) {
+        DataSource expectedDataSource = expectedSegment.getDataSource(column);
+        DataSource actualDataSource = actualSegment.getDataSource(column);
+        DataSourceMetadata expectedMetadata = expectedDataSource.getDataSourceMetadata();
+        DataSourceMetadata actualMetadata = actualDataSource.getDataSourceMetadata();
+        assertEquals(actualMetadata.getNumDocs(), NUM_ROWS);
+        assertEquals(actualMetadata.getNumValues(), expectedMetadata.getNumValues());
+        assertEquals(actualMetadata.getMaxNumValuesPerMVEntry(), expectedMetadata.getMaxNumValuesPerMVEntry());
+        assertEquals(actualMetadata.getMinValue(), expectedMetadata.getMinValue());
+        assertEquals(actualMetadata.getMaxValue(), expectedMetadata.getMaxValue());
+
+        NullValueVectorReader expectedNullValueVector = expectedDataSource.getNullValueVector();
+        NullValueVectorReader actualNullValueVector = actualDataSource.getNullValueVector();
+        assertNotNull(actualNullValueVector);
+        assertEquals(actualNullValueVector.getNullBitmap(), expectedNullValueVector.getNullBitmap());
+
+        try (PinotSegmentColumnReader expectedReader = new PinotSegmentColumnReader(expectedSegment, column);
+            PinotSegmentColumnReader actualReader = new PinotSegmentColumnReader(actualSegment, column)) {
+          for (int docId = 0; docId < NUM_ROWS; docId++) {
+            assertEquals(actualReader.getValue(docId), expectedReader.getValue(docId));
+          }
+        }
+      }
+
+      // Inverted index should match the forward index
+      for (String column : INVERTED_INDEX_COLUMNS) {
+        DataSource dataSource = actualSegment.getDataSource(column);
+        Dictionary dictionary = dataSource.getDictionary();
+        ForwardIndexReader forwardIndex = dataSource.getForwardIndex();
+        InvertedIndexReader invertedIndex = dataSource.getInvertedIndex();
+        assertNotNull(invertedIndex);
+        MutableRoaringBitmap[] expectedDocIds = new MutableRoaringBitmap[dictionary.length()];
+        for (int dictId = 0; dictId < expectedDocIds.length; dictId++) {
+          expectedDocIds[dictId] = new MutableRoaringBitmap();
+        }
+        int[] dictIdBuffer = new int[forwardIndex.isSingleValue() ? 0
+            : dataSource.getDataSourceMetadata().getMaxNumValuesPerMVEntry()];
+        for (int docId = 0; docId < NUM_ROWS; docId++) {
+          if (forwardIndex.isSingleValue()) {
+            expectedDocIds[forwardIndex.getDictId(docId, null)].add(docId);
+          } else {
+            int numValues = forwardIndex.getDictIdMV(docId, dictIdBuffer, null);
+            for (int i = 0; i < numValues; i++) {
+              expectedDocIds[dictIdBuffer[i]].add(docId);
+            }
+          }
+        }
+        for (int dictId = 0; dictId < expectedDocIds.length; dictId++) {
+          assertEquals(invertedIndex.getDocIds(dictId), expectedDocIds[dictId]);
+        }
+      }
+    } finally {
+      expectedSegment.destroy();
+      actualSegment.destroy();
+    }
+  }
+
+  @Test
+  public void testBatchIndexingFailure()
+      throws Exception {
+    List<GenericRow> rows = generateRows().subList(0, BATCH_SIZE);
+    // Put a value of the wrong type into the raw column of the last row, which should fail the whole batch
+    rows.get(BATCH_SIZE - 1).putValue(RAW_LONG_COLUMN, "invalid");
+    StreamMessageMetadata metadata = mock(StreamMessageMetadata.class);
+
+    MutableSegmentImpl expectedSegment = createMutableSegment();
+    MutableSegmentImpl actualSegment = createMutableSegment();
+    try {
+      for (GenericRow row : rows.subList(0, BATCH_SIZE - 1)) {
+        expectedSegment.index(row, metadata);
+      }
+      assertThrows(IllegalStateException.class,
+          () -> actualSegment.index(rows, Collections.nCopies(BATCH_SIZE, metadata)));
+      assertEquals(actualSegment.getNumDocsIndexed(), 0);
+
+      // No value should be added to the indexes, so the good rows can be indexed again at the same doc ids
+      for (GenericRow row : rows.subList(0, BATCH_SIZE - 1)) {
+        actualSegment.index(row, metadata);
+      }
+      for (String column : SCHEMA.getPhysicalColumnNames()) {
+        try (PinotSegmentColumnReader expectedReader = new PinotSegmentColumnReader(expectedSegment, column);
+            PinotSegmentColumnReader actualReader = new PinotSegmentColumnReader(actualSegment, column)) {
+          for (int docId = 0; docId < BATCH_SIZE - 1; docId++) {
+            assertEquals(actualReader.getValue(docId), expectedReader.getValue(docId));
+          }
+        }
+      }
+      for (String column : INVERTED_INDEX_COLUMNS) {
+        DataSource expectedDataSource = expectedSegment.getDataSource(column);
+        DataSource actualDataSource = actualSegment.getDataSource(column);
+        Dictionary expectedDictionary = expectedDataSource.getDictionary();
+        Dictionary actualDictionary = actualDataSource.getDictionary();
+        for (int dictId = 0; dictId < expectedDictionary.length(); dictId++) {
+          int actualDictId = actualDictionary.indexOf(expectedDictionary.getStringValue(dictId));
+          assertEquals(actualDataSource.getInvertedIndex().getDocIds(actualDictId),
+              expectedDataSource.getInvertedIndex().getDocIds(dictId));
+        }
+      }
+    } finally {
+      expectedSegment.destroy();
+      actualSegment.destroy();
+    }
+  }
+
+  private static MutableSegmentImpl createMutableSegment() {
+    return MutableSegmentImplTestUtils.createMutableSegmentImpl(SCHEMA, Set.of(RAW_LONG_COLUMN), Set.of(),
+        INVERTED_INDEX_COLUMNS, false, true);
+  }
+
+  private static List<GenericRow> generateRows() {
+    Random random = new Random(42);
+    List<GenericRow> rows = new ArrayList<>(NUM_ROWS);
+    for (int i = 0; i < NUM_ROWS; i++) {
+      GenericRow row = new GenericRow();
+      row.putValue(INT_COLUMN, random.nextInt(50));
+      row.putValue(STRING_COLUMN, "value_" + random.nextInt(100));
+      int numValues = random.nextInt(5) + 1;
+      Object[] mvValues = new Object[numValues];
+      for (int j = 0; j < numValues; j++) {
+        mvValues[j] = random.nextInt(200);
+      }
+      row.putValue(MV_INT_COLUMN, mvValues);
+      row.putValue(RAW_LONG_COLUMN, random.nextLong());
+      // Put default null values for some of the rows
+      if (i % 10 == 0) {
+        row.putDefaultNullValue(STRING_COLUMN, "null");
+        row.putDefaultNullValue(RAW_LONG_COLUMN, 0L);
+      }
+      rows.add(row);
+    }
+    return rows;
+  }
+}
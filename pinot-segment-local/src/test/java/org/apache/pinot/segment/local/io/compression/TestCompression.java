@@ -190,6 +190,71 @@ public class TestCompression {
     }
   }
 
+  @DataProvider
+  public Object[][] bitPackingFormats() {
+    return new Object[][]{
+        {ChunkCompressionType.FOR, Integer.BYTES}, {ChunkCompressionType.FOR, Long.BYTES},
+        {ChunkCompressionType.DELTA, Integer.BYTES}, {ChunkCompressionType.DELTA, Long.BYTES},
+        {ChunkCompressionType.PFOR, Integer.BYTES}, {ChunkCompressionType.PFOR, Long.BYTES}
+    };
+  }
+
+  @Test(dataProvider = "bitPackingFormats")
+  public void testBitPackingRoundtrip(ChunkCompressionType type, int valueSizeInBytes)
+      throws IOException {
+    int numValues = 1000;
+    long[][] inputs = new long[6][numValues];
+    long timestamp = System.currentTimeMillis();
+    for (int i = 0; i < numValues; i++) {
+      // Random values
+      inputs[0][i] = ThreadLocalRandom.current().nextLong();
+      // Narrow range values
+      inputs[1][i] = 1_000_000 + ThreadLocalRandom.current().nextInt(100);
+      // Narrow range values with outliers
+      inputs[2][i] = i % 100 == 0 ? ThreadLocalRandom.current().nextLong() : ThreadLocalRandom.current().nextInt(100);
+      // Monotonic values
+      timestamp += ThreadLocalRandom.current().nextInt(10);
+      inputs[3][i] = timestamp;
+      // Constant values
+      inputs[4][i] = -1;
+      // Extreme values
+      inputs[5][i] = i % 2 == 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+    }
+    try (ChunkCompressor compressor = ChunkCompressorFactory.getCompressor(type, valueSizeInBytes)) {
+      assertEquals(compressor.compressionType(), type);
+      for (long[] input : inputs) {
+        ByteBuffer rawInput = ByteBuffer.allocateDirect(numValues * valueSizeInBytes);
+        for (long value : input) {
+          if (valueSizeInBytes == Integer.BYTES) {
+            rawInput.putInt((int) value);
+          } else {
+            rawInput.putLong(value);
+          }
+        }
+        rawInput.flip();
+        roundtrip(compressor, rawInput);
+      }
+
+      // Narrow range values should be compressed to a few bits per value
+      ByteBuffer rawInput = ByteBuffer.allocateDirect(numValues * valueSizeInBytes);
+      for (long value : inputs[1]) {
+        if (valueSizeInBytes == Integer.BYTES) {
+          rawInput.putInt((int) value);
+        } else {
+          rawInput.putLong(value);
+        }
+      }
+      rawInput.flip();
+      ByteBuffer compressedOutput = ByteBuffer.allocateDirect(compressor.maxCompressedSize(rawInput.limit()));
+      assertTrue(compressor.compress(rawInput, compressedOutput) <= numValues + BitPackingCompressor.MAX_HEADER_SIZE);
+    }
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testBitPackingRequiresValueSize() {
+    ChunkCompressorFactory.getCompressor(ChunkCompressionType.FOR);
+  }
+
   private static void roundtrip(ChunkCompressor compressor, ByteBuffer rawInput)
       throws IOException {
     ByteBuffer compressedOutput = ByteBuffer.allocateDirect(compressor.maxCompressedSize(rawInput.limit()));
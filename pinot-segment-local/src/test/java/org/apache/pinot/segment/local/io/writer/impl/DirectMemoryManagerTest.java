@@ -0,0 +1,46 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.io.writer.impl;
+
+import org.apache.pinot.segment.local.PinotBuffersAfterMethodCheckRule;
+import org.apache.pinot.segment.spi.memory.PinotDataBuffer;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+public class DirectMemoryManagerTest implements PinotBuffersAfterMethodCheckRule {
+
+  @Test
+  public void testRelease()
+      throws Exception {
+    try (DirectMemoryManager memoryManager = new DirectMemoryManager("someSegment")) {
+      PinotDataBuffer buf1 = memoryManager.allocate(1000, "col1");
+      PinotDataBuffer buf2 = memoryManager.allocate(2000, "col1");
+      Assert.assertEquals(memoryManager.getTotalAllocatedBytes(), 3000);
+
+      // Released buffers should no longer be accounted for
+      memoryManager.release(buf1);
+      Assert.assertEquals(memoryManager.getTotalAllocatedBytes(), 2000);
+
+      // Buffers can only be released once
+      Assert.assertThrows(IllegalArgumentException.class, () -> memoryManager.release(buf1));
+      Assert.assertEquals(memoryManager.getTotalAllocatedBytes(), 2000);
+    }
+  }
+}
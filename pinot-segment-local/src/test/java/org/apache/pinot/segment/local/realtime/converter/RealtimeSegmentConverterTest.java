@@ -41,22 +41,32 @@ import org.apache.pinot.segment.local.indexsegment.mutable.MutableSegmentImpl;
 import org.apache.pinot.segment.local.io.writer.impl.DirectMemoryManager;
 import org.apache.pinot.segment.local.realtime.impl.RealtimeSegmentConfig;
 import org.apache.pinot.segment.local.realtime.impl.RealtimeSegmentStatsHistory;
+import org.apache.pinot.segment.local.realtime.impl.bloom.MutableBloomFilter;
 import org.apache.pinot.segment.local.realtime.impl.invertedindex.RealtimeLuceneIndexRefreshManager;
 import org.apache.pinot.segment.local.realtime.impl.invertedindex.RealtimeLuceneTextIndexSearcherPool;
+import org.apache.pinot.segment.local.realtime.impl.range.MutableRangeIndex;
 import org.apache.pinot.segment.local.segment.index.column.PhysicalColumnIndexContainer;
 import org.apache.pinot.segment.local.segment.index.loader.IndexLoadingConfig;
+import org.apache.pinot.segment.local.segment.index.readers.bloom.BloomFilterReaderFactory;
 import org.apache.pinot.segment.local.segment.index.text.TextIndexConfigBuilder;
 import org.apache.pinot.segment.local.segment.store.SegmentLocalFSDirectory;
 import org.apache.pinot.segment.local.segment.virtualcolumn.VirtualColumnProviderFactory;
 import org.apache.pinot.segment.spi.ColumnMetadata;
+import org.apache.pinot.segment.spi.V1Constants;
 import org.apache.pinot.segment.spi.creator.SegmentVersion;
+import org.apache.pinot.segment.spi.datasource.DataSource;
 import org.apache.pinot.segment.spi.index.DictionaryIndexConfig;
+import org.apache.pinot.segment.spi.index.RangeIndexConfig;
 import org.apache.pinot.segment.spi.index.StandardIndexes;
 import org.apache.pinot.segment.spi.index.TextIndexConfig;
 import org.apache.pinot.segment.spi.index.column.ColumnIndexContainer;
 import org.apache.pinot.segment.spi.index.metadata.SegmentMetadataImpl;
+import org.apache.pinot.segment.spi.index.reader.BloomFilterReader;
+import org.apache.pinot.segment.spi.index.reader.RangeIndexReader;
 import org.apache.pinot.segment.spi.index.reader.TextIndexReader;
+import org.apache.pinot.segment.spi.memory.PinotDataBuffer;
 import org.apache.pinot.segment.spi.store.SegmentDirectory;
+import org.apache.pinot.spi.config.table.BloomFilterConfig;
 import org.apache.pinot.spi.config.table.FieldConfig;
 import org.apache.pinot.spi.config.table.IndexConfig;
 import org.apache.pinot.spi.config.table.SegmentZKPropsConfig;
@@ -281,6 +291,81 @@ public class RealtimeSegmentConverterTest implements PinotBuffersAfterMethodChec
     }
   }
 
+  @Test
+  public void testMutableRangeIndexAndBloomFilter()
+      throws Exception {
+    File tmpDir = new File(TMP_DIR, "tmp_" + System.currentTimeMillis());
+    TableConfig tableConfig =
+        new TableConfigBuilder(TableType.REALTIME).setTableName("testTable")
+            .setTimeColumnName(DATE_TIME_COLUMN)
+            .setRangeIndexColumns(Lists.newArrayList(LONG_COLUMN2))
+            .setBloomFilterColumns(Lists.newArrayList(LONG_COLUMN2))
+            .setNoDictionaryColumns(Lists.newArrayList(LONG_COLUMN2))
+            .build();
+    Schema schema = new Schema.SchemaBuilder()
+        .addSingleValueDimension(LONG_COLUMN1, FieldSpec.DataType.LONG)
+        .addSingleValueDimension(LONG_COLUMN2, FieldSpec.DataType.LONG)
+        .addDateTime(DATE_TIME_COLUMN, FieldSpec.DataType.LONG, "1:MILLISECONDS:EPOCH", "1:MILLISECONDS")
+        .build();
+
+    String tableNameWithType = tableConfig.getTableName();
+    String segmentName = "testTable__0__0__123456";
+    List<GenericRow> rows = generateTestData();
+    File consumerDir = new File(tmpDir, "consumerDir");
+
+    RealtimeSegmentConfig.Builder realtimeSegmentConfigBuilder =
+        new RealtimeSegmentConfig.Builder().setTableNameWithType(tableNameWithType).setSegmentName(segmentName)
+            .setStreamName(tableNameWithType).setSchema(schema).setTimeColumnName(DATE_TIME_COLUMN)
+            .setCapacity(rows.size())
+            .setIndex(Sets.newHashSet(LONG_COLUMN2), StandardIndexes.dictionary(), DictionaryIndexConfig.DISABLED)
+            .setIndex(Sets.newHashSet(LONG_COLUMN2), StandardIndexes.range(), RangeIndexConfig.DEFAULT)
+            .setIndex(Sets.newHashSet(LONG_COLUMN2), StandardIndexes.bloomFilter(), BloomFilterConfig.DEFAULT)
+            .setSegmentZKMetadata(getSegmentZKMetadata(segmentName)).setOffHeap(true)
+            .setMemoryManager(new DirectMemoryManager(segmentName))
+            .setStatsHistory(RealtimeSegmentStatsHistory.deserialzeFrom(new File(tmpDir, "stats")))
+            .setConsumerDir(consumerDir.getAbsolutePath());
+
+    MutableSegmentImpl mutableSegmentImpl = new MutableSegmentImpl(realtimeSegmentConfigBuilder.build(), null);
+    try {
+      for (GenericRow row : rows) {
+        mutableSegmentImpl.index(row, null);
+      }
+
+      // Query the mutable indexes
+      DataSource dataSource = mutableSegmentImpl.getDataSource(LONG_COLUMN2);
+      RangeIndexReader<?> rangeIndex = dataSource.getRangeIndex();
+      assertTrue(rangeIndex instanceof MutableRangeIndex);
+      // LONG_COLUMN2 has values [66, 76)
+      assertEquals(rangeIndex.getMatchingDocIds(68L, 70L), ImmutableRoaringBitmap.bitmapOf(2, 3, 4));
+      assertEquals(rangeIndex.getNumMatchingDocs(75L, Long.MAX_VALUE), 1);
+      BloomFilterReader bloomFilter = dataSource.getBloomFilter();
+      assertTrue(bloomFilter instanceof MutableBloomFilter);
+      for (GenericRow row : rows) {
+        assertTrue(bloomFilter.mightContain(row.getValue(LONG_COLUMN2).toString()));
+      }
+
+      // The bloom filter should be reused by the converted segment
+      File outputDir = new File(tmpDir, "outputDir");
+      RealtimeSegmentConverter converter =
+          new RealtimeSegmentConverter(mutableSegmentImpl, new SegmentZKPropsConfig(), outputDir.getAbsolutePath(),
+              schema, tableNameWithType, tableConfig, segmentName, false);
+      converter.build(SegmentVersion.v1, null);
+      File committedFile = MutableBloomFilter.getCommittedFile(consumerDir, segmentName, LONG_COLUMN2);
+      assertTrue(committedFile.exists());
+      File bloomFilterFile =
+          new File(new File(outputDir, segmentName), LONG_COLUMN2 + V1Constants.Indexes.BLOOM_FILTER_FILE_EXTENSION);
+      assertTrue(FileUtils.contentEquals(bloomFilterFile, committedFile));
+      try (PinotDataBuffer dataBuffer = PinotDataBuffer.mapReadOnlyBigEndianFile(bloomFilterFile)) {
+        BloomFilterReader immutableBloomFilter = BloomFilterReaderFactory.getBloomFilterReader(dataBuffer, true);
+        for (GenericRow row : rows) {
+          assertTrue(immutableBloomFilter.mightContain(row.getValue(LONG_COLUMN2).toString()));
+        }
+      }
+    } finally {
+      mutableSegmentImpl.destroy();
+    }
+  }
+
   @Test
   public void testNoRecordsIndexedColumnMajorSegmentBuilder()
       throws Exception {
@@ -0,0 +1,118 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.realtime.impl.bloom;
+
+import java.io.File;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.segment.local.PinotBuffersAfterMethodCheckRule;
+import org.apache.pinot.segment.local.segment.creator.impl.bloom.OnHeapGuavaBloomFilterCreator;
+import org.apache.pinot.segment.local.segment.creator.impl.bloom.ReusedMutableBloomFilterCreator;
+import org.apache.pinot.segment.local.segment.index.readers.bloom.BloomFilterReaderFactory;
+import org.apache.pinot.segment.spi.V1Constants;
+import org.apache.pinot.segment.spi.index.creator.BloomFilterCreator;
+import org.apache.pinot.segment.spi.index.reader.BloomFilterReader;
+import org.apache.pinot.segment.spi.memory.PinotDataBuffer;
+import org.apache.pinot.spi.config.table.BloomFilterConfig;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.apache.pinot.util.TestUtils;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+
+public class MutableBloomFilterTest implements PinotBuffersAfterMethodCheckRule {
+  private static final File TEMP_DIR = new File(FileUtils.getTempDirectory(), "MutableBloomFilterTest");
+  private static final String SEGMENT_NAME = "testSegment";
+  private static final String COLUMN_NAME = "testColumn";
+  private static final int NUM_VALUES = 10000;
+
+  @BeforeClass
+  public void setUp()
+      throws Exception {
+    TestUtils.ensureDirectoriesExistAndEmpty(TEMP_DIR);
+  }
+
+  @Test
+  public void testMutableBloomFilter()
+      throws Exception {
+    BloomFilterConfig bloomFilterConfig = new BloomFilterConfig(BloomFilterConfig.DEFAULT_FPP, 0, false);
+    File committedFile = MutableBloomFilter.getCommittedFile(TEMP_DIR, SEGMENT_NAME, COLUMN_NAME);
+    try (MutableBloomFilter mutableBloomFilter = new MutableBloomFilter(DataType.INT, NUM_VALUES, bloomFilterConfig,
+        committedFile)) {
+      for (int i = 0; i < NUM_VALUES; i++) {
+        mutableBloomFilter.add(i, -1, i);
+      }
+      for (int i = 0; i < NUM_VALUES; i++) {
+        assertTrue(mutableBloomFilter.mightContain(Integer.toString(i)));
+      }
+      mutableBloomFilter.commit();
+      assertTrue(committedFile.exists());
+
+      // The committed bloom filter should be identical to the one created by the bloom filter creator
+      File indexDir = new File(TEMP_DIR, "indexDir");
+      FileUtils.forceMkdir(indexDir);
+      try (BloomFilterCreator bloomFilterCreator = new OnHeapGuavaBloomFilterCreator(indexDir, COLUMN_NAME,
+          NUM_VALUES, bloomFilterConfig, DataType.INT)) {
+        for (int i = 0; i < NUM_VALUES; i++) {
+          bloomFilterCreator.add(Integer.toString(i));
+        }
+        bloomFilterCreator.seal();
+      }
+      File bloomFilterFile = new File(indexDir, COLUMN_NAME + V1Constants.Indexes.BLOOM_FILTER_FILE_EXTENSION);
+      assertTrue(FileUtils.contentEquals(committedFile, bloomFilterFile));
+
+      try (PinotDataBuffer dataBuffer = PinotDataBuffer.mapReadOnlyBigEndianFile(committedFile);
+          BloomFilterReader bloomFilterReader = BloomFilterReaderFactory.getBloomFilterReader(dataBuffer, true)) {
+        for (int i = 0; i < NUM_VALUES; i++) {
+          assertTrue(bloomFilterReader.mightContain(Integer.toString(i)));
+        }
+      }
+    }
+    // Committed file should be removed when the mutable bloom filter is closed
+    assertFalse(committedFile.exists());
+  }
+
+  @Test
+  public void testCanReuse()
+      throws Exception {
+    BloomFilterConfig bloomFilterConfig = new BloomFilterConfig(BloomFilterConfig.DEFAULT_FPP, 0, false);
+    File committedFile = MutableBloomFilter.getCommittedFile(TEMP_DIR, SEGMENT_NAME, COLUMN_NAME);
+    try (MutableBloomFilter mutableBloomFilter = new MutableBloomFilter(DataType.STRING, NUM_VALUES,
+        bloomFilterConfig, committedFile)) {
+      mutableBloomFilter.commit();
+      assertTrue(ReusedMutableBloomFilterCreator.canReuse(committedFile, NUM_VALUES, bloomFilterConfig));
+      // Fewer values than expected, where the fpp is lower, but the bloom filter should not be too large
+      assertTrue(ReusedMutableBloomFilterCreator.canReuse(committedFile, NUM_VALUES * 3 / 4, bloomFilterConfig));
+      assertFalse(ReusedMutableBloomFilterCreator.canReuse(committedFile, NUM_VALUES / 10, bloomFilterConfig));
+      // More values than expected, where the fpp is higher than expected
+      assertFalse(ReusedMutableBloomFilterCreator.canReuse(committedFile, NUM_VALUES * 2, bloomFilterConfig));
+    }
+    assertFalse(
+        ReusedMutableBloomFilterCreator.canReuse(new File(TEMP_DIR, "nonExisting"), NUM_VALUES, bloomFilterConfig));
+  }
+
+  @AfterClass
+  public void tearDown()
+      throws Exception {
+    FileUtils.deleteDirectory(TEMP_DIR);
+  }
+}
@@ -18,9 +18,12 @@
  */
 package org.apache.pinot.segment.local.realtime.impl.invertedindex;
 
+import org.apache.pinot.segment.spi.index.reader.InvertedIndexReader;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
 import org.roaringbitmap.buffer.MutableRoaringBitmap;
 import org.testng.annotations.Test;
 
+import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNotNull;
 import static org.testng.Assert.assertTrue;
@@ -34,7 +37,7 @@ public class RealtimeInvertedIndexReaderTest {
 
     // Add dictionary id 0, document id 0 to the inverted index (single-value dictionary id not added yet)
     // Before adding
-    MutableRoaringBitmap docIds = realtimeInvertedIndexReader.getDocIds(0);
+    ImmutableRoaringBitmap docIds = realtimeInvertedIndexReader.getDocIds(0);
     assertNotNull(docIds);
     assertTrue(docIds.isEmpty());
     // After adding
@@ -103,4 +106,77 @@ public class RealtimeInvertedIndexReaderTest {
     assertFalse(docIds.contains(1));
     assertTrue(docIds.contains(2));
   }
+
+  @Test
+  public void testSnapshot() {
+    RealtimeInvertedIndex realtimeInvertedIndexReader = new RealtimeInvertedIndex();
+
+    // Add document ids across multiple containers (64K document ids per container), alternating between 2 dictionary
+    // ids with the second half added in batch
+    int numDocs = 200_000;
+    int batchStartDocId = numDocs / 2;
+    for (int docId = 0; docId < batchStartDocId; docId++) {
+      realtimeInvertedIndexReader.add(docId % 2, docId);
+    }
+    ImmutableRoaringBitmap snapshot = realtimeInvertedIndexReader.getDocIds(0);
+    assertEquals(snapshot.getCardinality(), batchStartDocId / 2);
+
+    int batchSize = 1000;
+    int[] dictIds = new int[batchSize];
+    for (int startDocId = batchStartDocId; startDocId < numDocs; startDocId += batchSize) {
+      for (int i = 0; i < batchSize; i++) {
+        dictIds[i] = (startDocId + i) % 2;
+      }
+      realtimeInvertedIndexReader.addBatch(new Object[batchSize], dictIds, startDocId, batchSize);
+    }
+
+    // Snapshot should not be affected by the document ids added after it is taken
+    assertEquals(snapshot.getCardinality(), batchStartDocId / 2);
+    assertEquals(snapshot.last(), batchStartDocId - 2);
+    for (int docId = 0; docId < batchStartDocId; docId++) {
+      assertEquals(snapshot.contains(docId), docId % 2 == 0);
+    }
+
+    for (int dictId = 0; dictId < 2; dictId++) {
+      ImmutableRoaringBitmap docIds = realtimeInvertedIndexReader.getDocIds(dictId);
+      assertEquals(docIds.getCardinality(), numDocs / 2);
+      int expectedDocId = dictId;
+      for (int docId : docIds.toArray()) {
+        assertEquals(docId, expectedDocId);
+        expectedDocId += 2;
+      }
+    }
+
+    // Flipping the snapshot should not modify the inverted index
+    ImmutableRoaringBitmap flipped = ImmutableRoaringBitmap.flip(realtimeInvertedIndexReader.getDocIds(0), 0L, numDocs);
+    assertEquals(flipped.getCardinality(), numDocs / 2);
+    assertEquals(realtimeInvertedIndexReader.getDocIds(0).getCardinality(), numDocs / 2);
+
+    // Snapshot should be read-only so that it cannot be modified in place
+    assertFalse(realtimeInvertedIndexReader.getDocIds(0) instanceof MutableRoaringBitmap);
+  }
+
+  @Test
+  public void testBoundedReader() {
+    RealtimeInvertedIndex realtimeInvertedIndexReader = new RealtimeInvertedIndex();
+    int numDocs = 200_000;
+    for (int docId = 0; docId < numDocs; docId++) {
+      realtimeInvertedIndexReader.add(docId % 2, docId);
+    }
+
+    // Reader should only return the document ids smaller than the number of queryable documents, including the bound
+    // within a container, at the start of a container, and beyond the last document id
+    for (int numQueryableDocs : new int[]{0, 1, 1000, 65536, 65537, 150_000, numDocs, numDocs + 1000}) {
+      InvertedIndexReader<ImmutableRoaringBitmap> reader = realtimeInvertedIndexReader.getReader(numQueryableDocs);
+      for (int dictId = 0; dictId < 2; dictId++) {
+        ImmutableRoaringBitmap docIds = reader.getDocIds(dictId);
+        assertFalse(docIds instanceof MutableRoaringBitmap);
+        MutableRoaringBitmap expectedDocIds = new MutableRoaringBitmap();
+        for (int docId = dictId; docId < Math.min(numQueryableDocs, numDocs); docId += 2) {
+          expectedDocIds.add(docId);
+        }
+        assertEquals(docIds, expectedDocIds);
+      }
+    }
+  }
 }
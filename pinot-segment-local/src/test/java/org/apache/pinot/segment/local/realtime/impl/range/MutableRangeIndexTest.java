@@ -0,0 +1,211 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.realtime.impl.range;
+
+import java.util.Random;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
+import org.roaringbitmap.buffer.MutableRoaringBitmap;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+
+
+public class MutableRangeIndexTest {
+  private static final int NUM_DOCS = 5000;
+  private static final int NUM_QUERIES = 100;
+  private static final Random RANDOM = new Random();
+
+  @Test
+  public void testInt() {
+    int[] values = new int[NUM_DOCS];
+    for (int i = 0; i < NUM_DOCS; i++) {
+      // Mix small values (duplicates) and full range values (including negative)
+      values[i] = i % 2 == 0 ? RANDOM.nextInt(100) - 50 : RANDOM.nextInt();
+    }
+    values[0] = Integer.MIN_VALUE;
+    values[1] = Integer.MAX_VALUE;
+    try (MutableRangeIndex rangeIndex = new MutableRangeIndex(DataType.INT)) {
+      addValues(rangeIndex, box(values));
+      for (int i = 0; i < NUM_QUERIES; i++) {
+        int min = values[RANDOM.nextInt(NUM_DOCS)];
+        int max = values[RANDOM.nextInt(NUM_DOCS)];
+        MutableRoaringBitmap expected = new MutableRoaringBitmap();
+        MutableRoaringBitmap expectedEq = new MutableRoaringBitmap();
+        for (int docId = 0; docId < NUM_DOCS; docId++) {
+          if (values[docId] >= min && values[docId] <= max) {
+            expected.add(docId);
+          }
+          if (values[docId] == min) {
+            expectedEq.add(docId);
+          }
+        }
+        assertEquals(rangeIndex.getMatchingDocIds(min, max), expected);
+        assertEquals(rangeIndex.getNumMatchingDocs(min, max), expected.getCardinality());
+        assertEquals(rangeIndex.getMatchingDocIds(min), expectedEq);
+      }
+      assertEquals(rangeIndex.getNumMatchingDocs(Integer.MIN_VALUE, Integer.MAX_VALUE), NUM_DOCS);
+    }
+  }
+
+  @Test
+  public void testLong() {
+    long[] values = new long[NUM_DOCS];
+    for (int i = 0; i < NUM_DOCS; i++) {
+      values[i] = i % 2 == 0 ? RANDOM.nextInt(100) - 50 : RANDOM.nextLong();
+    }
+    values[0] = Long.MIN_VALUE;
+    values[1] = Long.MAX_VALUE;
+    try (MutableRangeIndex rangeIndex = new MutableRangeIndex(DataType.LONG)) {
+      addValues(rangeIndex, box(values));
+      for (int i = 0; i < NUM_QUERIES; i++) {
+        long min = values[RANDOM.nextInt(NUM_DOCS)];
+        long max = values[RANDOM.nextInt(NUM_DOCS)];
+        MutableRoaringBitmap expected = new MutableRoaringBitmap();
+        MutableRoaringBitmap expectedEq = new MutableRoaringBitmap();
+        for (int docId = 0; docId < NUM_DOCS; docId++) {
+          if (values[docId] >= min && values[docId] <= max) {
+            expected.add(docId);
+          }
+          if (values[docId] == min) {
+            expectedEq.add(docId);
+          }
+        }
+        assertEquals(rangeIndex.getMatchingDocIds(min, max), expected);
+        assertEquals(rangeIndex.getMatchingDocIds(min), expectedEq);
+      }
+      assertEquals(rangeIndex.getNumMatchingDocs(Long.MIN_VALUE, Long.MAX_VALUE), NUM_DOCS);
+    }
+  }
+
+  @Test
+  public void testFloat() {
+    float[] values = new float[NUM_DOCS];
+    for (int i = 0; i < NUM_DOCS; i++) {
+      values[i] = i % 2 == 0 ? RANDOM.nextInt(100) - 50 : (float) RANDOM.nextGaussian() * 1000;
+    }
+    values[0] = Float.NEGATIVE_INFINITY;
+    values[1] = Float.POSITIVE_INFINITY;
+    values[2] = -0.0f;
+    try (MutableRangeIndex rangeIndex = new MutableRangeIndex(DataType.FLOAT)) {
+      addValues(rangeIndex, box(values));
+      for (int i = 0; i < NUM_QUERIES; i++) {
+        float min = values[RANDOM.nextInt(NUM_DOCS)];
+        float max = values[RANDOM.nextInt(NUM_DOCS)];
+        MutableRoaringBitmap expected = new MutableRoaringBitmap();
+        for (int docId = 0; docId < NUM_DOCS; docId++) {
+          if (Float.compare(values[docId], min) >= 0 && Float.compare(values[docId], max) <= 0) {
+            expected.add(docId);
+          }
+        }
+        assertEquals(rangeIndex.getMatchingDocIds(min, max), expected);
+      }
+      assertEquals(rangeIndex.getNumMatchingDocs(Float.NEGATIVE_INFINITY, Float.POSITIVE_INFINITY), NUM_DOCS);
+    }
+  }
+
+  @Test
+  public void testDouble() {
+    double[] values = new double[NUM_DOCS];
+    for (int i = 0; i < NUM_DOCS; i++) {
+      values[i] = i % 2 == 0 ? RANDOM.nextInt(100) - 50 : RANDOM.nextGaussian() * 1000;
+    }
+    values[0] = Double.NEGATIVE_INFINITY;
+    values[1] = Double.POSITIVE_INFINITY;
+    try (MutableRangeIndex rangeIndex = new MutableRangeIndex(DataType.DOUBLE)) {
+      addValues(rangeIndex, box(values));
+      for (int i = 0; i < NUM_QUERIES; i++) {
+        double min = values[RANDOM.nextInt(NUM_DOCS)];
+        double max = values[RANDOM.nextInt(NUM_DOCS)];
+        MutableRoaringBitmap expected = new MutableRoaringBitmap();
+        for (int docId = 0; docId < NUM_DOCS; docId++) {
+          if (values[docId] >= min && values[docId] <= max) {
+            expected.add(docId);
+          }
+        }
+        assertEquals(rangeIndex.getMatchingDocIds(min, max), expected);
+      }
+      assertEquals(rangeIndex.getNumMatchingDocs(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY), NUM_DOCS);
+    }
+  }
+
+  @Test
+  public void testSnapshot() {
+    try (MutableRangeIndex rangeIndex = new MutableRangeIndex(DataType.INT)) {
+      assertEquals(rangeIndex.getNumMatchingDocs(Integer.MIN_VALUE, Integer.MAX_VALUE), 0);
+      rangeIndex.add(5, -1, 0);
+      rangeIndex.add(10, -1, 1);
+      ImmutableRoaringBitmap snapshot = rangeIndex.getMatchingDocIds(0, 20);
+      rangeIndex.add(15, -1, 2);
+      // Previously returned result should not be modified by the new values
+      assertEquals(snapshot, ImmutableRoaringBitmap.bitmapOf(0, 1));
+      assertEquals(rangeIndex.getMatchingDocIds(0, 20), ImmutableRoaringBitmap.bitmapOf(0, 1, 2));
+      assertEquals(rangeIndex.getNumMatchingDocs(20, 0), 0);
+    }
+  }
+
+  /**
+   * Adds the first half of the values one by one, and the second half in batches.
+   */
+  private static void addValues(MutableRangeIndex rangeIndex, Object[] values) {
+    int half = values.length / 2;
+    for (int i = 0; i < half; i++) {
+      rangeIndex.add(values[i], -1, i);
+    }
+    int batchSize = 64;
+    for (int startDocId = half; startDocId < values.length; startDocId += batchSize) {
+      int numDocs = Math.min(batchSize, values.length - startDocId);
+      Object[] batch = new Object[numDocs];
+      System.arraycopy(values, startDocId, batch, 0, numDocs);
+      rangeIndex.addBatch(batch, null, startDocId, numDocs);
+    }
+  }
+
+  private static Object[] box(int[] values) {
+    Object[] boxed = new Object[values.length];
+    for (int i = 0; i < values.length; i++) {
+      boxed[i] = values[i];
+    }
+    return boxed;
+  }
+
+  private static Object[] box(long[] values) {
+    Object[] boxed = new Object[values.length];
+    for (int i = 0; i < values.length; i++) {
+      boxed[i] = values[i];
+    }
+    return boxed;
+  }
+
+  private static Object[] box(float[] values) {
+    Object[] boxed = new Object[values.length];
+    for (int i = 0; i < values.length; i++) {
+      boxed[i] = values[i];
+    }
+    return boxed;
+  }
+
+  private static Object[] box(double[] values) {
+    Object[] boxed = new Object[values.length];
+    for (int i = 0; i < values.length; i++) {
+      boxed[i] = values[i];
+    }
+    return boxed;
+  }
+}
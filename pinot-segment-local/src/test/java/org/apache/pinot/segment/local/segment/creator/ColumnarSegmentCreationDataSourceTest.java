@@ -0,0 +1,204 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.segment.creator;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.segment.local.segment.creator.impl.SegmentIndexCreationDriverImpl;
+import org.apache.pinot.segment.local.segment.readers.GenericRowRecordReader;
+import org.apache.pinot.segment.local.segment.readers.PinotSegmentRecordReader;
+import org.apache.pinot.segment.spi.creator.SegmentGeneratorConfig;
+import org.apache.pinot.spi.config.table.TableConfig;
+import org.apache.pinot.spi.config.table.TableType;
+import org.apache.pinot.spi.config.table.ingestion.BatchIngestionConfig;
+import org.apache.pinot.spi.config.table.ingestion.IngestionConfig;
+import org.apache.pinot.spi.config.table.ingestion.TransformConfig;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.apache.pinot.spi.data.Schema;
+import org.apache.pinot.spi.data.readers.ColumnReader;
+import org.apache.pinot.spi.data.readers.ColumnarRecordReader;
+import org.apache.pinot.spi.data.readers.GenericRow;
+import org.apache.pinot.spi.utils.builder.TableConfigBuilder;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+
+public class ColumnarSegmentCreationDataSourceTest {
+  private static final File TEMP_DIR = new File(FileUtils.getTempDirectory(), "ColumnarSegmentCreationDataSourceTest");
+  private static final String RAW_TABLE_NAME = "testTable";
+  private static final String INT_COLUMN = "intColumn";
+  private static final String STRING_COLUMN = "stringColumn";
+  private static final String DOUBLE_COLUMN = "doubleColumn";
+  private static final String TIME_COLUMN = "timeColumn";
+  private static final int NUM_ROWS = 1000;
+
+  private final Schema _schema = new Schema.SchemaBuilder().setSchemaName(RAW_TABLE_NAME)
+      .addSingleValueDimension(INT_COLUMN, DataType.INT)
+      .addSingleValueDimension(STRING_COLUMN, DataType.STRING)
+      .addMetric(DOUBLE_COLUMN, DataType.DOUBLE)
+      .addDateTime(TIME_COLUMN, DataType.LONG, "1:MILLISECONDS:EPOCH", "1:MILLISECONDS")
+      .setEnableColumnBasedNullHandling(true)
+      .build();
+  private final List<GenericRow> _rows = new ArrayList<>(NUM_ROWS);
+
+  @BeforeClass
+  public void setUp()
+      throws Exception {
+    FileUtils.deleteDirectory(TEMP_DIR);
+    // NOTE: Use a valid default time value so that the null time values are filled the same way in both segments
+    _schema.getFieldSpecFor(TIME_COLUMN).setDefaultNullValue(1700000000000L);
+    Random random = new Random();
+    for (int i = 0; i < NUM_ROWS; i++) {
+      GenericRow row = new GenericRow();
+      // Values of other types, nulls and special values should be transformed the same way as the row based ingestion
+      row.putValue(INT_COLUMN, i % 10 == 0 ? null : Long.toString(random.nextInt(100)));
+      row.putValue(STRING_COLUMN, i % 7 == 0 ? null : "value\0" + random.nextInt(50));
+      row.putValue(DOUBLE_COLUMN, i % 5 == 0 ? Double.NaN : i % 5 == 1 ? -0.0 : random.nextDouble());
+      row.putValue(TIME_COLUMN, i % 11 == 0 ? null : 1700000000000L + random.nextInt(1000000));
+      _rows.add(row);
+    }
+  }
+
+  @AfterClass
+  public void tearDown()
+      throws Exception {
+    FileUtils.deleteDirectory(TEMP_DIR);
+  }
+
+  @Test
+  public void testIsSupported() {
+    TableConfig tableConfig = createTableConfig(true);
+    assertTrue(ColumnarSegmentCreationDataSource.isSupported(new SegmentGeneratorConfig(tableConfig, _schema),
+        new InMemoryColumnarRecordReader(_rows)));
+
+    // Columnar ingestion not enabled
+    assertFalse(ColumnarSegmentCreationDataSource.isSupported(
+        new SegmentGeneratorConfig(createTableConfig(false), _schema), new InMemoryColumnarRecordReader(_rows)));
+
+    // Not a columnar record reader
+    assertFalse(ColumnarSegmentCreationDataSource.isSupported(new SegmentGeneratorConfig(tableConfig, _schema),
+        new GenericRowRecordReader(_rows)));
+
+    // Continue on error enabled
+    tableConfig = createTableConfig(true);
+    tableConfig.getIngestionConfig().setContinueOnError(true);
+    assertFalse(ColumnarSegmentCreationDataSource.isSupported(new SegmentGeneratorConfig(tableConfig, _schema),
+        new InMemoryColumnarRecordReader(_rows)));
+
+    // Transform function configured
+    tableConfig = createTableConfig(true);
+    tableConfig.getIngestionConfig()
+        .setTransformConfigs(List.of(new TransformConfig(INT_COLUMN, "plus(" + DOUBLE_COLUMN + ", 1)")));
+    assertFalse(ColumnarSegmentCreationDataSource.isSupported(new SegmentGeneratorConfig(tableConfig, _schema),
+        new InMemoryColumnarRecordReader(_rows)));
+  }
+
+  @Test
+  public void testBuildSegmentByColumn()
+      throws Exception {
+    File rowBasedSegmentDir = buildSegment(false);
+    File columnarSegmentDir = buildSegment(true);
+    try (PinotSegmentRecordReader rowBasedReader = new PinotSegmentRecordReader(rowBasedSegmentDir);
+        PinotSegmentRecordReader columnarReader = new PinotSegmentRecordReader(columnarSegmentDir)) {
+      int numRows = 0;
+      while (rowBasedReader.hasNext()) {
+        assertTrue(columnarReader.hasNext());
+        GenericRow expected = rowBasedReader.next();
+        GenericRow actual = columnarReader.next();
+        assertEquals(actual, expected);
+        numRows++;
+      }
+      assertFalse(columnarReader.hasNext());
+      assertEquals(numRows, NUM_ROWS);
+    }
+  }
+
+  private File buildSegment(boolean columnarIngestion)
+      throws Exception {
+    String segmentName = columnarIngestion ? "columnarSegment" : "rowBasedSegment";
+    SegmentGeneratorConfig config = new SegmentGeneratorConfig(createTableConfig(columnarIngestion), _schema);
+    config.setOutDir(TEMP_DIR.getAbsolutePath());
+    config.setSegmentName(segmentName);
+    SegmentIndexCreationDriverImpl driver = new SegmentIndexCreationDriverImpl();
+    driver.init(config, new InMemoryColumnarRecordReader(_rows));
+    driver.build();
+    return new File(TEMP_DIR, segmentName);
+  }
+
+  private static TableConfig createTableConfig(boolean columnarIngestion) {
+    IngestionConfig ingestionConfig = new IngestionConfig();
+    BatchIngestionConfig batchIngestionConfig = new BatchIngestionConfig(null, "APPEND", "DAILY");
+    batchIngestionConfig.setColumnarIngestion(columnarIngestion);
+    ingestionConfig.setBatchIngestionConfig(batchIngestionConfig);
+    return new TableConfigBuilder(TableType.OFFLINE).setTableName(RAW_TABLE_NAME).setTimeColumnName(TIME_COLUMN)
+        .setNoDictionaryColumns(List.of(DOUBLE_COLUMN)).setIngestionConfig(ingestionConfig).build();
+  }
+
+  /**
+   * {@link ColumnarRecordReader} for list of {@link GenericRow}.
+   */
+  private static class InMemoryColumnarRecordReader extends GenericRowRecordReader implements ColumnarRecordReader {
+    private final List<GenericRow> _rows;
+
+    InMemoryColumnarRecordReader(List<GenericRow> rows) {
+      super(rows);
+      _rows = rows;
+    }
+
+    @Override
+    public boolean isColumnReadable(String column) {
+      return true;
+    }
+
+    @Override
+    public ColumnReader getColumnReader(String column) {
+      return new ColumnReader() {
+        private Iterator<GenericRow> _iterator = _rows.iterator();
+
+        @Override
+        public boolean hasNext() {
+          return _iterator.hasNext();
+        }
+
+        @Override
+        public Object next() {
+          return _iterator.next().getValue(column);
+        }
+
+        @Override
+        public void rewind() {
+          _iterator = _rows.iterator();
+        }
+
+        @Override
+        public void close() {
+        }
+      };
+    }
+  }
+}
@@ -21,16 +21,24 @@ package org.apache.pinot.segment.local.segment.creator.impl;
 import com.google.common.collect.ImmutableList;
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import org.apache.commons.configuration2.PropertiesConfiguration;
 import org.apache.commons.io.FileUtils;
 import org.apache.pinot.segment.local.PinotBuffersAfterClassCheckRule;
 import org.apache.pinot.segment.local.indexsegment.immutable.ImmutableSegmentLoader;
 import org.apache.pinot.segment.local.segment.readers.GenericRowRecordReader;
+import org.apache.pinot.segment.local.segment.readers.PinotSegmentRecordReader;
+import org.apache.pinot.segment.spi.ImmutableSegment;
 import org.apache.pinot.segment.spi.IndexSegment;
 import org.apache.pinot.segment.spi.SegmentMetadata;
 import org.apache.pinot.segment.spi.V1Constants.MetadataKeys.Column;
 import org.apache.pinot.segment.spi.creator.SegmentGeneratorConfig;
+import org.apache.pinot.segment.spi.index.startree.StarTreeV2Constants;
+import org.apache.pinot.segment.spi.store.SegmentDirectoryPaths;
+import org.apache.pinot.spi.config.table.StarTreeIndexConfig;
 import org.apache.pinot.spi.config.table.TableConfig;
 import org.apache.pinot.spi.config.table.TableType;
 import org.apache.pinot.spi.data.FieldSpec.DataType;
@@ -133,6 +141,97 @@ public class SegmentColumnarIndexCreatorTest implements PinotBuffersAfterClassCh
     }
   }
 
+  @Test
+  public void testParallelIndexCreation()
+      throws Exception {
+    Schema schema = new Schema.SchemaBuilder().addSingleValueDimension("intColumn", DataType.INT)
+        .addSingleValueDimension("stringColumn", DataType.STRING)
+        .addMultiValueDimension("mvColumn", DataType.LONG)
+        .addSingleValueDimension("nullableColumn", DataType.STRING)
+        .addMetric("rawColumn", DataType.DOUBLE)
+        .build();
+    List<StarTreeIndexConfig> starTreeIndexConfigs = Arrays.asList(
+        new StarTreeIndexConfig(Arrays.asList("intColumn", "stringColumn"), null,
+            Collections.singletonList("SUM__rawColumn"), null, 10),
+        new StarTreeIndexConfig(Collections.singletonList("stringColumn"), null,
+            Collections.singletonList("MAX__rawColumn"), null, 10));
+    TableConfig tableConfig = new TableConfigBuilder(TableType.OFFLINE).setTableName("test")
+        .setInvertedIndexColumns(Collections.singletonList("intColumn"))
+        .setNoDictionaryColumns(Collections.singletonList("rawColumn"))
+        .setStarTreeIndexConfigs(starTreeIndexConfigs)
+        .setNullHandlingEnabled(true)
+        .build();
+    tableConfig.getIndexingConfig().setCreateInvertedIndexDuringSegmentGeneration(true);
+
+    int numRows = 2500;
+    List<GenericRow> rows = new ArrayList<>(numRows);
+    for (int i = 0; i < numRows; i++) {
+      GenericRow row = new GenericRow();
+      row.putValue("intColumn", i % 100);
+      row.putValue("stringColumn", "s" + (i % 17));
+      row.putValue("mvColumn", new Object[]{(long) i, (long) (i % 5)});
+      row.putValue("nullableColumn", i % 3 == 0 ? null : "v" + (i % 11));
+      row.putValue("rawColumn", i * 1.5);
+      rows.add(row);
+    }
+
+    File sequentialIndexDir = buildSegment(tableConfig, schema, rows, "sequentialSegment", 1);
+    tableConfig.getIndexingConfig().setSegmentIndexCreationParallelism(4);
+    File parallelIndexDir = buildSegment(tableConfig, schema, rows, "parallelSegment", 4);
+
+    // Star-trees should be identical
+    File sequentialSegmentDir = SegmentDirectoryPaths.findSegmentDirectory(sequentialIndexDir);
+    File parallelSegmentDir = SegmentDirectoryPaths.findSegmentDirectory(parallelIndexDir);
+    assertTrue(FileUtils.contentEquals(new File(sequentialSegmentDir, StarTreeV2Constants.INDEX_FILE_NAME),
+        new File(parallelSegmentDir, StarTreeV2Constants.INDEX_FILE_NAME)));
+    assertTrue(FileUtils.contentEquals(new File(sequentialSegmentDir, StarTreeV2Constants.INDEX_MAP_FILE_NAME),
+        new File(parallelSegmentDir, StarTreeV2Constants.INDEX_MAP_FILE_NAME)));
+
+    ImmutableSegment sequentialSegment = ImmutableSegmentLoader.load(sequentialIndexDir, ReadMode.mmap);
+    ImmutableSegment parallelSegment = ImmutableSegmentLoader.load(parallelIndexDir, ReadMode.mmap);
+    try {
+      assertEquals(parallelSegment.getSegmentMetadata().getTotalDocs(), numRows);
+      assertEquals(parallelSegment.getSegmentMetadata().getStarTreeV2MetadataList().size(), 2);
+      for (String column : schema.getColumnNames()) {
+        assertEquals(parallelSegment.getSegmentMetadata().getColumnMetadataFor(column).getCardinality(),
+            sequentialSegment.getSegmentMetadata().getColumnMetadataFor(column).getCardinality());
+      }
+      assertEquals(parallelSegment.getDataSource("intColumn").getInvertedIndex().getDocIds(7),
+          sequentialSegment.getDataSource("intColumn").getInvertedIndex().getDocIds(7));
+      try (PinotSegmentRecordReader sequentialReader = new PinotSegmentRecordReader();
+          PinotSegmentRecordReader parallelReader = new PinotSegmentRecordReader()) {
+        sequentialReader.init(sequentialSegment);
+        parallelReader.init(parallelSegment);
+        GenericRow sequentialRow = new GenericRow();
+        GenericRow parallelRow = new GenericRow();
+        for (int i = 0; i < numRows; i++) {
+          sequentialRow.clear();
+          parallelRow.clear();
+          sequentialReader.getRecord(i, sequentialRow);
+          parallelReader.getRecord(i, parallelRow);
+          assertEquals(parallelRow, sequentialRow);
+          assertEquals(parallelRow.isNullValue("nullableColumn"), i % 3 == 0);
+        }
+      }
+    } finally {
+      sequentialSegment.destroy();
+      parallelSegment.destroy();
+    }
+  }
+
+  private static File buildSegment(TableConfig tableConfig, Schema schema, List<GenericRow> rows, String segmentName,
+      int expectedParallelism)
+      throws Exception {
+    SegmentGeneratorConfig config = new SegmentGeneratorConfig(tableConfig, schema);
+    assertEquals(config.getIndexCreationParallelism(), expectedParallelism);
+    config.setOutDir(TEMP_DIR.getAbsolutePath());
+    config.setSegmentName(segmentName);
+    SegmentIndexCreationDriverImpl driver = new SegmentIndexCreationDriverImpl();
+    driver.init(config, new GenericRowRecordReader(rows));
+    driver.build();
+    return new File(TEMP_DIR, segmentName);
+  }
+
   @AfterClass
   public void tearDown()
       throws IOException {
@@ -0,0 +1,115 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.segment.index.creator;
+
+import java.io.File;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.segment.local.PinotBuffersAfterMethodCheckRule;
+import org.apache.pinot.segment.local.segment.creator.impl.fwd.BinaryJsonForwardIndexCreator;
+import org.apache.pinot.segment.local.segment.index.forward.ForwardIndexReaderFactory;
+import org.apache.pinot.segment.local.segment.index.readers.forward.BinaryJsonForwardIndexReader;
+import org.apache.pinot.segment.local.segment.index.readers.forward.VarByteChunkForwardIndexReaderV4;
+import org.apache.pinot.segment.local.utils.BinaryJsonUtils;
+import org.apache.pinot.segment.spi.ColumnMetadata;
+import org.apache.pinot.segment.spi.V1Constants;
+import org.apache.pinot.segment.spi.compression.ChunkCompressionType;
+import org.apache.pinot.segment.spi.index.reader.ForwardIndexReader;
+import org.apache.pinot.segment.spi.memory.PinotDataBuffer;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.apache.pinot.spi.utils.JsonUtils;
+import org.apache.pinot.util.TestUtils;
+import org.mockito.Mockito;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+
+public class BinaryJsonForwardIndexCreatorTest implements PinotBuffersAfterMethodCheckRule {
+  private static final File TEMP_DIR = new File(FileUtils.getTempDirectory(), "BinaryJsonForwardIndexCreatorTest");
+  private static final String COLUMN_NAME = "jsonColumn";
+
+  @BeforeClass
+  public void setUp()
+      throws Exception {
+    TestUtils.ensureDirectoriesExistAndEmpty(TEMP_DIR);
+  }
+
+  @Test
+  public void testCreateAndRead()
+      throws Exception {
+    int numDocs = 10_000;
+    String[] jsonStrings = new String[numDocs];
+    for (int i = 0; i < numDocs; i++) {
+      jsonStrings[i] = i % 100 == 0 ? "invalid json " + i
+          : "{\"id\":" + i + ",\"name\":\"name_" + i + "\",\"scores\":[" + i + "," + i * 0.5 + "],\"address\":"
+              + "{\"city\":\"city_" + i % 10 + "\"}}";
+    }
+    try (BinaryJsonForwardIndexCreator creator = new BinaryJsonForwardIndexCreator(TEMP_DIR, ChunkCompressionType.LZ4,
+        COLUMN_NAME, 128, 1024 * 1024, 1000)) {
+      for (String jsonString : jsonStrings) {
+        creator.putString(jsonString);
+      }
+    }
+    File indexFile = new File(TEMP_DIR, COLUMN_NAME + V1Constants.Indexes.RAW_SV_FORWARD_INDEX_FILE_EXTENSION);
+    assertTrue(indexFile.exists());
+    assertEquals(TEMP_DIR.list().length, 1);
+
+    ColumnMetadata columnMetadata = Mockito.mock(ColumnMetadata.class);
+    Mockito.when(columnMetadata.hasDictionary()).thenReturn(false);
+    Mockito.when(columnMetadata.isSingleValue()).thenReturn(true);
+    Mockito.when(columnMetadata.getDataType()).thenReturn(DataType.JSON);
+    Mockito.when(columnMetadata.getTotalDocs()).thenReturn(numDocs);
+    try (PinotDataBuffer dataBuffer = PinotDataBuffer.mapReadOnlyBigEndianFile(indexFile);
+        ForwardIndexReader<?> reader = ForwardIndexReaderFactory.getInstance()
+            .createIndexReader(dataBuffer, columnMetadata)) {
+      assertTrue(reader instanceof BinaryJsonForwardIndexReader);
+      assertEquals(reader.getStoredType(), DataType.STRING);
+      assertEquals(reader.getCompressionType(), ChunkCompressionType.LZ4);
+      BinaryJsonForwardIndexReader binaryJsonReader = (BinaryJsonForwardIndexReader) reader;
+      BinaryJsonUtils.Path cityPath = BinaryJsonUtils.compilePath("$.address.city");
+      BinaryJsonUtils.Path scorePath = BinaryJsonUtils.compilePath("$.scores[1]");
+      try (VarByteChunkForwardIndexReaderV4.ReaderContext context = binaryJsonReader.createContext()) {
+        for (int i = 0; i < numDocs; i++) {
+          String jsonString = binaryJsonReader.getString(i, context);
+          byte[] binaryJson = binaryJsonReader.getBytes(i, context);
+          if (i % 100 == 0) {
+            assertEquals(jsonString, jsonStrings[i]);
+            assertTrue(BinaryJsonUtils.isRawText(binaryJson));
+            assertNull(binaryJsonReader.getJsonNode(i, context));
+          } else {
+            assertEquals(JsonUtils.stringToJsonNode(jsonString), JsonUtils.stringToJsonNode(jsonStrings[i]));
+            assertEquals(binaryJsonReader.getJsonNode(i, context), JsonUtils.stringToJsonNode(jsonStrings[i]));
+            assertEquals(BinaryJsonUtils.read(binaryJson, cityPath, false), "city_" + i % 10);
+            assertEquals(BinaryJsonUtils.read(binaryJson, scorePath, false), i * 0.5);
+          }
+        }
+      }
+    }
+  }
+
+  @AfterClass
+  public void tearDown()
+      throws Exception {
+    FileUtils.deleteDirectory(TEMP_DIR);
+  }
+}
@@ -0,0 +1,327 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.segment.index.creator;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import javax.annotation.Nullable;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.segment.local.realtime.impl.vector.MutableIvfVectorIndex;
+import org.apache.pinot.segment.local.segment.creator.impl.vector.IvfVectorIndexCreator;
+import org.apache.pinot.segment.local.segment.creator.impl.vector.ivf.IvfIndexProperties;
+import org.apache.pinot.segment.local.segment.creator.impl.vector.ivf.VectorDistances;
+import org.apache.pinot.segment.local.segment.index.readers.vector.IvfVectorIndexReader;
+import org.apache.pinot.segment.spi.index.creator.VectorIndexConfig;
+import org.apache.pinot.segment.spi.index.creator.VectorIndexConfig.VectorDistanceFunction;
+import org.apache.pinot.segment.spi.index.reader.ForwardIndexReader;
+import org.apache.pinot.segment.spi.index.reader.ForwardIndexReaderContext;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
+import org.roaringbitmap.buffer.MutableRoaringBitmap;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+
+public class IvfVectorIndexCreatorTest {
+  private static final File INDEX_DIR =
+      new File(FileUtils.getTempDirectory(), IvfVectorIndexCreatorTest.class.toString());
+  private static final String COLUMN = "foo";
+  private static final int DIMENSION = 16;
+  private static final int NUM_DOCS = 2000;
+  private static final int NUM_QUERIES = 20;
+  private static final int TOP_K = 10;
+
+  private float[][] _vectors;
+  private float[][] _queries;
+  private int _numMutableDocs;
+
+  @BeforeMethod
+  public void setUp()
+      throws IOException {
+    FileUtils.forceMkdir(INDEX_DIR);
+    Random random = new Random(42);
+    _vectors = new float[NUM_DOCS][];
+    for (int i = 0; i < NUM_DOCS; i++) {
+      _vectors[i] = randomVector(random);
+    }
+    _queries = new float[NUM_QUERIES][];
+    for (int i = 0; i < NUM_QUERIES; i++) {
+      _queries[i] = randomVector(random);
+    }
+  }
+
+  @AfterMethod
+  public void tearDown()
+      throws IOException {
+    FileUtils.deleteDirectory(INDEX_DIR);
+  }
+
+  @DataProvider
+  public static Object[][] quantizerAndDistance() {
+    return new Object[][]{
+        {"PQ", VectorDistanceFunction.EUCLIDEAN}, {"PQ", VectorDistanceFunction.COSINE},
+        {"PQ", VectorDistanceFunction.INNER_PRODUCT}, {"SQ8", VectorDistanceFunction.EUCLIDEAN},
+        {"SQ8", VectorDistanceFunction.COSINE}, {"SQ8", VectorDistanceFunction.DOT_PRODUCT}
+    };
+  }
+
+  @Test(dataProvider = "quantizerAndDistance")
+  public void testSearchWithReranking(String quantizer, VectorDistanceFunction distanceFunction)
+      throws IOException {
+    // Probing all the lists with exact re-ranking should be (almost) exact
+    VectorIndexConfig config = createConfig(quantizer, distanceFunction, Map.of("numProbes", "1000"));
+    createIndex(config);
+    try (IvfVectorIndexReader reader = new IvfVectorIndexReader(COLUMN, INDEX_DIR, config,
+        new TestForwardIndexReader(_vectors), null, DIMENSION)) {
+      Assert.assertTrue(getRecall(reader, config, null) >= 0.95);
+    }
+    // Probing the default number of lists should have good recall
+    config = createConfig(quantizer, distanceFunction, Map.of());
+    try (IvfVectorIndexReader reader = new IvfVectorIndexReader(COLUMN, INDEX_DIR, config,
+        new TestForwardIndexReader(_vectors), null, DIMENSION)) {
+      Assert.assertTrue(getRecall(reader, config, null) >= 0.7);
+    }
+    // Without re-ranking, the quantized distances should still give reasonable results
+    try (IvfVectorIndexReader reader = new IvfVectorIndexReader(COLUMN, INDEX_DIR, config, null, null, 0)) {
+      for (float[] query : _queries) {
+        Assert.assertEquals(reader.getDocIds(query, TOP_K).getCardinality(), TOP_K);
+      }
+      Assert.assertTrue(getRecall(reader, config, null) >= 0.3);
+    }
+  }
+
+  @Test
+  public void testSearchWithPrefilter()
+      throws IOException {
+    VectorIndexConfig config = createConfig("PQ", VectorDistanceFunction.EUCLIDEAN, Map.of());
+    createIndex(config);
+    try (IvfVectorIndexReader reader = new IvfVectorIndexReader(COLUMN, INDEX_DIR, config,
+        new TestForwardIndexReader(_vectors), null, DIMENSION)) {
+      Assert.assertTrue(reader.isPrefilterSupported());
+
+      // Selective filter is searched exhaustively
+      MutableRoaringBitmap selectiveFilter = new MutableRoaringBitmap();
+      for (int i = 0; i < NUM_DOCS; i += 100) {
+        selectiveFilter.add(i);
+      }
+      for (float[] query : _queries) {
+        Assert.assertEquals(reader.getDocIds(query, TOP_K, selectiveFilter),
+            getExpectedDocIds(query, VectorDistanceFunction.EUCLIDEAN, TOP_K, selectiveFilter));
+      }
+
+      // Only the documents within the filter are returned
+      MutableRoaringBitmap evenFilter = new MutableRoaringBitmap();
+      for (int i = 0; i < NUM_DOCS; i += 2) {
+        evenFilter.add(i);
+      }
+      for (float[] query : _queries) {
+        int[] docIds = reader.getDocIds(query, TOP_K, evenFilter).toArray();
+        Assert.assertEquals(docIds.length, TOP_K);
+        for (int docId : docIds) {
+          Assert.assertEquals(docId % 2, 0);
+        }
+      }
+      Assert.assertTrue(getRecall(reader, config, evenFilter) >= 0.7);
+
+      // Empty filter
+      Assert.assertTrue(reader.getDocIds(_queries[0], TOP_K, new MutableRoaringBitmap()).isEmpty());
+    }
+  }
+
+  @Test
+  public void testInvalidAndEmptyVectors()
+      throws IOException {
+    VectorIndexConfig config = createConfig("SQ8", VectorDistanceFunction.EUCLIDEAN, Map.of());
+    // No valid vector
+    try (IvfVectorIndexCreator creator = new IvfVectorIndexCreator(COLUMN, INDEX_DIR, config)) {
+      creator.add(new float[]{1.0f, 2.0f});
+      creator.seal();
+    }
+    try (IvfVectorIndexReader reader = new IvfVectorIndexReader(COLUMN, INDEX_DIR, config, null, null, 0)) {
+      Assert.assertTrue(reader.getDocIds(_queries[0], TOP_K).isEmpty());
+    }
+
+    // Vectors with invalid dimension are skipped
+    try (IvfVectorIndexCreator creator = new IvfVectorIndexCreator(COLUMN, INDEX_DIR, config)) {
+      creator.add(new float[]{1.0f, 2.0f});
+      creator.add(_vectors[1]);
+      creator.add(new Object[]{1.0f}, null);
+      creator.add(_vectors[3]);
+      creator.seal();
+    }
+    try (IvfVectorIndexReader reader = new IvfVectorIndexReader(COLUMN, INDEX_DIR, config, null, null, 0)) {
+      Assert.assertEquals(reader.getDocIds(_queries[0], TOP_K).toArray(), new int[]{1, 3});
+      Assert.assertTrue(reader.getDocIds(new float[]{1.0f}, TOP_K).isEmpty());
+    }
+    Assert.assertFalse(new File(INDEX_DIR, COLUMN + IvfVectorIndexCreator.TEMP_FILE_EXTENSION).exists());
+  }
+
+  @Test
+  public void testMutableIndex()
+      throws IOException {
+    // Train with 4 lists after 4 * 64 vectors, and probe all the lists so that the search is exact
+    VectorIndexConfig config =
+        createConfig("PQ", VectorDistanceFunction.COSINE, Map.of("numLists", "4", "numProbes", "4"));
+    int numTrainingVectors = 4 * IvfIndexProperties.NUM_TRAINING_VECTORS_PER_LIST;
+    try (MutableIvfVectorIndex index = new MutableIvfVectorIndex("segment", COLUMN, config, null)) {
+      Assert.assertTrue(index.getDocIds(_queries[0], TOP_K).isEmpty());
+      for (int numDocs : new int[]{100, numTrainingVectors, NUM_DOCS}) {
+        addToMutableIndex(index, numDocs);
+        for (float[] query : _queries) {
+          MutableRoaringBitmap expected = getExpectedDocIds(query, VectorDistanceFunction.COSINE, TOP_K,
+              ImmutableRoaringBitmap.bitmapOf(range(numDocs)));
+          Assert.assertEquals(index.getDocIds(query, TOP_K), expected);
+        }
+      }
+
+      MutableRoaringBitmap filter = new MutableRoaringBitmap();
+      for (int i = 0; i < NUM_DOCS; i += 3) {
+        filter.add(i);
+      }
+      for (float[] query : _queries) {
+        Assert.assertEquals(index.getDocIds(query, TOP_K, filter),
+            getExpectedDocIds(query, VectorDistanceFunction.COSINE, TOP_K, filter));
+      }
+    }
+  }
+
+  private void addToMutableIndex(MutableIvfVectorIndex index, int numDocs) {
+    for (int i = _numMutableDocs; i < numDocs; i++) {
+      Object[] values = new Object[DIMENSION];
+      for (int j = 0; j < DIMENSION; j++) {
+        values[j] = _vectors[i][j];
+      }
+      index.add(values, null, i);
+    }
+    _numMutableDocs = numDocs;
+  }
+
+  private static int[] range(int numDocs) {
+    int[] docIds = new int[numDocs];
+    for (int i = 0; i < numDocs; i++) {
+      docIds[i] = i;
+    }
+    return docIds;
+  }
+
+  private static float[] randomVector(Random random) {
+    float[] vector = new float[DIMENSION];
+    for (int i = 0; i < DIMENSION; i++) {
+      vector[i] = random.nextFloat() * 2 - 1;
+    }
+    return vector;
+  }
+
+  private static VectorIndexConfig createConfig(String quantizer, VectorDistanceFunction distanceFunction,
+      Map<String, String> extraProperties) {
+    Map<String, String> properties = new HashMap<>(extraProperties);
+    properties.put("vectorIndexType", "IVF");
+    properties.put("vectorDimension", Integer.toString(DIMENSION));
+    properties.put("vectorDistanceFunction", distanceFunction.name());
+    properties.put("quantizer", quantizer);
+    return new VectorIndexConfig(properties);
+  }
+
+  private void createIndex(VectorIndexConfig config)
+      throws IOException {
+    try (IvfVectorIndexCreator creator = new IvfVectorIndexCreator(COLUMN, INDEX_DIR, config)) {
+      for (float[] vector : _vectors) {
+        creator.add(vector);
+      }
+      creator.seal();
+    }
+  }
+
+  private double getRecall(IvfVectorIndexReader reader, VectorIndexConfig config,
+      @Nullable ImmutableRoaringBitmap filter) {
+    int numMatches = 0;
+    for (float[] query : _queries) {
+      ImmutableRoaringBitmap docIds = filter != null ? reader.getDocIds(query, TOP_K, filter)
+          : reader.getDocIds(query, TOP_K);
+      numMatches += ImmutableRoaringBitmap.andCardinality(docIds,
+          getExpectedDocIds(query, config.getVectorDistanceFunction(), TOP_K, filter));
+    }
+    return (double) numMatches / (NUM_QUERIES * TOP_K);
+  }
+
+  private MutableRoaringBitmap getExpectedDocIds(float[] query, VectorDistanceFunction distanceFunction, int topK,
+      @Nullable ImmutableRoaringBitmap filter) {
+    boolean innerProduct = VectorDistances.isInnerProduct(distanceFunction);
+    float[] preprocessedQuery = query.clone();
+    VectorDistances.preprocess(preprocessedQuery, distanceFunction);
+    Integer[] docIds = Arrays.stream(filter != null ? filter.toArray() : range(NUM_DOCS)).boxed()
+        .toArray(Integer[]::new);
+    float[] distances = new float[NUM_DOCS];
+    for (int docId : docIds) {
+      float[] vector = _vectors[docId].clone();
+      VectorDistances.preprocess(vector, distanceFunction);
+      distances[docId] = VectorDistances.distance(preprocessedQuery, vector, innerProduct);
+    }
+    Arrays.sort(docIds, (d1, d2) -> Float.compare(distances[d1], distances[d2]));
+    MutableRoaringBitmap expected = new MutableRoaringBitmap();
+    for (int i = 0; i < Math.min(topK, docIds.length); i++) {
+      expected.add(docIds[i]);
+    }
+    return expected;
+  }
+
+  /**
+   * Raw forward index on the test vectors for the exact re-ranking.
+   */
+  private static class TestForwardIndexReader implements ForwardIndexReader<ForwardIndexReaderContext> {
+    private final float[][] _vectors;
+
+    TestForwardIndexReader(float[][] vectors) {
+      _vectors = vectors;
+    }
+
+    @Override
+    public boolean isDictionaryEncoded() {
+      return false;
+    }
+
+    @Override
+    public boolean isSingleValue() {
+      return false;
+    }
+
+    @Override
+    public DataType getStoredType() {
+      return DataType.FLOAT;
+    }
+
+    @Override
+    public int getFloatMV(int docId, float[] valueBuffer, ForwardIndexReaderContext context) {
+      float[] vector = _vectors[docId];
+      System.arraycopy(vector, 0, valueBuffer, 0, vector.length);
+      return vector.length;
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+}
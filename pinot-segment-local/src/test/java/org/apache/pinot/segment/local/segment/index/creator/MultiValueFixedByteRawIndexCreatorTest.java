@@ -58,7 +58,7 @@ public class MultiValueFixedByteRawIndexCreatorTest implements PinotBuffersAfter
 
   @DataProvider(name = "compressionTypes")
   public Object[][] compressionTypes() {
-    return Arrays.stream(ChunkCompressionType.values())
+    return Arrays.stream(ChunkCompressionType.values()).filter(ct -> !ct.isBitPacking())
         .flatMap(ct -> IntStream.rangeClosed(2, 5).boxed().map(writerVersion -> new Object[]{ct, writerVersion}))
         .toArray(Object[][]::new);
   }
@@ -60,7 +60,7 @@ public class MultiValueVarByteRawIndexCreatorTest implements PinotBuffersAfterMe
 
   @DataProvider
   public Object[][] params() {
-    return Arrays.stream(ChunkCompressionType.values())
+    return Arrays.stream(ChunkCompressionType.values()).filter(type -> !type.isBitPacking())
         .flatMap(chunkCompressionType -> IntStream.rangeClosed(2, 5)
             .boxed()
             .flatMap(writerVersion -> IntStream.of(10, 100)
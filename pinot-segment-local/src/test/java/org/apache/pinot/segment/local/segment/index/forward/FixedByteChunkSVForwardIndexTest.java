@@ -101,6 +101,14 @@ public class FixedByteChunkSVForwardIndexTest implements PinotBuffersAfterMethod
         Assert.assertEquals(eightByteOffsetReader.getInt(i, eightByteOffsetReaderContext), expected[i]);
       }
 
+      // Read a contiguous range of values across the chunk boundary in batch
+      int[] docIds = IntStream.range(NUM_DOCS_PER_CHUNK - 100, NUM_DOCS_PER_CHUNK + 100).toArray();
+      int[] values = new int[docIds.length];
+      fourByteOffsetReader.readValuesSV(docIds, docIds.length, values, fourByteOffsetReaderContext);
+      for (int i = 0; i < docIds.length; i++) {
+        Assert.assertEquals(values[i], expected[docIds[i]]);
+      }
+
 
       Assert.assertTrue(fourByteOffsetReader.isBufferByteRangeInfoSupported());
       Assert.assertTrue(eightByteOffsetReader.isBufferByteRangeInfoSupported());
@@ -164,6 +172,14 @@ public class FixedByteChunkSVForwardIndexTest implements PinotBuffersAfterMethod
         Assert.assertEquals(eightByteOffsetReader.getLong(i, eightByteOffsetReaderContext), expected[i]);
       }
 
+      // Read a contiguous range of values across the chunk boundary in batch
+      int[] docIds = IntStream.range(NUM_DOCS_PER_CHUNK - 100, NUM_DOCS_PER_CHUNK + 100).toArray();
+      long[] values = new long[docIds.length];
+      fourByteOffsetReader.readValuesSV(docIds, docIds.length, values, fourByteOffsetReaderContext);
+      for (int i = 0; i < docIds.length; i++) {
+        Assert.assertEquals(values[i], expected[docIds[i]]);
+      }
+
       // Validate byte range provider behaviour
       Assert.assertTrue(fourByteOffsetReader.isBufferByteRangeInfoSupported());
       Assert.assertTrue(eightByteOffsetReader.isBufferByteRangeInfoSupported());
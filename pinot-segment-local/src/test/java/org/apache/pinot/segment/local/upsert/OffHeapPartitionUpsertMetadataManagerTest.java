@@ -0,0 +1,425 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.upsert;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.commons.io.FileUtils;
+import org.apache.pinot.common.metrics.ServerMetrics;
+import org.apache.pinot.common.utils.LLCSegmentName;
+import org.apache.pinot.segment.local.data.manager.TableDataManager;
+import org.apache.pinot.segment.local.indexsegment.immutable.ImmutableSegmentImpl;
+import org.apache.pinot.segment.local.upsert.ConcurrentMapPartitionUpsertMetadataManager.RecordLocation;
+import org.apache.pinot.segment.spi.IndexSegment;
+import org.apache.pinot.segment.spi.MutableSegment;
+import org.apache.pinot.segment.spi.datasource.DataSource;
+import org.apache.pinot.segment.spi.index.metadata.SegmentMetadataImpl;
+import org.apache.pinot.segment.spi.index.mutable.ThreadSafeMutableRoaringBitmap;
+import org.apache.pinot.segment.spi.index.reader.ForwardIndexReader;
+import org.apache.pinot.spi.config.table.HashFunction;
+import org.apache.pinot.spi.config.table.TableConfig;
+import org.apache.pinot.spi.data.FieldSpec.DataType;
+import org.apache.pinot.spi.data.Schema;
+import org.apache.pinot.spi.data.readers.PrimaryKey;
+import org.apache.pinot.spi.utils.builder.TableNameBuilder;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertThrows;
+import static org.testng.Assert.assertTrue;
+
+
+public class OffHeapPartitionUpsertMetadataManagerTest {
+  private static final String RAW_TABLE_NAME = "testTable";
+  private static final String REALTIME_TABLE_NAME = TableNameBuilder.REALTIME.tableNameWithType(RAW_TABLE_NAME);
+  private static final List<String> PRIMARY_KEY_COLUMNS = Collections.singletonList("pk");
+  private static final List<String> COMPARISON_COLUMNS = Collections.singletonList("timeCol");
+  private static final File INDEX_DIR =
+      new File(FileUtils.getTempDirectory(), "OffHeapPartitionUpsertMetadataManagerTest");
+
+  private UpsertContext.Builder _contextBuilder;
+
+  @BeforeClass
+  public void setUp()
+      throws IOException {
+    FileUtils.forceMkdir(INDEX_DIR);
+    ServerMetrics.register(mock(ServerMetrics.class));
+  }
+
+  @BeforeMethod
+  public void setUpContextBuilder() {
+    TableDataManager tableDataManager = mock(TableDataManager.class);
+    when(tableDataManager.getTableDataDir()).thenReturn(INDEX_DIR);
+    _contextBuilder = new UpsertContext.Builder()
+        .setTableConfig(mock(TableConfig.class))
+        .setSchema(getSchema(DataType.INT))
+        .setTableDataManager(tableDataManager)
+        .setPrimaryKeyColumns(PRIMARY_KEY_COLUMNS)
+        .setComparisonColumns(COMPARISON_COLUMNS)
+        .setHashFunction(HashFunction.MURMUR3);
+  }
+
+  @AfterClass
+  public void tearDown()
+      throws IOException {
+    FileUtils.forceDelete(INDEX_DIR);
+  }
+
+  @Test
+  public void testUnsupportedComparisonColumns() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new OffHeapPartitionUpsertMetadataManager(REALTIME_TABLE_NAME, 0,
+            _contextBuilder.setSchema(getSchema(DataType.STRING)).build()));
+    assertThrows(IllegalArgumentException.class,
+        () -> new OffHeapPartitionUpsertMetadataManager(REALTIME_TABLE_NAME, 0,
+            _contextBuilder.setSchema(getSchema(DataType.INT)).setComparisonColumns(List.of("timeCol", "pk"))
+                .build()));
+  }
+
+  @Test
+  public void testUnsupportedHashFunction() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new OffHeapPartitionUpsertMetadataManager(REALTIME_TABLE_NAME, 0,
+            _contextBuilder.setHashFunction(HashFunction.NONE).build()));
+  }
+
+  @Test
+  public void testAddReplaceRemoveSegment()
+      throws IOException {
+    verifyAddReplaceRemoveSegment(HashFunction.UUID);
+    verifyAddReplaceRemoveSegment(HashFunction.MD5);
+    verifyAddReplaceRemoveSegment(HashFunction.MURMUR3);
+  }
+
+  private void verifyAddReplaceRemoveSegment(HashFunction hashFunction)
+      throws IOException {
+    OffHeapPartitionUpsertMetadataManager upsertMetadataManager =
+        new OffHeapPartitionUpsertMetadataManager(REALTIME_TABLE_NAME, 0,
+            _contextBuilder.setHashFunction(hashFunction).build());
+    Set<IndexSegment> trackedSegments = upsertMetadataManager._trackedSegments;
+
+    // Add the first segment
+    int[] primaryKeys = new int[]{0, 1, 2, 0, 1, 0};
+    int[] timestamps = new int[]{100, 100, 100, 80, 120, 100};
+    ThreadSafeMutableRoaringBitmap validDocIds1 = new ThreadSafeMutableRoaringBitmap();
+    List<PrimaryKey> primaryKeys1 = getPrimaryKeyList(primaryKeys);
+    ImmutableSegmentImpl segment1 = mockImmutableSegment(1, validDocIds1, primaryKeys1);
+    upsertMetadataManager.addSegment(segment1, validDocIds1, null,
+        getRecordInfoList(primaryKeys, timestamps).iterator());
+    trackedSegments.add(segment1);
+    // segment1: 0 -> {5, 100}, 1 -> {4, 120}, 2 -> {2, 100}
+    assertEquals(upsertMetadataManager.getNumPrimaryKeys(), 3);
+    checkRecordLocation(upsertMetadataManager, 0, segment1, 5, 100);
+    checkRecordLocation(upsertMetadataManager, 1, segment1, 4, 120);
+    checkRecordLocation(upsertMetadataManager, 2, segment1, 2, 100);
+    assertEquals(validDocIds1.getMutableRoaringBitmap().toArray(), new int[]{2, 4, 5});
+
+    // Add the second segment
+    primaryKeys = new int[]{0, 1, 2, 3, 0};
+    timestamps = new int[]{100, 100, 120, 80, 80};
+    ThreadSafeMutableRoaringBitmap validDocIds2 = new ThreadSafeMutableRoaringBitmap();
+    ImmutableSegmentImpl segment2 = mockImmutableSegment(2, validDocIds2, getPrimaryKeyList(primaryKeys));
+    upsertMetadataManager.addSegment(segment2, validDocIds2, null,
+        getRecordInfoList(primaryKeys, timestamps).iterator());
+    trackedSegments.add(segment2);
+    // segment1: 1 -> {4, 120}
+    // segment2: 0 -> {0, 100}, 2 -> {2, 120}, 3 -> {3, 80}
+    assertEquals(upsertMetadataManager.getNumPrimaryKeys(), 4);
+    checkRecordLocation(upsertMetadataManager, 0, segment2, 0, 100);
+    checkRecordLocation(upsertMetadataManager, 1, segment1, 4, 120);
+    checkRecordLocation(upsertMetadataManager, 2, segment2, 2, 120);
+    checkRecordLocation(upsertMetadataManager, 3, segment2, 3, 80);
+    assertEquals(validDocIds1.getMutableRoaringBitmap().toArray(), new int[]{4});
+    assertEquals(validDocIds2.getMutableRoaringBitmap().toArray(), new int[]{0, 2, 3});
+    assertEquals(upsertMetadataManager.getNumTrackedSegmentIds(), 2);
+
+    // Replace (reload) the first segment
+    primaryKeys = new int[]{0, 1, 2, 0, 1, 0};
+    timestamps = new int[]{100, 100, 100, 80, 120, 100};
+    ThreadSafeMutableRoaringBitmap newValidDocIds1 = new ThreadSafeMutableRoaringBitmap();
+    ImmutableSegmentImpl newSegment1 = mockImmutableSegment(1, newValidDocIds1, primaryKeys1);
+    upsertMetadataManager.replaceSegment(newSegment1, newValidDocIds1, null,
+        getRecordInfoList(primaryKeys, timestamps).iterator(), segment1);
+    trackedSegments.add(newSegment1);
+    trackedSegments.remove(segment1);
+    // segment2: 0 -> {0, 100}, 2 -> {2, 120}, 3 -> {3, 80}
+    // new segment1: 1 -> {4, 120}
+    assertEquals(upsertMetadataManager.getNumPrimaryKeys(), 4);
+    checkRecordLocation(upsertMetadataManager, 0, segment2, 0, 100);
+    checkRecordLocation(upsertMetadataManager, 1, newSegment1, 4, 120);
+    checkRecordLocation(upsertMetadataManager, 2, segment2, 2, 120);
+    checkRecordLocation(upsertMetadataManager, 3, segment2, 3, 80);
+    assertEquals(newValidDocIds1.getMutableRoaringBitmap().toArray(), new int[]{4});
+    // The original segment1 should no longer be referenced
+    assertEquals(upsertMetadataManager.getNumTrackedSegmentIds(), 2);
+
+    // Remove the original segment1, should be no-op
+    upsertMetadataManager.removeSegment(segment1);
+    assertEquals(upsertMetadataManager.getNumPrimaryKeys(), 4);
+    checkRecordLocation(upsertMetadataManager, 1, newSegment1, 4, 120);
+
+    // Remove segment2
+    upsertMetadataManager.removeSegment(segment2);
+    // new segment1: 1 -> {4, 120}
+    assertEquals(upsertMetadataManager.getNumPrimaryKeys(), 1);
+    assertNull(upsertMetadataManager.getRecordLocation(makePrimaryKey(0)));
+    checkRecordLocation(upsertMetadataManager, 1, newSegment1, 4, 120);
+    assertNull(upsertMetadataManager.getRecordLocation(makePrimaryKey(2)));
+    assertNull(upsertMetadataManager.getRecordLocation(makePrimaryKey(3)));
+    assertEquals(upsertMetadataManager.getNumTrackedSegmentIds(), 1);
+
+    // Stop and close the metadata manager
+    upsertMetadataManager.stop();
+    upsertMetadataManager.close();
+  }
+
+  @Test
+  public void testAddRecord()
+      throws IOException {
+    verifyAddRecord(HashFunction.UUID);
+    verifyAddRecord(HashFunction.MD5);
+    verifyAddRecord(HashFunction.MURMUR3);
+  }
+
+  private void verifyAddRecord(HashFunction hashFunction)
+      throws IOException {
+    OffHeapPartitionUpsertMetadataManager upsertMetadataManager =
+        new OffHeapPartitionUpsertMetadataManager(REALTIME_TABLE_NAME, 0,
+            _contextBuilder.setHashFunction(hashFunction).build());
+
+    // Add the first segment
+    // segment1: 0 -> {0, 100}, 1 -> {1, 120}, 2 -> {2, 100}
+    int[] primaryKeys = new int[]{0, 1, 2};
+    int[] timestamps = new int[]{100, 120, 100};
+    ThreadSafeMutableRoaringBitmap validDocIds1 = new ThreadSafeMutableRoaringBitmap();
+    ImmutableSegmentImpl segment1 = mockImmutableSegment(1, validDocIds1, getPrimaryKeyList(primaryKeys));
+    upsertMetadataManager.addSegment(segment1, validDocIds1, null,
+        getRecordInfoList(primaryKeys, timestamps).iterator());
+
+    // Update records from the second segment
+    ThreadSafeMutableRoaringBitmap validDocIds2 = new ThreadSafeMutableRoaringBitmap();
+    MutableSegment segment2 = mockMutableSegment(2, validDocIds2);
+    assertTrue(upsertMetadataManager.addRecord(segment2, new RecordInfo(makePrimaryKey(3), 0, 100, false)));
+    assertTrue(upsertMetadataManager.addRecord(segment2, new RecordInfo(makePrimaryKey(2), 1, 120, false)));
+    // Out-of-order record
+    assertFalse(upsertMetadataManager.addRecord(segment2, new RecordInfo(makePrimaryKey(1), 2, 100, false)));
+    // Tie should keep the newer record
+    assertTrue(upsertMetadataManager.addRecord(segment2, new RecordInfo(makePrimaryKey(0), 3, 100, false)));
+
+    // segment1: 1 -> {1, 120}
+    // segment2: 0 -> {3, 100}, 2 -> {1, 120}, 3 -> {0, 100}
+    assertEquals(upsertMetadataManager.getNumPrimaryKeys(), 4);
+    checkRecordLocation(upsertMetadataManager, 0, segment2, 3, 100);
+    checkRecordLocation(upsertMetadataManager, 1, segment1, 1, 120);
+    checkRecordLocation(upsertMetadataManager, 2, segment2, 1, 120);
+    checkRecordLocation(upsertMetadataManager, 3, segment2, 0, 100);
+    assertEquals(validDocIds1.getMutableRoaringBitmap().toArray(), new int[]{1});
+    assertEquals(validDocIds2.getMutableRoaringBitmap().toArray(), new int[]{0, 1, 3});
+
+    // Stop the metadata manager, and add record should be no-op
+    upsertMetadataManager.stop();
+    upsertMetadataManager.addRecord(segment2, new RecordInfo(makePrimaryKey(0), 4, 120, false));
+    checkRecordLocation(upsertMetadataManager, 0, segment2, 3, 100);
+    assertEquals(validDocIds2.getMutableRoaringBitmap().toArray(), new int[]{0, 1, 3});
+
+    // Close the metadata manager
+    upsertMetadataManager.close();
+  }
+
+  @Test
+  public void testResize()
+      throws IOException {
+    OffHeapPartitionUpsertMetadataManager upsertMetadataManager =
+        new OffHeapPartitionUpsertMetadataManager(REALTIME_TABLE_NAME, 0, _contextBuilder.setMetadataManagerConfigs(
+            Map.of(OffHeapPartitionUpsertMetadataManager.INITIAL_CAPACITY_KEY, "16")).build());
+    assertEquals(upsertMetadataManager.getCapacity(), 16);
+
+    int numKeys = 10000;
+    ThreadSafeMutableRoaringBitmap validDocIds1 = new ThreadSafeMutableRoaringBitmap();
+    MutableSegment segment1 = mockMutableSegment(1, validDocIds1);
+    for (int i = 0; i < numKeys; i++) {
+      assertTrue(upsertMetadataManager.addRecord(segment1, new RecordInfo(makePrimaryKey(i), i, 100, false)));
+    }
+    assertEquals(upsertMetadataManager.getNumPrimaryKeys(), numKeys);
+    assertTrue(upsertMetadataManager.getCapacity() >= numKeys / 0.75);
+
+    // Move half of the keys to another segment
+    ThreadSafeMutableRoaringBitmap validDocIds2 = new ThreadSafeMutableRoaringBitmap();
+    MutableSegment segment2 = mockMutableSegment(2, validDocIds2);
+    for (int i = 0; i < numKeys; i += 2) {
+      assertTrue(upsertMetadataManager.addRecord(segment2, new RecordInfo(makePrimaryKey(i), i / 2, 120, false)));
+    }
+    assertEquals(upsertMetadataManager.getNumPrimaryKeys(), numKeys);
+    for (int i = 0; i < numKeys; i++) {
+      if (i % 2 == 0) {
+        checkRecordLocation(upsertMetadataManager, i, segment2, i / 2, 120);
+      } else {
+        checkRecordLocation(upsertMetadataManager, i, segment1, i, 100);
+      }
+    }
+    assertEquals(validDocIds1.getMutableRoaringBitmap().getCardinality(), numKeys / 2);
+    assertEquals(validDocIds2.getMutableRoaringBitmap().getCardinality(), numKeys / 2);
+
+    // Removing keys should leave removed slots, which can be reused
+    List<PrimaryKey> primaryKeys1 = new ArrayList<>(numKeys);
+    for (int i = 0; i < numKeys; i++) {
+      primaryKeys1.add(makePrimaryKey(i));
+    }
+    upsertMetadataManager.removeSegment(segment1, primaryKeys1.iterator());
+    assertEquals(upsertMetadataManager.getNumPrimaryKeys(), numKeys / 2);
+    assertEquals(upsertMetadataManager.getNumTrackedSegmentIds(), 1);
+    for (int i = 0; i < numKeys; i++) {
+      if (i % 2 == 0) {
+        checkRecordLocation(upsertMetadataManager, i, segment2, i / 2, 120);
+      } else {
+        assertNull(upsertMetadataManager.getRecordLocation(makePrimaryKey(i)));
+      }
+    }
+
+    upsertMetadataManager.stop();
+    upsertMetadataManager.close();
+  }
+
+  @Test
+  public void testRemoveExpiredPrimaryKeys()
+      throws IOException {
+    verifyRemoveExpiredPrimaryKeys(DataType.INT, 80, 120);
+    verifyRemoveExpiredPrimaryKeys(DataType.LONG, 80L, 120L);
+    verifyRemoveExpiredPrimaryKeys(DataType.FLOAT, 80.0f, 120.0f);
+    verifyRemoveExpiredPrimaryKeys(DataType.DOUBLE, 80.0, 120.0);
+  }
+
+  private void verifyRemoveExpiredPrimaryKeys(DataType comparisonColumnType, Comparable earlierComparisonValue,
+      Comparable largerComparisonValue)
+      throws IOException {
+    OffHeapPartitionUpsertMetadataManager upsertMetadataManager =
+        new OffHeapPartitionUpsertMetadataManager(REALTIME_TABLE_NAME, 0,
+            _contextBuilder.setSchema(getSchema(comparisonColumnType)).setEnableSnapshot(true).setMetadataTTL(30)
+                .build());
+
+    ThreadSafeMutableRoaringBitmap validDocIds = new ThreadSafeMutableRoaringBitmap();
+    MutableSegment segment = mockMutableSegment(1, validDocIds);
+    upsertMetadataManager.addRecord(segment, new RecordInfo(makePrimaryKey(0), 0, earlierComparisonValue, false));
+    upsertMetadataManager.addRecord(segment, new RecordInfo(makePrimaryKey(1), 1, largerComparisonValue, false));
+    assertEquals(upsertMetadataManager.getNumPrimaryKeys(), 2);
+    RecordLocation recordLocation = upsertMetadataManager.getRecordLocation(makePrimaryKey(0));
+    assertNotNull(recordLocation);
+    assertEquals(recordLocation.getComparisonValue(), earlierComparisonValue);
+
+    // Records before (largest seen comparison value - TTL) are expired and removed from the metadata
+    upsertMetadataManager.removeExpiredPrimaryKeys();
+    assertEquals(upsertMetadataManager.getNumPrimaryKeys(), 1);
+    assertNull(upsertMetadataManager.getRecordLocation(makePrimaryKey(0)));
+    recordLocation = upsertMetadataManager.getRecordLocation(makePrimaryKey(1));
+    assertNotNull(recordLocation);
+    assertSame(recordLocation.getSegment(), segment);
+    assertEquals(recordLocation.getComparisonValue(), largerComparisonValue);
+    // ValidDocIds for out-of-ttl records should not be removed
+    assertEquals(validDocIds.getMutableRoaringBitmap().toArray(), new int[]{0, 1});
+
+    upsertMetadataManager.stop();
+    upsertMetadataManager.close();
+  }
+
+  private static Schema getSchema(DataType comparisonColumnType) {
+    return new Schema.SchemaBuilder().setSchemaName(RAW_TABLE_NAME)
+        .addSingleValueDimension("pk", DataType.INT)
+        .addSingleValueDimension("timeCol", comparisonColumnType)
+        .setPrimaryKeyColumns(PRIMARY_KEY_COLUMNS)
+        .build();
+  }
+
+  private static List<RecordInfo> getRecordInfoList(int[] primaryKeys, int[] timestamps) {
+    List<RecordInfo> recordInfoList = new ArrayList<>();
+    for (int i = 0; i < primaryKeys.length; i++) {
+      recordInfoList.add(new RecordInfo(makePrimaryKey(primaryKeys[i]), i, timestamps[i], false));
+    }
+    return recordInfoList;
+  }
+
+  private static List<PrimaryKey> getPrimaryKeyList(int[] primaryKeys) {
+    List<PrimaryKey> primaryKeyList = new ArrayList<>();
+    for (int primaryKey : primaryKeys) {
+      primaryKeyList.add(makePrimaryKey(primaryKey));
+    }
+    return primaryKeyList;
+  }
+
+  private static ImmutableSegmentImpl mockImmutableSegment(int sequenceNumber,
+      ThreadSafeMutableRoaringBitmap validDocIds, List<PrimaryKey> primaryKeys) {
+    ImmutableSegmentImpl segment = mock(ImmutableSegmentImpl.class);
+    when(segment.getSegmentName()).thenReturn(getSegmentName(sequenceNumber));
+    when(segment.getValidDocIds()).thenReturn(validDocIds);
+    DataSource dataSource = mock(DataSource.class);
+    when(segment.getDataSource(anyString())).thenReturn(dataSource);
+    ForwardIndexReader forwardIndex = mock(ForwardIndexReader.class);
+    when(forwardIndex.isSingleValue()).thenReturn(true);
+    when(forwardIndex.getStoredType()).thenReturn(DataType.INT);
+    when(forwardIndex.getInt(anyInt(), any())).thenAnswer(
+        invocation -> primaryKeys.get(invocation.getArgument(0)).getValues()[0]);
+    when(dataSource.getForwardIndex()).thenReturn(forwardIndex);
+    SegmentMetadataImpl segmentMetadata = mock(SegmentMetadataImpl.class);
+    long creationTimeMs = System.currentTimeMillis();
+    when(segmentMetadata.getIndexCreationTime()).thenReturn(creationTimeMs);
+    when(segmentMetadata.getZkCreationTime()).thenReturn(creationTimeMs);
+    when(segment.getSegmentMetadata()).thenReturn(segmentMetadata);
+    return segment;
+  }
+
+  private static MutableSegment mockMutableSegment(int sequenceNumber, ThreadSafeMutableRoaringBitmap validDocIds) {
+    MutableSegment segment = mock(MutableSegment.class);
+    when(segment.getSegmentName()).thenReturn(getSegmentName(sequenceNumber));
+    when(segment.getValidDocIds()).thenReturn(validDocIds);
+    return segment;
+  }
+
+  private static String getSegmentName(int sequenceNumber) {
+    return new LLCSegmentName(RAW_TABLE_NAME, 0, sequenceNumber, System.currentTimeMillis()).toString();
+  }
+
+  private static PrimaryKey makePrimaryKey(int value) {
+    return new PrimaryKey(new Object[]{value});
+  }
+
+  private static void checkRecordLocation(OffHeapPartitionUpsertMetadataManager upsertMetadataManager, int keyValue,
+      IndexSegment segment, int docId, int comparisonValue) {
+    RecordLocation recordLocation = upsertMetadataManager.getRecordLocation(makePrimaryKey(keyValue));
+    assertNotNull(recordLocation);
+    assertSame(recordLocation.getSegment(), segment);
+    assertEquals(recordLocation.getDocId(), docId);
+    assertEquals(recordLocation.getComparisonValue(), comparisonValue);
+  }
+}
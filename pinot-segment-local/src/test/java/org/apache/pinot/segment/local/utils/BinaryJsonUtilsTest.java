@@ -0,0 +1,147 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.local.utils;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.Option;
+import com.jayway.jsonpath.ParseContext;
+import com.jayway.jsonpath.spi.json.JacksonJsonProvider;
+import com.jayway.jsonpath.spi.mapper.JacksonMappingProvider;
+import java.util.List;
+import java.util.Map;
+import org.apache.pinot.spi.utils.JsonUtils;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+
+public class BinaryJsonUtilsTest {
+  private static final ParseContext PARSE_CONTEXT = JsonPath.using(
+      new Configuration.ConfigurationBuilder().jsonProvider(new JacksonJsonProvider())
+          .mappingProvider(new JacksonMappingProvider()).options(Option.SUPPRESS_EXCEPTIONS).build());
+  private static final ObjectMapper OBJECT_MAPPER_WITH_BIG_DECIMAL =
+      new ObjectMapper().configure(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS, true);
+  private static final ParseContext PARSE_CONTEXT_WITH_BIG_DECIMAL = JsonPath.using(
+      new Configuration.ConfigurationBuilder().jsonProvider(new JacksonJsonProvider(OBJECT_MAPPER_WITH_BIG_DECIMAL))
+          .mappingProvider(new JacksonMappingProvider()).options(Option.SUPPRESS_EXCEPTIONS).build());
+
+  private static final String[] JSON_STRINGS = {
+      "{\"name\":\"adam\",\"age\":30,\"score\":1.5,\"big\":12345678901,\"huge\":123456789012345678901234567890,"
+          + "\"price\":1.50,\"sci\":1e10,\"active\":true,\"nothing\":null,\"tags\":[\"a\",\"b\"],"
+          + "\"addresses\":[{\"street\":\"main\",\"number\":1},{\"street\":\"second\",\"number\":2.25}],"
+          + "\"nested\":{\"z\":{\"y\":[1,[2,3]]},\"a\":\"\\u00e9\\\"quoted\\\"\"}}",
+      "[1,\"two\",{\"three\":3},[4]]",
+      "\"text\"",
+      "123",
+      "null",
+      "{}",
+      "{\"dup\":1,\"other\":2,\"dup\":3}"
+  };
+
+  private static final String[] JSON_PATHS = {
+      "$", "$.name", "$.age", "$.score", "$.big", "$.huge", "$.price", "$.sci", "$.active", "$.nothing", "$.missing",
+      "$.tags", "$.tags[1]", "$.tags[5]", "$.addresses[0].street", "$['addresses'][1]['number']", "$.addresses",
+      "$.nested.z.y[1][0]", "$.nested.a", "$.nested", "$.name.first", "$[0]", "$[2].three", "$[3][0]", "$.dup",
+      "name", "$.addresses[*].street", "$..number", "$.tags[-1]", "$.tags.length()"
+  };
+
+  @Test
+  public void testRoundTrip()
+      throws Exception {
+    for (String jsonString : JSON_STRINGS) {
+      byte[] bytes = BinaryJsonUtils.fromJsonString(jsonString);
+      assertFalse(BinaryJsonUtils.isRawText(bytes));
+      String convertedJsonString = BinaryJsonUtils.toJsonString(bytes);
+      assertEquals(JsonUtils.stringToJsonNodeWithBigDecimal(convertedJsonString),
+          JsonUtils.stringToJsonNodeWithBigDecimal(jsonString), jsonString);
+      assertEquals(BinaryJsonUtils.toJsonNode(bytes), JsonUtils.stringToJsonNode(jsonString), jsonString);
+      assertEquals(BinaryJsonUtils.toJavaObject(bytes, false), jsonPathRead(PARSE_CONTEXT, jsonString, "$"),
+          jsonString);
+      assertEquals(BinaryJsonUtils.toJavaObject(bytes, true),
+          jsonPathRead(PARSE_CONTEXT_WITH_BIG_DECIMAL, jsonString, "$"), jsonString);
+    }
+  }
+
+  @Test
+  public void testFieldOrder() {
+    byte[] bytes = BinaryJsonUtils.fromJsonString("{\"c\":1,\"a\":2,\"b\":{\"z\":3,\"y\":4}}");
+    assertEquals(BinaryJsonUtils.toJsonString(bytes), "{\"c\":1,\"a\":2,\"b\":{\"z\":3,\"y\":4}}");
+    Map<?, ?> map = (Map<?, ?>) BinaryJsonUtils.toJavaObject(bytes, false);
+    assertNotNull(map);
+    assertEquals(List.copyOf(map.keySet()), List.of("c", "a", "b"));
+  }
+
+  @Test
+  public void testRawText() {
+    for (String invalidJson : new String[]{"", "not json", "{\"a\":"}) {
+      byte[] bytes = BinaryJsonUtils.fromJsonString(invalidJson);
+      assertTrue(BinaryJsonUtils.isRawText(bytes));
+      assertEquals(BinaryJsonUtils.getRawText(bytes), invalidJson);
+      assertEquals(BinaryJsonUtils.toJsonString(bytes), invalidJson);
+      assertNull(BinaryJsonUtils.toJsonNode(bytes));
+    }
+  }
+
+  @Test
+  public void testCompilePath() {
+    assertNotNull(BinaryJsonUtils.compilePath("$"));
+    assertEquals(BinaryJsonUtils.compilePath("$.a['b'][\"c\"][10]").getNumSteps(), 4);
+    assertEquals(BinaryJsonUtils.compilePath("a.b").getNumSteps(), 2);
+    for (String path : new String[]{"", "$.", "$..a", "$.a[*]", "$[*]", "$.a[-1]", "$.a[0:2]", "$.a[0,1]",
+        "$['a','b']", "$.a[?(@.b > 1)]", "$.a.length()", "@.a", "$['a\\'b']", "$.*"}) {
+      assertNull(BinaryJsonUtils.compilePath(path), path);
+    }
+  }
+
+  @Test
+  public void testRead() {
+    for (String jsonString : JSON_STRINGS) {
+      byte[] bytes = BinaryJsonUtils.fromJsonString(jsonString);
+      for (String jsonPath : JSON_PATHS) {
+        BinaryJsonUtils.Path path = BinaryJsonUtils.compilePath(jsonPath);
+        if (path == null) {
+          continue;
+        }
+        Object expected = jsonPathRead(PARSE_CONTEXT, jsonString, jsonPath);
+        assertEquals(BinaryJsonUtils.read(bytes, path, false), expected, jsonString + " " + jsonPath);
+        Object expectedBigDecimal = jsonPathRead(PARSE_CONTEXT_WITH_BIG_DECIMAL, jsonString, jsonPath);
+        assertEquals(BinaryJsonUtils.read(bytes, path, true), expectedBigDecimal, jsonString + " " + jsonPath);
+      }
+    }
+  }
+
+  /**
+   * Reads the JSON path with JsonPath, where exception (e.g. for JSON null document) is treated as {@code null}, same
+   * as the JSON extract functions.
+   */
+  private static Object jsonPathRead(ParseContext parseContext, String jsonString, String jsonPath) {
+    try {
+      return parseContext.parse(jsonString).read(jsonPath);
+    } catch (Exception e) {
+      return null;
+    }
+  }
+}
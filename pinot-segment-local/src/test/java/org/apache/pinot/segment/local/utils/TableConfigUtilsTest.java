@@ -31,6 +31,7 @@ import java.util.Set;
 import java.util.function.BiConsumer;
 import javax.annotation.Nullable;
 import org.apache.pinot.common.tier.TierFactory;
+import org.apache.pinot.segment.local.upsert.OffHeapTableUpsertMetadataManager;
 import org.apache.pinot.segment.spi.AggregationFunctionType;
 import org.apache.pinot.segment.spi.Constants;
 import org.apache.pinot.segment.spi.index.startree.AggregationFunctionColumnPair;
@@ -39,6 +40,7 @@ import org.apache.pinot.spi.config.table.ColumnPartitionConfig;
 import org.apache.pinot.spi.config.table.DedupConfig;
 import org.apache.pinot.spi.config.table.FieldConfig;
 import org.apache.pinot.spi.config.table.FieldConfig.CompressionCodec;
+import org.apache.pinot.spi.config.table.HashFunction;
 import org.apache.pinot.spi.config.table.IndexingConfig;
 import org.apache.pinot.spi.config.table.ReplicaGroupStrategyConfig;
 import org.apache.pinot.spi.config.table.RoutingConfig;
@@ -2116,6 +2118,26 @@ public class TableConfigUtilsTest {
         .build();
     TableConfigUtils.validateUpsertAndDedupConfig(tableConfig, schema);
 
+    // off-heap metadata manager requires a hash function
+    UpsertConfig offHeapUpsertConfig = new UpsertConfig(UpsertConfig.Mode.FULL);
+    offHeapUpsertConfig.setMetadataManagerClass(OffHeapTableUpsertMetadataManager.class.getName());
+    tableConfig = new TableConfigBuilder(TableType.REALTIME).setTableName(TABLE_NAME)
+        .setTimeColumnName(TIME_COLUMN)
+        .setUpsertConfig(offHeapUpsertConfig)
+        .setStreamConfigs(getStreamConfigs())
+        .setRoutingConfig(
+            new RoutingConfig(null, null, RoutingConfig.STRICT_REPLICA_GROUP_INSTANCE_SELECTOR_TYPE, false))
+        .build();
+    try {
+      TableConfigUtils.validateUpsertAndDedupConfig(tableConfig, schema);
+      fail("Off-heap upsert metadata manager must not be allowed without hash function");
+    } catch (IllegalStateException e) {
+      assertEquals(e.getMessage(),
+          "hashFunction must be configured (MD5, MURMUR3 or UUID) for the off-heap upsert metadata manager");
+    }
+    offHeapUpsertConfig.setHashFunction(HashFunction.MURMUR3);
+    TableConfigUtils.validateUpsertAndDedupConfig(tableConfig, schema);
+
     tableConfig = new TableConfigBuilder(TableType.REALTIME).setTableName(TABLE_NAME)
         .setUpsertConfig(upsertConfig)
         .setRoutingConfig(
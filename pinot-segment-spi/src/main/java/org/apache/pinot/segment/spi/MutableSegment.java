@@ -20,6 +20,7 @@ package org.apache.pinot.segment.spi;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.List;
 import javax.annotation.Nullable;
 import org.apache.pinot.spi.data.readers.GenericRow;
 import org.apache.pinot.spi.stream.StreamMessageMetadata;
@@ -37,6 +38,29 @@ public interface MutableSegment extends IndexSegment {
   boolean index(GenericRow row, @Nullable StreamMessageMetadata metadata)
       throws IOException;
 
+  /**
+   * Returns whether the segment supports indexing a batch of records with {@link #index(List, List)}.
+   */
+  default boolean isBatchIndexingSupported() {
+    return false;
+  }
+
+  /**
+   * Indexes a batch of records into the segment, where each record comes with the metadata of the message it is
+   * decoded from. The records can be indexed column by column to amortize the per-record overhead over the batch.
+   * <p>When an exception is thrown, none of the records is added to the indexes, and the caller can index the records
+   * one by one with {@link #index(GenericRow, StreamMessageMetadata)} instead. Implementations must perform all the
+   * checks that can fail before adding any value to the indexes.
+   *
+   * @param rows Records represented as {@link GenericRow}s
+   * @param metadataList the metadata associated with the messages, one per record
+   * @return Whether the segment can index more records after this batch
+   */
+  default boolean index(List<GenericRow> rows, List<StreamMessageMetadata> metadataList)
+      throws IOException {
+    throw new UnsupportedOperationException("Batch indexing is not supported");
+  }
+
   /**
    * Returns the number of records already indexed into the segment.
    *
@@ -69,6 +69,7 @@ public class V1Constants {
     public static final String VECTOR_V912_INDEX_FILE_EXTENSION = ".vector.v912.index";
     public static final String VECTOR_V912_HNSW_INDEX_FILE_EXTENSION = ".vector.v912.hnsw.index";
     public static final String VECTOR_HNSW_INDEX_DOCID_MAPPING_FILE_EXTENSION = ".vector.hnsw.mapping";
+    public static final String VECTOR_IVF_INDEX_FILE_EXTENSION = ".vector.ivf.index";
   }
 
   public static class MetadataKeys {
@@ -19,7 +19,13 @@
 package org.apache.pinot.segment.spi.compression;
 
 public enum ChunkCompressionType {
-  PASS_THROUGH(0), SNAPPY(1), ZSTANDARD(2), LZ4(3), LZ4_LENGTH_PREFIXED(4), GZIP(5);
+  PASS_THROUGH(0), SNAPPY(1), ZSTANDARD(2), LZ4(3), LZ4_LENGTH_PREFIXED(4), GZIP(5),
+
+  // Bit-packing codecs for fixed width integral values (INT/LONG) only:
+  // - FOR (frame of reference): values are stored as bit-packed offsets from the min value of the chunk
+  // - DELTA: values are stored as bit-packed deltas from the previous value, suitable for sorted values (e.g. time)
+  // - PFOR (patched frame of reference): same as FOR, but outliers are stored as exceptions to reduce the bit width
+  FOR(6), DELTA(7), PFOR(8);
 
   private static final ChunkCompressionType[] VALUES = values();
 
@@ -33,6 +39,14 @@ public enum ChunkCompressionType {
     return _value;
   }
 
+  /**
+   * Returns {@code true} if the compression type bit-packs fixed width integral values, in which case it cannot be
+   * applied to variable width values.
+   */
+  public boolean isBitPacking() {
+    return this == FOR || this == DELTA || this == PFOR;
+  }
+
   public static ChunkCompressionType valueOf(int ordinal) {
     if (ordinal < 0 || ordinal >= VALUES.length) {
       throw new IllegalArgumentException("invalid ordinal " + ordinal);
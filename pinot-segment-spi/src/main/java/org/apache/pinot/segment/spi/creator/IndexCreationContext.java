@@ -20,6 +20,7 @@ package org.apache.pinot.segment.spi.creator;
 
 import java.io.File;
 import java.util.Objects;
+import javax.annotation.Nullable;
 import org.apache.pinot.segment.spi.ColumnMetadata;
 import org.apache.pinot.segment.spi.index.IndexType;
 import org.apache.pinot.spi.config.table.IndexConfig;
@@ -102,6 +103,13 @@ public interface IndexCreationContext {
    */
   File getConsumerDir();
 
+  /**
+   * Used in conjunction with isRealtimeConversion, this returns the name of the segment being created, which is also
+   * the name of the mutable segment being converted
+   */
+  @Nullable
+  String getSegmentName();
+
   /**
    * This contains immutableToMutableIdMap mapping generated in {@link SegmentIndexCreationDriver}
    *
@@ -137,6 +145,7 @@ public interface IndexCreationContext {
     private boolean _textCommitOnClose;
     private boolean _realtimeConversion = false;
     private File _consumerDir;
+    private String _segmentName;
     private int[] _immutableToMutableIdMap;
     private String _tableNameWithType;
     private boolean _continueOnError;
@@ -267,6 +276,11 @@ public interface IndexCreationContext {
       return this;
     }
 
+    public Builder withSegmentName(String segmentName) {
+      _segmentName = segmentName;
+      return this;
+    }
+
     public Builder withImmutableToMutableIdMap(int[] immutableToMutableIdMap) {
       _immutableToMutableIdMap = immutableToMutableIdMap;
       return this;
@@ -287,7 +301,8 @@ public interface IndexCreationContext {
           _maxRowLengthInBytes, _onHeap, Objects.requireNonNull(_fieldSpec), _sorted, _cardinality,
           _totalNumberOfEntries, _totalDocs, _hasDictionary, _minValue, _maxValue, _forwardIndexDisabled,
           _sortedUniqueElementsArray, _optimizedDictionary, _fixedLength, _textCommitOnClose, _columnStatistics,
-          _realtimeConversion, _consumerDir, _immutableToMutableIdMap, _tableNameWithType, _continueOnError);
+          _realtimeConversion, _consumerDir, _segmentName, _immutableToMutableIdMap, _tableNameWithType,
+          _continueOnError);
     }
 
     public Builder withSortedUniqueElementsArray(Object sortedUniqueElementsArray) {
@@ -323,6 +338,7 @@ public interface IndexCreationContext {
     private final ColumnStatistics _columnStatistics;
     private final boolean _realtimeConversion;
     private final File _consumerDir;
+    private final String _segmentName;
     private final int[] _immutableToMutableIdMap;
     private final String _tableNameWithType;
     private final boolean _continueOnError;
@@ -333,7 +349,7 @@ public interface IndexCreationContext {
         int totalDocs, boolean hasDictionary, Comparable<?> minValue, Comparable<?> maxValue,
         boolean forwardIndexDisabled, Object sortedUniqueElementsArray, boolean optimizeDictionary, boolean fixedLength,
         boolean textCommitOnClose, ColumnStatistics columnStatistics, boolean realtimeConversion, File consumerDir,
-        int[] immutableToMutableIdMap, String tableNameWithType, boolean continueOnError) {
+        String segmentName, int[] immutableToMutableIdMap, String tableNameWithType, boolean continueOnError) {
       _indexDir = indexDir;
       _lengthOfLongestEntry = lengthOfLongestEntry;
       _maxNumberOfMultiValueElements = maxNumberOfMultiValueElements;
@@ -355,6 +371,7 @@ public interface IndexCreationContext {
       _columnStatistics = columnStatistics;
       _realtimeConversion = realtimeConversion;
       _consumerDir = consumerDir;
+      _segmentName = segmentName;
       _immutableToMutableIdMap = immutableToMutableIdMap;
       _tableNameWithType = tableNameWithType;
       _continueOnError = continueOnError;
@@ -454,6 +471,12 @@ public interface IndexCreationContext {
       return _consumerDir;
     }
 
+    @Nullable
+    @Override
+    public String getSegmentName() {
+      return _segmentName;
+    }
+
     @Override
     public int[] getImmutableToMutableIdMap() {
       return _immutableToMutableIdMap;
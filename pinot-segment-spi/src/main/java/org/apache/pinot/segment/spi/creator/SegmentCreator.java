@@ -22,6 +22,8 @@ import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
 import java.io.Serializable;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.TreeMap;
 import javax.annotation.Nullable;
 import org.apache.commons.configuration2.ex.ConfigurationException;
@@ -87,6 +89,34 @@ public interface SegmentCreator extends Closeable, Serializable {
     indexColumn(columnName, sortedDocIds, segment);
   }
 
+  /**
+   * Adds the given columns to the index. Implementations may index different columns concurrently.
+   *
+   * @param columnNames - The names of the columns being added to.
+   * @param sortedDocIds - If not null, then this provides the sorted order of documents.
+   * @param segment - Used to get the values of the columns.
+   * @param validDocIds - If not null, then will only iterate over valid doc ids and skip invalid doc ids.
+   */
+  default void indexColumns(Collection<String> columnNames, @Nullable int[] sortedDocIds, IndexSegment segment,
+      @Nullable ThreadSafeMutableRoaringBitmap validDocIds)
+      throws IOException {
+    for (String columnName : columnNames) {
+      indexColumn(columnName, sortedDocIds, segment, validDocIds);
+    }
+  }
+
+  /**
+   * Adds a column to the index from the given rows, where each row contains the (already transformed) value of the
+   * column for the next document. The rows might be reused by the caller.
+   *
+   * @param columnName - The name of the column being added to.
+   * @param rows - The rows holding the values of the column in the document order.
+   */
+  default void indexColumn(String columnName, Iterator<GenericRow> rows)
+      throws IOException {
+    throw new UnsupportedOperationException("Indexing column from rows is not supported");
+  }
+
   /**
    * Sets the name of the segment.
    *
@@ -46,6 +46,7 @@ import org.apache.pinot.spi.config.table.SegmentPartitionConfig;
 import org.apache.pinot.spi.config.table.SegmentZKPropsConfig;
 import org.apache.pinot.spi.config.table.StarTreeIndexConfig;
 import org.apache.pinot.spi.config.table.TableConfig;
+import org.apache.pinot.spi.config.table.ingestion.BatchIngestionConfig;
 import org.apache.pinot.spi.config.table.ingestion.IngestionConfig;
 import org.apache.pinot.spi.data.DateTimeFieldSpec;
 import org.apache.pinot.spi.data.DateTimeFormatSpec;
@@ -103,6 +104,8 @@ public class SegmentGeneratorConfig implements Serializable {
   private DateTimeFormatSpec _dateTimeFormatSpec = null;
   // Use on-heap or off-heap memory to generate index (currently only affect inverted index and star-tree v2)
   private boolean _onHeap = false;
+  // Number of threads used to build the indexes of different columns concurrently (sequential when <= 1)
+  private int _indexCreationParallelism = 1;
   /**
    * Whether null handling is enabled by default. This value is only used if
    * {@link Schema#isEnableColumnBasedNullHandling()} is false.
@@ -112,6 +115,7 @@ public class SegmentGeneratorConfig implements Serializable {
   private boolean _rowTimeValueCheck = false;
   private boolean _segmentTimeValueCheck = true;
   private boolean _failOnEmptySegment = false;
+  private boolean _columnarIngestion = false;
   private boolean _optimizeDictionary = false;
   private boolean _optimizeDictionaryForMetrics = false;
   private boolean _optimizeDictionaryType = false;
@@ -174,6 +178,10 @@ public class SegmentGeneratorConfig implements Serializable {
     _optimizeDictionaryType = indexingConfig.isOptimizeDictionaryType();
     _noDictionarySizeRatioThreshold = indexingConfig.getNoDictionarySizeRatioThreshold();
     _noDictionaryCardinalityRatioThreshold = indexingConfig.getNoDictionaryCardinalityRatioThreshold();
+    Integer indexCreationParallelism = indexingConfig.getSegmentIndexCreationParallelism();
+    if (indexCreationParallelism != null) {
+      _indexCreationParallelism = indexCreationParallelism;
+    }
 
     // Star-tree configs
     setStarTreeIndexConfigs(indexingConfig.getStarTreeIndexConfigs());
@@ -195,6 +203,10 @@ public class SegmentGeneratorConfig implements Serializable {
       _continueOnError = ingestionConfig.isContinueOnError();
       _rowTimeValueCheck = ingestionConfig.isRowTimeValueCheck();
       _segmentTimeValueCheck = ingestionConfig.isSegmentTimeValueCheck();
+      BatchIngestionConfig batchIngestionConfig = ingestionConfig.getBatchIngestionConfig();
+      if (batchIngestionConfig != null) {
+        _columnarIngestion = batchIngestionConfig.isColumnarIngestion();
+      }
     }
 
     _indexConfigsByColName = FieldIndexConfigsUtil.createIndexConfigsByColName(tableConfig, schema);
@@ -533,6 +545,14 @@ public class SegmentGeneratorConfig implements Serializable {
     _onHeap = onHeap;
   }
 
+  public int getIndexCreationParallelism() {
+    return _indexCreationParallelism;
+  }
+
+  public void setIndexCreationParallelism(int indexCreationParallelism) {
+    _indexCreationParallelism = indexCreationParallelism;
+  }
+
   public boolean isSkipTimeValueCheck() {
     return !_segmentTimeValueCheck;
   }
@@ -633,6 +653,17 @@ public class SegmentGeneratorConfig implements Serializable {
     _continueOnError = continueOnError;
   }
 
+  /**
+   * Returns whether to build the segment column by column when the record reader supports reading the values by column.
+   */
+  public boolean isColumnarIngestion() {
+    return _columnarIngestion;
+  }
+
+  public void setColumnarIngestion(boolean columnarIngestion) {
+    _columnarIngestion = columnarIngestion;
+  }
+
   public boolean isRowTimeValueCheck() {
     return _rowTimeValueCheck;
   }
@@ -134,6 +134,7 @@ public class ForwardIndexConfig extends IndexConfig {
           _dictIdCompressionType = null;
           break;
         case LZ4:
+        case BINARY_JSON:
           _chunkCompressionType = ChunkCompressionType.LZ4;
           _dictIdCompressionType = null;
           break;
@@ -141,6 +142,18 @@ public class ForwardIndexConfig extends IndexConfig {
           _chunkCompressionType = ChunkCompressionType.GZIP;
           _dictIdCompressionType = null;
           break;
+        case FOR:
+          _chunkCompressionType = ChunkCompressionType.FOR;
+          _dictIdCompressionType = null;
+          break;
+        case DELTA:
+          _chunkCompressionType = ChunkCompressionType.DELTA;
+          _dictIdCompressionType = null;
+          break;
+        case PFOR:
+          _chunkCompressionType = ChunkCompressionType.PFOR;
+          _dictIdCompressionType = null;
+          break;
         case MV_ENTRY_DICT:
           _dictIdCompressionType = DictIdCompressionType.MV_ENTRY_DICT;
           _chunkCompressionType = null;
@@ -186,6 +199,12 @@ public class ForwardIndexConfig extends IndexConfig {
           return CompressionCodec.ZSTANDARD;
         case LZ4:
           return CompressionCodec.LZ4;
+        case FOR:
+          return CompressionCodec.FOR;
+        case DELTA:
+          return CompressionCodec.DELTA;
+        case PFOR:
+          return CompressionCodec.PFOR;
         default:
           throw new IllegalStateException("Unsupported chunk compression type: " + chunkCompressionType);
       }
@@ -333,6 +352,15 @@ public class ForwardIndexConfig extends IndexConfig {
         case ZSTANDARD:
           _compressionCodec = CompressionCodec.ZSTANDARD;
           break;
+        case FOR:
+          _compressionCodec = CompressionCodec.FOR;
+          break;
+        case DELTA:
+          _compressionCodec = CompressionCodec.DELTA;
+          break;
+        case PFOR:
+          _compressionCodec = CompressionCodec.PFOR;
+          break;
         default:
           throw new IllegalArgumentException("Unsupported chunk compression type: " + chunkCompressionType);
       }
@@ -18,6 +18,7 @@
  */
 package org.apache.pinot.segment.spi.index.creator;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import java.io.IOException;
 import java.util.Map;
 import javax.annotation.Nullable;
@@ -57,6 +58,14 @@ public interface JsonIndexCreator extends IndexCreator {
   void add(Map jsonMap)
     throws IOException;
 
+  /**
+   * Adds the next json value that is already parsed (e.g. read from a binary JSON forward index).
+   */
+  default void add(JsonNode jsonNode)
+      throws IOException {
+    add(jsonNode.toString());
+  }
+
   /**
    * Seals the index and flushes it to disk.
    */
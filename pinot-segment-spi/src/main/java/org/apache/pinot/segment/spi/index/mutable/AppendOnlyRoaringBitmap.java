@@ -0,0 +1,106 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.segment.spi.index.mutable;
+
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
+import org.roaringbitmap.buffer.MappeableContainer;
+import org.roaringbitmap.buffer.MutableRoaringArray;
+import org.roaringbitmap.buffer.MutableRoaringBitmap;
+import org.roaringbitmap.buffer.ReadOnlyRoaringBitmapView;
+
+
+/**
+ * Thread-safe (single writer multiple readers) bitmap where document ids are only appended in ascending order, e.g. the
+ * posting list of a mutable inverted index.
+ * <p>Because document ids are appended in ascending order, only the last container of the bitmap (covering the highest
+ * 64K document ids) can still be modified by the writer, and all the other containers are immutable. This allows
+ * taking a snapshot of the bitmap by sharing the immutable containers and copying only the last container, instead of
+ * cloning the whole bitmap like {@link ThreadSafeMutableRoaringBitmap#getMutableRoaringBitmap()}.
+ */
+public class AppendOnlyRoaringBitmap {
+  // Number of document ids covered by a container
+  private static final int CONTAINER_SIZE = 1 << 16;
+
+  private final MutableRoaringBitmap _bitmap = new MutableRoaringBitmap();
+
+  public AppendOnlyRoaringBitmap() {
+  }
+
+  public AppendOnlyRoaringBitmap(int firstDocId) {
+    _bitmap.add(firstDocId);
+  }
+
+  /**
+   * Appends a document id, which should be larger than or equal to the last appended document id.
+   */
+  public synchronized void add(int docId) {
+    assert _bitmap.isEmpty() || docId >= _bitmap.last();
+    _bitmap.add(docId);
+  }
+
+  /**
+   * Appends the sorted document ids, which should be larger than or equal to the last appended document id.
+   */
+  public synchronized void add(int[] docIds, int offset, int length) {
+    assert _bitmap.isEmpty() || length == 0 || docIds[offset] >= _bitmap.last();
+    _bitmap.addN(docIds, offset, length);
+  }
+
+  /**
+   * Returns a read-only snapshot of the bitmap, which shares all the containers except for the last one with this
+   * bitmap.
+   */
+  public ImmutableRoaringBitmap getSnapshot() {
+    return getSnapshot(Integer.MAX_VALUE);
+  }
+
+  /**
+   * Returns a read-only snapshot of the document ids smaller than {@code numDocs}, e.g. the number of documents
+   * queryable in the consuming segment, which excludes the document ids appended but not yet queryable. The snapshot
+   * shares all the containers except for the last one and the one crossing {@code numDocs} with this bitmap. The
+   * snapshot is a {@link ReadOnlyRoaringBitmapView}, which cannot be modified in place.
+   */
+  public synchronized ImmutableRoaringBitmap getSnapshot(int numDocs) {
+    MutableRoaringArray containers = _bitmap.getMappeableRoaringArray();
+    int numContainers = containers.size();
+    MutableRoaringArray snapshotContainers = new MutableRoaringArray(numContainers);
+    int lastIndex = numContainers - 1;
+    for (int i = 0; i < numContainers; i++) {
+      char key = containers.getKeyAtIndex(i);
+      int containerStartDocId = key << 16;
+      if (containerStartDocId >= numDocs) {
+        break;
+      }
+      MappeableContainer container = containers.getContainerAtIndex(i);
+      int numDocsInContainer = numDocs - containerStartDocId;
+      if (numDocsInContainer < CONTAINER_SIZE) {
+        // Remove the document ids not queryable yet, which also copies the container
+        container = container.remove(numDocsInContainer, CONTAINER_SIZE);
+        if (container.isEmpty()) {
+          break;
+        }
+      } else if (i == lastIndex) {
+        // The last container can still be modified by the writer
+        container = container.clone();
+      }
+      snapshotContainers.append(key, container);
+    }
+    return new ReadOnlyRoaringBitmapView(snapshotContainers);
+  }
+}
@@ -19,10 +19,10 @@
 package org.apache.pinot.segment.spi.index.mutable;
 
 import org.apache.pinot.segment.spi.index.reader.InvertedIndexReader;
-import org.roaringbitmap.buffer.MutableRoaringBitmap;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
 
 
-public interface MutableInvertedIndex extends InvertedIndexReader<MutableRoaringBitmap>, MutableIndex {
+public interface MutableInvertedIndex extends InvertedIndexReader<ImmutableRoaringBitmap>, MutableIndex {
 
   @Override
   default void add(Object value, int dictId, int docId) {
@@ -33,4 +33,25 @@ public interface VectorIndexReader extends IndexReader {
    * @return bitmap of top k closest vectors
    */
   ImmutableRoaringBitmap getDocIds(float[] vector, int topK);
+
+  /**
+   * Returns {@code true} if the index supports pre-filtered search (see
+   * {@link #getDocIds(float[], int, ImmutableRoaringBitmap)}), {@code false} otherwise.
+   */
+  default boolean isPrefilterSupported() {
+    return false;
+  }
+
+  /**
+   * Returns the bitmap of top k closest vectors from the given vector among the documents in the filter bitmap, i.e.
+   * the top k closest vectors are searched only within the documents matching the other filters. Should only be called
+   * when {@link #isPrefilterSupported()} returns {@code true}.
+   * @param vector vector to search
+   * @param topK number of closest vectors to return
+   * @param filterBitmap bitmap of the documents to search within
+   * @return bitmap of top k closest vectors within the filter bitmap
+   */
+  default ImmutableRoaringBitmap getDocIds(float[] vector, int topK, ImmutableRoaringBitmap filterBitmap) {
+    throw new UnsupportedOperationException("Pre-filtered search is not supported by: " + getClass().getSimpleName());
+  }
 }
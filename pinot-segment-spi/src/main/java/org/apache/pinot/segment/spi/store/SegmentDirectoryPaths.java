@@ -159,6 +159,11 @@ public class SegmentDirectoryPaths {
     return formatFile;
   }
 
+  @Nullable
+  public static File findIvfVectorIndexFile(File segmentIndexDir, String column) {
+    return findFormatFile(segmentIndexDir, column + V1Constants.Indexes.VECTOR_IVF_INDEX_FILE_EXTENSION);
+  }
+
   /**
    * Find a file in any segment version.
    * <p>Index directory passed in should be top level segment directory.
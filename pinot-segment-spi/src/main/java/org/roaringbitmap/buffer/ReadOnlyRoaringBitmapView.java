@@ -0,0 +1,34 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.roaringbitmap.buffer;
+
+/**
+ * Read-only {@link ImmutableRoaringBitmap} over the containers of a {@link MutableRoaringArray}, which allows sharing
+ * the containers of a {@link MutableRoaringBitmap} without exposing them through a mutable type. Unlike a
+ * {@link MutableRoaringBitmap} built over the same containers, this bitmap cannot be modified in place (e.g. by code
+ * checking {@code instanceof MutableRoaringBitmap} to avoid a copy), so the shared containers stay untouched.
+ * <p>NOTE: This class is in the RoaringBitmap package because the containers of an {@link ImmutableRoaringBitmap} can
+ * only be set within the package.
+ */
+public final class ReadOnlyRoaringBitmapView extends ImmutableRoaringBitmap {
+
+  public ReadOnlyRoaringBitmapView(MutableRoaringArray containers) {
+    highLowContainer = containers;
+  }
+}
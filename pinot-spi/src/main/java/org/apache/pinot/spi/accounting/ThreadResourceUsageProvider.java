@@ -18,6 +18,9 @@
  */
 package org.apache.pinot.spi.accounting;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.management.GarbageCollectorMXBean;
 import java.lang.management.ManagementFactory;
 import java.lang.management.ThreadMXBean;
@@ -31,6 +34,11 @@ import org.slf4j.LoggerFactory;
 /**
  * The {@code ThreadResourceUsageProvider} class providing the functionality of measuring the CPU time
  * and allocateBytes (JVM heap) for the current thread.
+ *
+ * NOTE: The JVM doesn't measure the CPU time and allocated bytes of virtual threads (Hotspot returns -1 instead of
+ * throwing), and the carrier thread is not accessible to sample instead. Both measurements return 0 on virtual
+ * threads, which means the query resource accounting (and the query killing based on it) is disabled for the tasks
+ * running on the virtual thread executor.
  */
 public class ThreadResourceUsageProvider {
   private ThreadResourceUsageProvider() {
@@ -48,6 +56,10 @@ public class ThreadResourceUsageProvider {
       = "setThreadAllocatedMemoryEnabled";
   private static final String SUN_THREAD_MXBEAN_GET_BYTES_ALLOCATED_NAME = "getThreadAllocatedBytes";
   private static final Method SUN_THREAD_MXBEAN_GET_BYTES_ALLOCATED_METHOD;
+  // Handle of Thread.isVirtual(), which is only available on Java 21 or above, or a handle always returning false when
+  // not available. Invoking a static final method handle is compiled as a direct call (or a constant false), so the
+  // check is free for platform threads unlike a reflective invocation.
+  private static final MethodHandle THREAD_IS_VIRTUAL_HANDLE;
 
   private static final ThreadMXBean MX_BEAN = ManagementFactory.getThreadMXBean();
   private static final boolean IS_CURRENT_THREAD_CPU_TIME_SUPPORTED = MX_BEAN.isCurrentThreadCpuTimeSupported();
@@ -65,19 +77,39 @@ public class ThreadResourceUsageProvider {
   }
 
   public static long getCurrentThreadCpuTime() {
-    return _isThreadCpuTimeMeasurementEnabled ? MX_BEAN.getCurrentThreadCpuTime() : 0;
+    if (!_isThreadCpuTimeMeasurementEnabled || isCurrentThreadVirtual()) {
+      return 0;
+    }
+    // -1 is returned when the measurement is not available for the current thread
+    return Math.max(MX_BEAN.getCurrentThreadCpuTime(), 0);
   }
 
   public static long getCurrentThreadAllocatedBytes() {
+    if (!_isThreadMemoryMeasurementEnabled || isCurrentThreadVirtual()) {
+      return 0;
+    }
     try {
-      return _isThreadMemoryMeasurementEnabled ? (long) SUN_THREAD_MXBEAN_GET_BYTES_ALLOCATED_METHOD
-          .invoke(MX_BEAN, Thread.currentThread().getId()) : 0;
+      // -1 is returned when the measurement is not available for the current thread
+      return Math.max((long) SUN_THREAD_MXBEAN_GET_BYTES_ALLOCATED_METHOD.invoke(MX_BEAN,
+          Thread.currentThread().getId()), 0);
     } catch (IllegalAccessException | InvocationTargetException e) {
       LOGGER.error("Exception happened during the invocation of getting current bytes allocated", e);
       return 0;
     }
   }
 
+  /**
+   * Returns whether the current thread is a virtual thread, for which the CPU time and allocated bytes are not
+   * measured.
+   */
+  public static boolean isCurrentThreadVirtual() {
+    try {
+      return (boolean) THREAD_IS_VIRTUAL_HANDLE.invokeExact(Thread.currentThread());
+    } catch (Throwable t) {
+      return false;
+    }
+  }
+
   /// Returns an approximation of the total garbage collection time in milliseconds.
   public static long getGcTime() {
     long totalGCTime = 0;
@@ -163,6 +195,15 @@ public class ThreadResourceUsageProvider {
       }
     }
     SUN_THREAD_MXBEAN_GET_BYTES_ALLOCATED_METHOD = threadAllocateBytes;
+
+    MethodHandle threadIsVirtual;
+    try {
+      threadIsVirtual =
+          MethodHandles.publicLookup().findVirtual(Thread.class, "isVirtual", MethodType.methodType(boolean.class));
+    } catch (NoSuchMethodException | IllegalAccessException e) {
+      threadIsVirtual = MethodHandles.dropArguments(MethodHandles.constant(boolean.class, false), 0, Thread.class);
+    }
+    THREAD_IS_VIRTUAL_HANDLE = threadIsVirtual;
   }
 
   static {
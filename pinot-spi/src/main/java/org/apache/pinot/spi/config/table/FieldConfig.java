@@ -150,7 +150,16 @@ public class FieldConfig extends BaseJsonConfig {
     CLP(false, false),
     CLPV2(false, false),
     CLPV2_ZSTD(false, false),
-    CLPV2_LZ4(false, false);
+    CLPV2_LZ4(false, false),
+
+    // Bit-packing codecs are only applicable to single-value RAW columns with INT or LONG stored type
+    FOR(false, false),
+    DELTA(false, false),
+    PFOR(false, false),
+
+    // Binary JSON is only applicable to single-value RAW columns with JSON data type, where the documents are stored in
+    // a pre-parsed binary format so that JSON path lookups don't need to parse the whole document
+    BINARY_JSON(false, false);
 
     //@formatter:on
 
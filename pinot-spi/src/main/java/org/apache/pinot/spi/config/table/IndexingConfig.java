@@ -66,6 +66,10 @@ public class IndexingConfig extends BaseJsonConfig {
   private boolean _columnMajorSegmentBuilderEnabled = true;
   private boolean _skipSegmentPreprocess;
 
+  // Number of threads used to build the indexes of different columns (and different star-trees) concurrently during
+  // segment creation. Indexes are built sequentially when not set or set to a value less than or equal to 1.
+  private Integer _segmentIndexCreationParallelism;
+
   /**
    * If `optimizeDictionary` enabled, dictionary is not created for the high-cardinality
    * single-valued columns for which rawIndexSize / forwardIndexSize is less than the `noDictionarySizeRatioThreshold`.
@@ -354,6 +358,15 @@ public class IndexingConfig extends BaseJsonConfig {
     _skipSegmentPreprocess = skipSegmentPreprocess;
   }
 
+  @Nullable
+  public Integer getSegmentIndexCreationParallelism() {
+    return _segmentIndexCreationParallelism;
+  }
+
+  public void setSegmentIndexCreationParallelism(@Nullable Integer segmentIndexCreationParallelism) {
+    _segmentIndexCreationParallelism = segmentIndexCreationParallelism;
+  }
+
   public boolean isOptimizeDictionary() {
     return _optimizeDictionary;
   }
@@ -22,6 +22,7 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.base.Preconditions;
 import java.util.Map;
+import java.util.Set;
 import javax.annotation.Nullable;
 import org.apache.pinot.spi.config.BaseJsonConfig;
 
@@ -30,6 +31,10 @@ import org.apache.pinot.spi.config.BaseJsonConfig;
  * The {@code QueryConfig} class contains the table-level query execution related configurations.
  */
 public class QueryConfig extends BaseJsonConfig {
+  // Keep in sync with WireCompressionUtils.parseCompressionType()
+  private static final Set<String> SUPPORTED_WIRE_COMPRESSIONS =
+      Set.of("LZ4", "ZSTD", "ZSTANDARD", "NONE", "PASS_THROUGH");
+
   // The timeout for the entire query execution in milliseconds. This value will be gathered on the broker side, and
   // passed to the servers within the broker request.
   // If the broker times out, it will stop waiting for more server responses and return the reduced server responses
@@ -56,18 +61,49 @@ public class QueryConfig extends BaseJsonConfig {
   // Indicates the maximum length of the serialized response per server for a query.
   private final Long _maxServerResponseSizeBytes;
 
+  // Indicates how long the broker can serve the response of a query from its result cache, in milliseconds. The result
+  // cache is only used for OFFLINE tables, and only when it is enabled on the broker. Cached responses are invalidated
+  // as soon as the segments of the table change.
+  private final Long _resultCacheTtlMs;
+
+  // The compression (LZ4, ZSTD or NONE) of the responses sent by the servers to the brokers for the queries on this
+  // table. Only the large responses are compressed. Overrides the broker level config, and can be overridden by the
+  // 'wireCompression' query option.
+  private final String _wireCompression;
+
+  public QueryConfig(@Nullable Long timeoutMs, @Nullable Boolean disableGroovy,
+      @Nullable Boolean useApproximateFunction, @Nullable Map<String, String> expressionOverrideMap,
+      @Nullable Long maxQueryResponseSizeBytes, @Nullable Long maxServerResponseSizeBytes) {
+    this(timeoutMs, disableGroovy, useApproximateFunction, expressionOverrideMap, maxQueryResponseSizeBytes,
+        maxServerResponseSizeBytes, null);
+  }
+
+  public QueryConfig(@Nullable Long timeoutMs, @Nullable Boolean disableGroovy,
+      @Nullable Boolean useApproximateFunction, @Nullable Map<String, String> expressionOverrideMap,
+      @Nullable Long maxQueryResponseSizeBytes, @Nullable Long maxServerResponseSizeBytes,
+      @Nullable Long resultCacheTtlMs) {
+    this(timeoutMs, disableGroovy, useApproximateFunction, expressionOverrideMap, maxQueryResponseSizeBytes,
+        maxServerResponseSizeBytes, resultCacheTtlMs, null);
+  }
+
   @JsonCreator
   public QueryConfig(@JsonProperty("timeoutMs") @Nullable Long timeoutMs,
       @JsonProperty("disableGroovy") @Nullable Boolean disableGroovy,
       @JsonProperty("useApproximateFunction") @Nullable Boolean useApproximateFunction,
       @JsonProperty("expressionOverrideMap") @Nullable Map<String, String> expressionOverrideMap,
       @JsonProperty("maxQueryResponseSizeBytes") @Nullable Long maxQueryResponseSizeBytes,
-      @JsonProperty("maxServerResponseSizeBytes") @Nullable Long maxServerResponseSizeBytes) {
+      @JsonProperty("maxServerResponseSizeBytes") @Nullable Long maxServerResponseSizeBytes,
+      @JsonProperty("resultCacheTtlMs") @Nullable Long resultCacheTtlMs,
+      @JsonProperty("wireCompression") @Nullable String wireCompression) {
     Preconditions.checkArgument(timeoutMs == null || timeoutMs > 0, "Invalid 'timeoutMs': %s", timeoutMs);
     Preconditions.checkArgument(maxQueryResponseSizeBytes == null || maxQueryResponseSizeBytes > 0,
         "Invalid 'maxQueryResponseSizeBytes': %s", maxQueryResponseSizeBytes);
     Preconditions.checkArgument(maxServerResponseSizeBytes == null || maxServerResponseSizeBytes > 0,
         "Invalid 'maxServerResponseSizeBytes': %s", maxServerResponseSizeBytes);
+    Preconditions.checkArgument(resultCacheTtlMs == null || resultCacheTtlMs > 0, "Invalid 'resultCacheTtlMs': %s",
+        resultCacheTtlMs);
+    Preconditions.checkArgument(wireCompression == null || SUPPORTED_WIRE_COMPRESSIONS.contains(
+        wireCompression.trim().toUpperCase()), "Invalid 'wireCompression': %s", wireCompression);
 
     _timeoutMs = timeoutMs;
     _disableGroovy = disableGroovy;
@@ -75,6 +111,8 @@ public class QueryConfig extends BaseJsonConfig {
     _expressionOverrideMap = expressionOverrideMap;
     _maxQueryResponseSizeBytes = maxQueryResponseSizeBytes;
     _maxServerResponseSizeBytes = maxServerResponseSizeBytes;
+    _resultCacheTtlMs = resultCacheTtlMs;
+    _wireCompression = wireCompression;
   }
 
   @Nullable
@@ -112,4 +150,16 @@ public class QueryConfig extends BaseJsonConfig {
   public Long getMaxServerResponseSizeBytes() {
     return _maxServerResponseSizeBytes;
   }
+
+  @Nullable
+  @JsonProperty("resultCacheTtlMs")
+  public Long getResultCacheTtlMs() {
+    return _resultCacheTtlMs;
+  }
+
+  @Nullable
+  @JsonProperty("wireCompression")
+  public String getWireCompression() {
+    return _wireCompression;
+  }
 }
@@ -29,6 +29,8 @@ public class RoutingConfig extends BaseJsonConfig {
   public static final String PARTITION_SEGMENT_PRUNER_TYPE = "partition";
   public static final String TIME_SEGMENT_PRUNER_TYPE = "time";
   public static final String EMPTY_SEGMENT_PRUNER_TYPE = "empty";
+  // Prunes segments based on the min/max value of the columns configured in segmentPrunerColumns
+  public static final String COLUMN_VALUE_RANGE_SEGMENT_PRUNER_TYPE = "columnValueRange";
   public static final String DEFAULT_INSTANCE_SELECTOR_TYPE = "balanced";
   public static final String REPLICA_GROUP_INSTANCE_SELECTOR_TYPE = "replicaGroup";
   public static final String STRICT_REPLICA_GROUP_INSTANCE_SELECTOR_TYPE = "strictReplicaGroup";
@@ -41,16 +43,24 @@ public class RoutingConfig extends BaseJsonConfig {
   private final List<String> _segmentPrunerTypes;
   private final String _instanceSelectorType;
   private final Boolean _useFixedReplica;
+  private final List<String> _segmentPrunerColumns;
+
+  public RoutingConfig(@Nullable String routingTableBuilderName, @Nullable List<String> segmentPrunerTypes,
+      @Nullable String instanceSelectorType, @Nullable Boolean useFixedReplica) {
+    this(routingTableBuilderName, segmentPrunerTypes, instanceSelectorType, useFixedReplica, null);
+  }
 
   @JsonCreator
   public RoutingConfig(@JsonProperty("routingTableBuilderName") @Nullable String routingTableBuilderName,
       @JsonProperty("segmentPrunerTypes") @Nullable List<String> segmentPrunerTypes,
       @JsonProperty("instanceSelectorType") @Nullable String instanceSelectorType,
-      @JsonProperty("useFixedReplica") @Nullable Boolean useFixedReplica) {
+      @JsonProperty("useFixedReplica") @Nullable Boolean useFixedReplica,
+      @JsonProperty("segmentPrunerColumns") @Nullable List<String> segmentPrunerColumns) {
     _routingTableBuilderName = routingTableBuilderName;
     _segmentPrunerTypes = segmentPrunerTypes;
     _instanceSelectorType = instanceSelectorType;
     _useFixedReplica = useFixedReplica;
+    _segmentPrunerColumns = segmentPrunerColumns;
   }
 
   @Nullable
@@ -72,4 +82,13 @@ public class RoutingConfig extends BaseJsonConfig {
   public Boolean getUseFixedReplica() {
     return _useFixedReplica;
   }
+
+  /**
+   * Returns the columns to track the min/max value in the segment ZK metadata for the column value range segment
+   * pruner.
+   */
+  @Nullable
+  public List<String> getSegmentPrunerColumns() {
+    return _segmentPrunerColumns;
+  }
 }
@@ -44,6 +44,9 @@ public class BatchIngestionConfig extends BaseJsonConfig {
   @JsonPropertyDescription("True to enable consistent data push")
   private boolean _consistentDataPush;
 
+  @JsonPropertyDescription("True to build the segments column by column when the input format is columnar")
+  private boolean _columnarIngestion;
+
   @JsonCreator
   public BatchIngestionConfig(@JsonProperty("batchConfigMaps") @Nullable List<Map<String, String>> batchConfigMaps,
       @JsonProperty("segmentIngestionType") String segmentIngestionType,
@@ -78,6 +81,10 @@ public class BatchIngestionConfig extends BaseJsonConfig {
     return _consistentDataPush;
   }
 
+  public boolean isColumnarIngestion() {
+    return _columnarIngestion;
+  }
+
   public void setBatchConfigMaps(List<Map<String, String>> batchConfigMaps) {
     _batchConfigMaps = batchConfigMaps;
   }
@@ -93,4 +100,8 @@ public class BatchIngestionConfig extends BaseJsonConfig {
   public void setConsistentDataPush(boolean consistentDataPush) {
     _consistentDataPush = consistentDataPush;
   }
+
+  public void setColumnarIngestion(boolean columnarIngestion) {
+    _columnarIngestion = columnarIngestion;
+  }
 }
@@ -0,0 +1,52 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.spi.data.readers;
+
+import java.io.Closeable;
+import java.io.IOException;
+import javax.annotation.Nullable;
+
+
+/**
+ * The <code>ColumnReader</code> interface is used to read the values of a single column from a columnar file format
+ * (e.g. Parquet, ORC) without materializing the other columns. See {@link ColumnarRecordReader}.
+ * <p>The values are returned in the same form as they are extracted into the {@link GenericRow} by the record reader of
+ * the same file format, so that the same transformations can be applied.
+ */
+public interface ColumnReader extends Closeable {
+
+  /**
+   * Return <code>true</code> if more values remain to be read.
+   */
+  boolean hasNext();
+
+  /**
+   * Get the value of the next record, or <code>null</code> if the value is missing.
+   * <p>This method should be called only if {@link #hasNext()} returns <code>true</code>.
+   */
+  @Nullable
+  Object next()
+      throws IOException;
+
+  /**
+   * Rewind the reader to start reading from the first record again.
+   */
+  void rewind()
+      throws IOException;
+}
@@ -0,0 +1,46 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.pinot.spi.data.readers;
+
+import java.io.IOException;
+
+
+/**
+ * The <code>ColumnarRecordReader</code> interface is implemented by the {@link RecordReader}s of the columnar file
+ * formats which can also read the values column by column, so that the segment can be built one column at a time
+ * without converting every record into a {@link GenericRow}.
+ * <p>All the {@link ColumnReader}s of the same record reader return the values of the records in the same order as
+ * {@link #next(GenericRow)}. Missing columns are read as <code>null</code> values.
+ */
+public interface ColumnarRecordReader extends RecordReader {
+
+  /**
+   * Returns whether the given column can be read with a {@link ColumnReader}. Usually only the single-value primitive
+   * columns can be read column by column.
+   */
+  boolean isColumnReadable(String column);
+
+  /**
+   * Returns a new {@link ColumnReader} for the given column, which should be closed by the caller. The column readers
+   * are independent of each other and of the record reader.
+   * <p>This method should be called only if {@link #isColumnReadable(String)} returns <code>true</code>.
+   */
+  ColumnReader getColumnReader(String column)
+      throws IOException;
+}
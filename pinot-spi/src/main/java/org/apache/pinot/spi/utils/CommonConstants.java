@@ -466,11 +466,30 @@ public class CommonConstants {
         "pinot.broker.enable.partition.metadata.manager";
     public static final boolean DEFAULT_ENABLE_PARTITION_METADATA_MANAGER = true;
 
+    // Whether to maintain the table statistics (number of documents, column cardinality and value range) from the
+    // segment ZK metadata, which are used by the multi-stage query planner for the cost based join reordering
+    public static final String CONFIG_OF_ENABLE_TABLE_STATISTICS = "pinot.broker.enable.table.statistics";
+    public static final boolean DEFAULT_ENABLE_TABLE_STATISTICS = false;
+
     public static final String CONFIG_OF_ROUTING_ASSIGNMENT_CHANGE_PROCESS_PARALLELISM =
         "pinot.broker.routing.assignment.change.process.parallelism";
     public static final int DEFAULT_ROUTING_ASSIGNMENT_CHANGE_PROCESS_PARALLELISM =
         Runtime.getRuntime().availableProcessors();
 
+    // Maximum total size of the serialized responses kept in the broker result cache. The result cache is disabled
+    // when set to 0. Tables opt in to the result cache by setting 'resultCacheTtlMs' in their query config.
+    public static final String CONFIG_OF_RESULT_CACHE_MAX_SIZE_BYTES = "pinot.broker.result.cache.max.size.bytes";
+    public static final long DEFAULT_RESULT_CACHE_MAX_SIZE_BYTES = 0L;
+    // Maximum time a response can be kept in the broker result cache, caps the table level TTL
+    public static final String CONFIG_OF_RESULT_CACHE_MAX_TTL_MS = "pinot.broker.result.cache.max.ttl.ms";
+    public static final long DEFAULT_RESULT_CACHE_MAX_TTL_MS = 3_600_000L;
+
+    // Maximum number of query shapes (query with the literals extracted) kept in the parameterized query cache, which
+    // skips parsing the repeated queries with different literals. The cache is disabled when set to 0.
+    public static final String CONFIG_OF_PARAMETERIZED_QUERY_CACHE_MAX_SIZE =
+        "pinot.broker.parameterized.query.cache.max.size";
+    public static final long DEFAULT_PARAMETERIZED_QUERY_CACHE_MAX_SIZE = 0L;
+
       // When enabled, the broker will set a query option to ignore SERVER_SEGMENT_MISSING errors from servers.
       // This is useful to tolerate short windows where routing has not yet reflected recently deleted segments.
       public static final String CONFIG_OF_IGNORE_MISSING_SEGMENTS =
@@ -507,6 +526,12 @@ public class CommonConstants {
     // precedence over "query.response.size" (i.e., "query.response.size" will be ignored).
     public static final String CONFIG_OF_MAX_SERVER_RESPONSE_SIZE_BYTES = "pinot.broker.max.server.response.size.bytes";
 
+    // Broker config indicating the default compression (LZ4 or ZSTD) of the blocks sent by the servers, i.e. the
+    // DataTables sent to the broker and the data blocks sent between the multi-stage workers. Compression is disabled
+    // when not set. Can be overridden by the 'wireCompression' query config of the table (single-stage queries only)
+    // and by the 'wireCompression' query option.
+    public static final String CONFIG_OF_WIRE_COMPRESSION = "pinot.broker.wire.compression";
+
     public static final String CONFIG_OF_NEW_SEGMENT_EXPIRATION_SECONDS = "pinot.broker.new.segment.expiration.seconds";
     public static final long DEFAULT_VALUE_OF_NEW_SEGMENT_EXPIRATION_SECONDS = TimeUnit.MINUTES.toSeconds(5);
 
@@ -633,6 +658,12 @@ public class CommonConstants {
         public static final String SORT_AGGREGATE_SINGLE_THREADED_NUM_SEGMENTS_THRESHOLD =
             "sortAggregateSingleThreadedNumSegmentsThreshold";
 
+        /**
+         * Combine the group-by results with the partitioned combine operator, where each worker thread aggregates the
+         * groups into thread-local partitions, and the partitions are merged independently without shared locks.
+         */
+        public static final String PARTITIONED_GROUP_BY_COMBINE = "partitionedGroupByCombine";
+
         /**
          * This will help in getting accurate and correct result for queries
          * with group by and limit but  without order by
@@ -681,6 +712,10 @@ public class CommonConstants {
 
         // Reorder scan based predicates based on cardinality and number of selected values
         public static final String AND_SCAN_REORDERING = "AndScanReordering";
+        // Reorder the AND filter children based on the selectivity estimated per segment (from the dictionary, indexes,
+        // column metadata and the observed selectivity of previous scans), and choose between index-based and
+        // scan-based evaluation based on the estimated cost
+        public static final String FILTER_SELECTIVITY_REORDER = "filterSelectivityReorder";
         public static final String SKIP_INDEXES = "skipIndexes";
 
         // Query option key used to trace rule productions
@@ -723,9 +758,17 @@ public class CommonConstants {
         // Maximum number of pending results blocks allowed in the streaming operator
         public static final String MAX_STREAMING_PENDING_BLOCKS = "maxStreamingPendingBlocks";
 
+        // Whether the leaf stage emits columnar (primitive typed) blocks in the multi-stage engine, so that the
+        // operators supporting them can process the data without boxing every value
+        public static final String USE_COLUMNAR_DATA_BLOCKS = "useColumnarDataBlocks";
+
         // Handle JOIN Overflow
         public static final String MAX_ROWS_IN_JOIN = "maxRowsInJoin";
         public static final String JOIN_OVERFLOW_MODE = "joinOverflowMode";
+        // Estimated size of the hash join build side kept in memory before both join inputs are spilled to disk
+        public static final String JOIN_SPILL_THRESHOLD_BYTES = "joinSpillThresholdBytes";
+        // Not actually accepted as Query Option but faked as one during MSE
+        public static final String JOIN_SPILL_DIR = "joinSpillDir";
 
         // Handle WINDOW Overflow
         public static final String MAX_ROWS_IN_WINDOW = "maxRowsInWindow";
@@ -738,6 +781,11 @@ public class CommonConstants {
         // divided across all servers processing the query.
         public static final String MAX_QUERY_RESPONSE_SIZE_BYTES = "maxQueryResponseSizeBytes";
 
+        // Compression (LZ4, ZSTD or NONE) of the blocks sent by the servers, i.e. the DataTables sent to the broker and
+        // the data blocks sent between the multi-stage workers. Blocks smaller than the threshold configured on the
+        // server are never compressed.
+        public static final String WIRE_COMPRESSION = "wireCompression";
+
         // If query submission causes an exception, still continue to submit the query to other servers
         public static final String SKIP_UNAVAILABLE_SERVERS = "skipUnavailableServers";
 
@@ -843,6 +891,12 @@ public class CommonConstants {
       public static final String JOIN_PUSH_EXPRESSIONS = "JoinPushExpressions";
       public static final String PROJECT_TO_SEMI_JOIN = "ProjectToSemiJoin";
       public static final String SEMI_JOIN_DISTINCT_PROJECT = "SemiJoinDistinctProject";
+      public static final String JOIN_RUNTIME_FILTER = "JoinRuntimeFilter";
+      public static final String JOIN_TO_MULTI_JOIN = "JoinToMultiJoin";
+      public static final String PROJECT_MULTI_JOIN_MERGE = "ProjectMultiJoinMerge";
+      public static final String FILTER_MULTI_JOIN_MERGE = "FilterMultiJoinMerge";
+      public static final String MULTI_JOIN_OPTIMIZE = "MultiJoinOptimize";
+      public static final String JOIN_BUILD_SIDE = "JoinBuildSide";
       public static final String UNION_TO_DISTINCT = "UnionToDistinct";
       public static final String AGGREGATE_REMOVE = "AggregateRemove";
       public static final String AGGREGATE_JOIN_TRANSPOSE = "AggregateJoinTranspose";
@@ -1164,6 +1218,12 @@ public class CommonConstants {
     public static final String CONFIG_OF_QUERY_EXECUTOR_GROUPBY_TRIM_THRESHOLD =
         QUERY_EXECUTOR_CONFIG_PREFIX + "." + GROUPBY_TRIM_THRESHOLD;
     public static final int DEFAULT_QUERY_EXECUTOR_GROUPBY_TRIM_THRESHOLD = 1_000_000;
+    // Max size in bytes of the segment level partial result cache for aggregation and group-by queries on immutable
+    // segments. Non-positive value disables the cache.
+    public static final String SEGMENT_RESULT_CACHE_MAX_SIZE_BYTES = "segment.result.cache.max.size.bytes";
+    public static final String CONFIG_OF_QUERY_EXECUTOR_SEGMENT_RESULT_CACHE_MAX_SIZE_BYTES =
+        QUERY_EXECUTOR_CONFIG_PREFIX + "." + SEGMENT_RESULT_CACHE_MAX_SIZE_BYTES;
+    public static final long DEFAULT_QUERY_EXECUTOR_SEGMENT_RESULT_CACHE_MAX_SIZE_BYTES = 0L;
     // Do sort-aggregation when LIMIT is below this threshold
     public static final int DEFAULT_SORT_AGGREGATE_LIMIT_THRESHOLD = 10_000;
     // Use sequential instead of pair-wise combine for sort-aggr when numSegments is below this threshold
@@ -1181,8 +1241,8 @@ public class CommonConstants {
      *
      * It is recommended to use cached. In case fixed is used, it should use a large enough number of threads or
      * parent operators may consume all threads.
-     * In Java 21 or newer, virtual threads are a good solution. Although Apache Pinot doesn't include this option yet,
-     * it is trivial to implement that plugin.
+     * In Java 21 or newer, virtual threads are a good solution, which can be enabled with the {@code virtual} type
+     * (falls back to cached on older JVMs).
      *
      * See QueryRunner
      */
@@ -1228,6 +1288,10 @@ public class CommonConstants {
     public static final String CONFIG_OF_SERVER_QUERY_REGEX_CLASS = "pinot.server.query.regex.class";
     public static final String DEFAULT_SERVER_QUERY_REGEX_CLASS = "JAVA_UTIL";
     public static final String CONFIG_OF_ENABLE_QUERY_CANCELLATION = "pinot.server.enable.query.cancellation";
+    // Minimum size of the serialized DataTable to compress it, when compression is requested by the broker
+    public static final String CONFIG_OF_WIRE_COMPRESSION_MIN_SIZE_BYTES =
+        "pinot.server.wire.compression.min.size.bytes";
+    public static final int DEFAULT_WIRE_COMPRESSION_MIN_SIZE_BYTES = 64 * 1024;
     public static final String CONFIG_OF_NETTY_SERVER_ENABLED = "pinot.server.netty.enabled";
     public static final boolean DEFAULT_NETTY_SERVER_ENABLED = true;
     public static final String CONFIG_OF_ENABLE_GRPC_SERVER = "pinot.server.grpc.enable";
@@ -1752,6 +1816,11 @@ public class CommonConstants {
     public static final String CRYPTER_NAME = "segment.crypter";
     public static final String PARTITION_METADATA = "segment.partition.metadata";
     public static final String CUSTOM_MAP = "custom.map";
+    // Min/max value of the columns configured in the routing config for the broker side segment pruning
+    public static final String COLUMN_MIN_VALUES = "segment.column.min.values";
+    public static final String COLUMN_MAX_VALUES = "segment.column.max.values";
+    // Cardinality of the columns configured in the routing config, used as the broker side table statistics
+    public static final String COLUMN_CARDINALITIES = "segment.column.cardinalities";
     public static final String SIZE_IN_BYTES = "segment.size.in.bytes";
 
     /**
@@ -1945,6 +2014,14 @@ public class CommonConstants {
         "pinot.query.runner.enable.data.block.payload.split";
     public static final boolean DEFAULT_ENABLE_DATA_BLOCK_PAYLOAD_SPLIT = false;
 
+    /**
+     * Minimum size of the serialized data block to compress it before sending it to another server, when compression
+     * is enabled for the query (see {@link Broker.Request.QueryOptionKey#WIRE_COMPRESSION}).
+     */
+    public static final String KEY_OF_MAILBOX_COMPRESSION_MIN_SIZE_BYTES =
+        "pinot.query.runner.mailbox.compression.min.size.bytes";
+    public static final int DEFAULT_MAILBOX_COMPRESSION_MIN_SIZE_BYTES = 64 * 1024;
+
     /**
      * Configuration for server port, port that opens and accepts
      * {@link org.apache.pinot.query.runtime.plan.DistributedStagePlan} and start executing query stages.
@@ -1966,6 +2043,14 @@ public class CommonConstants {
     public static final String KEY_OF_MAX_ROWS_IN_JOIN = "pinot.query.join.max.rows";
     public static final String KEY_OF_JOIN_OVERFLOW_MODE = "pinot.query.join.overflow.mode";
 
+    /**
+     * Configuration for join spilling. When the spill threshold is set, hash joins whose build side exceeds the
+     * threshold (estimated size in bytes) partition both inputs into files under the spill directory and join the
+     * partitions one at a time. The spill directory defaults to the JVM temporary directory.
+     */
+    public static final String KEY_OF_JOIN_SPILL_THRESHOLD_BYTES = "pinot.query.join.spill.threshold.bytes";
+    public static final String KEY_OF_JOIN_SPILL_DIR = "pinot.query.join.spill.dir";
+
     /// Specifies the send stats mode used in MSE.
     ///
     /// Valid values are (in lower or upper case):
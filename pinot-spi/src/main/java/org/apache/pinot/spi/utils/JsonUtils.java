@@ -377,7 +377,7 @@ public class JsonUtils {
    * ]
    * </pre>
    */
-  protected static List<Map<String, String>> flatten(JsonNode node, JsonIndexConfig jsonIndexConfig) {
+  public static List<Map<String, String>> flatten(JsonNode node, JsonIndexConfig jsonIndexConfig) {
     try {
       return flatten(node, jsonIndexConfig, 0, "$", false, createTree(jsonIndexConfig));
     } catch (OutOfMemoryError oom) {
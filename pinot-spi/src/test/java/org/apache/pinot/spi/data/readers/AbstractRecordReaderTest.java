@@ -140,6 +140,40 @@ public abstract class AbstractRecordReaderTest {
     Assert.assertFalse(recordReader.hasNext());
   }
 
+  /**
+   * Checks that the values read by the column readers match the values read by the record reader for all the readable
+   * columns (including a missing column).
+   */
+  protected void checkColumnReaders(ColumnarRecordReader recordReader)
+      throws Exception {
+    List<String> columns = new ArrayList<>();
+    for (FieldSpec fieldSpec : _pinotSchema.getAllFieldSpecs()) {
+      if (recordReader.isColumnReadable(fieldSpec.getName())) {
+        columns.add(fieldSpec.getName());
+      }
+    }
+    String missingColumn = "missing_column";
+    Assert.assertTrue(recordReader.isColumnReadable(missingColumn));
+    columns.add(missingColumn);
+    for (String column : columns) {
+      recordReader.rewind();
+      try (ColumnReader columnReader = recordReader.getColumnReader(column)) {
+        for (int i = 0; i < 2; i++) {
+          int numValues = 0;
+          while (columnReader.hasNext()) {
+            Assert.assertTrue(recordReader.hasNext());
+            assertValueEquals(columnReader.next(), recordReader.next().getValue(column));
+            numValues++;
+          }
+          Assert.assertEquals(numValues, _records.size());
+          Assert.assertFalse(recordReader.hasNext());
+          columnReader.rewind();
+          recordReader.rewind();
+        }
+      }
+    }
+  }
+
   private void assertValueEquals(Object actualValue, Object expectedValue) {
     if (expectedValue == null) {
       Assert.assertNull(actualValue);
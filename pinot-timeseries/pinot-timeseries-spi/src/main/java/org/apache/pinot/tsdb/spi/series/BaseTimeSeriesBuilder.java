@@ -18,6 +18,7 @@
  */
 package org.apache.pinot.tsdb.spi.series;
 
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.List;
 import javax.annotation.Nullable;
@@ -34,21 +35,21 @@ import org.apache.pinot.tsdb.spi.plan.LeafTimeSeriesPlanNode;
  */
 public abstract class BaseTimeSeriesBuilder {
   public static final List<String> UNINITIALISED_TAG_NAMES = Collections.emptyList();
-  public static final Object[] UNINITIALISED_TAG_VALUES = new Object[]{};
+  public static final String[] UNINITIALISED_TAG_VALUES = new String[0];
   protected final String _id;
   @Nullable
   protected final Long[] _timeValues;
   @Nullable
   protected final TimeBuckets _timeBuckets;
   protected final List<String> _tagNames;
-  protected final Object[] _tagValues;
+  protected final String[] _tagValues;
 
   /**
    * <b>Note:</b> The leaf stage will use {@link #UNINITIALISED_TAG_NAMES} and {@link #UNINITIALISED_TAG_VALUES} during
    * the aggregation. This is because tag values are materialized after the Combine Operator.
    */
   public BaseTimeSeriesBuilder(String id, @Nullable Long[] timeValues, @Nullable TimeBuckets timeBuckets,
-      List<String> tagNames, Object[] tagValues) {
+      List<String> tagNames, String[] tagValues) {
     _id = id;
     _timeValues = timeValues;
     _timeBuckets = timeBuckets;
@@ -56,7 +57,7 @@ public abstract class BaseTimeSeriesBuilder {
     _tagValues = tagValues;
   }
 
-  public abstract void addValueAtIndex(int timeBucketIndex, Double value);
+  public abstract void addValueAtIndex(int timeBucketIndex, double value);
 
   /**
    * This is the method called by Pinot's leaf stage to accumulate data in the series builders. Pinot's leaf stage
@@ -66,7 +67,7 @@ public abstract class BaseTimeSeriesBuilder {
    *   The rawTimeValue is in the same Time Unit as that passed to the {@link LeafTimeSeriesPlanNode}.
    * </p>
    */
-  public void addValueAtIndex(int timeBucketIndex, Double value, long rawTimeValue) {
+  public void addValueAtIndex(int timeBucketIndex, double value, long rawTimeValue) {
     addValueAtIndex(timeBucketIndex, value);
   }
 
@@ -78,16 +79,21 @@ public abstract class BaseTimeSeriesBuilder {
     addValueAtIndex(timeBucketIndex, value);
   }
 
-  public abstract void addValue(long timeValue, Double value);
+  public abstract void addValue(long timeValue, double value);
 
   /**
-   * Assumes Double[] values and attempts to merge the given series with this builder. Implementations are
-   * recommended to override this to either optimize, or add bytes[][] values from the input Series.
+   * Assumes double values and attempts to merge the non-null values of the given series with this builder.
+   * Implementations are recommended to override this to either optimize, or add bytes[][] values from the input
+   * Series.
    */
   public void mergeAlignedSeries(TimeSeries series) {
-    int numDataPoints = series.getDoubleValues().length;
+    double[] values = series.getDoubleValues();
+    BitSet nullBitmap = series.getNullBitmap();
+    int numDataPoints = values.length;
     for (int i = 0; i < numDataPoints; i++) {
-      addValueAtIndex(i, series.getDoubleValues()[i]);
+      if (!nullBitmap.get(i)) {
+        addValueAtIndex(i, values[i]);
+      }
     }
   }
 
@@ -105,5 +111,5 @@ public abstract class BaseTimeSeriesBuilder {
   /**
    * Used by the leaf stage, because the leaf stage materializes tag values very late.
    */
-  public abstract TimeSeries buildWithTagOverrides(List<String> tagNames, Object[] tagValues);
+  public abstract TimeSeries buildWithTagOverrides(List<String> tagNames, String[] tagValues);
 }
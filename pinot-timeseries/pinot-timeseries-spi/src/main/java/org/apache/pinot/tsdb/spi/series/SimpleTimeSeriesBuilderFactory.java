@@ -43,7 +43,7 @@ public class SimpleTimeSeriesBuilderFactory extends TimeSeriesBuilderFactory {
 
   @Override
   public BaseTimeSeriesBuilder newTimeSeriesBuilder(AggInfo aggInfo, String id, TimeBuckets timeBuckets,
-      List<String> tagNames, Object[] tagValues) {
+      List<String> tagNames, String[] tagValues) {
     switch (aggInfo.getAggFunction().toUpperCase()) {
       case "SUM":
         return new SummingTimeSeriesBuilder(id, timeBuckets, tagNames, tagValues);
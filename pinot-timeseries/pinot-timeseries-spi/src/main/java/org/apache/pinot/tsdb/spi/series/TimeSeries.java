@@ -19,6 +19,7 @@
 package org.apache.pinot.tsdb.spi.series;
 
 import com.google.common.base.Preconditions;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -36,8 +37,14 @@ import org.apache.pinot.tsdb.spi.TimeBuckets;
  * Using {@link TimeBuckets} is ideal when your queries are working on evenly spaced time ranges. The other option
  * exists to support use-cases such as "Instant Vectors" in PromQL.
  * <p>
- *   <b>Warning:</b> The time and value arrays passed to the Series are not copied, and can be modified by anyone with
- *   access to them. This is by design, to make it easier to re-use buffers during time-series operations.
+ *   Values are stored either as a primitive double[] with a null bitmap (see {@link #getNullBitmap()}), or as byte[][]
+ *   for series that carry serialized intermediate results. Tag values are stored as String[], and the same tag value
+ *   is expected to be shared (interned) across the series of a block.
+ * </p>
+ * <p>
+ *   <b>Warning:</b> The time and value arrays and the null bitmap passed to the Series are not copied, and can be
+ *   modified by anyone with access to them. This is by design, to make it easier to re-use buffers during time-series
+ *   operations.
  * </p>
  *
  * <h3>Series ID Usage and Semantics</h3>
@@ -53,8 +60,8 @@ import org.apache.pinot.tsdb.spi.TimeBuckets;
  *       as the key for the Map&lt;Long, List&lt;TimeSeries&gt;&gt;.
  *     </li>
  *     <li>
- *       The leaf operator creates Series IDs using the tag-values alone, stored in a Object[]. For the Map in series
- *       block, we hash the ID to a Long using {@link TimeSeries#hash(Object[])}. The Object[] array will be empty,
+ *       The leaf operator creates Series IDs using the tag-values alone, stored in a String[]. For the Map in series
+ *       block, we hash the ID to a Long using {@link TimeSeries#hash(Object[])}. The String[] array will be empty,
  *       and so will the tags and values, if you do an aggregation without any grouping set.
  *     </li>
  *     <li>
@@ -68,20 +75,42 @@ public class TimeSeries {
   private final String _id;
   private final Long[] _timeValues;
   private final TimeBuckets _timeBuckets;
-  private final Object[] _values;
+  private final double[] _doubleValues;
+  private final BitSet _nullBitmap;
+  private final byte[][] _bytesValues;
   private final List<String> _tagNames;
-  private final Object[] _tagValues;
+  private final String[] _tagValues;
 
   // TODO(timeseries): Time series may also benefit from storing extremal/outlier value traces, similar to Monarch.
-  // TODO(timeseries): It may make sense to allow types other than Double and byte[] arrays.
-  public TimeSeries(String id, @Nullable Long[] timeValues, @Nullable TimeBuckets timeBuckets, Object[] values,
-      List<String> tagNames, Object[] tagValues) {
-    Preconditions.checkArgument(values instanceof Double[] || values instanceof byte[][],
-        "Time Series can only take Double[] or byte[][] values");
+  /**
+   * Creates a series with double values.
+   *
+   * @param values Values of the series. The value at a null index is undefined.
+   * @param nullBitmap Bitmap of the indexes with null value, or {@code null} if there is no null value.
+   */
+  public TimeSeries(String id, @Nullable Long[] timeValues, @Nullable TimeBuckets timeBuckets, double[] values,
+      @Nullable BitSet nullBitmap, List<String> tagNames, String[] tagValues) {
+    _id = id;
+    _timeValues = timeValues;
+    _timeBuckets = timeBuckets;
+    _doubleValues = values;
+    _nullBitmap = nullBitmap != null ? nullBitmap : new BitSet(0);
+    _bytesValues = null;
+    _tagNames = Collections.unmodifiableList(tagNames);
+    _tagValues = tagValues;
+  }
+
+  /**
+   * Creates a series with byte[] values.
+   */
+  public TimeSeries(String id, @Nullable Long[] timeValues, @Nullable TimeBuckets timeBuckets, byte[][] values,
+      List<String> tagNames, String[] tagValues) {
     _id = id;
     _timeValues = timeValues;
     _timeBuckets = timeBuckets;
-    _values = values;
+    _doubleValues = null;
+    _nullBitmap = new BitSet(0);
+    _bytesValues = values;
     _tagNames = Collections.unmodifiableList(tagNames);
     _tagValues = tagValues;
   }
@@ -100,30 +129,56 @@ public class TimeSeries {
     return _timeBuckets;
   }
 
-  public Object[] getValues() {
-    return _values;
+  public boolean isBytesValues() {
+    return _bytesValues != null;
   }
 
-  public Double[] getDoubleValues() {
-    return (Double[]) _values;
+  public int getNumValues() {
+    return _bytesValues != null ? _bytesValues.length : _doubleValues.length;
+  }
+
+  public double[] getDoubleValues() {
+    Preconditions.checkState(_doubleValues != null, "Time series has byte[] values");
+    return _doubleValues;
+  }
+
+  /**
+   * Returns the bitmap of the indexes with null value for double values. The bitmap can be modified along with the
+   * values, e.g. to fill the null values.
+   */
+  public BitSet getNullBitmap() {
+    return _nullBitmap;
+  }
+
+  public boolean isNull(int index) {
+    return _nullBitmap.get(index);
+  }
+
+  /**
+   * Returns the double value at the given index, or {@code null} if the value is null.
+   */
+  @Nullable
+  public Double getDoubleValue(int index) {
+    return _nullBitmap.get(index) ? null : _doubleValues[index];
   }
 
   public byte[][] getBytesValues() {
-    return (byte[][]) _values;
+    Preconditions.checkState(_bytesValues != null, "Time series has double values");
+    return _bytesValues;
   }
 
   public List<String> getTagNames() {
     return _tagNames;
   }
 
-  public Object[] getTagValues() {
+  public String[] getTagValues() {
     return _tagValues;
   }
 
   public Map<String, String> getTagKeyValuesAsMap() {
     Map<String, String> result = new HashMap<>();
     for (int index = 0; index < _tagNames.size(); index++) {
-      String tagValue = _tagValues[index] == null ? "null" : _tagValues[index].toString();
+      String tagValue = _tagValues[index] == null ? "null" : _tagValues[index];
       result.put(_tagNames.get(index), tagValue);
     }
     return result;
@@ -36,7 +36,7 @@ public abstract class TimeSeriesBuilderFactory {
       String id,
       TimeBuckets timeBuckets,
       List<String> tagNames,
-      Object[] tagValues);
+      String[] tagValues);
 
   public int getMaxUniqueSeriesPerServerLimit() {
     return DEFAULT_MAX_UNIQUE_SERIES_PER_SERVER_LIMIT;
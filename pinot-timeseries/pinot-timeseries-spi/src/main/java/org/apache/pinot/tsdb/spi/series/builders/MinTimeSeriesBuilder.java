@@ -18,6 +18,7 @@
  */
 package org.apache.pinot.tsdb.spi.series.builders;
 
+import java.util.BitSet;
 import java.util.List;
 import org.apache.pinot.tsdb.spi.TimeBuckets;
 import org.apache.pinot.tsdb.spi.series.BaseTimeSeriesBuilder;
@@ -30,33 +31,40 @@ import org.apache.pinot.tsdb.spi.series.TimeSeries;
  * reduces redundancy and also serves as a reference implementation for language developers.
  */
 public class MinTimeSeriesBuilder extends BaseTimeSeriesBuilder {
-  private final Double[] _values;
+  private final double[] _values;
+  private final BitSet _nullBitmap;
 
-  public MinTimeSeriesBuilder(String id, TimeBuckets timeBuckets, List<String> tagNames, Object[] tagValues) {
+  public MinTimeSeriesBuilder(String id, TimeBuckets timeBuckets, List<String> tagNames, String[] tagValues) {
     super(id, null, timeBuckets, tagNames, tagValues);
-    _values = new Double[timeBuckets.getNumBuckets()];
+    int numBuckets = timeBuckets.getNumBuckets();
+    _values = new double[numBuckets];
+    _nullBitmap = new BitSet(numBuckets);
+    _nullBitmap.set(0, numBuckets);
   }
 
   @Override
-  public void addValueAtIndex(int timeBucketIndex, Double value) {
-    if (value != null && (_values[timeBucketIndex] == null || value < _values[timeBucketIndex])) {
+  public void addValueAtIndex(int timeBucketIndex, double value) {
+    if (_nullBitmap.get(timeBucketIndex)) {
+      _values[timeBucketIndex] = value;
+      _nullBitmap.clear(timeBucketIndex);
+    } else if (value < _values[timeBucketIndex]) {
       _values[timeBucketIndex] = value;
     }
   }
 
   @Override
-  public void addValue(long timeValue, Double value) {
+  public void addValue(long timeValue, double value) {
     int timeBucketIndex = _timeBuckets.resolveIndex(timeValue);
     addValueAtIndex(timeBucketIndex, value);
   }
 
   @Override
   public TimeSeries build() {
-    return new TimeSeries(_id, null, _timeBuckets, _values, _tagNames, _tagValues);
+    return new TimeSeries(_id, null, _timeBuckets, _values, _nullBitmap, _tagNames, _tagValues);
   }
 
   @Override
-  public TimeSeries buildWithTagOverrides(List<String> tagNames, Object[] tagValues) {
-    return new TimeSeries(_id, null, _timeBuckets, _values, tagNames, tagValues);
+  public TimeSeries buildWithTagOverrides(List<String> tagNames, String[] tagValues) {
+    return new TimeSeries(_id, null, _timeBuckets, _values, _nullBitmap, tagNames, tagValues);
   }
 }
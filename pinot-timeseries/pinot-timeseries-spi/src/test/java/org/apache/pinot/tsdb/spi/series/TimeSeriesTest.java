@@ -19,6 +19,7 @@
 package org.apache.pinot.tsdb.spi.series;
 
 import java.time.Duration;
+import java.util.BitSet;
 import java.util.Collections;
 import org.apache.pinot.tsdb.spi.TimeBuckets;
 import org.testng.annotations.Test;
@@ -31,24 +32,37 @@ public class TimeSeriesTest {
 
   @Test
   public void testTimeSeriesAcceptsDoubleValues() {
-    Double[] values = new Double[10];
-    TimeSeries timeSeries = new TimeSeries("anything", null, TIME_BUCKETS, values, Collections.emptyList(),
-        new Object[0]);
-    assertEquals(timeSeries.getDoubleValues(), values);
+    double[] values = new double[10];
+    BitSet nullBitmap = new BitSet();
+    nullBitmap.set(3);
+    TimeSeries timeSeries = new TimeSeries("anything", null, TIME_BUCKETS, values, nullBitmap, Collections.emptyList(),
+        new String[0]);
+    assertSame(timeSeries.getDoubleValues(), values);
+    assertFalse(timeSeries.isBytesValues());
+    assertEquals(timeSeries.getNumValues(), 10);
+    assertTrue(timeSeries.isNull(3));
+    assertNull(timeSeries.getDoubleValue(3));
+    assertEquals(timeSeries.getDoubleValue(4), 0.0);
+    assertThrows(IllegalStateException.class, timeSeries::getBytesValues);
+  }
+
+  @Test
+  public void testTimeSeriesWithoutNullBitmap() {
+    double[] values = new double[]{1.0, 2.0};
+    TimeSeries timeSeries = new TimeSeries("anything", null, TIME_BUCKETS, values, null, Collections.emptyList(),
+        new String[0]);
+    assertTrue(timeSeries.getNullBitmap().isEmpty());
+    assertEquals(timeSeries.getDoubleValue(1), 2.0);
   }
 
   @Test
   public void testTimeSeriesAcceptsBytesValues() {
     byte[][] byteValues = new byte[10][1231];
     TimeSeries timeSeries = new TimeSeries("anything", null, TIME_BUCKETS, byteValues, Collections.emptyList(),
-        new Object[0]);
-    assertEquals(timeSeries.getBytesValues(), byteValues);
-  }
-
-  @Test(expectedExceptions = IllegalArgumentException.class)
-  public void testTimeSeriesDeniesWhenValuesNotDoubleOrBytes() {
-    Object[] someValues = new Long[10];
-    TimeSeries timeSeries = new TimeSeries("anything", null, TIME_BUCKETS, someValues, Collections.emptyList(),
-        new Object[0]);
+        new String[0]);
+    assertSame(timeSeries.getBytesValues(), byteValues);
+    assertTrue(timeSeries.isBytesValues());
+    assertEquals(timeSeries.getNumValues(), 10);
+    assertThrows(IllegalStateException.class, timeSeries::getDoubleValues);
   }
 }